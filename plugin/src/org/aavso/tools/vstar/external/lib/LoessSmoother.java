@@ -0,0 +1,379 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2013 AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.external.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.aavso.tools.vstar.exception.AlgorithmError;
+
+/**
+ * A Loess (local regression) smoother over sorted primitive arrays.
+ * 
+ * This computes the same smoothed values as Apache Commons Math's
+ * LoessInterpolator.smooth(), i.e. a locally weighted linear regression over
+ * a sliding window of bandwidth * n nearest neighbours with tricube distance
+ * weights, followed by robustness iterations that down-weight outliers
+ * (Cleveland 1979). However, the neighbour windows are found in a single
+ * linear pass and then the local regressions, which dominate the cost, are
+ * computed in parallel chunks. So are the robustness weights of each
+ * iteration.
+ * 
+ * Each instance smooths a single series; every call to smooth() fits all of
+ * its points.
+ */
+public class LoessSmoother {
+
+	public static final double DEFAULT_BANDWIDTH = 0.3;
+	public static final int DEFAULT_ROBUSTNESS_ITERS = 2;
+
+	private static final double ACCURACY = 1e-12;
+
+	// Series with fewer points than this per thread are smoothed on the
+	// calling thread.
+	private static final int MIN_POINTS_PER_THREAD = 2048;
+
+	private final double bandwidth;
+	private final int robustnessIters;
+
+	private final double[] xs;
+	private final double[] ys;
+
+	// The number of points in each window, the index of the leftmost point of
+	// each point's window and the robustness weights used in the current
+	// pass.
+	private int bandwidthInPoints;
+	private int[] lefts;
+	private double[] robustnessWeights;
+
+	/**
+	 * Constructor with default bandwidth and robustness iterations.
+	 * 
+	 * @param xs
+	 *            The domain values, in strictly increasing order.
+	 * @param ys
+	 *            The values to be smoothed.
+	 */
+	public LoessSmoother(double[] xs, double[] ys) {
+		this(xs, ys, DEFAULT_BANDWIDTH, DEFAULT_ROBUSTNESS_ITERS);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param xs
+	 *            The domain values, in strictly increasing order.
+	 * @param ys
+	 *            The values to be smoothed.
+	 * @param bandwidth
+	 *            The fraction of points in each local regression window, in
+	 *            the range (0, 1].
+	 * @param robustnessIters
+	 *            The number of robustness iterations.
+	 */
+	public LoessSmoother(double[] xs, double[] ys, double bandwidth,
+			int robustnessIters) {
+		if (xs.length != ys.length) {
+			throw new IllegalArgumentException(
+					"Domain and value array lengths differ");
+		}
+
+		if (bandwidth <= 0 || bandwidth > 1) {
+			throw new IllegalArgumentException("Invalid bandwidth: "
+					+ bandwidth);
+		}
+
+		if (robustnessIters < 0) {
+			throw new IllegalArgumentException(
+					"Invalid number of robustness iterations: "
+							+ robustnessIters);
+		}
+
+		for (int i = 1; i < xs.length; i++) {
+			if (xs[i] <= xs[i - 1]) {
+				throw new IllegalArgumentException(
+						"Domain values are not strictly increasing");
+			}
+		}
+
+		this.xs = xs;
+		this.ys = ys;
+		this.bandwidth = bandwidth;
+		this.robustnessIters = robustnessIters;
+	}
+
+	/**
+	 * Fit all points.
+	 * 
+	 * @return The smoothed values.
+	 * @throws AlgorithmError
+	 *             if the bandwidth is too small for the number of points or
+	 *             the fit is interrupted.
+	 */
+	public double[] smooth() throws AlgorithmError {
+		double[] smoothed;
+
+		int n = xs.length;
+
+		bandwidthInPoints = (int) (bandwidth * n);
+		robustnessWeights = new double[n];
+		Arrays.fill(robustnessWeights, 1);
+
+		if (n <= 2) {
+			// Nothing to smooth.
+			smoothed = Arrays.copyOf(ys, n);
+		} else {
+			if (bandwidthInPoints < 2) {
+				throw new AlgorithmError(
+						"Loess bandwidth must accommodate at least 2 points");
+			}
+
+			lefts = findWindows(xs, bandwidthInPoints);
+
+			double[] res = new double[n];
+			double[] residuals = new double[n];
+
+			ExecutorService executor = createExecutor(n);
+
+			try {
+				for (int iter = 0; iter <= robustnessIters; iter++) {
+					regress(executor, res, residuals);
+
+					if (iter == robustnessIters) {
+						break;
+					}
+
+					double[] sortedResiduals = Arrays.copyOf(residuals, n);
+					Arrays.sort(sortedResiduals);
+					double medianResidual = sortedResiduals[n / 2];
+
+					if (Math.abs(medianResidual) < ACCURACY) {
+						break;
+					}
+
+					updateRobustnessWeights(executor, residuals,
+							medianResidual);
+				}
+			} finally {
+				if (executor != null) {
+					executor.shutdown();
+				}
+			}
+
+			smoothed = res;
+		}
+
+		return smoothed;
+	}
+
+	// Helpers
+
+	// Find the leftmost index of each point's window of the specified number
+	// of nearest neighbours. As for LoessInterpolator, the window slides
+	// right by at most one point per point.
+	private static int[] findWindows(double[] xs, int bandwidthInPoints) {
+		int[] lefts = new int[xs.length];
+
+		int left = 0;
+		int right = bandwidthInPoints - 1;
+
+		for (int i = 1; i < xs.length; i++) {
+			if (right < xs.length - 1
+					&& xs[right + 1] - xs[i] < xs[i] - xs[left]) {
+				left++;
+				right++;
+			}
+			lefts[i] = left;
+		}
+
+		return lefts;
+	}
+
+	// Compute the local regressions for all points, in parallel chunks if an
+	// executor is given.
+	private void regress(ExecutorService executor, final double[] res,
+			final double[] residuals) throws AlgorithmError {
+
+		forEachChunk(executor, xs.length, new ChunkTask() {
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					res[i] = regress(i);
+					residuals[i] = Math.abs(ys[i] - res[i]);
+				}
+			}
+		});
+	}
+
+	// Compute the local regression for the specified point, exactly as
+	// LoessInterpolator does.
+	private double regress(int i) {
+		double x = xs[i];
+
+		int left = lefts[i];
+		int right = left + bandwidthInPoints - 1;
+		int edge = x - xs[left] > xs[right] - x ? left : right;
+
+		double sumWeights = 0;
+		double sumX = 0;
+		double sumXSquared = 0;
+		double sumY = 0;
+		double sumXY = 0;
+		double denom = Math.abs(1.0 / (xs[edge] - x));
+
+		for (int k = left; k <= right; k++) {
+			double xk = xs[k];
+			double yk = ys[k];
+			double dist = k < i ? x - xk : xk - x;
+			double w = tricube(dist * denom) * robustnessWeights[k];
+			double xkw = xk * w;
+			sumWeights += w;
+			sumX += xkw;
+			sumXSquared += xk * xkw;
+			sumY += yk * w;
+			sumXY += yk * xkw;
+		}
+
+		double meanX = sumX / sumWeights;
+		double meanY = sumY / sumWeights;
+		double meanXY = sumXY / sumWeights;
+		double meanXSquared = sumXSquared / sumWeights;
+
+		double beta;
+		if (Math.sqrt(Math.abs(meanXSquared - meanX * meanX)) < ACCURACY) {
+			beta = 0;
+		} else {
+			beta = (meanXY - meanX * meanY) / (meanXSquared - meanX * meanX);
+		}
+
+		double alpha = meanY - beta * meanX;
+
+		return beta * x + alpha;
+	}
+
+	// Compute bisquare robustness weights from the residuals.
+	private void updateRobustnessWeights(ExecutorService executor,
+			final double[] residuals, final double medianResidual)
+			throws AlgorithmError {
+
+		forEachChunk(executor, residuals.length, new ChunkTask() {
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					double arg = residuals[i] / (6 * medianResidual);
+					if (arg >= 1) {
+						robustnessWeights[i] = 0;
+					} else {
+						double w = 1 - arg * arg;
+						robustnessWeights[i] = w * w;
+					}
+				}
+			}
+		});
+	}
+
+	private static double tricube(double x) {
+		double tricube = 0;
+
+		double absX = Math.abs(x);
+		if (absX < 1) {
+			double tmp = 1 - absX * absX * absX;
+			tricube = tmp * tmp * tmp;
+		}
+
+		return tricube;
+	}
+
+	// A task over a chunk [from, to) of an index range.
+	private interface ChunkTask {
+		abstract public void run(int from, int to);
+	}
+
+	// Run the task over [0, count), split into one chunk per thread of the
+	// executor, or on the calling thread if there is no executor.
+	private static void forEachChunk(ExecutorService executor, final int count,
+			final ChunkTask task) throws AlgorithmError {
+
+		if (executor == null) {
+			task.run(0, count);
+		} else {
+			int chunks = threadCount(count);
+			int chunkSize = (count + chunks - 1) / chunks;
+
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+
+			for (int from = 0; from < count; from += chunkSize) {
+				final int start = from;
+				final int end = Math.min(from + chunkSize, count);
+
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						task.run(start, end);
+						return null;
+					}
+				}));
+			}
+
+			try {
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AlgorithmError("Loess fit interrupted");
+			} catch (ExecutionException e) {
+				throw new AlgorithmError(e.getCause().getLocalizedMessage());
+			}
+		}
+	}
+
+	private static int threadCount(int count) {
+		return Math.max(1, Math.min(count / MIN_POINTS_PER_THREAD, Runtime
+				.getRuntime().availableProcessors()));
+	}
+
+	// Returns an executor for the specified number of points, or null if
+	// they are too few to be worth smoothing in parallel.
+	private static ExecutorService createExecutor(int count) {
+		ExecutorService executor = null;
+
+		int threads = threadCount(count);
+
+		if (threads > 1) {
+			executor = Executors.newFixedThreadPool(threads,
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "VStar Loess fit");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+
+		return executor;
+	}
+}
@@ -44,6 +44,7 @@ import org.aavso.tools.vstar.ui.mediator.StarInfo;
 import org.apache.commons.math.stat.descriptive.rank.Median;
 
 import nom.tam.fits.BasicHDU;
+import nom.tam.fits.BinaryTable;
 import nom.tam.fits.BinaryTableHDU;
 import nom.tam.fits.Fits;
 import nom.tam.fits.FitsException;
@@ -84,16 +85,32 @@ public abstract class TESSObservationRetrieverBase extends AbstractObservationRe
         }
     }
 
-    private class RawObservationData {
-        int row;
-        double time;
-        double intensity;
-        double error;
-        Integer quality;
+    /**
+     * The observations read from a single FITS file, as primitive columns.
+     */
+    private class FileObservations {
+        String objName;
+        SeriesType seriesType;
+        double refMag;
+        String refMagDescription;
+        boolean hasQuality;
+
+        // Columns of valid observations only.
+        int[] rows;
+        double[] times;
+        double[] fluxes;
+        double[] mags;
+        double[] magErrs;
+        int[] qualities;
+
+        List<InvalidObservation> invalidObs = new ArrayList<InvalidObservation>();
     }
 
     private List<BasicHDU[]> hdusList = null;
 
+    // The input name corresponding to each element of hdusList.
+    private List<String> hdusNames = null;
+
     private String objName = null;
 
     private ObservationSourcePluginBase hostPlugin;
@@ -102,6 +119,7 @@ public abstract class TESSObservationRetrieverBase extends AbstractObservationRe
         super(hostPlugin.getVelaFilterStr());
         this.hostPlugin = hostPlugin;
         this.hdusList = new ArrayList<BasicHDU[]>();
+        this.hdusNames = new ArrayList<String>();
     }
 
     /**
@@ -151,19 +169,21 @@ public abstract class TESSObservationRetrieverBase extends AbstractObservationRe
 
         setJDflavour(JDflavour.BJD);
 
-        // BasicHDU initialization occurs in getNumberOfRecords
-        for (int i = 0; i < hdusList.size(); i++) {
+        // BasicHDU initialization occurs in getNumberOfRecords.
+        // Each file's columns are read and converted to magnitudes, then
+        // its observations are collected. Multiple files are loaded in
+        // parallel by ParallelObservationRetriever, one retriever per file.
+        for (int i = 0; i < hdusList.size() && !wasInterrupted(); i++) {
             try {
-                retrieveObservations(hdusList.get(i));
+                collectObservations(readObservations(hdusList.get(i)));
             } catch (Exception e) {
-                InputStream stream = hostPlugin.getInputStreams().get(i);
-                String inputName = hostPlugin.nameFromStream(stream);
-                MessageBox.showErrorDialog("FITS Read Error", String.format("Not a valid FITS file: %s", inputName));
+                MessageBox.showErrorDialog("FITS Read Error",
+                        String.format("Not a valid FITS file: %s", hdusNames.get(i)));
             }
         }
     }
 
-    private void retrieveObservations(BasicHDU[] hdus) throws FitsException, ObservationReadError {
+    private FileObservations readObservations(BasicHDU[] hdus) throws FitsException, ObservationReadError {
 
         if (!validateFITS(hdus)) {
             throw new ObservationReadError();
@@ -172,18 +192,17 @@ public abstract class TESSObservationRetrieverBase extends AbstractObservationRe
         // KEPLER, TESS, QLP and LightKurve FITS
         if (hdus.length > 1 && hdus[0] instanceof ImageHDU && hdus[1] instanceof BinaryTableHDU) {
 
-            // Lists to store observations before median level adjust
-            List<RawObservationData> rawObsList = new ArrayList<RawObservationData>();
-            List<InvalidObservation> invalidObsList = new ArrayList<InvalidObservation>();
+            FileObservations fileObs = new FileObservations();
 
             ImageHDU imageHDU = (ImageHDU) hdus[0];
 
-            objName = imageHDU.getObject();
-            SeriesType seriesType = getSeriesType(hdus);
-            double refMag = getRefMagnitude(hdus);
-            String refMagDescription = getRefMagnitudeDescription(hdus);
+            fileObs.objName = imageHDU.getObject();
+            fileObs.seriesType = getSeriesType(hdus);
+            fileObs.refMag = getRefMagnitude(hdus);
+            fileObs.refMagDescription = getRefMagnitudeDescription(hdus);
 
             BinaryTableHDU tableHDU = (BinaryTableHDU) hdus[1];
+            BinaryTable table = (BinaryTable) tableHDU.getData();
 
             int timeColumn = getColumnIndex(hdus, BinaryTableFieldType.TIME);
             int fluxColumn = getColumnIndex(hdus, BinaryTableFieldType.FLUX);
@@ -195,102 +214,121 @@ public abstract class TESSObservationRetrieverBase extends AbstractObservationRe
                 throw new ObservationReadError("Cannot find determine reference epoch");
             }
 
-            for (int row = 0; row < tableHDU.getNRows() && !wasInterrupted(); row++) {
-                try {
-                    double barytime = ((double[]) tableHDU.getElement(row, timeColumn))[0];
-                    double bjd = barytime + timeRef;
+            // Read whole columns at once rather than element by element.
+            int nRows = tableHDU.getNRows();
 
-                    float flux = ((float[]) tableHDU.getElement(row, fluxColumn))[0];
-                    float flux_err = 0;
-                    if (fluxErrColumn >= 0) {
-                        flux_err = ((float[]) tableHDU.getElement(row, fluxErrColumn))[0];
-                    }
-                    Integer qualityFlags = null;
-                    if (qalityFlagsColumn >= 0) {
-                        qualityFlags = ((int[]) tableHDU.getElement(row, qalityFlagsColumn))[0];
-                    }
+            double[] times = toDoubleArray(table.getFlattenedColumn(timeColumn));
+            double[] fluxes = toDoubleArray(table.getFlattenedColumn(fluxColumn));
+            double[] fluxErrs = fluxErrColumn >= 0 ? toDoubleArray(table.getFlattenedColumn(fluxErrColumn))
+                    : new double[nRows];
+            int[] qualities = qalityFlagsColumn >= 0 ? toIntArray(table.getFlattenedColumn(qalityFlagsColumn))
+                    : null;
 
-                    if (!Float.isInfinite(flux) && !Float.isInfinite(flux_err) && !Float.isNaN(flux)
-                            && !Float.isNaN(flux_err) && (flux > 0)) {
-                        RawObservationData rawObs = new RawObservationData();
-                        rawObs.row = row;
-                        rawObs.time = bjd;
-                        rawObs.intensity = flux;
-                        rawObs.error = flux_err;
-                        rawObs.quality = qualityFlags;
-
-                        rawObsList.add(rawObs);
-                    } else {
-                        throw new ObservationReadErrorFITS("Invalid flux or flux error", bjd, flux, flux_err);
-                    }
-                } catch (Exception e) {
-                    String input;
-                    if (e instanceof ObservationReadErrorFITS) {
-                        input = String.format(Locale.ENGLISH, "Time = %f, Flux = %f, Flux error = %f",
-                                ((ObservationReadErrorFITS) e).getTime(), ((ObservationReadErrorFITS) e).getFlux(),
-                                ((ObservationReadErrorFITS) e).getFluxError());
-                    } else {
-                        input = "";
-                    }
-                    String error = e.getLocalizedMessage();
-                    InvalidObservation ob = new InvalidObservation(input, error);
+            fileObs.hasQuality = qualities != null;
+
+            // Determine which rows are valid, recording the rest as invalid.
+            boolean[] valid = new boolean[nRows];
+            int validCount = 0;
+
+            for (int row = 0; row < nRows && !wasInterrupted(); row++) {
+                double bjd = times[row] + timeRef;
+                double flux = fluxes[row];
+                double flux_err = fluxErrs[row];
+
+                if (!Double.isInfinite(flux) && !Double.isInfinite(flux_err) && !Double.isNaN(flux)
+                        && !Double.isNaN(flux_err) && (flux > 0)) {
+                    valid[row] = true;
+                    validCount++;
+                } else {
+                    String input = String.format(Locale.ENGLISH, "Time = %f, Flux = %f, Flux error = %f", bjd,
+                            flux, flux_err);
+                    InvalidObservation ob = new InvalidObservation(input, "Invalid flux or flux error");
                     ob.setRecordNumber(row);
-                    invalidObsList.add(ob);
+                    fileObs.invalidObs.add(ob);
+                }
+            }
+
+            fileObs.rows = new int[validCount];
+            fileObs.times = new double[validCount];
+            fileObs.fluxes = new double[validCount];
+            double[] errors = new double[validCount];
+            fileObs.qualities = fileObs.hasQuality ? new int[validCount] : null;
+
+            for (int row = 0, i = 0; i < validCount; row++) {
+                if (valid[row]) {
+                    fileObs.rows[i] = row;
+                    fileObs.times[i] = times[row] + timeRef;
+                    fileObs.fluxes[i] = fluxes[row];
+                    errors[i] = fluxErrs[row];
+                    if (fileObs.hasQuality) {
+                        fileObs.qualities[i] = qualities[row];
+                    }
+                    i++;
                 }
             }
 
             // Calculating magShift (median of all points)
             double magShift = 15.0; // arbitrary value
-            if (refMag != INVALID_MAG) {
-                double flux[] = new double[rawObsList.size()];
-                for (int i = 0; i < rawObsList.size(); i++) {
-                    flux[i] = rawObsList.get(i).intensity;
-                }
+            if (fileObs.refMag != INVALID_MAG) {
                 Median median = new Median();
-                double median_flux = median.evaluate(flux);
+                double median_flux = median.evaluate(fileObs.fluxes);
                 double median_inst_mag = -2.5 * Math.log10(median_flux);
-                magShift = refMag - median_inst_mag;
+                magShift = fileObs.refMag - median_inst_mag;
             }
 
-            for (RawObservationData rawObs : rawObsList) {
-                double mag = magShift - 2.5 * Math.log10(rawObs.intensity);
-                double magErr = 1.086 * rawObs.error / rawObs.intensity;
+            // Convert fluxes to magnitudes over whole columns.
+            fileObs.mags = new double[validCount];
+            fileObs.magErrs = new double[validCount];
 
-                ValidObservation ob = new ValidObservation();
-                if (objName != null && !"".equals(objName.trim())) {
-                    ob.setName(objName);
-                } else {
-                    ob.setName(hostPlugin.getInputName());
-                }
-                ob.setDateInfo(new DateInfo(rawObs.time));
-                ob.setMagnitude(new Magnitude(mag, magErr));
-                ob.setBand(seriesType);
-                ob.setRecordNumber(rawObs.row);
-                if (refMagDescription != null && refMag != INVALID_MAG) {
-                    ob.addDetail("HEADER_MAG", refMag, refMagDescription);
-                }
-                ;
-                ob.addDetail("FLUX", rawObs.intensity, "Flux");
-                if (qalityFlagsColumn >= 0 && rawObs.quality != null) {
-                    ob.addDetail("QUALITY", rawObs.quality, "Quality");
-                }
-                collectObservation(ob);
-                incrementProgress();
+            for (int i = 0; i < validCount; i++) {
+                fileObs.mags[i] = magShift - 2.5 * Math.log10(fileObs.fluxes[i]);
+                fileObs.magErrs[i] = 1.086 * errors[i] / fileObs.fluxes[i];
             }
 
-            for (InvalidObservation ob : invalidObsList) {
-                addInvalidObservation(ob);
-                incrementProgress();
-            }
+            return fileObs;
         } else {
             throw new ObservationReadError();
         }
     }
 
+    private void collectObservations(FileObservations fileObs) throws ObservationReadError {
+
+        objName = fileObs.objName;
+
+        String name = objName;
+        if (name == null || "".equals(name.trim())) {
+            name = hostPlugin.getInputName();
+        }
+
+        for (int i = 0; i < fileObs.rows.length && !wasInterrupted(); i++) {
+            ValidObservation ob = new ValidObservation();
+            ob.setName(name);
+            ob.setDateInfo(new DateInfo(fileObs.times[i]));
+            ob.setMagnitude(new Magnitude(fileObs.mags[i], fileObs.magErrs[i]));
+            ob.setBand(fileObs.seriesType);
+            ob.setRecordNumber(fileObs.rows[i]);
+            if (fileObs.refMagDescription != null && fileObs.refMag != INVALID_MAG) {
+                ob.addDetail("HEADER_MAG", fileObs.refMag, fileObs.refMagDescription);
+            }
+            ob.addDetail("FLUX", fileObs.fluxes[i], "Flux");
+            if (fileObs.hasQuality) {
+                ob.addDetail("QUALITY", fileObs.qualities[i], "Quality");
+            }
+            collectObservation(ob);
+            incrementProgress();
+        }
+
+        for (InvalidObservation ob : fileObs.invalidObs) {
+            addInvalidObservation(ob);
+            incrementProgress();
+        }
+    }
+
     @Override
     public Integer getNumberOfRecords() throws ObservationReadError {
 
         hdusList.clear();
+        hdusNames.clear();
 
         for (InputStream fitsStream : hostPlugin.getInputStreams()) {
             try {
@@ -298,6 +336,7 @@ public abstract class TESSObservationRetrieverBase extends AbstractObservationRe
                 BasicHDU[] hdus = fits.read();
                 if (hdus.length > 1 && hdus[1] instanceof BinaryTableHDU) {
                     hdusList.add(hdus);
+                    hdusNames.add(hostPlugin.nameFromStream(fitsStream));
                 } else {
                     String msg =
                             String.format("Not a valid FITS file: %s",
@@ -335,4 +374,52 @@ public abstract class TESSObservationRetrieverBase extends AbstractObservationRe
         return new StarInfo(this, name);
     }
 
+    // Helpers
+
+    private static double[] toDoubleArray(Object column) throws FitsException {
+        double[] values;
+
+        if (column instanceof double[]) {
+            values = (double[]) column;
+        } else if (column instanceof float[]) {
+            float[] floats = (float[]) column;
+            values = new double[floats.length];
+            for (int i = 0; i < floats.length; i++) {
+                values[i] = floats[i];
+            }
+        } else {
+            int[] ints = toIntArray(column);
+            values = new double[ints.length];
+            for (int i = 0; i < ints.length; i++) {
+                values[i] = ints[i];
+            }
+        }
+
+        return values;
+    }
+
+    private static int[] toIntArray(Object column) throws FitsException {
+        int[] values;
+
+        if (column instanceof int[]) {
+            values = (int[]) column;
+        } else if (column instanceof short[]) {
+            short[] shorts = (short[]) column;
+            values = new int[shorts.length];
+            for (int i = 0; i < shorts.length; i++) {
+                values[i] = shorts[i];
+            }
+        } else if (column instanceof byte[]) {
+            byte[] bytes = (byte[]) column;
+            values = new int[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                values[i] = bytes[i];
+            }
+        } else {
+            throw new FitsException("Unsupported column type: "
+                    + (column == null ? null : column.getClass().getSimpleName()));
+        }
+
+        return values;
+    }
 }
@@ -18,13 +18,9 @@
 package org.aavso.tools.vstar.external.lib;
 
 import java.awt.Color;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 
 import org.aavso.tools.vstar.data.DateInfo;
@@ -41,6 +37,7 @@ import org.aavso.tools.vstar.data.validation.UncertaintyValueValidator;
 import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.exception.ObservationValidationError;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.text.MappedTextTokenizer;
 import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
 
 /**
@@ -82,11 +79,19 @@ public abstract class ZTFObSourceBase extends ObservationSourcePluginBase {
 		private Map<String, Integer> fieldIndices;
 		
 		//private String obscode = "ZTF";
-		private String delimiter = null;
 		//private String objectName;
 		private HashSet<String> ztfObjects;
 		
-		private List<String> lines;
+		private MappedTextTokenizer tokenizer;
+
+		private int oidIndex;
+		private int hjdIndex;
+		private int magIndex;
+		private int magerrIndex;
+		private int catflagsIndex;
+		private int filtercodeIndex;
+		private int exptimeIndex;
+		private int airmassIndex;
 
 		private JulianDayValidator julianDayValidator;
 		private MagnitudeFieldValidator magnitudeFieldValidator;
@@ -120,65 +125,65 @@ public abstract class ZTFObSourceBase extends ObservationSourcePluginBase {
 
 			setJDflavour(JDflavour.HJD);
 
-			if (lines.size() == 0) {
-				return;
-			}
-			
-			boolean headerFound = false;
-			
-			String firstError = null;
-			for (int i = 0; i < lines.size(); i++) {
-				String line = lines.get(i);
-				if (line != null) {
-					line = line.trim();
-					if (!"".equals(line)) {
+			try {
+				openTokenizer();
+
+				if (tokenizer.getSize() == 0) {
+					return;
+				}
+
+				boolean headerFound = false;
+
+				String firstError = null;
+				while (tokenizer.nextLine()) {
+					if (!tokenizer.isBlankLine()) {
 						if (headerFound) {
+							int recordNumber = tokenizer.getLineNumber();
 							try {
-								ValidObservation vo = readNextObservation(line.split(delimiter), i + 1);
+								ValidObservation vo = readNextObservation(recordNumber);
 								collectObservation(vo);
 							} catch (Exception e) {
 								// Create an invalid observation.
 								String error = e.getLocalizedMessage();
 								if (firstError == null) firstError = error;
-								InvalidObservation ob = new InvalidObservation(line, error);
-								ob.setRecordNumber(i + 1);
+								InvalidObservation ob = new InvalidObservation(tokenizer.getLine().trim(), error);
+								ob.setRecordNumber(recordNumber);
 								addInvalidObservation(ob);
 							}
 						} else {
-							headerFound = checkForHeaderAndFillFieldIndices(line);
+							headerFound = checkForHeaderAndFillFieldIndices();
 						}
 					}
+					incrementTokenizerProgress();
 				}
-				incrementProgress();
-			}
-			
-			if (!headerFound)
-				throw new ObservationReadError("Cannot find ZTF header");
-			
-			if (validObservations.size() == 0 && firstError != null) {
-				throw new ObservationReadError("No observations found. The first error message:\n" + firstError);
+
+				if (!headerFound)
+					throw new ObservationReadError("Cannot find ZTF header");
+
+				if (validObservations.size() == 0 && firstError != null) {
+					throw new ObservationReadError("No observations found. The first error message:\n" + firstError);
+				}
+			} catch (IOException e) {
+				throw new ObservationReadError(e.getLocalizedMessage());
 			}
-			
 		}
 		
-		private boolean checkForHeaderAndFillFieldIndices(String line) {
-			String localDelim = "\t";
-			if (checkForHeaderAndFillFieldIndices(line.split(localDelim))) {
-				delimiter = localDelim;
-				return true;
-			} else {
-				localDelim = ",";
-				if (checkForHeaderAndFillFieldIndices(line.split(localDelim))) {
-					delimiter = localDelim;
+		// Try tab, then comma delimiters. Fields are trimmed, which also
+		// covers the " *\t" delimiter that occurs when the user copies data
+		// from an HTML table generated via VSX "External Links" ZTF.
+		private boolean checkForHeaderAndFillFieldIndices() {
+			for (char delimiter : new char[] { '\t', ',' }) {
+				tokenizer.setDelimiter(delimiter);
+				if (checkForHeaderAndFillFieldIndices(tokenizer.getFieldStrings())) {
+					oidIndex = fieldIndices.get("oid");
+					hjdIndex = fieldIndices.get("hjd");
+					magIndex = fieldIndices.get("mag");
+					magerrIndex = fieldIndices.get("magerr");
+					catflagsIndex = fieldIndices.get("catflags");
+					filtercodeIndex = fieldIndices.get("filtercode");
+					exptimeIndex = fieldIndices.get("exptime");
+					airmassIndex = fieldIndices.get("airmass");
 					return true;
-				} else {
-					// This special delimiter occurs when the user copies data from an HTML table generated via VSX "External Links" ZTF
-					//localDelim = "\s*\t";
-					localDelim = " *\t";
-					if (checkForHeaderAndFillFieldIndices(line.split(localDelim))) {
-						delimiter = localDelim;
-						return true;
-					}
 				}
 			}
 			return false;
@@ -207,55 +212,49 @@ public abstract class ZTFObSourceBase extends ObservationSourcePluginBase {
 		
 		@Override
 		public Integer getNumberOfRecords() throws ObservationReadError {
-			if (lines == null) {
-				try {
-					readLines();
-				} catch (IOException e) {
-					throw new ObservationReadError("Error reading lines");
-				}
+			try {
+				openTokenizer();
+			} catch (IOException e) {
+				throw new ObservationReadError("Error reading lines");
 			}
 
-			return lines.size();
+			return getTokenizerRecordCount();
 		}
 
-		// Read all lines from the source.
-		private void readLines() throws IOException {
-			lines = new ArrayList<String>();
-			BufferedReader reader = new BufferedReader(new InputStreamReader(getInputStreams().get(0)));
-			String line;
-			while ((line = reader.readLine()) != null) {
-				lines.add(line);
+		// Open a tokenizer over the source if not already open.
+		private void openTokenizer() throws IOException {
+			if (tokenizer == null) {
+				tokenizer = openTokenizer(getInputStreams().get(0));
 			}
 		}
 
 		// ZTF format observation reader.
-		private ValidObservation readNextObservation(String[] fields, int recordNumber)
+		private ValidObservation readNextObservation(int recordNumber)
 				throws ObservationValidationError {
 
 			ValidObservation observation = new ValidObservation();
 
-			String name = fields[fieldIndices.get("oid")].trim();
+			String name = tokenizer.getFieldString(oidIndex);
 			ztfObjects.add(name);
 
 			observation.setRecordNumber(recordNumber);
 			observation.setName(name);
 			//observation.setObsCode(obscode);
 
-			DateInfo dateInfo = new DateInfo(julianDayValidator.validate(fields[fieldIndices.get("hjd")].trim()).getJulianDay());
+			DateInfo dateInfo = new DateInfo(julianDayValidator.validate(tokenizer.getField(hjdIndex)).getJulianDay());
 			observation.setDateInfo(dateInfo);
 
-			Magnitude magnitude = magnitudeFieldValidator.validate(fields[fieldIndices.get("mag")].trim());
+			Magnitude magnitude = magnitudeFieldValidator.validate(tokenizer.getField(magIndex));
 			observation.setMagnitude(magnitude);
-			double uncertainty = uncertaintyValueValidator.validate(fields[fieldIndices.get("magerr")].trim());
+			double uncertainty = uncertaintyValueValidator.validate(tokenizer.getField(magerrIndex));
 			observation.getMagnitude().setUncertainty(uncertainty);
 
-			String filter = fields[fieldIndices.get("filtercode")].trim();
 			SeriesType band;
-			if (filter.equals("zg")) {
+			if (tokenizer.fieldEquals(filtercodeIndex, "zg")) {
 				band = ztfgSeries;
-			} else if (filter.equals("zr")) {
+			} else if (tokenizer.fieldEquals(filtercodeIndex, "zr")) {
 				band = ztfrSeries;
-			} else if (filter.equals("zi")) {
+			} else if (tokenizer.fieldEquals(filtercodeIndex, "zi")) {
 				band = ztfiSeries;
 			} else {
 				band = ztfUnknownSeries;
@@ -267,9 +266,9 @@ public abstract class ZTFObSourceBase extends ObservationSourcePluginBase {
 
 			//observation.setComments("");
 
-			addDetailAsInteger(observation, "catflags", fields[fieldIndices.get("catflags")]);
-			addDetailAsDouble(observation, "exptime", fields[fieldIndices.get("exptime")]);			
-			addDetailAsDouble(observation, "airmass", fields[fieldIndices.get("airmass")]);
+			addDetailAsInteger(observation, "catflags", tokenizer.getFieldString(catflagsIndex));
+			addDetailAsDouble(observation, "exptime", exptimeIndex);
+			addDetailAsDouble(observation, "airmass", airmassIndex);
 			// todo: add other details
 			
 			return observation;
@@ -287,16 +286,14 @@ public abstract class ZTFObSourceBase extends ObservationSourcePluginBase {
 			}
 		}
 
-		void addDetailAsDouble(ValidObservation observation, String key, String detail) {
-			if (detail != null) {
-				Double d;
-				try {
-					d = Double.valueOf(detail.trim());
-				} catch (NumberFormatException e) {
-					return;
-				}
-				observation.addDetail(key.toUpperCase(), d, key);
+		void addDetailAsDouble(ValidObservation observation, String key, int index) {
+			double d;
+			try {
+				d = tokenizer.getFieldAsDouble(index);
+			} catch (NumberFormatException e) {
+				return;
 			}
+			observation.addDetail(key.toUpperCase(), d, key);
 		}
 
 		@Override
@@ -21,9 +21,7 @@ package org.aavso.tools.vstar.external.plugin;
 import java.awt.Color;
 import java.awt.Container;
 import java.awt.Dimension;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -50,6 +48,7 @@ import org.aavso.tools.vstar.data.validation.UncertaintyValueValidator;
 import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.exception.ObservationValidationError;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.text.MappedTextTokenizer;
 import org.aavso.tools.vstar.plugin.InputType;
 import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
 //12/02/2018 C. Kotnik added name to observations so they can be
@@ -231,7 +230,9 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 		private Map<String, Integer> fieldIndices;
 		private Map<String, ObsDetailInfo> optionalFieldIndices;
 
-		private List<String> lines;
+		private List<String> optionalFieldKeys;
+
+		private MappedTextTokenizer tokenizer;
 		
 		private double userDefinedErrLimit;
 		private boolean loadExcludedObs;
@@ -243,7 +244,7 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 		
 		private static final double INVALID_MAG = 99.99;
 		
-		private static final String DELIMITER = ",";
+		private static final char DELIMITER = ',';
 
 		private JulianDayValidator julianDayValidator;
 		private MagnitudeFieldValidator magnitudeFieldValidator;
@@ -292,22 +293,25 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 		public void retrieveObservations() throws ObservationReadError,
 				InterruptedException {
 
-			if (lines.size() == 0) {
-				return;
-			}
-			
-			String[] header = null;
-			
-			String firstError = null;
-			for (int i = 0; i < lines.size(); i++) {
-				String line = lines.get(i);
-				if (line != null) {
-					line = line.trim();
-					if (!"".equals(line) && line.charAt(0) != '#') {
+			try {
+				openTokenizer();
+
+				if (tokenizer.getSize() == 0) {
+					return;
+				}
+
+				tokenizer.setDelimiter(DELIMITER);
+
+				String[] header = null;
+
+				String firstError = null;
+				while (tokenizer.nextLine()) {
+					if (!tokenizer.isBlankLine() && !tokenizer.lineStartsWith('#')) {
 						if (header != null) {
+							int lineNum = tokenizer.getLineNumber();
 							try {
 								ValidObservation ob = readNextObservation(
-										line.split(DELIMITER), i + 1,
+										lineNum,
 										userDefinedErrLimit, loadASASSN_V_as_Johnson_V, loadASASSN_g_as_Sloan_g);
 								if (ob != null)
 								{
@@ -325,16 +329,18 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 								// Create an invalid observation.
 								String error = e.getLocalizedMessage();
 								if (firstError == null) firstError = error;
-								InvalidObservation ob = new InvalidObservation(line, error);
-								ob.setRecordNumber(i + 1);
+								InvalidObservation ob = new InvalidObservation(tokenizer.getLine().trim(), error);
+								ob.setRecordNumber(lineNum);
 								addInvalidObservation(ob);
 							}
 						} else {
-							header = checkForHeaderAndFillFieldIndices(line.split(DELIMITER));
+							header = checkForHeaderAndFillFieldIndices(tokenizer.getFieldStrings());
 						}
 					}
+					incrementTokenizerProgress();
 				}
-				incrementProgress();
+			} catch (IOException e) {
+				throw new ObservationReadError(e.getLocalizedMessage());
 			}
 		}
 
@@ -396,6 +402,9 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 			index = indexInArrayIgnoreCase("Quality", fields);
 			optionalFieldIndices.put("QUALITY", new ObsDetailInfo(index, Property.propType.STRING));
 			
+			optionalFieldKeys = new ArrayList<String>(optionalFieldIndices.keySet());
+			Collections.sort(optionalFieldKeys);
+
 			return fields;
 		}
 		
@@ -422,7 +431,7 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 		}
 
 		private ValidObservation readNextObservation(
-				String[] fields, int lineNum,
+				int lineNum,
 				double userDefinedErrLimit, 
 				boolean loadASASSN_V_as_Johnson_V, 
 				boolean loadASASSN_g_as_Sloan_g)
@@ -436,7 +445,13 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 			if (index < 0) {
 				filter = "V";
 			} else {
-				filter = fields[index].trim();
+				if (tokenizer.fieldEquals(index, "V")) {
+					filter = "V";
+				} else if (tokenizer.fieldEquals(index, "g")) {
+					filter = "g";
+				} else {
+					filter = tokenizer.getFieldString(index);
+				}
 			}
 			
 			if (filter.equals("V"))
@@ -459,9 +474,9 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 
 			ValidObservation observation = new ValidObservation();
 
-			DateInfo hjd = julianDayValidator.validate(fields[fieldIndices.get("HJD")].trim());
-			Magnitude mag = magnitudeFieldValidator.validate(fields[fieldIndices.get("MAG")].trim());
-			double err = uncertaintyValueValidator.validate(fields[fieldIndices.get("MAG_ERR")]);
+			DateInfo hjd = julianDayValidator.validate(tokenizer.getField(fieldIndices.get("HJD")));
+			Magnitude mag = magnitudeFieldValidator.validate(tokenizer.getField(fieldIndices.get("MAG")));
+			double err = uncertaintyValueValidator.validate(tokenizer.getField(fieldIndices.get("MAG_ERR")));
 			if (err == INVALID_MAG) {
 				err = 0.0;
 				if (filter.equals("V"))
@@ -491,17 +506,15 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 			observation.setBand(series);
 			
 			// optional fields
-			List<String> keys = new ArrayList<String>(optionalFieldIndices.keySet());
-			Collections.sort(keys);
-			for (String key : keys) {			
+			for (String key : optionalFieldKeys) {			
 				ObsDetailInfo info = optionalFieldIndices.get(key);
 				if (info.index >= 0) {
 					switch (info.type) {
 						case REAL:
-							addDetailAsDouble(observation, key, fields[info.index]);
+							addDetailAsDouble(observation, key, info.index);
 							break;
 						default:
-							observation.addDetail(key.toUpperCase(), fields[info.index].trim(), key);
+							observation.addDetail(key.toUpperCase(), tokenizer.getFieldString(info.index), key);
 					}
 					
 				}
@@ -512,44 +525,37 @@ public class ASASSNObservationSource extends ObservationSourcePluginBase {
 			if (index < 0) {
 				observation.addDetail("ASASSN_BAND", "", "ASASSN_BAND");
 			} else {
-				observation.addDetail("ASASSN_BAND", fields[index].trim(), "ASASSN_BAND");
+				observation.addDetail("ASASSN_BAND", filter, "ASASSN_BAND");
 			}
 			
 			return observation;
 		}
 		
-		void addDetailAsDouble(ValidObservation observation, String key, String detail) {
-			if (detail != null) {
-				Double d;
-				try {
-					d = Double.valueOf(detail.trim());
-				} catch (NumberFormatException e) {
-					return;
-				}
-				observation.addDetail(key.toUpperCase(), d, key);
+		void addDetailAsDouble(ValidObservation observation, String key, int index) {
+			double d;
+			try {
+				d = tokenizer.getFieldAsDouble(index);
+			} catch (NumberFormatException e) {
+				return;
 			}
+			observation.addDetail(key.toUpperCase(), d, key);
 		}
 
 		@Override
 		public Integer getNumberOfRecords() throws ObservationReadError {
-			if (lines == null) {
-				try {
-					readLines();
-				} catch (IOException e) {
-					throw new ObservationReadError("Error reading lines");
-				}
+			try {
+				openTokenizer();
+			} catch (IOException e) {
+				throw new ObservationReadError("Error reading lines");
 			}
 
-			return lines.size();
+			return getTokenizerRecordCount();
 		}
 
-		// Read all lines from the source.
-		private void readLines() throws IOException {
-			lines = new ArrayList<String>();
-			BufferedReader reader = new BufferedReader(new InputStreamReader(getInputStreams().get(0)));
-			String line;
-			while ((line = reader.readLine()) != null) {
-				lines.add(line);
+		// Open a tokenizer over the source if not already open.
+		private void openTokenizer() throws IOException {
+			if (tokenizer == null) {
+				tokenizer = openTokenizer(getInputStreams().get(0));
 			}
 		}
 	
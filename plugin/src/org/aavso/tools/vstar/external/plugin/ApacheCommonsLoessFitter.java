@@ -17,17 +17,15 @@
  */
 package org.aavso.tools.vstar.external.plugin;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.aavso.tools.vstar.data.DateInfo;
-import org.aavso.tools.vstar.data.Magnitude;
-import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.aavso.tools.vstar.external.lib.LoessSmoother;
 import org.aavso.tools.vstar.plugin.ModelCreatorPluginBase;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.model.plot.ContinuousModelFunction;
@@ -36,16 +34,17 @@ import org.aavso.tools.vstar.ui.model.plot.JDCoordSource;
 import org.aavso.tools.vstar.ui.model.plot.StandardPhaseCoordSource;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.model.PeriodFitParameters;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
-import org.apache.commons.math.MathException;
-import org.apache.commons.math.analysis.interpolation.LoessInterpolator;
+import org.apache.commons.math.analysis.interpolation.SplineInterpolator;
 import org.apache.commons.math.analysis.polynomials.PolynomialFunction;
 import org.apache.commons.math.analysis.polynomials.PolynomialSplineFunction;
 
 /**
- * A Loess (Local Regression algorithm) model creator plugin that uses an Apache
- * Commons Loess interpolator.
+ * A Loess (Local Regression algorithm) model creator plugin that smooths
+ * observations with a parallel Loess smoother equivalent to Apache Commons'
+ * Loess interpolator, yielding a spline through the smoothed values.
  * 
  * See https://www.aavso.org/sites/default/files/Cleveland1979%20LOESS_0.pdf
  * (thanks to Brad Walter for pointing me to this)
@@ -95,8 +94,7 @@ public class ApacheCommonsLoessFitter extends ModelCreatorPluginBase {
 
 			return new IModel() {
 				boolean interrupted = false;
-				List<ValidObservation> fit;
-				List<ValidObservation> residuals;
+				ModelSeries series;
 				PolynomialSplineFunction function;
 				Map<String, String> functionStrMap = new LinkedHashMap<String, String>();
 				double aic = Double.NaN;
@@ -115,7 +113,7 @@ public class ApacheCommonsLoessFitter extends ModelCreatorPluginBase {
 
 				@Override
 				public List<ValidObservation> getFit() {
-					return fit;
+					return series != null ? series.getFit() : null;
 				}
 
 				@Override
@@ -131,7 +129,7 @@ public class ApacheCommonsLoessFitter extends ModelCreatorPluginBase {
 
 				@Override
 				public List<ValidObservation> getResiduals() {
-					return residuals;
+					return series != null ? series.getResiduals() : null;
 				}
 
 				@Override
@@ -226,7 +224,7 @@ public class ApacheCommonsLoessFitter extends ModelCreatorPluginBase {
 
 				@Override
 				public ContinuousModelFunction getModelFunction() {
-					return new ContinuousModelFunction(function, fit);
+					return new ContinuousModelFunction(function, getFit());
 				}
 
 				@Override
@@ -252,42 +250,37 @@ public class ApacheCommonsLoessFitter extends ModelCreatorPluginBase {
 					}
 
 					try {
-						final LoessInterpolator interpolator = new LoessInterpolator();
-						function = interpolator.interpolate(xvals, yvals);
-
-						fit = new ArrayList<ValidObservation>();
-						residuals = new ArrayList<ValidObservation>();
+						// As for Apache Commons' LoessInterpolator, the model
+						// function is a spline through the smoothed values,
+						// so the fit at each time is the smoothed value.
+						double[] fitMags = new LoessSmoother(xvals, yvals)
+								.smooth();
+						function = new SplineInterpolator().interpolate(xvals,
+								fitMags);
+
+						double[] residualMags = new double[xvals.length];
+						int n = 0;
 						double sumSqResiduals = 0;
 
 						String comment = "From Loess fit";
 
-						// Create fit and residual observations and
-						// compute the sum of squares of residuals for
-						// Akaike and Bayesean Information Criteria.
+						// Compute residual magnitudes and the sum of
+						// squares of residuals for Akaike and Bayesean
+						// Information Criteria.
 						for (int i = 0; i < xvals.length && !interrupted; i++) {
-							double jd = xvals[i];
-							double mag = yvals[i];
-
-							double y = function.value(jd);
-
-							ValidObservation fitOb = new ValidObservation();
-							fitOb.setDateInfo(new DateInfo(jd));
-							fitOb.setMagnitude(new Magnitude(y, 0));
-							fitOb.setBand(SeriesType.Model);
-							fitOb.setComments(comment);
-							fit.add(fitOb);
-
-							ValidObservation resOb = new ValidObservation();
-							resOb.setDateInfo(new DateInfo(jd));
-							double residual = mag - y;
-							resOb.setMagnitude(new Magnitude(residual, 0));
-							resOb.setBand(SeriesType.Residuals);
-							resOb.setComments(comment);
-							residuals.add(resOb);
+							double residual = yvals[i] - fitMags[i];
+
+							residualMags[n] = residual;
+							n++;
 
 							sumSqResiduals += (residual * residual);
 						}
 
+						double[] times = Arrays.copyOf(xvals, n);
+						series = new ModelSeries(times, Arrays.copyOf(
+								fitMags, n), times, Arrays.copyOf(
+								residualMags, n), comment);
+
 						// TODO: what to use for degree (or N) here?
 						double degree = 0;
 
@@ -296,7 +289,6 @@ public class ApacheCommonsLoessFitter extends ModelCreatorPluginBase {
 						}
 
 						// Fit metrics (AIC, BIC).
-						int n = residuals.size();
 						if (n != 0 && sumSqResiduals / n != 0) {
 							double commonIC = n * Math.log(sumSqResiduals / n);
 							aic = commonIC + 2 * degree;
@@ -342,7 +334,8 @@ public class ApacheCommonsLoessFitter extends ModelCreatorPluginBase {
 								LocaleProps.get("MODEL_INFO_R_TITLE"),
 								toRString());
 
-					} catch (MathException e) {
+					} catch (IllegalArgumentException e) {
+						// e.g. too few observations for a spline.
 						throw new AlgorithmError(e.getLocalizedMessage());
 					}
 				}
@@ -0,0 +1,61 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.external.plugin;
+
+import java.util.List;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
+import org.aavso.tools.vstar.external.lib.JDConverterBase;
+import org.aavso.tools.vstar.ui.mediator.Mediator;
+import org.aavso.tools.vstar.util.coords.DecInfo;
+import org.aavso.tools.vstar.util.coords.RAInfo;
+
+/**
+ * Converts currently loaded observations with Julian Dates (UTC) to BJD in
+ * the TDB time scale, the time system of e.g. Kepler and TESS data.
+ */
+public class BJDConverter extends JDConverterBase {
+
+	public BJDConverter() {
+		super(JDflavour.BJD, "Barycentric");
+	}
+
+	@Override
+	public String getDisplayName() {
+		return "Barycentric JD Converter";
+	}
+
+	@Override
+	public String getDescription() {
+		return "Barycentric JD Converter";
+	}
+
+	/**
+	 * @see org.aavso.tools.vstar.plugin.IPlugin#getDocName()
+	 */
+	@Override
+	public String getDocName() {
+		return null;
+	}
+
+	@Override
+	protected int convertObs(List<ValidObservation> obs, RAInfo ra, DecInfo dec) {
+		return Mediator.getInstance().convertObsToBJD(obs, ra, dec);
+	}
+}
@@ -186,6 +186,24 @@ public class FlexibleTextFileFormatObservationSource extends
 		return new FlexibleTextFileFormatRetriever();
 	}
 
+	/**
+	 * @see org.aavso.tools.vstar.plugin.ObservationSourcePluginBase#isMultipleFileSelectionAllowed()
+	 */
+	@Override
+	public boolean isMultipleFileSelectionAllowed() {
+		return true;
+	}
+
+	/**
+	 * Each file carries its own directives and is read by its own retriever.
+	 * 
+	 * @see org.aavso.tools.vstar.plugin.ObservationSourcePluginBase#isParallelLoadSupported()
+	 */
+	@Override
+	public boolean isParallelLoadSupported() {
+		return true;
+	}
+
 	/**
 	 * @see org.aavso.tools.vstar.plugin.IPlugin#getDescription()
 	 */
@@ -172,6 +172,17 @@ public class KeplerFITSObservationSource extends ObservationSourcePluginBase {
         return true;
     }
 
+	@Override
+	public boolean isParallelLoadSupported() {
+		return true;
+	}
+
+	@Override
+	public AbstractObservationRetriever getParallelObservationRetriever() {
+		// Use the parameters requested by getObservationRetriever().
+		return new KeplerFITSObservationRetriever(loadRawData);
+	}
+
     class KeplerFITSObservationRetriever extends TESSObservationRetrieverBase {
 
 		private static final String BJDREF_INT   = "BJDREFI";
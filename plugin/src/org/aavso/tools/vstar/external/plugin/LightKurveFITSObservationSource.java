@@ -101,6 +101,17 @@ public class LightKurveFITSObservationSource extends ObservationSourcePluginBase
         return true;
     }
 
+	@Override
+	public boolean isParallelLoadSupported() {
+		return true;
+	}
+
+	@Override
+	public String getSnapshotParameters() {
+		// Observations depend only upon the input files and VeLa filter.
+		return "";
+	}
+
 	class LightKurveFITSObservationRetriever extends TESSObservationRetrieverBase {
 
 		public LightKurveFITSObservationRetriever() {
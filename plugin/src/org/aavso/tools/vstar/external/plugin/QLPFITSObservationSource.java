@@ -120,6 +120,17 @@ public class QLPFITSObservationSource extends ObservationSourcePluginBase {
         return true;
     }
 
+	@Override
+	public boolean isParallelLoadSupported() {
+		return true;
+	}
+
+	@Override
+	public AbstractObservationRetriever getParallelObservationRetriever() {
+		// Use the parameters requested by getObservationRetriever().
+		return new QLPFITSObservationRetriever(loadRawData);
+	}
+
 	class QLPFITSObservationRetriever extends TESSObservationRetrieverBase {
 
 		private static final String BJDREF_INT   = "BJDREFI";
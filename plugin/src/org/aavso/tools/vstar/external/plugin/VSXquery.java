@@ -73,6 +73,7 @@ import java.util.TimeZone;
 import java.util.Date;
 import java.util.concurrent.ExecutionException;
 
+import org.aavso.tools.vstar.input.http.HttpResponseCache;
 import org.aavso.tools.vstar.plugin.GeneralToolPluginBase;
 
 import org.aavso.tools.vstar.ui.dialog.TextField;
@@ -919,7 +920,7 @@ public class VSXquery extends GeneralToolPluginBase {
 			DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
 			DocumentBuilder db = dbf.newDocumentBuilder();
 			URL url = new URL(sURL);
-			InputStream stream = url.openStream();
+			InputStream stream = HttpResponseCache.getInstance().openStream(url);
 			Document doc = db.parse(stream);
 			doc.getDocumentElement().normalize();
 
@@ -1,6 +1,7 @@
 package org.aavso.tools.vstar.external.plugin;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
@@ -9,14 +10,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import org.aavso.tools.vstar.data.DateInfo;
-import org.aavso.tools.vstar.data.Magnitude;
-import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
 import org.aavso.tools.vstar.plugin.ModelCreatorPluginBase;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.mediator.AnalysisType;
+import org.aavso.tools.vstar.ui.mediator.DocumentManager;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.model.plot.ContinuousModelFunction;
 import org.aavso.tools.vstar.ui.model.plot.ICoordSource;
@@ -28,6 +27,7 @@ import org.aavso.tools.vstar.util.comparator.JDComparator;
 import org.aavso.tools.vstar.util.comparator.StandardPhaseComparator;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.model.PeriodFitParameters;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 import org.aavso.tools.vstar.vela.Operand;
@@ -189,8 +189,7 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 
 				model = new IModel() {
 					boolean interrupted = false;
-					List<ValidObservation> fit;
-					List<ValidObservation> residuals;
+					ModelSeries series;
 					UnivariateRealFunction function;
 					Map<String, String> functionStrMap = new LinkedHashMap<String, String>();
 
@@ -202,12 +201,13 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 
 					@Override
 					public List<ValidObservation> getFit() {
-						return fit;
+						return series != null ? series.getFit() : null;
 					}
 
 					@Override
 					public List<ValidObservation> getResiduals() {
-						return residuals;
+						return series != null ? series.getResiduals()
+								: null;
 					}
 
 					@Override
@@ -233,8 +233,8 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 
 					@Override
 					public ContinuousModelFunction getModelFunction() {
-						return new ContinuousModelFunction(function, fit,
-								zeroPoint);
+						return new ContinuousModelFunction(function,
+								getFit(), zeroPoint);
 					}
 
 					@Override
@@ -258,13 +258,17 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 									function = new VeLaUnivariateRealFunction(
 											vela, funcName);
 
-									fit = new ArrayList<ValidObservation>();
-									residuals = new ArrayList<ValidObservation>();
+									double[] times = new double[obs.size()];
+									double[] fitMags = new double[obs
+											.size()];
+									double[] residualMags = new double[obs
+											.size()];
+									int n = 0;
 
 									String comment = "\n"
 											+ velaModelFunctionStr;
 
-									// Create fit and residual observations.
+									// Compute fit and residual magnitudes.
 									for (int i = 0; i < obs.size()
 											&& !interrupted; i++) {
 										ValidObservation ob = obs.get(i);
@@ -280,42 +284,32 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 										// double zeroedX = x - zeroPoint;
 										double y = function.value(x);
 
-										ValidObservation fitOb = new ValidObservation();
-										fitOb.setDateInfo(new DateInfo(ob
-												.getJD()));
-										if (Mediator.getInstance()
-												.getAnalysisType() == AnalysisType.PHASE_PLOT) {
-											fitOb.setPreviousCyclePhase(ob
-													.getPreviousCyclePhase());
-											fitOb.setStandardPhase(ob
-													.getStandardPhase());
-										}
-										fitOb.setMagnitude(new Magnitude(y, 0));
-										fitOb.setBand(SeriesType.Model);
-										fitOb.setComments(comment);
-										fit.add(fitOb);
-
-										ValidObservation resOb = new ValidObservation();
-										resOb.setDateInfo(new DateInfo(ob
-												.getJD()));
-										if (Mediator.getInstance()
-												.getAnalysisType() == AnalysisType.PHASE_PLOT) {
-											resOb.setPreviousCyclePhase(ob
-													.getPreviousCyclePhase());
-											resOb.setStandardPhase(ob
-													.getStandardPhase());
-										}
-										double residual = ob.getMag() - y;
-										resOb.setMagnitude(new Magnitude(
-												residual, 0));
-										resOb.setBand(SeriesType.Residuals);
-										resOb.setComments(comment);
-										residuals.add(resOb);
+										times[n] = ob.getJD();
+										fitMags[n] = y;
+										residualMags[n] = ob.getMag() - y;
+										n++;
 
 										// Pop the observation environment.
 										vela.popEnvironment();
 									}
 
+									times = Arrays.copyOf(times, n);
+									series = new ModelSeries(times,
+											Arrays.copyOf(fitMags, n), times,
+											Arrays.copyOf(residualMags, n),
+											comment);
+
+									// The fit and residual phases are those
+									// of the observations in a phase plot.
+									if (Mediator.getInstance()
+											.getAnalysisType() == AnalysisType.PHASE_PLOT) {
+										DocumentManager docMgr = Mediator
+												.getInstance()
+												.getDocumentManager();
+										series.setPhases(docMgr.getEpoch(),
+												docMgr.getPeriod());
+									}
+
 									functionStrMap.put(LocaleProps
 											.get("MODEL_INFO_FUNCTION_TITLE"),
 											toString());
@@ -350,7 +344,7 @@ public class VeLaModelCreator extends ModelCreatorPluginBase {
 										}
 
 										ApacheCommonsDerivativeBasedExtremaFinder finder = new ApacheCommonsDerivativeBasedExtremaFinder(
-												fit,
+												series.getFit(),
 												(DifferentiableUnivariateRealFunction) function,
 												timeCoordSource, zeroPoint,
 												resolution);
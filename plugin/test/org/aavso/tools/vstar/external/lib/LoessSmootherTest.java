@@ -0,0 +1,162 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.external.lib;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.apache.commons.math.analysis.interpolation.LoessInterpolator;
+
+/**
+ * Tests for the Loess smoother against Apache Commons Math's Loess
+ * interpolator.
+ */
+public class LoessSmootherTest extends TestCase {
+
+	public LoessSmootherTest(String name) {
+		super(name);
+	}
+
+	public void testSmallSeries() throws Exception {
+		for (int n : new int[] { 10, 100, 200, 300 }) {
+			assertSameAsInterpolator(n, LoessSmoother.DEFAULT_BANDWIDTH,
+					LoessSmoother.DEFAULT_ROBUSTNESS_ITERS);
+		}
+	}
+
+	public void testLargeSeries() throws Exception {
+		// Large enough to be smoothed in parallel chunks.
+		assertSameAsInterpolator(20000, LoessSmoother.DEFAULT_BANDWIDTH,
+				LoessSmoother.DEFAULT_ROBUSTNESS_ITERS);
+	}
+
+	public void testBandwidthAndRobustnessIters() throws Exception {
+		assertSameAsInterpolator(500, 0.1, 0);
+		assertSameAsInterpolator(500, 0.5, 4);
+		assertSameAsInterpolator(500, 1, 1);
+	}
+
+	public void testRepeatedSmoothIsIndependent() throws Exception {
+		double[][] data = createData(300, 3);
+
+		LoessSmoother smoother = new LoessSmoother(data[0], data[1]);
+		double[] first = smoother.smooth();
+		double[] second = smoother.smooth();
+
+		assertNotSame(first, second);
+		assertArrayEquals(first, second);
+	}
+
+	public void testSubsetFitsAfresh() throws Exception {
+		double[][] data = createData(200, 4);
+
+		// Smoothing a series with a few points removed gives the same values
+		// as the interpolator does for the remaining points, as a full refit
+		// would.
+		int m = data[0].length - 2;
+		double[] xs = new double[m];
+		double[] ys = new double[m];
+		for (int i = 0, j = 0; i < data[0].length; i++) {
+			if (i != 50 && i != 150) {
+				xs[j] = data[0][i];
+				ys[j] = data[1][i];
+				j++;
+			}
+		}
+
+		assertArrayEquals(new LoessInterpolator().smooth(xs, ys),
+				new LoessSmoother(xs, ys).smooth());
+	}
+
+	public void testTwoPoints() throws Exception {
+		double[] xs = { 1, 2 };
+		double[] ys = { 3, 4 };
+
+		double[] smoothed = new LoessSmoother(xs, ys).smooth();
+
+		assertNotSame(ys, smoothed);
+		assertArrayEquals(ys, smoothed);
+	}
+
+	public void testBandwidthTooSmall() throws Exception {
+		double[][] data = createData(5, 5);
+
+		try {
+			new LoessSmoother(data[0], data[1]).smooth();
+			fail();
+		} catch (AlgorithmError e) {
+			// Expected: 0.3 * 5 points is fewer than 2.
+		}
+	}
+
+	public void testNonIncreasingDomain() {
+		try {
+			new LoessSmoother(new double[] { 1, 2, 2 }, new double[] { 1, 2,
+					3 });
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	// Helpers
+
+	private void assertSameAsInterpolator(int n, double bandwidth,
+			int robustnessIters) throws Exception {
+		double[][] data = createData(n, n);
+
+		double[] expected = new LoessInterpolator(bandwidth, robustnessIters)
+				.smooth(data[0], data[1]);
+
+		double[] actual = new LoessSmoother(data[0], data[1], bandwidth,
+				robustnessIters).smooth();
+
+		assertArrayEquals(expected, actual);
+	}
+
+	private void assertArrayEquals(double[] expected, double[] actual) {
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals("index " + i, expected[i], actual[i], 0);
+		}
+	}
+
+	// Returns irregularly spaced times and noisy sinusoidal magnitudes with
+	// occasional outliers.
+	private double[][] createData(int n, long seed) {
+		Random random = new Random(seed);
+
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+
+		double x = 2450000;
+		for (int i = 0; i < n; i++) {
+			x += 0.01 + random.nextDouble();
+			xs[i] = x;
+			ys[i] = 10 + Math.sin(2 * Math.PI * x / 37.5) + 0.1
+					* random.nextGaussian();
+			if (random.nextInt(20) == 0) {
+				ys[i] += 2 * random.nextGaussian();
+			}
+		}
+
+		return new double[][] { xs, ys };
+	}
+}
@@ -0,0 +1,262 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.external.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import nom.tam.fits.BasicHDU;
+import nom.tam.fits.BinaryTable;
+import nom.tam.fits.BinaryTableHDU;
+import nom.tam.fits.Fits;
+import nom.tam.fits.Header;
+import nom.tam.util.BufferedDataOutputStream;
+
+import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
+import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+
+/**
+ * Tests for the Kepler FITS observation source's retriever, and so for
+ * TESSObservationRetrieverBase, against small Kepler light curve files
+ * written in memory.
+ */
+public class KeplerFITSObservationSourceTest extends TestCase {
+
+	private static final double KEPMAG = 12.5;
+	private static final long BJDREFI = 2454833;
+	private static final double BJDREFF = 0.25;
+
+	private static final String[] COLUMN_NAMES = { "TIME", "TIMECORR",
+			"CADENCENO", "SAP_FLUX", "SAP_FLUX_ERR", "SAP_BKG",
+			"SAP_BKG_ERR", "PDCSAP_FLUX", "PDCSAP_FLUX_ERR", "SAP_QUALITY" };
+
+	private static final double DELTA = 1e-9;
+
+	public KeplerFITSObservationSourceTest(String name) {
+		super(name);
+	}
+
+	public void testColumnWiseRead() throws Exception {
+		double[] times = { 100.0, 100.02, 100.04, 100.06, 100.08 };
+		float[] fluxes = { 1000f, 1100f, 1200f, 1300f, 1400f };
+		float[] errors = { 10f, 11f, 12f, 13f, 14f };
+		int[] qualities = { 0, 1, 0, 128, 0 };
+
+		AbstractObservationRetriever retriever = retrieve(createFITS(times,
+				fluxes, errors, qualities));
+
+		assertEquals(JDflavour.BJD, retriever.getJDflavour());
+		assertTrue(retriever.getInvalidObservations().isEmpty());
+
+		List<ValidObservation> obs = retriever.getValidObservations();
+		assertEquals(times.length, obs.size());
+
+		// The median flux is mapped to the header magnitude.
+		double magShift = KEPMAG + 2.5 * Math.log10(1200);
+
+		for (int i = 0; i < obs.size(); i++) {
+			ValidObservation ob = obs.get(i);
+			assertEquals(i, ob.getRecordNumber());
+			assertEquals(times[i] + BJDREFI + BJDREFF, ob.getJD(), DELTA);
+			assertEquals(magShift - 2.5 * Math.log10(fluxes[i]), ob.getMag(),
+					DELTA);
+			assertEquals(1.086 * errors[i] / fluxes[i], ob.getMagnitude()
+					.getUncertainty(), DELTA);
+			assertEquals(fluxes[i], ob.getDetail("FLUX").getRealVal(), DELTA);
+			assertEquals(qualities[i], ob.getDetail("QUALITY").getIntVal());
+			assertEquals(KEPMAG, ob.getDetail("HEADER_MAG").getRealVal(),
+					DELTA);
+			assertEquals("KIC 123456", ob.getName());
+		}
+	}
+
+	public void testTypeWidening() throws Exception {
+		double[] times = { 100.0, 100.02, 100.04 };
+		float[] floatFluxes = { 1000.5f, 1100.25f, 1200.125f };
+		float[] floatErrors = { 10.5f, 11.25f, 12.125f };
+		int[] intQualities = { 0, 4, 16 };
+
+		double[] doubleFluxes = new double[floatFluxes.length];
+		double[] doubleErrors = new double[floatErrors.length];
+		short[] shortQualities = new short[intQualities.length];
+
+		for (int i = 0; i < times.length; i++) {
+			doubleFluxes[i] = floatFluxes[i];
+			doubleErrors[i] = floatErrors[i];
+			shortQualities[i] = (short) intQualities[i];
+		}
+
+		// Float and int columns are widened to give the same observations
+		// as double and short columns with the same values.
+		List<ValidObservation> floatObs = retrieve(
+				createFITS(times, floatFluxes, floatErrors, intQualities))
+				.getValidObservations();
+
+		List<ValidObservation> doubleObs = retrieve(
+				createFITS(times, doubleFluxes, doubleErrors, shortQualities))
+				.getValidObservations();
+
+		assertEquals(times.length, floatObs.size());
+		assertEquals(times.length, doubleObs.size());
+
+		for (int i = 0; i < times.length; i++) {
+			ValidObservation ob1 = floatObs.get(i);
+			ValidObservation ob2 = doubleObs.get(i);
+			assertEquals(ob2.getJD(), ob1.getJD(), 0);
+			assertEquals(ob2.getMag(), ob1.getMag(), 0);
+			assertEquals(ob2.getMagnitude().getUncertainty(), ob1
+					.getMagnitude().getUncertainty(), 0);
+			assertEquals(doubleFluxes[i], ob1.getDetail("FLUX").getRealVal(),
+					0);
+			assertEquals(intQualities[i], ob2.getDetail("QUALITY")
+					.getIntVal());
+		}
+	}
+
+	public void testInvalidRows() throws Exception {
+		double[] times = { 100.0, 100.02, 100.04, 100.06, 100.08, 100.10,
+				100.12 };
+		float[] fluxes = { 1000f, Float.NaN, 1200f, 0f, -5f,
+				Float.POSITIVE_INFINITY, 1400f };
+		float[] errors = { 10f, 11f, Float.NaN, 13f, 14f, 15f, 16f };
+		int[] qualities = new int[times.length];
+
+		AbstractObservationRetriever retriever = retrieve(createFITS(times,
+				fluxes, errors, qualities));
+
+		List<ValidObservation> obs = retriever.getValidObservations();
+		assertEquals(2, obs.size());
+		assertEquals(0, obs.get(0).getRecordNumber());
+		assertEquals(6, obs.get(1).getRecordNumber());
+
+		// Only valid rows contribute to the median flux.
+		double magShift = KEPMAG + 2.5 * Math.log10(1200);
+		assertEquals(magShift - 2.5 * Math.log10(1000), obs.get(0).getMag(),
+				DELTA);
+		assertEquals(magShift - 2.5 * Math.log10(1400), obs.get(1).getMag(),
+				DELTA);
+
+		List<InvalidObservation> invalidObs = retriever
+				.getInvalidObservations();
+		assertEquals(5, invalidObs.size());
+
+		int[] invalidRows = { 1, 2, 3, 4, 5 };
+		for (int i = 0; i < invalidRows.length; i++) {
+			InvalidObservation ob = invalidObs.get(i);
+			assertEquals(invalidRows[i], ob.getRecordNumber());
+			assertEquals("Invalid flux or flux error", ob.getError());
+		}
+	}
+
+	public void testMultipleFiles() throws Exception {
+		double[] times1 = { 100.0, 100.02 };
+		double[] times2 = { 200.0, 200.02, 200.04 };
+		float[] fluxes1 = { 1000f, 1100f };
+		float[] fluxes2 = { 1000f, 1100f, 1200f };
+
+		AbstractObservationRetriever retriever = retrieve(
+				createFITS(times1, fluxes1, new float[2], new int[2]),
+				createFITS(times2, fluxes2, new float[3], new int[3]));
+
+		List<ValidObservation> obs = retriever.getValidObservations();
+		assertEquals(5, obs.size());
+
+		for (int i = 0; i < times1.length; i++) {
+			assertEquals(times1[i] + BJDREFI + BJDREFF, obs.get(i).getJD(),
+					DELTA);
+		}
+
+		for (int i = 0; i < times2.length; i++) {
+			assertEquals(times2[i] + BJDREFI + BJDREFF,
+					obs.get(times1.length + i).getJD(), DELTA);
+		}
+	}
+
+	// Helpers
+
+	// Load observations from the specified FITS files with the retriever
+	// for a single input.
+	private AbstractObservationRetriever retrieve(byte[]... files)
+			throws Exception {
+		List<InputStream> streams = new ArrayList<InputStream>();
+		for (byte[] file : files) {
+			streams.add(new ByteArrayInputStream(file));
+		}
+
+		KeplerFITSObservationSource plugin = new KeplerFITSObservationSource();
+		plugin.setInputInfo(streams, "kepler.fits");
+
+		// Unlike getObservationRetriever(), this requests no parameters.
+		AbstractObservationRetriever retriever = plugin
+				.getParallelObservationRetriever();
+
+		retriever.getNumberOfRecords();
+		retriever.retrieveObservations();
+
+		return retriever;
+	}
+
+	// Create a Kepler light curve FITS file whose corrected flux, flux error
+	// and quality columns have the specified values and types.
+	private byte[] createFITS(double[] times, Object fluxes, Object errors,
+			Object qualities) throws Exception {
+		int rows = times.length;
+
+		Object[] columns = new Object[COLUMN_NAMES.length];
+		columns[0] = times;
+		for (int i = 1; i < columns.length; i++) {
+			columns[i] = new float[rows];
+		}
+		columns[7] = fluxes;
+		columns[8] = errors;
+		columns[9] = qualities;
+
+		BasicHDU primary = Fits.makeHDU(new float[1][1]);
+		Header primaryHeader = primary.getHeader();
+		primaryHeader.addValue("TELESCOP", "Kepler", "telescope");
+		primaryHeader.addValue("OBJECT", "KIC 123456", "object");
+		primaryHeader.addValue("KEPMAG", KEPMAG, "Kepler magnitude");
+
+		BinaryTable data = new BinaryTable(columns);
+		BinaryTableHDU table = new BinaryTableHDU(
+				BinaryTableHDU.manufactureHeader(data), data);
+		for (int i = 0; i < COLUMN_NAMES.length; i++) {
+			table.setColumnName(i, COLUMN_NAMES[i], null);
+		}
+		Header tableHeader = table.getHeader();
+		tableHeader.addValue("BJDREFI", BJDREFI, "integer part of BJD ref");
+		tableHeader.addValue("BJDREFF", BJDREFF, "fraction of BJD ref");
+
+		Fits fits = new Fits();
+		fits.addHDU(primary);
+		fits.addHDU(table);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BufferedDataOutputStream out = new BufferedDataOutputStream(bytes);
+		fits.write(out);
+		out.flush();
+
+		return bytes.toByteArray();
+	}
+}
@@ -25,6 +25,7 @@ public class InvalidObservation extends Observation {
 	private String inputLine;
 	private String error;
 	private boolean isWarning;
+	private String source;
 
 	/**
 	 * Constructor
@@ -76,6 +77,23 @@ public class InvalidObservation extends Observation {
 		return isWarning;
 	}
 
+	/**
+	 * @return The name of the input (e.g. file) from which this observation
+	 *         was read, or null if not known.
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * @param source
+	 *            The name of the input (e.g. file) from which this observation
+	 *            was read.
+	 */
+	public void setSource(String source) {
+		this.source = source;
+	}
+
 	public String toString() {
 		StringBuffer strBuf = new StringBuffer();
 
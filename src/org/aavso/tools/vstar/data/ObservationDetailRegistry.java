@@ -0,0 +1,221 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class records the titles, types and insertion order of the optional
+ * observation details (see ValidObservation.addDetail()) present in a
+ * dataset, e.g. for use as observation table columns.
+ * <p>
+ * Each analysis session has its own registry. The registry used by
+ * ValidObservation on the current thread is the one bound to that thread
+ * via setThreadRegistry(), if any, otherwise the default registry, so that
+ * datasets loaded concurrently on different threads do not share details.
+ * </p>
+ */
+public class ObservationDetailRegistry {
+
+	private static final ObservationDetailRegistry defaultRegistry = new ObservationDetailRegistry();
+
+	private static final ThreadLocal<ObservationDetailRegistry> threadRegistry = new ThreadLocal<ObservationDetailRegistry>();
+
+	// Detail titles and types, and shadow save collections.
+	private Map<String, String> titles;
+	private Map<String, String> savedTitles;
+
+	private Map<String, Class<?>> types;
+	private Map<String, Class<?>> savedTypes;
+
+	// Ordering of keys via an index of insertion to titles table.
+	private int index;
+	private int savedIndex;
+	private Map<Integer, String> indexToKey;
+	private Map<Integer, String> savedIndexToKey;
+	private Map<String, Integer> keyToIndex;
+	private Map<String, Integer> savedKeyToIndex;
+
+	/**
+	 * Constructor
+	 */
+	public ObservationDetailRegistry() {
+		titles = new HashMap<String, String>();
+		savedTitles = null;
+
+		types = new HashMap<String, Class<?>>();
+		savedTypes = null;
+
+		index = 0;
+		savedIndex = 0;
+		indexToKey = new HashMap<Integer, String>();
+		savedIndexToKey = null;
+		keyToIndex = new HashMap<String, Integer>();
+		savedKeyToIndex = null;
+	}
+
+	/**
+	 * @return The registry used when none is bound to the current thread,
+	 *         e.g. by the user interface.
+	 */
+	public static ObservationDetailRegistry getDefault() {
+		return defaultRegistry;
+	}
+
+	/**
+	 * @return The registry bound to the current thread, or the default
+	 *         registry if none is bound.
+	 */
+	public static ObservationDetailRegistry getCurrent() {
+		ObservationDetailRegistry registry = threadRegistry.get();
+		return registry != null ? registry : defaultRegistry;
+	}
+
+	/**
+	 * Bind a registry to the current thread.
+	 * 
+	 * @param registry
+	 *            The registry, or null to remove the binding.
+	 */
+	public static void setThreadRegistry(ObservationDetailRegistry registry) {
+		if (registry != null) {
+			threadRegistry.set(registry);
+		} else {
+			threadRegistry.remove();
+		}
+	}
+
+	/**
+	 * @return The detail titles, keyed by detail key.
+	 */
+	public Map<String, String> getTitles() {
+		return titles;
+	}
+
+	/**
+	 * @return The detail types, keyed by detail key.
+	 */
+	public Map<String, Class<?>> getTypes() {
+		return types;
+	}
+
+	/**
+	 * Return the detail key given the detail ordering index.
+	 * 
+	 * @param index
+	 *            The detail index.
+	 * @return The detail key.
+	 */
+	public String getKey(int index) {
+		return indexToKey.get(index);
+	}
+
+	/**
+	 * Return the detail index given the key.
+	 * 
+	 * @param key
+	 *            The detail key.
+	 * @return The detail index.
+	 */
+	public int getIndex(String key) {
+		return keyToIndex.get(key);
+	}
+
+	/**
+	 * Does the specified detail key have a title?
+	 * 
+	 * @param key
+	 *            The detail key.
+	 * @return Whether or not the detail title exists.
+	 */
+	public boolean containsKey(String key) {
+		return titles.containsKey(key);
+	}
+
+	/**
+	 * Register a detail key's title, type and index, if not already
+	 * registered. Observations may be created concurrently, e.g. by parallel
+	 * loads, so this is synchronized.
+	 * 
+	 * @param key
+	 *            The detail key.
+	 * @param clazz
+	 *            The type of the detail's values.
+	 * @param title
+	 *            The detail title.
+	 */
+	public synchronized void register(String key, Class<?> clazz, String title) {
+		if (!titles.containsKey(key)) {
+			titles.put(key, title);
+			types.put(key, clazz);
+			indexToKey.put(index, key);
+			keyToIndex.put(key, index);
+			index++;
+		}
+	}
+
+	/**
+	 * Reset the registry in readiness for a new dataset, saving its current
+	 * state so that it may be restored if the load fails.
+	 */
+	public synchronized void reset() {
+		savedTitles = new HashMap<String, String>(titles);
+		titles.clear();
+
+		savedTypes = new HashMap<String, Class<?>>(types);
+		types.clear();
+
+		savedIndexToKey = new HashMap<Integer, String>(indexToKey);
+		indexToKey.clear();
+
+		savedKeyToIndex = new HashMap<String, Integer>(keyToIndex);
+		keyToIndex.clear();
+
+		savedIndex = index;
+		index = 0;
+	}
+
+	/**
+	 * Restore the registry's state as saved by the last reset when a dataset
+	 * load failure occurs.
+	 */
+	public synchronized void restore() {
+		// Don't restore to null values, e.g. in the case of a first
+		// observation load failure, the saved map values may still be at
+		// their default of null.
+
+		if (savedTitles != null) {
+			titles = savedTitles;
+		}
+
+		if (savedTypes != null) {
+			types = savedTypes;
+		}
+
+		if (savedIndexToKey != null) {
+			indexToKey = savedIndexToKey;
+		}
+
+		if (savedKeyToIndex != null) {
+			keyToIndex = savedKeyToIndex;
+		}
+
+		index = savedIndex;
+	}
+}
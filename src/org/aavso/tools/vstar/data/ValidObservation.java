@@ -122,22 +122,8 @@ public class ValidObservation extends Observation {
 	// Optional string-based observation details.
 	private Map<String, Property> details;
 
-	// Optional observation detail titles, and shadow save collection.
-	private static Map<String, String> detailTitles = new HashMap<String, String>();
-	private static Map<String, String> savedDetailTitles = null;
-
-	// Optional observation detail types, and shadow save collection.
-	// @deprecated
-	private static Map<String, Class<?>> detailTypes = new HashMap<String, Class<?>>();
-	private static Map<String, Class<?>> savedDetailTypes = null;
-
-	// Ordering of keys via an index of insertion to titles table.
-	private static int detailIndex = 0;
-	private static int savedDetailIndex = 0;
-	private static Map<Integer, String> indexToDetailKey = new HashMap<Integer, String>();
-	private static Map<Integer, String> savedIndexToDetailKey = null;
-	private static Map<String, Integer> detailKeyToIndex = new HashMap<String, Integer>();
-	private static Map<String, Integer> savedDetailKeyToIndex = null;
+	// Optional observation detail titles, types and ordering are recorded by
+	// the current thread's detail registry (see ObservationDetailRegistry).
 
 	private final static String nameKey = "NAME";
 	private final static String nameTitle = "Name";
@@ -262,59 +248,17 @@ public class ValidObservation extends Observation {
 	}
 
 	/**
-	 * Reset static non-cache maps and detail index in readiness for a new dataset.
+	 * Reset the current detail registry in readiness for a new dataset.
 	 */
 	public static void reset() {
-		if (detailTitles != null) {
-			savedDetailTitles = new HashMap<String, String>(detailTitles);
-			detailTitles.clear();
-		}
-		
-		if (detailTypes != null) {
-			savedDetailTypes = new HashMap<String, Class<?>>(detailTypes);
-			detailTypes.clear();
-		}
-
-		if (indexToDetailKey != null) {
-			savedIndexToDetailKey = new HashMap<Integer, String>(indexToDetailKey);
-			indexToDetailKey.clear();
-		}
-
-		if (detailKeyToIndex != null) {
-			savedDetailKeyToIndex = new HashMap<String, Integer>(detailKeyToIndex);
-			detailKeyToIndex.clear();
-		}
-
-		savedDetailIndex = detailIndex;
-		detailIndex = 0;
+		ObservationDetailRegistry.getCurrent().reset();
 	}
 
 	/**
-	 * Restore static non-cache maps and detail index when a dataset load failure
-	 * occurs.
+	 * Restore the current detail registry when a dataset load failure occurs.
 	 */
 	public static void restore() {
-		// Don't restore to null values, e.g. in the case of a first observation
-		// load failure, the saved map values may still be at their default of
-		// null.
-
-		if (savedDetailTitles != null) {
-			detailTitles = savedDetailTitles;
-		}
-
-		if (savedDetailTypes != null) {
-			detailTypes = savedDetailTypes;
-		}
-
-		if (savedIndexToDetailKey != null) {
-			indexToDetailKey = savedIndexToDetailKey;
-		}
-
-		if (savedDetailKeyToIndex != null) {
-			detailKeyToIndex = savedDetailKeyToIndex;
-		}
-
-		detailIndex = savedDetailIndex;
+		ObservationDetailRegistry.getCurrent().restore();
 	}
 
 	// Getters and Setters
@@ -328,10 +272,14 @@ public class ValidObservation extends Observation {
 	 * @return The present or future cached value.
 	 */
 	private static <T> T getCachedValue(WeakHashMap<T, T> cache, T value) {
-		if (cache.containsKey(value)) {
-			value = cache.get(value);
-		} else {
-			cache.put(value, value);
+		// Observations may be created concurrently, e.g. by parallel or
+		// headless batch loads.
+		synchronized (cache) {
+			if (cache.containsKey(value)) {
+				value = cache.get(value);
+			} else {
+				cache.put(value, value);
+			}
 		}
 
 		return value;
@@ -348,14 +296,14 @@ public class ValidObservation extends Observation {
 	 * @return the detailTitles
 	 */
 	public static Map<String, String> getDetailTitles() {
-		return detailTitles;
+		return ObservationDetailRegistry.getCurrent().getTitles();
 	}
 
 	/**
 	 * @return the detail types
 	 */
 	public static Map<String, Class<?>> getDetailTypes() {
-		return detailTypes;
+		return ObservationDetailRegistry.getCurrent().getTypes();
 	}
 
 	/**
@@ -365,7 +313,7 @@ public class ValidObservation extends Observation {
 	 * @return the detail key
 	 */
 	public static String getDetailKey(int index) {
-		return indexToDetailKey.get(index);
+		return ObservationDetailRegistry.getCurrent().getKey(index);
 	}
 
 	/**
@@ -375,7 +323,7 @@ public class ValidObservation extends Observation {
 	 * @return the detail index
 	 */
 	public static int getDetailIndex(String key) {
-		return detailKeyToIndex.get(key);
+		return ObservationDetailRegistry.getCurrent().getIndex(key);
 	}
 
 	/**
@@ -390,12 +338,10 @@ public class ValidObservation extends Observation {
 		if (key != null && value != null) {
 			value = getCachedValue(detailValueCache, value);
 			details.put(key, value);
-			if (!detailTitles.containsKey(key)) {
-				detailTitles.put(key, title);
-				detailTypes.put(key, value.getClazz());
-				indexToDetailKey.put(detailIndex, key);
-				detailKeyToIndex.put(key, detailIndex);
-				detailIndex++;
+			ObservationDetailRegistry registry = ObservationDetailRegistry
+					.getCurrent();
+			if (!registry.containsKey(key)) {
+				registry.register(key, value.getClazz(), title);
 			}
 		}
 	}
@@ -497,7 +443,7 @@ public class ValidObservation extends Observation {
 	 * @return Whether or not the detail title exists.
 	 */
 	public boolean detailTitleExists(String key) {
-		return detailTitles.keySet().contains(key);
+		return ObservationDetailRegistry.getCurrent().containsKey(key);
 	}
 
 	/**
@@ -977,6 +923,8 @@ public class ValidObservation extends Observation {
 	// Output formatting methods.
 
 	public String toString() {
+		Map<String, String> detailTitles = getDetailTitles();
+
 		StringBuffer strBuf = new StringBuffer();
 
 		if (nonEmptyDetailExists(nameKey)) {
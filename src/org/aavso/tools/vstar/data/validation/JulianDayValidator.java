@@ -19,6 +19,7 @@ package org.aavso.tools.vstar.data.validation;
 
 import org.aavso.tools.vstar.data.DateInfo;
 import org.aavso.tools.vstar.exception.ObservationValidationError;
+import org.aavso.tools.vstar.util.DecimalParser;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 
 /**
@@ -87,6 +88,24 @@ public class JulianDayValidator extends AbstractStringValidator<DateInfo> {
 		return new DateInfo(value);
 	}
 
+	/**
+	 * Validate the specified character sequence (e.g. a field slice of a
+	 * text buffer) as a Julian Day. A plain decimal value is parsed directly
+	 * from the sequence; anything else is validated as a string.
+	 * 
+	 * @param seq
+	 *            The character sequence to be validated.
+	 * @return The returned DateInfo object if validation is successful.
+	 * @throws ObservationValidationError
+	 *             if validation is unsuccessful.
+	 */
+	public DateInfo validate(CharSequence seq) throws ObservationValidationError {
+		double value = DecimalParser.parse(seq, false);
+
+		return Double.isNaN(value) ? validate(seq.toString()) : new DateInfo(
+				value);
+	}
+
 	protected boolean canBeEmpty() {
 		return this.canBeEmpty;
 	}
@@ -20,6 +20,7 @@ package org.aavso.tools.vstar.data.validation;
 import org.aavso.tools.vstar.data.Magnitude;
 import org.aavso.tools.vstar.data.MagnitudeModifier;
 import org.aavso.tools.vstar.exception.ObservationValidationError;
+import org.aavso.tools.vstar.util.DecimalParser;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 
 /**
@@ -96,6 +97,47 @@ public class MagnitudeFieldValidator extends AbstractStringValidator<Magnitude>
 		return mag;
 	}
 
+	/**
+	 * Validate the specified character sequence (e.g. a field slice of a
+	 * text buffer) as a magnitude field. A plain decimal magnitude, with
+	 * optional modifier prefix and uncertainty suffix, is parsed directly from
+	 * the sequence; anything else is validated as a string.
+	 * 
+	 * @param seq
+	 *            The character sequence to be validated.
+	 * @return The magnitude if validation is successful.
+	 * @throws ObservationValidationError
+	 *             if validation is unsuccessful.
+	 */
+	public Magnitude validate(CharSequence seq)
+			throws ObservationValidationError {
+		int start = 0;
+		int end = seq.length();
+
+		MagnitudeModifier mod = MagnitudeModifier.NO_DELTA;
+		if (end > 0) {
+			char c = seq.charAt(0);
+			if (c == '<') {
+				mod = MagnitudeModifier.FAINTER_THAN;
+				start++;
+			} else if (c == '>') {
+				mod = MagnitudeModifier.BRIGHTER_THAN;
+				start++;
+			}
+		}
+
+		boolean isUncertain = !Magnitude.IS_UNCERTAIN;
+		if (end > start && seq.charAt(end - 1) == ':') {
+			isUncertain = Magnitude.IS_UNCERTAIN;
+			end--;
+		}
+
+		double magnitude = DecimalParser.parse(seq, start, end, true);
+
+		return Double.isNaN(magnitude) ? validate(seq.toString())
+				: new Magnitude(magnitude, mod, isUncertain);
+	}
+
 	// Helpers
 
 	private MagnitudeModifier getMagModValue(String modStr)
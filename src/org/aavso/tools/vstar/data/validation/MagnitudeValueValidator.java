@@ -18,6 +18,7 @@
 package org.aavso.tools.vstar.data.validation;
 
 import org.aavso.tools.vstar.exception.ObservationValidationError;
+import org.aavso.tools.vstar.util.DecimalParser;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 
 /**
@@ -77,6 +78,23 @@ public class MagnitudeValueValidator extends AbstractStringValidator<Double> {
 		return value;
 	}
 
+	/**
+	 * Validate the specified character sequence (e.g. a field slice of a
+	 * text buffer) as a magnitude value. A plain decimal value is parsed
+	 * directly from the sequence; anything else is validated as a string.
+	 * 
+	 * @param seq
+	 *            The character sequence to be validated.
+	 * @return The magnitude value, or null if legally empty.
+	 * @throws ObservationValidationError
+	 *             if validation is unsuccessful.
+	 */
+	public Double validate(CharSequence seq) throws ObservationValidationError {
+		double value = DecimalParser.parse(seq, true);
+
+		return Double.isNaN(value) ? validate(seq.toString()) : value;
+	}
+
 	protected boolean canBeEmpty() {
 		return this.canBeEmpty;
 	}
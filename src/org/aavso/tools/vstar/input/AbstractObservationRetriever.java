@@ -18,6 +18,9 @@
 
 package org.aavso.tools.vstar.input;
 
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -32,7 +35,9 @@ import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
 import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.input.text.MappedTextTokenizer;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
+import org.aavso.tools.vstar.ui.mediator.AnalysisSession;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.mediator.StarInfo;
 import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
@@ -40,6 +45,7 @@ import org.aavso.tools.vstar.ui.mediator.message.ProgressType;
 import org.aavso.tools.vstar.ui.mediator.message.StopRequestMessage;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.notification.Listener;
+import org.aavso.tools.vstar.util.notification.Notifier;
 import org.aavso.tools.vstar.vela.Operand;
 import org.aavso.tools.vstar.vela.Type;
 import org.aavso.tools.vstar.vela.VeLaEvalError;
@@ -59,6 +65,12 @@ public abstract class AbstractObservationRetriever {
 	public final static int DEFAULT_CAPACITY = -1;
 	public final static String NO_VELA_FILTER = "";
 
+	/**
+	 * The number of progress steps for retrievers that track progress by
+	 * bytes consumed rather than by records read.
+	 */
+	public final static int BYTE_PROGRESS_STEPS = 1000;
+
 	private final static boolean VERBOSE = false;
 	private final static boolean ADD_VSTAR_API = false;
 	
@@ -73,7 +85,14 @@ public abstract class AbstractObservationRetriever {
 
 	protected boolean interrupted;
 
+	// Progress is reported to, and stop requests received from, the
+	// notifiers of the session in which the retriever was created, if any.
+	private Notifier<ProgressInfo> progressNotifier;
+
 	protected JDflavour jdFlavour;
+
+	private MappedTextTokenizer tokenizer;
+	private long tokenizerStepsTaken;
 	
 	/**
 	 * The list of valid observations retrieved.
@@ -146,8 +165,24 @@ public abstract class AbstractObservationRetriever {
 
 		jdFlavour = JDflavour.JD;
 
-		Mediator.getInstance().getStopRequestNotifier()
-				.addListener(createStopRequestListener());
+		// A retriever created in a session bound to the current thread (e.g.
+		// a background or batch analysis) belongs to that session, otherwise
+		// to the Mediator's. In a headless JVM with no session there is no
+		// user interface from which to request a stop or on which to show
+		// progress, so the Mediator is not involved.
+		AnalysisSession session = AnalysisSession.getCurrent();
+
+		if (session == null && !GraphicsEnvironment.isHeadless()) {
+			session = Mediator.getInstance().getSession();
+		}
+
+		if (session != null) {
+			progressNotifier = session.getProgressNotifier();
+			session.getStopRequestNotifier().addListener(
+					createStopRequestListener());
+		} else {
+			progressNotifier = null;
+		}
 	}
 
 	/**
@@ -428,8 +463,9 @@ public abstract class AbstractObservationRetriever {
 	 * Increment observation retrieval progress.
 	 */
 	public void incrementProgress() {
-		Mediator.getInstance().getProgressNotifier()
-				.notifyListeners(ProgressInfo.INCREMENT_PROGRESS);
+		if (progressNotifier != null) {
+			progressNotifier.notifyListeners(ProgressInfo.INCREMENT_PROGRESS);
+		}
 	}
 
 	/**
@@ -440,10 +476,52 @@ public abstract class AbstractObservationRetriever {
 	 *            The numnber of steps.
 	 */
 	public void incrementProgress(int steps) {
-		Mediator.getInstance()
-				.getProgressNotifier()
-				.notifyListeners(
-						new ProgressInfo(ProgressType.INCREMENT_PROGRESS, 2));
+		if (progressNotifier != null) {
+			progressNotifier.notifyListeners(new ProgressInfo(
+					ProgressType.INCREMENT_PROGRESS, steps));
+		}
+	}
+
+	/**
+	 * Open a byte-level tokenizer over the specified text stream. Subclasses
+	 * that read delimited text may opt into this rather than reading lines
+	 * via a Reader, to avoid creating a String per line and field. Progress
+	 * may then be tracked by bytes consumed via getTokenizerRecordCount() and
+	 * incrementTokenizerProgress().
+	 * 
+	 * @param stream
+	 *            The text stream; a file stream is memory mapped.
+	 * @return The tokenizer.
+	 * @throws IOException
+	 *             If an error occurs while opening the tokenizer.
+	 */
+	protected MappedTextTokenizer openTokenizer(InputStream stream)
+			throws IOException {
+		tokenizer = MappedTextTokenizer.create(stream);
+		tokenizerStepsTaken = 0;
+		return tokenizer;
+	}
+
+	/**
+	 * @return The number of progress steps for a retriever that reads via a
+	 *         tokenizer, for use by getNumberOfRecords().
+	 */
+	protected Integer getTokenizerRecordCount() {
+		return BYTE_PROGRESS_STEPS;
+	}
+
+	/**
+	 * Increment observation retrieval progress in proportion to the bytes
+	 * consumed by the tokenizer opened via openTokenizer().
+	 */
+	protected void incrementTokenizerProgress() {
+		long size = Math.max(1, tokenizer.getSize());
+		long steps = tokenizer.getPosition() * BYTE_PROGRESS_STEPS / size;
+
+		if (steps > tokenizerStepsTaken) {
+			incrementProgress((int) (steps - tokenizerStepsTaken));
+			tokenizerStepsTaken = steps;
+		}
 	}
 
 	/**
@@ -526,6 +604,25 @@ public abstract class AbstractObservationRetriever {
 		}
 	}
 
+	/**
+	 * Collect observations that have already been filtered and checked by
+	 * collectObservation(), e.g. by other retrievers whose results are being
+	 * merged. The observations must be in JD order, so that each one is
+	 * appended to the valid observation list and to its category's list.
+	 * 
+	 * @param obs
+	 *            The observations, in JD order.
+	 */
+	protected void collectSortedObservations(List<ValidObservation> obs) {
+		validObservations.ensureCapacity(validObservations.size()
+				+ obs.size());
+
+		for (ValidObservation ob : obs) {
+			addValidObservation(ob);
+			categoriseValidObservation(ob);
+		}
+	}
+
 	/**
 	 * Add an observation to the list of invalid observations.
 	 * 
@@ -0,0 +1,90 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that counts the bytes read from an underlying stream, e.g.
+ * so that observation retrieval progress can be driven by the number of bytes
+ * consumed rather than by a line count obtained from a preliminary pass over
+ * the source.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+	private volatile long count;
+	private long markedCount;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param in
+	 *            The underlying stream.
+	 */
+	public CountingInputStream(InputStream in) {
+		super(in);
+		count = 0;
+		markedCount = 0;
+	}
+
+	/**
+	 * @return The number of bytes read so far.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b != -1) {
+			count++;
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = super.read(b, off, len);
+		if (n > 0) {
+			count += n;
+		}
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(n);
+		count += skipped;
+		return skipped;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+		super.mark(readlimit);
+		markedCount = count;
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		super.reset();
+		count = markedCount;
+	}
+}
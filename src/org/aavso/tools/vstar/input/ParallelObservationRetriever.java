@@ -0,0 +1,345 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
+import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+import org.aavso.tools.vstar.ui.mediator.AnalysisSession;
+import org.aavso.tools.vstar.ui.mediator.StarInfo;
+
+/**
+ * This retriever loads the multiple inputs of an observation source plug-in
+ * in parallel. Each input stream is read by its own retriever, obtained from
+ * the plug-in (see ObservationSourcePluginBase#getParallelObservationRetriever())
+ * on a worker thread to which the plug-in's input streams are restricted (see
+ * ObservationSourcePluginBase#setThreadInputStreams()). The
+ * retrievers' valid observations are then merged into this retriever's
+ * collections in JD order with a single sort, and their invalid observations
+ * are attributed to the input from which they were read. All inputs must
+ * have the same JD flavour.
+ */
+public class ParallelObservationRetriever extends AbstractObservationRetriever {
+
+	private static final Comparator<ValidObservation> JD_COMPARATOR = new Comparator<ValidObservation>() {
+		@Override
+		public int compare(ValidObservation ob1, ValidObservation ob2) {
+			return Double.compare(ob1.getJD(), ob2.getJD());
+		}
+	};
+
+	private ObservationSourcePluginBase plugin;
+	private List<InputStream> streams;
+	private List<AbstractObservationRetriever> retrievers;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param plugin
+	 *            The observation source plug-in whose input streams are to be
+	 *            loaded.
+	 */
+	public ParallelObservationRetriever(ObservationSourcePluginBase plugin) {
+		super(plugin.getVelaFilterStr());
+		this.plugin = plugin;
+		this.streams = new ArrayList<InputStream>(plugin.getInputStreams());
+		this.retrievers = new ArrayList<AbstractObservationRetriever>();
+
+		for (int i = 0; i < streams.size(); i++) {
+			retrievers.add(null);
+		}
+	}
+
+	/**
+	 * Return a retriever for the specified plug-in's inputs: a parallel
+	 * retriever if the plug-in supports parallel loading and has more than
+	 * one input stream, otherwise the plug-in's own retriever.
+	 * 
+	 * @param plugin
+	 *            The observation source plug-in.
+	 * @return The retriever, or null if the plug-in's retriever is null,
+	 *         e.g. because the user cancelled a parameter dialog.
+	 */
+	public static AbstractObservationRetriever getObservationRetriever(
+			ObservationSourcePluginBase plugin) {
+		// Always ask the plug-in for its retriever first, so that any
+		// parameters it requests from the user are requested only once.
+		AbstractObservationRetriever retriever = plugin
+				.getObservationRetriever();
+
+		List<InputStream> streams = plugin.getInputStreams();
+
+		if (retriever != null && plugin.isParallelLoadSupported()
+				&& streams != null && streams.size() > 1) {
+			retriever = new ParallelObservationRetriever(plugin);
+		}
+
+		return retriever;
+	}
+
+	@Override
+	public Integer getNumberOfRecords() throws ObservationReadError {
+		List<Integer> counts;
+
+		try {
+			counts = runInParallel(new RetrieverTask<Integer>() {
+				@Override
+				public Integer run(AbstractObservationRetriever retriever)
+						throws Exception {
+					return retriever.getNumberOfRecords();
+				}
+			});
+		} catch (InterruptedException e) {
+			return null;
+		}
+
+		Integer records = null;
+
+		for (Integer count : counts) {
+			if (count != null) {
+				records = records == null ? count : records + count;
+			}
+		}
+
+		return records;
+	}
+
+	@Override
+	public void retrieveObservations() throws ObservationReadError,
+			InterruptedException {
+
+		runInParallel(new RetrieverTask<Void>() {
+			@Override
+			public Void run(AbstractObservationRetriever retriever)
+					throws Exception {
+				retriever.retrieveObservations();
+				return null;
+			}
+		});
+
+		// The merged observations share this retriever's JD flavour, so
+		// inputs with different flavours (e.g. HJD and BJD) are rejected
+		// rather than being combined on inconsistent time scales.
+		JDflavour flavour = retrievers.get(0).getJDflavour();
+
+		for (int i = 1; i < retrievers.size(); i++) {
+			JDflavour otherFlavour = retrievers.get(i).getJDflavour();
+			if (otherFlavour != flavour) {
+				throw new ObservationReadError(String.format(
+						"%s: %s times cannot be loaded with %s times from %s",
+						plugin.nameFromStream(streams.get(i)),
+						otherFlavour.label, flavour.label,
+						plugin.nameFromStream(streams.get(0))));
+			}
+		}
+
+		setJDflavour(flavour);
+
+		// Merge valid observations by JD. The sort is stable, so
+		// observations with equal JDs remain in input order.
+		int count = 0;
+		for (AbstractObservationRetriever retriever : retrievers) {
+			count += retriever.getValidObservations().size();
+		}
+
+		List<ValidObservation> obs = new ArrayList<ValidObservation>(count);
+		for (AbstractObservationRetriever retriever : retrievers) {
+			obs.addAll(retriever.getValidObservations());
+		}
+
+		Collections.sort(obs, JD_COMPARATOR);
+
+		collectSortedObservations(obs);
+
+		for (int i = 0; i < retrievers.size(); i++) {
+			String name = plugin.nameFromStream(streams.get(i));
+
+			for (InvalidObservation ob : retrievers.get(i)
+					.getInvalidObservations()) {
+				if (ob.getSource() == null) {
+					ob.setSource(name);
+				}
+				addInvalidObservation(ob);
+			}
+		}
+	}
+
+	@Override
+	public String getSourceType() {
+		return getFirstRetriever().getSourceType();
+	}
+
+	@Override
+	public String getSourceName() {
+		return getFirstRetriever().getSourceName();
+	}
+
+	@Override
+	public StarInfo getStarInfo() {
+		StarInfo info = getFirstRetriever().getStarInfo();
+		info.setRetriever(this);
+		return info;
+	}
+
+	@Override
+	public String getTimeUnits() {
+		return getFirstRetriever().getTimeUnits();
+	}
+
+	@Override
+	public String getBrightnessUnits() {
+		return getFirstRetriever().getBrightnessUnits();
+	}
+
+	@Override
+	public String getDomainTitle() {
+		return getFirstRetriever().getDomainTitle();
+	}
+
+	@Override
+	public String getRangeTitle() {
+		return getFirstRetriever().getRangeTitle();
+	}
+
+	@Override
+	public Set<SeriesType> seriesToExcludeWhenAdditive() {
+		return getFirstRetriever().seriesToExcludeWhenAdditive();
+	}
+
+	// Helpers
+
+	/**
+	 * An operation on the retriever for a single input stream.
+	 */
+	private interface RetrieverTask<T> {
+		abstract public T run(AbstractObservationRetriever retriever)
+				throws Exception;
+	}
+
+	// Run a task for each input stream's retriever in parallel, creating the
+	// retriever first if necessary, and return the results in input order.
+	private <T> List<T> runInParallel(final RetrieverTask<T> task)
+			throws ObservationReadError, InterruptedException {
+
+		int threads = Math.min(streams.size(), Runtime.getRuntime()
+				.availableProcessors());
+
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.max(1, threads), new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "VStar parallel load");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+		// Workers run in the caller's session, if any, so that observation
+		// details are recorded in its registry.
+		final AnalysisSession session = AnalysisSession.getCurrent();
+
+		try {
+			List<Future<T>> futures = new ArrayList<Future<T>>();
+
+			for (int i = 0; i < streams.size(); i++) {
+				final int index = i;
+				final Callable<T> worker = new Callable<T>() {
+					@Override
+					public T call() throws Exception {
+						plugin.setThreadInputStreams(Collections
+								.singletonList(streams.get(index)));
+						try {
+							return task.run(getRetriever(index));
+						} finally {
+							plugin.setThreadInputStreams(null);
+						}
+					}
+				};
+
+				futures.add(executor.submit(new Callable<T>() {
+					@Override
+					public T call() throws Exception {
+						return session != null ? session.call(worker) : worker
+								.call();
+					}
+				}));
+			}
+
+			List<T> results = new ArrayList<T>();
+
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					results.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof InterruptedException) {
+						throw (InterruptedException) cause;
+					} else {
+						String name = plugin.nameFromStream(streams.get(i));
+						String msg = cause.getLocalizedMessage();
+						if (msg == null) {
+							msg = cause.toString();
+						}
+						throw new ObservationReadError(name != null ? name
+								+ ": " + msg : msg);
+					}
+				}
+			}
+
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private synchronized AbstractObservationRetriever getRetriever(int index) {
+		AbstractObservationRetriever retriever = retrievers.get(index);
+
+		if (retriever == null) {
+			retriever = plugin.getParallelObservationRetriever();
+			retrievers.set(index, retriever);
+		}
+
+		return retriever;
+	}
+
+	private AbstractObservationRetriever getFirstRetriever() {
+		plugin.setThreadInputStreams(Collections.singletonList(streams.get(0)));
+		try {
+			return getRetriever(0);
+		} finally {
+			plugin.setThreadInputStreams(null);
+		}
+	}
+}
@@ -28,6 +28,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.aavso.tools.vstar.input.IStarInfoSource;
+import org.aavso.tools.vstar.input.http.HttpResponseCache;
 import org.aavso.tools.vstar.ui.mediator.StarInfo;
 import org.aavso.tools.vstar.util.coords.DecInfo;
 import org.aavso.tools.vstar.util.coords.EpochType;
@@ -102,7 +103,8 @@ public class VSXWebServiceStarInfoSource implements IStarInfoSource {
 			DocumentBuilderFactory factory = DocumentBuilderFactory
 					.newInstance();
 			DocumentBuilder builder = factory.newDocumentBuilder();
-			Document document = builder.parse(vsxUrl.openStream());
+			Document document = builder.parse(HttpResponseCache.getInstance()
+					.openStream(vsxUrl));
 
 			document.getDocumentElement().normalize();
 
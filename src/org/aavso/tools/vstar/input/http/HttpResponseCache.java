@@ -0,0 +1,506 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.http;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.logging.Level;
+
+import org.aavso.tools.vstar.ui.VStar;
+import org.aavso.tools.vstar.util.DigestUtils;
+import org.aavso.tools.vstar.util.prefs.CachePrefs;
+
+/**
+ * A size-bounded, on-disk cache of HTTP(S) GET responses, shared by
+ * observation source plug-ins and other code that reads from URLs.
+ * 
+ * A cached response younger than the time-to-live (TTL) requested by the
+ * caller is returned without contacting the server. An older response is
+ * revalidated with its ETag and Last-Modified values, if any, so that an
+ * unchanged resource is not downloaded again. If the server cannot be
+ * reached, a cached response of any age is returned. In offline mode, only
+ * cached responses are returned.
+ * 
+ * When the total size of cached responses exceeds the maximum size, the
+ * least recently used responses are evicted. URLs whose protocol is not HTTP
+ * or HTTPS are never cached.
+ */
+public class HttpResponseCache {
+
+	public static final String CACHE_DIR = System.getProperty("user.home")
+			+ File.separator + "vstar_http_cache";
+
+	/**
+	 * The default maximum total size of cached responses in bytes.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+	/**
+	 * The default time-to-live of a cached response in milliseconds.
+	 */
+	public static final long DEFAULT_TTL = 60 * 60 * 1000L;
+
+	/**
+	 * A time-to-live denoting that a cached response must always be
+	 * revalidated before use.
+	 */
+	public static final long ALWAYS_REVALIDATE = 0;
+
+	/**
+	 * A time-to-live denoting that responses must not be cached.
+	 */
+	public static final long NO_CACHE = -1;
+
+	private static final String BODY_SUFFIX = ".body";
+	private static final String META_SUFFIX = ".meta";
+
+	private static final String URL_KEY = "url";
+	private static final String ETAG_KEY = "etag";
+	private static final String LAST_MODIFIED_KEY = "lastModified";
+	private static final String FETCHED_KEY = "fetched";
+
+	private static HttpResponseCache instance = null;
+
+	private File dir;
+
+	private long maxSize;
+
+	private boolean enabled;
+
+	private boolean offline;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param dir
+	 *            The directory in which responses are stored; it is created
+	 *            when the first response is written.
+	 * @param maxSize
+	 *            The maximum total size of cached responses in bytes.
+	 */
+	public HttpResponseCache(File dir, long maxSize) {
+		this.dir = dir;
+		this.maxSize = maxSize;
+		this.enabled = true;
+		this.offline = false;
+	}
+
+	/**
+	 * @return The singleton cache instance, enabled and online or offline
+	 *         according to the cache preferences.
+	 */
+	public static synchronized HttpResponseCache getInstance() {
+		if (instance == null) {
+			instance = new HttpResponseCache(new File(CACHE_DIR),
+					DEFAULT_MAX_SIZE);
+			instance.setEnabled(CachePrefs.isHttpCacheEnabled());
+			instance.setOffline(CachePrefs.isHttpCacheOffline());
+		}
+
+		return instance;
+	}
+
+	/**
+	 * @return Whether responses are read from and written to the cache.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param enabled
+	 *            Should responses be read from and written to the cache?
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return Whether only cached responses are returned.
+	 */
+	public boolean isOffline() {
+		return offline;
+	}
+
+	/**
+	 * @param offline
+	 *            Should only cached responses be returned, without contacting
+	 *            any server?
+	 */
+	public void setOffline(boolean offline) {
+		this.offline = offline;
+	}
+
+	/**
+	 * @return The maximum total size of cached responses in bytes.
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @param maxSize
+	 *            The maximum total size of cached responses in bytes.
+	 */
+	public void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+		evict();
+	}
+
+	/**
+	 * Open a stream from which to read the response for the specified URL,
+	 * using a cached response no older than the default time-to-live.
+	 * 
+	 * @param url
+	 *            The URL.
+	 * @return The response stream.
+	 * @throws IOException
+	 *             If the response cannot be obtained.
+	 */
+	public InputStream openStream(URL url) throws IOException {
+		return openStream(url, DEFAULT_TTL);
+	}
+
+	/**
+	 * Open a stream from which to read the response for the specified URL,
+	 * using a cached response if there is a usable one.
+	 * 
+	 * @param url
+	 *            The URL.
+	 * @param ttl
+	 *            The time in milliseconds for which a cached response may be
+	 *            used without revalidation, ALWAYS_REVALIDATE, or NO_CACHE.
+	 * @return The response stream.
+	 * @throws IOException
+	 *             If the response cannot be obtained.
+	 */
+	public InputStream openStream(URL url, long ttl) throws IOException {
+		if (!enabled || ttl == NO_CACHE || !isCacheable(url)) {
+			return url.openStream();
+		}
+
+		String key = DigestUtils.sha1Hex(url.toString());
+		File body = getBodyFile(key);
+		Properties meta = readMeta(key, url);
+
+		if (offline) {
+			if (meta == null) {
+				throw new IOException("Offline: no cached response for "
+						+ url);
+			}
+
+			return openCached(body);
+		}
+
+		if (meta != null) {
+			long fetched = Long.parseLong(meta.getProperty(FETCHED_KEY, "0"));
+			if (System.currentTimeMillis() - fetched < ttl) {
+				return openCached(body);
+			}
+		}
+
+		try {
+			return fetch(url, key, meta);
+		} catch (IOException e) {
+			if (meta != null) {
+				// The server cannot be reached, so fall back to the stale
+				// cached response.
+				VStar.LOGGER.log(Level.WARNING,
+						"Using cached response for " + url, e);
+				return openCached(body);
+			} else {
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Remove the cached response for the specified URL, if present.
+	 * 
+	 * @param url
+	 *            The URL.
+	 */
+	public synchronized void remove(URL url) {
+		String key = DigestUtils.sha1Hex(url.toString());
+		getMetaFile(key).delete();
+		getBodyFile(key).delete();
+	}
+
+	/**
+	 * Remove all cached responses.
+	 */
+	public synchronized void clear() {
+		File[] files = dir.listFiles();
+
+		if (files != null) {
+			for (File file : files) {
+				if (file.getName().endsWith(BODY_SUFFIX)
+						|| file.getName().endsWith(META_SUFFIX)) {
+					file.delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The total size in bytes of all cached responses.
+	 */
+	public synchronized long getSize() {
+		long size = 0;
+
+		for (File body : listBodyFiles()) {
+			size += body.length();
+		}
+
+		return size;
+	}
+
+	// Helpers
+
+	private static boolean isCacheable(URL url) {
+		String protocol = url.getProtocol();
+		return "http".equalsIgnoreCase(protocol)
+				|| "https".equalsIgnoreCase(protocol);
+	}
+
+	// Request the URL, conditionally if there is a cached response, and
+	// store a new response.
+	private InputStream fetch(URL url, String key, Properties meta)
+			throws IOException {
+
+		URLConnection conn = url.openConnection();
+
+		if (!(conn instanceof HttpURLConnection)) {
+			return conn.getInputStream();
+		}
+
+		HttpURLConnection httpConn = (HttpURLConnection) conn;
+
+		if (meta != null) {
+			String etag = meta.getProperty(ETAG_KEY);
+			if (etag != null) {
+				httpConn.setRequestProperty("If-None-Match", etag);
+			}
+
+			String lastModified = meta.getProperty(LAST_MODIFIED_KEY);
+			if (lastModified != null) {
+				httpConn.setRequestProperty("If-Modified-Since", lastModified);
+			}
+		}
+
+		int status = httpConn.getResponseCode();
+
+		if (status == HttpURLConnection.HTTP_NOT_MODIFIED && meta != null) {
+			httpConn.disconnect();
+			meta.setProperty(FETCHED_KEY,
+					Long.toString(System.currentTimeMillis()));
+			writeMeta(key, meta);
+			return openCached(getBodyFile(key));
+		}
+
+		if (status != HttpURLConnection.HTTP_OK) {
+			// Let the connection report the error, if any.
+			return httpConn.getInputStream();
+		}
+
+		Properties newMeta = new Properties();
+		newMeta.setProperty(URL_KEY, url.toString());
+		newMeta.setProperty(FETCHED_KEY,
+				Long.toString(System.currentTimeMillis()));
+
+		String etag = httpConn.getHeaderField("ETag");
+		if (etag != null) {
+			newMeta.setProperty(ETAG_KEY, etag);
+		}
+
+		String lastModified = httpConn.getHeaderField("Last-Modified");
+		if (lastModified != null) {
+			newMeta.setProperty(LAST_MODIFIED_KEY, lastModified);
+		}
+
+		File body = getBodyFile(key);
+
+		try {
+			store(httpConn.getInputStream(), key, newMeta);
+		} catch (IOException e) {
+			// The response could not be stored, so the cache can no longer
+			// be relied upon for this URL; request it afresh.
+			VStar.LOGGER.log(Level.WARNING, "Unable to cache response for "
+					+ url, e);
+			remove(url);
+			return url.openStream();
+		}
+
+		// Open the response before evicting, in case the response alone
+		// exceeds the maximum size.
+		InputStream cached = new FileInputStream(body);
+
+		evict();
+
+		return cached;
+	}
+
+	// Write a response body and its metadata to temporary files and then
+	// rename them into place.
+	private void store(InputStream stream, String key, Properties meta)
+			throws IOException {
+
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			stream.close();
+			throw new IOException("Unable to create " + dir);
+		}
+
+		File tmp = File.createTempFile(key, BODY_SUFFIX, dir);
+
+		try {
+			OutputStream out = new FileOutputStream(tmp);
+			try {
+				byte[] buf = new byte[64 * 1024];
+				int n;
+				while ((n = stream.read(buf)) != -1) {
+					out.write(buf, 0, n);
+				}
+			} finally {
+				out.close();
+				stream.close();
+			}
+
+			synchronized (this) {
+				File body = getBodyFile(key);
+				body.delete();
+				if (!tmp.renameTo(body)) {
+					throw new IOException("Unable to rename " + tmp + " to "
+							+ body);
+				}
+				writeMeta(key, meta);
+			}
+		} finally {
+			tmp.delete();
+		}
+	}
+
+	// Open a cached response body, recording its use for eviction purposes.
+	private InputStream openCached(File body) throws IOException {
+		body.setLastModified(System.currentTimeMillis());
+		return new FileInputStream(body);
+	}
+
+	// Read the metadata for a cached response, returning null if there is no
+	// complete cached response for the URL.
+	private synchronized Properties readMeta(String key, URL url) {
+		Properties meta = null;
+
+		File metaFile = getMetaFile(key);
+		File body = getBodyFile(key);
+
+		if (metaFile.isFile() && body.isFile()) {
+			try {
+				InputStream in = new FileInputStream(metaFile);
+				try {
+					meta = new Properties();
+					meta.load(in);
+				} finally {
+					in.close();
+				}
+
+				if (!url.toString().equals(meta.getProperty(URL_KEY))) {
+					meta = null;
+				}
+			} catch (IOException e) {
+				VStar.LOGGER.log(Level.WARNING, "Unable to read " + metaFile,
+						e);
+				meta = null;
+			}
+		}
+
+		return meta;
+	}
+
+	private synchronized void writeMeta(String key, Properties meta)
+			throws IOException {
+		OutputStream out = new FileOutputStream(getMetaFile(key));
+		try {
+			meta.store(out, null);
+		} finally {
+			out.close();
+		}
+	}
+
+	// Remove least recently used responses until the total size is within
+	// the maximum size.
+	private synchronized void evict() {
+		File[] bodies = listBodyFiles();
+
+		long size = 0;
+		for (File body : bodies) {
+			size += body.length();
+		}
+
+		if (size > maxSize) {
+			Arrays.sort(bodies, new Comparator<File>() {
+				@Override
+				public int compare(File file1, File file2) {
+					return Long.compare(file1.lastModified(),
+							file2.lastModified());
+				}
+			});
+
+			for (int i = 0; i < bodies.length && size > maxSize; i++) {
+				String name = bodies[i].getName();
+				String key = name.substring(0, name.length()
+						- BODY_SUFFIX.length());
+				size -= bodies[i].length();
+				getMetaFile(key).delete();
+				bodies[i].delete();
+			}
+		}
+	}
+
+	private File[] listBodyFiles() {
+		File[] bodies = dir.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				// Exclude temporary files, which have a random infix.
+				String name = file.getName();
+				return name.endsWith(BODY_SUFFIX)
+						&& name.length() == 40 + BODY_SUFFIX.length();
+			}
+		});
+
+		return bodies == null ? new File[0] : bodies;
+	}
+
+	private File getBodyFile(String key) {
+		return new File(dir, key + BODY_SUFFIX);
+	}
+
+	private File getMetaFile(String key) {
+		return new File(dir, key + META_SUFFIX);
+	}
+}
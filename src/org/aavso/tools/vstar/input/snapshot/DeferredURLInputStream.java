@@ -0,0 +1,134 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+
+/**
+ * An input stream for a URL that is opened via an observation source
+ * plug-in (see ObservationSourcePluginBase#openURLStream()) when first read
+ * rather than when created. A plug-in's inputs can therefore be set before
+ * the snapshot cache is consulted, without any request being made if a
+ * snapshot is used instead.
+ */
+public class DeferredURLInputStream extends InputStream {
+
+	private ObservationSourcePluginBase plugin;
+
+	private URL url;
+
+	private InputStream stream;
+
+	private boolean closed;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param plugin
+	 *            The plug-in with which to open the URL.
+	 * @param url
+	 *            The URL.
+	 */
+	public DeferredURLInputStream(ObservationSourcePluginBase plugin, URL url) {
+		this.plugin = plugin;
+		this.url = url;
+		this.stream = null;
+		this.closed = false;
+	}
+
+	/**
+	 * @return Has the URL been opened?
+	 */
+	public synchronized boolean isOpened() {
+		return stream != null;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return getStream().read();
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		return getStream().read(b, off, len);
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		return getStream().skip(n);
+	}
+
+	@Override
+	public int available() throws IOException {
+		return getStream().available();
+	}
+
+	@Override
+	public boolean markSupported() {
+		boolean supported = false;
+
+		try {
+			supported = getStream().markSupported();
+		} catch (IOException e) {
+			// The URL cannot be read, so nor can a mark be set.
+		}
+
+		return supported;
+	}
+
+	@Override
+	public void mark(int readlimit) {
+		try {
+			getStream().mark(readlimit);
+		} catch (IOException e) {
+			// The URL cannot be read, so nor can a mark be set.
+		}
+	}
+
+	@Override
+	public void reset() throws IOException {
+		getStream().reset();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		closed = true;
+
+		if (stream != null) {
+			stream.close();
+		}
+	}
+
+	// Helpers
+
+	private synchronized InputStream getStream() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed: " + url);
+		}
+
+		if (stream == null) {
+			stream = plugin.openURLStream(url);
+		}
+
+		return stream;
+	}
+}
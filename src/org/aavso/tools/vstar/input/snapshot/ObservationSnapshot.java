@@ -0,0 +1,462 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.Property;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.ui.mediator.StarInfo;
+
+/**
+ * This class writes and opens binary snapshots of loaded datasets.
+ * 
+ * A snapshot holds a dataset's valid observations column-wise (one fixed
+ * width column per field, e.g. JD, magnitude, uncertainty, flags) with
+ * series, strings (e.g. observer codes, comment codes) and detail values
+ * dictionary-encoded, followed by its invalid observations. Because the
+ * columns have fixed widths, a snapshot can be memory mapped and decoded in
+ * place (see SnapshotObservationRetriever) rather than re-parsed and
+ * re-validated from the original source.
+ * 
+ * The layout (big-endian) is: header (magic, version, key, source, star
+ * information), string dictionary, series dictionary, detail value
+ * dictionary, detail keys, observation count, observation columns, invalid
+ * observations. A string is written as its UTF-8 byte count (-1 for null)
+ * followed by its bytes; a dictionary index of -1 denotes an absent value.
+ */
+public class ObservationSnapshot {
+
+	public static final int MAGIC = 0x56534e50; // "VSNP"
+	public static final int VERSION = 2;
+
+	// Observation flag bits.
+	static final int UNCERTAIN = 1;
+	static final int TRANSFORMED = 2;
+	static final int EXCLUDED = 4;
+	static final int HAS_HQ_UNCERTAINTY = 8;
+	static final int HAS_HJD = 16;
+
+	// Sizes in bytes of the per-observation column values: JD, magnitude,
+	// uncertainty, HQ uncertainty and HJD (double); record number, band,
+	// series, comment code and obs type (int); magnitude modifier,
+	// validation type, mtype, JD flavour and flags (byte).
+	static final int FIXED_BYTES_PER_OB = 5 * 8 + 5 * 4 + 5;
+
+	/**
+	 * Write a snapshot of the observations retrieved by the specified
+	 * retriever. The snapshot is first written to a temporary file which then
+	 * replaces any existing snapshot file.
+	 * 
+	 * @param file
+	 *            The snapshot file.
+	 * @param key
+	 *            The key identifying the source of the observations.
+	 * @param retriever
+	 *            The retriever whose observations are to be written.
+	 * @throws IOException
+	 *             If an error occurs while writing the snapshot.
+	 */
+	public static void write(File file, String key,
+			AbstractObservationRetriever retriever) throws IOException {
+
+		List<ValidObservation> obs = retriever.getValidObservations();
+		List<InvalidObservation> invalidObs = retriever.getInvalidObservations();
+
+		int n = obs.size();
+
+		// Build the dictionaries and dictionary-encoded columns.
+		Dictionary<String> strings = new Dictionary<String>();
+		Dictionary<SeriesType> series = new Dictionary<SeriesType>();
+		Dictionary<Property> properties = new Dictionary<Property>();
+
+		for (SeriesType type : collectSeries(obs)) {
+			strings.indexOf(type.getDescription());
+			strings.indexOf(type.getShortName());
+			series.indexOf(type);
+		}
+
+		int[] bandCol = new int[n];
+		int[] seriesCol = new int[n];
+		int[] commentCodeCol = new int[n];
+		int[] obsTypeCol = new int[n];
+
+		List<String> detailKeys = collectDetailKeys(obs);
+		int[][] detailCols = new int[detailKeys.size()][n];
+
+		for (int i = 0; i < n; i++) {
+			ValidObservation ob = obs.get(i);
+
+			bandCol[i] = series.indexOf(ob.getBand());
+			seriesCol[i] = series.indexOf(ob.getSeries());
+			commentCodeCol[i] = strings.indexOf(ob.getCommentCode() == null ? null
+					: ob.getCommentCode().getOrigString());
+			obsTypeCol[i] = strings.indexOf(ob.getObsType());
+
+			Map<String, Property> details = ob.getDetails();
+			for (int k = 0; k < detailKeys.size(); k++) {
+				Property value = details.get(detailKeys.get(k));
+				if (value != null && value.getType() == Property.propType.STRING) {
+					strings.indexOf(value.getStrVal());
+				}
+				detailCols[k][i] = properties.indexOf(value);
+			}
+		}
+
+		for (String detailKey : detailKeys) {
+			strings.indexOf(detailKey);
+			strings.indexOf(ValidObservation.getDetailTitles().get(detailKey));
+		}
+
+		File tmpFile = new File(file.getPath() + ".tmp");
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(tmpFile), 64 * 1024));
+
+		try {
+			// Header
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, key);
+			writeString(out, retriever.getSourceType());
+			writeString(out, retriever.getSourceName());
+			out.writeByte(retriever.getJDflavour() == null ? -1 : retriever
+					.getJDflavour().ordinal());
+			writeStarInfo(out, retriever.getStarInfo());
+
+			// Dictionaries
+			out.writeInt(strings.size());
+			for (String str : strings.values()) {
+				writeString(out, str);
+			}
+
+			out.writeInt(series.size());
+			for (SeriesType type : series.values()) {
+				out.writeInt(strings.indexOf(type.getDescription()));
+				out.writeInt(strings.indexOf(type.getShortName()));
+				out.writeInt(type.getColor() == null ? 0 : type.getColor()
+						.getRGB());
+				out.writeBoolean(type.isSynthetic());
+				out.writeBoolean(type.isUserDefined());
+			}
+
+			out.writeInt(properties.size());
+			for (Property value : properties.values()) {
+				out.writeByte(value.getType().ordinal());
+				switch (value.getType()) {
+				case INTEGER:
+					out.writeInt(value.getIntVal());
+					break;
+				case REAL:
+					out.writeDouble(value.getRealVal());
+					break;
+				case BOOLEAN:
+					out.writeBoolean(value.getBoolVal());
+					break;
+				case STRING:
+					out.writeInt(strings.indexOf(value.getStrVal()));
+					break;
+				case NONE:
+				default:
+					break;
+				}
+			}
+
+			out.writeInt(detailKeys.size());
+			for (String detailKey : detailKeys) {
+				out.writeInt(strings.indexOf(detailKey));
+				out.writeInt(strings.indexOf(ValidObservation.getDetailTitles()
+						.get(detailKey)));
+			}
+
+			// Observation columns
+			out.writeInt(n);
+
+			for (ValidObservation ob : obs) {
+				out.writeDouble(ob.getJD());
+			}
+			for (ValidObservation ob : obs) {
+				out.writeDouble(ob.getMagnitude().getMagValue());
+			}
+			for (ValidObservation ob : obs) {
+				out.writeDouble(ob.getMagnitude().getUncertainty());
+			}
+			for (ValidObservation ob : obs) {
+				Double hqUncertainty = ob.getHqUncertainty();
+				out.writeDouble(hqUncertainty == null ? Double.NaN
+						: hqUncertainty);
+			}
+			for (ValidObservation ob : obs) {
+				out.writeDouble(ob.getHJD() == null ? Double.NaN : ob.getHJD()
+						.getJulianDay());
+			}
+			for (ValidObservation ob : obs) {
+				out.writeInt(ob.getRecordNumber());
+			}
+			writeColumn(out, bandCol);
+			writeColumn(out, seriesCol);
+			writeColumn(out, commentCodeCol);
+			writeColumn(out, obsTypeCol);
+			for (ValidObservation ob : obs) {
+				Magnitude mag = ob.getMagnitude();
+				out.writeByte(mag.getMagModifier() == null ? -1 : mag
+						.getMagModifier().ordinal());
+			}
+			for (ValidObservation ob : obs) {
+				out.writeByte(ob.getValidationType() == null ? -1 : ob
+						.getValidationType().ordinal());
+			}
+			for (ValidObservation ob : obs) {
+				out.writeByte(ob.getMType() == null ? -1 : ob.getMType()
+						.ordinal());
+			}
+			for (ValidObservation ob : obs) {
+				out.writeByte(ob.getJDflavour() == null ? -1 : ob
+						.getJDflavour().ordinal());
+			}
+			for (ValidObservation ob : obs) {
+				int flags = 0;
+				if (ob.getMagnitude().isUncertain())
+					flags |= UNCERTAIN;
+				if (ob.isTransformed())
+					flags |= TRANSFORMED;
+				if (ob.isExcluded())
+					flags |= EXCLUDED;
+				if (ob.getHqUncertainty() != null)
+					flags |= HAS_HQ_UNCERTAINTY;
+				if (ob.getHJD() != null)
+					flags |= HAS_HJD;
+				out.writeByte(flags);
+			}
+			for (int[] detailCol : detailCols) {
+				writeColumn(out, detailCol);
+			}
+
+			// Invalid observations
+			out.writeInt(invalidObs.size());
+			for (InvalidObservation ob : invalidObs) {
+				out.writeInt(ob.getRecordNumber());
+				writeString(out, ob.getInputLine());
+				writeString(out, ob.getError());
+				out.writeBoolean(ob.isWarning());
+				writeString(out, ob.getSource());
+			}
+		} finally {
+			out.close();
+		}
+
+		if (file.exists() && !file.delete()) {
+			tmpFile.delete();
+			throw new IOException("Unable to replace snapshot " + file);
+		}
+
+		if (!tmpFile.renameTo(file)) {
+			tmpFile.delete();
+			throw new IOException("Unable to create snapshot " + file);
+		}
+	}
+
+	/**
+	 * Open a snapshot by memory mapping it.
+	 * 
+	 * @param file
+	 *            The snapshot file.
+	 * @param key
+	 *            The key the snapshot is expected to have been written with.
+	 * @return A retriever that decodes the snapshot's observations, or null if
+	 *         the file is not a snapshot of the current version with the
+	 *         specified key.
+	 * @throws IOException
+	 *             If an error occurs while opening the snapshot.
+	 */
+	public static SnapshotObservationRetriever open(File file, String key)
+			throws IOException {
+		SnapshotObservationRetriever retriever = null;
+
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size());
+
+			if (buffer.remaining() >= 8 && buffer.getInt() == MAGIC
+					&& buffer.getInt() == VERSION
+					&& key.equals(readString(buffer))) {
+				retriever = new SnapshotObservationRetriever(buffer);
+			}
+		} finally {
+			// The mapping remains valid once the channel is closed.
+			in.close();
+		}
+
+		return retriever;
+	}
+
+	// Helpers
+
+	static String readString(ByteBuffer buffer) {
+		String str = null;
+
+		int length = buffer.getInt();
+		if (length >= 0) {
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			str = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		return str;
+	}
+
+	private static void writeString(DataOutputStream out, String str)
+			throws IOException {
+		if (str == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static void writeColumn(DataOutputStream out, int[] column)
+			throws IOException {
+		for (int value : column) {
+			out.writeInt(value);
+		}
+	}
+
+	private static void writeStarInfo(DataOutputStream out, StarInfo info)
+			throws IOException {
+		writeString(out, info.getDesignation());
+		writeString(out, info.getAuid());
+		out.writeDouble(info.getPeriod() == null ? Double.NaN : info
+				.getPeriod());
+		out.writeDouble(info.getEpoch() == null ? Double.NaN : info
+				.getEpoch());
+		writeString(out, info.getVarType());
+		writeString(out, info.getSpectralType());
+		writeString(out, info.getDiscoverer());
+
+		if (info.getRA() == null) {
+			out.writeByte(-1);
+		} else {
+			out.writeByte(info.getRA().getEpoch().ordinal());
+			out.writeDouble(info.getRA().toDegrees());
+		}
+
+		if (info.getDec() == null) {
+			out.writeByte(-1);
+		} else {
+			out.writeByte(info.getDec().getEpoch().ordinal());
+			out.writeDouble(info.getDec().toDegrees());
+		}
+	}
+
+	// Returns the series referred to by the observations.
+	private static Set<SeriesType> collectSeries(List<ValidObservation> obs) {
+		Set<SeriesType> series = new LinkedHashSet<SeriesType>();
+
+		for (ValidObservation ob : obs) {
+			if (ob.getBand() != null) {
+				series.add(ob.getBand());
+			}
+			if (ob.getSeries() != null) {
+				series.add(ob.getSeries());
+			}
+		}
+
+		return series;
+	}
+
+	// Returns the detail keys present in the observations, in detail index
+	// order, so that detail columns are recreated in the same order.
+	private static List<String> collectDetailKeys(List<ValidObservation> obs) {
+		Set<String> keySet = new LinkedHashSet<String>();
+
+		for (ValidObservation ob : obs) {
+			keySet.addAll(ob.getDetails().keySet());
+		}
+
+		List<String> keys = new ArrayList<String>(keySet);
+
+		Collections.sort(keys, new Comparator<String>() {
+			@Override
+			public int compare(String key1, String key2) {
+				return Integer.compare(detailIndex(key1), detailIndex(key2));
+			}
+		});
+
+		return keys;
+	}
+
+	private static int detailIndex(String key) {
+		return ValidObservation.getDetailTitles().containsKey(key) ? ValidObservation
+				.getDetailIndex(key) : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * A dictionary mapping values to indices in order of first occurrence.
+	 * The null value is not stored and has the index -1.
+	 */
+	private static class Dictionary<T> {
+
+		private final Map<T, Integer> indices = new LinkedHashMap<T, Integer>();
+
+		public int indexOf(T value) {
+			if (value == null) {
+				return -1;
+			}
+
+			Integer index = indices.get(value);
+			if (index == null) {
+				index = indices.size();
+				indices.put(value, index);
+			}
+
+			return index;
+		}
+
+		public int size() {
+			return indices.size();
+		}
+
+		public Iterable<T> values() {
+			return indices.keySet();
+		}
+	}
+}
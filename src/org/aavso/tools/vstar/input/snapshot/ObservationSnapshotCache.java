@@ -0,0 +1,393 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.snapshot;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+import org.aavso.tools.vstar.ui.VStar;
+import org.aavso.tools.vstar.util.DigestUtils;
+import org.aavso.tools.vstar.util.prefs.CachePrefs;
+
+/**
+ * A size-bounded cache of dataset snapshots (see ObservationSnapshot),
+ * written after a successful load and used instead of an observation source
+ * plug-in's retriever when the same source is loaded again.
+ * 
+ * Snapshots are keyed by the plug-in, its VeLa filter and snapshot
+ * parameters (see ObservationSourcePluginBase#getSnapshotParameters()), and
+ * the identity of each input: a file's path, size and modification time, or
+ * a URL. A plug-in that returns null snapshot parameters is never cached, and
+ * since a URL's content may change without the URL changing, neither is a
+ * load from URLs by a plug-in whose snapshots do not expire.
+ * 
+ * A snapshot older than the maximum age requested by the caller is deleted
+ * when next requested. Snapshots unused for longer than the maximum idle time
+ * are deleted when the cache is first used (see purge()), and when the total
+ * size of snapshots exceeds the maximum size, the least recently used
+ * snapshots are evicted.
+ */
+public class ObservationSnapshotCache {
+
+	public static final String SNAPSHOT_DIR = System.getProperty("user.home")
+			+ File.separator + "vstar_snapshots";
+
+	/**
+	 * The default maximum total size of snapshots in bytes.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+	/**
+	 * The default time in milliseconds after which an unused snapshot is
+	 * deleted.
+	 */
+	public static final long DEFAULT_MAX_IDLE = 30L * 24 * 60 * 60 * 1000;
+
+	/**
+	 * A snapshot maximum age denoting that snapshots never expire.
+	 */
+	public static final long NO_MAX_AGE = Long.MAX_VALUE;
+
+	private static final String SNAPSHOT_SUFFIX = ".vsnp";
+
+	private static ObservationSnapshotCache instance = null;
+
+	private File dir;
+
+	private long maxSize;
+
+	private boolean enabled;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param dir
+	 *            The directory in which snapshots are stored; it is created
+	 *            when the first snapshot is written.
+	 * @param maxSize
+	 *            The maximum total size of snapshots in bytes.
+	 */
+	public ObservationSnapshotCache(File dir, long maxSize) {
+		this.dir = dir;
+		this.maxSize = maxSize;
+		this.enabled = true;
+	}
+
+	/**
+	 * @return The singleton cache instance, enabled according to the cache
+	 *         preferences, from which unused snapshots have been purged.
+	 */
+	public static synchronized ObservationSnapshotCache getInstance() {
+		if (instance == null) {
+			instance = new ObservationSnapshotCache(new File(SNAPSHOT_DIR),
+					DEFAULT_MAX_SIZE);
+			instance.setEnabled(CachePrefs.isSnapshotCacheEnabled());
+			instance.purge(DEFAULT_MAX_IDLE);
+		}
+
+		return instance;
+	}
+
+	/**
+	 * @return Whether snapshots are read and written.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param enabled
+	 *            Should snapshots be read and written?
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Create a snapshot key for the specified plug-in and inputs.
+	 * 
+	 * @param plugin
+	 *            The observation source plug-in.
+	 * @param inputIds
+	 *            The identities of the plug-in's inputs (see
+	 *            getFileIdentity() and getURLIdentity()), possibly empty.
+	 * @return The key, or null if the plug-in's observations should not be
+	 *         snapshot.
+	 */
+	public static String createKey(ObservationSourcePluginBase plugin,
+			List<String> inputIds) {
+		String key = null;
+
+		String params = plugin.getSnapshotParameters();
+
+		if (params != null && !inputIds.contains(null)) {
+			StringBuffer buf = new StringBuffer();
+
+			buf.append("plugin=");
+			buf.append(plugin.getClass().getName());
+			buf.append("\nparams=");
+			buf.append(params);
+			buf.append("\nvela=");
+			buf.append(plugin.getVelaFilterStr() == null ? "" : plugin
+					.getVelaFilterStr().trim());
+			for (String inputId : inputIds) {
+				buf.append("\ninput=");
+				buf.append(inputId);
+			}
+
+			key = buf.toString();
+		}
+
+		return key;
+	}
+
+	/**
+	 * Return the identity of a file for use in a snapshot key: its path, size
+	 * and modification time, so that a changed file yields a different key.
+	 * 
+	 * @param file
+	 *            The file.
+	 * @return The file's identity.
+	 */
+	public static String getFileIdentity(File file) {
+		return file.getAbsolutePath() + ":" + file.length() + ":"
+				+ file.lastModified();
+	}
+
+	/**
+	 * Return the identity of a URL for use in a snapshot key, or null if a
+	 * snapshot of the specified plug-in's observations from the URL would
+	 * never expire, since the URL says nothing about whether its content has
+	 * changed.
+	 * 
+	 * @param plugin
+	 *            The observation source plug-in.
+	 * @param url
+	 *            The URL.
+	 * @return The URL's identity or null.
+	 */
+	public static String getURLIdentity(ObservationSourcePluginBase plugin,
+			URL url) {
+		String id = null;
+
+		if (plugin.getSnapshotMaxAge() != NO_MAX_AGE) {
+			id = url.toString();
+		}
+
+		return id;
+	}
+
+	/**
+	 * Return a retriever for the snapshot with the specified key, if present
+	 * and not older than the specified age. An older snapshot is deleted.
+	 * 
+	 * @param key
+	 *            The snapshot key.
+	 * @param maxAge
+	 *            The maximum age of the snapshot in milliseconds.
+	 * @return The snapshot retriever or null if there is no usable snapshot.
+	 */
+	public synchronized SnapshotObservationRetriever get(String key,
+			long maxAge) {
+		SnapshotObservationRetriever retriever = null;
+
+		if (enabled && key != null) {
+			File file = getSnapshotFile(key);
+
+			if (file.isFile()) {
+				if (System.currentTimeMillis() - file.lastModified() > maxAge) {
+					file.delete();
+				} else {
+					try {
+						retriever = ObservationSnapshot.open(file, key);
+						recordUse(file);
+					} catch (Exception e) {
+						// A corrupt or unreadable snapshot is a cache miss.
+						VStar.LOGGER.log(Level.WARNING,
+								"Unable to read snapshot " + file, e);
+					}
+				}
+			}
+		}
+
+		return retriever;
+	}
+
+	/**
+	 * Write a snapshot of the observations retrieved by the specified
+	 * retriever, then evict least recently used snapshots if the maximum size
+	 * is exceeded. Failure to write is logged, but is otherwise not an error.
+	 * 
+	 * @param key
+	 *            The snapshot key.
+	 * @param retriever
+	 *            The retriever whose observations are to be written.
+	 */
+	public synchronized void put(String key,
+			AbstractObservationRetriever retriever) {
+		if (enabled && key != null) {
+			File file = getSnapshotFile(key);
+
+			try {
+				if (!dir.isDirectory() && !dir.mkdirs()) {
+					throw new IOException("Unable to create " + dir);
+				}
+
+				ObservationSnapshot.write(file, key, retriever);
+
+				evict();
+			} catch (Exception e) {
+				VStar.LOGGER.log(Level.WARNING, "Unable to write snapshot "
+						+ file, e);
+			}
+		}
+	}
+
+	/**
+	 * Remove the snapshot with the specified key, if present.
+	 * 
+	 * @param key
+	 *            The snapshot key.
+	 */
+	public synchronized void remove(String key) {
+		getSnapshotFile(key).delete();
+	}
+
+	/**
+	 * Delete snapshots that have not been used (written or read) within the
+	 * specified time, then evict least recently used snapshots if the maximum
+	 * size is exceeded.
+	 * 
+	 * @param maxIdle
+	 *            The maximum idle time in milliseconds.
+	 */
+	public synchronized void purge(long maxIdle) {
+		long now = System.currentTimeMillis();
+
+		for (File file : listSnapshotFiles()) {
+			if (now - getLastUse(file) > maxIdle) {
+				file.delete();
+			}
+		}
+
+		evict();
+	}
+
+	/**
+	 * @return The total size in bytes of all snapshots.
+	 */
+	public synchronized long getSize() {
+		long size = 0;
+
+		for (File file : listSnapshotFiles()) {
+			size += file.length();
+		}
+
+		return size;
+	}
+
+	// Helpers
+
+	// Remove least recently used snapshots until the total size is within
+	// the maximum size.
+	private void evict() {
+		File[] files = listSnapshotFiles();
+
+		long size = 0;
+		for (File file : files) {
+			size += file.length();
+		}
+
+		if (size > maxSize) {
+			final Map<File, Long> lastUses = new HashMap<File, Long>();
+			for (File file : files) {
+				lastUses.put(file, getLastUse(file));
+			}
+
+			Arrays.sort(files, new Comparator<File>() {
+				@Override
+				public int compare(File file1, File file2) {
+					return Long.compare(lastUses.get(file1), lastUses
+							.get(file2));
+				}
+			});
+
+			for (int i = 0; i < files.length && size > maxSize; i++) {
+				size -= files[i].length();
+				files[i].delete();
+			}
+		}
+	}
+
+	// Record the use of a snapshot as its last access time. The modification
+	// time is left alone since it determines the snapshot's age.
+	private static void recordUse(File file) {
+		try {
+			Files.getFileAttributeView(file.toPath(),
+					BasicFileAttributeView.class).setTimes(null,
+					FileTime.fromMillis(System.currentTimeMillis()), null);
+		} catch (IOException e) {
+			// The snapshot is then treated as last used when written.
+		}
+	}
+
+	// Return the time at which a snapshot was last written or read.
+	private static long getLastUse(File file) {
+		long lastUse = file.lastModified();
+
+		try {
+			BasicFileAttributes attrs = Files.readAttributes(file.toPath(),
+					BasicFileAttributes.class);
+			lastUse = Math.max(lastUse, attrs.lastAccessTime().toMillis());
+		} catch (IOException e) {
+			// Use the modification time.
+		}
+
+		return lastUse;
+	}
+
+	private File[] listSnapshotFiles() {
+		File[] files = dir.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return file.isFile()
+						&& file.getName().endsWith(SNAPSHOT_SUFFIX);
+			}
+		});
+
+		return files == null ? new File[0] : files;
+	}
+
+	private File getSnapshotFile(String key) {
+		return new File(dir, DigestUtils.sha1Hex(key) + SNAPSHOT_SUFFIX);
+	}
+}
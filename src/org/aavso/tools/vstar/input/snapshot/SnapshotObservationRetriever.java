@@ -0,0 +1,357 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.snapshot;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+
+import org.aavso.tools.vstar.data.CommentCodes;
+import org.aavso.tools.vstar.data.DateInfo;
+import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.MTypeType;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.MagnitudeModifier;
+import org.aavso.tools.vstar.data.Property;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
+import org.aavso.tools.vstar.data.ValidationType;
+import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.ui.mediator.StarInfo;
+import org.aavso.tools.vstar.util.coords.DecInfo;
+import org.aavso.tools.vstar.util.coords.EpochType;
+import org.aavso.tools.vstar.util.coords.RAInfo;
+
+/**
+ * An observation retriever that decodes the observations of a memory mapped
+ * dataset snapshot (see ObservationSnapshot) rather than parsing and
+ * validating them from their original source.
+ */
+public class SnapshotObservationRetriever extends AbstractObservationRetriever {
+
+	private final ByteBuffer buffer;
+
+	private String sourceType;
+	private String sourceName;
+	private StarInfo starInfo;
+
+	private String[] strings;
+	private SeriesType[] series;
+	private Property[] properties;
+	private String[] detailKeys;
+	private String[] detailTitles;
+
+	private int obCount;
+
+	// Column offsets.
+	private int jdOffset;
+	private int magOffset;
+	private int uncertaintyOffset;
+	private int hqUncertaintyOffset;
+	private int hjdOffset;
+	private int recordNumberOffset;
+	private int bandOffset;
+	private int seriesOffset;
+	private int commentCodeOffset;
+	private int obsTypeOffset;
+	private int magModifierOffset;
+	private int validationTypeOffset;
+	private int mTypeOffset;
+	private int jdFlavourOffset;
+	private int flagsOffset;
+	private int detailsOffset;
+	private int invalidObsOffset;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param buffer
+	 *            The snapshot buffer, positioned after the snapshot's magic
+	 *            number, version and key.
+	 */
+	SnapshotObservationRetriever(ByteBuffer buffer) {
+		super(NO_VELA_FILTER);
+
+		this.buffer = buffer;
+
+		sourceType = ObservationSnapshot.readString(buffer);
+		sourceName = ObservationSnapshot.readString(buffer);
+
+		byte jdFlavourOrdinal = buffer.get();
+		if (jdFlavourOrdinal >= 0) {
+			setJDflavour(JDflavour.values()[jdFlavourOrdinal]);
+		}
+
+		starInfo = readStarInfo();
+
+		readDictionaries();
+
+		obCount = buffer.getInt();
+
+		int n = obCount;
+		int offset = buffer.position();
+
+		jdOffset = offset;
+		magOffset = jdOffset + 8 * n;
+		uncertaintyOffset = magOffset + 8 * n;
+		hqUncertaintyOffset = uncertaintyOffset + 8 * n;
+		hjdOffset = hqUncertaintyOffset + 8 * n;
+		recordNumberOffset = hjdOffset + 8 * n;
+		bandOffset = recordNumberOffset + 4 * n;
+		seriesOffset = bandOffset + 4 * n;
+		commentCodeOffset = seriesOffset + 4 * n;
+		obsTypeOffset = commentCodeOffset + 4 * n;
+		magModifierOffset = obsTypeOffset + 4 * n;
+		validationTypeOffset = magModifierOffset + n;
+		mTypeOffset = validationTypeOffset + n;
+		jdFlavourOffset = mTypeOffset + n;
+		flagsOffset = jdFlavourOffset + n;
+		detailsOffset = flagsOffset + n;
+		invalidObsOffset = detailsOffset + 4 * n * detailKeys.length;
+
+		assert invalidObsOffset - offset == n
+				* (ObservationSnapshot.FIXED_BYTES_PER_OB + 4 * detailKeys.length);
+	}
+
+	/**
+	 * @return The number of valid observations in the snapshot.
+	 */
+	public int getObservationCount() {
+		return obCount;
+	}
+
+	@Override
+	public void retrieveObservations() throws ObservationReadError,
+			InterruptedException {
+
+		registerDetails();
+
+		validObservations.ensureCapacity(obCount);
+
+		MagnitudeModifier[] modifiers = MagnitudeModifier.values();
+		ValidationType[] validationTypes = ValidationType.values();
+		MTypeType[] mTypes = MTypeType.values();
+		JDflavour[] jdFlavours = JDflavour.values();
+
+		for (int i = 0; i < obCount && !interrupted; i++) {
+			ValidObservation ob = new ValidObservation();
+
+			ob.setRecordNumber(buffer.getInt(recordNumberOffset + 4 * i));
+			ob.setDateInfo(new DateInfo(buffer.getDouble(jdOffset + 8 * i)));
+
+			int flags = buffer.get(flagsOffset + i);
+
+			byte modifier = buffer.get(magModifierOffset + i);
+			ob.setMagnitude(new Magnitude(buffer.getDouble(magOffset + 8 * i),
+					modifier < 0 ? null : modifiers[modifier],
+					(flags & ObservationSnapshot.UNCERTAIN) != 0, buffer
+							.getDouble(uncertaintyOffset + 8 * i)));
+
+			if ((flags & ObservationSnapshot.HAS_HQ_UNCERTAINTY) != 0) {
+				ob.setHqUncertainty(buffer.getDouble(hqUncertaintyOffset + 8
+						* i));
+			}
+
+			if ((flags & ObservationSnapshot.HAS_HJD) != 0) {
+				ob.setHJD(new DateInfo(buffer.getDouble(hjdOffset + 8 * i)));
+			}
+
+			ob.setTransformed((flags & ObservationSnapshot.TRANSFORMED) != 0);
+			ob.setExcluded((flags & ObservationSnapshot.EXCLUDED) != 0);
+
+			int band = buffer.getInt(bandOffset + 4 * i);
+			ob.setBand(band < 0 ? null : series[band]);
+
+			int obSeries = buffer.getInt(seriesOffset + 4 * i);
+			ob.setSeries(obSeries < 0 ? null : series[obSeries]);
+
+			int commentCode = buffer.getInt(commentCodeOffset + 4 * i);
+			if (commentCode >= 0) {
+				ob.setCommentCode(new CommentCodes(strings[commentCode]));
+			}
+
+			int obsType = buffer.getInt(obsTypeOffset + 4 * i);
+			ob.setObsType(obsType < 0 ? null : strings[obsType]);
+
+			byte validationType = buffer.get(validationTypeOffset + i);
+			ob.setValidationType(validationType < 0 ? null
+					: validationTypes[validationType]);
+
+			byte mType = buffer.get(mTypeOffset + i);
+			ob.setMType(mType < 0 ? null : mTypes[mType]);
+
+			byte jdFlavour = buffer.get(jdFlavourOffset + i);
+			if (jdFlavour >= 0) {
+				ob.setJDflavour(jdFlavours[jdFlavour]);
+			}
+
+			for (int k = 0; k < detailKeys.length; k++) {
+				int value = buffer.getInt(detailsOffset + 4 * (k * obCount + i));
+				if (value >= 0) {
+					ob.addDetail(detailKeys[k], properties[value],
+							detailTitles[k]);
+				}
+			}
+
+			collectObservation(ob);
+		}
+
+		readInvalidObservations();
+	}
+
+	@Override
+	public String getSourceType() {
+		return sourceType;
+	}
+
+	@Override
+	public String getSourceName() {
+		return sourceName;
+	}
+
+	@Override
+	public StarInfo getStarInfo() {
+		starInfo.setRetriever(this);
+		return starInfo;
+	}
+
+	// Helpers
+
+	private StarInfo readStarInfo() {
+		String designation = ObservationSnapshot.readString(buffer);
+		String auid = ObservationSnapshot.readString(buffer);
+		Double period = nullIfNaN(buffer.getDouble());
+		Double epoch = nullIfNaN(buffer.getDouble());
+		String varType = ObservationSnapshot.readString(buffer);
+		String spectralType = ObservationSnapshot.readString(buffer);
+		String discoverer = ObservationSnapshot.readString(buffer);
+
+		RAInfo ra = null;
+		byte raEpoch = buffer.get();
+		if (raEpoch >= 0) {
+			ra = new RAInfo(EpochType.values()[raEpoch], buffer.getDouble());
+		}
+
+		DecInfo dec = null;
+		byte decEpoch = buffer.get();
+		if (decEpoch >= 0) {
+			dec = new DecInfo(EpochType.values()[decEpoch], buffer.getDouble());
+		}
+
+		return new StarInfo(this, designation, auid, period, epoch, varType,
+				spectralType, discoverer, ra, dec, null);
+	}
+
+	private void readDictionaries() {
+		strings = new String[buffer.getInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = ObservationSnapshot.readString(buffer);
+		}
+
+		series = new SeriesType[buffer.getInt()];
+		for (int i = 0; i < series.length; i++) {
+			String description = strings[buffer.getInt()];
+			String shortName = strings[buffer.getInt()];
+			Color color = new Color(buffer.getInt(), true);
+			boolean synthetic = buffer.get() != 0;
+			boolean userDefined = buffer.get() != 0;
+
+			if (SeriesType.exists(description)) {
+				series[i] = SeriesType.getSeriesFromDescription(description);
+			} else {
+				series[i] = SeriesType.create(description, shortName, color,
+						synthetic, userDefined);
+			}
+		}
+
+		properties = new Property[buffer.getInt()];
+		for (int i = 0; i < properties.length; i++) {
+			switch (Property.propType.values()[buffer.get()]) {
+			case INTEGER:
+				properties[i] = new Property(buffer.getInt());
+				break;
+			case REAL:
+				properties[i] = new Property(buffer.getDouble());
+				break;
+			case BOOLEAN:
+				properties[i] = new Property(buffer.get() != 0);
+				break;
+			case STRING:
+				int index = buffer.getInt();
+				properties[i] = new Property(index < 0 ? null : strings[index]);
+				break;
+			case NONE:
+			default:
+				properties[i] = Property.NO_VALUE;
+				break;
+			}
+		}
+
+		int detailCount = buffer.getInt();
+		detailKeys = new String[detailCount];
+		detailTitles = new String[detailCount];
+		for (int k = 0; k < detailCount; k++) {
+			detailKeys[k] = strings[buffer.getInt()];
+			int title = buffer.getInt();
+			detailTitles[k] = title < 0 ? null : strings[title];
+		}
+	}
+
+	// Register detail keys in their original order, since detail columns
+	// are ordered by first registration, with the type of each detail's
+	// first value.
+	private void registerDetails() {
+		ValidObservation ob = new ValidObservation();
+
+		for (int k = 0; k < detailKeys.length; k++) {
+			for (int i = 0; i < obCount; i++) {
+				int value = buffer.getInt(detailsOffset + 4 * (k * obCount + i));
+				if (value >= 0) {
+					ob.addDetail(detailKeys[k], properties[value],
+							detailTitles[k]);
+					break;
+				}
+			}
+		}
+	}
+
+	private void readInvalidObservations() {
+		ByteBuffer invalidObsBuffer = buffer.duplicate();
+		invalidObsBuffer.position(invalidObsOffset);
+
+		int count = invalidObsBuffer.getInt();
+		for (int i = 0; i < count; i++) {
+			int recordNumber = invalidObsBuffer.getInt();
+			String inputLine = ObservationSnapshot.readString(invalidObsBuffer);
+			String error = ObservationSnapshot.readString(invalidObsBuffer);
+			boolean isWarning = invalidObsBuffer.get() != 0;
+			String source = ObservationSnapshot.readString(invalidObsBuffer);
+
+			InvalidObservation ob = new InvalidObservation(inputLine, error,
+					isWarning);
+			ob.setRecordNumber(recordNumber);
+			ob.setSource(source);
+			addInvalidObservation(ob);
+		}
+	}
+
+	private Double nullIfNaN(double value) {
+		return Double.isNaN(value) ? null : value;
+	}
+}
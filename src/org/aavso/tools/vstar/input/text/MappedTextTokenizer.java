@@ -0,0 +1,538 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.aavso.tools.vstar.util.DecimalParser;
+
+/**
+ * A line and field tokenizer over the bytes of a text file.
+ * 
+ * A file is mapped into memory in windows via its channel rather than being
+ * decoded through a Reader, and line terminators (\n, \r\n, or \r) and field
+ * delimiters are scanned for over bytes. Fields are exposed as reusable
+ * CharSequence slices of the mapped buffer, so numeric fields can be validated
+ * and parsed (see DecimalParser) without creating a String per line or field.
+ * Strings are only created on request, e.g. for header lines or for the text
+ * of an invalid observation.
+ * 
+ * Slices read bytes as ISO-8859-1 characters, which is exact for the ASCII
+ * content of numeric and code fields; toString() decodes UTF-8.
+ */
+public class MappedTextTokenizer {
+
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private static final int INITIAL_FIELD_CAPACITY = 32;
+
+	private final FileChannel channel;
+	private final long origin;
+	private final long size;
+	private final int windowSize;
+
+	private ByteBuffer buffer;
+	private long windowStart;
+
+	// Buffer indices of the start of the next line and the current line.
+	private int next;
+	private int lineStart;
+	private int lineEnd;
+	private int lineNumber;
+
+	private byte delimiter;
+	private boolean fieldsSplit;
+	private int fieldCount;
+	private int[] fieldStarts;
+	private int[] fieldEnds;
+	private FieldSlice[] slices;
+
+	private byte[] scratch;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel
+	 *            The file channel to be tokenized, from its current position;
+	 *            it is closed once its last window has been mapped.
+	 * @param windowSize
+	 *            The maximum number of bytes to be mapped at once; no line
+	 *            may be longer than this.
+	 */
+	public MappedTextTokenizer(FileChannel channel, int windowSize)
+			throws IOException {
+		this.channel = channel;
+		this.origin = channel.position();
+		this.size = channel.size() - origin;
+		this.windowSize = windowSize;
+		map(0);
+		init();
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param channel
+	 *            The file channel to be tokenized, from its current position;
+	 *            it is closed once its last window has been mapped.
+	 */
+	public MappedTextTokenizer(FileChannel channel) throws IOException {
+		this(channel, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            The bytes to be tokenized.
+	 */
+	public MappedTextTokenizer(byte[] bytes) {
+		this.channel = null;
+		this.origin = 0;
+		this.size = bytes.length;
+		this.windowSize = bytes.length;
+		this.buffer = ByteBuffer.wrap(bytes);
+		this.windowStart = 0;
+		init();
+	}
+
+	/**
+	 * Create a tokenizer for the specified stream. A file stream is mapped
+	 * via its channel and closed once mapped; any other stream is read fully
+	 * into memory first.
+	 * 
+	 * @param stream
+	 *            The stream to be tokenized.
+	 * @return The tokenizer.
+	 */
+	public static MappedTextTokenizer create(InputStream stream)
+			throws IOException {
+		MappedTextTokenizer tokenizer = null;
+
+		if (stream instanceof FileInputStream) {
+			tokenizer = new MappedTextTokenizer(
+					((FileInputStream) stream).getChannel());
+		} else {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] chunk = new byte[64 * 1024];
+			int n;
+			while ((n = stream.read(chunk)) != -1) {
+				bytes.write(chunk, 0, n);
+			}
+			tokenizer = new MappedTextTokenizer(bytes.toByteArray());
+		}
+
+		return tokenizer;
+	}
+
+	/**
+	 * Advance to the next line.
+	 * 
+	 * @return Whether there was another line.
+	 */
+	public boolean nextLine() throws IOException {
+		fieldsSplit = false;
+
+		while (true) {
+			int limit = buffer.limit();
+			boolean atEnd = windowStart + limit >= size;
+
+			int i = next;
+			while (i < limit) {
+				byte b = buffer.get(i);
+				if (b == '\n' || b == '\r') {
+					break;
+				}
+				i++;
+			}
+
+			if (i < limit) {
+				int after = i + 1;
+
+				if (buffer.get(i) == '\r') {
+					if (after < limit) {
+						if (buffer.get(after) == '\n') {
+							after++;
+						}
+					} else if (!atEnd) {
+						// A \r\n pair may straddle the window.
+						remap();
+						continue;
+					}
+				}
+
+				lineStart = next;
+				lineEnd = i;
+				next = after;
+				lineNumber++;
+				return true;
+			} else if (atEnd) {
+				if (next >= limit) {
+					return false;
+				}
+
+				lineStart = next;
+				lineEnd = limit;
+				next = limit;
+				lineNumber++;
+				return true;
+			} else {
+				// The line crosses the end of the window.
+				remap();
+			}
+		}
+	}
+
+	/**
+	 * @return The 1-based number of the current line.
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @return The number of bytes consumed so far.
+	 */
+	public long getPosition() {
+		return windowStart + next;
+	}
+
+	/**
+	 * @return The total number of bytes to be tokenized.
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return Whether the current line is empty or all whitespace.
+	 */
+	public boolean isBlankLine() {
+		for (int i = lineStart; i < lineEnd; i++) {
+			if (buffer.get(i) > ' ') {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Does the current line start with the specified character, ignoring
+	 * leading whitespace?
+	 * 
+	 * @param c
+	 *            The character.
+	 * @return Whether or not the line starts with the character.
+	 */
+	public boolean lineStartsWith(char c) {
+		for (int i = lineStart; i < lineEnd; i++) {
+			byte b = buffer.get(i);
+			if (b > ' ') {
+				return (b & 0xFF) == c;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return The current line as a string.
+	 */
+	public String getLine() {
+		return decode(lineStart, lineEnd);
+	}
+
+	/**
+	 * Set the field delimiter.
+	 * 
+	 * @param delimiter
+	 *            The delimiter; must be a single byte character.
+	 */
+	public void setDelimiter(char delimiter) {
+		this.delimiter = (byte) delimiter;
+		fieldsSplit = false;
+	}
+
+	/**
+	 * @return The number of fields in the current line.
+	 */
+	public int getFieldCount() {
+		split();
+		return fieldCount;
+	}
+
+	/**
+	 * Return a field of the current line, trimmed of surrounding whitespace.
+	 * The returned slice is reused and is only valid until the next line is
+	 * read; take its toString() to keep it.
+	 * 
+	 * @param index
+	 *            The field index.
+	 * @return The field.
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no such field.
+	 */
+	public CharSequence getField(int index) {
+		checkField(index);
+
+		FieldSlice slice = slices[index];
+		slice.start = fieldStarts[index];
+		slice.end = fieldEnds[index];
+
+		return slice;
+	}
+
+	/**
+	 * @param index
+	 *            The field index.
+	 * @return The field as a string.
+	 */
+	public String getFieldString(int index) {
+		checkField(index);
+		return decode(fieldStarts[index], fieldEnds[index]);
+	}
+
+	/**
+	 * @param index
+	 *            The field index.
+	 * @return Whether the field is empty.
+	 */
+	public boolean isFieldEmpty(int index) {
+		checkField(index);
+		return fieldStarts[index] == fieldEnds[index];
+	}
+
+	/**
+	 * Does the specified field equal the specified (ASCII) string?
+	 * 
+	 * @param index
+	 *            The field index.
+	 * @param str
+	 *            The string.
+	 * @return Whether or not they are equal.
+	 */
+	public boolean fieldEquals(int index, String str) {
+		checkField(index);
+
+		int start = fieldStarts[index];
+		int length = fieldEnds[index] - start;
+
+		if (length != str.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if ((buffer.get(start + i) & 0xFF) != str.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Parse the specified field as a decimal number, falling back to
+	 * Double.parseDouble() for forms not handled directly.
+	 * 
+	 * @param index
+	 *            The field index.
+	 * @return The number.
+	 * @throws NumberFormatException
+	 *             if the field is not a number.
+	 */
+	public double getFieldAsDouble(int index) {
+		CharSequence field = getField(index);
+
+		double value = DecimalParser.parse(field, true);
+
+		if (Double.isNaN(value)) {
+			value = Double.parseDouble(field.toString());
+		}
+
+		return value;
+	}
+
+	/**
+	 * @return All fields of the current line as strings, e.g. for a header.
+	 */
+	public String[] getFieldStrings() {
+		split();
+
+		String[] fields = new String[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			fields[i] = decode(fieldStarts[i], fieldEnds[i]);
+		}
+
+		return fields;
+	}
+
+	// Helpers
+
+	private void init() {
+		next = 0;
+		lineNumber = 0;
+		delimiter = ',';
+		fieldStarts = new int[INITIAL_FIELD_CAPACITY];
+		fieldEnds = new int[INITIAL_FIELD_CAPACITY];
+		slices = new FieldSlice[INITIAL_FIELD_CAPACITY];
+		for (int i = 0; i < slices.length; i++) {
+			slices[i] = new FieldSlice();
+		}
+		scratch = new byte[256];
+	}
+
+	// Map a window starting at the specified offset. Once the window reaching
+	// the end of the file is mapped, the channel (and so its stream) is closed
+	// since the mapping remains valid without it.
+	private void map(long start) throws IOException {
+		long length = Math.min(windowSize, size - start);
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, origin + start,
+				length);
+		windowStart = start;
+
+		if (start + length == size) {
+			channel.close();
+		}
+	}
+
+	// Map a new window starting at the next line.
+	private void remap() throws IOException {
+		if (channel == null || next == 0) {
+			throw new IOException("Line " + (lineNumber + 1)
+					+ " is longer than " + windowSize + " bytes");
+		}
+
+		map(windowStart + next);
+		next = 0;
+	}
+
+	private void split() {
+		if (fieldsSplit) {
+			return;
+		}
+
+		fieldCount = 0;
+
+		int start = lineStart;
+		for (int i = lineStart; i <= lineEnd; i++) {
+			if (i == lineEnd || buffer.get(i) == delimiter) {
+				addField(start, i);
+				start = i + 1;
+			}
+		}
+
+		fieldsSplit = true;
+	}
+
+	private void addField(int start, int end) {
+		while (start < end && isSpace(buffer.get(start))) {
+			start++;
+		}
+
+		while (end > start && isSpace(buffer.get(end - 1))) {
+			end--;
+		}
+
+		if (fieldCount == fieldStarts.length) {
+			int capacity = fieldStarts.length * 2;
+
+			int[] starts = new int[capacity];
+			int[] ends = new int[capacity];
+			FieldSlice[] newSlices = new FieldSlice[capacity];
+
+			System.arraycopy(fieldStarts, 0, starts, 0, fieldCount);
+			System.arraycopy(fieldEnds, 0, ends, 0, fieldCount);
+			System.arraycopy(slices, 0, newSlices, 0, fieldCount);
+
+			for (int i = fieldCount; i < capacity; i++) {
+				newSlices[i] = new FieldSlice();
+			}
+
+			fieldStarts = starts;
+			fieldEnds = ends;
+			slices = newSlices;
+		}
+
+		fieldStarts[fieldCount] = start;
+		fieldEnds[fieldCount] = end;
+		fieldCount++;
+	}
+
+	private boolean isSpace(byte b) {
+		return b != delimiter && (b == ' ' || b == '\t');
+	}
+
+	private void checkField(int index) {
+		split();
+
+		if (index < 0 || index >= fieldCount) {
+			throw new IndexOutOfBoundsException("Field " + index
+					+ " not present on line " + lineNumber);
+		}
+	}
+
+	private String decode(int start, int end) {
+		int length = end - start;
+
+		if (scratch.length < length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+
+		for (int i = 0; i < length; i++) {
+			scratch[i] = buffer.get(start + i);
+		}
+
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A field of the current line, as a view onto the mapped buffer.
+	 */
+	private class FieldSlice implements CharSequence {
+
+		int start;
+		int end;
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) (buffer.get(start + index) & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			return toString().substring(from, to);
+		}
+
+		@Override
+		public String toString() {
+			return decode(start, end);
+		}
+	}
+}
@@ -31,6 +31,11 @@ import com.csvreader.CsvReader;
 /**
  * This class analyses an observation file (simple or download formats) and
  * makes information about the file available for use by consumers.
+ * 
+ * The format may be determined either from a bounded prefix of the source
+ * (analysePrefix()), allowing the source to then be read exactly once, or
+ * from a complete pass over the source (analyse()) which also yields a line
+ * count.
  */
 public class ObservationSourceAnalyser {
 
@@ -38,6 +43,11 @@ public class ObservationSourceAnalyser {
 	public static final String COMMA_DELIM = ",";
 	public static final String SPACE_DELIM = " +";
 
+	/**
+	 * The maximum number of characters read by analysePrefix().
+	 */
+	public static final int PREFIX_SAMPLE_SIZE = 1024 * 1024;
+
 	private LineNumberReader obsSource;
 	private String obsSourceIdentifier;
 	private int lineCount;
@@ -60,7 +70,9 @@ public class ObservationSourceAnalyser {
 	}
 
 	/**
-	 * Analyse the source.
+	 * Analyse the source, reading all of it in order to obtain a line count.
+	 * 
+	 * @see #analysePrefix()
 	 */
 	public void analyse() throws IOException, ObservationReadError {
 
@@ -72,22 +84,7 @@ public class ObservationSourceAnalyser {
 			// Other than doing this once, just read all lines
 			// so we can get a line count.
 			if (!gleanedFormat) {
-				// Ignore comment or blank line.
-				if (!line.startsWith("#") && !line.matches("^\\s*$")) {
-					// Try different delimiter types to guess CSV or TSV.
-					gleanedFormat = determinedFormat(line, TAB_DELIM);
-					if (!gleanedFormat) {
-						gleanedFormat = determinedFormat(line, COMMA_DELIM);
-						if (!gleanedFormat) {
-							gleanedFormat = determinedFormat(line, SPACE_DELIM);
-							if (!gleanedFormat) {
-								throw new ObservationReadError("'"
-										+ obsSourceIdentifier
-										+ "' is in an unknown format.");
-							}
-						}
-					}
-				}
+				gleanedFormat = gleanFormat(line);
 			}
 
 			line = obsSource.readLine();
@@ -97,6 +94,78 @@ public class ObservationSourceAnalyser {
 		obsSource.close();
 	}
 
+	/**
+	 * Analyse a bounded prefix of the source, reading only as far as the first
+	 * line from which the format can be determined, then reset the source to
+	 * its start so that it can be read (once) by an observation reader. No
+	 * line count is obtained, so getLineCount() returns 0.
+	 * 
+	 * @throws ObservationReadError
+	 *             If the format cannot be determined from the first
+	 *             PREFIX_SAMPLE_SIZE characters of the source.
+	 */
+	public void analysePrefix() throws IOException, ObservationReadError {
+
+		boolean gleanedFormat = false;
+		int charsRead = 0;
+
+		obsSource.mark(PREFIX_SAMPLE_SIZE);
+
+		try {
+			String line = obsSource.readLine();
+			while (line != null && !gleanedFormat) {
+				// Account for the line terminator.
+				charsRead += line.length() + 1;
+
+				if (charsRead >= PREFIX_SAMPLE_SIZE) {
+					throw new ObservationReadError("'" + obsSourceIdentifier
+							+ "' is in an unknown format.");
+				}
+
+				gleanedFormat = gleanFormat(line);
+
+				line = obsSource.readLine();
+			}
+		} finally {
+			obsSource.reset();
+		}
+
+		this.lineCount = 0;
+	}
+
+	/**
+	 * Try to glean format information from a line, ignoring comment and blank
+	 * lines.
+	 * 
+	 * @param line
+	 *            The line to be analysed.
+	 * @return Whether or not the format was determined.
+	 * @throws ObservationReadError
+	 *             If a data line is in an unknown format.
+	 */
+	private boolean gleanFormat(String line) throws ObservationReadError {
+		boolean gleanedFormat = false;
+
+		// Ignore comment or blank line.
+		if (!line.startsWith("#") && !line.trim().isEmpty()) {
+			// Try different delimiter types to guess CSV or TSV.
+			gleanedFormat = determinedFormat(line, TAB_DELIM);
+			if (!gleanedFormat) {
+				gleanedFormat = determinedFormat(line, COMMA_DELIM);
+				if (!gleanedFormat) {
+					gleanedFormat = determinedFormat(line, SPACE_DELIM);
+					if (!gleanedFormat) {
+						throw new ObservationReadError("'"
+								+ obsSourceIdentifier
+								+ "' is in an unknown format.");
+					}
+				}
+			}
+		}
+
+		return gleanedFormat;
+	}
+
 	/**
 	 * Try to determine the format of the file from a single line: TSV vs CSV
 	 * and simple vs download format.
@@ -27,6 +27,7 @@ import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.exception.ObservationValidationError;
 import org.aavso.tools.vstar.exception.ObservationValidationWarning;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.CountingInputStream;
 import org.aavso.tools.vstar.ui.mediator.StarInfo;
 
 /**
@@ -43,6 +44,12 @@ public class TextFormatObservationReader extends AbstractObservationRetriever {
 
 	private String objName;
 
+	// Byte-driven progress: the stream from which the reader obtains bytes,
+	// the size of the source in bytes, and the number of bytes per step.
+	private CountingInputStream byteSource;
+	private long byteCount;
+	private long bytesPerStep;
+
 	/**
 	 * Constructor
 	 * 
@@ -60,9 +67,41 @@ public class TextFormatObservationReader extends AbstractObservationRetriever {
 	 */
 	public TextFormatObservationReader(LineNumberReader reader,
 			ObservationSourceAnalyser analyser, String velaFilterStr) {
-		super(analyser.getLineCount(), velaFilterStr);
+		this(reader, analyser, velaFilterStr, null, 0);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * Progress is driven by the number of bytes consumed from the source
+	 * rather than by a line count, so the source need only be read once,
+	 * after its format has been determined from a prefix via
+	 * ObservationSourceAnalyser.analysePrefix().
+	 * 
+	 * @param reader
+	 *            The reader that is the source of the observation.
+	 * @param analyser
+	 *            An observation file analyser.
+	 * @param velaFilterStr
+	 *            The VeLa filter string to be applied for each observation
+	 *            before being added to the valid observation list.
+	 * @param byteSource
+	 *            The stream from which the reader obtains bytes; may be null.
+	 * @param byteCount
+	 *            The size of the source in bytes, or 0 if not known.
+	 */
+	public TextFormatObservationReader(LineNumberReader reader,
+			ObservationSourceAnalyser analyser, String velaFilterStr,
+			CountingInputStream byteSource, long byteCount) {
+		super(analyser.getLineCount() > 0 ? analyser.getLineCount()
+				: DEFAULT_CAPACITY, velaFilterStr);
 		this.reader = reader;
 		this.analyser = analyser;
+		this.byteSource = byteSource;
+		this.byteCount = byteSource != null ? byteCount : 0;
+		this.bytesPerStep = Math.max(1,
+				(this.byteCount + BYTE_PROGRESS_STEPS - 1)
+						/ BYTE_PROGRESS_STEPS);
 	}
 
 	/**
@@ -77,6 +116,7 @@ public class TextFormatObservationReader extends AbstractObservationRetriever {
 					.getTextFormatValidator(reader);
 
 			int lineNum = 0;
+			long stepsTaken = 0;
 
 			while (validator.next() && !wasInterrupted()) {
 				// Ignore comment, blank line or column header line
@@ -84,7 +124,7 @@ public class TextFormatObservationReader extends AbstractObservationRetriever {
 				String line = validator.getRawRecord();
 				lineNum++;
 
-				if (!line.startsWith("#") && !line.matches("^\\s*$")
+				if (!line.startsWith("#") && !line.trim().isEmpty()
 						&& !isColumnHeaderLine(line)) {
 
 					try {
@@ -115,7 +155,16 @@ public class TextFormatObservationReader extends AbstractObservationRetriever {
 					}
 				}
 
-				incrementProgress();
+				if (isProgressByBytes()) {
+					long steps = Math.min(byteSource.getCount() / bytesPerStep,
+							BYTE_PROGRESS_STEPS);
+					if (steps > stepsTaken) {
+						incrementProgress((int) (steps - stepsTaken));
+						stepsTaken = steps;
+					}
+				} else {
+					incrementProgress();
+				}
 			}
 		} catch (Throwable t) {
 			throw new ObservationReadError(
@@ -126,9 +175,25 @@ public class TextFormatObservationReader extends AbstractObservationRetriever {
 		}
 	}
 
+	/**
+	 * Returns the number of progress steps: the line count if the whole source
+	 * was analysed, a fixed number of steps if the size of the source in bytes
+	 * is known, otherwise null.
+	 * 
+	 * @see org.aavso.tools.vstar.input.AbstractObservationRetriever#getNumberOfRecords()
+	 */
 	@Override
 	public Integer getNumberOfRecords() throws ObservationReadError {
-		return analyser.getLineCount();
+		Integer records = null;
+
+		if (analyser.getLineCount() > 0) {
+			records = analyser.getLineCount();
+		} else if (isProgressByBytes()) {
+			records = (int) Math.min(BYTE_PROGRESS_STEPS,
+					(byteCount + bytesPerStep - 1) / bytesPerStep);
+		}
+
+		return records;
 	}
 
 	@Override
@@ -158,6 +223,11 @@ public class TextFormatObservationReader extends AbstractObservationRetriever {
 
 	// Helpers
 
+	// Is progress driven by bytes consumed rather than lines read?
+	private boolean isProgressByBytes() {
+		return analyser.getLineCount() == 0 && byteCount > 0;
+	}
+
 	private void addValidObservation(ValidObservation validOb, int lineNum)
 			throws ObservationReadError {
 		if (validOb.getMType() == MTypeType.STD) {
@@ -19,6 +19,7 @@ package org.aavso.tools.vstar.plugin;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
@@ -30,6 +31,8 @@ import java.util.Set;
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.http.HttpResponseCache;
+import org.aavso.tools.vstar.input.snapshot.ObservationSnapshotCache;
 import org.aavso.tools.vstar.ui.mediator.NewStarType;
 import org.aavso.tools.vstar.ui.resources.LoginInfo;
 
@@ -55,6 +58,10 @@ public abstract class ObservationSourcePluginBase implements IPlugin {
 	
 	protected Map<InputStream, String> streamNameMap;
 
+	// Input streams to which retrieval on the current thread is restricted
+	// when multiple inputs are loaded in parallel.
+	private ThreadLocal<List<InputStream>> threadInputStreams;
+
 	protected boolean isAdditive;
 
 	protected String velaFilterStr;
@@ -69,6 +76,7 @@ public abstract class ObservationSourcePluginBase implements IPlugin {
 		this.userName = username;
 		this.password = password;
 		streamNameMap = new HashMap<InputStream, String>();
+		threadInputStreams = new ThreadLocal<List<InputStream>>();
 		isAdditive = false;
 		velaFilterStr = "";
 	}
@@ -189,7 +197,25 @@ public abstract class ObservationSourcePluginBase implements IPlugin {
 	 * @return the input streams
 	 */
 	public List<InputStream> getInputStreams() {
-		return inputStreams;
+		List<InputStream> streams = threadInputStreams.get();
+		return streams != null ? streams : inputStreams;
+	}
+
+	/**
+	 * Restrict the input streams returned by getInputStreams() on the
+	 * current thread, so that a retriever created and run on that thread
+	 * reads only the specified streams. This is used to load multiple inputs
+	 * in parallel (see isParallelLoadSupported()).
+	 * 
+	 * @param streams
+	 *            The streams, or null to remove the restriction.
+	 */
+	public void setThreadInputStreams(List<InputStream> streams) {
+		if (streams != null) {
+			threadInputStreams.set(streams);
+		} else {
+			threadInputStreams.remove();
+		}
 	}
 
 	/**
@@ -300,6 +326,34 @@ public abstract class ObservationSourcePluginBase implements IPlugin {
         return false;
     }
 
+	/**
+	 * When multiple inputs are selected, may each be read by its own
+	 * retriever, in parallel with the others, with the results then merged?
+	 * This requires that this plug-in's retrievers obtain inputs only via
+	 * getInputStreams() and keep any state specific to a load in the
+	 * retriever rather than in the plug-in. The default is false.
+	 * 
+	 * @return Whether multiple inputs may be loaded in parallel.
+	 */
+	public boolean isParallelLoadSupported() {
+		return false;
+	}
+
+	/**
+	 * Return a retriever for one of several inputs being loaded in parallel
+	 * (see isParallelLoadSupported()). This is called once per input, on a
+	 * worker thread, after getObservationRetriever() has been called once on
+	 * the loading thread. A plug-in whose getObservationRetriever() asks the
+	 * user for parameters should override this method to create a retriever
+	 * with the parameters already obtained. The default is to call
+	 * getObservationRetriever().
+	 * 
+	 * @return The retriever.
+	 */
+	public AbstractObservationRetriever getParallelObservationRetriever() {
+		return getObservationRetriever();
+	}
+
     /**
 	 * @return the velaFilterStr
 	 */
@@ -324,6 +378,63 @@ public abstract class ObservationSourcePluginBase implements IPlugin {
 		return NewStarType.NEW_STAR_FROM_ARBITRARY_SOURCE;
 	}
 
+	/**
+	 * Once loaded, a dataset may be snapshot so that subsequent loads from the
+	 * same source can be satisfied without re-parsing and re-validating it.
+	 * This method returns a string identifying any parameters other than the
+	 * input files or URLs and VeLa filter that determine which observations
+	 * are retrieved (e.g. query parameters or those chosen in a dialog), or
+	 * null if this plug-in's datasets should not be snapshot. A plug-in whose
+	 * retrieval depends only upon its inputs may return the empty string.
+	 * The default is null.
+	 * 
+	 * @return The snapshot parameters or null.
+	 */
+	public String getSnapshotParameters() {
+		return null;
+	}
+
+	/**
+	 * Return the maximum age of a snapshot of this plug-in's datasets that
+	 * may be used in place of retrieval, e.g. for sources whose content may
+	 * change without their parameters changing. By default snapshots do not
+	 * expire.
+	 * 
+	 * @return The maximum snapshot age in milliseconds.
+	 */
+	public long getSnapshotMaxAge() {
+		return ObservationSnapshotCache.NO_MAX_AGE;
+	}
+
+	/**
+	 * Return the time for which a cached HTTP response from one of this
+	 * plug-in's URLs may be used without asking the server whether it has
+	 * changed (see HttpResponseCache). A plug-in whose source changes often
+	 * may return HttpResponseCache.ALWAYS_REVALIDATE, and one whose responses
+	 * must never be cached may return HttpResponseCache.NO_CACHE. The default
+	 * is HttpResponseCache.DEFAULT_TTL.
+	 * 
+	 * @return The time-to-live in milliseconds.
+	 */
+	public long getHttpCacheTTL() {
+		return HttpResponseCache.DEFAULT_TTL;
+	}
+
+	/**
+	 * Open a stream from which to read the specified URL's content via the
+	 * shared HTTP response cache, subject to this plug-in's time-to-live.
+	 * 
+	 * @param url
+	 *            The URL.
+	 * @return The stream.
+	 * @throws IOException
+	 *             If the content cannot be obtained.
+	 */
+	public InputStream openURLStream(URL url) throws IOException {
+		return HttpResponseCache.getInstance().openStream(url,
+				getHttpCacheTTL());
+	}
+
 	// Test methods
 
 	@Override
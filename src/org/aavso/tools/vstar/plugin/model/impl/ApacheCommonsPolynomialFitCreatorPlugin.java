@@ -18,20 +18,19 @@
 package org.aavso.tools.vstar.plugin.model.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.aavso.tools.vstar.data.DateInfo;
-import org.aavso.tools.vstar.data.Magnitude;
-import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
 import org.aavso.tools.vstar.plugin.ModelCreatorPluginBase;
 import org.aavso.tools.vstar.ui.dialog.PolynomialDegreeDialog;
 import org.aavso.tools.vstar.ui.mediator.AnalysisType;
+import org.aavso.tools.vstar.ui.mediator.DocumentManager;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.model.plot.ContinuousModelFunction;
 import org.aavso.tools.vstar.ui.model.plot.ICoordSource;
@@ -43,7 +42,9 @@ import org.aavso.tools.vstar.util.comparator.JDComparator;
 import org.aavso.tools.vstar.util.comparator.StandardPhaseComparator;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.model.PeriodFitParameters;
+import org.aavso.tools.vstar.util.model.PolynomialBatchFunction;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 import org.aavso.tools.vstar.util.stats.DescStats;
 import org.apache.commons.math.ConvergenceException;
@@ -66,6 +67,8 @@ public class ApacheCommonsPolynomialFitCreatorPlugin extends
 
 	private int degree;
 
+	private AnalysisType analysisType;
+
 	private ICoordSource timeCoordSource;
 	private Comparator<ValidObservation> timeComparator;
 
@@ -102,6 +105,23 @@ public class ApacheCommonsPolynomialFitCreatorPlugin extends
 		needGUI = false;
 	}
 
+	/**
+	 * Set the analysis type (raw data or phase plot) to which models apply,
+	 * e.g. when no Mediator is involved, as in headless batch analysis. By
+	 * default, the Mediator's current analysis type is used.
+	 * 
+	 * @param analysisType
+	 *            The analysis type.
+	 */
+	public void setAnalysisType(AnalysisType analysisType) {
+		this.analysisType = analysisType;
+	}
+
+	private AnalysisType getAnalysisType() {
+		return analysisType != null ? analysisType : Mediator.getInstance()
+				.getAnalysisType();
+	}
+
 	private void setDegree(int degree) {
 		this.degree = degree;
 	}
@@ -128,7 +148,7 @@ public class ApacheCommonsPolynomialFitCreatorPlugin extends
 			// creator base class or elsewhere
 
 			// Select time mode (JD or phase).
-			switch (Mediator.getInstance().getAnalysisType()) {
+			switch (getAnalysisType()) {
 			case RAW_DATA:
 				timeCoordSource = JDCoordSource.instance;
 				timeComparator = JDComparator.instance;
@@ -173,8 +193,7 @@ public class ApacheCommonsPolynomialFitCreatorPlugin extends
 
 				model = new IModel() {
 					boolean interrupted = false;
-					List<ValidObservation> fit;
-					List<ValidObservation> residuals;
+					ModelSeries series;
 					PolynomialFunction function;
 					Map<String, String> functionStrMap = new LinkedHashMap<String, String>();
 					double aic = Double.NaN;
@@ -192,12 +211,13 @@ public class ApacheCommonsPolynomialFitCreatorPlugin extends
 
 					@Override
 					public List<ValidObservation> getFit() {
-						return fit;
+						return series != null ? series.getFit() : null;
 					}
 
 					@Override
 					public List<ValidObservation> getResiduals() {
-						return residuals;
+						return series != null ? series.getResiduals()
+								: null;
 					}
 
 					@Override
@@ -327,7 +347,7 @@ public class ApacheCommonsPolynomialFitCreatorPlugin extends
 						// }
 						// };
 
-						return new ContinuousModelFunction(function, fit,
+						return new ContinuousModelFunction(function, getFit(),
 								zeroPoint);
 					}
 
@@ -365,60 +385,59 @@ public class ApacheCommonsPolynomialFitCreatorPlugin extends
 							try {
 								function = fitter.fit();
 
-								fit = new ArrayList<ValidObservation>();
-								residuals = new ArrayList<ValidObservation>();
+								double[] times = new double[obs.size()];
+								double[] fitMags = new double[obs.size()];
+								double[] residualMags = new double[obs
+										.size()];
+								int n = 0;
 								double sumSqResiduals = 0;
 
 								String comment = LocaleProps
 										.get("MODEL_INFO_POLYNOMIAL_DEGREE_DESC")
 										+ degree;
 
-								// Create fit and residual observations and
-								// compute the sum of squares of residuals for
-								// Akaike and Bayesean Information Criteria.
+								// Evaluate the fitted polynomial over all
+								// (zeroed) times in one batch.
+								for (int i = 0; i < obs.size(); i++) {
+									fitMags[i] = timeCoordSource.getXCoord(
+											i, obs)
+											- zeroPoint;
+								}
+
+								new PolynomialBatchFunction(function).values(
+										fitMags, fitMags);
+
+								// Compute residual magnitudes and the sum of
+								// squares of residuals for Akaike and
+								// Bayesean Information Criteria.
 								for (int i = 0; i < obs.size() && !interrupted; i++) {
 									ValidObservation ob = obs.get(i);
 
-									double x = timeCoordSource
-											.getXCoord(i, obs);
-									double zeroedX = x - zeroPoint;
-									double y = function.value(zeroedX);
-
-									ValidObservation fitOb = new ValidObservation();
-									fitOb.setDateInfo(new DateInfo(ob.getJD()));
-									if (Mediator.getInstance()
-											.getAnalysisType() == AnalysisType.PHASE_PLOT) {
-										fitOb.setPreviousCyclePhase(ob
-												.getPreviousCyclePhase());
-										fitOb.setStandardPhase(ob
-												.getStandardPhase());
-									}
-									fitOb.setMagnitude(new Magnitude(y, 0));
-									fitOb.setBand(SeriesType.Model);
-									fitOb.setComments(comment);
-									fit.add(fitOb);
-
-									ValidObservation resOb = new ValidObservation();
-									resOb.setDateInfo(new DateInfo(ob.getJD()));
-									if (Mediator.getInstance()
-											.getAnalysisType() == AnalysisType.PHASE_PLOT) {
-										resOb.setPreviousCyclePhase(ob
-												.getPreviousCyclePhase());
-										resOb.setStandardPhase(ob
-												.getStandardPhase());
-									}
-									double residual = ob.getMag() - y;
-									resOb.setMagnitude(new Magnitude(residual,
-											0));
-									resOb.setBand(SeriesType.Residuals);
-									resOb.setComments(comment);
-									residuals.add(resOb);
+									double residual = ob.getMag() - fitMags[i];
+
+									times[n] = ob.getJD();
+									residualMags[n] = residual;
+									n++;
 
 									sumSqResiduals += (residual * residual);
 								}
 
+								times = Arrays.copyOf(times, n);
+								series = new ModelSeries(times, Arrays
+										.copyOf(fitMags, n), times, Arrays
+										.copyOf(residualMags, n), comment);
+
+								// The fit and residual phases are those of
+								// the observations in a phase plot.
+								if (getAnalysisType() == AnalysisType.PHASE_PLOT) {
+									DocumentManager docMgr = Mediator
+											.getInstance()
+											.getDocumentManager();
+									series.setPhases(docMgr.getEpoch(),
+											docMgr.getPeriod());
+								}
+
 								// Fit metrics (AIC, BIC).
-								int n = residuals.size();
 								if (n != 0 && sumSqResiduals / n != 0) {
 									double commonIC = n
 											* Math.log(sumSqResiduals / n);
@@ -431,7 +450,7 @@ public class ApacheCommonsPolynomialFitCreatorPlugin extends
 										toFitMetricsString());
 
 								ApacheCommonsDerivativeBasedExtremaFinder finder = new ApacheCommonsDerivativeBasedExtremaFinder(
-										fit,
+										series.getFit(),
 										(DifferentiableUnivariateRealFunction) function,
 										timeCoordSource, zeroPoint);
 
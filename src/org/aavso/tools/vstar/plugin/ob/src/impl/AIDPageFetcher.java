@@ -0,0 +1,200 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.plugin.ob.src.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.aavso.tools.vstar.input.http.HttpResponseCache;
+
+/**
+ * This class fetches the pages of a paged AID web service request
+ * concurrently, with no more than a fixed number of pages in flight at once.
+ * Pages are fetched in the background and handed out in whatever order they
+ * are asked for, so a caller that takes pages in ascending order can parse one
+ * page while the next ones are being downloaded.
+ */
+public class AIDPageFetcher {
+
+	/**
+	 * The default number of pages that may be in flight at once.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 4;
+
+	private final String urlStr;
+	private final int windowSize;
+	private final long ttl;
+	private final ExecutorService executor;
+	private final Map<Integer, Future<byte[]>> pages;
+
+	// The highest page number fetched so far.
+	private int highestPageNum;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param urlStr
+	 *            The request URL to which a page parameter will be appended.
+	 * @param windowSize
+	 *            The maximum number of pages in flight at once.
+	 * @param ttl
+	 *            The time-to-live of cached pages (see HttpResponseCache).
+	 */
+	public AIDPageFetcher(String urlStr, int windowSize, long ttl) {
+		this.urlStr = urlStr;
+		this.windowSize = Math.max(1, windowSize);
+		this.ttl = ttl;
+		this.pages = new HashMap<Integer, Future<byte[]>>();
+		this.highestPageNum = 0;
+
+		executor = Executors.newFixedThreadPool(this.windowSize,
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "VStar AID page fetch");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param urlStr
+	 *            The request URL to which a page parameter will be appended.
+	 * @param ttl
+	 *            The time-to-live of cached pages (see HttpResponseCache).
+	 */
+	public AIDPageFetcher(String urlStr, long ttl) {
+		this(urlStr, DEFAULT_WINDOW_SIZE, ttl);
+	}
+
+	/**
+	 * Start fetching pages from the specified page number up to and including
+	 * the last page number, as far as the window size allows. Pages already
+	 * fetched are not fetched again.
+	 * 
+	 * @param firstPageNum
+	 *            The first page number not yet taken.
+	 * @param lastPageNum
+	 *            The last page number known to exist.
+	 */
+	public synchronized void prefetch(int firstPageNum, int lastPageNum) {
+		int limit = Math.min(lastPageNum, firstPageNum + windowSize - 1);
+
+		for (int pageNum = Math.max(firstPageNum, highestPageNum + 1); pageNum <= limit; pageNum++) {
+			fetch(pageNum);
+		}
+	}
+
+	/**
+	 * Take the specified page, waiting for it to be fetched first if
+	 * necessary. A page that has not yet been fetched is fetched now.
+	 * 
+	 * @param pageNum
+	 *            The page number.
+	 * @return A stream from which the page's content can be read.
+	 * @throws IOException
+	 *             If an error occurs while fetching the page.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the page.
+	 */
+	public InputStream take(int pageNum) throws IOException,
+			InterruptedException {
+		Future<byte[]> page;
+
+		synchronized (this) {
+			page = pages.remove(pageNum);
+			if (page == null) {
+				page = fetch(pageNum);
+				pages.remove(pageNum);
+			}
+		}
+
+		try {
+			return new ByteArrayInputStream(page.get());
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else {
+				throw new IOException(cause);
+			}
+		}
+	}
+
+	/**
+	 * Cancel any pages still in flight and release the fetching threads.
+	 */
+	public synchronized void close() {
+		for (Future<byte[]> page : pages.values()) {
+			page.cancel(true);
+		}
+
+		pages.clear();
+		executor.shutdownNow();
+	}
+
+	// Helpers
+
+	private Future<byte[]> fetch(final int pageNum) {
+		Future<byte[]> page = executor.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return readPage(pageNum);
+			}
+		});
+
+		pages.put(pageNum, page);
+		highestPageNum = Math.max(highestPageNum, pageNum);
+
+		return page;
+	}
+
+	private byte[] readPage(int pageNum) throws IOException {
+		URL url = new URL(urlStr + "&page=" + pageNum);
+
+		InputStream stream = HttpResponseCache.getInstance().openStream(url,
+				ttl);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try {
+			byte[] buf = new byte[64 * 1024];
+			int n;
+			while ((n = stream.read(buf)) != -1) {
+				bytes.write(buf, 0, n);
+			}
+		} finally {
+			stream.close();
+		}
+
+		return bytes.toByteArray();
+	}
+}
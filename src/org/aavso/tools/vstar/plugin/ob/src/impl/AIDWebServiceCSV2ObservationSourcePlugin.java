@@ -20,15 +20,14 @@ package org.aavso.tools.vstar.plugin.ob.src.impl;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.io.Reader;
 import java.util.List;
 import java.util.logging.Level;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.aavso.tools.vstar.data.DateInfo;
 import org.aavso.tools.vstar.data.InvalidObservation;
@@ -43,12 +42,6 @@ import org.aavso.tools.vstar.input.AbstractObservationRetriever;
 import org.aavso.tools.vstar.ui.VStar;
 import org.aavso.tools.vstar.ui.mediator.StarInfo;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
-import org.w3c.dom.CharacterData;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 import com.csvreader.CsvReader;
 
@@ -107,9 +100,15 @@ public class AIDWebServiceCSV2ObservationSourcePlugin extends
 
 	class VSXAIDCSVObservationRetriever extends AbstractObservationRetriever {
 
+		private final XMLInputFactory xmlInputFactory;
+
+		private AIDPageFetcher fetcher;
+		private int lastPageNum;
+
 		public VSXAIDCSVObservationRetriever() {
 			super(getVelaFilterStr());
 			info.setRetriever(this);
+			xmlInputFactory = XMLInputFactory.newInstance();
 		}
 
 		@Override
@@ -127,49 +126,37 @@ public class AIDWebServiceCSV2ObservationSourcePlugin extends
 				InterruptedException {
 
 			// Read observations over potentially many "pages" for each URL.
+			// Once the first page reveals the observation count, subsequent
+			// pages are fetched concurrently while the current page is parsed.
+			// Pages are taken in order, so observations are collected in the
+			// same order as if the pages had been read one at a time.
 			String urlStr = urlStrs.get(0);
 
-			Integer pageNum = 1;
-
-			do {
-				try {
-					String currUrlStr = urlStr;
-					if (pageNum != null) {
-						currUrlStr += "&page=" + pageNum;
-					}
-
-					URL vsxUrl = new URL(currUrlStr);
+			fetcher = new AIDPageFetcher(urlStr, getHttpCacheTTL());
+			lastPageNum = 1;
 
-					DocumentBuilderFactory factory = DocumentBuilderFactory
-							.newInstance();
-					DocumentBuilder builder = factory.newDocumentBuilder();
+			try {
+				Integer pageNum = 1;
 
+				do {
 					InputStream stream = new UTF8FilteringInputStream(
-							vsxUrl.openStream());
-					Document document = builder.parse(stream);
+							fetcher.take(pageNum));
 
-					document.getDocumentElement().normalize();
+					pageNum = requestObservationDetails(stream, pageNum);
 
-					pageNum = requestObservationDetails(document, pageNum);
+				} while (pageNum != null && !interrupted);
 
-				} catch (MalformedURLException e) {
-					throw new ObservationReadError(
-							"Unable to obtain information for "
-									+ info.getDesignation());
-				} catch (ParserConfigurationException e) {
-					throw new ObservationReadError(
-							"Unable to obtain information for "
-									+ info.getDesignation());
-				} catch (SAXException e) {
-					throw new ObservationReadError(
-							"Unable to obtain information for "
-									+ info.getDesignation());
-				} catch (IOException e) {
-					throw new ObservationReadError(
-							"Unable to obtain information for "
-									+ info.getDesignation());
-				}
-			} while (pageNum != null && !interrupted);
+			} catch (XMLStreamException e) {
+				throw new ObservationReadError(
+						"Unable to obtain information for "
+								+ info.getDesignation());
+			} catch (IOException e) {
+				throw new ObservationReadError(
+						"Unable to obtain information for "
+								+ info.getDesignation());
+			} finally {
+				fetcher.close();
+			}
 		}
 
 		@Override
@@ -185,70 +172,64 @@ public class AIDWebServiceCSV2ObservationSourcePlugin extends
 		// Helpers
 
 		/**
-		 * Retrieve all observation details from the document.
+		 * Retrieve all observation details from a page's XML stream. The
+		 * stream is parsed as it is read: the CSV payload of the Data element
+		 * is fed directly to the CSV reader rather than first being gathered
+		 * into a document.
 		 * 
-		 * @param document
-		 *            The document from which to extract observations.
+		 * @param stream
+		 *            The stream from which to read the page.
 		 * @param pageNum
 		 *            The page number of the document to read.
 		 * @return The next page number to read or null if not a multi-page
 		 *         document.
 		 * @throws ObservationReadError
 		 *             If an error occurs when reading the document.
+		 * @throws XMLStreamException
+		 *             If the stream is not well-formed XML.
 		 */
-		private Integer requestObservationDetails(Document document,
-				Integer pageNum) throws ObservationReadError {
+		private Integer requestObservationDetails(InputStream stream,
+				Integer pageNum) throws ObservationReadError,
+				XMLStreamException {
 
 			// Has an observation count been supplied?
 			// If so, more observations remain than the ones about to be
 			// retrieved here.
 			Integer obsCount = null;
+			boolean foundData = false;
 
-			NodeList obsCountNodes = document.getElementsByTagName("Count");
-			if (obsCountNodes.getLength() != 0) {
-				Element obsCountElt = (Element) obsCountNodes.item(0);
-				obsCount = Integer.parseInt(obsCountElt.getTextContent());
-			}
-
-			if (obsCount == null) {
-				pageNum = null;
-			}
-
-			NodeList dataNodes = document.getElementsByTagName("Data");
-
-			if (dataNodes.getLength() != 0) {
-				Element dataElt = (Element) dataNodes.item(0);
-				String data = getCharacterDataFromElement(dataElt);
-
-				BufferedReader streamReader = new BufferedReader(
-						new StringReader(data));
-
-				try {
-					CsvReader csvReader = new CsvReader(streamReader);
+			XMLStreamReader reader = xmlInputFactory
+					.createXMLStreamReader(stream);
 
-					if (csvReader.readHeaders()) {
-						int recordNum = 1;
+			try {
+				while (reader.hasNext() && !interrupted) {
+					if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+						continue;
+					}
 
-						while (csvReader.readRecord()) {
-							ValidObservation ob = retrieveNextObservation(
-									csvReader, recordNum);
+					String name = reader.getLocalName();
 
-							if (ob != null) {
-								collectObservation(ob);
-							}
+					if ("Count".equals(name) && obsCount == null) {
+						obsCount = Integer.parseInt(reader.getElementText()
+								.trim());
 
-							incrementProgress();
+						// Start fetching the pages that are now known to
+						// exist while this one is being parsed.
+						lastPageNum = Math.max(lastPageNum,
+								(obsCount + MAX_OBS_AT_ONCE - 1)
+										/ MAX_OBS_AT_ONCE);
+						fetcher.prefetch(pageNum + 1, lastPageNum);
 
-							recordNum++;
-						}
-					} else {
-						throw new ObservationReadError(
-								"No CSV header in AID data stream");
+					} else if ("Data".equals(name) && !foundData) {
+						foundData = true;
+						readCSVData(new XMLElementTextReader(reader));
 					}
-				} catch (Exception e) {
-					throw new ObservationReadError(e.getLocalizedMessage());
 				}
-			} else {
+			} finally {
+				reader.close();
+			}
+
+			if (obsCount == null || !foundData) {
 				pageNum = null;
 			}
 
@@ -260,22 +241,43 @@ public class AIDWebServiceCSV2ObservationSourcePlugin extends
 		}
 
 		/**
-		 * Extract and return CDATA element text from the specified element.
+		 * Retrieve all observations from CSV data.
 		 * 
-		 * @param e
-		 *            The element possibly containing CDATA
-		 * @return The element's CDATA text
+		 * @param dataReader
+		 *            The reader from which to read CSV data.
+		 * @throws ObservationReadError
+		 *             If an error occurs when reading the data.
 		 */
-		private String getCharacterDataFromElement(Element e) {
-			String data = "";
+		private void readCSVData(Reader dataReader)
+				throws ObservationReadError {
 
-			Node child = e.getFirstChild();
-			if (child instanceof CharacterData) {
-				CharacterData cd = (CharacterData) child;
-				data = cd.getData();
-			}
+			BufferedReader streamReader = new BufferedReader(dataReader);
+
+			try {
+				CsvReader csvReader = new CsvReader(streamReader);
+
+				if (csvReader.readHeaders()) {
+					int recordNum = 1;
+
+					while (csvReader.readRecord()) {
+						ValidObservation ob = retrieveNextObservation(
+								csvReader, recordNum);
+
+						if (ob != null) {
+							collectObservation(ob);
+						}
 
-			return data;
+						incrementProgress();
+
+						recordNum++;
+					}
+				} else {
+					throw new ObservationReadError(
+							"No CSV header in AID data stream");
+				}
+			} catch (Exception e) {
+				throw new ObservationReadError(e.getLocalizedMessage());
+			}
 		}
 
 		/**
@@ -133,7 +133,7 @@ public class AIDWebServiceCSVObservationSourcePlugin extends
 						DocumentBuilder builder = factory.newDocumentBuilder();
 
 						InputStream stream = new UTF8FilteringInputStream(
-								vsxUrl.openStream());
+								openURLStream(vsxUrl));
 						Document document = builder.parse(stream);
 
 						document.getDocumentElement().normalize();
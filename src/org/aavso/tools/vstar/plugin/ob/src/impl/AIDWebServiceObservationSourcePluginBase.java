@@ -23,6 +23,13 @@ public abstract class AIDWebServiceObservationSourcePluginBase extends
 		ObservationSourcePluginBase {
 
 	protected static final int MAX_OBS_AT_ONCE = 50000;
+
+	/**
+	 * The maximum age of a usable dataset snapshot; the database may gain
+	 * observations for a target without the query changing.
+	 */
+	protected static final long SNAPSHOT_MAX_AGE = 12 * 60 * 60 * 1000L;
+
 //	protected static final String BASE_URL = "https://api.aavso.org/index.php?view=";
 	protected static final String BASE_URL = "https://www.aavso.org/vsx/index.php?view=";
 	protected String view;
@@ -290,6 +297,23 @@ public abstract class AIDWebServiceObservationSourcePluginBase extends
 		return "Internal";
 	}
 
+	@Override
+	public String getSnapshotParameters() {
+		// The query URLs identify the target, JD range and series.
+		String params = null;
+
+		if (urlStrs != null && !urlStrs.isEmpty()) {
+			params = String.join("\n", urlStrs);
+		}
+
+		return params;
+	}
+
+	@Override
+	public long getSnapshotMaxAge() {
+		return SNAPSHOT_MAX_AGE;
+	}
+
 	/**
 	 * Set the star information object. This is primarily so we can test
 	 * requestObservations() independent of the rest of the plug-in code.
@@ -22,9 +22,10 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.aavso.tools.vstar.data.DateInfo;
 import org.aavso.tools.vstar.data.InvalidObservation;
@@ -36,12 +37,6 @@ import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
 import org.aavso.tools.vstar.ui.mediator.StarInfo;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 /**
  * This intrinsic observation source plug-in retrieves AID observations via the
@@ -87,9 +82,12 @@ public class AIDWebServiceXMLAttributeObservationSourcePlugin extends
 	class VSXAIDAttributeObservationRetriever extends
 			AbstractObservationRetriever {
 
+		private final XMLInputFactory xmlInputFactory;
+
 		public VSXAIDAttributeObservationRetriever() {
 			super(getVelaFilterStr());
 			info.setRetriever(this);
+			xmlInputFactory = XMLInputFactory.newInstance();
 		}
 
 		@Override
@@ -120,27 +118,21 @@ public class AIDWebServiceXMLAttributeObservationSourcePlugin extends
 
 						URL vsxUrl = new URL(currUrlStr);
 
-						DocumentBuilderFactory factory = DocumentBuilderFactory
-								.newInstance();
-						DocumentBuilder builder = factory.newDocumentBuilder();
-
 						InputStream stream = new UTF8FilteringInputStream(
-								vsxUrl.openStream());
-						Document document = builder.parse(stream);
-
-						document.getDocumentElement().normalize();
+								openURLStream(vsxUrl));
 
-						pageNum = requestObservationDetails(document, pageNum);
+						try {
+							pageNum = requestObservationDetails(stream,
+									pageNum);
+						} finally {
+							stream.close();
+						}
 
 					} catch (MalformedURLException e) {
 						throw new ObservationReadError(
 								"Unable to obtain information for "
 										+ info.getDesignation());
-					} catch (ParserConfigurationException e) {
-						throw new ObservationReadError(
-								"Unable to obtain information for "
-										+ info.getDesignation());
-					} catch (SAXException e) {
+					} catch (XMLStreamException e) {
 						throw new ObservationReadError(
 								"Unable to obtain information for "
 										+ info.getDesignation());
@@ -166,56 +158,64 @@ public class AIDWebServiceXMLAttributeObservationSourcePlugin extends
 		// Helpers
 
 		/**
-		 * Retrieve all observation details from the document.
+		 * Retrieve all observation details from a page's XML stream. The
+		 * stream is parsed as it is read, each observation being collected as
+		 * its element arrives rather than first building a document.
 		 * 
-		 * @param document
-		 *            The document from which to extract observations.
+		 * @param stream
+		 *            The stream from which to read the page.
 		 * @param pageNum
 		 *            The page number of the document to read.
 		 * @return The next page number to read or null if not a multi-page
 		 *         document.
 		 * @throws ObservationReadError
 		 *             If an error occurs when reading the document.
+		 * @throws XMLStreamException
+		 *             If the stream is not well-formed XML.
 		 */
-		private Integer requestObservationDetails(Document document,
-				Integer pageNum) throws ObservationReadError {
+		private Integer requestObservationDetails(InputStream stream,
+				Integer pageNum) throws ObservationReadError,
+				XMLStreamException {
 
 			// Has an observation count been supplied?
 			// If so, more observations remain than the ones about to be
 			// retrieved here.
 			Integer obsCount = null;
+			int dataElementCount = 0;
 
-			NodeList dataNodes = document.getElementsByTagName("Data");
-
-			if (dataNodes.getLength() == 1) {
-				Element dataElt = (Element) dataNodes.item(0);
-				String count = dataElt.getAttribute("Count");
-				if (count != null && count.trim().length() != 0) {
-					obsCount = Integer.parseInt(count);
-				}
-			}
-
-			if (obsCount == null) {
-				pageNum = null;
-			}
-
-			NodeList obsNodes = document.getElementsByTagName("Observation");
+			XMLStreamReader reader = xmlInputFactory
+					.createXMLStreamReader(stream);
 
-			for (int i = 0; i < obsNodes.getLength(); i++) {
+			try {
+				while (reader.hasNext() && !interrupted) {
+					if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+						continue;
+					}
 
-				if (interrupted)
-					break;
+					String name = reader.getLocalName();
 
-				NamedNodeMap obsDetails = obsNodes.item(i).getAttributes();
+					if ("Data".equals(name)) {
+						dataElementCount++;
+						String count = reader.getAttributeValue(null, "Count");
+						if (count != null && count.trim().length() != 0) {
+							obsCount = Integer.parseInt(count);
+						}
+					} else if ("Observation".equals(name)) {
+						ValidObservation ob = retrieveObservation(reader);
 
-				ValidObservation ob = retrieveObservation(new NamedNodeMapSequence(
-						obsDetails));
+						if (ob != null) {
+							collectObservation(ob);
+						}
 
-				if (ob != null) {
-					collectObservation(ob);
+						incrementProgress();
+					}
 				}
+			} finally {
+				reader.close();
+			}
 
-				incrementProgress();
+			if (obsCount == null || dataElementCount != 1) {
+				pageNum = null;
 			}
 
 			if (pageNum != null) {
@@ -226,16 +226,17 @@ public class AIDWebServiceXMLAttributeObservationSourcePlugin extends
 		}
 
 		/**
-		 * Given an XML node of some kind (Element, Node) corresponding to the
-		 * details of a single observation, retrieve that observation.
+		 * Given a stream reader positioned at the start of an element
+		 * corresponding to the details of a single observation, retrieve that
+		 * observation from the element's attributes.
 		 * 
 		 * @param obsDetails
-		 *            A sequence of observation details.
+		 *            A stream reader positioned at an observation element.
 		 * @return The observation.
 		 * @throws ObservationReadError
 		 *             if an error occurred during observation processing.
 		 */
-		private ValidObservation retrieveObservation(INodeSequence obsDetails)
+		private ValidObservation retrieveObservation(XMLStreamReader obsDetails)
 				throws ObservationReadError {
 
 			Integer id = null;
@@ -264,14 +265,13 @@ public class AIDWebServiceXMLAttributeObservationSourcePlugin extends
 			String digitizer = null;
 			String name = info.getDesignation();
 
-			for (int j = 0; j < obsDetails.getLength(); j++) {
+			for (int j = 0; j < obsDetails.getAttributeCount(); j++) {
 
 				if (interrupted)
 					break;
 
-				Node detailNode = obsDetails.item(j);
-				String nodeName = detailNode.getNodeName();
-				String nodeValue = detailNode.getTextContent();
+				String nodeName = obsDetails.getAttributeLocalName(j);
+				String nodeValue = obsDetails.getAttributeValue(j);
 
 				if ("Id".equalsIgnoreCase(nodeName)) {
 					id = Integer.parseInt(nodeValue);
@@ -17,15 +17,13 @@
  */
 package org.aavso.tools.vstar.plugin.ob.src.impl;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.CountingInputStream;
 import org.aavso.tools.vstar.input.text.ObservationSourceAnalyser;
 import org.aavso.tools.vstar.input.text.TextFormatObservationReader;
 import org.aavso.tools.vstar.plugin.InputType;
@@ -75,48 +73,40 @@ public class TextFormatObservationSourcePlugin extends
 		return "Internal";
 	}
 
+	@Override
+	public String getSnapshotParameters() {
+		// Observations depend only upon the input file and VeLa filter.
+		return "";
+	}
+
 	@Override
 	public AbstractObservationRetriever getObservationRetriever() {
 
 		AbstractObservationRetriever retriever = null;
 
-		byte[] allBytes = null;
-		List<byte[]> byteArrayList = new ArrayList<byte[]>();
-		int total = 0;
 		try {
 			InputStream stream = getInputStreams().get(0);
 
-			BufferedReader streamReader = new BufferedReader(
-					new InputStreamReader(stream));
-
-			// Obtain bytes from stream in order to re-use in analyser and
-			// reader.
-			String line;
-			while ((line = streamReader.readLine()) != null) {
-
-				byte[] bytes = line.getBytes();
-				byteArrayList.add(bytes);
-				total += bytes.length + 1;
+			// If the source is a file, its size allows progress to be driven
+			// by the number of bytes consumed.
+			long byteCount = 0;
+			if (stream instanceof FileInputStream) {
+				byteCount = ((FileInputStream) stream).getChannel().size();
 			}
 
-			int i = 0;
-			allBytes = new byte[total];
-			for (byte[] bytes : byteArrayList) {
-				for (byte b : bytes) {
-					allBytes[i++] = b;
-				}
-				allBytes[i++] = '\n';
-			}
+			CountingInputStream byteSource = new CountingInputStream(stream);
+
+			LineNumberReader reader = new LineNumberReader(
+					new InputStreamReader(byteSource));
 
-			// Analyse the observation file and create an observation retriever.
-			analyser = new ObservationSourceAnalyser(new LineNumberReader(
-					new InputStreamReader(new ByteArrayInputStream(allBytes))),
-					getInputName());
-			analyser.analyse();
+			// Determine the format from a prefix of the observation source
+			// then create an observation retriever that reads the source
+			// (once) from its start.
+			analyser = new ObservationSourceAnalyser(reader, getInputName());
+			analyser.analysePrefix();
 
-			retriever = new TextFormatObservationReader(new LineNumberReader(
-					new InputStreamReader(new ByteArrayInputStream(allBytes))),
-					analyser, getVelaFilterStr());
+			retriever = new TextFormatObservationReader(reader, analyser,
+					getVelaFilterStr(), byteSource, byteCount);
 
 		} catch (Exception e) {
 			// TODO: move analyser creation into reader class so we can handle
@@ -54,4 +54,31 @@ public class UTF8FilteringInputStream extends InputStream {
 
 		return b;
 	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = stream.read(b, off, len);
+
+		for (int i = off; i < off + n; i++) {
+			if (b[i] >= 0 && b[i] < 0x20) {
+				switch (b[i]) {
+				case 0x9:
+				case 0xa:
+				case 0xd:
+					break;
+
+				default:
+					b[i] = 0x20;
+					break;
+				}
+			}
+		}
+
+		return n;
+	}
+
+	@Override
+	public void close() throws IOException {
+		stream.close();
+	}
 }
@@ -0,0 +1,118 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.plugin.ob.src.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * This class reads the text content (character data and CDATA sections) of
+ * the current element of a StAX stream as a character stream, so that the
+ * content can be consumed as it is parsed rather than first being gathered
+ * into a single string. The stream reader must be positioned at the start of
+ * the element. Reading ends at the element's end tag; nested elements are not
+ * permitted.
+ */
+public class XMLElementTextReader extends Reader {
+
+	private XMLStreamReader reader;
+
+	private char[] text;
+	private int textStart;
+	private int textLength;
+	private int textOffset;
+
+	private boolean done;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param reader
+	 *            The StAX stream reader, positioned at the start of an
+	 *            element.
+	 */
+	public XMLElementTextReader(XMLStreamReader reader) {
+		this.reader = reader;
+		this.textStart = 0;
+		this.textLength = 0;
+		this.textOffset = 0;
+		this.done = false;
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+
+		try {
+			while (textOffset >= textLength) {
+				if (done) {
+					return -1;
+				}
+
+				switch (reader.next()) {
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					// The text array is only valid until the next event, so
+					// it is consumed before advancing the stream reader.
+					text = reader.getTextCharacters();
+					textStart = reader.getTextStart();
+					textLength = reader.getTextLength();
+					textOffset = 0;
+					break;
+
+				case XMLStreamConstants.END_ELEMENT:
+					done = true;
+					break;
+
+				case XMLStreamConstants.START_ELEMENT:
+					throw new IOException("Unexpected element \""
+							+ reader.getLocalName() + "\" in text content");
+
+				default:
+					// Comments and processing instructions are skipped.
+					break;
+				}
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e.getLocalizedMessage(), e);
+		}
+
+		int n = Math.min(len, textLength - textOffset);
+		System.arraycopy(text, textStart + textOffset, cbuf, off, n);
+		textOffset += n;
+
+		return n;
+	}
+
+	/**
+	 * Closing this reader leaves the underlying stream reader open, so the
+	 * remainder of the document can still be read.
+	 */
+	@Override
+	public void close() throws IOException {
+		textOffset = textLength;
+		done = true;
+	}
+}
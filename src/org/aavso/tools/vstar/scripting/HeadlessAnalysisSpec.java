@@ -0,0 +1,228 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.scripting;
+
+import org.aavso.tools.vstar.util.period.dcdft.DcDftAnalysisType;
+
+/**
+ * This class specifies the analyses to be performed for each star in a
+ * headless batch analysis (see HeadlessBatchRunner). Analyses whose
+ * parameters have not been set are not performed.
+ */
+public class HeadlessAnalysisSpec {
+
+	private String seriesName;
+
+	private DcDftAnalysisType dcdftType;
+	private double dcdftLow;
+	private double dcdftHigh;
+	private double dcdftResolution;
+
+	private boolean wwz;
+	private double wwzMinPeriod;
+	private double wwzMaxPeriod;
+	private double wwzPeriodStep;
+	private double wwzDecay;
+	private double wwzTimeDivisions;
+
+	private int polyfitDegree;
+
+	private String delimiter;
+
+	/**
+	 * Constructor
+	 */
+	public HeadlessAnalysisSpec() {
+		seriesName = null;
+		dcdftType = null;
+		wwz = false;
+		polyfitDegree = -1;
+		delimiter = "\t";
+	}
+
+	/**
+	 * @return The short or long form of the name of the series to be
+	 *         analysed, or null for the series with the most observations.
+	 */
+	public String getSeriesName() {
+		return seriesName;
+	}
+
+	/**
+	 * @param seriesName
+	 *            The short or long form of the name of the series to be
+	 *            analysed, e.g. V or Johnson V, or null for the series with
+	 *            the most observations.
+	 */
+	public void setSeriesName(String seriesName) {
+		this.seriesName = seriesName;
+	}
+
+	/**
+	 * @return The DCDFT analysis type, or null if no DCDFT analysis is to be
+	 *         performed.
+	 */
+	public DcDftAnalysisType getDcDftType() {
+		return dcdftType;
+	}
+
+	/**
+	 * @return The low value of the DCDFT period or frequency range.
+	 */
+	public double getDcDftLow() {
+		return dcdftLow;
+	}
+
+	/**
+	 * @return The high value of the DCDFT period or frequency range.
+	 */
+	public double getDcDftHigh() {
+		return dcdftHigh;
+	}
+
+	/**
+	 * @return The resolution of the DCDFT search over the range.
+	 */
+	public double getDcDftResolution() {
+		return dcdftResolution;
+	}
+
+	/**
+	 * Request a DCDFT standard scan.
+	 */
+	public void setDcDftStandardScan() {
+		dcdftType = DcDftAnalysisType.STANDARD_SCAN;
+	}
+
+	/**
+	 * Request a DCDFT analysis over a period or frequency range.
+	 * 
+	 * @param type
+	 *            The analysis type: period or frequency range.
+	 * @param low
+	 *            The low value of the range to search in.
+	 * @param high
+	 *            The high value of the range to search in.
+	 * @param resolution
+	 *            The resolution of the search over the range.
+	 */
+	public void setDcDftRange(DcDftAnalysisType type, double low,
+			double high, double resolution) {
+		dcdftType = type;
+		dcdftLow = low;
+		dcdftHigh = high;
+		dcdftResolution = resolution;
+	}
+
+	/**
+	 * @return Is a WWZ analysis to be performed?
+	 */
+	public boolean isWWZ() {
+		return wwz;
+	}
+
+	/**
+	 * @return The low value of the WWZ period range.
+	 */
+	public double getWWZMinPeriod() {
+		return wwzMinPeriod;
+	}
+
+	/**
+	 * @return The high value of the WWZ period range.
+	 */
+	public double getWWZMaxPeriod() {
+		return wwzMaxPeriod;
+	}
+
+	/**
+	 * @return The WWZ period step.
+	 */
+	public double getWWZPeriodStep() {
+		return wwzPeriodStep;
+	}
+
+	/**
+	 * @return The WWZ wavelet decay constant.
+	 */
+	public double getWWZDecay() {
+		return wwzDecay;
+	}
+
+	/**
+	 * @return The number of WWZ time divisions.
+	 */
+	public double getWWZTimeDivisions() {
+		return wwzTimeDivisions;
+	}
+
+	/**
+	 * Request a WWZ analysis over a period range.
+	 * 
+	 * @param minPeriod
+	 *            The low value of the period range to search in.
+	 * @param maxPeriod
+	 *            The high value of the period range to search in.
+	 * @param periodStep
+	 *            The resolution of the search over the range.
+	 * @param decay
+	 *            The wavelet decay constant to use.
+	 * @param timeDivisions
+	 *            The number of time divisions to use.
+	 */
+	public void setWWZ(double minPeriod, double maxPeriod, double periodStep,
+			double decay, double timeDivisions) {
+		wwz = true;
+		wwzMinPeriod = Math.min(minPeriod, maxPeriod);
+		wwzMaxPeriod = Math.max(minPeriod, maxPeriod);
+		wwzPeriodStep = periodStep;
+		wwzDecay = decay;
+		wwzTimeDivisions = timeDivisions;
+	}
+
+	/**
+	 * @return The polynomial fit degree, or -1 if no polynomial fit is to be
+	 *         performed.
+	 */
+	public int getPolyfitDegree() {
+		return polyfitDegree;
+	}
+
+	/**
+	 * @param degree
+	 *            The degree of the polynomial fit to be performed.
+	 */
+	public void setPolyfitDegree(int degree) {
+		polyfitDegree = degree;
+	}
+
+	/**
+	 * @return The delimiter between values in result files.
+	 */
+	public String getDelimiter() {
+		return delimiter;
+	}
+
+	/**
+	 * @param delimiter
+	 *            The delimiter between values in result files.
+	 */
+	public void setDelimiter(String delimiter) {
+		this.delimiter = delimiter;
+	}
+}
@@ -0,0 +1,271 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.scripting;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.aavso.tools.vstar.util.period.dcdft.DcDftAnalysisType;
+
+/**
+ * This class runs the analysis of a batch of stars without a user interface,
+ * analysing several stars concurrently on a pool of worker threads. Each
+ * star's analysis is an independent HeadlessStarAnalysis instance that writes
+ * its results to files in the output directory.
+ * <p>
+ * It may be run from the command line, via main() or "vstar --headless", e.g.
+ * </p>
+ * 
+ * <pre>
+ * vstar --headless --dcdft 100,500,0.5 --polyfit 6 --output results *.txt
+ * </pre>
+ */
+public class HeadlessBatchRunner {
+
+	private static final String USAGE = "usage: vstar --headless [--series name]"
+			+ " [--dcdft standard|lowPeriod,highPeriod,resolution]"
+			+ " [--wwz minPeriod,maxPeriod,periodStep,decay,timeDivisions]"
+			+ " [--polyfit degree] [--threads n] [--output dir]"
+			+ " file... | @listfile";
+
+	private List<File> inputs;
+	private HeadlessAnalysisSpec spec;
+	private File outputDir;
+	private int threads;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param inputs
+	 *            The observation files, one per star.
+	 * @param spec
+	 *            The analyses to be performed for each star.
+	 * @param outputDir
+	 *            The directory to which result files are written.
+	 * @param threads
+	 *            The maximum number of stars to analyse concurrently.
+	 */
+	public HeadlessBatchRunner(List<File> inputs, HeadlessAnalysisSpec spec,
+			File outputDir, int threads) {
+		this.inputs = inputs;
+		this.spec = spec;
+		this.outputDir = outputDir;
+		this.threads = Math.max(1, Math.min(threads, inputs.size()));
+	}
+
+	/**
+	 * Analyse each star, returning when all analyses have completed.
+	 * 
+	 * @return The results, in input order.
+	 */
+	public List<HeadlessStarAnalysis.Result> run() {
+		List<HeadlessStarAnalysis.Result> results = new ArrayList<HeadlessStarAnalysis.Result>();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads,
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r,
+								"VStar headless analysis");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+		try {
+			List<Future<HeadlessStarAnalysis.Result>> futures = new ArrayList<Future<HeadlessStarAnalysis.Result>>();
+
+			for (File input : inputs) {
+				futures.add(executor.submit(new HeadlessStarAnalysis(input,
+						spec, outputDir)));
+			}
+
+			for (int i = 0; i < futures.size(); i++) {
+				HeadlessStarAnalysis.Result result = null;
+
+				try {
+					result = futures.get(i).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(
+							"Headless analysis interrupted", e);
+				} catch (ExecutionException e) {
+					result = HeadlessStarAnalysis.Result.failure(inputs
+							.get(i), e.getCause());
+				}
+
+				results.add(result);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		return results;
+	}
+
+	/**
+	 * Analyse the stars specified on the command line, printing a summary
+	 * line per star. The exit status is 0 if all analyses succeeded, 1 if
+	 * any failed, and 2 if the command line is invalid.
+	 * 
+	 * @param args
+	 *            The command line arguments.
+	 */
+	public static void main(String[] args) {
+		// No AWT or Swing initialisation may occur from here on.
+		System.setProperty("java.awt.headless", "true");
+
+		HeadlessAnalysisSpec spec = new HeadlessAnalysisSpec();
+		List<File> inputs = new ArrayList<File>();
+		File outputDir = new File(".");
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+
+				if ("--help".equals(arg)) {
+					System.out.println(USAGE);
+					System.exit(0);
+				} else if ("--series".equals(arg)) {
+					spec.setSeriesName(value(args, ++i));
+				} else if ("--dcdft".equals(arg)) {
+					String value = value(args, ++i);
+					if ("standard".equals(value)) {
+						spec.setDcDftStandardScan();
+					} else {
+						double[] values = numbers(value, 3);
+						spec.setDcDftRange(DcDftAnalysisType.PERIOD_RANGE,
+								values[0], values[1], values[2]);
+					}
+				} else if ("--wwz".equals(arg)) {
+					double[] values = numbers(value(args, ++i), 5);
+					spec.setWWZ(values[0], values[1], values[2], values[3],
+							(int) values[4]);
+				} else if ("--polyfit".equals(arg)) {
+					spec.setPolyfitDegree(Integer.parseInt(value(args, ++i)));
+				} else if ("--threads".equals(arg)) {
+					threads = Integer.parseInt(value(args, ++i));
+				} else if ("--output".equals(arg)) {
+					outputDir = new File(value(args, ++i));
+				} else if (arg.startsWith("@")) {
+					inputs.addAll(readListFile(new File(arg.substring(1))));
+				} else if (arg.startsWith("--")) {
+					throw new IllegalArgumentException("Unknown option: "
+							+ arg);
+				} else {
+					inputs.add(new File(arg));
+				}
+			}
+
+			if (inputs.isEmpty()) {
+				throw new IllegalArgumentException("No input files");
+			}
+
+			if (!outputDir.isDirectory()) {
+				throw new IllegalArgumentException("Not a directory: "
+						+ outputDir);
+			}
+		} catch (IllegalArgumentException e) {
+			// Includes NumberFormatException.
+			System.err.println(e.getLocalizedMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		} catch (IOException e) {
+			System.err.println(e.getLocalizedMessage());
+			System.exit(2);
+		}
+
+		List<HeadlessStarAnalysis.Result> results = new HeadlessBatchRunner(
+				inputs, spec, outputDir, threads).run();
+
+		int failures = 0;
+
+		for (HeadlessStarAnalysis.Result result : results) {
+			if (result.succeeded()) {
+				System.out.printf("%s: %s, %d observations, %d result files\n",
+						result.getInput(), result.getSeries().getDescription(),
+						result.getObsCount(), result.getOutputFiles().size());
+			} else {
+				System.out.printf("%s: failed: %s\n", result.getInput(), result
+						.getError());
+				failures++;
+			}
+		}
+
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	// Helpers
+
+	private static String value(String[] args, int i) {
+		if (i >= args.length) {
+			throw new IllegalArgumentException("Missing value for "
+					+ args[i - 1]);
+		}
+
+		return args[i];
+	}
+
+	private static double[] numbers(String str, int count) {
+		String[] fields = str.split(",");
+
+		if (fields.length != count) {
+			throw new IllegalArgumentException("Expected " + count
+					+ " comma separated values: " + str);
+		}
+
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = Double.parseDouble(fields[i].trim());
+		}
+
+		return values;
+	}
+
+	// Read a file containing one observation file path per line; blank
+	// lines and lines starting with # are ignored.
+	private static List<File> readListFile(File file) throws IOException {
+		List<File> files = new ArrayList<File>();
+
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.length() != 0 && !line.startsWith("#")) {
+					files.add(new File(line));
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		return files;
+	}
+}
@@ -0,0 +1,428 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.scripting;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.plugin.model.impl.ApacheCommonsPolynomialFitCreatorPlugin;
+import org.aavso.tools.vstar.plugin.ob.src.impl.TextFormatObservationSourcePlugin;
+import org.aavso.tools.vstar.ui.mediator.AnalysisSession;
+import org.aavso.tools.vstar.ui.mediator.AnalysisType;
+import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.period.PeriodAnalysisCoordinateType;
+import org.aavso.tools.vstar.util.period.dcdft.DcDftAnalysisType;
+import org.aavso.tools.vstar.util.period.dcdft.TSDcDft;
+import org.aavso.tools.vstar.util.period.wwz.WWZStatistic;
+import org.aavso.tools.vstar.util.period.wwz.WeightedWaveletZTransform;
+
+/**
+ * This class performs the load, analyse and save pipeline of the scripting
+ * API (loadFromFile, dcdftPeriod, wwzPeriod, polyfit, saveModelList) for a
+ * single star without a user interface: observations are read by an
+ * observation retriever, analysed by the period analysis and model creation
+ * algorithms directly rather than via the Mediator, and the results written
+ * to files. The dataset is owned by the analysis' own session (see
+ * AnalysisSession), so analyses of different stars may be run concurrently.
+ */
+public class HeadlessStarAnalysis implements Callable<HeadlessStarAnalysis.Result> {
+
+	private File input;
+	private HeadlessAnalysisSpec spec;
+	private File outputDir;
+
+	private AnalysisSession session;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param input
+	 *            The observation file (AAVSO download or simple format) for
+	 *            the star.
+	 * @param spec
+	 *            The analyses to be performed.
+	 * @param outputDir
+	 *            The directory to which result files are written.
+	 */
+	public HeadlessStarAnalysis(File input, HeadlessAnalysisSpec spec,
+			File outputDir) {
+		this.input = input;
+		this.spec = spec;
+		this.outputDir = outputDir;
+		this.session = new AnalysisSession();
+	}
+
+	/**
+	 * Load the star's observations, perform the specified analyses and write
+	 * the results to files named after the input file. Errors are recorded in
+	 * the result rather than thrown, so that one star's failure does not
+	 * affect the analysis of others.
+	 * 
+	 * @return The result of the analysis.
+	 */
+	@Override
+	public Result call() {
+		Result result = new Result(input);
+
+		try {
+			List<ValidObservation> obs = load(result);
+
+			if (spec.getDcDftType() != null) {
+				result.outputFiles.add(dcdft(obs));
+			}
+
+			if (spec.isWWZ()) {
+				result.outputFiles.add(wwz(obs));
+			}
+
+			if (spec.getPolyfitDegree() >= 0) {
+				result.outputFiles.add(polyfit(obs));
+			}
+		} catch (IOException e) {
+			result.error = e.getLocalizedMessage();
+		} catch (ObservationReadError e) {
+			result.error = e.getLocalizedMessage();
+		} catch (AlgorithmError e) {
+			result.error = e.getLocalizedMessage();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result.error = "Interrupted";
+		}
+
+		return result;
+	}
+
+	// Pipeline stages
+
+	// Load the observations of the series to be analysed, excluding
+	// discrepant and excluded observations.
+	private List<ValidObservation> load(Result result) throws IOException,
+			ObservationReadError, InterruptedException {
+
+		InputStream stream = new FileInputStream(input);
+
+		try {
+			TextFormatObservationSourcePlugin plugin = new TextFormatObservationSourcePlugin();
+			List<InputStream> streams = new ArrayList<InputStream>();
+			streams.add(stream);
+			plugin.setInputInfo(streams, input.getName());
+
+			session.load(plugin);
+		} finally {
+			stream.close();
+		}
+
+		Map<SeriesType, List<ValidObservation>> categoryMap = session
+				.getValidObservationCategoryMap();
+
+		SeriesType series = selectSeries(categoryMap);
+
+		List<ValidObservation> obs = new ArrayList<ValidObservation>();
+		if (series != null) {
+			for (ValidObservation ob : categoryMap.get(series)) {
+				if (!ob.isDiscrepant() && !ob.isExcluded()) {
+					obs.add(ob);
+				}
+			}
+		}
+
+		if (obs.isEmpty()) {
+			throw new ObservationReadError("No observations in series "
+					+ (series != null ? series.getDescription() : spec
+							.getSeriesName()));
+		}
+
+		result.series = series;
+		result.obsCount = obs.size();
+
+		return obs;
+	}
+
+	// Perform a DCDFT analysis and write its top hits.
+	private File dcdft(List<ValidObservation> obs) throws AlgorithmError,
+			IOException {
+
+		TSDcDft dcdft = null;
+
+		switch (spec.getDcDftType()) {
+		case PERIOD_RANGE:
+			dcdft = new TSDcDft(obs, DcDftAnalysisType.PERIOD_RANGE);
+			dcdft.setLoPeriodValue(spec.getDcDftLow());
+			dcdft.setHiPeriodValue(spec.getDcDftHigh());
+			dcdft.setResolutionValue(spec.getDcDftResolution());
+			break;
+
+		case FREQUENCY_RANGE:
+			dcdft = new TSDcDft(obs, spec.getDcDftLow(), spec.getDcDftHigh(),
+					spec.getDcDftResolution());
+			break;
+
+		default:
+			dcdft = new TSDcDft(obs);
+			break;
+		}
+
+		dcdft.execute();
+
+		Map<PeriodAnalysisCoordinateType, List<Double>> topHits = dcdft
+				.getTopHits();
+
+		List<String> titles = new ArrayList<String>();
+		List<List<Double>> columns = new ArrayList<List<Double>>();
+		for (PeriodAnalysisCoordinateType type : topHits.keySet()) {
+			titles.add(type.getDescription());
+			columns.add(topHits.get(type));
+		}
+
+		File file = outputFile("dcdft");
+		PrintWriter writer = createWriter(file);
+
+		try {
+			writer.println(join(titles));
+
+			int rows = columns.isEmpty() ? 0 : columns.get(0).size();
+			for (int i = 0; i < rows; i++) {
+				List<Object> row = new ArrayList<Object>();
+				for (List<Double> column : columns) {
+					row.add(column.get(i));
+				}
+				writer.println(join(row));
+			}
+		} finally {
+			writer.close();
+		}
+
+		return file;
+	}
+
+	// Perform a WWZ analysis and write its maximal statistics.
+	private File wwz(List<ValidObservation> obs) throws AlgorithmError,
+			IOException {
+
+		WeightedWaveletZTransform wwz = new WeightedWaveletZTransform(obs,
+				spec.getWWZDecay(), spec.getWWZTimeDivisions());
+
+		wwz.make_freqs_from_period_range(spec.getWWZMinPeriod(), spec
+				.getWWZMaxPeriod(), spec.getWWZPeriodStep());
+
+		wwz.execute();
+
+		File file = outputFile("wwz");
+		PrintWriter writer = createWriter(file);
+
+		try {
+			writer.println(join("Tau", "Period", "Frequency", "WWZ",
+					"Semi-amplitude"));
+
+			for (WWZStatistic stat : wwz.getMaximalStats()) {
+				writer.println(join(stat.getTau(), stat.getPeriod(), stat
+						.getFrequency(), stat.getWwz(), stat
+						.getSemiAmplitude()));
+			}
+		} finally {
+			writer.close();
+		}
+
+		return file;
+	}
+
+	// Create a polynomial fit model and write its fit and residuals.
+	private File polyfit(List<ValidObservation> obs) throws AlgorithmError,
+			IOException {
+
+		ApacheCommonsPolynomialFitCreatorPlugin plugin = new ApacheCommonsPolynomialFitCreatorPlugin();
+		plugin.setAnalysisType(AnalysisType.RAW_DATA);
+		plugin.setParams(new Double[] { (double) spec.getPolyfitDegree() });
+
+		IModel model = plugin.getModel(obs);
+		session.addModel(model);
+
+		List<ValidObservation> fit = model.getFit();
+		List<ValidObservation> residuals = model.getResiduals();
+
+		File file = outputFile("model");
+		PrintWriter writer = createWriter(file);
+
+		try {
+			writer.println(join("JD", "Model", "Residual"));
+
+			for (int i = 0; i < fit.size(); i++) {
+				writer.println(join(fit.get(i).getJD(), fit.get(i).getMag(),
+						residuals.get(i).getMag()));
+			}
+		} finally {
+			writer.close();
+		}
+
+		return file;
+	}
+
+	// Helpers
+
+	// Return the requested series or, if none was requested, the non-synthetic
+	// series with the most observations; null if there is no such series.
+	private SeriesType selectSeries(
+			Map<SeriesType, List<ValidObservation>> categoryMap) {
+
+		SeriesType series = null;
+
+		String name = spec.getSeriesName();
+
+		if (name != null) {
+			series = SeriesType.getSeriesFromShortName(name);
+
+			if (series == SeriesType.getDefault()) {
+				series = SeriesType.getSeriesFromDescription(name);
+			}
+
+			if (!categoryMap.containsKey(series)) {
+				series = null;
+			}
+		} else {
+			int maxCount = 0;
+
+			for (SeriesType type : categoryMap.keySet()) {
+				int count = categoryMap.get(type).size();
+				if (!type.isSynthetic() && type != SeriesType.Excluded
+						&& count > maxCount) {
+					series = type;
+					maxCount = count;
+				}
+			}
+		}
+
+		return series;
+	}
+
+	private File outputFile(String kind) {
+		String name = input.getName();
+
+		int dot = name.lastIndexOf('.');
+		if (dot > 0) {
+			name = name.substring(0, dot);
+		}
+
+		return new File(outputDir, name + "_" + kind + ".txt");
+	}
+
+	private PrintWriter createWriter(File file) throws IOException {
+		return new PrintWriter(new BufferedWriter(new FileWriter(file)));
+	}
+
+	private String join(List<?> values) {
+		StringBuffer buf = new StringBuffer();
+
+		for (Object value : values) {
+			if (buf.length() != 0) {
+				buf.append(spec.getDelimiter());
+			}
+			buf.append(value);
+		}
+
+		return buf.toString();
+	}
+
+	private String join(Object... values) {
+		List<Object> list = new ArrayList<Object>();
+		for (Object value : values) {
+			list.add(value);
+		}
+
+		return join(list);
+	}
+
+	/**
+	 * The result of the analysis of a star.
+	 */
+	public static class Result {
+		private File input;
+		private SeriesType series;
+		private int obsCount;
+		private List<File> outputFiles;
+		private String error;
+
+		private Result(File input) {
+			this.input = input;
+			outputFiles = new ArrayList<File>();
+		}
+
+		// Create the result of an analysis that ended with an unexpected
+		// exception.
+		static Result failure(File input, Throwable t) {
+			Result result = new Result(input);
+			result.error = t.toString();
+			return result;
+		}
+
+		/**
+		 * @return The observation file.
+		 */
+		public File getInput() {
+			return input;
+		}
+
+		/**
+		 * @return The series analysed; null if observations could not be
+		 *         loaded.
+		 */
+		public SeriesType getSeries() {
+			return series;
+		}
+
+		/**
+		 * @return The number of observations analysed.
+		 */
+		public int getObsCount() {
+			return obsCount;
+		}
+
+		/**
+		 * @return The result files written.
+		 */
+		public List<File> getOutputFiles() {
+			return outputFiles;
+		}
+
+		/**
+		 * @return The error that ended the analysis, or null if it succeeded.
+		 */
+		public String getError() {
+			return error;
+		}
+
+		/**
+		 * @return Did the analysis succeed?
+		 */
+		public boolean succeeded() {
+			return error == null;
+		}
+	}
+}
@@ -20,11 +20,16 @@ package org.aavso.tools.vstar.scripting;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.script.Bindings;
 import javax.script.Compilable;
 import javax.script.CompiledScript;
-import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
@@ -33,35 +38,50 @@ import javax.swing.JFileChooser;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.mediator.DocumentManager;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
+import org.aavso.tools.vstar.vela.AST;
+import org.aavso.tools.vstar.vela.VeLaInterpreter;
+import org.aavso.tools.vstar.vela.VeLaScope;
 
 /**
- * This class runs a VStar script.
+ * This class runs VStar scripts: JavaScript, or VeLa for files ending in
+ * ".vl" or ".vela".
+ * <p>
+ * The JavaScript engine and VeLa interpreter are created when first needed
+ * and kept for subsequent runs. Each VeLa run takes place in a new scope
+ * that is discarded afterwards, so a run's bindings do not carry over to the
+ * next. Each script file is compiled (for JavaScript, if the engine supports
+ * it) or parsed (for VeLa) once, and the result cached until the file
+ * changes, so that running the same scripts repeatedly, e.g. in a batch via
+ * runScripts(), costs only their execution.
+ * </p>
  */
 public class ScriptRunner {
 
-	private static ScriptRunner instance = new ScriptRunner(true);
+	private static ScriptRunner instance = new ScriptRunner();
 
 	private ScriptEngineManager manager;
 	private ScriptEngine jsEngine;
-	private Compilable compilable;
 	private Bindings bindings;
+	private VeLaInterpreter vela;
 	private String error;
 	private String warning;
 
+	// Compiled scripts by canonical file path.
+	private Map<String, CompiledScriptFile> scriptCache;
+
+	// Created when first needed, since it cannot be in a headless JVM.
 	private JFileChooser scriptFileChooser;
 
 	/**
 	 * Constructor
 	 */
-	public ScriptRunner(boolean fromFileChooser) {
+	public ScriptRunner() {
 		manager = new ScriptEngineManager();
-		jsEngine = manager.getEngineByName("javascript");
-		compilable = (Compilable) jsEngine;
-		bindings = jsEngine.getBindings(ScriptContext.GLOBAL_SCOPE);
+		// The manager's bindings are the global scope of the engines it
+		// creates.
+		bindings = manager.getBindings();
 		bindings.put("vstar", VStarScriptingAPI.getInstance());
-		if (fromFileChooser) {
-			scriptFileChooser = new JFileChooser();
-		}
+		scriptCache = new HashMap<String, CompiledScriptFile>();
 	}
 
 	/**
@@ -77,6 +97,10 @@ public class ScriptRunner {
 	public void runScript() {
 		File scriptFile = null;
 
+		if (scriptFileChooser == null) {
+			scriptFileChooser = new JFileChooser();
+		}
+
 		int returnVal = scriptFileChooser.showOpenDialog(DocumentManager
 				.findActiveWindow());
 		if (returnVal == JFileChooser.APPROVE_OPTION) {
@@ -86,40 +110,102 @@ public class ScriptRunner {
 	}
 
 	/**
-	 * Run script from the specified file.
+	 * Run script from the specified file, showing an error dialog if it
+	 * fails.
 	 */
 	public void runScript(File scriptFile) {
-		FileReader reader = null;
+		if (!execute(scriptFile)) {
+			MessageBox.showErrorDialog("Script Error", getError());
+		}
+	}
 
-		try {
-			setError(null);
-			setWarning(null);
+	/**
+	 * Run the specified script files in order, stopping at the first that
+	 * fails.
+	 * 
+	 * @param scriptFiles
+	 *            The script files.
+	 * @return Whether all scripts ran successfully; if not, getError()
+	 *         returns the error.
+	 */
+	public boolean runScripts(List<File> scriptFiles) {
+		boolean success = true;
+
+		for (File scriptFile : scriptFiles) {
+			success = execute(scriptFile);
+			if (!success) {
+				break;
+			}
+		}
+
+		return success;
+	}
+
+	/**
+	 * Run script from the specified file, compiling it first unless it has
+	 * been compiled since it last changed. Errors are recorded rather than
+	 * shown.
+	 * 
+	 * @param scriptFile
+	 *            The script file.
+	 * @return Whether the script was compiled and ran without throwing an
+	 *         exception; if not, getError() returns the error. Errors
+	 *         reported by the scripting API are also available via
+	 *         getError().
+	 */
+	public boolean execute(File scriptFile) {
+		String name = scriptFile.getName().toLowerCase();
+		return execute(scriptFile, name.endsWith(".vl")
+				|| name.endsWith(".vela"));
+	}
 
-			Mediator.getUI().setScriptingStatus(true);
+	/**
+	 * Run a VeLa script from the specified file, whatever its name, as per
+	 * execute(File).
+	 * 
+	 * @param scriptFile
+	 *            The VeLa script file.
+	 * @return Whether the script was parsed and ran without throwing an
+	 *         exception; if not, getError() returns the error.
+	 */
+	public boolean executeVeLa(File scriptFile) {
+		return execute(scriptFile, true);
+	}
+
+	private synchronized boolean execute(File scriptFile, boolean isVeLa) {
+		boolean success = false;
+
+		setError(null);
+		setWarning(null);
 
-			reader = new FileReader(scriptFile);
-			jsEngine.put(ScriptEngine.FILENAME, scriptFile.toString());
-			CompiledScript script = compilable.compile(reader);
-			script.eval();
+		setScriptingStatus(true);
+
+		try {
+			getCompiledScript(scriptFile, isVeLa).run();
+			success = true;
 		} catch (ScriptException ex) {
-			Mediator.getUI().setScriptingStatus(false);
-			MessageBox
-					.showErrorDialog("Script Error", ex.getLocalizedMessage());
+			setError(ex.getLocalizedMessage());
 		} catch (Throwable ex) {
-			Mediator.getUI().setScriptingStatus(false);
-			MessageBox.showErrorDialog("Script Error",
-					String.format("Error: " + ex.getLocalizedMessage()));
-
+			setError(String.format("Error: " + ex.getLocalizedMessage()));
 		} finally {
-			Mediator.getUI().setScriptingStatus(false);
-			if (reader != null) {
-				try {
-					reader.close();
-				} catch (IOException e) {
-					// Nothing to be done
-				}
-			}
+			setScriptingStatus(false);
 		}
+
+		return success;
+	}
+
+	/**
+	 * Return the VeLa interpreter with which VeLa scripts are run, creating it
+	 * if necessary.
+	 * 
+	 * @return The interpreter.
+	 */
+	public synchronized VeLaInterpreter getVeLaInterpreter() {
+		if (vela == null) {
+			vela = new VeLaInterpreter(false);
+		}
+
+		return vela;
 	}
 
 	/**
@@ -163,4 +249,137 @@ public class ScriptRunner {
 	public void bind(String name, Object value) {
 		bindings.put(name, value);
 	}
+
+	// Helpers
+
+	private void setScriptingStatus(boolean status) {
+		if (Mediator.getUI() != null) {
+			Mediator.getUI().setScriptingStatus(status);
+		}
+	}
+
+	// Return the cached compiled script for the file, compiling it if it is
+	// not cached or has changed since it was compiled.
+	private CompiledScriptFile getCompiledScript(File scriptFile,
+			boolean isVeLa) throws IOException, ScriptException {
+
+		String path = scriptFile.getCanonicalPath();
+
+		CompiledScriptFile compiled = scriptCache.get(path);
+
+		if (compiled == null || !compiled.isCurrent(scriptFile)) {
+			if (isVeLa) {
+				compiled = compileVeLa(scriptFile);
+			} else {
+				compiled = compileJavaScript(scriptFile);
+			}
+
+			scriptCache.put(path, compiled);
+		}
+
+		return compiled;
+	}
+
+	private CompiledScriptFile compileJavaScript(final File scriptFile)
+			throws IOException, ScriptException {
+
+		final ScriptEngine engine = getJavaScriptEngine();
+
+		CompiledScriptFile compiled = null;
+
+		if (engine instanceof Compilable) {
+			Reader reader = new FileReader(scriptFile);
+
+			try {
+				engine.put(ScriptEngine.FILENAME, scriptFile.toString());
+				final CompiledScript script = ((Compilable) engine)
+						.compile(reader);
+
+				compiled = new CompiledScriptFile(scriptFile) {
+					@Override
+					public void run() throws ScriptException {
+						engine.put(ScriptEngine.FILENAME, scriptFile
+								.toString());
+						script.eval();
+					}
+				};
+			} finally {
+				reader.close();
+			}
+		} else {
+			final String source = readFile(scriptFile);
+
+			compiled = new CompiledScriptFile(scriptFile) {
+				@Override
+				public void run() throws ScriptException {
+					engine.put(ScriptEngine.FILENAME, scriptFile.toString());
+					engine.eval(source);
+				}
+			};
+		}
+
+		return compiled;
+	}
+
+	private CompiledScriptFile compileVeLa(File scriptFile) throws IOException {
+		final VeLaInterpreter interpreter = getVeLaInterpreter();
+		final AST ast = interpreter.compile(readFile(scriptFile));
+
+		return new CompiledScriptFile(scriptFile) {
+			@Override
+			public void run() {
+				// Run in a new scope, then discard it along with any scopes
+				// left behind by an error.
+				VeLaScope scope = new VeLaScope();
+				interpreter.pushEnvironment(scope);
+				try {
+					interpreter.program(ast);
+				} finally {
+					while (interpreter.popEnvironment() != scope) {
+					}
+					interpreter.getStack().clear();
+				}
+			}
+		};
+	}
+
+	// Return the JavaScript engine, creating it if necessary. Newer Java
+	// runtimes do not include one, in which case one must be added to the
+	// class path.
+	private ScriptEngine getJavaScriptEngine() throws ScriptException {
+		if (jsEngine == null) {
+			jsEngine = manager.getEngineByName("javascript");
+
+			if (jsEngine == null) {
+				throw new ScriptException(
+						"No JavaScript engine is available in this Java runtime");
+			}
+		}
+
+		return jsEngine;
+	}
+
+	private String readFile(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), Charset
+				.defaultCharset());
+	}
+
+	// A compiled script and the state of the file from which it was compiled.
+	private static abstract class CompiledScriptFile {
+		private final long lastModified;
+		private final long length;
+
+		CompiledScriptFile(File file) {
+			lastModified = file.lastModified();
+			length = file.length();
+		}
+
+		// Has the file not changed since the script was compiled?
+		boolean isCurrent(File file) {
+			return file.lastModified() == lastModified
+					&& file.length() == length;
+		}
+
+		abstract public void run() throws ScriptException;
+	}
 }
@@ -0,0 +1,174 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.scripting;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.model.ModelSeries;
+
+/**
+ * A read-only view of the time, magnitude, phase and uncertainty values of a
+ * series, for use by scripts. Unlike VStarScriptingAPI.getTimes() etc, no
+ * arrays are created: each value is read from the underlying observation
+ * list when requested, and for model series without creating observations.
+ * So obtaining a view costs nothing however large the series, but a view
+ * reflects later changes to the series, e.g. new phase values.
+ * <p>
+ * Values may be read via the indexed getters, e.g. view.getMag(i), or via the
+ * read-only lists returned by times(), mags() etc, which JavaScript engines
+ * allow to be indexed like arrays.
+ * </p>
+ */
+public class SeriesView {
+
+	private final List<ValidObservation> obs;
+
+	// Non-null if the observations are a model series view.
+	private final ModelSeries.ObservationView modelView;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param obs
+	 *            The series' observations.
+	 */
+	public SeriesView(List<ValidObservation> obs) {
+		this.obs = obs;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			modelView = (ModelSeries.ObservationView) obs;
+		} else {
+			modelView = null;
+		}
+	}
+
+	/**
+	 * @return The number of observations in the series.
+	 */
+	public int size() {
+		return obs.size();
+	}
+
+	/**
+	 * @param i
+	 *            The observation index.
+	 * @return The time (JD) of the specified observation.
+	 */
+	public double getTime(int i) {
+		return modelView != null ? modelView.getJD(i) : obs.get(i).getJD();
+	}
+
+	/**
+	 * @param i
+	 *            The observation index.
+	 * @return The magnitude of the specified observation.
+	 */
+	public double getMag(int i) {
+		return modelView != null ? modelView.getMag(i) : obs.get(i).getMag();
+	}
+
+	/**
+	 * @param i
+	 *            The observation index.
+	 * @return The standard phase of the specified observation, or NaN if no
+	 *         phase has been computed.
+	 */
+	public double getPhase(int i) {
+		double phase;
+
+		if (modelView != null) {
+			phase = modelView.getStandardPhase(i);
+		} else {
+			Double standardPhase = obs.get(i).getStandardPhase();
+			phase = standardPhase != null ? standardPhase : Double.NaN;
+		}
+
+		return phase;
+	}
+
+	/**
+	 * @param i
+	 *            The observation index.
+	 * @return The magnitude uncertainty of the specified observation.
+	 */
+	public double getMagError(int i) {
+		return modelView != null ? 0 : obs.get(i).getMagnitude()
+				.getUncertainty();
+	}
+
+	/**
+	 * @return A read-only list view of the series' times.
+	 */
+	public List<Double> times() {
+		return new Column() {
+			@Override
+			public Double get(int i) {
+				return getTime(i);
+			}
+		};
+	}
+
+	/**
+	 * @return A read-only list view of the series' magnitudes.
+	 */
+	public List<Double> mags() {
+		return new Column() {
+			@Override
+			public Double get(int i) {
+				return getMag(i);
+			}
+		};
+	}
+
+	/**
+	 * @return A read-only list view of the series' standard phases.
+	 */
+	public List<Double> phases() {
+		return new Column() {
+			@Override
+			public Double get(int i) {
+				return getPhase(i);
+			}
+		};
+	}
+
+	/**
+	 * @return A read-only list view of the series' magnitude uncertainties.
+	 */
+	public List<Double> magErrors() {
+		return new Column() {
+			@Override
+			public Double get(int i) {
+				return getMagError(i);
+			}
+		};
+	}
+
+	// A read-only list of one of the series' values; AbstractList throws
+	// UnsupportedOperationException for modifications.
+	private abstract class Column extends AbstractList<Double> implements
+			RandomAccess {
+		@Override
+		public int size() {
+			return obs.size();
+		}
+	}
+}
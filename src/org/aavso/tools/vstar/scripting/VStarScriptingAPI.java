@@ -24,7 +24,6 @@ import java.net.URL;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
@@ -45,6 +44,7 @@ import org.aavso.tools.vstar.ui.mediator.StarInfo;
 import org.aavso.tools.vstar.ui.mediator.ViewModeType;
 import org.aavso.tools.vstar.ui.mediator.message.AnalysisTypeChangeMessage;
 import org.aavso.tools.vstar.ui.model.plot.ObservationAndMeanPlotModel;
+import org.aavso.tools.vstar.ui.resources.PluginDescriptor;
 import org.aavso.tools.vstar.ui.resources.PluginLoader;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.model.IModel;
@@ -578,15 +578,12 @@ public class VStarScriptingAPI {
 	 * @return An array of time values.
 	 */
 	public double[] getTimes(String seriesName) {
-		List<ValidObservation> obs = getObsForSeries(seriesName);
-
-		List<Double> timeList = obs.stream().map(ob -> ob.getJD()).collect(Collectors.toList());
+		SeriesView view = new SeriesView(getObsForSeries(seriesName));
 
-		double[] times = new double[timeList.size()];
+		double[] times = new double[view.size()];
 
-		int i = 0;
-		for (Double time : timeList) {
-			times[i++] = time;
+		for (int i = 0; i < times.length; i++) {
+			times[i] = view.getTime(i);
 		}
 
 		return times;
@@ -599,15 +596,12 @@ public class VStarScriptingAPI {
 	 * @return An array of phase values.
 	 */
 	public double[] getPhases(String seriesName) {
-		List<ValidObservation> obs = getObsForSeries(seriesName);
+		SeriesView view = new SeriesView(getObsForSeries(seriesName));
 
-		List<Double> phaseList = obs.stream().map(ob -> ob.getStandardPhase()).collect(Collectors.toList());
+		double[] phases = new double[view.size()];
 
-		double[] phases = new double[phaseList.size()];
-
-		int i = 0;
-		for (Double phase : phaseList) {
-			phases[i++] = phase;
+		for (int i = 0; i < phases.length; i++) {
+			phases[i] = view.getPhase(i);
 		}
 
 		return phases;
@@ -620,20 +614,30 @@ public class VStarScriptingAPI {
 	 * @return An array of magnitude values.
 	 */
 	public double[] getMags(String seriesName) {
-		List<ValidObservation> obs = getObsForSeries(seriesName);
-
-		List<Double> magList = obs.stream().map(ob -> ob.getMag()).collect(Collectors.toList());
+		SeriesView view = new SeriesView(getObsForSeries(seriesName));
 
-		double[] mags = new double[magList.size()];
+		double[] mags = new double[view.size()];
 
-		int i = 0;
-		for (Double mag : magList) {
-			mags[i++] = mag;
+		for (int i = 0; i < mags.length; i++) {
+			mags[i] = view.getMag(i);
 		}
 
 		return mags;
 	}
 
+	/**
+	 * Returns a read-only view of the time, magnitude, phase and uncertainty
+	 * values of the specified series. Unlike getTimes(), getMags() and
+	 * getPhases(), this copies nothing, so is preferable for large series or
+	 * when called repeatedly.
+	 * 
+	 * @param seriesName The short or long series name.
+	 * @return The series view.
+	 */
+	public SeriesView getSeriesView(String seriesName) {
+		return new SeriesView(getObsForSeries(seriesName));
+	}
+
 	/**
 	 * Makes the specified series in the current dataset visible. Calling this
 	 * method more than one consecutive time with the same visibility value has no
@@ -765,11 +769,16 @@ public class VStarScriptingAPI {
 
 		ObservationSourcePluginBase obSourcePlugin = null;
 
-		for (ObservationSourcePluginBase plugin : PluginLoader.getObservationSourcePlugins()) {
-			if (plugin.getDisplayName().contains(pluginName)
-					&& (plugin.getInputType() == inputType || plugin.getInputType() == InputType.FILE_OR_URL)) {
-				obSourcePlugin = plugin;
-				break;
+		// Match on the descriptors so that only the matching plug-in is
+		// instantiated.
+		for (PluginDescriptor<ObservationSourcePluginBase> descriptor : PluginLoader
+				.getObservationSourcePluginDescriptors()) {
+			if (descriptor.getDisplayName().contains(pluginName)
+					&& (descriptor.getInputType() == inputType || descriptor.getInputType() == InputType.FILE_OR_URL)) {
+				obSourcePlugin = descriptor.getPlugin();
+				if (obSourcePlugin != null) {
+					break;
+				}
 			}
 		}
 
@@ -815,10 +824,13 @@ public class VStarScriptingAPI {
 
 		ObservationSourcePluginBase obSourcePlugin = null;
 
-		for (ObservationSourcePluginBase plugin : PluginLoader.getObservationSourcePlugins()) {
-			if (plugin.getDisplayName().contains(MenuBar.NEW_STAR_FROM_DATABASE)) {
-				obSourcePlugin = plugin;
-				break;
+		for (PluginDescriptor<ObservationSourcePluginBase> descriptor : PluginLoader
+				.getObservationSourcePluginDescriptors()) {
+			if (descriptor.getDisplayName().contains(MenuBar.NEW_STAR_FROM_DATABASE)) {
+				obSourcePlugin = descriptor.getPlugin();
+				if (obSourcePlugin != null) {
+					break;
+				}
 			}
 		}
 
@@ -863,10 +875,13 @@ public class VStarScriptingAPI {
 	private ObservationSinkPluginBase getObsSinkPlugin(String pluginName) {
 		ObservationSinkPluginBase obSinkPlugin = null;
 
-		for (ObservationSinkPluginBase plugin : PluginLoader.getObservationSinkPlugins()) {
-			if (plugin.getDisplayName().contains(pluginName)) {
-				obSinkPlugin = plugin;
-				break;
+		for (PluginDescriptor<ObservationSinkPluginBase> descriptor : PluginLoader
+				.getObservationSinkPluginDescriptors()) {
+			if (descriptor.getDisplayName().contains(pluginName)) {
+				obSinkPlugin = descriptor.getPlugin();
+				if (obSinkPlugin != null) {
+					break;
+				}
 			}
 		}
 
@@ -997,9 +1012,13 @@ public class VStarScriptingAPI {
 		// It's not okay for them both to be null!
 		assert pluginName != null || clazz != null;
 
-		for (ModelCreatorPluginBase plugin : PluginLoader.getModelCreatorPlugins()) {
-			if ((pluginName != null && plugin.getDisplayName().contains(pluginName))
-					|| (clazz != null && plugin.getClass() == clazz)) {
+		for (PluginDescriptor<ModelCreatorPluginBase> descriptor : PluginLoader.getModelCreatorPluginDescriptors()) {
+			ModelCreatorPluginBase plugin = null;
+			if ((pluginName != null && descriptor.getDisplayName().contains(pluginName))
+					|| (clazz != null && clazz.getName().equals(descriptor.getClassName()))) {
+				plugin = descriptor.getPlugin();
+			}
+			if (plugin != null) {
 				plugin.setParams(params);
 				List<ValidObservation> obs = getObsForSeries(seriesName);
 				IModel model = plugin.getModel(obs);
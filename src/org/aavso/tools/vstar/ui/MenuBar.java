@@ -34,6 +34,7 @@ import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.SwingUtilities;
 
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.plugin.CustomFilterPluginBase;
@@ -52,6 +53,7 @@ import org.aavso.tools.vstar.ui.dialog.InfoDialog;
 import org.aavso.tools.vstar.ui.dialog.LogDialog;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.dialog.SeriesTypeCreationDialog;
+import org.aavso.tools.vstar.ui.dialog.TaskListDialog;
 import org.aavso.tools.vstar.ui.dialog.plugin.manager.PluginManagementDialog;
 import org.aavso.tools.vstar.ui.dialog.plugin.manager.PluginManagementOperation;
 import org.aavso.tools.vstar.ui.dialog.plugin.manager.PluginManager;
@@ -68,13 +70,15 @@ import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.PanRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.PanType;
 import org.aavso.tools.vstar.ui.mediator.message.PhaseChangeMessage;
-import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
 import org.aavso.tools.vstar.ui.mediator.message.UndoActionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.UndoableActionType;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomType;
 import org.aavso.tools.vstar.ui.model.plot.ObservationAndMeanPlotModel;
+import org.aavso.tools.vstar.ui.resources.PluginDescriptor;
 import org.aavso.tools.vstar.ui.resources.PluginLoader;
+import org.aavso.tools.vstar.ui.task.ScheduledTask;
+import org.aavso.tools.vstar.ui.task.TaskScheduler;
 import org.aavso.tools.vstar.ui.vela.VeLaDialog;
 import org.aavso.tools.vstar.util.help.Help;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
@@ -93,6 +97,7 @@ public class MenuBar extends JMenuBar {
 	public static final String PRINT = LocaleProps.get("FILE_MENU_PRINT");
 	public static final String INFO = LocaleProps.get("FILE_MENU_INFO");
 	public static final String LOG = LocaleProps.get("FILE_MENU_LOG");
+	public static final String TASKS = LocaleProps.get("FILE_MENU_TASKS");
 	public static final String PREFS = LocaleProps.get("FILE_MENU_PREFS");
 	public static final String QUIT = LocaleProps.get("FILE_MENU_QUIT");
 
@@ -151,14 +156,14 @@ public class MenuBar extends JMenuBar {
 
 	private Mediator mediator = Mediator.getInstance();
 
-	// Plug-in menu name to plug-in object maps.
-	private Map<String, ObservationSourcePluginBase> menuItemNameToObSourcePlugin;
-	private Map<String, CustomFilterPluginBase> menuItemNameToCustomFilterPlugin;
-	private Map<String, PeriodAnalysisPluginBase> menuItemNameToPeriodAnalysisPlugin;
-	private Map<String, ModelCreatorPluginBase> menuItemNameToModelCreatorPlugin;
-	private Map<String, ObservationToolPluginBase> menuItemNameToObsToolPlugin;
-	private Map<String, GeneralToolPluginBase> menuItemNameToGenToolPlugin;
-	private Map<String, ObservationTransformerPluginBase> menuItemNameToObsTransPlugin;
+	// Plug-in menu name to plug-in descriptor maps.
+	private Map<String, PluginDescriptor<ObservationSourcePluginBase>> menuItemNameToObSourcePlugin;
+	private Map<String, PluginDescriptor<CustomFilterPluginBase>> menuItemNameToCustomFilterPlugin;
+	private Map<String, PluginDescriptor<PeriodAnalysisPluginBase>> menuItemNameToPeriodAnalysisPlugin;
+	private Map<String, PluginDescriptor<ModelCreatorPluginBase>> menuItemNameToModelCreatorPlugin;
+	private Map<String, PluginDescriptor<ObservationToolPluginBase>> menuItemNameToObsToolPlugin;
+	private Map<String, PluginDescriptor<GeneralToolPluginBase>> menuItemNameToGenToolPlugin;
+	private Map<String, PluginDescriptor<ObservationTransformerPluginBase>> menuItemNameToObsTransPlugin;
 
 	// Keep track of analysis menu items for enabling/disabling.
 	private List<JMenuItem> analysisMenuItems;
@@ -169,6 +174,10 @@ public class MenuBar extends JMenuBar {
 	// The user interface type.
 	private UIType uiType;
 
+	// Is an observation load queued or running, i.e. are key menu items
+	// disabled on account of it?
+	private boolean loading;
+
 	// Menu items.
 
 	// File menu.
@@ -178,6 +187,7 @@ public class MenuBar extends JMenuBar {
 	JMenuItem filePrintItem;
 	JMenuItem fileInfoItem;
 	JMenuItem fileLogItem;
+	JMenuItem fileTasksItem;
 	JMenuItem filePrefsItem;
 	JMenuItem fileQuitItem;
 
@@ -247,7 +257,7 @@ public class MenuBar extends JMenuBar {
 
 		// Listen to events
 
-		this.mediator.getProgressNotifier().addListener(createProgressListener());
+		this.mediator.getTaskScheduler().getTaskNotifier().addListener(createTaskListener());
 
 		this.mediator.getNewStarNotifier().addListener(createNewStarListener());
 
@@ -277,22 +287,23 @@ public class MenuBar extends JMenuBar {
 	private void createFileMenu() {
 		JMenu fileMenu = new JMenu(LocaleProps.get("FILE_MENU"));
 
-		List<ObservationSourcePluginBase> obSourcePlugins = PluginLoader.getObservationSourcePlugins();
+		List<PluginDescriptor<ObservationSourcePluginBase>> obSourcePlugins = PluginLoader
+				.getObservationSourcePluginDescriptors();
 
 		if (!obSourcePlugins.isEmpty()) {
-			menuItemNameToObSourcePlugin = new TreeMap<String, ObservationSourcePluginBase>();
+			menuItemNameToObSourcePlugin = new TreeMap<String, PluginDescriptor<ObservationSourcePluginBase>>();
 
 			ActionListener obSourceListener = createObservationSourceListener();
 
 			int internalPluginCount = 0;
-			for (ObservationSourcePluginBase plugin : obSourcePlugins) {
+			for (PluginDescriptor<ObservationSourcePluginBase> plugin : obSourcePlugins) {
 				if ("Internal".equals(plugin.getGroup())) {
 					internalPluginCount++;
 				}
 			}
 
 			int internalPluginIndex = 1;
-			for (ObservationSourcePluginBase plugin : obSourcePlugins) {
+			for (PluginDescriptor<ObservationSourcePluginBase> plugin : obSourcePlugins) {
 				String itemName = plugin.getDisplayName();
 				if (plugin.getInputType() == InputType.NONE || plugin.getInputType() == InputType.URL
 						|| LocaleProps.get("FILE_MENU_NEW_STAR_FROM_FILE").equals(itemName)
@@ -342,6 +353,10 @@ public class MenuBar extends JMenuBar {
 		fileLogItem.addActionListener(this.createLogListener());
 		fileMenu.add(fileLogItem);
 
+		fileTasksItem = new JMenuItem(TASKS);
+		fileTasksItem.addActionListener(this.createTasksListener());
+		fileMenu.add(fileTasksItem);
+
 		filePrefsItem = new JMenuItem(PREFS);
 		filePrefsItem.addActionListener(this.createPrefsListener());
 		fileMenu.add(filePrefsItem);
@@ -492,10 +507,10 @@ public class MenuBar extends JMenuBar {
 
 		ActionListener customFilterListener = createCustomFilterListener();
 
-		menuItemNameToCustomFilterPlugin = new TreeMap<String, CustomFilterPluginBase>();
+		menuItemNameToCustomFilterPlugin = new TreeMap<String, PluginDescriptor<CustomFilterPluginBase>>();
 
-		for (CustomFilterPluginBase plugin : PluginLoader
-				.getCustomFilterPlugins()) {
+		for (PluginDescriptor<CustomFilterPluginBase> plugin : PluginLoader
+				.getCustomFilterPluginDescriptors()) {
 			String itemName = plugin.getDisplayName();
 
 			JMenuItem customFilterMenuItem = new JMenuItem(itemName);
@@ -541,22 +556,22 @@ public class MenuBar extends JMenuBar {
 		analysisMenuItems = new ArrayList<JMenuItem>();
 		String lastGroup = null;
 
-		menuItemNameToPeriodAnalysisPlugin = new TreeMap<String, PeriodAnalysisPluginBase>();
+		menuItemNameToPeriodAnalysisPlugin = new TreeMap<String, PluginDescriptor<PeriodAnalysisPluginBase>>();
 		lastGroup = addAnalysisPlugins(analysisMenu, createPeriodSearchListener(),
-				PluginLoader.getPeriodAnalysisPlugins(), menuItemNameToPeriodAnalysisPlugin, lastGroup);
+				PluginLoader.getPeriodAnalysisPluginDescriptors(), menuItemNameToPeriodAnalysisPlugin, lastGroup);
 
-		menuItemNameToModelCreatorPlugin = new TreeMap<String, ModelCreatorPluginBase>();
+		menuItemNameToModelCreatorPlugin = new TreeMap<String, PluginDescriptor<ModelCreatorPluginBase>>();
 		lastGroup = addAnalysisPlugins(analysisMenu, createModelCreatorListener(),
-				PluginLoader.getModelCreatorPlugins(), menuItemNameToModelCreatorPlugin, lastGroup);
+				PluginLoader.getModelCreatorPluginDescriptors(), menuItemNameToModelCreatorPlugin, lastGroup);
 
 		this.add(analysisMenu);
 	}
 
 	// Add items for analysis plug-ins of type P to the analysis menu.
-	private <P extends IPlugin> String addAnalysisPlugins(JMenu analysisMenu, ActionListener listener, List<P> plugins,
-			Map<String, P> menuItemToPluginMap, String lastGroup) {
+	private <P extends IPlugin> String addAnalysisPlugins(JMenu analysisMenu, ActionListener listener,
+			List<PluginDescriptor<P>> plugins, Map<String, PluginDescriptor<P>> menuItemToPluginMap, String lastGroup) {
 
-		for (P plugin : plugins) {
+		for (PluginDescriptor<P> plugin : plugins) {
 
 			if (plugin.getGroup() != null && !plugin.getGroup().equals(lastGroup)) {
 				lastGroup = plugin.getGroup();
@@ -597,16 +612,17 @@ public class MenuBar extends JMenuBar {
 		// toolMenu.addSeparator();
 		// }
 
-		List<ObservationToolPluginBase> obsToolPlugins = PluginLoader.getObservationToolPlugins();
+		List<PluginDescriptor<ObservationToolPluginBase>> obsToolPlugins = PluginLoader
+				.getObservationToolPluginDescriptors();
 
 		if (!obsToolPlugins.isEmpty()) {
 			toolMenu.addSeparator();
 
 			ActionListener obsToolMenuItemListener = createObsToolMenuItemListener();
 
-			menuItemNameToObsToolPlugin = new TreeMap<String, ObservationToolPluginBase>();
+			menuItemNameToObsToolPlugin = new TreeMap<String, PluginDescriptor<ObservationToolPluginBase>>();
 
-			for (ObservationToolPluginBase plugin : obsToolPlugins) {
+			for (PluginDescriptor<ObservationToolPluginBase> plugin : obsToolPlugins) {
 				String itemName = plugin.getDisplayName() + "...";
 
 				JMenuItem toolMenuItem = new JMenuItem(itemName);
@@ -617,16 +633,17 @@ public class MenuBar extends JMenuBar {
 			}
 		}
 
-		List<GeneralToolPluginBase> genToolPlugins = PluginLoader.getGeneralToolPlugins();
+		List<PluginDescriptor<GeneralToolPluginBase>> genToolPlugins = PluginLoader
+				.getGeneralToolPluginDescriptors();
 
 		if (!genToolPlugins.isEmpty()) {
 			toolMenu.addSeparator();
 
 			ActionListener genToolMenuItemListener = createGenToolMenuItemListener();
 
-			menuItemNameToGenToolPlugin = new TreeMap<String, GeneralToolPluginBase>();
+			menuItemNameToGenToolPlugin = new TreeMap<String, PluginDescriptor<GeneralToolPluginBase>>();
 
-			for (GeneralToolPluginBase plugin : genToolPlugins) {
+			for (PluginDescriptor<GeneralToolPluginBase> plugin : genToolPlugins) {
 				String itemName = plugin.getDisplayName() + "...";
 
 				JMenuItem toolMenuItem = new JMenuItem(itemName);
@@ -637,16 +654,17 @@ public class MenuBar extends JMenuBar {
 			}
 		}
 
-		List<ObservationTransformerPluginBase> obsTransPlugins = PluginLoader.getObservationTransformerPlugins();
+		List<PluginDescriptor<ObservationTransformerPluginBase>> obsTransPlugins = PluginLoader
+				.getObservationTransformerPluginDescriptors();
 
 		if (!obsTransPlugins.isEmpty()) {
 			toolMenu.addSeparator();
 
 			ActionListener obsTransMenuItemListener = createObsTransMenuItemListener();
 
-			menuItemNameToObsTransPlugin = new TreeMap<String, ObservationTransformerPluginBase>();
+			menuItemNameToObsTransPlugin = new TreeMap<String, PluginDescriptor<ObservationTransformerPluginBase>>();
 
-			for (ObservationTransformerPluginBase plugin : obsTransPlugins) {
+			for (PluginDescriptor<ObservationTransformerPluginBase> plugin : obsTransPlugins) {
 				String itemName = plugin.getDisplayName() + "...";
 
 				JMenuItem toolMenuItem = new JMenuItem(itemName);
@@ -699,7 +717,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				ObservationSourcePluginBase plugin = menuItemNameToObSourcePlugin.get(item);
+				ObservationSourcePluginBase plugin = menuItemNameToObSourcePlugin.get(item).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				mediator.createObservationArtefactsFromObSourcePlugin(plugin);
 			}
 		};
@@ -714,7 +735,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 
-				ObservationSourcePluginBase plugin = menuItemNameToObSourcePlugin.get(obsSourceItemName);
+				ObservationSourcePluginBase plugin = menuItemNameToObSourcePlugin.get(obsSourceItemName).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				mediator.createObservationArtefactsFromObSourcePlugin(plugin);
 			}
 		};
@@ -764,6 +788,17 @@ public class MenuBar extends JMenuBar {
 		};
 	}
 
+	/**
+	 * Returns the action listener to be invoked for File->Tasks...
+	 */
+	public ActionListener createTasksListener() {
+		return new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				new TaskListDialog();
+			}
+		};
+	}
+
 	/**
 	 * Returns the action listener to be invoked for File->Preferences...
 	 */
@@ -983,7 +1018,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				CustomFilterPluginBase plugin = menuItemNameToCustomFilterPlugin.get(item);
+				CustomFilterPluginBase plugin = menuItemNameToCustomFilterPlugin.get(item).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				Mediator.getInstance().applyCustomFilterToCurrentObservations(plugin);
 			}
 		};
@@ -1069,7 +1107,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				PeriodAnalysisPluginBase plugin = menuItemNameToPeriodAnalysisPlugin.get(item);
+				PeriodAnalysisPluginBase plugin = menuItemNameToPeriodAnalysisPlugin.get(item).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				Mediator.getInstance().performPeriodAnalysis(plugin);
 			}
 		};
@@ -1083,7 +1124,10 @@ public class MenuBar extends JMenuBar {
 	public ActionListener createPeriodSearchListener(final String periodSearchItemName) {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				PeriodAnalysisPluginBase plugin = menuItemNameToPeriodAnalysisPlugin.get(periodSearchItemName);
+				PeriodAnalysisPluginBase plugin = menuItemNameToPeriodAnalysisPlugin.get(periodSearchItemName).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				Mediator.getInstance().performPeriodAnalysis(plugin);
 			}
 		};
@@ -1097,7 +1141,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				ModelCreatorPluginBase plugin = menuItemNameToModelCreatorPlugin.get(item);
+				ModelCreatorPluginBase plugin = menuItemNameToModelCreatorPlugin.get(item).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				Mediator.getInstance().performModellingOperation(plugin);
 			}
 		};
@@ -1111,7 +1158,10 @@ public class MenuBar extends JMenuBar {
 	public ActionListener createPolynomialFitListener(final String polyFitItemName) {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				ModelCreatorPluginBase plugin = menuItemNameToModelCreatorPlugin.get(polyFitItemName);
+				ModelCreatorPluginBase plugin = menuItemNameToModelCreatorPlugin.get(polyFitItemName).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				Mediator.getInstance().performModellingOperation(plugin);
 			}
 		};
@@ -1230,7 +1280,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				ObservationToolPluginBase plugin = menuItemNameToObsToolPlugin.get(item);
+				ObservationToolPluginBase plugin = menuItemNameToObsToolPlugin.get(item).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				Mediator.getInstance().invokeTool(plugin);
 			}
 		};
@@ -1244,7 +1297,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				GeneralToolPluginBase plugin = menuItemNameToGenToolPlugin.get(item);
+				GeneralToolPluginBase plugin = menuItemNameToGenToolPlugin.get(item).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				try {
 					plugin.invoke();
 				} catch (Throwable t) {
@@ -1262,7 +1318,10 @@ public class MenuBar extends JMenuBar {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				String item = e.getActionCommand();
-				ObservationTransformerPluginBase plugin = menuItemNameToObsTransPlugin.get(item);
+				ObservationTransformerPluginBase plugin = menuItemNameToObsTransPlugin.get(item).getPlugin();
+				if (plugin == null) {
+					return;
+				}
 				try {
 					Mediator.getInstance().performObservationTransformationOperation(plugin);
 				} catch (Throwable t) {
@@ -1340,30 +1399,18 @@ public class MenuBar extends JMenuBar {
 	}
 
 	/**
-	 * Return a progress listener.
+	 * Return a task listener that updates the wait cursor and key menu items
+	 * when a task is submitted, started or completes.
 	 */
-	private Listener<ProgressInfo> createProgressListener() {
-		final IMainUI parent = this.parent;
-		return new Listener<ProgressInfo>() {
-			public void update(ProgressInfo info) {
-				switch (info.getType()) {
-				case MIN_PROGRESS:
-					break;
-				case MAX_PROGRESS:
-					break;
-				case START_PROGRESS:
-					resetProgress(parent);
-					break;
-				case COMPLETE_PROGRESS:
-					completeProgress();
-					break;
-				case CLEAR_PROGRESS:
-					break;
-				case INCREMENT_PROGRESS:
-					break;
-				case BUSY_PROGRESS:
-					break;
-				}
+	private Listener<ScheduledTask> createTaskListener() {
+		return new Listener<ScheduledTask>() {
+			public void update(ScheduledTask task) {
+				// Tasks start and complete on worker threads.
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						updateTaskState();
+					}
+				});
 			}
 
 			public boolean canBeRemoved() {
@@ -1403,16 +1450,26 @@ public class MenuBar extends JMenuBar {
 		};
 	}
 
-	private void resetProgress(IMainUI parent) {
-		// TODO: why not set cursor in MainFrame or StatusPane?
-		parent.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-		changeKeyMenuItemEnableState(false);
-	}
+	// Show the wait cursor while any task is queued or running, and disable
+	// key menu items while an observation load (an exclusive task) is. Other
+	// tasks, e.g. fits and period analyses, may run alongside each other, so
+	// the menu items that start them remain enabled while they run.
+	private void updateTaskState() {
+		TaskScheduler scheduler = mediator.getTaskScheduler();
 
-	private void completeProgress() {
 		// TODO: why not set cursor in MainFrame or StatusPane?
-		parent.setCursor(null); // turn off the wait cursor
-		changeKeyMenuItemEnableState(true);
+		if (scheduler.getActiveTaskCount() != 0) {
+			parent.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+		} else {
+			parent.setCursor(null); // turn off the wait cursor
+		}
+
+		boolean loading = scheduler.getActiveExclusiveTaskCount() != 0;
+
+		if (loading != this.loading) {
+			this.loading = loading;
+			changeKeyMenuItemEnableState(!loading);
+		}
 	}
 
 	// Returns a new star listener.
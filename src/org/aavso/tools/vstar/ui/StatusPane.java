@@ -30,6 +30,7 @@ import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
 import javax.swing.border.BevelBorder;
 
 import org.aavso.tools.vstar.ui.mediator.Mediator;
@@ -38,6 +39,7 @@ import org.aavso.tools.vstar.ui.mediator.message.NewStarMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
 import org.aavso.tools.vstar.ui.mediator.message.StopRequestMessage;
 import org.aavso.tools.vstar.ui.resources.ResourceAccessor;
+import org.aavso.tools.vstar.ui.task.ScheduledTask;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.notification.Listener;
 
@@ -89,7 +91,7 @@ public class StatusPane extends JPanel {
 		Icon stopIcon = ResourceAccessor
 				.getIconResource("/nico/toolbarIcons/_24_/Stop2.png");
 		this.stopButton = new JButton(stopIcon);
-		this.stopButton.setToolTipText("Stop the current operation");
+		this.stopButton.setToolTipText("Stop all current operations");
 		this.stopButton.setBorder(BorderFactory.createEmptyBorder());
 		this.stopButton.setEnabled(false);
 		this.stopButton.addActionListener(createStopButtonListener());
@@ -101,6 +103,8 @@ public class StatusPane extends JPanel {
 
 		mediator.getNewStarNotifier().addListener(createNewStarListener());
 		mediator.getProgressNotifier().addListener(createProgressListener());
+		mediator.getTaskScheduler().getTaskNotifier().addListener(
+				createTaskListener());
 	}
 
 	// TODO: To prevent the progress bar from shifting, pad all messages
@@ -117,6 +121,21 @@ public class StatusPane extends JPanel {
 		this.statusLabel.setText(" " + msg);
 	}
 
+	/**
+	 * Append to the status message being displayed.
+	 * 
+	 * @param msg
+	 *            The message to be appended.
+	 */
+	public void appendMessage(String msg) {
+		String text = this.statusLabel.getText().trim();
+		if (text.length() == 0) {
+			setMessage(msg);
+		} else {
+			setMessage(text + " " + msg);
+		}
+	}
+
 	/**
 	 * Set the XY message (intended to be JD/phase and magnitude).
 	 * 
@@ -249,8 +268,9 @@ public class StatusPane extends JPanel {
 					break;
 				case COMPLETE_PROGRESS:
 					self.completeProgressBar();
-					self.stopButton.setEnabled(false);
-					mediator.clearCurrentTask();
+					// Other tasks may still be running.
+					self.stopButton.setEnabled(mediator.getTaskScheduler()
+							.hasActiveTasks());
 					break;
 				case INCREMENT_PROGRESS:
 					// Ensure the main window now has focus so we see
@@ -274,8 +294,30 @@ public class StatusPane extends JPanel {
 		};
 	}
 
-	// Create an action listener to stop the current task,
-	// if one is in progress.
+	/**
+	 * Return a task listener that enables the stop button when a task is
+	 * submitted or started. The button is disabled on completion of progress
+	 * if no tasks remain.
+	 */
+	private Listener<ScheduledTask> createTaskListener() {
+		return new Listener<ScheduledTask>() {
+			public void update(final ScheduledTask task) {
+				if (!task.isDone()) {
+					SwingUtilities.invokeLater(new Runnable() {
+						public void run() {
+							stopButton.setEnabled(true);
+						}
+					});
+				}
+			}
+
+			public boolean canBeRemoved() {
+				return false;
+			}
+		};
+	}
+
+	// Create an action listener to stop all tasks, if any are in progress.
 	private ActionListener createStopButtonListener() {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
@@ -19,6 +19,9 @@ package org.aavso.tools.vstar.ui;
 
 import java.io.File;
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Logger;
@@ -27,6 +30,7 @@ import java.util.logging.SimpleFormatter;
 import javax.swing.UIManager;
 
 import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.scripting.HeadlessBatchRunner;
 import org.aavso.tools.vstar.scripting.ScriptRunner;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.dialog.plugin.manager.PluginManager;
@@ -69,10 +73,16 @@ public class VStar {
 	private static boolean loadPlugins = true;
 	
 	private static boolean runScript = false;
-	private static String scriptPath = null;
+	private static List<File> scriptFiles = new ArrayList<File>();
 
 	public static void main(String[] args) {
 
+		// Batch analysis without a user interface.
+		if (args.length > 0 && "--headless".equals(args[0])) {
+			HeadlessBatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
 		String os_name = "";
 		// For Mac OS X, make it look more native by using the screen
 		// menu bar. Suggested by Adam Weber.
@@ -173,8 +183,13 @@ public class VStar {
 			Runtime.getRuntime().addShutdownHook(
 					new Thread(shutdownTask, "Application shutdown task"));
 			
-			if (scriptPath != null) {
-				new ScriptRunner(false).runScript(new File(scriptPath));
+			// Scripts share the script runner's engine and compiled scripts.
+			if (!scriptFiles.isEmpty()) {
+				ScriptRunner runner = ScriptRunner.getInstance();
+				if (!runner.runScripts(scriptFiles)) {
+					MessageBox.showErrorDialog("Script Error",
+							runner.getError());
+				}
 			}
 
 		} catch (Throwable t) {
@@ -194,7 +209,8 @@ public class VStar {
 	private static void processCmdLineArgs(String[] args) {
 		for (String arg : args) {
 			if ("--help".equals(arg)) {
-				System.out.println("usage: vstar [--default-look-and-feel] [--noplugins] [--script path]");
+				System.out.println("usage: vstar [--default-look-and-feel] [--noplugins] [--script path...]"
+						+ " | --headless [options] file... (--headless --help for options)");
 				System.exit(0);
 			} else if ("--default-look-and-feel".equals(arg)) {
 				setNativeLookAndFeel = false;
@@ -203,7 +219,7 @@ public class VStar {
 			} else if ("--script".equals(arg)) {
 				runScript = true;
 			} else if (runScript) {
-				scriptPath = arg;
+				scriptFiles.add(new File(arg));
 			}
 		}
 	}
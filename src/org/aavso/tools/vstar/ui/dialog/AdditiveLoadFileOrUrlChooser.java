@@ -39,6 +39,7 @@ import org.aavso.tools.vstar.plugin.InputType;
 import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
 import org.aavso.tools.vstar.plugin.PluginComponentFactory;
 import org.aavso.tools.vstar.ui.dialog.plugin.manager.PluginManager;
+import org.aavso.tools.vstar.ui.resources.PluginDescriptor;
 import org.aavso.tools.vstar.ui.resources.PluginLoader;
 import org.aavso.tools.vstar.util.Pair;
 import org.aavso.tools.vstar.util.help.Help;
@@ -58,7 +59,7 @@ public class AdditiveLoadFileOrUrlChooser {
 	private TextArea velaFilterField;
 	private List<String> DEFAULT_EXTENSIONS = new ArrayList<String>();
 	private List<String> extensions = new ArrayList<String>();
-	private Map<String, ObservationSourcePluginBase> plugins;
+	private Map<String, PluginDescriptor<ObservationSourcePluginBase>> plugins;
 	private JComboBox<String> pluginChooser;
 
 	/**
@@ -73,7 +74,7 @@ public class AdditiveLoadFileOrUrlChooser {
 	    fileChooser.setMultiSelectionEnabled(true);
 
 		urlProvided = false;
-		plugins = new TreeMap<String, ObservationSourcePluginBase>();
+		plugins = new TreeMap<String, PluginDescriptor<ObservationSourcePluginBase>>();
 
 		// Default file extensions.
 		DEFAULT_EXTENSIONS.add("csv");
@@ -171,20 +172,21 @@ public class AdditiveLoadFileOrUrlChooser {
 
 	/**
 	 * Create plugin list and add a listener to change extensions when a plugin
-	 * is selected.
+	 * is selected. The list is built from plugin descriptors, so a plugin is
+	 * only loaded when selected.
 	 */
 	private JPanel createPluginsList() {
 		JPanel pane = new JPanel();
 
 		pane.setBorder(BorderFactory.createTitledBorder("Source"));
 		
-		for (ObservationSourcePluginBase plugin : PluginLoader
-				.getObservationSourcePlugins()) {
+		for (PluginDescriptor<ObservationSourcePluginBase> descriptor : PluginLoader
+				.getObservationSourcePluginDescriptors()) {
 
-			switch (plugin.getInputType()) {
+			switch (descriptor.getInputType()) {
 			case FILE:
 			case FILE_OR_URL:
-				String name = plugin.getDisplayName();
+				String name = descriptor.getDisplayName();
 				if (name.equals(LocaleProps.get("FILE_MENU_NEW_STAR_FROM_FILE"))) {
 					// Handle localised "New Star from File"
 					name = LocaleProps.get("TEXT_FORMAT_FILE");
@@ -194,7 +196,7 @@ public class AdditiveLoadFileOrUrlChooser {
 					name = name.replace(" File", "");
 					name = name.replace("...", "");
 				}
-				plugins.put(name, plugin);
+				plugins.put(name, descriptor);
 			default:
 			}
 		}
@@ -311,7 +313,8 @@ public class AdditiveLoadFileOrUrlChooser {
 		if (PluginManager.shouldAllObsSourcePluginsBeInFileMenu()) {
 			plugin = Optional.empty();
 		} else {
-			plugin = Optional.of(plugins.get(pluginChooser.getSelectedItem()));
+			plugin = Optional.ofNullable(plugins.get(
+					pluginChooser.getSelectedItem()).getPlugin());
 		}
 
 		return plugin;
@@ -328,7 +331,15 @@ public class AdditiveLoadFileOrUrlChooser {
 
 	private void updateFileAndUrlWidgetsForPlugin() {
         String name = (String) pluginChooser.getSelectedItem();
-        ObservationSourcePluginBase plugin = plugins.get(name);
+        ObservationSourcePluginBase plugin = plugins.get(name).getPlugin();
+
+        if (plugin == null) {
+            // The plugin could not be loaded (which has been reported), so
+            // remove it; the widgets are then updated for the next selection.
+            plugins.remove(name);
+            pluginChooser.removeItem(name);
+            return;
+        }
 
         fileChooser.setMultiSelectionEnabled(plugin.isMultipleFileSelectionAllowed());
 
@@ -34,6 +34,7 @@ import javax.swing.JFileChooser;
 import javax.swing.JPanel;
 
 import org.aavso.tools.vstar.plugin.ObservationSinkPluginBase;
+import org.aavso.tools.vstar.ui.resources.PluginDescriptor;
 import org.aavso.tools.vstar.ui.resources.PluginLoader;
 import org.aavso.tools.vstar.util.help.Help;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
@@ -51,7 +52,7 @@ public class DelimitedFieldFileSaveChooser {
 	private Map<String, String> delimiters;
 	private String delimiter;
 
-	private Map<String, ObservationSinkPluginBase> plugins;
+	private Map<String, PluginDescriptor<ObservationSinkPluginBase>> plugins;
 	private JComboBox<String> pluginChooser;
 
 	/**
@@ -73,12 +74,13 @@ public class DelimitedFieldFileSaveChooser {
 	}
 
 	/**
-	 * Return the currently selected observation sink plugin.
+	 * Return the currently selected observation sink plugin, loading it if
+	 * necessary.
 	 * 
-	 * @return The plugin instance.
+	 * @return The plugin instance, or null if it cannot be loaded.
 	 */
 	public ObservationSinkPluginBase getSelectedPlugin() {
-		return plugins.get(pluginChooser.getSelectedItem());
+		return plugins.get(pluginChooser.getSelectedItem()).getPlugin();
 	}
 
 	/**
@@ -127,19 +129,19 @@ public class DelimitedFieldFileSaveChooser {
 
 	/**
 	 * Create plugin list and add a listener to change delimiters when a plugin
-	 * is selected.
+	 * is selected. The list is built from plugin descriptors, so a plugin is
+	 * only loaded when selected.
 	 */
 	private JPanel createPluginsList() {
 		JPanel pane = new JPanel();
 
 		pane.setBorder(BorderFactory.createTitledBorder("Type"));
 		
-		plugins = new HashMap<String, ObservationSinkPluginBase>();
+		plugins = new HashMap<String, PluginDescriptor<ObservationSinkPluginBase>>();
 
-		for (ObservationSinkPluginBase plugin : PluginLoader
-				.getObservationSinkPlugins()) {
-			String name = plugin.getDisplayName();
-			plugins.put(name, plugin);
+		for (PluginDescriptor<ObservationSinkPluginBase> descriptor : PluginLoader
+				.getObservationSinkPluginDescriptors()) {
+			plugins.put(descriptor.getDisplayName(), descriptor);
 		}
 
 		pluginChooser = new JComboBox<String>(plugins.keySet().toArray(
@@ -149,14 +151,12 @@ public class DelimitedFieldFileSaveChooser {
 		//pluginChooser.setBorder(BorderFactory.createTitledBorder("Type"));
 
 		pluginChooser.addActionListener(e -> {
-			String name = (String) pluginChooser.getSelectedItem();
-			updateDelimiterChoices(plugins.get(name));
+			updateDelimiterChoices();
 		});
 
 		if (!plugins.isEmpty()) {
 			// Initial delimiter choices.
-			String name = (String) pluginChooser.getSelectedItem();
-			updateDelimiterChoices(plugins.get(name));
+			updateDelimiterChoices();
 		}
 
 		pane.add(pluginChooser);
@@ -177,12 +177,20 @@ public class DelimitedFieldFileSaveChooser {
 	}
 
 	/**
-	 * Update the delimiter choices for a plugin.
-	 * 
-	 * @param plugin
-	 *            The selected plugin.
+	 * Update the delimiter choices for the selected plugin.
 	 */
-	private void updateDelimiterChoices(ObservationSinkPluginBase plugin) {
+	private void updateDelimiterChoices() {
+		String name = (String) pluginChooser.getSelectedItem();
+		ObservationSinkPluginBase plugin = plugins.get(name).getPlugin();
+
+		if (plugin == null) {
+			// The plugin could not be loaded (which has been reported), so
+			// remove it; the choices are then updated for the next selection.
+			plugins.remove(name);
+			pluginChooser.removeItem(name);
+			return;
+		}
+
 		try {
 			delimitersModel = new DefaultComboBoxModel<String>();
 
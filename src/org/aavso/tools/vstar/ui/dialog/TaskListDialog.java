@@ -0,0 +1,232 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.dialog;
+
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+import org.aavso.tools.vstar.ui.mediator.DocumentManager;
+import org.aavso.tools.vstar.ui.mediator.Mediator;
+import org.aavso.tools.vstar.ui.task.ScheduledTask;
+import org.aavso.tools.vstar.ui.task.TaskScheduler;
+
+/**
+ * This dialog shows the running and queued background tasks, with their
+ * progress, and allows them to be cancelled. The list is refreshed
+ * periodically while the dialog is open.
+ */
+@SuppressWarnings("serial")
+public class TaskListDialog extends JDialog implements ActionListener {
+
+	// Refresh period in milliseconds.
+	private static final int REFRESH_PERIOD = 500;
+
+	private TaskScheduler scheduler;
+
+	private TaskTableModel tableModel;
+	private JTable table;
+	private JLabel progressLabel;
+	private Timer timer;
+
+	/**
+	 * Constructor
+	 */
+	public TaskListDialog() {
+		super(DocumentManager.findActiveWindow());
+		this.setTitle("Tasks");
+
+		scheduler = Mediator.getInstance().getTaskScheduler();
+
+		JPanel topPane = new JPanel();
+		topPane.setLayout(new BoxLayout(topPane, BoxLayout.PAGE_AXIS));
+		topPane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+
+		tableModel = new TaskTableModel();
+		table = new JTable(tableModel);
+		table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		table.setPreferredScrollableViewportSize(new Dimension(500, 150));
+		topPane.add(new JScrollPane(table));
+
+		topPane.add(Box.createRigidArea(new Dimension(10, 10)));
+
+		progressLabel = new JLabel();
+		topPane.add(progressLabel);
+
+		topPane.add(Box.createRigidArea(new Dimension(10, 10)));
+
+		JPanel buttonPane = new JPanel();
+		buttonPane.setLayout(new BoxLayout(buttonPane, BoxLayout.LINE_AXIS));
+
+		// TODO: localise strings...
+
+		JButton dismissButton = new JButton("Dismiss");
+		dismissButton.addActionListener(this);
+		buttonPane.add(dismissButton);
+
+		JButton cancelButton = new JButton("Cancel Task");
+		cancelButton.addActionListener(e -> {
+			int row = table.getSelectedRow();
+			if (row != -1) {
+				tableModel.getTask(row).cancel();
+				refresh();
+			}
+		});
+		buttonPane.add(cancelButton);
+
+		JButton cancelAllButton = new JButton("Cancel All Tasks");
+		cancelAllButton.addActionListener(e -> {
+			scheduler.cancelAll();
+			refresh();
+		});
+		buttonPane.add(cancelAllButton);
+
+		topPane.add(buttonPane);
+
+		this.getContentPane().add(topPane);
+
+		this.getRootPane().setDefaultButton(dismissButton);
+
+		timer = new Timer(REFRESH_PERIOD, e -> refresh());
+
+		this.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				timer.stop();
+			}
+		});
+
+		refresh();
+		timer.start();
+
+		this.pack();
+		this.setLocationRelativeTo(Mediator.getUI().getContentPane());
+		this.setVisible(true);
+	}
+
+	/**
+	 * Dismiss button handler.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		timer.stop();
+		this.setVisible(false);
+		dispose();
+	}
+
+	// Update the task list and aggregate progress, retaining the selected
+	// task if it is still present.
+	private void refresh() {
+		ScheduledTask selected = null;
+		int row = table.getSelectedRow();
+		if (row != -1) {
+			selected = tableModel.getTask(row);
+		}
+
+		tableModel.setTasks(scheduler.getTasks());
+
+		int index = tableModel.indexOf(selected);
+		if (index != -1) {
+			table.setRowSelectionInterval(index, index);
+		}
+
+		int percentage = scheduler.getProgressPercentage();
+		progressLabel.setText("Overall progress: "
+				+ (percentage == -1 ? "unknown" : percentage + "%"));
+	}
+
+	// A table model of scheduled tasks.
+	private static class TaskTableModel extends AbstractTableModel {
+
+		private static final String[] COLUMN_NAMES = { "Task", "Priority",
+				"State", "Progress" };
+
+		private List<ScheduledTask> tasks = new ArrayList<ScheduledTask>();
+
+		public void setTasks(List<ScheduledTask> tasks) {
+			this.tasks = tasks;
+			fireTableDataChanged();
+		}
+
+		public ScheduledTask getTask(int row) {
+			return tasks.get(row);
+		}
+
+		public int indexOf(ScheduledTask task) {
+			return tasks.indexOf(task);
+		}
+
+		@Override
+		public int getColumnCount() {
+			return COLUMN_NAMES.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return COLUMN_NAMES[column];
+		}
+
+		@Override
+		public int getRowCount() {
+			return tasks.size();
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			ScheduledTask task = tasks.get(row);
+
+			Object value = null;
+
+			switch (column) {
+			case 0:
+				value = task.getDescription();
+				break;
+			case 1:
+				value = task.getPriority().getDescription();
+				break;
+			case 2:
+				value = task.getState().getDescription();
+				break;
+			case 3:
+				int range = task.getProgressRange();
+				value = range == 0 ? "" : (100 * task.getProgress() / range)
+						+ "%";
+				break;
+			}
+
+			return value;
+		}
+	}
+}
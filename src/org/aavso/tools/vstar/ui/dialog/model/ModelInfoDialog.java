@@ -35,12 +35,12 @@ import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 
-import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.plugin.PluginComponentFactory;
 import org.aavso.tools.vstar.ui.NamedComponent;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.model.RelativeAmplitudeAndPhaseCreator;
 
 /**
@@ -82,14 +82,17 @@ public class ModelInfoDialog extends JDialog {
 
 		// TODO: should these times be from the original input series JDs rather
 		// than from the model.
-		startTime = model.getFit().get(0).getJD();
-		endTime = model.getFit().get(model.getFit().size() - 1).getJD();
+		ModelSeries.ObservationView fit = ModelSeries.forModel(model)
+				.getFit();
+
+		startTime = fit.getJD(0);
+		endTime = fit.getJD(fit.size() - 1);
 
 		averageTime = 0;
-		for (ValidObservation ob : model.getFit()) {
-			averageTime += ob.getJD();
+		for (int i = 0; i < fit.size(); i++) {
+			averageTime += fit.getJD(i);
 		}
-		averageTime /= model.getFit().size();
+		averageTime /= fit.size();
 
 		this.setTitle(LocaleProps.get("MODEL_INFO_DLG_TITLE"));
 		this.setModal(true);
@@ -0,0 +1,202 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.dialog.plugin.manager;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.aavso.tools.vstar.util.DigestUtils;
+import org.aavso.tools.vstar.util.Pair;
+
+/**
+ * A persistent cache of plug-in information (description and document name)
+ * keyed by the checksum of the plug-in jar's content, shared by local and
+ * remote plug-ins. Since a changed jar has a different checksum, a cached
+ * entry is always valid for a jar with that checksum, so the plug-in manager
+ * need only load a plug-in's classes to obtain its information when the jar
+ * is new or has changed.
+ */
+public class PluginInfoCache {
+
+	public final static String CACHE_FILE = System.getProperty("user.home")
+			+ File.separator + "vstar_plugin_info_cache";
+
+	private final static String DESCRIPTION = ".description";
+	private final static String DOC_NAME = ".docName";
+
+	private File file;
+	private Properties props;
+	private boolean changed;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file
+	 *            The cache file.
+	 */
+	public PluginInfoCache(File file) {
+		this.file = file;
+		this.props = new Properties();
+		this.changed = false;
+	}
+
+	/**
+	 * Load the cache from its file. A missing or unreadable file yields an
+	 * empty cache.
+	 */
+	public synchronized void load() {
+		props.clear();
+
+		if (file.isFile()) {
+			InputStream in = null;
+			try {
+				in = new FileInputStream(file);
+				props.load(in);
+			} catch (IOException e) {
+				props.clear();
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (IOException e) {
+						// Nothing to do.
+					}
+				}
+			}
+		}
+
+		changed = false;
+	}
+
+	/**
+	 * Store the cache to its file if it has changed since it was loaded.
+	 * 
+	 * @throws IOException
+	 *             If the cache could not be written.
+	 */
+	public synchronized void store() throws IOException {
+		if (changed) {
+			OutputStream out = new FileOutputStream(file);
+			try {
+				props.store(out, "VStar plug-in information cache");
+			} finally {
+				out.close();
+			}
+
+			changed = false;
+		}
+	}
+
+	/**
+	 * Return the information for the plug-in jar with the specified checksum.
+	 * 
+	 * @param checksum
+	 *            The jar's checksum.
+	 * @return A (description, document name) pair, or null if not cached.
+	 */
+	public synchronized Pair<String, String> get(String checksum) {
+		Pair<String, String> info = null;
+
+		String description = props.getProperty(checksum + DESCRIPTION);
+
+		if (description != null) {
+			info = new Pair<String, String>(description,
+					props.getProperty(checksum + DOC_NAME));
+		}
+
+		return info;
+	}
+
+	/**
+	 * Add the information for the plug-in jar with the specified checksum.
+	 * 
+	 * @param checksum
+	 *            The jar's checksum.
+	 * @param info
+	 *            A (description, document name) pair.
+	 */
+	public synchronized void put(String checksum, Pair<String, String> info) {
+		props.setProperty(checksum + DESCRIPTION, info.first);
+
+		if (info.second != null) {
+			props.setProperty(checksum + DOC_NAME, info.second);
+		} else {
+			props.remove(checksum + DOC_NAME);
+		}
+
+		changed = true;
+	}
+
+	/**
+	 * Remove the information for all jars other than those with the specified
+	 * checksums.
+	 * 
+	 * @param checksums
+	 *            The checksums of jars whose information should be retained.
+	 */
+	public synchronized void retainAll(Collection<String> checksums) {
+		Set<String> keep = new HashSet<String>(checksums);
+
+		for (String propName : props.stringPropertyNames()) {
+			int index = propName.lastIndexOf('.');
+			if (index > 0 && !keep.contains(propName.substring(0, index))) {
+				props.remove(propName);
+				changed = true;
+			}
+		}
+	}
+
+	/**
+	 * Compute the checksum of the content of the specified stream, which is
+	 * closed.
+	 * 
+	 * @param stream
+	 *            The stream, e.g. of a plug-in jar.
+	 * @return The checksum as a hexadecimal string.
+	 * @throws IOException
+	 *             If the stream could not be read.
+	 */
+	public static String checksum(InputStream stream) throws IOException {
+		try {
+			return DigestUtils.sha1Hex(stream);
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Compute the checksum of the specified file's content.
+	 * 
+	 * @param file
+	 *            The file, e.g. a plug-in jar.
+	 * @return The checksum as a hexadecimal string.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	public static String checksum(File file) throws IOException {
+		return checksum(new FileInputStream(file));
+	}
+}
@@ -35,10 +35,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.logging.Level;
 import java.util.prefs.Preferences;
 
 import javax.swing.SwingUtilities;
 
+import org.aavso.tools.vstar.input.http.HttpResponseCache;
 import org.aavso.tools.vstar.plugin.IPlugin;
 import org.aavso.tools.vstar.ui.VStar;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
@@ -98,6 +100,11 @@ public class PluginManager {
 	 */
 	private Map<String, String> remoteDocNames;
 	
+	/**
+	 * A mapping from remote plugin jar name to jar checksum.
+	 */
+	private Map<String, String> remoteChecksums;
+
 	/**
 	 * A mapping from plugin jar name to plugin files installed locally.
 	 */
@@ -113,6 +120,16 @@ public class PluginManager {
 	 */
 	private Map<String, String> localDocNames;
 
+	/**
+	 * A mapping from local plugin jar name to jar checksum.
+	 */
+	private Map<String, String> localChecksums;
+
+	/**
+	 * Plugin information from previous sessions, keyed by jar checksum.
+	 */
+	private PluginInfoCache infoCache;
+
 	/**
 	 * A mapping from plugin jar name to dependent library files available to be
 	 * installed for the current version of VStar.
@@ -146,6 +163,8 @@ public class PluginManager {
 	 */
 	public PluginManager() {
 		pluginBaseUrl = getPluginsBaseUrl();
+		infoCache = new PluginInfoCache(new File(PluginInfoCache.CACHE_FILE));
+		infoCache.load();
 	}
 	
 	/**
@@ -162,6 +181,13 @@ public class PluginManager {
 		retrieveRemotePluginInfo();
 		retrieveLocalPluginInfo();
 		determinePluginEquality();
+
+		// Forget information about jars that are neither local nor remote.
+		Set<String> checksums = new HashSet<String>();
+		checksums.addAll(remoteChecksums.values());
+		checksums.addAll(localChecksums.values());
+		infoCache.retainAll(checksums);
+		storeInfoCache();
 	}
 
 	/**
@@ -377,10 +403,18 @@ public class PluginManager {
 			try {
 				localJarName = localDescriptions.get(desc);
 				remoteJarName = remoteDescriptions.get(desc);
-				URL localUrl = localPlugins.get(localJarName).toURI().toURL();
-				URL remoteUrl = remotePlugins.get(remoteJarName);
-				remoteAndLocalPluginEquality.put(desc,
-						areURLReferentsEqual(localUrl, remoteUrl));
+				String localChecksum = localChecksums.get(localJarName);
+				String remoteChecksum = remoteChecksums.get(remoteJarName);
+				if (localChecksum != null && remoteChecksum != null) {
+					remoteAndLocalPluginEquality.put(desc,
+							localChecksum.equals(remoteChecksum));
+				} else {
+					URL localUrl = localPlugins.get(localJarName).toURI()
+							.toURL();
+					URL remoteUrl = remotePlugins.get(remoteJarName);
+					remoteAndLocalPluginEquality.put(desc,
+							areURLReferentsEqual(localUrl, remoteUrl));
+				}
 			} catch (IOException e) {
 				String msg = String.format(
 						"Error comparing remote and local plugins: %s and %s",
@@ -417,6 +451,7 @@ public class PluginManager {
 		remotePlugins = new TreeMap<String, URL>();
 		remoteDescriptions = new TreeMap<String, String>();
 		remoteDocNames = new TreeMap<String, String>();
+		remoteChecksums = new TreeMap<String, String>();
 		libs = new TreeMap<String, List<URL>>();
 		libDescriptions = new TreeMap<String, Set<String>>();
 		libRefs = new HashMap<String, Integer>();
@@ -513,7 +548,18 @@ public class PluginManager {
 						depLibs.add(libUrl);							
 					}
 				}
-				Pair<String, String> info = getPluginDescription(pluginUrl, className, depLibs);
+				// The jar is read via the HTTP response cache, revalidated on
+				// each use, so an unchanged jar is not downloaded again. Its
+				// classes need only be loaded if its checksum is new.
+				String checksum = PluginInfoCache.checksum(HttpResponseCache
+						.getInstance().openStream(pluginUrl,
+								HttpResponseCache.ALWAYS_REVALIDATE));
+				Pair<String, String> info = infoCache.get(checksum);
+				if (info == null) {
+					info = getPluginDescription(pluginUrl, className, depLibs);
+					infoCache.put(checksum, info);
+				}
+				remoteChecksums.put(pluginJarFileName, checksum);
 				plugin_desc = info.first;
 				plugin_doc = info.second;
 			} catch (Exception e) {
@@ -585,6 +631,8 @@ public class PluginManager {
 			}
 		}
 		
+		storeInfoCache();
+
 		if (errors.size() > 0) {
 			SwingUtilities.invokeLater( new Runnable() { 
 				public void run() {
@@ -614,6 +662,7 @@ public class PluginManager {
 		localPlugins = new TreeMap<String, File>();
 		localDescriptions = new TreeMap<String, String>();
 		localDocNames = new TreeMap<String, String>();
+		localChecksums = new TreeMap<String, String>();
 
 		FilenameFilter jarFilter = new FilenameFilter() {
 			public boolean accept(File dir, String name) {
@@ -644,6 +693,10 @@ public class PluginManager {
 			}
 		}
 
+		// The shared parent class loader for dependent libraries, created only
+		// if a plugin's information is not cached.
+		URLClassLoader libLoader = null;
+
 		if (pluginPath.exists() && pluginPath.isDirectory()) {
 
 			for (File file : pluginPath.listFiles(jarFilter)) {
@@ -659,7 +712,17 @@ public class PluginManager {
 				String className = pluginJarFileName.replace(".jar", "");				
 				try {
 					localPlugins.put(pluginJarFileName, file);
-					Pair<String, String> info = getPluginDescription(file.toURI().toURL(), className, depLibs);
+					String checksum = PluginInfoCache.checksum(file);
+					Pair<String, String> info = infoCache.get(checksum);
+					if (info == null) {
+						if (libLoader == null) {
+							libLoader = new URLClassLoader(depLibs.toArray(new URL[0]),
+									VStar.class.getClassLoader());
+						}
+						info = getPluginDescription(file.toURI().toURL(), className, libLoader);
+						infoCache.put(checksum, info);
+					}
+					localChecksums.put(pluginJarFileName, checksum);
 					plugin_desc = info.first;
 					plugin_doc = info.second;
 				} catch (Exception e) {
@@ -680,6 +743,17 @@ public class PluginManager {
 				localDocNames.put(plugin_desc, plugin_doc);
 			}
 		}
+
+		if (libLoader != null) {
+			try {
+				libLoader.close();
+			} catch (IOException e) {
+				// Nothing more to do.
+			}
+		}
+
+		storeInfoCache();
+
 		if (errors.size() > 0) {
 			SwingUtilities.invokeLater( new Runnable() { 
 				public void run() {
@@ -721,11 +795,17 @@ public class PluginManager {
 			
 			boolean pluginExisted = pluginJarFile.exists();			
 			
-			copy(pluginURL.openStream(), pluginJarFile);
+			// Installed jars bypass the HTTP response cache so that a stale
+			// copy is never installed.
+			copy(HttpResponseCache.getInstance().openStream(pluginURL,
+					HttpResponseCache.NO_CACHE), pluginJarFile);
 
 			// Update maps after copy.
 			localDescriptions.put(description, jarName);
 			localPlugins.put(jarName, pluginJarFile);
+			if (remoteChecksums.containsKey(jarName)) {
+				localChecksums.put(jarName, remoteChecksums.get(jarName));
+			}
 			remoteAndLocalPluginEquality.put(description, true);
 
 			// Install dependent jars.
@@ -746,7 +826,9 @@ public class PluginManager {
 						String libJarName = libURL.getPath().substring(
 								libURL.getPath().lastIndexOf("/") + 1);
 						File targetPath = new File(pluginLibDirPath, libJarName);
-						copy(libURL.openStream(), targetPath);
+						copy(HttpResponseCache.getInstance().openStream(
+								libURL, HttpResponseCache.NO_CACHE),
+								targetPath);
 
 						// Library reference counting.
 						switch (op) {
@@ -822,6 +904,7 @@ public class PluginManager {
 				// Update maps after delete.
 				localDescriptions.remove(description);
 				localPlugins.remove(jarName);
+				localChecksums.remove(jarName);
 				remoteAndLocalPluginEquality.remove(description);
 			}
 		} else {
@@ -943,6 +1026,7 @@ public class PluginManager {
 						localDescriptions.clear();
 
 						localPlugins.clear();
+						localChecksums.clear();
 
 						libs.clear();
 						libDescriptions.clear();
@@ -993,11 +1077,18 @@ public class PluginManager {
 
 	private Pair<String, String> getPluginDescription(URL url, String className, List<URL> depLibs)
 		throws IOException, ClassNotFoundException, InstantiationException, IllegalAccessException {
-		List<URL> urlList = new ArrayList<URL>();
-		urlList.add(url);
-		urlList.addAll(depLibs);
-		URL[] urls = urlList.toArray(new URL[0]);
-		URLClassLoader loader = new URLClassLoader(urls, VStar.class.getClassLoader());		
+		URLClassLoader libLoader = new URLClassLoader(depLibs.toArray(new URL[0]),
+				VStar.class.getClassLoader());
+		try {
+			return getPluginDescription(url, className, libLoader);
+		} finally {
+			libLoader.close();
+		}
+	}
+
+	private Pair<String, String> getPluginDescription(URL url, String className, ClassLoader libLoader)
+		throws IOException, ClassNotFoundException, InstantiationException, IllegalAccessException {
+		URLClassLoader loader = new URLClassLoader(new URL[] { url }, libLoader);
 		try {
 			Class<?> clazz = loader.loadClass(className);
 			IPlugin plugin = (IPlugin) clazz.newInstance();
@@ -1008,24 +1099,17 @@ public class PluginManager {
 	}
 
 	private boolean areURLReferentsEqual(URL url1, URL url2) throws IOException {
-		return getBytesFromURL(url1).equals(getBytesFromURL(url2));
+		return PluginInfoCache.checksum(url1.openStream()).equals(
+				PluginInfoCache.checksum(url2.openStream()));
 	}
 
-	private List<Byte> getBytesFromURL(URL url) throws IOException {
-		List<Byte> byteList = new ArrayList<Byte>();
-		InputStream stream = url.openStream();
+	private void storeInfoCache() {
 		try {
-			byte[] buf = new byte[4096];
-			int len;
-			while ((len = stream.read(buf)) > 0) {
-				for (int i = 0; i < len; i++) {
-					byteList.add(buf[i]);
-				}
-			}
-		} finally {
-			stream.close();
+			infoCache.store();
+		} catch (IOException e) {
+			VStar.LOGGER.log(Level.WARNING,
+					"Unable to write plug-in information cache", e);
 		}
-		return byteList;
 	}
 
 }
@@ -0,0 +1,150 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.dialog.prefs;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JPanel;
+
+import org.aavso.tools.vstar.input.http.HttpResponseCache;
+import org.aavso.tools.vstar.input.snapshot.ObservationSnapshotCache;
+import org.aavso.tools.vstar.util.locale.LocaleProps;
+import org.aavso.tools.vstar.util.prefs.CachePrefs;
+
+/**
+ * On-disk cache preferences panel.
+ */
+@SuppressWarnings("serial")
+public class CacheSettingsPane extends JPanel implements IPreferenceComponent {
+
+	private JCheckBox snapshotCacheCheckbox;
+	private JCheckBox httpCacheCheckbox;
+	private JCheckBox httpCacheOfflineCheckbox;
+
+	/**
+	 * Constructor.
+	 */
+	public CacheSettingsPane() {
+		super();
+
+		JPanel cachePane = new JPanel();
+		cachePane.setLayout(new BoxLayout(cachePane, BoxLayout.PAGE_AXIS));
+		cachePane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+
+		snapshotCacheCheckbox = new JCheckBox("Cache loaded datasets?");
+		snapshotCacheCheckbox.setSelected(CachePrefs.isSnapshotCacheEnabled());
+		snapshotCacheCheckbox
+				.setToolTipText("Should snapshots of loaded datasets be kept in "
+						+ ObservationSnapshotCache.SNAPSHOT_DIR
+						+ " for faster reloading?");
+		cachePane.add(snapshotCacheCheckbox);
+
+		httpCacheCheckbox = new JCheckBox("Cache downloaded data?");
+		httpCacheCheckbox.setSelected(CachePrefs.isHttpCacheEnabled());
+		httpCacheCheckbox
+				.setToolTipText("Should web service and plug-in downloads be kept in "
+						+ HttpResponseCache.CACHE_DIR
+						+ " to avoid downloading them again?");
+		cachePane.add(httpCacheCheckbox);
+
+		httpCacheOfflineCheckbox = new JCheckBox("Work offline?");
+		httpCacheOfflineCheckbox.setSelected(CachePrefs.isHttpCacheOffline());
+		httpCacheOfflineCheckbox
+				.setToolTipText("Should only previously downloaded data be used?");
+		cachePane.add(httpCacheOfflineCheckbox);
+
+		cachePane.add(Box.createRigidArea(new Dimension(10, 10)));
+
+		// Add a local context button pane.
+		cachePane.add(createButtonPane());
+
+		this.add(cachePane);
+	}
+
+	protected JPanel createButtonPane() {
+		JPanel panel = new JPanel(new BorderLayout());
+
+		JButton setDefaultsButton = new JButton("Set Defaults");
+		setDefaultsButton
+				.addActionListener(createSetDefaultsButtonActionListener());
+		panel.add(setDefaultsButton, BorderLayout.LINE_START);
+
+		JButton applyButton = new JButton(LocaleProps.get("APPLY_BUTTON"));
+		applyButton.addActionListener(createApplyButtonActionListener());
+		panel.add(applyButton, BorderLayout.LINE_END);
+
+		return panel;
+	}
+
+	// Set defaults action button listener creator.
+	private ActionListener createSetDefaultsButtonActionListener() {
+		return new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				CachePrefs.setDefaultCachePrefs();
+				reset();
+				update();
+			}
+		};
+	}
+
+	// Set apply button listener creator.
+	private ActionListener createApplyButtonActionListener() {
+		return new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				update();
+			}
+		};
+	}
+
+	/**
+	 * Updates the global values.
+	 */
+	@Override
+	public void update() {
+		boolean snapshotCacheEnabled = snapshotCacheCheckbox.isSelected();
+		boolean httpCacheEnabled = httpCacheCheckbox.isSelected();
+		boolean httpCacheOffline = httpCacheOfflineCheckbox.isSelected();
+
+		CachePrefs.setSnapshotCacheEnabled(snapshotCacheEnabled);
+		CachePrefs.setHttpCacheEnabled(httpCacheEnabled);
+		CachePrefs.setHttpCacheOffline(httpCacheOffline);
+		CachePrefs.storeCachePrefs();
+
+		ObservationSnapshotCache.getInstance().setEnabled(snapshotCacheEnabled);
+		HttpResponseCache.getInstance().setEnabled(httpCacheEnabled);
+		HttpResponseCache.getInstance().setOffline(httpCacheOffline);
+	}
+
+	/**
+	 * Prepare this pane for use by resetting whatever state needs to be.
+	 */
+	@Override
+	public void reset() {
+		snapshotCacheCheckbox.setSelected(CachePrefs.isSnapshotCacheEnabled());
+		httpCacheCheckbox.setSelected(CachePrefs.isHttpCacheEnabled());
+		httpCacheOfflineCheckbox.setSelected(CachePrefs.isHttpCacheOffline());
+	}
+}
@@ -39,6 +39,7 @@ public class PreferencesDialog extends AbstractOkCancelDialog {
 	private NumericPrecisionSelectionPane numericPrecisionPane;
 	private StarGroupManagementPane starGroupManagementPane;
 	private PluginSettingsPane pluginSettingsPane;
+	private CacheSettingsPane cacheSettingsPane;
 	private LocaleSelectionPane localeSelectionPane;
 	
 	/**
@@ -83,6 +84,9 @@ public class PreferencesDialog extends AbstractOkCancelDialog {
 		pluginSettingsPane = new PluginSettingsPane();
 		tabs.addTab("Plug-ins", pluginSettingsPane);
 
+		cacheSettingsPane = new CacheSettingsPane();
+		tabs.addTab("Caches", cacheSettingsPane);
+
 		localeSelectionPane = new LocaleSelectionPane();
 		tabs.addTab("Locale", localeSelectionPane);
 		
@@ -106,6 +110,7 @@ public class PreferencesDialog extends AbstractOkCancelDialog {
 		numericPrecisionPane.update();
 		starGroupManagementPane.update();
 		pluginSettingsPane.update();
+		cacheSettingsPane.update();
 		localeSelectionPane.update();
 		
 		this.setVisible(false);
@@ -121,6 +126,7 @@ public class PreferencesDialog extends AbstractOkCancelDialog {
 		numericPrecisionPane.reset();
 		starGroupManagementPane.reset();
 		pluginSettingsPane.reset();
+		cacheSettingsPane.reset();
 		localeSelectionPane.reset();
 	}
 
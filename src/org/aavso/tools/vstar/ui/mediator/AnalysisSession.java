@@ -0,0 +1,438 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.mediator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.ObservationDetailRegistry;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.exception.AlgorithmError;
+import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.ParallelObservationRetriever;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+import org.aavso.tools.vstar.ui.mediator.message.ModelCreationMessage;
+import org.aavso.tools.vstar.ui.mediator.message.NewStarMessage;
+import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
+import org.aavso.tools.vstar.ui.mediator.message.StopRequestMessage;
+import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.notification.Listener;
+import org.aavso.tools.vstar.util.notification.Notifier;
+
+/**
+ * An analysis session owns the state of the analysis of a dataset: the
+ * loaded observations, the models created from them, the notifiers via which
+ * loads and model creation are reported and stop requests made, and the
+ * observation detail registry. The Mediator's dataset is held by its
+ * session, and further sessions may be created to load and analyse other
+ * datasets concurrently, e.g. on background threads or in a headless batch
+ * analysis, without affecting the Mediator.
+ * <p>
+ * Loads and other operations that create observations must run with the
+ * session bound to the current thread (see call()) so that observation
+ * details are recorded in the session's registry and observation retrievers
+ * report progress to, and may be stopped via, the session's notifiers.
+ * load() does this itself.
+ * </p>
+ */
+public class AnalysisSession {
+
+	private static final ThreadLocal<AnalysisSession> currentSession = new ThreadLocal<AnalysisSession>();
+
+	private ObservationDetailRegistry detailRegistry;
+
+	private List<ValidObservation> validObsList;
+	private List<InvalidObservation> invalidObsList;
+	private Map<SeriesType, List<ValidObservation>> validObservationCategoryMap;
+	private List<NewStarMessage> newStarMessageList;
+	private List<IModel> models;
+
+	private Notifier<NewStarMessage> newStarNotifier;
+	private Notifier<ProgressInfo> progressNotifier;
+	private Notifier<StopRequestMessage> stopRequestNotifier;
+	private Notifier<ModelCreationMessage> modelCreationNotifier;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param detailRegistry
+	 *            The observation detail registry for the session's datasets.
+	 */
+	public AnalysisSession(ObservationDetailRegistry detailRegistry) {
+		this.detailRegistry = detailRegistry;
+
+		validObsList = null;
+		invalidObsList = null;
+		validObservationCategoryMap = null;
+		newStarMessageList = new ArrayList<NewStarMessage>();
+		models = new ArrayList<IModel>();
+
+		newStarNotifier = new Notifier<NewStarMessage>();
+		progressNotifier = new Notifier<ProgressInfo>();
+		stopRequestNotifier = new Notifier<StopRequestMessage>();
+		modelCreationNotifier = new Notifier<ModelCreationMessage>();
+
+		modelCreationNotifier.addListener(createModelCreationListener());
+	}
+
+	/**
+	 * Constructor for a session with its own observation detail registry.
+	 */
+	public AnalysisSession() {
+		this(new ObservationDetailRegistry());
+	}
+
+	/**
+	 * @return The session bound to the current thread, or null if none is
+	 *         bound.
+	 */
+	public static AnalysisSession getCurrent() {
+		return currentSession.get();
+	}
+
+	/**
+	 * Run a task with this session, and its observation detail registry,
+	 * bound to the current thread, restoring any previous binding afterward.
+	 * 
+	 * @param task
+	 *            The task to run.
+	 * @return The task's result.
+	 * @throws Exception
+	 *             if the task throws an exception.
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		AnalysisSession previousSession = currentSession.get();
+		ObservationDetailRegistry previousRegistry = ObservationDetailRegistry
+				.getCurrent();
+
+		currentSession.set(this);
+		ObservationDetailRegistry.setThreadRegistry(detailRegistry);
+
+		try {
+			return task.call();
+		} finally {
+			if (previousSession != null) {
+				currentSession.set(previousSession);
+			} else {
+				currentSession.remove();
+			}
+
+			ObservationDetailRegistry
+					.setThreadRegistry(previousRegistry != ObservationDetailRegistry
+							.getDefault() ? previousRegistry : null);
+		}
+	}
+
+	/**
+	 * Load observations from an observation source plug-in whose inputs have
+	 * been set, replacing the session's dataset or, if the plug-in's load is
+	 * additive, adding to it. New star listeners are notified on the current
+	 * thread.
+	 * 
+	 * @param plugin
+	 *            The observation source plug-in.
+	 * @return The new star message describing the loaded dataset.
+	 * @throws ObservationReadError
+	 *             if the observations could not be read or there were none.
+	 * @throws InterruptedException
+	 *             if the load was interrupted.
+	 */
+	public NewStarMessage load(final ObservationSourcePluginBase plugin)
+			throws ObservationReadError, InterruptedException {
+
+		final boolean addObs = plugin.isAdditive() && validObsList != null;
+
+		try {
+			return call(new Callable<NewStarMessage>() {
+				@Override
+				public NewStarMessage call() throws Exception {
+					AbstractObservationRetriever retriever = ParallelObservationRetriever
+							.getObservationRetriever(plugin);
+
+					if (retriever == null) {
+						throw new ObservationReadError(
+								"No observation retriever for "
+										+ plugin.getInputName());
+					}
+
+					if (!addObs) {
+						detailRegistry.reset();
+					}
+
+					try {
+						retriever.retrieveObservations();
+
+						if (retriever.wasInterrupted()) {
+							throw new InterruptedException();
+						}
+					} catch (Exception e) {
+						if (!addObs) {
+							detailRegistry.restore();
+						}
+						throw e;
+					}
+
+					return createNewStar(plugin, retriever, addObs);
+				}
+			});
+		} catch (ObservationReadError e) {
+			throw e;
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ObservationReadError(e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Execute a model of the session's observations, and notify model
+	 * creation listeners, so recording the model.
+	 * 
+	 * @param model
+	 *            The model to execute.
+	 * @throws AlgorithmError
+	 *             if an error occurs during model creation.
+	 */
+	public void addModel(IModel model) throws AlgorithmError {
+		model.execute();
+		modelCreationNotifier.notifyListeners(new ModelCreationMessage(this,
+				model));
+	}
+
+	/**
+	 * Request that any load in progress in this session stop.
+	 */
+	public void stop() {
+		stopRequestNotifier.notifyListeners(new StopRequestMessage(this));
+	}
+
+	/**
+	 * Replace the session's dataset, first making the old dataset available
+	 * for garbage collection.
+	 * 
+	 * @param validObsList
+	 *            The valid observations.
+	 * @param invalidObsList
+	 *            The invalid observations.
+	 * @param validObservationCategoryMap
+	 *            The valid observations by series.
+	 */
+	public void setDataset(List<ValidObservation> validObsList,
+			List<InvalidObservation> invalidObsList,
+			Map<SeriesType, List<ValidObservation>> validObservationCategoryMap) {
+
+		if (this.validObsList != null && this.validObsList != validObsList) {
+			this.validObsList.clear();
+		}
+
+		if (this.invalidObsList != null
+				&& this.invalidObsList != invalidObsList) {
+			this.invalidObsList.clear();
+		}
+
+		if (this.validObservationCategoryMap != null
+				&& this.validObservationCategoryMap != validObservationCategoryMap) {
+			this.validObservationCategoryMap.clear();
+		}
+
+		this.validObsList = validObsList;
+		this.invalidObsList = invalidObsList;
+		this.validObservationCategoryMap = validObservationCategoryMap;
+
+		models.clear();
+	}
+
+	// Getters
+
+	/**
+	 * @return The observation detail registry.
+	 */
+	public ObservationDetailRegistry getDetailRegistry() {
+		return detailRegistry;
+	}
+
+	/**
+	 * @return The valid observations, or null if none have been loaded.
+	 */
+	public List<ValidObservation> getValidObsList() {
+		return validObsList;
+	}
+
+	/**
+	 * @return The invalid observations, or null if none have been loaded.
+	 */
+	public List<InvalidObservation> getInvalidObsList() {
+		return invalidObsList;
+	}
+
+	/**
+	 * @return The valid observations by series, or null if none have been
+	 *         loaded.
+	 */
+	public Map<SeriesType, List<ValidObservation>> getValidObservationCategoryMap() {
+		return validObservationCategoryMap;
+	}
+
+	/**
+	 * Return the valid observations of a series.
+	 * 
+	 * @param series
+	 *            The series.
+	 * @return The series' observations, or an empty list if there are none.
+	 */
+	public List<ValidObservation> getObservations(SeriesType series) {
+		List<ValidObservation> obs = null;
+
+		if (validObservationCategoryMap != null) {
+			obs = validObservationCategoryMap.get(series);
+		}
+
+		if (obs == null) {
+			obs = Collections.emptyList();
+		}
+
+		return obs;
+	}
+
+	/**
+	 * @return The new star messages for the datasets loaded, oldest first.
+	 */
+	public List<NewStarMessage> getNewStarMessageList() {
+		return newStarMessageList;
+	}
+
+	/**
+	 * @return The most recent new star message, or null if none.
+	 */
+	public NewStarMessage getLatestNewStarMessage() {
+		NewStarMessage msg = null;
+
+		if (!newStarMessageList.isEmpty()) {
+			msg = newStarMessageList.get(newStarMessageList.size() - 1);
+		}
+
+		return msg;
+	}
+
+	/**
+	 * @return The models created from the current dataset, as reported via
+	 *         the model creation notifier.
+	 */
+	public List<IModel> getModels() {
+		return models;
+	}
+
+	/**
+	 * @return The new star notifier.
+	 */
+	public Notifier<NewStarMessage> getNewStarNotifier() {
+		return newStarNotifier;
+	}
+
+	/**
+	 * @return The progress notifier.
+	 */
+	public Notifier<ProgressInfo> getProgressNotifier() {
+		return progressNotifier;
+	}
+
+	/**
+	 * @return The stop request notifier.
+	 */
+	public Notifier<StopRequestMessage> getStopRequestNotifier() {
+		return stopRequestNotifier;
+	}
+
+	/**
+	 * @return The model creation notifier.
+	 */
+	public Notifier<ModelCreationMessage> getModelCreationNotifier() {
+		return modelCreationNotifier;
+	}
+
+	// Helpers
+
+	// Commit to the retriever's observations, or add them to the current
+	// dataset, and notify new star listeners.
+	private NewStarMessage createNewStar(ObservationSourcePluginBase plugin,
+			AbstractObservationRetriever retriever, boolean addObs)
+			throws ObservationReadError {
+
+		if (addObs) {
+			retriever.collectAllObservations(validObsList, retriever
+					.getSourceName());
+			retriever.addAllInvalidObservations(invalidObsList);
+		}
+
+		List<ValidObservation> obs = retriever.getValidObservations();
+
+		if (obs.isEmpty()) {
+			throw new ObservationReadError("No observations found.");
+		}
+
+		if (!addObs) {
+			newStarMessageList.clear();
+		}
+
+		NewStarType newStarType = plugin.getNewStarType();
+
+		// As for the Mediator, datasets of different types combine to form
+		// one of arbitrary type.
+		for (NewStarMessage msg : newStarMessageList) {
+			if (msg.getNewStarType() != newStarType) {
+				newStarType = NewStarType.NEW_STAR_FROM_ARBITRARY_SOURCE;
+				break;
+			}
+		}
+
+		NewStarMessage msg = new NewStarMessage(newStarType, retriever
+				.getStarInfo(), obs, retriever.getValidObservationCategoryMap(),
+				retriever.getMinMag(), retriever.getMaxMag(), retriever
+						.getSourceName());
+
+		newStarMessageList.add(msg);
+
+		setDataset(obs, retriever.getInvalidObservations(), retriever
+				.getValidObservationCategoryMap());
+
+		newStarNotifier.notifyListeners(msg);
+
+		return msg;
+	}
+
+	// Record each model created from the session's dataset.
+	private Listener<ModelCreationMessage> createModelCreationListener() {
+		return new Listener<ModelCreationMessage>() {
+			@Override
+			public void update(ModelCreationMessage info) {
+				models.add(info.getModel());
+			}
+
+			@Override
+			public boolean canBeRemoved() {
+				return false;
+			}
+		};
+	}
+}
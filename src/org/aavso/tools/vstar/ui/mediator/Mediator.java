@@ -23,6 +23,7 @@ import java.awt.Dimension;
 import java.awt.print.PrinterException;
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.text.DateFormat;
 import java.util.ArrayList;
@@ -31,17 +32,23 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
 
 import javax.swing.JDialog;
 import javax.swing.JTable.PrintMode;
-import javax.swing.SwingWorker;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.ObservationDetailRegistry;
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
@@ -61,6 +68,7 @@ import org.aavso.tools.vstar.plugin.period.PeriodAnalysisPluginBase;
 import org.aavso.tools.vstar.ui.IMainUI;
 import org.aavso.tools.vstar.ui.NamedComponent;
 import org.aavso.tools.vstar.ui.TabbedDataPane;
+import org.aavso.tools.vstar.ui.VStar;
 import org.aavso.tools.vstar.ui.dialog.DelimitedFieldFileSaveChooser;
 import org.aavso.tools.vstar.ui.dialog.DiscrepantReportDialog;
 import org.aavso.tools.vstar.ui.dialog.DoubleField;
@@ -108,6 +116,7 @@ import org.aavso.tools.vstar.ui.mediator.message.UndoableActionType;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomRequestMessage;
 import org.aavso.tools.vstar.ui.model.list.AbstractMeanObservationTableModel;
 import org.aavso.tools.vstar.ui.model.list.AbstractModelObservationTableModel;
+import org.aavso.tools.vstar.ui.model.list.ITableColumnInfoSource;
 import org.aavso.tools.vstar.ui.model.list.InvalidObservationTableModel;
 import org.aavso.tools.vstar.ui.model.list.PhasePlotMeanObservationTableModel;
 import org.aavso.tools.vstar.ui.model.list.RawDataMeanObservationTableModel;
@@ -136,6 +145,8 @@ import org.aavso.tools.vstar.ui.task.ObsListFileSaveTask;
 import org.aavso.tools.vstar.ui.task.PeriodAnalysisTask;
 import org.aavso.tools.vstar.ui.task.PhasePlotTask;
 import org.aavso.tools.vstar.ui.task.PluginManagerOperationTask;
+import org.aavso.tools.vstar.ui.task.TaskPriority;
+import org.aavso.tools.vstar.ui.task.TaskScheduler;
 import org.aavso.tools.vstar.ui.undo.IUndoableAction;
 import org.aavso.tools.vstar.ui.undo.UndoableActionManager;
 import org.aavso.tools.vstar.util.Triple;
@@ -145,14 +156,17 @@ import org.aavso.tools.vstar.util.comparator.StandardPhaseComparator;
 import org.aavso.tools.vstar.util.coords.DecInfo;
 import org.aavso.tools.vstar.util.coords.EpochType;
 import org.aavso.tools.vstar.util.coords.RAInfo;
-import org.aavso.tools.vstar.util.date.AbstractHJDConverter;
+import org.aavso.tools.vstar.util.date.BatchHJDConverter;
 import org.aavso.tools.vstar.util.discrepant.DiscrepantReport;
 import org.aavso.tools.vstar.util.discrepant.IDiscrepantReporter;
 import org.aavso.tools.vstar.util.discrepant.VSXWebServiceZapperLogger;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.model.ModelSeries;
+import org.aavso.tools.vstar.util.notification.LastMessageCoalescer;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.notification.Notifier;
+import org.aavso.tools.vstar.util.notification.NotifierMetrics;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 import org.aavso.tools.vstar.util.stats.BinningResult;
 import org.aavso.tools.vstar.util.stats.PhaseCalcs;
@@ -175,14 +189,12 @@ public class Mediator {
 
 	private static IMainUI ui;
 
-	// Valid and invalid observation lists and series category maps.
-	private List<ValidObservation> validObsList;
-	private List<InvalidObservation> invalidObsList;
-
-	// Note: it would be useful to update these with mean obs, excluded obs etc
-	// so they could be used in places where currently the model must be
-	// consulted instead; especially the first map, e.g. for period analysis.
-	private Map<SeriesType, List<ValidObservation>> validObservationCategoryMap;
+	// The session owning the valid and invalid observation lists, the series
+	// category map and the new star messages.
+	// Note: it would be useful to update the category maps with mean obs,
+	// excluded obs etc so they could be used in places where currently the
+	// model must be consulted instead, e.g. for period analysis.
+	private AnalysisSession session;
 	private Map<SeriesType, List<ValidObservation>> phasedValidObservationCategoryMap;
 
 	// Current observation and mean plot model.
@@ -199,10 +211,6 @@ public class Mediator {
 	// Current analysis type.
 	private AnalysisType analysisType;
 
-	// The new star messages created and sent to listeners, most recent at
-	// the highest index.
-	private List<NewStarMessage> newStarMessageList;
-
 	// The latest model selection message created and sent to listeners.
 	private ModelSelectionMessage modelSelectionMessage;
 
@@ -273,12 +281,22 @@ public class Mediator {
 	private Notifier<HarmonicSearchResultMessage> harmonicSearchNotifier;
 	private Notifier<SeriesCreationMessage> seriesCreationNotifier;
 
+	// All of the above notifiers, by name.
+	private Map<String, Notifier<?>> notifiers;
+
+	// The maximum number of phase change, filter and model creation messages
+	// retained for replay to late listeners.
+	private static final int LISTED_MESSAGE_HISTORY_CAPACITY = 100;
+
 	private DocumentManager documentManager;
 
 	private UndoableActionManager undoableActionManager;
 
-	// Currently active task.
-	private SwingWorker currTask;
+	// Scheduler of background tasks.
+	private TaskScheduler taskScheduler;
+
+	// Start time of the most recent new star load (ms) or 0.
+	private volatile long newStarLoadStartTime;
 
 	// Singleton fields, constructor, getter.
 
@@ -290,9 +308,17 @@ public class Mediator {
 	private Mediator() {
 		ui = null;
 
+		// The user interface's session uses the default observation detail
+		// registry, i.e. that used by threads with no session bound.
+		this.session = new AnalysisSession(ObservationDetailRegistry
+				.getDefault());
+
 		this.analysisTypeChangeNotifier = new Notifier<AnalysisTypeChangeMessage>();
-		this.newStarNotifier = new Notifier<NewStarMessage>();
-		this.progressNotifier = new Notifier<ProgressInfo>();
+		this.newStarNotifier = session.getNewStarNotifier();
+		this.progressNotifier = session.getProgressNotifier();
+
+		this.taskScheduler = new TaskScheduler(TaskScheduler.DEFAULT_THREADS);
+		this.progressNotifier.addListener(taskScheduler.createProgressListener());
 		this.discrepantObservationNotifier = new Notifier<DiscrepantObservationMessage>();
 		this.excludedObservationNotifier = new Notifier<ExcludedObservationMessage>();
 		this.observationSelectionNotifier = new Notifier<ObservationSelectionMessage>();
@@ -306,14 +332,17 @@ public class Mediator {
 		this.zoomRequestNotifier = new Notifier<ZoomRequestMessage>();
 		this.filteredObservationNotifier = new Notifier<FilteredObservationMessage>();
 		this.modelSelectionNofitier = new Notifier<ModelSelectionMessage>();
-		this.modelCreationNotifier = new Notifier<ModelCreationMessage>();
+		this.modelCreationNotifier = session.getModelCreationNotifier();
 		this.panRequestNotifier = new Notifier<PanRequestMessage>();
 		this.undoActionNotifier = new Notifier<UndoActionMessage>();
-		this.stopRequestNotifier = new Notifier<StopRequestMessage>();
+		this.stopRequestNotifier = session.getStopRequestNotifier();
 		this.seriesVisibilityChangeNotifier = new Notifier<SeriesVisibilityChangeMessage>();
 		this.harmonicSearchNotifier = new Notifier<HarmonicSearchResultMessage>();
 		this.seriesCreationNotifier = new Notifier<SeriesCreationMessage>();
 
+		this.notifiers = new LinkedHashMap<String, Notifier<?>>();
+		configureNotifiers();
+
 		this.obsListFileSaveDialog = new DelimitedFieldFileSaveChooser();
 		this.imageSaveDialog = new PNGImageFileSaveChooser();
 		{
@@ -331,9 +360,6 @@ public class Mediator {
 		}
 
 		// These (among other things) are created for each new star.
-		this.validObsList = null;
-		this.invalidObsList = null;
-		this.validObservationCategoryMap = null;
 		this.phasedValidObservationCategoryMap = null;
 		this.obsAndMeanPlotModel = null;
 
@@ -342,7 +368,6 @@ public class Mediator {
 		this.viewMode = ViewModeType.PLOT_OBS_MODE;
 		this.analysisType = AnalysisType.RAW_DATA;
 
-		this.newStarMessageList = new ArrayList<NewStarMessage>();
 		this.modelSelectionMessage = null;
 
 		this.periodChangeNotifier.addListener(createPeriodChangeListener());
@@ -380,34 +405,35 @@ public class Mediator {
 	 * @return The current list of valid observations
 	 */
 	public List<ValidObservation> getValidObsList() {
-		return validObsList;
+		return session.getValidObsList();
 	}
 
 	/**
 	 * @return the latest newStarMessage, or null if none present.
 	 */
 	public NewStarMessage getLatestNewStarMessage() {
-		NewStarMessage msg = null;
-
-		if (!newStarMessageList.isEmpty()) {
-			msg = newStarMessageList.get(newStarMessageList.size() - 1);
-		}
-
-		return msg;
+		return session.getLatestNewStarMessage();
 	}
 
 	/**
 	 * @return the newStarMessageList
 	 */
 	public List<NewStarMessage> getNewStarMessageList() {
-		return newStarMessageList;
+		return session.getNewStarMessageList();
 	}
 
 	/**
 	 * @return the validObservationCategoryMap
 	 */
 	public Map<SeriesType, List<ValidObservation>> getValidObservationCategoryMap() {
-		return validObservationCategoryMap;
+		return session.getValidObservationCategoryMap();
+	}
+
+	/**
+	 * @return The session owning the user interface's dataset.
+	 */
+	public AnalysisSession getSession() {
+		return session;
 	}
 
 	/**
@@ -788,8 +814,7 @@ public class Mediator {
 		PhasePlotTask task = new PhasePlotTask(period, epoch, seriesVisibilityMap);
 
 		try {
-			currTask = task;
-			task.execute();
+			taskScheduler.submit("Phase plot", TaskPriority.INTERACTIVE, task);
 		} catch (Exception e) {
 			Mediator.getUI().setCursor(null);
 			MessageBox.showErrorDialog(Mediator.getUI().getComponent(), "New Phase Plot", e);
@@ -803,8 +828,7 @@ public class Mediator {
 		PluginManagerOperationTask task = new PluginManagerOperationTask(op);
 
 		try {
-			currTask = task;
-			task.execute();
+			taskScheduler.submit(op.getMessage(), TaskPriority.INTERACTIVE, task, op::interrupt);
 		} catch (Exception e) {
 			Mediator.getUI().setCursor(null);
 			MessageBox.showErrorDialog(Mediator.getUI().getComponent(), "Plugin Manager", e.getLocalizedMessage());
@@ -826,9 +850,9 @@ public class Mediator {
 		return new Listener<ModelSelectionMessage>() {
 			@Override
 			public void update(ModelSelectionMessage info) {
-				validObservationCategoryMap.put(SeriesType.Model, info.getModel().getFit());
+				getValidObservationCategoryMap().put(SeriesType.Model, info.getModel().getFit());
 
-				validObservationCategoryMap.put(SeriesType.Residuals, info.getModel().getResiduals());
+				getValidObservationCategoryMap().put(SeriesType.Residuals, info.getModel().getResiduals());
 
 				modelSelectionMessage = info;
 			}
@@ -847,14 +871,14 @@ public class Mediator {
 			@Override
 			public void update(FilteredObservationMessage info) {
 				if (info == FilteredObservationMessage.NO_FILTER) {
-					validObservationCategoryMap.remove(SeriesType.Filtered);
+					getValidObservationCategoryMap().remove(SeriesType.Filtered);
 				} else {
 					// First, copy the set of filtered observations to a list.
 					List<ValidObservation> obs = new ArrayList<ValidObservation>();
 					for (ValidObservation ob : info.getFilteredObs()) {
 						obs.add(ob);
 					}
-					validObservationCategoryMap.put(SeriesType.Filtered, obs);
+					getValidObservationCategoryMap().put(SeriesType.Filtered, obs);
 				}
 			}
 
@@ -1103,11 +1127,14 @@ public class Mediator {
 		this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
 		this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
 
+		markNewStarLoadStart();
+
 		NewStarFromObSourcePluginTask task = new NewStarFromObSourcePluginTask(obSourcePlugin);
-		this.currTask = task;
 		task.configure();
 		if (task.isConfigured()) {
-			task.execute();
+			// A load replaces the observations that other tasks operate upon,
+			// so it must not run alongside them.
+			taskScheduler.submitExclusive(obSourcePlugin.getDisplayName(), TaskPriority.INTERACTIVE, task);
 		}
 		task.done();
 	}
@@ -1126,10 +1153,11 @@ public class Mediator {
 		this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
 		this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
 
+		markNewStarLoadStart();
+
 		NewStarFromObSourcePluginWithSuppliedFileTask task = new NewStarFromObSourcePluginWithSuppliedFileTask(
 				obSourcePlugin, file, isAdditive);
-		this.currTask = task;
-		task.execute();
+		taskScheduler.submitExclusive(obSourcePlugin.getDisplayName() + ": " + file.getName(), TaskPriority.INTERACTIVE, task);
 	}
 
 	/**
@@ -1146,16 +1174,21 @@ public class Mediator {
 		this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
 		this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
 
+		markNewStarLoadStart();
+
 		NewStarFromObSourcePluginWithSuppliedURLTask task = new NewStarFromObSourcePluginWithSuppliedURLTask(
 				obSourcePlugin, url, isAdditive);
-		this.currTask = task;
-		task.execute();
+		taskScheduler.submitExclusive(obSourcePlugin.getDisplayName() + ": " + url, TaskPriority.INTERACTIVE, task);
 	}
 
 	/**
 	 * Create observation artefacts (models, GUI elements) on the assumption that a
 	 * valid observation list and category map have already been created.
 	 * 
+	 * Models are created in the calling thread, normally a background task
+	 * thread. GUI components are then created and listeners notified in the
+	 * event dispatching thread, this method returning once that is complete.
+	 * 
 	 * @param newStarType               The new star enum type.
 	 * @param starInfo                  Information about the star, e.g. name
 	 *                                  (designation), AUID (for AID), period,
@@ -1178,9 +1211,10 @@ public class Mediator {
 		if (addObs && getLatestNewStarMessage() != null) {
 			// convertObsToHJD(starInfo);
 
-			starInfo.getRetriever().collectAllObservations(validObsList, starInfo.getRetriever().getSourceName());
+			starInfo.getRetriever().collectAllObservations(session.getValidObsList(),
+					starInfo.getRetriever().getSourceName());
 
-			starInfo.getRetriever().addAllInvalidObservations(invalidObsList);
+			starInfo.getRetriever().addAllInvalidObservations(session.getInvalidObsList());
 
 			// If any loaded data source type is different from the current data
 			// source type, use arbitrary data source type that accommodates any
@@ -1194,11 +1228,11 @@ public class Mediator {
 			}
 		}
 
-		List<ValidObservation> validObsList = starInfo.getRetriever().getValidObservations();
+		final List<ValidObservation> validObsList = starInfo.getRetriever().getValidObservations();
 
-		List<InvalidObservation> invalidObsList = starInfo.getRetriever().getInvalidObservations();
+		final List<InvalidObservation> invalidObsList = starInfo.getRetriever().getInvalidObservations();
 
-		Map<SeriesType, List<ValidObservation>> newObsCategoryMap = starInfo.getRetriever()
+		final Map<SeriesType, List<ValidObservation>> newObsCategoryMap = starInfo.getRetriever()
 				.getValidObservationCategoryMap();
 
 		// Table models.
@@ -1209,17 +1243,12 @@ public class Mediator {
 		// Plot models.
 		obsAndMeanPlotModel = null;
 
-		// GUI table and chart components.
-		ObservationListPane obsListPane = null;
-		SyntheticObservationListPane<AbstractMeanObservationTableModel> meansListPane = null;
-		ObservationAndMeanPlotPane obsAndMeanChartPane = null;
-
 		if (!validObsList.isEmpty()) {
 
 			freeListeners();
 
 			if (!addObs) {
-				newStarMessageList.clear();
+				getNewStarMessageList().clear();
 			} else {
 				// Exclude all but the most recent new star message if the newly
 				// loaded dataset's series+observations are the same as that
@@ -1235,7 +1264,7 @@ public class Mediator {
 				}
 
 				for (NewStarMessage msg : dupMessages) {
-					newStarMessageList.remove(msg);
+					getNewStarMessageList().remove(msg);
 				}
 			}
 
@@ -1245,124 +1274,237 @@ public class Mediator {
 					starInfo.getRetriever().getMinMag(), starInfo.getRetriever().getMaxMag(),
 					starInfo.getRetriever().getSourceName());
 
-			newStarMessageList.add(newStarMsg);
+			getNewStarMessageList().add(newStarMsg);
 
 			// This is a specific fix for tracker 3007948.
-			this.discrepantObservationNotifier = new Notifier<DiscrepantObservationMessage>();
-
-			// Observation table and plot.
-			validObsTableModel = new ValidObservationTableModel(newObsCategoryMap, validObsList,
-					newStarType.getRawDataTableColumnInfoSource());
-
-			// Observation-and-mean table and plot.
+			resetDiscrepantObservationNotifier();
+
+			// Model creation (table row ordering and mapping, plot series and
+			// initial binning) is the expensive part of what follows and
+			// involves no Swing components, so it happens on the calling
+			// (background task) thread, with the observation table model
+			// created concurrently with the plot model.
+			final ITableColumnInfoSource columnInfoSource = newStarType.getRawDataTableColumnInfoSource();
+
+			Future<ValidObservationTableModel> validObsTableModelFuture = taskScheduler.getSubtaskExecutor()
+					.submit(new Callable<ValidObservationTableModel>() {
+						@Override
+						public ValidObservationTableModel call() {
+							return new ValidObservationTableModel(newObsCategoryMap, validObsList,
+									columnInfoSource);
+						}
+					});
+
+			// Observation-and-mean plot.
 			obsAndMeanPlotModel = new ObservationAndMeanPlotModel(newObsCategoryMap, JDCoordSource.instance,
 					JDComparator.instance, JDTimeElementEntity.instance, null);
 
-			if (false) {
-				// Record initial ANOVA information and make the document
-				// manager
-				// listen to changes to ANOVA via new binning results.
-				getDocumentManager().updateAnovaInfo(obsAndMeanPlotModel.getBinningResult());
-			}
-
-			obsAndMeanPlotModel.getMeansChangeNotifier().addListener(getDocumentManager().createBinChangeListener());
-
-			getDocumentManager().addStatsInfo("Confidence Interval",
-					"Mean error bars denote 95% Confidence Interval (twice Standard Error)");
-
-			String plotName;
-			String designation = starInfo.getDesignation();
-			// If star's designation starts with '^', do not prefix it with "Light Curve for"
-			if (designation != null && designation.length() > 0 && "^".equals(designation.substring(0, 1)))
-				plotName = designation.substring(1);
-			else
-				plotName = LocaleProps.get("LIGHT_CURVE") + " " + LocaleProps.get("FOR") + " " + designation;
-			obsAndMeanChartPane = createObservationAndMeanPlotPane(
-					plotName,
-					null, obsAndMeanPlotModel, starInfo.getRetriever());
-
-			obsAndMeanPlotModel.getMeansChangeNotifier()
-					.addListener(createMeanObsChangeListener(obsAndMeanPlotModel.getMeanSourceSeriesNum()));
-
 			// The mean observation table model must listen to the plot
 			// model to know when the means data has changed. We also pass
 			// the initial means data obtained from the plot model to
 			// the mean observation table model.
 			meanObsTableModel = new RawDataMeanObservationTableModel(obsAndMeanPlotModel.getMeanObsList());
 
-			obsAndMeanPlotModel.getMeansChangeNotifier().addListener(meanObsTableModel);
+			if (!invalidObsList.isEmpty()) {
+				invalidObsTableModel = new InvalidObservationTableModel(invalidObsList);
+			}
+
+			try {
+				validObsTableModel = validObsTableModelFuture.get();
+			} catch (InterruptedException e) {
+				validObsTableModelFuture.cancel(true);
+				throw new ObservationReadError("Observation table creation interrupted");
+			} catch (ExecutionException e) {
+				throw new ObservationReadError(e.getCause().getLocalizedMessage());
+			}
+
+			int modelProgressAmount = obsArtefactProgressAmount / 2;
 
-			if (obsArtefactProgressAmount > 0) {
+			if (modelProgressAmount > 0) {
 				// Update progress.
 				getProgressNotifier()
-						.notifyListeners(new ProgressInfo(ProgressType.INCREMENT_PROGRESS, obsArtefactProgressAmount));
+						.notifyListeners(new ProgressInfo(ProgressType.INCREMENT_PROGRESS, modelProgressAmount));
 			}
 
-			if (!invalidObsList.isEmpty()) {
-				invalidObsTableModel = new InvalidObservationTableModel(invalidObsList);
-			}
+			// Only the creation and wiring of GUI components remains, which
+			// must happen in the event dispatching thread.
+			final ValidObservationTableModel finalValidObsTableModel = validObsTableModel;
+			final InvalidObservationTableModel finalInvalidObsTableModel = invalidObsTableModel;
+			final RawDataMeanObservationTableModel finalMeanObsTableModel = meanObsTableModel;
+			final NewStarType finalNewStarType = newStarType;
+			final int componentProgressAmount = obsArtefactProgressAmount - modelProgressAmount;
+
+			runInEventDispatchThread(new Runnable() {
+				@Override
+				public void run() {
+					createNewStarObservationComponents(finalNewStarType, starInfo, addObs, validObsList,
+							invalidObsList, newObsCategoryMap, finalValidObsTableModel, finalInvalidObsTableModel,
+							finalMeanObsTableModel, componentProgressAmount);
+				}
+			});
+		}
+	}
 
-			// The observation table pane contains valid and potentially
-			// invalid data components. Tell the valid data table to have
-			// a horizontal scrollbar if there will be too many columns.
+	/**
+	 * Create GUI components from new star observation models, commit to the new
+	 * observations and notify listeners. This must be invoked in the event
+	 * dispatching thread.
+	 * 
+	 * @param newStarType               The new star enum type.
+	 * @param starInfo                  Information about the star.
+	 * @param addObs                    Were the observations added to the
+	 *                                  existing loaded dataset?
+	 * @param validObsList              The new valid observations.
+	 * @param invalidObsList            The new invalid observations.
+	 * @param newObsCategoryMap         The new series to observations mapping.
+	 * @param validObsTableModel        The valid observation table model.
+	 * @param invalidObsTableModel      The invalid observation table model; may
+	 *                                  be null.
+	 * @param meanObsTableModel         The mean observation table model.
+	 * @param componentProgressAmount   The amount the progress bar should be
+	 *                                  incremented by once done.
+	 */
+	private void createNewStarObservationComponents(NewStarType newStarType, StarInfo starInfo, boolean addObs,
+			List<ValidObservation> validObsList, List<InvalidObservation> invalidObsList,
+			Map<SeriesType, List<ValidObservation>> newObsCategoryMap,
+			ValidObservationTableModel validObsTableModel, InvalidObservationTableModel invalidObsTableModel,
+			RawDataMeanObservationTableModel meanObsTableModel, int componentProgressAmount) {
 
-			boolean enableColumnAutoResize = newStarType == NewStarType.NEW_STAR_FROM_SIMPLE_FILE
-					|| (newStarType == NewStarType.NEW_STAR_FROM_ARBITRARY_SOURCE && !addObs);
+		// GUI table and chart components.
+		ObservationListPane obsListPane = null;
+		SyntheticObservationListPane<AbstractMeanObservationTableModel> meansListPane = null;
+		ObservationAndMeanPlotPane obsAndMeanChartPane = null;
 
-			obsListPane = new ObservationListPane(starInfo.getDesignation(), validObsTableModel, invalidObsTableModel,
-					enableColumnAutoResize, obsAndMeanPlotModel.getVisibleSeries(), AnalysisType.RAW_DATA);
+		obsAndMeanPlotModel.getMeansChangeNotifier().addListener(getDocumentManager().createBinChangeListener());
 
-			// We also create the means list pane.
-			meansListPane = new SyntheticObservationListPane<AbstractMeanObservationTableModel>(meanObsTableModel,
-					null);
+		getDocumentManager().addStatsInfo("Confidence Interval",
+				"Mean error bars denote 95% Confidence Interval (twice Standard Error)");
 
-			// Create a message to notify whoever is listening that the analysis
-			// type has changed (we could have been viewing a phase plot for a
-			// different star before now) passing GUI components in the message.
-			analysisType = AnalysisType.RAW_DATA;
+		String plotName;
+		String designation = starInfo.getDesignation();
+		// If star's designation starts with '^', do not prefix it with "Light Curve for"
+		if (designation != null && designation.length() > 0 && "^".equals(designation.substring(0, 1)))
+			plotName = designation.substring(1);
+		else
+			plotName = LocaleProps.get("LIGHT_CURVE") + " " + LocaleProps.get("FOR") + " " + designation;
+		obsAndMeanChartPane = createObservationAndMeanPlotPane(
+				plotName,
+				null, obsAndMeanPlotModel, starInfo.getRetriever());
 
-			AnalysisTypeChangeMessage analysisTypeMsg = new AnalysisTypeChangeMessage(analysisType, obsAndMeanChartPane,
-					obsListPane, meansListPane, ViewModeType.PLOT_OBS_MODE);
+		obsAndMeanPlotModel.getMeansChangeNotifier()
+				.addListener(createMeanObsChangeListener(obsAndMeanPlotModel.getMeanSourceSeriesNum()));
 
-			// Commit to using the new observation lists and category map,
-			// first making old values available for garbage collection.
-			// TODO: It would be worth considering doing this at the start
-			// of this method, not at the end, so more memory is free.
+		obsAndMeanPlotModel.getMeansChangeNotifier().addListener(meanObsTableModel);
 
-			if (this.validObsList != null) {
-				this.validObsList.clear();
-			}
+		if (componentProgressAmount > 0) {
+			// Update progress.
+			getProgressNotifier()
+					.notifyListeners(new ProgressInfo(ProgressType.INCREMENT_PROGRESS, componentProgressAmount));
+		}
 
-			if (this.invalidObsList != null) {
-				this.invalidObsList.clear();
-			}
+		// The observation table pane contains valid and potentially
+		// invalid data components. Tell the valid data table to have
+		// a horizontal scrollbar if there will be too many columns.
 
-			if (this.validObservationCategoryMap != null) {
-				this.validObservationCategoryMap.clear();
-			}
+		boolean enableColumnAutoResize = newStarType == NewStarType.NEW_STAR_FROM_SIMPLE_FILE
+				|| (newStarType == NewStarType.NEW_STAR_FROM_ARBITRARY_SOURCE && !addObs);
 
-			if (this.phasedValidObservationCategoryMap != null) {
-				// In case we did a phase plot, free this up.
-				this.phasedValidObservationCategoryMap.clear();
-				this.phasedValidObservationCategoryMap = null;
-			}
+		obsListPane = new ObservationListPane(starInfo.getDesignation(), validObsTableModel, invalidObsTableModel,
+				enableColumnAutoResize, obsAndMeanPlotModel.getVisibleSeries(), AnalysisType.RAW_DATA);
+
+		// We also create the means list pane.
+		meansListPane = new SyntheticObservationListPane<AbstractMeanObservationTableModel>(meanObsTableModel,
+				null);
+
+		// Create a message to notify whoever is listening that the analysis
+		// type has changed (we could have been viewing a phase plot for a
+		// different star before now) passing GUI components in the message.
+		analysisType = AnalysisType.RAW_DATA;
+
+		AnalysisTypeChangeMessage analysisTypeMsg = new AnalysisTypeChangeMessage(analysisType, obsAndMeanChartPane,
+				obsListPane, meansListPane, ViewModeType.PLOT_OBS_MODE);
+
+		// Commit to using the new observation lists and category map,
+		// first making old values available for garbage collection.
+		// TODO: It would be worth considering doing this at the start
+		// of this method, not at the end, so more memory is free.
+
+		session.setDataset(validObsList, invalidObsList, newObsCategoryMap);
+
+		if (this.phasedValidObservationCategoryMap != null) {
+			// In case we did a phase plot, free this up.
+			this.phasedValidObservationCategoryMap.clear();
+			this.phasedValidObservationCategoryMap = null;
+		}
+
+		// Throw away old artefacts from raw and phase plot,
+		// if there was (at least) one.
+		analysisTypeMap.clear();
+		analysisTypeMap.put(analysisType, analysisTypeMsg);
+
+		// Suggest garbage collection.
+		System.gc();
+
+		// Notify listeners of new star and analysis type.
+		newStarNotifier.notifyListeners(getLatestNewStarMessage());
+		analysisTypeChangeNotifier.notifyListeners(analysisTypeMsg);
+
+		reportTimeToFirstPlot();
+	}
 
-			// Throw away old artefacts from raw and phase plot,
-			// if there was (at least) one.
-			analysisTypeMap.clear();
-			analysisTypeMap.put(analysisType, analysisTypeMsg);
+	/**
+	 * Record the start of a new star load, for time-to-first-plot reporting.
+	 */
+	private void markNewStarLoadStart() {
+		newStarLoadStartTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Append the time taken from the start of the most recent new star load to
+	 * the point at which its plot is available to the status bar message.
+	 */
+	private void reportTimeToFirstPlot() {
+		if (newStarLoadStartTime != 0) {
+			double seconds = (System.currentTimeMillis() - newStarLoadStartTime) / 1000.0;
+			newStarLoadStartTime = 0;
+
+			String timeMsg = String.format(LocaleProps.get("TIME_TO_FIRST_PLOT"), seconds);
 
-			// Suggest garbage collection.
-			System.gc();
+			VStar.LOGGER.info(timeMsg);
 
-			// Store new data.
-			this.validObsList = validObsList;
-			this.invalidObsList = invalidObsList;
-			this.validObservationCategoryMap = newObsCategoryMap;
+			if (ui != null && ui.getStatusPane() != null) {
+				ui.getStatusPane().appendMessage(timeMsg);
+			}
+		}
+	}
 
-			// Notify listeners of new star and analysis type.
-			newStarNotifier.notifyListeners(getLatestNewStarMessage());
-			analysisTypeChangeNotifier.notifyListeners(analysisTypeMsg);
+	/**
+	 * Run the specified code in the event dispatching thread, waiting for it to
+	 * complete. If the caller is already the event dispatching thread, or a
+	 * script is running (since a script may be blocking the event dispatching
+	 * thread while waiting for the current task to complete), the code is run
+	 * directly.
+	 * 
+	 * @param runnable The code to run.
+	 */
+	private void runInEventDispatchThread(Runnable runnable) throws ObservationReadError {
+		if (SwingUtilities.isEventDispatchThread() || ui == null || ui.isScriptingMode()) {
+			runnable.run();
+		} else {
+			try {
+				SwingUtilities.invokeAndWait(runnable);
+			} catch (InterruptedException e) {
+				throw new ObservationReadError("Observation artefact creation interrupted");
+			} catch (InvocationTargetException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw new ObservationReadError(cause.getLocalizedMessage());
+				}
+			}
 		}
 	}
 
@@ -1452,19 +1594,51 @@ public class Mediator {
 	 * @return The number of observations converted.
 	 */
 	public int convertObsToHJD(List<ValidObservation> obs, RAInfo ra, DecInfo dec) {
-		int count = 0;
+		return convertObs(obs, BatchHJDConverter.getInstance(ra.getEpoch()), ra, dec, JDflavour.HJD);
+	}
+
+	/**
+	 * Convert the specified observations to use BJD (TDB) rather than JD. The
+	 * JDs are assumed to be in UTC; observations that are already
+	 * heliocentric or barycentric are not converted.
+	 * 
+	 * @param obs The list of observations to be converted.
+	 * @param ra  The RA for the object.
+	 * @param dec The Dec for the object.
+	 * @return The number of observations converted.
+	 */
+	public int convertObsToBJD(List<ValidObservation> obs, RAInfo ra, DecInfo dec) {
+		return convertObs(obs, BatchHJDConverter.getBarycentricInstance(), ra, dec, JDflavour.BJD);
+	}
 
-		AbstractHJDConverter converter = AbstractHJDConverter.getInstance(ra.getEpoch());
+	// Convert the JD flavour observations among those specified with the
+	// converter in one batch, setting the target JD flavour of each converted
+	// observation, and return the number converted.
+	private int convertObs(List<ValidObservation> obs, BatchHJDConverter converter, RAInfo ra, DecInfo dec,
+			JDflavour flavour) {
+		List<ValidObservation> jdObs = new ArrayList<ValidObservation>();
 
 		for (ValidObservation ob : obs) {
 			if (ob.getJDflavour() == JDflavour.JD) {
-				ob.setJD(converter.convert(ob.getJD(), ra, dec));
-				ob.setJDflavour(JDflavour.HJD);
-				count++;
+				jdObs.add(ob);
 			}
 		}
 
-		return count;
+		// Convert all JDs in one batch.
+		double[] jds = new double[jdObs.size()];
+		for (int i = 0; i < jds.length; i++) {
+			jds[i] = jdObs.get(i).getJD();
+		}
+
+		converter.convert(jds, jds, ra, dec);
+
+		for (int i = 0; i < jds.length; i++) {
+			ValidObservation ob = jdObs.get(i);
+			ob.setJD(jds[i]);
+			ob.setJDflavour(flavour);
+		}
+
+		return jds.length;
 	}
 
 	/**
@@ -1497,7 +1671,7 @@ public class Mediator {
 		// affect both validObsList and validObservationCategoryMap. Some
 		// series are not in the main observation list, only in the map
 		// (e.g. model, residuals, filtered obs), so we handle those separately.
-		PhaseCalcs.setPhases(validObsList, epoch, period);
+		PhaseCalcs.setPhases(getValidObsList(), epoch, period);
 		setPhasesForSeries(SeriesType.Model, epoch, period);
 		setPhasesForSeries(SeriesType.Residuals, epoch, period);
 		setPhasesForSeries(SeriesType.Filtered, epoch, period);
@@ -1508,12 +1682,18 @@ public class Mediator {
 		// duplicate and sort means?
 		Map<SeriesType, List<ValidObservation>> phasedValidObservationCategoryMap = new TreeMap<SeriesType, List<ValidObservation>>();
 
-		for (SeriesType series : validObservationCategoryMap.keySet()) {
-			List<ValidObservation> obs = validObservationCategoryMap.get(series);
+		for (SeriesType series : getValidObservationCategoryMap().keySet()) {
+			List<ValidObservation> obs = getValidObservationCategoryMap().get(series);
 
-			List<ValidObservation> phasedObs = new ArrayList<ValidObservation>(obs);
+			List<ValidObservation> phasedObs;
 
-			Collections.sort(phasedObs, StandardPhaseComparator.instance);
+			if (obs instanceof ModelSeries.ObservationView) {
+				// Order model series by phase without creating observations.
+				phasedObs = ((ModelSeries.ObservationView) obs).phaseOrdered();
+			} else {
+				phasedObs = new ArrayList<ValidObservation>(obs);
+				Collections.sort(phasedObs, StandardPhaseComparator.instance);
+			}
 
 			phasedValidObservationCategoryMap.put(series, phasedObs);
 		}
@@ -1524,7 +1704,7 @@ public class Mediator {
 
 		// Table and plot models.
 		ValidObservationTableModel validObsTableModel = new ValidObservationTableModel(
-				phasedValidObservationCategoryMap, validObsList, // TODO: phased obs?
+				phasedValidObservationCategoryMap, getValidObsList(), // TODO: phased obs?
 				getLatestNewStarMessage().getNewStarType().getPhasePlotTableColumnInfoSource());
 
 		// Observation-and-mean plot and table.
@@ -1629,42 +1809,31 @@ public class Mediator {
 	 * @param period The period to use for the phase calculation.
 	 */
 	public void setPhasesForSeries(SeriesType type, double epoch, double period) {
-		if (validObservationCategoryMap.containsKey(type)) {
-			List<ValidObservation> obs = validObservationCategoryMap.get(type);
+		if (getValidObservationCategoryMap().containsKey(type)) {
+			List<ValidObservation> obs = getValidObservationCategoryMap().get(type);
 			PhaseCalcs.setPhases(obs, epoch, period);
 		}
 	}
 
 	/**
-	 * Block, waiting for a job to complete. We only want to block if there is a
-	 * concurrent task in progress.
+	 * Block, waiting for the tasks submitted so far to complete.
 	 */
 	public void waitForJobCompletion() {
-		if (currTask != null && !currTask.isDone()) {
-			try {
-				currTask.get();
-			} catch (InterruptedException e) {
-			} catch (ExecutionException e) {
-			}
-		}
+		taskScheduler.waitForCompletion();
 	}
 
 	/**
-	 * Attempt to stop the current task.
+	 * Attempt to stop all running and queued tasks.
 	 */
 	public void stopCurrentTask() {
-		if (this.currTask != null) {
-			this.currTask.cancel(true);
-		}
+		taskScheduler.cancelAll();
 	}
 
 	/**
-	 * Clear the current task if not already cleared.
+	 * @return the task scheduler
 	 */
-	public void clearCurrentTask() {
-		if (this.currTask != null) {
-			this.currTask = null;
-		}
+	public TaskScheduler getTaskScheduler() {
+		return taskScheduler;
 	}
 
 	/**
@@ -1707,7 +1876,7 @@ public class Mediator {
 	 */
 	public void performPeriodAnalysis(PeriodAnalysisPluginBase plugin) {
 		try {
-			if (getLatestNewStarMessage() != null && validObsList != null) {
+			if (getLatestNewStarMessage() != null && getValidObsList() != null) {
 				SingleSeriesSelectionDialog dialog = new SingleSeriesSelectionDialog(obsAndMeanPlotModel);
 
 				if (!dialog.isCancelled()) {
@@ -1720,8 +1889,9 @@ public class Mediator {
 
 					PeriodAnalysisTask task = new PeriodAnalysisTask(plugin, type, obs);
 
-					this.currTask = task;
-					task.execute();
+					// Period analyses may be long-running, so should not delay
+					// interactive tasks.
+					taskScheduler.submit(plugin.getDisplayName(), TaskPriority.BATCH, task, plugin::interrupt);
 				}
 			}
 		} catch (Exception e) {
@@ -1784,7 +1954,7 @@ public class Mediator {
 	 */
 	public void performModellingOperation(ModelCreatorPluginBase plugin) {
 		try {
-			if (getLatestNewStarMessage() != null && validObsList != null) {
+			if (getLatestNewStarMessage() != null && getValidObsList() != null) {
 				SingleSeriesSelectionDialog seriesDialog = new SingleSeriesSelectionDialog(obsAndMeanPlotModel);
 
 				if (!seriesDialog.isCancelled()) {
@@ -1800,12 +1970,10 @@ public class Mediator {
 					if (model != null) {
 						ModellingTask task = new ModellingTask(model);
 
-						this.currTask = task;
-
 						this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
 						this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
 
-						task.execute();
+						taskScheduler.submit(model.getKind(), TaskPriority.INTERACTIVE, task, model);
 					}
 				}
 			}
@@ -1828,12 +1996,10 @@ public class Mediator {
 		try {
 			ModellingTask task = new ModellingTask(model);
 
-			this.currTask = task;
-
 			this.getProgressNotifier().notifyListeners(ProgressInfo.START_PROGRESS);
 			this.getProgressNotifier().notifyListeners(ProgressInfo.BUSY_PROGRESS);
 
-			task.execute();
+			taskScheduler.submit(model.getKind(), TaskPriority.INTERACTIVE, task, model);
 		} catch (Exception e) {
 			MessageBox.showErrorDialog(Mediator.getUI().getComponent(), "Modelling Error", e);
 
@@ -1848,14 +2014,14 @@ public class Mediator {
 	 */
 	public void performObservationTransformationOperation(ObservationTransformerPluginBase plugin) {
 		try {
-			if (getLatestNewStarMessage() != null && validObsList != null) {
+			if (getLatestNewStarMessage() != null && getValidObsList() != null) {
 				MultipleSeriesSelectionDialog seriesDialog = new MultipleSeriesSelectionDialog(obsAndMeanPlotModel);
 
 				if (!seriesDialog.isCancelled()) {
 					IUndoableAction action = plugin.createAction(Mediator.getInstance().getSeriesInfoProvider(),
 							seriesDialog.getSelectedSeries());
 
-					currTask = getUndoableActionManager().performUndoableAction(action, UndoableActionType.DO);
+					getUndoableActionManager().performUndoableAction(action, UndoableActionType.DO);
 				}
 			}
 		} catch (Exception e) {
@@ -1889,7 +2055,7 @@ public class Mediator {
 	 * @param plugin The tool plugin to be invoked.
 	 */
 	public void invokeTool(ObservationToolPluginBase plugin) {
-		if (validObservationCategoryMap != null) {
+		if (getValidObservationCategoryMap() != null) {
 			try {
 				// getSeriesInfoProvider() always returns series info for RAW_DATA.
 				// PHASE_PLOT can have other series visibility, so it is more logical to pass
@@ -1913,9 +2079,9 @@ public class Mediator {
 	 * @param plugin The tool plug-in to be invoked.
 	 */
 	public void applyCustomFilterToCurrentObservations(CustomFilterPluginBase plugin) {
-		if (validObsList != null) {
+		if (getValidObsList() != null) {
 			try {
-				plugin.apply(validObsList);
+				plugin.apply(getValidObsList());
 			} catch (Throwable t) {
 				MessageBox.showErrorDialog("Custom Filter Error", t);
 			}
@@ -2007,8 +2173,7 @@ public class Mediator {
 
 			ObsListFileSaveTask task = new ObsListFileSaveTask(plugin, obs, path, delimiter);
 
-			this.currTask = task;
-			task.execute();
+			taskScheduler.submit("Save " + path.getName(), TaskPriority.INTERACTIVE, task);
 		} else {
 			MessageBox.showMessageDialog(parent, "Save Observations", "There are no visible observations to save.");
 		}
@@ -2069,8 +2234,7 @@ public class Mediator {
 			// (for means).
 			ObsListFileSaveTask task = new ObsListFileSaveTask(plugin, obs, path, obsListFileSaveDialog.getDelimiter());
 
-			this.currTask = task;
-			task.execute();
+			taskScheduler.submit("Save " + path.getName(), TaskPriority.INTERACTIVE, task);
 		} else {
 			MessageBox.showMessageDialog(parent, "Save Observations", "There are no observations to save.");
 		}
@@ -2129,8 +2293,7 @@ public class Mediator {
 				ObsListFileSaveTask task = new ObsListFileSaveTask(obsListFileSaveDialog.getSelectedPlugin(), obs,
 						outFile, obsListFileSaveDialog.getDelimiter());
 
-				this.currTask = task;
-				task.execute();
+				taskScheduler.submit("Save " + outFile.getName(), TaskPriority.INTERACTIVE, task);
 			}
 		} else {
 			MessageBox.showMessageDialog(parent, "Save Observations", "There are no visible observations to save.");
@@ -2167,8 +2330,7 @@ public class Mediator {
 				ObsListFileSaveTask task = new ObsListFileSaveTask(obsListFileSaveDialog.getSelectedPlugin(), obs,
 						outFile, obsListFileSaveDialog.getDelimiter());
 
-				this.currTask = task;
-				task.execute();
+				taskScheduler.submit("Save " + outFile.getName(), TaskPriority.INTERACTIVE, task);
 			}
 		} else {
 			MessageBox.showMessageDialog(parent, "Save Observations", "There are no observations to save.");
@@ -2351,6 +2513,109 @@ public class Mediator {
 		}
 	}
 
+	/**
+	 * Begin a notification batch. Until the matching call to
+	 * endNotificationBatch(), messages sent to coalescing notifiers (e.g.
+	 * for exclusion and selection) are deferred, then coalesced and
+	 * delivered when the batch ends. Other notifiers are unaffected. Bulk
+	 * operations that would otherwise fan out many messages should be
+	 * bracketed by these calls.
+	 */
+	public void beginNotificationBatch() {
+		for (Notifier<?> notifier : notifiers.values()) {
+			if (notifier.getCoalescer() != null) {
+				notifier.beginBatch();
+			}
+		}
+	}
+
+	/**
+	 * End a notification batch.
+	 * 
+	 * @see #beginNotificationBatch()
+	 */
+	public void endNotificationBatch() {
+		for (Notifier<?> notifier : notifiers.values()) {
+			if (notifier.getCoalescer() != null) {
+				notifier.endBatch();
+			}
+		}
+	}
+
+	/**
+	 * @return A snapshot of the dispatch metrics (listener counts, message
+	 *         counts, latency) of each notifier, by name.
+	 */
+	public Map<String, NotifierMetrics> getNotifierMetrics() {
+		Map<String, NotifierMetrics> metrics = new LinkedHashMap<String, NotifierMetrics>();
+
+		for (Entry<String, Notifier<?>> entry : notifiers.entrySet()) {
+			metrics.put(entry.getKey(), entry.getValue().getMetrics());
+		}
+
+		return metrics;
+	}
+
+	// Register the notifiers by name, configure the coalescing of
+	// messages sent in batches, and bound the message history retained
+	// for replay to late listeners (see the dialog singleton getters).
+	private void configureNotifiers() {
+		notifiers.put("analysis type change", analysisTypeChangeNotifier);
+		notifiers.put("new star", newStarNotifier);
+		notifiers.put("progress", progressNotifier);
+		notifiers.put("discrepant observation", discrepantObservationNotifier);
+		notifiers.put("excluded observation", excludedObservationNotifier);
+		notifiers.put("observation selection", observationSelectionNotifier);
+		notifiers.put("multiple observation selection", multipleObservationSelectionNotifier);
+		notifiers.put("period analysis selection", periodAnalysisSelectionNotifier);
+		notifiers.put("period change", periodChangeNotifier);
+		notifiers.put("phase change", phaseChangeNotifier);
+		notifiers.put("phase selection", phaseSelectionNotifier);
+		notifiers.put("period analysis refinement", periodAnalysisRefinementNotifier);
+		notifiers.put("mean source series change", meanSourceSeriesChangeNotifier);
+		notifiers.put("zoom request", zoomRequestNotifier);
+		notifiers.put("filtered observation", filteredObservationNotifier);
+		notifiers.put("model selection", modelSelectionNofitier);
+		notifiers.put("model creation", modelCreationNotifier);
+		notifiers.put("pan request", panRequestNotifier);
+		notifiers.put("undo action", undoActionNotifier);
+		notifiers.put("stop request", stopRequestNotifier);
+		notifiers.put("series visibility change", seriesVisibilityChangeNotifier);
+		notifiers.put("harmonic search", harmonicSearchNotifier);
+		notifiers.put("series creation", seriesCreationNotifier);
+
+		excludedObservationNotifier.setCoalescer(ExcludedObservationMessage.createCoalescer());
+		observationSelectionNotifier.setCoalescer(new LastMessageCoalescer<ObservationSelectionMessage>());
+		multipleObservationSelectionNotifier
+				.setCoalescer(new LastMessageCoalescer<MultipleObservationSelectionMessage>());
+		seriesVisibilityChangeNotifier.setCoalescer(new LastMessageCoalescer<SeriesVisibilityChangeMessage>());
+
+		// Late listeners need only the current state, i.e. the latest new
+		// star or selection, or what has been listed for the current star
+		// (phases, filters, models). Message history is cleared on each new
+		// star load (see freeListeners()). Messages sent to other notifiers
+		// are never replayed, so are not retained.
+		for (Notifier<?> notifier : notifiers.values()) {
+			notifier.setHistoryCapacity(0);
+		}
+
+		newStarNotifier.setHistoryCapacity(1);
+		observationSelectionNotifier.setHistoryCapacity(1);
+		multipleObservationSelectionNotifier.setHistoryCapacity(1);
+
+		phaseChangeNotifier.setHistoryCapacity(LISTED_MESSAGE_HISTORY_CAPACITY);
+		filteredObservationNotifier.setHistoryCapacity(LISTED_MESSAGE_HISTORY_CAPACITY);
+		modelCreationNotifier.setHistoryCapacity(LISTED_MESSAGE_HISTORY_CAPACITY);
+	}
+
+	// Replace the discrepant observation notifier, dropping all of its
+	// listeners, and register the replacement by name.
+	void resetDiscrepantObservationNotifier() {
+		discrepantObservationNotifier = new Notifier<DiscrepantObservationMessage>();
+		discrepantObservationNotifier.setHistoryCapacity(0);
+		notifiers.put("discrepant observation", discrepantObservationNotifier);
+	}
+
 	/**
 	 * Exit VStar.
 	 */
@@ -2358,6 +2623,16 @@ public class Mediator {
 		// TODO: do other cleanup, e.g. if file needs saving;
 		// need a document model including undo for this;
 		// defer to Mediator.
+		if (VStar.LOGGER.isLoggable(Level.FINE)) {
+			for (Entry<String, NotifierMetrics> entry : getNotifierMetrics()
+					.entrySet()) {
+				VStar.LOGGER.fine(entry.getKey() + ": " + entry.getValue());
+			}
+		}
+
+		// Stop background tasks and their worker threads.
+		taskScheduler.shutdown();
+
 		System.exit(0);
 	}
 
@@ -17,9 +17,12 @@
  */
 package org.aavso.tools.vstar.ui.mediator.message;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.notification.IMessageCoalescer;
 
 /**
  * This message will be sent to Listener<ExcludedObservationMessage>
@@ -50,4 +53,52 @@ public class ExcludedObservationMessage extends MessageBase {
 	public List<ValidObservation> getObservations() {
 		return observations;
 	}
+
+	/**
+	 * Create a coalescer that merges consecutive exclusion messages from the
+	 * same source (and tag) into a single message. Listeners consult each
+	 * observation's exclusion state, so merging messages that exclude and
+	 * include observations is safe.
+	 * 
+	 * @return The coalescer.
+	 */
+	public static IMessageCoalescer<ExcludedObservationMessage> createCoalescer() {
+		return new IMessageCoalescer<ExcludedObservationMessage>() {
+			@Override
+			public List<ExcludedObservationMessage> coalesce(
+					List<ExcludedObservationMessage> messages) {
+				List<ExcludedObservationMessage> coalesced = new ArrayList<ExcludedObservationMessage>();
+
+				int i = 0;
+				while (i < messages.size()) {
+					ExcludedObservationMessage first = messages.get(i);
+
+					int j = i + 1;
+					while (j < messages.size()
+							&& messages.get(j).getSource() == first.getSource()
+							&& Objects.equals(messages.get(j).getTag(),
+									first.getTag())) {
+						j++;
+					}
+
+					if (j == i + 1) {
+						coalesced.add(first);
+					} else {
+						List<ValidObservation> obs = new ArrayList<ValidObservation>();
+						for (int k = i; k < j; k++) {
+							obs.addAll(messages.get(k).getObservations());
+						}
+						ExcludedObservationMessage merged = new ExcludedObservationMessage(
+								obs, first.getSource());
+						merged.setTag(first.getTag());
+						coalesced.add(merged);
+					}
+
+					i = j;
+				}
+
+				return coalesced;
+			}
+		};
+	}
 }
@@ -101,6 +101,11 @@ public class AAVSOFormatPhasePlotColumnInfoSource extends
 		return value;
 	}
 
+	@Override
+	protected boolean hasPhaseColumn() {
+		return true;
+	}
+
 	@Override
 	public int getColumnIndexByName(String name)
 			throws IllegalArgumentException {
@@ -28,7 +28,8 @@ import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 /**
  * AAVSO format (file, database) raw data table column information source.
  */
-public class AAVSOFormatRawDataColumnInfoSource implements ITableColumnInfoSource {
+public class AAVSOFormatRawDataColumnInfoSource extends
+		AbstractRawDataColumnInfoSource {
 
 	// Table columns.
 	private static final int TIME_COLUMN = 0;
@@ -126,6 +127,7 @@ public class AAVSOFormatRawDataColumnInfoSource implements ITableColumnInfoSourc
 	 * @param useLineNumbers Should line numbers be used?
 	 */
 	public AAVSOFormatRawDataColumnInfoSource(boolean useLineNumbers) {
+		super(TIME_COLUMN, MAGNITUDE_COLUMN, UNCERTAINTY_COLUMN);
 		this.useLineNumbers = useLineNumbers;
 	}
 
@@ -23,6 +23,7 @@ import java.util.List;
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.ui.mediator.message.ModelSelectionMessage;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.notification.Listener;
 
 /**
@@ -57,6 +58,41 @@ public abstract class AbstractModelObservationTableModel extends
 		fireTableDataChanged();
 	}
 
+	/**
+	 * Model series views find an observation's row by identity, so no map
+	 * from observations to rows is required.
+	 * 
+	 * @see org.aavso.tools.vstar.ui.model.list.AbstractSyntheticObservationTableModel#getRowIndexFromObservation(org.aavso.tools.vstar.data.ValidObservation)
+	 */
+	@Override
+	public Integer getRowIndexFromObservation(ValidObservation ob) {
+		Integer row = null;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			int index = obs.indexOf(ob);
+			if (index != -1) {
+				row = index;
+			}
+		} else {
+			row = super.getRowIndexFromObservation(ob);
+		}
+
+		return row;
+	}
+
+	/**
+	 * @see org.aavso.tools.vstar.ui.model.list.AbstractSyntheticObservationTableModel#populateObsToRowMap()
+	 */
+	@Override
+	protected void populateObsToRowMap() {
+		if (obs instanceof ModelSeries.ObservationView) {
+			// Populating the map would create every observation.
+			observationToRowIndexMap.clear();
+		} else {
+			super.populateObsToRowMap();
+		}
+	}
+
 	@Override
 	public boolean canBeRemoved() {
 		return true;
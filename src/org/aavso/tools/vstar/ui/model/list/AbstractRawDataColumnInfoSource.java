@@ -0,0 +1,117 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.model.list;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+
+/**
+ * The base class of the raw data and phase plot table column information
+ * sources, supplying the primitive values of their numeric columns: time,
+ * magnitude and uncertainty, along with phase for phase plot sources.
+ * <p>
+ * A phase plot source's phase column precedes the columns of its raw data
+ * base class, whose indices are therefore shifted by one (see
+ * hasPhaseColumn()).
+ * </p>
+ */
+public abstract class AbstractRawDataColumnInfoSource implements
+		ITableColumnInfoSource {
+
+	private final int timeColumn;
+	private final int magnitudeColumn;
+	private final int uncertaintyColumn;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param timeColumn
+	 *            The raw data time column index.
+	 * @param magnitudeColumn
+	 *            The raw data magnitude column index.
+	 * @param uncertaintyColumn
+	 *            The raw data uncertainty column index.
+	 */
+	protected AbstractRawDataColumnInfoSource(int timeColumn,
+			int magnitudeColumn, int uncertaintyColumn) {
+		this.timeColumn = timeColumn;
+		this.magnitudeColumn = magnitudeColumn;
+		this.uncertaintyColumn = uncertaintyColumn;
+	}
+
+	/**
+	 * Does this source have a phase column at index 0, preceding the raw data
+	 * columns? Phase plot sources override this to return true.
+	 * 
+	 * @return Whether or not there is a phase column.
+	 */
+	protected boolean hasPhaseColumn() {
+		return false;
+	}
+
+	@Override
+	public boolean isNumericColumn(int index) {
+		boolean numeric = false;
+
+		if (hasPhaseColumn()) {
+			numeric = index == 0 || isRawDataNumericColumn(index - 1);
+		} else {
+			numeric = isRawDataNumericColumn(index);
+		}
+
+		return numeric;
+	}
+
+	@Override
+	public double getTableColumnNumericValue(int index, ValidObservation ob) {
+		double value = Double.NaN;
+
+		if (hasPhaseColumn()) {
+			if (index == 0) {
+				Double phase = ob.getStandardPhase();
+				value = phase != null ? phase : Double.NaN;
+			} else {
+				value = getRawDataNumericValue(index - 1, ob);
+			}
+		} else {
+			value = getRawDataNumericValue(index, ob);
+		}
+
+		return value;
+	}
+
+	// Helpers
+
+	private boolean isRawDataNumericColumn(int index) {
+		return index == timeColumn || index == magnitudeColumn
+				|| index == uncertaintyColumn;
+	}
+
+	private double getRawDataNumericValue(int index, ValidObservation ob) {
+		double value = Double.NaN;
+
+		if (index == timeColumn) {
+			value = ob.getDateInfo().getJulianDay();
+		} else if (index == magnitudeColumn) {
+			value = ob.getMagnitude().getMagValue();
+		} else if (index == uncertaintyColumn) {
+			value = ob.getMagnitude().getUncertainty();
+		}
+
+		return value;
+	}
+}
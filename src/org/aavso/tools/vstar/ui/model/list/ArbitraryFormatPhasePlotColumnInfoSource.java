@@ -96,6 +96,11 @@ public class ArbitraryFormatPhasePlotColumnInfoSource extends
 		return value;
 	}
 	
+	@Override
+	protected boolean hasPhaseColumn() {
+		return true;
+	}
+
 	@Override
 	public int getColumnIndexByName(String name) throws IllegalArgumentException {
 		if (PHASE_COLUMN_NAME.equals(name)) {
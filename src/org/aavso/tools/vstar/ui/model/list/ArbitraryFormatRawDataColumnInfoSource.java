@@ -32,8 +32,8 @@ import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
  * Arbitrary raw data format table column information source, associated with
  * observation source plugins.
  */
-public class ArbitraryFormatRawDataColumnInfoSource implements
-		ITableColumnInfoSource {
+public class ArbitraryFormatRawDataColumnInfoSource extends
+		AbstractRawDataColumnInfoSource {
 
 	// Table columns.
 	private static final int TIME_COLUMN = 0;
@@ -64,6 +64,13 @@ public class ArbitraryFormatRawDataColumnInfoSource implements
 		COLUMN_NAMES.put(DISCREPANT_COLUMN_NAME, DISCREPANT_COLUMN);
 	}
 
+	/**
+	 * Constructor
+	 */
+	public ArbitraryFormatRawDataColumnInfoSource() {
+		super(TIME_COLUMN, MAGNITUDE_COLUMN, UNCERTAINTY_COLUMN);
+	}
+
 	@Override
 	public int getColumnCount() {
 		int detailCount = ValidObservation.getDetailTitles().size();
@@ -74,7 +74,28 @@ public interface ITableColumnInfoSource {
 	 * @return The column value.
 	 */
 	abstract public Object getTableColumnValue(int index, ValidObservation ob);
-	
+
+	/**
+	 * Is the specified column's value a formatted number? If so, the
+	 * column may be sorted on its primitive numeric value rather than on
+	 * its formatted value.
+	 *
+	 * @param index A column index.
+	 * @return Whether or not the column is numeric.
+	 */
+	abstract public boolean isNumericColumn(int index);
+
+	/**
+	 * Given a numeric column index and a valid observation, return the
+	 * primitive value underlying the formatted table column value.
+	 *
+	 * @param index A numeric column index.
+	 * @param ob A valid observation.
+	 * @return The column's numeric value, or NaN if the column is not
+	 *         numeric.
+	 */
+	abstract public double getTableColumnNumericValue(int index, ValidObservation ob);
+
 	/**
 	 * Given a column name, return the index.
 	 * 
@@ -31,11 +31,19 @@ public class InvalidObservationTableModel extends AbstractTableModel {
 
 	private final static int COLUMNS = 3;
 
+	private final static int SOURCE_COLUMN = COLUMNS;
+
 	/**
 	 * The list of invalid observations retrieved.
 	 */
 	protected List<InvalidObservation> invalidObservations;
 
+	/**
+	 * Whether a source column is shown, i.e. whether any invalid observation
+	 * has a source, as when several inputs are loaded at once.
+	 */
+	private boolean hasSourceColumn;
+
 	/**
 	 * Constructor
 	 * 
@@ -45,13 +53,21 @@ public class InvalidObservationTableModel extends AbstractTableModel {
 			List<InvalidObservation> invalidObservations) {
 		super();
 		this.invalidObservations = invalidObservations;
+
+		hasSourceColumn = false;
+		for (InvalidObservation ob : invalidObservations) {
+			if (ob.getSource() != null) {
+				hasSourceColumn = true;
+				break;
+			}
+		}
 	}
 
 	/**
 	 * @see javax.swing.table.TableModel#getColumnCount()
 	 */
 	public int getColumnCount() {
-		return COLUMNS;
+		return hasSourceColumn ? COLUMNS + 1 : COLUMNS;
 	}
 
 	/**
@@ -77,6 +93,9 @@ public class InvalidObservationTableModel extends AbstractTableModel {
 		case 2:
 			columnName = "Error";
 			break;
+		case SOURCE_COLUMN:
+			columnName = "Source";
+			break;
 		}
 
 		return columnName;
@@ -86,7 +105,7 @@ public class InvalidObservationTableModel extends AbstractTableModel {
 	 * @see javax.swing.table.TableModel#getValueAt(int, int)
 	 */
 	public Object getValueAt(int rowIndex, int columnIndex) {
-		assert columnIndex < COLUMNS;
+		assert columnIndex < getColumnCount();
 
 		Object value = null;
 		InvalidObservation invalidOb = invalidObservations.get(rowIndex);
@@ -102,6 +121,9 @@ public class InvalidObservationTableModel extends AbstractTableModel {
 		case 2:
 			value = invalidOb.getError();
 			break;
+		case SOURCE_COLUMN:
+			value = invalidOb.getSource();
+			break;
 		}
 		return value;
 	}
@@ -122,6 +144,9 @@ public class InvalidObservationTableModel extends AbstractTableModel {
 		case 2:
 			clazz = String.class;
 			break;
+		case SOURCE_COLUMN:
+			clazz = String.class;
+			break;
 		}
 		
 		return clazz;
@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 
 /**
@@ -119,17 +120,30 @@ public class PhasePlotModelObservationTableModel extends
 	public Object getValueAt(int rowIndex, int columnIndex) {
 		assert columnIndex < COLUMN_COUNT;
 
-		ValidObservation ob = obs.get(rowIndex % obs.size());
+		int item = rowIndex % obs.size();
+
+		double phase;
+		double mag;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			// Avoid creating an observation per row.
+			ModelSeries.ObservationView view = (ModelSeries.ObservationView) obs;
+			phase = view.getStandardPhase(item);
+			mag = view.getMag(item);
+		} else {
+			ValidObservation ob = obs.get(item);
+			phase = ob.getStandardPhase();
+			mag = ob.getMagnitude().getMagValue();
+		}
 
 		Object value = null;
 
 		switch (columnIndex) {
 		case PHASE_COLUMN:
-			value = NumericPrecisionPrefs.formatTime(ob.getStandardPhase());
+			value = NumericPrecisionPrefs.formatTime(phase);
 			break;
 		case MAG_COLUMN:
-			value = NumericPrecisionPrefs.formatMag(ob.getMagnitude()
-					.getMagValue());
+			value = NumericPrecisionPrefs.formatMag(mag);
 			break;
 		}
 
@@ -19,8 +19,10 @@ package org.aavso.tools.vstar.ui.model.list;
 
 import java.util.List;
 
+import org.aavso.tools.vstar.data.DateInfo;
 import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 
 /**
@@ -126,21 +128,31 @@ public class RawDataModelObservationTableModel extends
 	public Object getValueAt(int rowIndex, int columnIndex) {
 		assert columnIndex < COLUMN_COUNT;
 
-		ValidObservation ob = obs.get(rowIndex);
+		double jd;
+		double mag;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			// Avoid creating an observation per row.
+			ModelSeries.ObservationView view = (ModelSeries.ObservationView) obs;
+			jd = view.getJD(rowIndex);
+			mag = view.getMag(rowIndex);
+		} else {
+			ValidObservation ob = obs.get(rowIndex);
+			jd = ob.getDateInfo().getJulianDay();
+			mag = ob.getMagnitude().getMagValue();
+		}
 
 		Object value = null;
 
 		switch (columnIndex) {
 		case JD_COLUMN:
-			value = NumericPrecisionPrefs.formatTime(ob.getDateInfo()
-					.getJulianDay());
+			value = NumericPrecisionPrefs.formatTime(jd);
 			break;
 		case CALDATE_COLUMN:
-			value = ob.getDateInfo().getCalendarDate();
+			value = new DateInfo(jd).getCalendarDate();
 			break;
 		case MAG_COLUMN:
-			value = NumericPrecisionPrefs.formatMag(ob.getMagnitude()
-					.getMagValue());
+			value = NumericPrecisionPrefs.formatMag(mag);
 			break;
 		}
 
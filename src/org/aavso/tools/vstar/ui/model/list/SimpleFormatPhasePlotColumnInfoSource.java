@@ -91,6 +91,11 @@ public class SimpleFormatPhasePlotColumnInfoSource extends
 		return value;
 	}
 
+	@Override
+	protected boolean hasPhaseColumn() {
+		return true;
+	}
+
 	@Override
 	public int getColumnIndexByName(String name)
 			throws IllegalArgumentException {
@@ -28,8 +28,8 @@ import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 /**
  * Simple file format raw data table column information source.
  */
-public class SimpleFormatRawDataColumnInfoSource implements
-		ITableColumnInfoSource {
+public class SimpleFormatRawDataColumnInfoSource extends
+		AbstractRawDataColumnInfoSource {
 
 	// Table columns.
 	private static final int TIME_COLUMN = 0;
@@ -60,6 +60,13 @@ public class SimpleFormatRawDataColumnInfoSource implements
 		COLUMN_NAMES.put(DISCREPANT_COLUMN_NAME, DISCREPANT_COLUMN);
 	}
 
+	/**
+	 * Constructor
+	 */
+	public SimpleFormatRawDataColumnInfoSource() {
+		super(TIME_COLUMN, MAGNITUDE_COLUMN, UNCERTAINTY_COLUMN);
+	}
+
 	@Override
 	public int getColumnCount() {
 		return DISCREPANT_COLUMN + 1;
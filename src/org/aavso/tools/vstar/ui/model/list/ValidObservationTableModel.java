@@ -17,11 +17,13 @@
  */
 package org.aavso.tools.vstar.ui.model.list;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.logging.Level;
 
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.AbstractTableModel;
 
 import org.aavso.tools.vstar.data.IOrderedObservationSource;
@@ -37,6 +39,7 @@ import org.aavso.tools.vstar.ui.mediator.message.DiscrepantObservationMessage;
 import org.aavso.tools.vstar.ui.mediator.message.SeriesCreationMessage;
 import org.aavso.tools.vstar.util.ObservationInserter;
 import org.aavso.tools.vstar.util.notification.Listener;
+import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 
 /**
  * A table model for valid observations.
@@ -44,6 +47,11 @@ import org.aavso.tools.vstar.util.notification.Listener;
 @SuppressWarnings("serial")
 public class ValidObservationTableModel extends AbstractTableModel implements IOrderedObservationSource {
 
+	/**
+	 * The maximum number of formatted cell values to be cached.
+	 */
+	public static final int MAX_CACHED_CELLS = 8192;
+
 	/**
 	 * A mapping from series to valid observations.
 	 */
@@ -73,6 +81,23 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 	 */
 	private final int columnCount;
 
+	/**
+	 * A least-recently-used cache of formatted cell values keyed by row and
+	 * column. Only the rows being viewed are ever formatted, and scrolling
+	 * back and forth over them does not format them again.
+	 */
+	private final Map<Long, Object> formattedCellCache;
+
+	// The numeric precision with which the cached cell values were formatted.
+	private int cachedTimeDecimalPlaces;
+	private int cachedMagDecimalPlaces;
+
+	/**
+	 * Primitive sort keys for numeric columns, computed on demand and
+	 * discarded when the table's data changes.
+	 */
+	private final double[][] numericColumnKeys;
+
 	/**
 	 * Constructor
 	 * 
@@ -88,6 +113,17 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 		this.columnInfoSource = columnInfoSource;
 		this.columnCount = columnInfoSource.getColumnCount();
 
+		this.formattedCellCache = new LinkedHashMap<Long, Object>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+				return size() > MAX_CACHED_CELLS;
+			}
+		};
+		this.cachedTimeDecimalPlaces = NumericPrecisionPrefs.getTimeDecimalPlaces();
+		this.cachedMagDecimalPlaces = NumericPrecisionPrefs.getMagDecimalPlaces();
+
+		this.numericColumnKeys = new double[columnCount][];
+
 		this.obsInserter = new ObservationInserter();
 		updateObservationsList(observations);
 
@@ -158,19 +194,88 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 	public Object getValueAt(int rowIndex, int columnIndex) {
 		Object result = null;
 
-		try {
-			assert columnIndex < columnCount;
-			ValidObservation validOb = this.validObservations.get(rowIndex);
-			result = this.columnInfoSource.getTableColumnValue(columnIndex, validOb);
-		} catch (IndexOutOfBoundsException e) {
-			// Sometimes the series-index, item-index pair will have
-			// changed or have become non-existent. Ignore but log.
-			VStar.LOGGER.log(Level.WARNING, "Observation value retrieval error", e);
+		// The discrepant status may change without a table change event, so
+		// is never cached.
+		boolean cacheable = columnIndex != columnInfoSource.getDiscrepantColumnIndex();
+
+		Long key = null;
+
+		if (cacheable) {
+			checkNumericPrecision();
+			key = (long) rowIndex * columnCount + columnIndex;
+			result = formattedCellCache.get(key);
+		}
+
+		if (result == null) {
+			try {
+				assert columnIndex < columnCount;
+				ValidObservation validOb = this.validObservations.get(rowIndex);
+				result = this.columnInfoSource.getTableColumnValue(columnIndex, validOb);
+
+				if (cacheable && result != null) {
+					formattedCellCache.put(key, result);
+				}
+			} catch (IndexOutOfBoundsException e) {
+				// Sometimes the series-index, item-index pair will have
+				// changed or have become non-existent. Ignore but log.
+				VStar.LOGGER.log(Level.WARNING, "Observation value retrieval error", e);
+			}
 		}
 
 		return result;
 	}
 
+	/**
+	 * Is the specified column numeric, i.e. can it be sorted on primitive
+	 * keys?
+	 * 
+	 * @param columnIndex The column index.
+	 * @return Whether or not the column is numeric.
+	 */
+	public boolean isNumericColumn(int columnIndex) {
+		return columnInfoSource.isNumericColumn(columnIndex);
+	}
+
+	/**
+	 * Returns the primitive sort keys of a numeric column, one per row, in
+	 * row order. The keys are computed once and retained until the table's
+	 * data changes, so that sorting compares doubles rather than parsing
+	 * formatted cell values.
+	 * 
+	 * @param columnIndex A numeric column index.
+	 * @return The column's keys.
+	 */
+	public double[] getNumericColumnKeys(int columnIndex) {
+		assert isNumericColumn(columnIndex);
+
+		double[] keys = numericColumnKeys[columnIndex];
+
+		if (keys == null || keys.length != validObservations.size()) {
+			keys = new double[validObservations.size()];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = columnInfoSource.getTableColumnNumericValue(columnIndex, validObservations.get(i));
+			}
+			numericColumnKeys[columnIndex] = keys;
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Discard cached cell values and sort keys before notifying listeners of
+	 * a table change.
+	 * 
+	 * @see javax.swing.table.AbstractTableModel#fireTableChanged(javax.swing.event.TableModelEvent)
+	 */
+	@Override
+	public void fireTableChanged(TableModelEvent e) {
+		formattedCellCache.clear();
+		for (int i = 0; i < numericColumnKeys.length; i++) {
+			numericColumnKeys[i] = null;
+		}
+		super.fireTableChanged(e);
+	}
+
 	/**
 	 * @see javax.swing.table.AbstractTableModel#setValueAt(java.lang.Object, int,
 	 *      int)
@@ -276,6 +381,21 @@ public class ValidObservationTableModel extends AbstractTableModel implements IO
 
 	// Helpers
 
+	/**
+	 * Discard the formatted cell value cache if numeric precision
+	 * preferences have changed since the cached values were formatted.
+	 */
+	private void checkNumericPrecision() {
+		int timeDecimalPlaces = NumericPrecisionPrefs.getTimeDecimalPlaces();
+		int magDecimalPlaces = NumericPrecisionPrefs.getMagDecimalPlaces();
+
+		if (timeDecimalPlaces != cachedTimeDecimalPlaces || magDecimalPlaces != cachedMagDecimalPlaces) {
+			formattedCellCache.clear();
+			cachedTimeDecimalPlaces = timeDecimalPlaces;
+			cachedMagDecimalPlaces = magDecimalPlaces;
+		}
+	}
+
 	/**
 	 * Accept observations into this table model.
 	 * 
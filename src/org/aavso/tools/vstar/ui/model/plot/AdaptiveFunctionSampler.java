@@ -0,0 +1,320 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.ui.model.plot;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.apache.commons.math.FunctionEvaluationException;
+
+/**
+ * This class samples a continuous model function over a domain (JD) range for
+ * rendering.
+ * 
+ * The function is first evaluated at SAMPLES_PER_PIXEL evenly spaced points
+ * per pixel column. Each interval between adjacent samples is then checked by
+ * evaluating the function at its midpoint: where the midpoint deviates from
+ * the straight line joining the interval's end points by more than a small
+ * fraction of the curve's magnitude range (i.e. where curvature is high), the
+ * midpoint is inserted and both halves of the interval are checked again, up
+ * to MAX_REFINEMENT_DEPTH times. All evaluations at a given depth are carried
+ * out as a single batch.
+ * 
+ * The number of samples is therefore proportional to the pixel width rather
+ * than to the number of observations, and bounded by MAX_SAMPLES_PER_PIXEL
+ * per pixel column, while sharp features such as a Mira maximum remain
+ * smooth when zoomed in.
+ */
+public class AdaptiveFunctionSampler {
+
+	/**
+	 * The number of evenly spaced samples per pixel column before refinement.
+	 */
+	public static final int SAMPLES_PER_PIXEL = 1;
+
+	/**
+	 * The maximum number of samples per pixel column after refinement.
+	 */
+	public static final int MAX_SAMPLES_PER_PIXEL = 8;
+
+	/**
+	 * The maximum number of times an interval is bisected.
+	 */
+	public static final int MAX_REFINEMENT_DEPTH = 6;
+
+	// An interval is refined if its midpoint deviates from the chord by more
+	// than this fraction of the sampled magnitude range, i.e. by roughly a
+	// pixel or less for typical plot heights.
+	private static final double REFINEMENT_TOLERANCE = 1e-3;
+
+	private final ContinuousModelFunction modelFunction;
+
+	private final double minX;
+	private final double maxX;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param modelFunction
+	 *            The model function to be sampled. Its fit determines the
+	 *            domain over which the function is sampled.
+	 */
+	public AdaptiveFunctionSampler(ContinuousModelFunction modelFunction) {
+		this.modelFunction = modelFunction;
+
+		List<ValidObservation> fit = modelFunction.getFit();
+
+		if (fit == null || fit.isEmpty()) {
+			minX = -Double.MAX_VALUE;
+			maxX = Double.MAX_VALUE;
+		} else {
+			double min = Double.MAX_VALUE;
+			double max = -Double.MAX_VALUE;
+
+			for (int i = 0; i < fit.size(); i++) {
+				double x = JDCoordSource.instance.getXCoord(i, fit);
+				min = Math.min(min, x);
+				max = Math.max(max, x);
+			}
+
+			minX = min;
+			maxX = max;
+		}
+	}
+
+	/**
+	 * Sample the function over the specified domain range, restricted to the
+	 * domain of the model's fit.
+	 * 
+	 * @param lowerX
+	 *            The lower bound of the visible domain range.
+	 * @param upperX
+	 *            The upper bound of the visible domain range.
+	 * @param pixelWidth
+	 *            The number of pixel columns over which the range is
+	 *            rendered.
+	 * @return The samples, in ascending domain order.
+	 */
+	public Samples sample(double lowerX, double upperX, int pixelWidth) {
+		double lower = Math.max(lowerX, minX);
+		double upper = Math.min(upperX, maxX);
+
+		Samples samples;
+
+		if (lower > upper) {
+			samples = new Samples(new double[0], new double[0]);
+		} else if (lower == upper) {
+			samples = finite(new double[] { lower },
+					evaluate(new double[] { lower }));
+		} else {
+			int columns = Math.max(1, pixelWidth);
+			int n = columns * SAMPLES_PER_PIXEL + 1;
+
+			double[] xs = new double[n];
+			double step = (upper - lower) / (n - 1);
+			for (int i = 0; i < n; i++) {
+				xs[i] = lower + i * step;
+			}
+			xs[n - 1] = upper;
+
+			samples = refine(xs, evaluate(xs), columns * MAX_SAMPLES_PER_PIXEL);
+		}
+
+		return samples;
+	}
+
+	// Helpers
+
+	// Bisect intervals whose midpoints deviate from their chords, depth by
+	// depth, until no interval deviates, the maximum depth is reached or the
+	// sample budget is exhausted.
+	private Samples refine(double[] xs, double[] ys, int maxSamples) {
+		double tolerance = REFINEMENT_TOLERANCE * range(ys);
+
+		boolean[] candidates = new boolean[xs.length - 1];
+		Arrays.fill(candidates, tolerance > 0);
+
+		for (int depth = 0; depth < MAX_REFINEMENT_DEPTH; depth++) {
+			int count = 0;
+			for (boolean candidate : candidates) {
+				if (candidate) {
+					count++;
+				}
+			}
+
+			if (count == 0 || xs.length + count > maxSamples) {
+				break;
+			}
+
+			double[] midXs = new double[count];
+			for (int i = 0, j = 0; i < candidates.length; i++) {
+				if (candidates[i]) {
+					midXs[j++] = (xs[i] + xs[i + 1]) / 2;
+				}
+			}
+
+			double[] midYs = evaluate(midXs);
+
+			// Determine which midpoints deviate from their chords.
+			boolean[] inserted = new boolean[count];
+			int insertions = 0;
+			for (int i = 0, j = 0; i < candidates.length; i++) {
+				if (candidates[i]) {
+					double chordY = (ys[i] + ys[i + 1]) / 2;
+					double deviation = Math.abs(midYs[j] - chordY);
+					if (deviation > tolerance
+							|| (Double.isNaN(chordY) != Double
+									.isNaN(midYs[j]))) {
+						inserted[j] = true;
+						insertions++;
+					}
+					j++;
+				}
+			}
+
+			if (insertions == 0) {
+				break;
+			}
+
+			// Merge the deviating midpoints into the samples; their halves
+			// are the next depth's candidates.
+			double[] newXs = new double[xs.length + insertions];
+			double[] newYs = new double[newXs.length];
+			boolean[] newCandidates = new boolean[newXs.length - 1];
+
+			int k = 0;
+			for (int i = 0, j = 0; i < xs.length; i++) {
+				newXs[k] = xs[i];
+				newYs[k] = ys[i];
+				k++;
+
+				if (i < candidates.length && candidates[i]) {
+					if (inserted[j]) {
+						newCandidates[k - 1] = true;
+						newXs[k] = midXs[j];
+						newYs[k] = midYs[j];
+						newCandidates[k] = true;
+						k++;
+					}
+					j++;
+				}
+			}
+
+			xs = newXs;
+			ys = newYs;
+			candidates = newCandidates;
+		}
+
+		return finite(xs, ys);
+	}
+
+	// Evaluate the function at each of the specified times in one batch. If
+	// the batch cannot be evaluated, each time is evaluated individually; the
+	// value at a time for which the function cannot be evaluated is NaN.
+	private double[] evaluate(double[] xs) {
+		double[] ys = new double[xs.length];
+
+		try {
+			modelFunction.values(xs, ys);
+		} catch (FunctionEvaluationException e) {
+			for (int i = 0; i < xs.length; i++) {
+				try {
+					ys[i] = modelFunction.getFunction().value(
+							xs[i] - modelFunction.getZeroPoint());
+				} catch (FunctionEvaluationException e1) {
+					ys[i] = Double.NaN;
+				}
+			}
+		}
+
+		return ys;
+	}
+
+	// Returns the samples whose values are not NaN.
+	private static Samples finite(double[] xs, double[] ys) {
+		int n = 0;
+		for (int i = 0; i < ys.length; i++) {
+			if (!Double.isNaN(ys[i])) {
+				xs[n] = xs[i];
+				ys[n] = ys[i];
+				n++;
+			}
+		}
+
+		return new Samples(Arrays.copyOf(xs, n), Arrays.copyOf(ys, n));
+	}
+
+	// Returns the range of the non-NaN values.
+	private static double range(double[] ys) {
+		double min = Double.MAX_VALUE;
+		double max = -Double.MAX_VALUE;
+
+		for (double y : ys) {
+			if (!Double.isNaN(y)) {
+				min = Math.min(min, y);
+				max = Math.max(max, y);
+			}
+		}
+
+		return max > min ? max - min : 0;
+	}
+
+	/**
+	 * The samples of a function over a domain range.
+	 */
+	public static class Samples {
+
+		private final double[] xs;
+		private final double[] ys;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param xs
+		 *            The sample domain values.
+		 * @param ys
+		 *            The sample function values.
+		 */
+		public Samples(double[] xs, double[] ys) {
+			this.xs = xs;
+			this.ys = ys;
+		}
+
+		/**
+		 * @return The number of samples.
+		 */
+		public int size() {
+			return xs.length;
+		}
+
+		/**
+		 * @return The sample domain values.
+		 */
+		public double[] getXs() {
+			return xs;
+		}
+
+		/**
+		 * @return The sample function values.
+		 */
+		public double[] getYs() {
+			return ys;
+		}
+	}
+}
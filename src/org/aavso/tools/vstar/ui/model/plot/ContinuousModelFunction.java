@@ -20,7 +20,13 @@ package org.aavso.tools.vstar.ui.model.plot;
 import java.util.List;
 
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.model.IBatchUnivariateRealFunction;
+import org.aavso.tools.vstar.util.model.PolynomialBatchFunction;
+import org.aavso.tools.vstar.util.model.SplineBatchFunction;
+import org.apache.commons.math.FunctionEvaluationException;
 import org.apache.commons.math.analysis.UnivariateRealFunction;
+import org.apache.commons.math.analysis.polynomials.PolynomialFunction;
+import org.apache.commons.math.analysis.polynomials.PolynomialSplineFunction;
 
 /**
  * This class represents a continuous model function, the synthetic
@@ -36,6 +42,8 @@ public class ContinuousModelFunction {
 	
 	private PhasedObservationAndMeanPlotModel ppModel;
 
+	private IBatchUnivariateRealFunction batchFunction;
+
 	/**
 	 * Constructor
 	 * 
@@ -129,4 +137,55 @@ public class ContinuousModelFunction {
 	public double getZeroPoint() {
 		return zeroPoint;
 	}
+
+	/**
+	 * Evaluate the function for each of the specified times, taking the zero
+	 * point into account. The times and values arrays may be the same array.
+	 * 
+	 * @param times
+	 *            The times (JD) at which to evaluate the function.
+	 * @param ys
+	 *            The array into which the function values are stored.
+	 * @throws FunctionEvaluationException
+	 *             if the function cannot be evaluated at a time.
+	 */
+	public void values(double[] times, double[] ys)
+			throws FunctionEvaluationException {
+		for (int i = 0; i < times.length; i++) {
+			ys[i] = times[i] - zeroPoint;
+		}
+
+		IBatchUnivariateRealFunction batchFunc = getBatchFunction();
+
+		if (batchFunc != null) {
+			batchFunc.values(ys, ys);
+		} else {
+			for (int i = 0; i < times.length; i++) {
+				ys[i] = function.value(ys[i]);
+			}
+		}
+	}
+
+	/**
+	 * Return a batch evaluable form of the function: the function itself if it
+	 * is batch evaluable, or a specialised batch evaluator for polynomial and
+	 * polynomial spline functions.
+	 * 
+	 * @return The batch function or null if there is none for this function.
+	 */
+	public synchronized IBatchUnivariateRealFunction getBatchFunction() {
+		if (batchFunction == null) {
+			if (function instanceof IBatchUnivariateRealFunction) {
+				batchFunction = (IBatchUnivariateRealFunction) function;
+			} else if (function instanceof PolynomialFunction) {
+				batchFunction = new PolynomialBatchFunction(
+						(PolynomialFunction) function);
+			} else if (function instanceof PolynomialSplineFunction) {
+				batchFunction = new SplineBatchFunction(
+						(PolynomialSplineFunction) function);
+			}
+		}
+
+		return batchFunction;
+	}
 }
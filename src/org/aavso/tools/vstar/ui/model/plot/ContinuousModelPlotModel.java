@@ -18,6 +18,7 @@
 package org.aavso.tools.vstar.ui.model.plot;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,10 +33,21 @@ import org.jfree.data.xy.AbstractXYDataset;
 @SuppressWarnings("serial")
 public class ContinuousModelPlotModel extends AbstractXYDataset {
 
+	// The maximum number of domain ranges whose samples are cached.
+	private static final int MAX_CACHED_RANGES = 8;
+
 	private Map<Integer, List<ValidObservation>> seriesNumToObSrcListMap;
 	private ContinuousModelFunction modelFunction;
-	private double step;
-	private double nextX;
+
+	// Function values at the fit's times, computed on demand.
+	private double[] ys;
+
+	// Samples of the function over the current domain range, or null if the
+	// function is plotted at the times of the model's fit; see
+	// setDomainRange(). Samples are cached per domain range.
+	private AdaptiveFunctionSampler sampler;
+	private Map<SampleRange, AdaptiveFunctionSampler.Samples> samplesCache;
+	private AdaptiveFunctionSampler.Samples samples;
 
 	/**
 	 * Constructor
@@ -50,8 +62,58 @@ public class ContinuousModelPlotModel extends AbstractXYDataset {
 		seriesNumToObSrcListMap = new HashMap<Integer, List<ValidObservation>>();
 		seriesNumToObSrcListMap.put(0, modelFunction.getFit());
 		this.modelFunction = modelFunction;
-		step = modelFunction.getFit().size() / 100;
-		nextX = modelFunction.getFit().get(0).getJD();
+		samplesCache = new LinkedHashMap<SampleRange, AdaptiveFunctionSampler.Samples>(
+				16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<SampleRange, AdaptiveFunctionSampler.Samples> eldest) {
+				return size() > MAX_CACHED_RANGES;
+			}
+		};
+		samples = null;
+	}
+
+	/**
+	 * @return the model function
+	 */
+	public ContinuousModelFunction getModelFunction() {
+		return modelFunction;
+	}
+
+	/**
+	 * Set the domain range over which the function is currently rendered and
+	 * the number of pixel columns available to render it. The function is
+	 * then sampled adaptively over that range (see AdaptiveFunctionSampler)
+	 * rather than at the times of the model's fit. Samples are cached per
+	 * range and pixel width, so returning to a previous zoom level does not
+	 * require the function to be evaluated again.
+	 * 
+	 * The function is only sampled adaptively over a JD domain; for phase
+	 * domains, it continues to be plotted at the times of the model's fit.
+	 * 
+	 * @param lowerX
+	 *            The lower bound of the visible domain range.
+	 * @param upperX
+	 *            The upper bound of the visible domain range.
+	 * @param pixelWidth
+	 *            The number of pixel columns over which the range is
+	 *            rendered.
+	 */
+	public void setDomainRange(double lowerX, double upperX, int pixelWidth) {
+		if (modelFunction.getCoordSrc() == JDCoordSource.instance) {
+			SampleRange range = new SampleRange(lowerX, upperX, pixelWidth);
+
+			samples = samplesCache.get(range);
+
+			if (samples == null) {
+				if (sampler == null) {
+					sampler = new AdaptiveFunctionSampler(modelFunction);
+				}
+
+				samples = sampler.sample(lowerX, upperX, pixelWidth);
+				samplesCache.put(range, samples);
+			}
+		}
 	}
 
 	@Override
@@ -66,44 +128,96 @@ public class ContinuousModelPlotModel extends AbstractXYDataset {
 
 	@Override
 	public int getItemCount(int series) {
-		return modelFunction.getFit().size();
-		// return (int) (model.getFit().size() / step);
+		return samples != null ? samples.size() : modelFunction.getFit()
+				.size();
 	}
 
 	@Override
 	public Number getX(int series, int item) {
-		return modelFunction.getCoordSrc().getXCoord(series, item,
-				seriesNumToObSrcListMap);
+		Number x;
+
+		if (samples != null) {
+			x = samples.getXs()[item];
+		} else {
+			x = modelFunction.getCoordSrc().getXCoord(series, item,
+					seriesNumToObSrcListMap);
+		}
+
+		return x;
 	}
 
 	@Override
 	public Number getY(int series, int item) {
-		double y = 0;
+		return samples != null ? samples.getYs()[item] : getYs()[item];
+	}
 
-		if (this.modelFunction.getCoordSrc() == StandardPhaseCoordSource.instance) {
-			// System.out.println("***");
-		}
+	// Returns the function's values at the times of the model's fit,
+	// evaluating the function over all times in one batch the first time
+	// this is called.
+	private double[] getYs() {
+		List<ValidObservation> fit = modelFunction.getFit();
 
-		if (this.modelFunction.getCoordSrc() == PreviousCyclePhaseCoordSource.instance) {
-			// System.out.println("***");
+		if (ys == null || ys.length != fit.size()) {
+			// Note: The function must be computed with JD not phase since
+			// that's what was used initially.
+			double[] times = new double[fit.size()];
+			for (int item = 0; item < times.length; item++) {
+				times[item] = JDCoordSource.instance.getXCoord(item, fit);
+			}
+
+			ys = new double[times.length];
+
+			try {
+				modelFunction.values(times, ys);
+			} catch (FunctionEvaluationException e) {
+				// Fall back to evaluating each time individually so that only
+				// the values that cannot be computed are zero.
+				for (int item = 0; item < times.length; item++) {
+					try {
+						ys[item] = modelFunction.getFunction().value(
+								times[item] - modelFunction.getZeroPoint());
+					} catch (FunctionEvaluationException e1) {
+						ys[item] = 0;
+					}
+				}
+			}
 		}
 
-		try {
-			// double x = modelFunction.getCoordSrc().getXCoord(series, item,
-			// seriesNumToObSrcListMap);
+		return ys;
+	}
 
-			// Note: The function must be computed with JD not phase since
-			// that's what was used initially.
-			double x = modelFunction.getFit().get(item).getJD()
-					- modelFunction.getZeroPoint();
+	// A domain range and the pixel width over which it is rendered.
+	private static class SampleRange {
+
+		private final double lowerX;
+		private final double upperX;
+		private final int pixelWidth;
 
-			y = modelFunction.getFunction().value(x);
-		} catch (FunctionEvaluationException e) {
-			// TODO
+		SampleRange(double lowerX, double upperX, int pixelWidth) {
+			this.lowerX = lowerX;
+			this.upperX = upperX;
+			this.pixelWidth = pixelWidth;
 		}
 
-		// nextX += step;
+		@Override
+		public int hashCode() {
+			int hash = Double.valueOf(lowerX).hashCode();
+			hash = 31 * hash + Double.valueOf(upperX).hashCode();
+			hash = 31 * hash + pixelWidth;
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			boolean equal = false;
 
-		return y;
+			if (other instanceof SampleRange) {
+				SampleRange range = (SampleRange) other;
+				equal = lowerX == range.lowerX && upperX == range.upperX
+						&& pixelWidth == range.pixelWidth;
+			}
+
+			return equal;
+		}
 	}
 }
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 
 /**
  * A Julian Day based coordinate source.
@@ -55,9 +56,8 @@ public class JDCoordSource implements ICoordSource {
 	 */
 	public double getXCoord(int series, int item,
 			Map<Integer, List<ValidObservation>> seriesNumToObSrcListMap) {
-		
-		return seriesNumToObSrcListMap.get(series).get(item).getDateInfo()
-				.getJulianDay();
+
+		return getXCoord(item, seriesNumToObSrcListMap.get(series));
 	}
 
 	/**
@@ -71,7 +71,15 @@ public class JDCoordSource implements ICoordSource {
 	 */	
 	@Override
 	public double getXCoord(int item, List<ValidObservation> obs) {
-		return obs.get(item).getJD();
+		double jd;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			jd = ((ModelSeries.ObservationView) obs).getJD(item);
+		} else {
+			jd = obs.get(item).getJD();
+		}
+
+		return jd;
 	}
 
 	/**
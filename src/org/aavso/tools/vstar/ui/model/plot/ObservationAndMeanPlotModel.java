@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +33,7 @@ import org.aavso.tools.vstar.ui.mediator.message.ExcludedObservationMessage;
 import org.aavso.tools.vstar.ui.mediator.message.FilteredObservationMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ModelSelectionMessage;
 import org.aavso.tools.vstar.util.model.IModel;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.notification.Notifier;
 import org.aavso.tools.vstar.util.stats.BinningResult;
@@ -554,32 +556,33 @@ public class ObservationAndMeanPlotModel extends ObservationPlotModel {
 
 				// Did we go to or from being excluded?
 				if (excluded) {
-					for (ValidObservation ob : info.getObservations()) {
-						// Now marked as excluded so move observation from
-						// its designated band to the excluded series.
-						removeObservationFromSeries(ob, ob.getBand());
+					// Now marked as excluded so move observations from
+					// their designated bands to the excluded series. Each
+					// band series is traversed once.
+					for (Map.Entry<SeriesType, List<ValidObservation>> entry : groupByBand(
+							obs).entrySet()) {
+						removeObservationsFromSeries(entry.getValue(),
+								entry.getKey());
 					}
 					// All are going to the same series, so we can do this
-					// en-masse. Note that we cannot do the reverse en-masse!
+					// en-masse.
 					addObservationsToSeries(obs, SeriesType.Excluded);
 				} else {
 					// Was previously marked as excluded, now is not, so move
-					// observation from the excluded series to its
-					// designated series. Reversing observation exclusion is
-					// less efficient than the initial exclusion.
-					for (ValidObservation ob : info.getObservations()) {
-						removeObservationFromSeries(ob, SeriesType.Excluded);
-						addObservationToSeries(ob, ob.getBand());
-					}
+					// observations from the excluded series to their
+					// designated series.
+					moveObservationsBetweenSeries(SeriesType.Excluded,
+							groupByBand(obs));
 				}
 
 				fireDatasetChanged();
 
 				// If any of the excluded observations bands is the source of
 				// the means series, re-compute the means series.
+				SeriesType meanSourceSeries = seriesNumToSrcTypeMap
+						.get(meanSourceSeriesNum);
 				for (ValidObservation ob : info.getObservations()) {
-					if (ob.getBand() == seriesNumToSrcTypeMap
-							.get(meanSourceSeriesNum)) {
+					if (ob.getBand() == meanSourceSeries) {
 						model.setMeanSeries(false);
 						break;
 					}
@@ -593,33 +596,54 @@ public class ObservationAndMeanPlotModel extends ObservationPlotModel {
 		};
 	}
 
+	/**
+	 * Group observations by band, preserving the order of first occurrence.
+	 * 
+	 * @param obs
+	 *            The observations to be grouped.
+	 * @return A mapping from band to observations.
+	 */
+	protected Map<SeriesType, List<ValidObservation>> groupByBand(
+			List<ValidObservation> obs) {
+		Map<SeriesType, List<ValidObservation>> bandToObs = new LinkedHashMap<SeriesType, List<ValidObservation>>();
+
+		for (ValidObservation ob : obs) {
+			List<ValidObservation> bandObs = bandToObs.get(ob.getBand());
+			if (bandObs == null) {
+				bandObs = new ArrayList<ValidObservation>();
+				bandToObs.put(ob.getBand(), bandObs);
+			}
+			bandObs.add(ob);
+		}
+
+		return bandToObs;
+	}
+
 	/**
 	 * Update the model's fit and residual observation collections.
+	 * 
+	 * @param series
+	 *            The model's fit and residual series. Their observation
+	 *            views become the plot's model and residuals series.
+	 * @param model
+	 *            The model.
 	 */
-	public void updateModelSeries(List<ValidObservation> modelObs,
-			List<ValidObservation> residualObs, IModel model) {
-
-		// Add or replace model pointing to continuous function.
-		// if (this.seriesExists(SeriesType.ModelFunction)) {
-		// // Replace it.
-		// this.modelFunction = model.getModelFunction();
-		// } else {
-		// // Add it.
-		// // TODO: create up front like we do with some other series, e.g. in
-		// // obs retriever?
-		// modelFunctionSeriesNum = getNextSeriesNum();
-		//
-		// this.srcTypeToSeriesNumMap.put(SeriesType.ModelFunction,
-		// modelFunctionSeriesNum);
-		//
-		// this.seriesNumToSrcTypeMap.put(modelFunctionSeriesNum,
-		// SeriesType.ModelFunction);
-		//
-		// this.seriesVisibilityMap.put(SeriesType.ModelFunction,
-		// isSeriesVisibleByDefault(SeriesType.ModelFunction));
-		//
-		// this.modelFunction = model.getModelFunction();
-		// }
+	public void updateModelSeries(ModelSeries series, IModel model) {
+
+		List<ValidObservation> modelObs = series.getFit();
+		List<ValidObservation> residualObs = series.getResiduals();
+
+		// Replace the continuous model function, if the model has one. The
+		// function is plotted over this plot model's coordinates (JD or
+		// phase), in the order of the model series' observations.
+		ContinuousModelFunction function = model.getModelFunction();
+
+		if (function != null) {
+			modelFunction = new ContinuousModelFunction(function.getFunction(),
+					modelObs, function.getZeroPoint(), coordSrc);
+		} else {
+			modelFunction = null;
+		}
 
 		// Add or replace a series for the model and make sure
 		// the series is visible.
@@ -635,11 +659,6 @@ public class ObservationAndMeanPlotModel extends ObservationPlotModel {
 		// invisible via the change series dialog.
 		this.changeSeriesVisibility(modelSeriesNum, true);
 
-		// Make the model function series visible either because this
-		// is its first appearance or because it may have been made
-		// invisible via the change series dialog.
-		// this.changeSeriesVisibility(modelFunctionSeriesNum, true);
-
 		// TODO: do we really need this? if not, revert means join
 		// handling code
 		// this.addSeriesToBeJoinedVisually(modelSeriesNum);
@@ -670,8 +689,8 @@ public class ObservationAndMeanPlotModel extends ObservationPlotModel {
 		return new Listener<ModelSelectionMessage>() {
 			@Override
 			public void update(ModelSelectionMessage info) {
-				updateModelSeries(info.getModel().getFit(), info.getModel()
-						.getResiduals(), info.getModel());
+				updateModelSeries(ModelSeries.forModel(info.getModel()),
+						info.getModel());
 
 				// If the means sources series is model or residuals (from
 				// previous modelling operation), re-compute the means series.
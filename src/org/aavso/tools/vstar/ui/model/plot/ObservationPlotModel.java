@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,6 +40,7 @@ import org.aavso.tools.vstar.ui.mediator.message.ModelSelectionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.NewStarMessage;
 import org.aavso.tools.vstar.ui.mediator.message.SeriesCreationMessage;
 import org.aavso.tools.vstar.ui.mediator.message.SeriesVisibilityChangeMessage;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.jfree.data.DomainOrder;
 import org.jfree.data.xy.AbstractIntervalXYDataset;
@@ -124,6 +126,12 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 	protected int residualsSeriesNum = NO_SERIES;
 	protected int filterSeriesNum = NO_SERIES;
 
+	/**
+	 * A mapping from series number to level-of-detail index, lazily created
+	 * for large series and discarded whenever the dataset changes.
+	 */
+	protected Map<Integer, SeriesLevelOfDetail> seriesNumToLevelOfDetailMap;
+
 	/**
 	 * Common constructor.
 	 * 
@@ -141,6 +149,7 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 		this.atLeastOneVisualBandPresent = false;
 		this.seriesToBeJoinedVisually = new HashSet<Integer>();
 		this.lastSinglySelectedSeries = null;
+		this.seriesNumToLevelOfDetailMap = new HashMap<Integer, SeriesLevelOfDetail>();
 
 		Mediator.getInstance().getSeriesCreationNotifier()
 				.addListener(createSeriesCreationListener());
@@ -285,13 +294,10 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 		if (seriesNum != null) {
 			List<ValidObservation> obList = this.seriesNumToObSrcListMap
 					.get(seriesNum);
-			obList.add(ob);
-			// TODO: this is an expensive operation for the addition of a
-			// single observation! Perhaps we should mandate these lists as
-			// having to be SortedSet. Traversal is no more expensive and
-			// insertion is Log2(n).
-			// SortedSet<E> l = null;
-			Collections.sort(obList, obComparator);
+			// The list is already sorted, so insert the observation after
+			// any observations that compare equal to it, as a stable sort of
+			// the list with the observation appended would.
+			obList.add(insertionPoint(obList, ob), ob);
 		} else {
 			// The series does not yet exist, so create it with
 			// a single datapoint.
@@ -317,9 +323,7 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 		if (seriesNum != null) {
 			List<ValidObservation> obList = this.seriesNumToObSrcListMap
 					.get(seriesNum);
-			obList.addAll(obs);
-			// TODO: use sorted set instead, as above.
-			Collections.sort(obList, obComparator);
+			mergeObservations(obList, obs);
 		} else {
 			// The series does not yet exist, so create it with the observation
 			// list.
@@ -348,7 +352,8 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 	}
 
 	/**
-	 * Remove a single observation from a series list.
+	 * Remove a single observation from a series list. Observations are
+	 * matched by identity, not by value.
 	 * 
 	 * @param ob
 	 *            A valid observation.
@@ -363,14 +368,21 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 		Integer seriesNum = this.srcTypeToSeriesNumMap.get(series);
 
 		if (seriesNum != null) {
-			removed = this.seriesNumToObSrcListMap.get(seriesNum).remove(ob);
+			List<ValidObservation> obList = this.seriesNumToObSrcListMap
+					.get(seriesNum);
+			int index = indexOf(obList, ob);
+			if (index != -1) {
+				obList.remove(index);
+				removed = true;
+			}
 		}
 
 		return removed;
 	}
 
 	/**
-	 * Remove a single observation from a series list.
+	 * Remove a list of observations from a series list in a single pass over
+	 * the series. Observations are matched by identity, not by value.
 	 * 
 	 * @param obs
 	 *            The list of valid observations to be removed.
@@ -385,13 +397,71 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 		Integer seriesNum = this.srcTypeToSeriesNumMap.get(series);
 
 		if (seriesNum != null) {
-			removed = this.seriesNumToObSrcListMap.get(seriesNum)
-					.removeAll(obs);
+			List<ValidObservation> obList = this.seriesNumToObSrcListMap
+					.get(seriesNum);
+
+			if (obs == obList) {
+				removed = !obList.isEmpty();
+				obList.clear();
+			} else {
+				Set<ValidObservation> toRemove = Collections
+						.newSetFromMap(new IdentityHashMap<ValidObservation, Boolean>());
+				toRemove.addAll(obs);
+
+				// Compact the list in place, preserving its identity since
+				// it may be shared with other collections.
+				int kept = 0;
+				for (int i = 0; i < obList.size(); i++) {
+					ValidObservation ob = obList.get(i);
+					if (!toRemove.contains(ob)) {
+						obList.set(kept++, ob);
+					}
+				}
+
+				removed = kept < obList.size();
+				obList.subList(kept, obList.size()).clear();
+			}
 		}
 
 		return removed;
 	}
 
+	/**
+	 * Move observations from one series to their target series, as a batch.
+	 * The source series is traversed once and each target series is merged
+	 * with its new observations once, so the cost is linear in the sizes of
+	 * the series involved rather than in the product of those sizes and the
+	 * number of observations moved. No dataset change event is fired; that
+	 * is left to the caller, once per batch.
+	 * <p>
+	 * Observations are matched by identity, not by value, so an observation
+	 * that is equal to, but distinct from, one being moved stays where it is.
+	 * As when observations were moved one at a time, an observation missing
+	 * from the source series is still added to its target series.
+	 * </p>
+	 * 
+	 * @param sourceSeries
+	 *            The series from which the observations are to be moved.
+	 * @param targetSeriesToObs
+	 *            A mapping from target series to the observations to be moved
+	 *            to that series.
+	 */
+	public void moveObservationsBetweenSeries(SeriesType sourceSeries,
+			Map<SeriesType, List<ValidObservation>> targetSeriesToObs) {
+
+		List<ValidObservation> obs = new ArrayList<ValidObservation>();
+		for (List<ValidObservation> targetObs : targetSeriesToObs.values()) {
+			obs.addAll(targetObs);
+		}
+
+		removeObservationsFromSeries(obs, sourceSeries);
+
+		for (Map.Entry<SeriesType, List<ValidObservation>> entry : targetSeriesToObs
+				.entrySet()) {
+			addObservationsToSeries(entry.getValue(), entry.getKey());
+		}
+	}
+
 	/**
 	 * Remove all observations from the specified series, but not the series
 	 * itself.
@@ -582,6 +652,58 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 				+ getMagError(series, actualItem);
 	}
 
+	/**
+	 * Return the level-of-detail index for the specified series, creating it
+	 * if necessary. The index is rebuilt if the series has changed size since
+	 * it was created.
+	 * 
+	 * @param series
+	 *            The series number.
+	 * @return The level-of-detail index or null if the series is too small to
+	 *         require one.
+	 */
+	public SeriesLevelOfDetail getLevelOfDetail(int series) {
+		SeriesLevelOfDetail lod = null;
+
+		if (seriesNumToObSrcListMap.containsKey(series)) {
+			int count = getItemCount(series);
+
+			if (count > SeriesLevelOfDetail.MIN_ITEMS_FOR_LOD) {
+				lod = seriesNumToLevelOfDetailMap.get(series);
+
+				if (lod == null || lod.getItemCount() != count) {
+					double[] xs = new double[count];
+					double[] ys = new double[count];
+
+					for (int item = 0; item < count; item++) {
+						xs[item] = coordSrc.getXCoord(series, item,
+								seriesNumToObSrcListMap);
+						ys[item] = getMagAsYCoord(series, coordSrc
+								.getActualYItemNum(series, item,
+										seriesNumToObSrcListMap));
+					}
+
+					lod = new SeriesLevelOfDetail(xs, ys);
+					seriesNumToLevelOfDetailMap.put(series, lod);
+				}
+			}
+		}
+
+		return lod;
+	}
+
+	/**
+	 * Discard level-of-detail indices before informing listeners of a
+	 * dataset change.
+	 * 
+	 * @see org.jfree.data.general.AbstractDataset#fireDatasetChanged()
+	 */
+	@Override
+	protected void fireDatasetChanged() {
+		seriesNumToLevelOfDetailMap.clear();
+		super.fireDatasetChanged();
+	}
+
 	// Helpers
 
 	protected int getNextSeriesNum() {
@@ -598,8 +720,17 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 	 * @return The magnitude value.
 	 */
 	public double getMagAsYCoord(int series, int item) {
-		return this.seriesNumToObSrcListMap.get(series).get(item)
-				.getMagnitude().getMagValue();
+		double mag;
+
+		List<ValidObservation> obs = this.seriesNumToObSrcListMap.get(series);
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			mag = ((ModelSeries.ObservationView) obs).getMag(item);
+		} else {
+			mag = obs.get(item).getMagnitude().getMagValue();
+		}
+
+		return mag;
 	}
 
 	/**
@@ -617,18 +748,22 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 	public double getMagError(int series, int item) {
 		double error = 0;
 
-		// If the HQ uncertainty field is non-null, use that, otherwise
-		// use the uncertainty value, which may be zero, in which case
-		// the error will be zero.
+		List<ValidObservation> obs = this.seriesNumToObSrcListMap.get(series);
 
-		Double hqUncertainty = this.seriesNumToObSrcListMap.get(series)
-				.get(item).getHqUncertainty();
+		// Model series have no magnitude error, so there is no need to create
+		// an observation to find that out.
+		if (!(obs instanceof ModelSeries.ObservationView)) {
+			// If the HQ uncertainty field is non-null, use that, otherwise
+			// use the uncertainty value, which may be zero, in which case
+			// the error will be zero.
 
-		if (hqUncertainty != null && hqUncertainty != 0) {
-			error = hqUncertainty;
-		} else {
-			error = this.seriesNumToObSrcListMap.get(series).get(item)
-					.getMagnitude().getUncertainty();
+			Double hqUncertainty = obs.get(item).getHqUncertainty();
+
+			if (hqUncertainty != null && hqUncertainty != 0) {
+				error = hqUncertainty;
+			} else {
+				error = obs.get(item).getMagnitude().getUncertainty();
+			}
 		}
 
 		return error;
@@ -695,6 +830,109 @@ abstract public class ObservationPlotModel extends AbstractIntervalXYDataset
 
 	// Helper methods.
 
+	/**
+	 * Return the index at which the specified observation should be inserted
+	 * into the specified sorted list, i.e. after all observations comparing
+	 * less than or equal to it.
+	 * 
+	 * @param obList
+	 *            A list sorted by this model's observation comparator.
+	 * @param ob
+	 *            The observation to be inserted.
+	 * @return The insertion point.
+	 */
+	protected int insertionPoint(List<ValidObservation> obList,
+			ValidObservation ob) {
+		int lo = 0;
+		int hi = obList.size();
+
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (obComparator.compare(obList.get(mid), ob) <= 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+
+		return lo;
+	}
+
+	/**
+	 * Return the index of the specified observation (by identity) in the
+	 * specified list or -1 if it is not present. A binary search over the
+	 * list's ordering is tried first before falling back to a linear search.
+	 * 
+	 * @param obList
+	 *            A list of observations, normally sorted by this model's
+	 *            observation comparator.
+	 * @param ob
+	 *            The observation to be found.
+	 * @return The index of the observation or -1.
+	 */
+	protected int indexOf(List<ValidObservation> obList, ValidObservation ob) {
+		int index = -1;
+
+		if (obComparator != null) {
+			// Observations comparing equal to ob lie immediately before the
+			// insertion point.
+			for (int i = insertionPoint(obList, ob) - 1; i >= 0
+					&& obComparator.compare(obList.get(i), ob) == 0; i--) {
+				if (obList.get(i) == ob) {
+					index = i;
+					break;
+				}
+			}
+		}
+
+		if (index == -1) {
+			for (int i = 0; i < obList.size(); i++) {
+				if (obList.get(i) == ob) {
+					index = i;
+					break;
+				}
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Merge observations into a sorted list, preserving the list's identity
+	 * and order. Only the new observations are sorted.
+	 * 
+	 * @param obList
+	 *            A list sorted by this model's observation comparator.
+	 * @param obs
+	 *            The observations to be merged into the list.
+	 */
+	protected void mergeObservations(List<ValidObservation> obList,
+			List<ValidObservation> obs) {
+		List<ValidObservation> newObs = new ArrayList<ValidObservation>(obs);
+		Collections.sort(newObs, obComparator);
+
+		List<ValidObservation> merged = new ArrayList<ValidObservation>(
+				obList.size() + newObs.size());
+
+		int i = 0;
+		int j = 0;
+		while (i < obList.size() && j < newObs.size()) {
+			// Existing observations come first when equal, as with a stable
+			// sort of the appended list.
+			if (obComparator.compare(obList.get(i), newObs.get(j)) <= 0) {
+				merged.add(obList.get(i++));
+			} else {
+				merged.add(newObs.get(j++));
+			}
+		}
+
+		merged.addAll(obList.subList(i, obList.size()));
+		merged.addAll(newObs.subList(j, newObs.size()));
+
+		obList.clear();
+		obList.addAll(merged);
+	}
+
 	/**
 	 * Should the specified series be visible by default?
 	 * 
@@ -27,6 +27,7 @@ import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.ui.mediator.message.FilteredObservationMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ModelSelectionMessage;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.notification.Listener;
 
 /**
@@ -82,17 +83,13 @@ public class PhasedObservationAndMeanPlotModel extends
 		return new Listener<ModelSelectionMessage>() {
 			@Override
 			public void update(ModelSelectionMessage info) {
-				// Copy and sort fit and residual observations to ensure correct
-				// mean handling.
-				List<ValidObservation> modelObs = new ArrayList<ValidObservation>(
-						info.getModel().getFit());
-				Collections.sort(modelObs, obComparator);
+				// Order fit and residual observations by phase to ensure
+				// correct mean handling. Standard and previous cycle phase
+				// orderings are the same.
+				ModelSeries series = ModelSeries.forModel(info.getModel())
+						.phaseOrdered();
 
-				List<ValidObservation> residuals = new ArrayList<ValidObservation>(
-						info.getModel().getResiduals());
-				Collections.sort(residuals, obComparator);
-
-				updateModelSeries(modelObs, residuals, info.getModel());
+				updateModelSeries(series, info.getModel());
 
 				// If the means sources series is model or residuals (from
 				// previous modelling operation), re-compute the means series.
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 
 /**
  * A previous cycle phase based coordinate source.
@@ -54,7 +55,7 @@ public class PreviousCyclePhaseCoordSource implements ICoordSource {
 		double phase;
 
 		try {
-			phase = seriesNumToObSrcListMap.get(series).get(item).getPreviousCyclePhase();
+			phase = getXCoord(item, seriesNumToObSrcListMap.get(series));
 		} catch (Exception e) {
 			phase = Double.NaN;
 		}
@@ -71,7 +72,15 @@ public class PreviousCyclePhaseCoordSource implements ICoordSource {
 	 */
 	@Override
 	public double getXCoord(int item, List<ValidObservation> obs) {
-		return obs.get(item).getPreviousCyclePhase();
+		double phase;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			phase = ((ModelSeries.ObservationView) obs).getPreviousCyclePhase(item);
+		} else {
+			phase = obs.get(item).getPreviousCyclePhase();
+		}
+
+		return phase;
 	}
 
 	/**
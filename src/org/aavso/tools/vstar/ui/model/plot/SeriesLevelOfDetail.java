@@ -0,0 +1,233 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.ui.model.plot;
+
+import java.util.BitSet;
+
+/**
+ * This class is a level-of-detail (LOD) index over a single plot series.
+ *
+ * A pyramid of min/max magnitude item indices is precomputed over the
+ * series' items (in ascending domain order) where each level halves the
+ * number of buckets of the level below it. Given a domain range and the
+ * number of pixel columns available to render it, the set of items to be
+ * drawn can then be determined in time proportional to the pixel width
+ * rather than the number of items in the range: for each bucket only the
+ * items with the minimum and maximum magnitudes are chosen, which preserves
+ * the visual envelope of the light curve.
+ *
+ * Item indices are never remapped, so the selected items are exactly the
+ * items of the series, allowing selection to map back to the original
+ * observation. When the number of items in range is small enough relative
+ * to the pixel width, all items in range are chosen, i.e. full fidelity.
+ */
+public class SeriesLevelOfDetail {
+
+	/**
+	 * Series with no more than this number of items are not decimated.
+	 */
+	public static final int MIN_ITEMS_FOR_LOD = 5000;
+
+	private final double[] xs;
+
+	// minItems[level][bucket] and maxItems[level][bucket] are the indices of
+	// the items with the minimum and maximum Y value in a bucket of 2^(level+1)
+	// consecutive items.
+	private final int[][] minItems;
+	private final int[][] maxItems;
+
+	private final boolean ascending;
+
+	/**
+	 * Constructor
+	 *
+	 * @param xs
+	 *            The X (domain) values of the series' items.
+	 * @param ys
+	 *            The Y (magnitude) values of the series' items.
+	 */
+	public SeriesLevelOfDetail(double[] xs, double[] ys) {
+		assert xs.length == ys.length;
+
+		this.xs = xs;
+		this.ascending = isAscending(xs);
+
+		int levels = 0;
+		for (int n = xs.length; n > 1; n = (n + 1) / 2) {
+			levels++;
+		}
+
+		minItems = new int[levels][];
+		maxItems = new int[levels][];
+
+		if (levels > 0) {
+			// Level 0: pairs of items.
+			int buckets = (xs.length + 1) / 2;
+			minItems[0] = new int[buckets];
+			maxItems[0] = new int[buckets];
+
+			for (int b = 0; b < buckets; b++) {
+				int i = 2 * b;
+				int j = Math.min(i + 1, xs.length - 1);
+				minItems[0][b] = ys[i] <= ys[j] ? i : j;
+				maxItems[0][b] = ys[i] >= ys[j] ? i : j;
+			}
+
+			// Each subsequent level merges pairs of buckets from the level
+			// below.
+			for (int level = 1; level < levels; level++) {
+				int[] lowerMin = minItems[level - 1];
+				int[] lowerMax = maxItems[level - 1];
+
+				buckets = (lowerMin.length + 1) / 2;
+				minItems[level] = new int[buckets];
+				maxItems[level] = new int[buckets];
+
+				for (int b = 0; b < buckets; b++) {
+					int i = 2 * b;
+					int j = Math.min(i + 1, lowerMin.length - 1);
+					minItems[level][b] = ys[lowerMin[i]] <= ys[lowerMin[j]] ? lowerMin[i]
+							: lowerMin[j];
+					maxItems[level][b] = ys[lowerMax[i]] >= ys[lowerMax[j]] ? lowerMax[i]
+							: lowerMax[j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The number of items in the series.
+	 */
+	public int getItemCount() {
+		return xs.length;
+	}
+
+	/**
+	 * Can this series be decimated? This requires the domain values to be
+	 * in ascending order.
+	 *
+	 * @return Whether or not the series can be decimated.
+	 */
+	public boolean isDecimatable() {
+		return ascending;
+	}
+
+	/**
+	 * Determine the items to be drawn for the specified domain range.
+	 *
+	 * @param lowerX
+	 *            The lower bound of the visible domain range.
+	 * @param upperX
+	 *            The upper bound of the visible domain range.
+	 * @param pixelWidth
+	 *            The number of pixel columns over which the range is
+	 *            rendered.
+	 * @return The set of item indices to be drawn, or null if all items
+	 *         should be drawn.
+	 */
+	public BitSet getItemsToDraw(double lowerX, double upperX, int pixelWidth) {
+		if (!ascending || xs.length <= MIN_ITEMS_FOR_LOD) {
+			return null;
+		}
+
+		int first = lowerBound(lowerX);
+		int last = upperBound(upperX) - 1;
+
+		// Include a neighbour either side of the range, so lines and
+		// partially visible data points at the edges are not lost.
+		first = Math.max(0, first - 1);
+		last = Math.min(xs.length - 1, last + 1);
+
+		int itemsInRange = last - first + 1;
+		int columns = Math.max(1, pixelWidth);
+
+		if (itemsInRange <= 2 * columns) {
+			// Full fidelity.
+			return null;
+		}
+
+		// Choose the finest level whose bucket count over the range does not
+		// exceed the number of pixel columns.
+		int level = 0;
+		while (level < minItems.length - 1
+				&& (itemsInRange >> (level + 1)) > columns) {
+			level++;
+		}
+
+		BitSet items = new BitSet(last + 1);
+		items.set(first);
+		items.set(last);
+
+		int shift = level + 1;
+		int firstBucket = first >> shift;
+		int lastBucket = Math.min(last >> shift, minItems[level].length - 1);
+
+		for (int b = firstBucket; b <= lastBucket; b++) {
+			items.set(minItems[level][b]);
+			items.set(maxItems[level][b]);
+		}
+
+		return items;
+	}
+
+	// Helpers
+
+	// Returns the index of the first item whose X value is >= x.
+	private int lowerBound(double x) {
+		int lo = 0;
+		int hi = xs.length;
+
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (xs[mid] < x) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+
+		return lo;
+	}
+
+	// Returns the index of the first item whose X value is > x.
+	private int upperBound(double x) {
+		int lo = 0;
+		int hi = xs.length;
+
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (xs[mid] <= x) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+
+		return lo;
+	}
+
+	private static boolean isAscending(double[] xs) {
+		for (int i = 1; i < xs.length; i++) {
+			if (xs[i] < xs[i - 1]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 
 /**
  * A standard phase based coordinate source.
@@ -59,7 +60,7 @@ public class StandardPhaseCoordSource implements ICoordSource {
 		double phase;
 
 		try {
-			phase = seriesNumToObSrcListMap.get(series).get(item).getStandardPhase();
+			phase = getXCoord(item, seriesNumToObSrcListMap.get(series));
 		} catch (Exception e) {
 			phase = Double.NaN;
 		}
@@ -78,7 +79,15 @@ public class StandardPhaseCoordSource implements ICoordSource {
 	 */
 	@Override
 	public double getXCoord(int item, List<ValidObservation> obs) {
-		return obs.get(item).getStandardPhase();
+		double phase;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			phase = ((ModelSeries.ObservationView) obs).getStandardPhase(item);
+		} else {
+			phase = obs.get(item).getStandardPhase();
+		}
+
+		return phase;
 	}
 
 	/**
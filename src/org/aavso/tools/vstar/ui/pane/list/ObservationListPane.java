@@ -60,7 +60,6 @@ import org.aavso.tools.vstar.ui.mediator.message.MultipleObservationSelectionMes
 import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
 import org.aavso.tools.vstar.ui.model.list.InvalidObservationTableModel;
 import org.aavso.tools.vstar.ui.model.list.ValidObservationTableModel;
-import org.aavso.tools.vstar.util.comparator.DoubleAsStringComparator;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.notification.Listener;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
@@ -138,20 +137,9 @@ public class ObservationListPane extends JPanel implements
 			validDataTable.setRowSelectionAllowed(true);
 
 			// Enable table sorting by clicking on a column.
-			// We need to treat JD, magnitude, and uncertainty as doubles.
-			rowSorter = new TableRowSorter<ValidObservationTableModel>(
-					validDataModel);
-			int jdColIndex = validDataModel.getColumnInfoSource()
-					.getColumnIndexByName(LocaleProps.get("TIME"));
-			rowSorter.setComparator(jdColIndex, new DoubleAsStringComparator());
-			int magColIndex = validDataModel.getColumnInfoSource()
-					.getColumnIndexByName("Magnitude");
-			rowSorter
-					.setComparator(magColIndex, new DoubleAsStringComparator());
-			int uncertaintyColIndex = validDataModel.getColumnInfoSource()
-					.getColumnIndexByName("Uncertainty");
-			rowSorter.setComparator(uncertaintyColIndex,
-					new DoubleAsStringComparator());
+			// Numeric columns (e.g. JD, magnitude, uncertainty) are sorted on
+			// their primitive values.
+			rowSorter = new ValidObservationTableRowSorter(validDataModel);
 			validDataTable.setRowSorter(rowSorter);
 
 			// Add a row filter that shows data from series that are visible in
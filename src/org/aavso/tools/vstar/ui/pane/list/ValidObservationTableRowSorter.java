@@ -0,0 +1,164 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.ui.pane.list;
+
+import java.util.Comparator;
+
+import javax.swing.table.TableRowSorter;
+
+import org.aavso.tools.vstar.ui.model.list.ValidObservationTableModel;
+
+/**
+ * A row sorter for valid observation tables that sorts numeric columns (time,
+ * phase, magnitude, uncertainty) on their primitive values rather than on
+ * their formatted cell values. Sorting therefore neither formats nor parses a
+ * value per comparison, while filters that match on text still see the
+ * formatted values.
+ * <p>
+ * The sort value of a numeric column cell is its model row index, and the
+ * column's comparator compares the primitive keys of two rows (see
+ * ValidObservationTableModel.getNumericColumnKeys()), so no value is boxed
+ * per comparison.
+ * </p>
+ */
+public class ValidObservationTableRowSorter extends
+		TableRowSorter<ValidObservationTableModel> {
+
+	/**
+	 * Constructor
+	 *
+	 * @param model
+	 *            The valid observation table model to be sorted.
+	 */
+	public ValidObservationTableRowSorter(ValidObservationTableModel model) {
+		super(model);
+	}
+
+	/**
+	 * @see javax.swing.table.TableRowSorter#setModel(javax.swing.table.TableModel)
+	 */
+	@Override
+	public void setModel(ValidObservationTableModel model) {
+		super.setModel(model);
+		setModelWrapper(new NumericKeyModelWrapper(model));
+	}
+
+	/**
+	 * @see javax.swing.table.TableRowSorter#getComparator(int)
+	 */
+	@Override
+	public Comparator<?> getComparator(int column) {
+		Comparator<?> comparator = null;
+
+		if (getModel().isNumericColumn(column)) {
+			comparator = new NumericKeyComparator(getModel(), column);
+		} else {
+			comparator = super.getComparator(column);
+		}
+
+		return comparator;
+	}
+
+	/**
+	 * Compares two model rows on their primitive keys for a numeric column.
+	 */
+	private static class NumericKeyComparator implements Comparator<Integer> {
+
+		private ValidObservationTableModel model;
+		private int column;
+
+		public NumericKeyComparator(ValidObservationTableModel model,
+				int column) {
+			this.model = model;
+			this.column = column;
+		}
+
+		@Override
+		public int compare(Integer row1, Integer row2) {
+			double[] keys = model.getNumericColumnKeys(column);
+			return Double.compare(keys[row1], keys[row2]);
+		}
+	}
+
+	/**
+	 * A model wrapper that yields a numeric column cell's model row index as
+	 * its value and the formatted cell value as its string value. Row indices
+	 * are boxed once per row rather than once per comparison.
+	 */
+	private class NumericKeyModelWrapper extends
+			ModelWrapper<ValidObservationTableModel, Integer> {
+
+		private ValidObservationTableModel model;
+
+		private Integer[] rows;
+
+		public NumericKeyModelWrapper(ValidObservationTableModel model) {
+			this.model = model;
+			this.rows = new Integer[0];
+		}
+
+		@Override
+		public ValidObservationTableModel getModel() {
+			return model;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return model == null ? 0 : model.getColumnCount();
+		}
+
+		@Override
+		public int getRowCount() {
+			return model == null ? 0 : model.getRowCount();
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			Object value = null;
+
+			if (model.isNumericColumn(column)) {
+				value = getIdentifier(row);
+			} else {
+				value = model.getValueAt(row, column);
+			}
+
+			return value;
+		}
+
+		@Override
+		public String getStringValueAt(int row, int column) {
+			Object value = model.getValueAt(row, column);
+			return value == null ? "" : value.toString();
+		}
+
+		@Override
+		public Integer getIdentifier(int row) {
+			if (row >= rows.length) {
+				Integer[] newRows = new Integer[Math.max(row + 1,
+						model.getRowCount())];
+				System.arraycopy(rows, 0, newRows, 0, rows.length);
+				for (int i = rows.length; i < newRows.length; i++) {
+					newRows[i] = i;
+				}
+				rows = newRows;
+			}
+
+			return rows[row];
+		}
+	}
+}
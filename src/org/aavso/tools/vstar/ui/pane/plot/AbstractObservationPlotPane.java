@@ -43,6 +43,8 @@ import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.PanRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomRequestMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ZoomType;
+import org.aavso.tools.vstar.ui.model.plot.ContinuousModelFunction;
+import org.aavso.tools.vstar.ui.model.plot.ContinuousModelPlotModel;
 import org.aavso.tools.vstar.ui.model.plot.ObservationAndMeanPlotModel;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
 import org.aavso.tools.vstar.util.notification.Listener;
@@ -58,12 +60,14 @@ import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.SeriesRenderingOrder;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYErrorRenderer;
 import org.jfree.chart.title.TextTitle;
 import org.jfree.data.Range;
 import org.jfree.data.general.Dataset;
 import org.jfree.data.general.DatasetChangeEvent;
 import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * This class is the base class for chart panes containing a plot of a set of
@@ -585,6 +589,46 @@ abstract public class AbstractObservationPlotPane<T extends ObservationAndMeanPl
 	// Returns a pan request listener specific to the concrete plot object.
 	abstract protected Listener<PanRequestMessage> createPanRequestListener();
 
+	// Adds, replaces or removes the continuous model function dataset(s) of
+	// the concrete plot according to its observation model(s).
+	abstract protected void updateModelFunctionDatasets();
+
+	/**
+	 * Add, replace or remove the continuous model function dataset at the
+	 * specified index of the plot according to the model function of the
+	 * specified observation model. The dataset is only replaced when the model
+	 * function changes, and it is visible when the model series is.
+	 * 
+	 * @param index
+	 *            The plot's dataset index.
+	 * @param model
+	 *            The observation model whose model function is to be plotted.
+	 */
+	protected void setModelFunctionDataset(int index,
+			ObservationAndMeanPlotModel model) {
+		XYPlot plot = chart.getXYPlot();
+		XYDataset dataset = plot.getDataset(index);
+		ContinuousModelFunction function = model.getModelFunction();
+
+		if (function == null) {
+			if (dataset != null) {
+				plot.setDataset(index, null);
+			}
+		} else {
+			if (!(dataset instanceof ContinuousModelPlotModel)
+					|| ((ContinuousModelPlotModel) dataset).getModelFunction() != function) {
+				if (!(plot.getRenderer(index) instanceof ModelFunctionRenderer)) {
+					plot.setRenderer(index, new ModelFunctionRenderer());
+				}
+				plot.setDataset(index, new ContinuousModelPlotModel(function));
+			}
+
+			boolean visible = Boolean.TRUE.equals(model
+					.getSeriesVisibilityMap().get(SeriesType.Model));
+			plot.getRenderer(index).setSeriesVisible(0, visible);
+		}
+	}
+
 	/**
 	 * Perform a zoom on the current plot.
 	 * 
@@ -646,6 +690,7 @@ abstract public class AbstractObservationPlotPane<T extends ObservationAndMeanPl
 		setSeriesColors();
 		setSeriesSizes();
 		setMagScale();
+		updateModelFunctionDatasets();
 	}
 
 	// Tell renderer which series elements should be rendered
@@ -0,0 +1,123 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.ui.pane.plot;
+
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.ui.model.plot.ContinuousModelPlotModel;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.plot.CrosshairState;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * This class renders a continuous model function dataset (see
+ * ContinuousModelPlotModel) as a line in the model series' color. The
+ * function is sampled adaptively over the current domain range and plot width;
+ * see AdaptiveFunctionSampler.
+ *
+ * The line is not an observation series: it has no legend item, no entities
+ * for tool-tips or selection, and the cross hairs are never locked onto it.
+ */
+@SuppressWarnings("serial")
+public class ModelFunctionRenderer extends XYLineAndShapeRenderer {
+
+	/**
+	 * Constructor
+	 */
+	public ModelFunctionRenderer() {
+		super(true, false);
+		setDefaultSeriesVisibleInLegend(false);
+	}
+
+	/**
+	 * Sample the model function over the visible domain range before it is
+	 * drawn.
+	 *
+	 * @see org.jfree.chart.renderer.xy.XYLineAndShapeRenderer#initialise(java.awt.Graphics2D,
+	 *      java.awt.geom.Rectangle2D, org.jfree.chart.plot.XYPlot,
+	 *      org.jfree.data.xy.XYDataset,
+	 *      org.jfree.chart.plot.PlotRenderingInfo)
+	 */
+	@Override
+	public XYItemRendererState initialise(Graphics2D g2, Rectangle2D dataArea,
+			XYPlot plot, XYDataset dataset, PlotRenderingInfo info) {
+
+		if (dataset instanceof ContinuousModelPlotModel) {
+			ValueAxis domainAxis = plot.getDomainAxisForDataset(plot
+					.indexOf(dataset));
+
+			if (domainAxis != null) {
+				double width = plot.getOrientation() == PlotOrientation.VERTICAL ? dataArea
+						.getWidth() : dataArea.getHeight();
+
+				((ContinuousModelPlotModel) dataset).setDomainRange(
+						domainAxis.getLowerBound(),
+						domainAxis.getUpperBound(), (int) Math.ceil(width));
+			}
+		}
+
+		return super.initialise(g2, dataArea, plot, dataset, info);
+	}
+
+	/**
+	 * The line is drawn in the model series' current color.
+	 *
+	 * @see org.jfree.chart.renderer.AbstractRenderer#getItemPaint(int, int)
+	 */
+	@Override
+	public Paint getItemPaint(int row, int column) {
+		return SeriesType.getColorFromSeries(SeriesType.Model);
+	}
+
+	/**
+	 * No entity is added for a model function item, so that mouse handling
+	 * only ever sees observations.
+	 *
+	 * @see org.jfree.chart.renderer.xy.AbstractXYItemRenderer#addEntity(org.jfree.chart.entity.EntityCollection,
+	 *      java.awt.Shape, org.jfree.data.xy.XYDataset, int, int, double,
+	 *      double)
+	 */
+	@Override
+	protected void addEntity(EntityCollection entities, Shape hotspot,
+			XYDataset dataset, int series, int item, double entityX,
+			double entityY) {
+	}
+
+	/**
+	 * The cross hairs are locked onto observations, not the model function.
+	 *
+	 * @see org.jfree.chart.renderer.xy.AbstractXYItemRenderer#updateCrosshairValues(org.jfree.chart.plot.CrosshairState,
+	 *      double, double, int, double, double,
+	 *      org.jfree.chart.plot.PlotOrientation)
+	 */
+	@Override
+	protected void updateCrosshairValues(CrosshairState crosshairState,
+			double x, double y, int datasetIndex, double transX,
+			double transY, PlotOrientation orientation) {
+	}
+}
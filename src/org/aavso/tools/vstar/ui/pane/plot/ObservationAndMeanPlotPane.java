@@ -95,6 +95,9 @@ public class ObservationAndMeanPlotPane extends AbstractObservationPlotPane<Obse
 		// joined since the base class won't include it in its set.
 		setJoinedSeries();
 
+		// Plot the model function, if any.
+		updateModelFunctionDatasets();
+
 		// Update plot pane from state of user-controllable characteristics
 		getRenderer().setDrawYError(docMgr.shouldShowErrorBars());
 
@@ -156,39 +159,15 @@ public class ObservationAndMeanPlotPane extends AbstractObservationPlotPane<Obse
 		return obsModel.changeMeansSeries(timeElementsInBin);
 	}
 
-	// @Override
-	// protected void setSeriesVisibility() {
-	//
-	// super.setSeriesVisibility();
-	//
-	// Map<SeriesType, Boolean> seriesVisibilityMap = obsModel
-	// .getSeriesVisibilityMap();
-	//
-	// boolean isModelFuncVisible = seriesVisibilityMap
-	// .get(SeriesType.ModelFunction);
-	//
-	// if (isModelFuncVisible && obsModel.getModelFunction() != null) {
-	// ContinuousModelPlotModel modelFuncModel = new ContinuousModelPlotModel(
-	// obsModel.getModelFunction());
-	//
-	// JFreeChart modelFuncPlot = ChartFactory.createXYLineChart("", "",
-	// "", modelFuncModel, PlotOrientation.VERTICAL, false, false,
-	// false);
-	//
-	// int modelFuncSeriesNum = obsModel.getSrcTypeToSeriesNumMap().get(
-	// SeriesType.ModelFunction);
-	//
-	// chart.getXYPlot().setDataset(modelFuncSeriesNum, modelFuncModel);
-	// chart.getXYPlot().setRenderer(modelFuncSeriesNum,
-	// modelFuncPlot.getXYPlot().getRenderer());
-	// Color color = SeriesType
-	// .getColorFromSeries(SeriesType.ModelFunction);
-	// chart.getXYPlot().getRenderer(modelFuncSeriesNum).setSeriesPaint(
-	// modelFuncSeriesNum, color);
-	// chart.getXYPlot().getRenderer(modelFuncSeriesNum).setSeriesVisible(
-	// modelFuncSeriesNum, true);
-	// }
-	// }
+	/**
+	 * The model function, if any, is plotted as the second dataset.
+	 * 
+	 * @see org.aavso.tools.vstar.ui.pane.plot.AbstractObservationPlotPane#updateModelFunctionDatasets()
+	 */
+	@Override
+	protected void updateModelFunctionDatasets() {
+		setModelFunctionDataset(1, obsModel);
+	}
 
 	// From ChartMouseListener interface.
 	// If the mouse is over a data point, set its tool-tip with JD and
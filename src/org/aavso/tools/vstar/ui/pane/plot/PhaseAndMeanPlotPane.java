@@ -42,6 +42,8 @@ import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.chart.plot.PlotRenderingInfo;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.data.general.Dataset;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
 
 /**
  * This class represents a chart pane containing a phase plot for a set of valid
@@ -105,6 +107,18 @@ public class PhaseAndMeanPlotPane extends ObservationAndMeanPlotPane {
 		previousCyclePhaseModel = this.chart.getXYPlot().getDataset(0);
 		standardPhaseModel = this.chart.getXYPlot().getDataset(1);
 
+		// Plot the model functions, if any, and replot them when the
+		// standard phase model's function changes. The base class listens to
+		// the previous cycle phase model.
+		updateModelFunctionDatasets();
+
+		obsAndMeanModels[1].addChangeListener(new DatasetChangeListener() {
+			@Override
+			public void datasetChanged(DatasetChangeEvent event) {
+				updateModelFunctionDatasets();
+			}
+		});
+
 		// setSeriesVisibility();
 	}
 
@@ -164,53 +178,21 @@ public class PhaseAndMeanPlotPane extends ObservationAndMeanPlotPane {
 		return changed;
 	}
 
-	// @Override
-	// protected void setSeriesVisibility() {
-	//
-	// // super.setSeriesVisibility();
-	//
-	// if (obsAndMeanModels != null) {
-	// for (ObservationAndMeanPlotModel obsModel : obsAndMeanModels) {
-	// Map<SeriesType, Boolean> seriesVisibilityMap = obsModel
-	// .getSeriesVisibilityMap();
-	//
-	// // taken from abstract plot pane... necessary?
-	// for (SeriesType seriesType : seriesVisibilityMap.keySet()) {
-	// int seriesNum = obsModel.getSrcTypeToSeriesNumMap().get(
-	// seriesType);
-	// renderer.setSeriesVisible(seriesNum, seriesVisibilityMap
-	// .get(seriesType));
-	// }
-	//
-	// boolean isModelFuncVisible = seriesVisibilityMap
-	// .get(SeriesType.ModelFunction);
-	//
-	// if (isModelFuncVisible && obsModel.getModelFunction() != null) {
-	// ContinuousModelPlotModel modelFuncModel = new ContinuousModelPlotModel(
-	// obsModel.getModelFunction());
-	//
-	// JFreeChart modelFuncPlot = ChartFactory.createXYLineChart(
-	// "", "", "", modelFuncModel,
-	// PlotOrientation.VERTICAL, false, false, false);
-	//
-	// int modelFuncSeriesNum = obsModel
-	// .getSrcTypeToSeriesNumMap().get(
-	// SeriesType.ModelFunction);
-	//
-	// chart.getXYPlot().setDataset(modelFuncSeriesNum,
-	// modelFuncModel);
-	// chart.getXYPlot().setRenderer(modelFuncSeriesNum,
-	// modelFuncPlot.getXYPlot().getRenderer());
-	// Color color = SeriesType
-	// .getColorFromSeries(SeriesType.ModelFunction);
-	// chart.getXYPlot().getRenderer(modelFuncSeriesNum)
-	// .setSeriesPaint(modelFuncSeriesNum, color);
-	// chart.getXYPlot().getRenderer(modelFuncSeriesNum)
-	// .setSeriesVisible(modelFuncSeriesNum, true);
-	// }
-	// }
-	// }
-	// }
+	/**
+	 * The model functions of the previous cycle and standard phase models, if
+	 * any, are plotted as the third and fourth datasets.
+	 * 
+	 * @see org.aavso.tools.vstar.ui.pane.plot.ObservationAndMeanPlotPane#updateModelFunctionDatasets()
+	 */
+	@Override
+	protected void updateModelFunctionDatasets() {
+		// This is first invoked by the base class constructor, before the
+		// models have been set.
+		if (obsAndMeanModels != null) {
+			setModelFunctionDataset(2, obsAndMeanModels[0]);
+			setModelFunctionDataset(3, obsAndMeanModels[1]);
+		}
+	}
 
 	// From ChartMouseListener interface.
 	// If the mouse is over a data point, set its tool-tip with phase and
@@ -17,22 +17,103 @@
  */
 package org.aavso.tools.vstar.ui.pane.plot;
 
+import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.aavso.tools.vstar.ui.model.plot.ObservationPlotModel;
+import org.aavso.tools.vstar.ui.model.plot.SeriesLevelOfDetail;
 import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CrosshairState;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYErrorRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.data.xy.XYDataset;
 
 /**
  * This is VStar's plot data-point renderer.
  * 
  * We subclass XYErrorRenderer in order to be able to plot error bars.<br/>
+ * For large observation series, only those items chosen by the series'
+ * level-of-detail index for the current domain range and plot width are
+ * drawn; see SeriesLevelOfDetail.<br/>
  * TODO: Should we instead use StatisticalLineAndShapeRenderer (at least for
  * means plot)?
  */
 @SuppressWarnings("serial")
 public class VStarPlotDataRenderer extends XYErrorRenderer {
 
+	// The dataset being rendered in the current pass and the domain range and
+	// pixel width over which it is rendered.
+	private transient ObservationPlotModel lodModel;
+	private double lodLowerX;
+	private double lodUpperX;
+	private int lodPixelWidth;
+
+	// A mapping from series number to the items to be drawn in the current
+	// pass; a null value means that all items are to be drawn.
+	private transient Map<Integer, BitSet> seriesToItemsToDraw = new HashMap<Integer, BitSet>();
+
+	/**
+	 * @see org.jfree.chart.renderer.xy.XYLineAndShapeRenderer#initialise(java.awt.Graphics2D,
+	 *      java.awt.geom.Rectangle2D, org.jfree.chart.plot.XYPlot,
+	 *      org.jfree.data.xy.XYDataset,
+	 *      org.jfree.chart.plot.PlotRenderingInfo)
+	 */
+	@Override
+	public XYItemRendererState initialise(Graphics2D g2, Rectangle2D dataArea,
+			XYPlot plot, XYDataset dataset, PlotRenderingInfo info) {
+
+		seriesToItemsToDraw = new HashMap<Integer, BitSet>();
+		lodModel = null;
+
+		if (dataset instanceof ObservationPlotModel) {
+			ValueAxis domainAxis = plot.getDomainAxisForDataset(plot
+					.indexOf(dataset));
+
+			if (domainAxis != null) {
+				lodModel = (ObservationPlotModel) dataset;
+				lodLowerX = domainAxis.getLowerBound();
+				lodUpperX = domainAxis.getUpperBound();
+				double width = plot.getOrientation() == PlotOrientation.VERTICAL ? dataArea
+						.getWidth() : dataArea.getHeight();
+				lodPixelWidth = (int) Math.ceil(width);
+			}
+		}
+
+		return super.initialise(g2, dataArea, plot, dataset, info);
+	}
+
+	/**
+	 * Draw the item unless it has been decimated by the level-of-detail
+	 * index of its series.
+	 * 
+	 * @see org.jfree.chart.renderer.xy.XYErrorRenderer#drawItem(java.awt.Graphics2D,
+	 *      org.jfree.chart.renderer.xy.XYItemRendererState,
+	 *      java.awt.geom.Rectangle2D, org.jfree.chart.plot.PlotRenderingInfo,
+	 *      org.jfree.chart.plot.XYPlot, org.jfree.chart.axis.ValueAxis,
+	 *      org.jfree.chart.axis.ValueAxis, org.jfree.data.xy.XYDataset, int,
+	 *      int, org.jfree.chart.plot.CrosshairState, int)
+	 */
+	@Override
+	public void drawItem(Graphics2D g2, XYItemRendererState state,
+			Rectangle2D dataArea, PlotRenderingInfo info, XYPlot plot,
+			ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset,
+			int series, int item, CrosshairState crosshairState, int pass) {
+
+		if (shouldDrawItem(dataset, series, item)) {
+			super.drawItem(g2, state, dataArea, info, plot, domainAxis,
+					rangeAxis, dataset, series, item, crosshairState, pass);
+		}
+	}
+
 	/**
 	 * Set the size of the series.
 	 * 
@@ -63,4 +144,30 @@ public class VStarPlotDataRenderer extends XYErrorRenderer {
 		
 		return item;
 	}
+
+	// Helpers
+
+	// Should the specified item be drawn in the current pass? Series whose
+	// items are joined by lines are never decimated.
+	private boolean shouldDrawItem(XYDataset dataset, int series, int item) {
+		if (dataset != lodModel || getItemLineVisible(series, item)) {
+			return true;
+		}
+
+		BitSet items;
+
+		if (seriesToItemsToDraw.containsKey(series)) {
+			items = seriesToItemsToDraw.get(series);
+		} else {
+			items = null;
+			SeriesLevelOfDetail lod = lodModel.getLevelOfDetail(series);
+			if (lod != null) {
+				items = lod.getItemsToDraw(lodLowerX, lodUpperX,
+						lodPixelWidth);
+			}
+			seriesToItemsToDraw.put(series, items);
+		}
+
+		return items == null || items.get(item);
+	}
 }
@@ -0,0 +1,156 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.resources;
+
+import java.io.File;
+
+import org.aavso.tools.vstar.plugin.IPlugin;
+import org.aavso.tools.vstar.plugin.InputType;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+
+/**
+ * A plug-in's metadata along with the means to obtain the plug-in itself.
+ * 
+ * An external plug-in whose metadata was read from the plug-in index is not
+ * loaded or instantiated until getPlugin() is first called.
+ * 
+ * @param <P>
+ *            The plug-in base class.
+ */
+public class PluginDescriptor<P extends IPlugin> {
+
+	private Class<P> kind;
+	private String displayName;
+	private String description;
+	private String group;
+	private InputType inputType;
+
+	// For external plug-ins.
+	private File jarFile;
+	private String className;
+
+	private P plugin;
+	private boolean loadFailed;
+
+	/**
+	 * Construct a descriptor for an existing plug-in instance.
+	 * 
+	 * @param kind
+	 *            The plug-in base class.
+	 * @param plugin
+	 *            The plug-in.
+	 */
+	public PluginDescriptor(Class<P> kind, P plugin) {
+		this.kind = kind;
+		this.displayName = plugin.getDisplayName();
+		this.description = plugin.getDescription();
+		this.group = plugin.getGroup();
+		this.inputType = plugin instanceof ObservationSourcePluginBase ? ((ObservationSourcePluginBase) plugin)
+				.getInputType() : null;
+		this.className = plugin.getClass().getName();
+		this.plugin = plugin;
+		this.loadFailed = false;
+	}
+
+	/**
+	 * Construct a descriptor for a plug-in to be loaded from a jar on first
+	 * use.
+	 * 
+	 * @param kind
+	 *            The plug-in base class.
+	 * @param jarFile
+	 *            The plug-in jar file.
+	 * @param entry
+	 *            The plug-in's index entry.
+	 */
+	public PluginDescriptor(Class<P> kind, File jarFile, PluginIndex.Entry entry) {
+		this.kind = kind;
+		this.displayName = entry.getDisplayName();
+		this.description = entry.getDescription();
+		this.group = entry.getGroup();
+		this.inputType = entry.getInputType();
+		this.jarFile = jarFile;
+		this.className = entry.getClassName();
+		this.plugin = null;
+		this.loadFailed = false;
+	}
+
+	/**
+	 * @return the plug-in base class
+	 */
+	public Class<P> getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the displayName
+	 */
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	/**
+	 * @return the description
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * @return the group (may be null)
+	 */
+	public String getGroup() {
+		return group;
+	}
+
+	/**
+	 * @return the input type of an observation source plug-in, otherwise null
+	 */
+	public InputType getInputType() {
+		return inputType;
+	}
+
+	/**
+	 * @return the plug-in's qualified class name
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * @return Has the plug-in been instantiated?
+	 */
+	public synchronized boolean isLoaded() {
+		return plugin != null;
+	}
+
+	/**
+	 * Return the plug-in, loading and instantiating it if necessary. If the
+	 * plug-in cannot be loaded, an error is reported once.
+	 * 
+	 * @return The plug-in, or null if it could not be loaded.
+	 */
+	public synchronized P getPlugin() {
+		if (plugin == null && !loadFailed) {
+			plugin = PluginLoader.instantiatePlugin(jarFile, className, kind);
+			loadFailed = plugin == null;
+		}
+
+		return plugin;
+	}
+}
@@ -0,0 +1,338 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.resources;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.aavso.tools.vstar.plugin.IPlugin;
+import org.aavso.tools.vstar.plugin.InputType;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+
+/**
+ * An on-disk index of plug-in jar metadata: the plug-in class and kind,
+ * display name, description, group, and for observation source plug-ins, the
+ * input type. This allows menus to be populated at startup without loading
+ * or instantiating plug-in classes.
+ * 
+ * An entry is only returned for a jar whose size and modification time match
+ * those recorded when the entry was added, so replacing a plug-in jar causes
+ * it to be loaded and indexed again.
+ */
+public class PluginIndex {
+
+	public final static String INDEX_FILE = System.getProperty("user.home")
+			+ File.separator + "vstar_plugin_index";
+
+	// Bumped whenever the set of stored fields changes.
+	private final static String VERSION = "1";
+
+	private final static String VERSION_KEY = "index.version";
+
+	private final static String SIZE = ".size";
+	private final static String MODIFIED = ".modified";
+	private final static String CLASS = ".class";
+	private final static String KIND = ".kind";
+	private final static String NAME = ".name";
+	private final static String DESCRIPTION = ".description";
+	private final static String GROUP = ".group";
+	private final static String INPUT_TYPE = ".inputType";
+
+	private File file;
+	private Properties props;
+	private boolean changed;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file
+	 *            The index file.
+	 */
+	public PluginIndex(File file) {
+		this.file = file;
+		this.props = new Properties();
+		this.changed = false;
+	}
+
+	/**
+	 * Load the index from its file. A missing, unreadable or out of date index
+	 * file yields an empty index.
+	 */
+	public synchronized void load() {
+		props.clear();
+
+		if (file.isFile()) {
+			InputStream in = null;
+			try {
+				in = new FileInputStream(file);
+				props.load(in);
+			} catch (IOException e) {
+				props.clear();
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (IOException e) {
+						// Nothing to do.
+					}
+				}
+			}
+		}
+
+		if (!VERSION.equals(props.getProperty(VERSION_KEY))) {
+			props.clear();
+		}
+
+		changed = false;
+	}
+
+	/**
+	 * Store the index to its file if it has changed since it was loaded.
+	 * 
+	 * @throws IOException
+	 *             If the index could not be written.
+	 */
+	public synchronized void store() throws IOException {
+		if (changed) {
+			props.setProperty(VERSION_KEY, VERSION);
+
+			OutputStream out = new FileOutputStream(file);
+			try {
+				props.store(out, "VStar plug-in index");
+			} finally {
+				out.close();
+			}
+
+			changed = false;
+		}
+	}
+
+	/**
+	 * Return the entry for the specified plug-in jar, if the jar is unchanged
+	 * since the entry was added.
+	 * 
+	 * @param jarFile
+	 *            The plug-in jar file.
+	 * @return The entry, or null if there is no up to date entry for the jar.
+	 */
+	public synchronized Entry get(File jarFile) {
+		Entry entry = null;
+
+		String key = jarFile.getName();
+
+		if (Long.toString(jarFile.length()).equals(
+				props.getProperty(key + SIZE))
+				&& Long.toString(jarFile.lastModified()).equals(
+						props.getProperty(key + MODIFIED))) {
+
+			String inputType = props.getProperty(key + INPUT_TYPE);
+
+			try {
+				entry = new Entry(props.getProperty(key + CLASS),
+						props.getProperty(key + KIND),
+						props.getProperty(key + NAME),
+						props.getProperty(key + DESCRIPTION),
+						props.getProperty(key + GROUP),
+						inputType == null ? null : InputType
+								.valueOf(inputType));
+			} catch (IllegalArgumentException e) {
+				// An unknown input type; treat as absent.
+				entry = null;
+			}
+
+			if (entry != null
+					&& (entry.getClassName() == null || entry.getKind() == null)) {
+				entry = null;
+			}
+		}
+
+		return entry;
+	}
+
+	/**
+	 * Add or replace the entry for the specified plug-in jar.
+	 * 
+	 * @param jarFile
+	 *            The plug-in jar file.
+	 * @param entry
+	 *            The entry.
+	 */
+	public synchronized void put(File jarFile, Entry entry) {
+		String key = jarFile.getName();
+
+		remove(key);
+
+		props.setProperty(key + SIZE, Long.toString(jarFile.length()));
+		props.setProperty(key + MODIFIED,
+				Long.toString(jarFile.lastModified()));
+		props.setProperty(key + CLASS, entry.getClassName());
+		props.setProperty(key + KIND, entry.getKind());
+		setIfNotNull(key + NAME, entry.getDisplayName());
+		setIfNotNull(key + DESCRIPTION, entry.getDescription());
+		setIfNotNull(key + GROUP, entry.getGroup());
+		if (entry.getInputType() != null) {
+			props.setProperty(key + INPUT_TYPE, entry.getInputType().name());
+		}
+
+		changed = true;
+	}
+
+	/**
+	 * Remove entries for all jars other than those specified, e.g. for
+	 * plug-ins that have been uninstalled.
+	 * 
+	 * @param jarFiles
+	 *            The plug-in jars whose entries should be retained.
+	 */
+	public synchronized void retainAll(Collection<File> jarFiles) {
+		Set<String> keys = new HashSet<String>();
+		for (File jarFile : jarFiles) {
+			keys.add(jarFile.getName());
+		}
+
+		for (String propName : props.stringPropertyNames()) {
+			int index = propName.lastIndexOf('.');
+			if (index > 0 && !propName.equals(VERSION_KEY)
+					&& !keys.contains(propName.substring(0, index))) {
+				props.remove(propName);
+				changed = true;
+			}
+		}
+	}
+
+	// Helpers
+
+	private void remove(String key) {
+		for (String suffix : new String[] { SIZE, MODIFIED, CLASS, KIND,
+				NAME, DESCRIPTION, GROUP, INPUT_TYPE }) {
+			props.remove(key + suffix);
+		}
+	}
+
+	private void setIfNotNull(String propName, String value) {
+		if (value != null) {
+			props.setProperty(propName, value);
+		}
+	}
+
+	/**
+	 * The indexed metadata of a single plug-in.
+	 */
+	public static class Entry {
+		private String className;
+		private String kind;
+		private String displayName;
+		private String description;
+		private String group;
+		private InputType inputType;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param className
+		 *            The plug-in's qualified class name.
+		 * @param kind
+		 *            The qualified name of the plug-in base class of which the
+		 *            plug-in is an instance.
+		 * @param displayName
+		 *            The plug-in's display name.
+		 * @param description
+		 *            The plug-in's description.
+		 * @param group
+		 *            The plug-in's group (may be null).
+		 * @param inputType
+		 *            The input type of an observation source plug-in, or null.
+		 */
+		public Entry(String className, String kind, String displayName,
+				String description, String group, InputType inputType) {
+			this.className = className;
+			this.kind = kind;
+			this.displayName = displayName;
+			this.description = description;
+			this.group = group;
+			this.inputType = inputType;
+		}
+
+		/**
+		 * Create an entry from a plug-in instance.
+		 * 
+		 * @param plugin
+		 *            The plug-in.
+		 * @param kind
+		 *            The plug-in base class of which the plug-in is an
+		 *            instance.
+		 */
+		public Entry(IPlugin plugin, Class<? extends IPlugin> kind) {
+			this(plugin.getClass().getName(), kind.getName(), plugin
+					.getDisplayName(), plugin.getDescription(), plugin
+					.getGroup(),
+					plugin instanceof ObservationSourcePluginBase ? ((ObservationSourcePluginBase) plugin)
+							.getInputType() : null);
+		}
+
+		/**
+		 * @return the className
+		 */
+		public String getClassName() {
+			return className;
+		}
+
+		/**
+		 * @return the kind
+		 */
+		public String getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the displayName
+		 */
+		public String getDisplayName() {
+			return displayName;
+		}
+
+		/**
+		 * @return the description
+		 */
+		public String getDescription() {
+			return description;
+		}
+
+		/**
+		 * @return the group
+		 */
+		public String getGroup() {
+			return group;
+		}
+
+		/**
+		 * @return the inputType
+		 */
+		public InputType getInputType() {
+			return inputType;
+		}
+	}
+}
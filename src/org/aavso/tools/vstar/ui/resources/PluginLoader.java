@@ -24,7 +24,16 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
 
 import org.aavso.tools.vstar.plugin.CustomFilterPluginBase;
 import org.aavso.tools.vstar.plugin.GeneralToolPluginBase;
@@ -51,75 +60,135 @@ import org.aavso.tools.vstar.ui.dialog.MessageBox;
 
 /**
  * This class loads VStar plugins.
+ * 
+ * Plug-in metadata is read from the plug-in index where possible, so that a
+ * plug-in's classes are only loaded, and the plug-in instantiated, when it is
+ * first used. Plug-in jars without an up to date index entry are loaded in
+ * parallel at startup and indexed.
+ * 
+ * Each plug-in jar has its own class loader whose parent is a single class
+ * loader shared by all plug-ins for the jars in the plug-in libraries
+ * directory.
  */
 public class PluginLoader {
 
 	public final static String VSTAR_PLUGINS_DIR_NAME = "vstar_plugins";
 	public final static String VSTAR_PLUGIN_LIBS_DIR_NAME = "vstar_plugin_libs";
 
-	// List to store plugins, if any exist.
-	private static List<IPlugin> plugins = new ArrayList<IPlugin>();
-	private static List<URLClassLoader> pluginLoaders = new ArrayList<URLClassLoader>();	
+	// The plug-in base classes, one of which each plug-in must extend.
+	private final static List<Class<? extends IPlugin>> PLUGIN_KINDS = Arrays
+			.<Class<? extends IPlugin>> asList(PeriodAnalysisPluginBase.class,
+					ModelCreatorPluginBase.class,
+					ObservationToolPluginBase.class,
+					GeneralToolPluginBase.class,
+					ObservationTransformerPluginBase.class,
+					CustomFilterPluginBase.class,
+					ObservationSourcePluginBase.class,
+					ObservationSinkPluginBase.class);
+
+	// List to store plugin descriptors, if any exist.
+	private static List<PluginDescriptor<? extends IPlugin>> plugins = new ArrayList<PluginDescriptor<? extends IPlugin>>();
+	private static List<URLClassLoader> pluginLoaders = Collections
+			.synchronizedList(new ArrayList<URLClassLoader>());
+
+	// Additional libraries (as jars) on which plugins may be dependent.
+	private static List<URL> depLibs = new ArrayList<URL>();
+
+	// The parent class loader of all plugin class loaders, for the libraries
+	// on which plugins may be dependent, so that a library class shared by
+	// several plugins is loaded (and compiled) only once.
+	private static URLClassLoader pluginLibLoader = null;
 
 	/**
-	 * Return a list of Period Analysis plugins, whether internal to VStar or
-	 * dynamically loaded.
+	 * Return a list of Period Analysis plugin descriptors, whether internal to
+	 * VStar or dynamically loaded.
 	 */
-	public static List<PeriodAnalysisPluginBase> getPeriodAnalysisPlugins() {
-		List<PeriodAnalysisPluginBase> periodAnalysisPlugins = new ArrayList<PeriodAnalysisPluginBase>();
+	public static List<PluginDescriptor<PeriodAnalysisPluginBase>> getPeriodAnalysisPluginDescriptors() {
+		List<PluginDescriptor<PeriodAnalysisPluginBase>> periodAnalysisPlugins = new ArrayList<PluginDescriptor<PeriodAnalysisPluginBase>>();
 
 		// First, add in-built DC DFT and WWZ plugins.
-		periodAnalysisPlugins.add(new DcDftStandardScanPeriodAnalysisPlugin());
-		periodAnalysisPlugins
-				.add(new DcDftFrequencyRangePeriodAnalysisPlugin());
-		periodAnalysisPlugins.add(new DcDftPeriodRangePeriodAnalysisPlugin());
-
-		periodAnalysisPlugins
-				.add(new WeightedWaveletZTransformWithFrequencyRangePlugin());
-		periodAnalysisPlugins
-				.add(new WeightedWaveletZTransformWithPeriodRangePlugin());
+		addInternalPlugin(periodAnalysisPlugins,
+				PeriodAnalysisPluginBase.class,
+				new DcDftStandardScanPeriodAnalysisPlugin());
+		addInternalPlugin(periodAnalysisPlugins,
+				PeriodAnalysisPluginBase.class,
+				new DcDftFrequencyRangePeriodAnalysisPlugin());
+		addInternalPlugin(periodAnalysisPlugins,
+				PeriodAnalysisPluginBase.class,
+				new DcDftPeriodRangePeriodAnalysisPlugin());
+
+		addInternalPlugin(periodAnalysisPlugins,
+				PeriodAnalysisPluginBase.class,
+				new WeightedWaveletZTransformWithFrequencyRangePlugin());
+		addInternalPlugin(periodAnalysisPlugins,
+				PeriodAnalysisPluginBase.class,
+				new WeightedWaveletZTransformWithPeriodRangePlugin());
 
 		// Next, add all external period analysis plugins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof PeriodAnalysisPluginBase) {
-				periodAnalysisPlugins.add((PeriodAnalysisPluginBase) plugin);
-			}
-		}
+		addExternalPlugins(periodAnalysisPlugins,
+				PeriodAnalysisPluginBase.class);
 
 		return periodAnalysisPlugins;
 	}
 
 	/**
-	 * Return a list of Model Creator plugins, whether internal to VStar or
+	 * Return a list of Period Analysis plugins, whether internal to VStar or
 	 * dynamically loaded.
 	 */
-	public static List<ModelCreatorPluginBase> getModelCreatorPlugins() {
-		List<ModelCreatorPluginBase> modelCreatorPlugins = new ArrayList<ModelCreatorPluginBase>();
+	public static List<PeriodAnalysisPluginBase> getPeriodAnalysisPlugins() {
+		return getPlugins(getPeriodAnalysisPluginDescriptors());
+	}
+
+	/**
+	 * Return a list of Model Creator plugin descriptors, whether internal to
+	 * VStar or dynamically loaded.
+	 */
+	public static List<PluginDescriptor<ModelCreatorPluginBase>> getModelCreatorPluginDescriptors() {
+		List<PluginDescriptor<ModelCreatorPluginBase>> modelCreatorPlugins = new ArrayList<PluginDescriptor<ModelCreatorPluginBase>>();
 
 		// First, add in-built polynomial fit plugin.
-		modelCreatorPlugins.add(new ApacheCommonsPolynomialFitCreatorPlugin());
+		addInternalPlugin(modelCreatorPlugins, ModelCreatorPluginBase.class,
+				new ApacheCommonsPolynomialFitCreatorPlugin());
 
 		// Next, add all external model creator plugins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ModelCreatorPluginBase) {
-				modelCreatorPlugins.add((ModelCreatorPluginBase) plugin);
-			}
-		}
+		addExternalPlugins(modelCreatorPlugins, ModelCreatorPluginBase.class);
 
 		return modelCreatorPlugins;
 	}
 
+	/**
+	 * Return a list of Model Creator plugins, whether internal to VStar or
+	 * dynamically loaded.
+	 */
+	public static List<ModelCreatorPluginBase> getModelCreatorPlugins() {
+		return getPlugins(getModelCreatorPluginDescriptors());
+	}
+
+	/**
+	 * Return a list of VStar Observation Tool plugin descriptors.
+	 */
+	public static List<PluginDescriptor<ObservationToolPluginBase>> getObservationToolPluginDescriptors() {
+		List<PluginDescriptor<ObservationToolPluginBase>> toolPlugins = new ArrayList<PluginDescriptor<ObservationToolPluginBase>>();
+
+		addExternalPlugins(toolPlugins, ObservationToolPluginBase.class);
+
+		return toolPlugins;
+	}
+
 	/**
 	 * Return a list of VStar Observation Tool plugins.
 	 */
 	public static List<ObservationToolPluginBase> getObservationToolPlugins() {
-		List<ObservationToolPluginBase> toolPlugins = new ArrayList<ObservationToolPluginBase>();
+		return getPlugins(getObservationToolPluginDescriptors());
+	}
 
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ObservationToolPluginBase) {
-				toolPlugins.add((ObservationToolPluginBase) plugin);
-			}
-		}
+	/**
+	 * Return a list of General VStar Tool plugin descriptors.
+	 */
+	public static List<PluginDescriptor<GeneralToolPluginBase>> getGeneralToolPluginDescriptors() {
+		List<PluginDescriptor<GeneralToolPluginBase>> toolPlugins = new ArrayList<PluginDescriptor<GeneralToolPluginBase>>();
+
+		addExternalPlugins(toolPlugins, GeneralToolPluginBase.class);
 
 		return toolPlugins;
 	}
@@ -128,96 +197,108 @@ public class PluginLoader {
 	 * Return a list of General VStar Tool plugins.
 	 */
 	public static List<GeneralToolPluginBase> getGeneralToolPlugins() {
-		List<GeneralToolPluginBase> toolPlugins = new ArrayList<GeneralToolPluginBase>();
+		return getPlugins(getGeneralToolPluginDescriptors());
+	}
 
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof GeneralToolPluginBase) {
-				toolPlugins.add((GeneralToolPluginBase) plugin);
-			}
-		}
+	/**
+	 * Return a list of VStar Observation Transformer plugin descriptors.
+	 */
+	public static List<PluginDescriptor<ObservationTransformerPluginBase>> getObservationTransformerPluginDescriptors() {
+		List<PluginDescriptor<ObservationTransformerPluginBase>> transformerPlugins = new ArrayList<PluginDescriptor<ObservationTransformerPluginBase>>();
 
-		return toolPlugins;
+		addExternalPlugins(transformerPlugins,
+				ObservationTransformerPluginBase.class);
+
+		return transformerPlugins;
 	}
 
 	/**
 	 * Return a list of VStar Observation Transformer plugins.
 	 */
 	public static List<ObservationTransformerPluginBase> getObservationTransformerPlugins() {
-		List<ObservationTransformerPluginBase> transformerPlugins = new ArrayList<ObservationTransformerPluginBase>();
-
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ObservationTransformerPluginBase) {
-				transformerPlugins
-						.add((ObservationTransformerPluginBase) plugin);
-			}
-		}
-
-		return transformerPlugins;
+		return getPlugins(getObservationTransformerPluginDescriptors());
 	}
 
 	/**
-	 * Return a list of VStar Custom Filter plugins.
+	 * Return a list of VStar Custom Filter plugin descriptors.
 	 */
-	public static List<CustomFilterPluginBase> getCustomFilterPlugins() {
-		List<CustomFilterPluginBase> customFilterPlugins = new ArrayList<CustomFilterPluginBase>();
+	public static List<PluginDescriptor<CustomFilterPluginBase>> getCustomFilterPluginDescriptors() {
+		List<PluginDescriptor<CustomFilterPluginBase>> customFilterPlugins = new ArrayList<PluginDescriptor<CustomFilterPluginBase>>();
 
 		// First, add the VeLa filter plug-in.
-		customFilterPlugins.add(new VeLaFilterPlugin());
+		addInternalPlugin(customFilterPlugins, CustomFilterPluginBase.class,
+				new VeLaFilterPlugin());
 
 		// Next, add all external filter plug-ins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof CustomFilterPluginBase) {
-				customFilterPlugins.add((CustomFilterPluginBase) plugin);
-			}
-		}
+		addExternalPlugins(customFilterPlugins, CustomFilterPluginBase.class);
 
 		return customFilterPlugins;
 	}
 
 	/**
-	 * Return a list of VStar Observation Source plugins.
+	 * Return a list of VStar Custom Filter plugins.
 	 */
-	public static List<ObservationSourcePluginBase> getObservationSourcePlugins() {
-		List<ObservationSourcePluginBase> obSourcePlugins = new ArrayList<ObservationSourcePluginBase>();
+	public static List<CustomFilterPluginBase> getCustomFilterPlugins() {
+		return getPlugins(getCustomFilterPluginDescriptors());
+	}
+
+	/**
+	 * Return a list of VStar Observation Source plugin descriptors.
+	 */
+	public static List<PluginDescriptor<ObservationSourcePluginBase>> getObservationSourcePluginDescriptors() {
+		List<PluginDescriptor<ObservationSourcePluginBase>> obSourcePlugins = new ArrayList<PluginDescriptor<ObservationSourcePluginBase>>();
 
 		// First, add AAVSO observation reader plug-ins.
-		obSourcePlugins.add(new AIDWebServiceCSV2ObservationSourcePlugin());
-		obSourcePlugins.add(new TextFormatObservationSourcePlugin());
+		addInternalPlugin(obSourcePlugins, ObservationSourcePluginBase.class,
+				new AIDWebServiceCSV2ObservationSourcePlugin());
+		addInternalPlugin(obSourcePlugins, ObservationSourcePluginBase.class,
+				new TextFormatObservationSourcePlugin());
 
 		// Next, add all external observation source plug-ins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ObservationSourcePluginBase) {
-				obSourcePlugins.add((ObservationSourcePluginBase) plugin);
-			}
-		}
+		addExternalPlugins(obSourcePlugins, ObservationSourcePluginBase.class);
 
 		return obSourcePlugins;
 	}
 
 	/**
-	 * Return a list of VStar Observation Sink plugins.
+	 * Return a list of VStar Observation Source plugins.
 	 */
-	public static List<ObservationSinkPluginBase> getObservationSinkPlugins() {
-		List<ObservationSinkPluginBase> obSinkPlugins = new ArrayList<ObservationSinkPluginBase>();
+	public static List<ObservationSourcePluginBase> getObservationSourcePlugins() {
+		return getPlugins(getObservationSourcePluginDescriptors());
+	}
+
+	/**
+	 * Return a list of VStar Observation Sink plugin descriptors.
+	 */
+	public static List<PluginDescriptor<ObservationSinkPluginBase>> getObservationSinkPluginDescriptors() {
+		List<PluginDescriptor<ObservationSinkPluginBase>> obSinkPlugins = new ArrayList<PluginDescriptor<ObservationSinkPluginBase>>();
 
 		// First, add simple and AAVSO download text format plug-ins.
-		obSinkPlugins.add(new SimpleFormatObservationSinkPlugin());
-		obSinkPlugins.add(new DownloadFormatObservationSinkPlugin());
+		addInternalPlugin(obSinkPlugins, ObservationSinkPluginBase.class,
+				new SimpleFormatObservationSinkPlugin());
+		addInternalPlugin(obSinkPlugins, ObservationSinkPluginBase.class,
+				new DownloadFormatObservationSinkPlugin());
 
 		// Next, add all external observation sink plug-ins.
-		for (IPlugin plugin : plugins) {
-			if (plugin instanceof ObservationSinkPluginBase) {
-				obSinkPlugins.add((ObservationSinkPluginBase) plugin);
-			}
-		}
+		addExternalPlugins(obSinkPlugins, ObservationSinkPluginBase.class);
 
 		return obSinkPlugins;
 	}
-	
+
+	/**
+	 * Return a list of VStar Observation Sink plugins.
+	 */
+	public static List<ObservationSinkPluginBase> getObservationSinkPlugins() {
+		return getPlugins(getObservationSinkPluginDescriptors());
+	}
+
 	/**
-	 * Load all VStar plugins and create an instance of each.
+	 * Locate all VStar plugins. Plugins with an up to date index entry are
+	 * instantiated on first use; all others are loaded and instantiated (in
+	 * parallel) now, and indexed.
 	 */
 	public static void loadPlugins() {
+		long startTime = System.currentTimeMillis();
 
 		FilenameFilter jarFilter = new FilenameFilter() {
 			public boolean accept(File dir, String name) {
@@ -227,7 +308,7 @@ public class PluginLoader {
 
 		// Locate additional libraries (as jars) on which plugins may be
 		// dependent.
-		List<URL> depLibs = new ArrayList<URL>();
+		depLibs = new ArrayList<URL>();
 
 		File pluginLibPath = new File(System.getProperty("user.home")
 				+ File.separator + VSTAR_PLUGIN_LIBS_DIR_NAME);
@@ -255,99 +336,191 @@ public class PluginLoader {
 		File pluginPath = new File(System.getProperty("user.home")
 				+ File.separator + VSTAR_PLUGINS_DIR_NAME);
 
-		if (pluginPath.exists() && pluginPath.isDirectory()) {
-			for (File file : pluginPath.listFiles(jarFilter)) {
-				// Note: Currently assume the jar file name is the same
-				// as the qualified class to be loaded. Instead, we could
-				// use reflection to find the class implementing one or more
-				// IPlugin methods.
-				String qualifiedClassName = file.getName().replace(".jar", "");
+		if (!pluginPath.exists() || !pluginPath.isDirectory()) {
+			return;
+		}
+
+		List<File> jarFiles = Arrays.asList(pluginPath.listFiles(jarFilter));
+
+		long indexStartTime = System.currentTimeMillis();
+
+		PluginIndex index = new PluginIndex(new File(PluginIndex.INDEX_FILE));
+		index.load();
+
+		// Jars with an up to date index entry need not be opened now; the
+		// others are loaded in parallel to obtain their metadata.
+		List<PluginDescriptor<? extends IPlugin>> descriptors = new ArrayList<PluginDescriptor<? extends IPlugin>>();
+		List<Future<IPlugin>> scans = new ArrayList<Future<IPlugin>>();
+		List<File> scannedJarFiles = new ArrayList<File>();
+
+		ExecutorService executor = null;
+
+		for (final File file : jarFiles) {
+			PluginDescriptor<? extends IPlugin> descriptor = createDescriptor(
+					file, index.get(file));
+
+			descriptors.add(descriptor);
+
+			if (descriptor == null) {
+				if (executor == null) {
+					executor = createExecutor(jarFiles.size());
+				}
+
+				scans.add(executor.submit(new Callable<IPlugin>() {
+					@Override
+					public IPlugin call() throws Exception {
+						return loadPluginClass(file, classNameFromJar(file));
+					}
+				}));
+
+				scannedJarFiles.add(file);
+			}
+		}
+
+		long scanStartTime = System.currentTimeMillis();
+
+		// Collect the scanned plugins, reporting errors in jar order.
+		int scanIndex = 0;
+		for (int i = 0; i < descriptors.size(); i++) {
+			if (descriptors.get(i) == null) {
+				File file = scannedJarFiles.get(scanIndex);
+				Future<IPlugin> scan = scans.get(scanIndex);
+				scanIndex++;
+
+				String qualifiedClassName = classNameFromJar(file);
+
 				try {
-					loadPluginClass(file, qualifiedClassName,	depLibs);
-				} catch (MalformedURLException e) {
-					MessageBox.showErrorDialog(
-							null,
-							"Plugin Loader",
-							"Invalid plugin jar file: "
-									+ file.getAbsolutePath());
-				} catch (ClassNotFoundException e) {
-					MessageBox.showErrorDialog(null, "Plugin Loader",
-							"Cannot load class: " + qualifiedClassName);
-				} catch (IllegalAccessException e) {
-					MessageBox.showErrorDialog(null, "Plugin Loader",
-							"Cannot access a parameterless constructor of: "
-									+ qualifiedClassName);
-				} catch (InstantiationException e) {
-					MessageBox.showErrorDialog(null, "Plugin Loader",
-							"Cannot create an instance of: "
-									+ qualifiedClassName);
-				} catch (ClassCastException e) {
-					MessageBox.showErrorDialog(null, "Plugin Loader",
-							qualifiedClassName
-									+ " is not an instance of IPlugin");
-				} catch (NoClassDefFoundError e) {
-					MessageBox.showErrorDialog(
-							null,
-							"Plugin Loader",
-							"A class required by " + qualifiedClassName
-									+ " was not found: "
-									+ e.getLocalizedMessage());
-				} catch (Throwable t) {
-					MessageBox.showErrorDialog(
-							null,
-							"Plugin Loader",
-							"An error occurred during plugin loading: "
-									+ t.getLocalizedMessage());
+					IPlugin plugin = scan.get();
+					Class<? extends IPlugin> kind = kindOf(plugin);
+					if (kind != null) {
+						descriptors.set(i, createDescriptor(kind, plugin));
+						index.put(file, new PluginIndex.Entry(plugin, kind));
+					}
+				} catch (ExecutionException e) {
+					reportLoadError(file, qualifiedClassName, e.getCause());
+				} catch (InterruptedException e) {
+					reportLoadError(file, qualifiedClassName, e);
 				}
 			}
 		}
+
+		if (executor != null) {
+			executor.shutdown();
+		}
+
+		long scanEndTime = System.currentTimeMillis();
+
+		for (PluginDescriptor<? extends IPlugin> descriptor : descriptors) {
+			if (descriptor != null) {
+				plugins.add(descriptor);
+			}
+		}
+
+		index.retainAll(jarFiles);
+
+		try {
+			index.store();
+		} catch (IOException e) {
+			VStar.LOGGER.log(Level.WARNING, "Unable to write plug-in index "
+					+ PluginIndex.INDEX_FILE, e);
+		}
+
+		long endTime = System.currentTimeMillis();
+
+		VStar.LOGGER.info(String.format(
+				"Located %d plug-ins (%d indexed, %d loaded) in %d ms: "
+						+ "libraries %d ms, index %d ms, loading %d ms, "
+						+ "index update %d ms", plugins.size(),
+				jarFiles.size() - scannedJarFiles.size(),
+				scannedJarFiles.size(), endTime - startTime, indexStartTime
+						- startTime, scanStartTime - indexStartTime,
+				scanEndTime - scanStartTime, endTime - scanEndTime));
+	}
+
+	/**
+	 * Load and instantiate the plugin from the specified jar file, reporting
+	 * any error.
+	 * 
+	 * @param jarFile
+	 *            The full path to a jar file.
+	 * @param qualifiedClassName
+	 *            A qualified class name.
+	 * @param kind
+	 *            The plugin base class of which the plugin must be an
+	 *            instance.
+	 * @return The plugin, or null if it could not be loaded.
+	 */
+	static <P extends IPlugin> P instantiatePlugin(File jarFile,
+			String qualifiedClassName, Class<P> kind) {
+		P plugin = null;
+
+		long startTime = System.currentTimeMillis();
+
+		try {
+			plugin = kind.cast(loadPluginClass(jarFile, qualifiedClassName));
+
+			VStar.LOGGER.info(String.format("Loaded plug-in %s in %d ms",
+					qualifiedClassName, System.currentTimeMillis() - startTime));
+		} catch (Throwable t) {
+			reportLoadError(jarFile, qualifiedClassName, t);
+		}
+
+		return plugin;
 	}
 
 	/**
-	 * Load a class from the specified full-path to jar file.
+	 * Load a class from the specified full-path to jar file and create an
+	 * instance of it. Dependent library classes are loaded by the shared
+	 * plugin library class loader.
 	 * 
 	 * @param jarFile
 	 *            The full path to a jar file.
 	 * @param qualifiedClass
 	 *            A qualified class name.
-	 * @param depLibs
-	 *            The library (jar) files on which the jar plugin to be loaded
-	 *            may be dependent.
-	 * @return The loaded class.
+	 * @return The plugin instance.
 	 * @throws MalformedURLException
 	 *             If the jar path is not valid.
 	 * @throws ClassNotFoundException
 	 *             If the class cannot be loaded.
-	 * @throws IllegalAccessException 
+	 * @throws IllegalAccessException
 	 * 
-	 * @throws InstantiationException 
+	 * @throws InstantiationException
 	 */
-	private static void loadPluginClass(File jarFile, String qualifiedClassName,
-			List<URL> depLibs) throws MalformedURLException,
-			ClassNotFoundException, InstantiationException, IllegalAccessException {
-		URL url = jarFile.toURI().toURL();
-		List<URL> urlList = new ArrayList<URL>();
-		urlList.add(url);
-		urlList.addAll(depLibs);
-		URL[] urls = urlList.toArray(new URL[0]);
-		URLClassLoader cl = new URLClassLoader(urls, VStar.class.getClassLoader());
+	private static IPlugin loadPluginClass(File jarFile,
+			String qualifiedClassName) throws MalformedURLException,
+			ClassNotFoundException, InstantiationException,
+			IllegalAccessException {
+		URL[] urls = { jarFile.toURI().toURL() };
+		URLClassLoader cl = new URLClassLoader(urls, getPluginLibLoader());
+		pluginLoaders.add(cl);
 		Class<?> clazz = cl.loadClass(qualifiedClassName);
 		Object plugin = clazz.newInstance();
-		plugins.add((IPlugin) plugin);
-		pluginLoaders.add(cl);
+		return (IPlugin) plugin;
 	}
-	
+
 	public static void closePluginLoaders() {
 		// Max: closing ULRClassLoader:
 		// 	https://docs.oracle.com/javase/8/docs/technotes/guides/net/ClassLoader.html
 		boolean closePluginError = false;
-		for (int i = pluginLoaders.size() - 1; i >= 0; i--) {
-			URLClassLoader cl = pluginLoaders.get(i);
-			try {
-				cl.close();
-				pluginLoaders.remove(i);
-			} catch (IOException ex) {
-				closePluginError = true;
+		synchronized (pluginLoaders) {
+			for (int i = pluginLoaders.size() - 1; i >= 0; i--) {
+				URLClassLoader cl = pluginLoaders.get(i);
+				try {
+					cl.close();
+					pluginLoaders.remove(i);
+				} catch (IOException ex) {
+					closePluginError = true;
+				}
+			}
+		}
+		synchronized (PluginLoader.class) {
+			if (pluginLibLoader != null) {
+				try {
+					pluginLibLoader.close();
+					pluginLibLoader = null;
+				} catch (IOException ex) {
+					closePluginError = true;
+				}
 			}
 		}
 		if (closePluginError) {
@@ -355,5 +528,133 @@ public class PluginLoader {
 					"Error closing ClassLoader");
 		}
 	}
-	
+
+	// Helpers
+
+	private static synchronized ClassLoader getPluginLibLoader() {
+		if (pluginLibLoader == null) {
+			pluginLibLoader = new URLClassLoader(depLibs.toArray(new URL[0]),
+					VStar.class.getClassLoader());
+		}
+
+		return pluginLibLoader;
+	}
+
+	// Note: Currently assume the jar file name is the same as the qualified
+	// class to be loaded. Instead, we could use reflection to find the class
+	// implementing one or more IPlugin methods.
+	private static String classNameFromJar(File jarFile) {
+		return jarFile.getName().replace(".jar", "");
+	}
+
+	// Returns the plugin base class of which the plugin is an instance, or
+	// null if none.
+	private static Class<? extends IPlugin> kindOf(IPlugin plugin) {
+		for (Class<? extends IPlugin> kind : PLUGIN_KINDS) {
+			if (kind.isInstance(plugin)) {
+				return kind;
+			}
+		}
+
+		return null;
+	}
+
+	// Returns a descriptor for a plugin to be instantiated on first use, or
+	// null if there is no usable index entry.
+	@SuppressWarnings("unchecked")
+	private static PluginDescriptor<? extends IPlugin> createDescriptor(
+			File jarFile, PluginIndex.Entry entry) {
+		PluginDescriptor<? extends IPlugin> descriptor = null;
+
+		if (entry != null) {
+			for (Class<? extends IPlugin> kind : PLUGIN_KINDS) {
+				if (kind.getName().equals(entry.getKind())) {
+					descriptor = new PluginDescriptor<IPlugin>(
+							(Class<IPlugin>) kind, jarFile, entry);
+					break;
+				}
+			}
+		}
+
+		return descriptor;
+	}
+
+	private static <P extends IPlugin> PluginDescriptor<P> createDescriptor(
+			Class<P> kind, IPlugin plugin) {
+		return new PluginDescriptor<P>(kind, kind.cast(plugin));
+	}
+
+	private static <P extends IPlugin> void addInternalPlugin(
+			List<PluginDescriptor<P>> descriptors, Class<P> kind, P plugin) {
+		descriptors.add(new PluginDescriptor<P>(kind, plugin));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <P extends IPlugin> void addExternalPlugins(
+			List<PluginDescriptor<P>> descriptors, Class<P> kind) {
+		for (PluginDescriptor<? extends IPlugin> descriptor : plugins) {
+			if (descriptor.getKind() == kind) {
+				descriptors.add((PluginDescriptor<P>) descriptor);
+			}
+		}
+	}
+
+	// Returns the plugins of the specified descriptors, instantiating them if
+	// necessary and omitting any that cannot be loaded.
+	private static <P extends IPlugin> List<P> getPlugins(
+			List<PluginDescriptor<P>> descriptors) {
+		List<P> plugins = new ArrayList<P>();
+
+		for (PluginDescriptor<P> descriptor : descriptors) {
+			P plugin = descriptor.getPlugin();
+			if (plugin != null) {
+				plugins.add(plugin);
+			}
+		}
+
+		return plugins;
+	}
+
+	private static ExecutorService createExecutor(int jarCount) {
+		int threads = Math.max(1, Math.min(jarCount, Runtime.getRuntime()
+				.availableProcessors()));
+
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "VStar plug-in loader");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	private static void reportLoadError(File file, String qualifiedClassName,
+			Throwable t) {
+		if (t instanceof MalformedURLException) {
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					"Invalid plugin jar file: " + file.getAbsolutePath());
+		} else if (t instanceof ClassNotFoundException) {
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					"Cannot load class: " + qualifiedClassName);
+		} else if (t instanceof IllegalAccessException) {
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					"Cannot access a parameterless constructor of: "
+							+ qualifiedClassName);
+		} else if (t instanceof InstantiationException) {
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					"Cannot create an instance of: " + qualifiedClassName);
+		} else if (t instanceof ClassCastException) {
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					qualifiedClassName + " is not an instance of IPlugin");
+		} else if (t instanceof NoClassDefFoundError) {
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					"A class required by " + qualifiedClassName
+							+ " was not found: " + t.getLocalizedMessage());
+		} else {
+			MessageBox.showErrorDialog(null, "Plugin Loader",
+					"An error occurred during plugin loading: "
+							+ t.getLocalizedMessage());
+		}
+	}
 }
@@ -0,0 +1,94 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.task;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.aavso.tools.vstar.exception.CancellationException;
+import org.aavso.tools.vstar.util.IInteruptible;
+
+/**
+ * A cancellation token shared by a scheduled task and the algorithms it runs.
+ * Cancelling the token interrupts each registered algorithm (see
+ * IInteruptible), including any registered after cancellation, so that a
+ * task can be cancelled without affecting other tasks. Long-running code may
+ * also poll the token.
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled;
+
+	private List<IInteruptible> interruptibles;
+
+	/**
+	 * Constructor
+	 */
+	public CancellationToken() {
+		cancelled = false;
+		interruptibles = new CopyOnWriteArrayList<IInteruptible>();
+	}
+
+	/**
+	 * Register an algorithm to be interrupted when this token is cancelled. If
+	 * the token has already been cancelled, the algorithm is interrupted now.
+	 * 
+	 * @param interruptible
+	 *            The algorithm.
+	 */
+	public void addInterruptible(IInteruptible interruptible) {
+		interruptibles.add(interruptible);
+
+		if (cancelled) {
+			interruptible.interrupt();
+		}
+	}
+
+	/**
+	 * Cancel this token, interrupting each registered algorithm. Cancelling an
+	 * already cancelled token has no effect.
+	 */
+	public void cancel() {
+		if (!cancelled) {
+			cancelled = true;
+
+			for (IInteruptible interruptible : interruptibles) {
+				interruptible.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @return Has this token been cancelled?
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Throw an exception if this token has been cancelled.
+	 * 
+	 * @throws CancellationException
+	 *             if this token has been cancelled.
+	 */
+	public void checkCancelled() throws CancellationException {
+		if (cancelled) {
+			throw new CancellationException();
+		}
+	}
+}
@@ -34,7 +34,10 @@ import org.aavso.tools.vstar.exception.AuthenticationError;
 import org.aavso.tools.vstar.exception.CancellationException;
 import org.aavso.tools.vstar.exception.ConnectionException;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.ParallelObservationRetriever;
 import org.aavso.tools.vstar.input.database.Authenticator;
+import org.aavso.tools.vstar.input.snapshot.DeferredURLInputStream;
+import org.aavso.tools.vstar.input.snapshot.ObservationSnapshotCache;
 import org.aavso.tools.vstar.plugin.InputType;
 import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
 import org.aavso.tools.vstar.plugin.PluginComponentFactory;
@@ -61,6 +64,8 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 
 	private List<InputStream> streams;
 
+	private List<String> inputIds;
+
 	private AbstractObservationRetriever retriever;
 
 	private int obsCount;
@@ -101,6 +106,7 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 
 			// Set input streams and name, if requested by the plug-in.
 			streams = new ArrayList<InputStream>();
+			inputIds = new ArrayList<String>();
 
 			switch (obSourcePlugin.getInputType()) {
 			case FILE:
@@ -115,6 +121,7 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 					    InputStream stream = new FileInputStream(file);
                         obSourcePlugin.addStreamNamePair(stream, file.getName());
 						streams.add(stream);
+						inputIds.add(ObservationSnapshotCache.getFileIdentity(file));
 						fileNames += file.getName() + ", ";
 					}
 					fileNames = fileNames.substring(0,
@@ -156,8 +163,10 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 						if (fileChooser.isUrlProvided()) {
 							String urlStr = fileChooser.getUrlString();
 							URL url = new URL(urlStr);
-							InputStream stream = url.openConnection().getInputStream();
+							InputStream stream = new DeferredURLInputStream(obSourcePlugin, url);
 							streams.add(stream);
+							inputIds.add(ObservationSnapshotCache.getURLIdentity(
+									obSourcePlugin, url));
 							obSourcePlugin.setInputInfo(streams, urlStr);
                             obSourcePlugin.clearStreamNameMap(); 
                             obSourcePlugin.addStreamNamePair(stream, urlStr);
@@ -169,6 +178,7 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 							    for (File file : selectedFiles) {
 							        InputStream stream = new FileInputStream(file);
     								streams.add(stream);    								
+    								inputIds.add(ObservationSnapshotCache.getFileIdentity(file));
     		                        obSourcePlugin.addStreamNamePair(stream, file.getName());
     		                        fileNames += file.getName() + ", ";
 			                    }
@@ -206,8 +216,10 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 					String urlStrs = "";
                     obSourcePlugin.clearStreamNameMap();
 					for (URL url : urls) {
-					    InputStream stream = url.openStream();
+					    InputStream stream = new DeferredURLInputStream(obSourcePlugin, url);
 						streams.add(stream);
+						inputIds.add(ObservationSnapshotCache.getURLIdentity(
+								obSourcePlugin, url));
                         obSourcePlugin.addStreamNamePair(stream, url.getPath());
 						urlStrs += url.getPath() + ", ";
 					}
@@ -229,8 +241,10 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 						obSourcePlugin.setAdditive(additiveLoadCheckbox
 								.getValue());
 						URL url = new URL(urlStr);
-						InputStream stream = url.openStream();
+						InputStream stream = new DeferredURLInputStream(obSourcePlugin, url);
 						streams.add(stream);
+						inputIds.add(ObservationSnapshotCache.getURLIdentity(
+								obSourcePlugin, url));
 						obSourcePlugin.setInputInfo(streams, urlStr);
 	                    obSourcePlugin.clearStreamNameMap();
                         obSourcePlugin.addStreamNamePair(stream, urlStr);
@@ -249,7 +263,9 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 			// Retrieve the observations. If the retriever can return
 			// the number of records, we can show updated progress,
 			// otherwise just show busy state.
-			retriever = obSourcePlugin.getObservationRetriever();
+			// Multiple inputs are read in parallel if the plug-in allows.
+			retriever = ParallelObservationRetriever
+					.getObservationRetriever(obSourcePlugin);
 			
 			// #PMAK#20211229#1#:
 			//	if the retriever has configuration dialog (see, for example, ASAS-SN plug-in)
@@ -316,6 +332,18 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 	 */
 	protected void createObservationArtefacts() {
 		try {
+			// Use a snapshot of an earlier load from the same source if there
+			// is one, otherwise snapshot this load once complete.
+			ObservationSnapshotCache snapshots = ObservationSnapshotCache
+					.getInstance();
+			String snapshotKey = ObservationSnapshotCache.createKey(
+					obSourcePlugin, inputIds);
+			AbstractObservationRetriever snapshotRetriever = snapshots.get(
+					snapshotKey, obSourcePlugin.getSnapshotMaxAge());
+			if (snapshotRetriever != null) {
+				retriever = snapshotRetriever;
+			}
+
 			int plotPortion = 0;
 			Integer numRecords = retriever.getNumberOfRecords();
 			if (numRecords == null) {
@@ -347,6 +375,10 @@ public class NewStarFromObSourcePluginTask extends SwingWorker<Void, Void> {
 					String msg = "No observations found.";
 					MessageBox.showErrorDialog("Observation Read Error", msg);
 				} else {
+					if (snapshotRetriever == null) {
+						snapshots.put(snapshotKey, retriever);
+					}
+
 					// Create plots, tables.
 					mediator.createNewStarObservationArtefacts(
 							obSourcePlugin.getNewStarType(),
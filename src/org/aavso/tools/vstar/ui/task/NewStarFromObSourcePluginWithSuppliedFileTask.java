@@ -32,7 +32,9 @@ import org.aavso.tools.vstar.exception.CancellationException;
 import org.aavso.tools.vstar.exception.ConnectionException;
 import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.ParallelObservationRetriever;
 import org.aavso.tools.vstar.input.database.Authenticator;
+import org.aavso.tools.vstar.input.snapshot.ObservationSnapshotCache;
 import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
@@ -106,16 +108,30 @@ public class NewStarFromObSourcePluginWithSuppliedFileTask extends
 	protected void createObservationArtefacts() {
 
 		List<InputStream> streams = new ArrayList<InputStream>();
+		List<String> inputIds = new ArrayList<String>();
 
 		try {
 			try {
 				// Set input streams and name, if requested by the plug-in.
 				streams.add(new FileInputStream(inputFile));
+				inputIds.add(ObservationSnapshotCache.getFileIdentity(inputFile));
 				obSourcePlugin.setInputInfo(streams, inputFile.getName());
 
 				// Retrieve the observations.
-				AbstractObservationRetriever retriever = obSourcePlugin
-						.getObservationRetriever();
+				AbstractObservationRetriever retriever = ParallelObservationRetriever
+						.getObservationRetriever(obSourcePlugin);
+
+				// Use a snapshot of an earlier load from the same source if
+				// there is one, otherwise snapshot this load once complete.
+				ObservationSnapshotCache snapshots = ObservationSnapshotCache
+						.getInstance();
+				String snapshotKey = ObservationSnapshotCache.createKey(
+						obSourcePlugin, inputIds);
+				AbstractObservationRetriever snapshotRetriever = snapshots
+						.get(snapshotKey, obSourcePlugin.getSnapshotMaxAge());
+				if (snapshotRetriever != null) {
+					retriever = snapshotRetriever;
+				}
 
 				// We don't need the return value (number of records)
 				// in this context (scripting) but a plug-in may use
@@ -135,6 +151,10 @@ public class NewStarFromObSourcePluginWithSuppliedFileTask extends
 					throw new ObservationReadError(
 							"No observations for the specified period or error in observation source.");
 				} else {
+					if (snapshotRetriever == null) {
+						snapshots.put(snapshotKey, retriever);
+					}
+
 					// Create plots, tables.
 					NewStarType type = obSourcePlugin.getNewStarType();
 					mediator.createNewStarObservationArtefacts(type,
@@ -31,7 +31,10 @@ import org.aavso.tools.vstar.exception.CancellationException;
 import org.aavso.tools.vstar.exception.ConnectionException;
 import org.aavso.tools.vstar.exception.ObservationReadError;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.ParallelObservationRetriever;
 import org.aavso.tools.vstar.input.database.Authenticator;
+import org.aavso.tools.vstar.input.snapshot.DeferredURLInputStream;
+import org.aavso.tools.vstar.input.snapshot.ObservationSnapshotCache;
 import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
 import org.aavso.tools.vstar.ui.dialog.MessageBox;
 import org.aavso.tools.vstar.ui.mediator.Mediator;
@@ -105,18 +108,34 @@ public class NewStarFromObSourcePluginWithSuppliedURLTask extends
 	 */
 	protected void createObservationArtefacts() {
 		List<InputStream> streams = new ArrayList<InputStream>();
+		List<String> inputIds = new ArrayList<String>();
 
 		try {
 			try {
 				if (inputURL != null) {
 					// Set input streams and name, if requested by the plug-in.
-					streams.add(inputURL.openStream());
+					streams.add(new DeferredURLInputStream(obSourcePlugin,
+							inputURL));
+					inputIds.add(ObservationSnapshotCache.getURLIdentity(
+							obSourcePlugin, inputURL));
 					obSourcePlugin.setInputInfo(streams, inputURL.getPath());
 				}
 
 				// Retrieve the observations.
-				AbstractObservationRetriever retriever = obSourcePlugin
-						.getObservationRetriever();
+				AbstractObservationRetriever retriever = ParallelObservationRetriever
+						.getObservationRetriever(obSourcePlugin);
+
+				// Use a snapshot of an earlier load from the same source if
+				// there is one, otherwise snapshot this load once complete.
+				ObservationSnapshotCache snapshots = ObservationSnapshotCache
+						.getInstance();
+				String snapshotKey = ObservationSnapshotCache.createKey(
+						obSourcePlugin, inputIds);
+				AbstractObservationRetriever snapshotRetriever = snapshots
+						.get(snapshotKey, obSourcePlugin.getSnapshotMaxAge());
+				if (snapshotRetriever != null) {
+					retriever = snapshotRetriever;
+				}
 
 				// We don't need the return value (number of records)
 				// in this context (scripting) but a plug-in may use
@@ -136,6 +155,10 @@ public class NewStarFromObSourcePluginWithSuppliedURLTask extends
 					throw new ObservationReadError(
 							"No observations for the specified period or error in observation source.");
 				} else {
+					if (snapshotRetriever == null) {
+						snapshots.put(snapshotKey, retriever);
+					}
+
 					// Create plots, tables.
 					NewStarType type = obSourcePlugin.getNewStarType();
 					mediator.createNewStarObservationArtefacts(type,
@@ -72,9 +72,12 @@ public class PhasePlotTask extends SwingWorker<Void, Void> {
 	 * Executed in event dispatching thread.
 	 */
 	public void done() {
-		Mediator.getInstance().setAnalysisType(AnalysisType.PHASE_PLOT);
-		
-		Mediator.getInstance().setPhasePlotStatusMessage();
+		// A cancelled task may not have created the phase plot.
+		if (!isCancelled()) {
+			Mediator.getInstance().setAnalysisType(AnalysisType.PHASE_PLOT);
+
+			Mediator.getInstance().setPhasePlotStatusMessage();
+		}
 
 		Mediator.getInstance().getProgressNotifier().notifyListeners(
 				ProgressInfo.COMPLETE_PROGRESS);
@@ -0,0 +1,262 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.task;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RunnableFuture;
+
+import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
+
+/**
+ * A task submitted to a task scheduler (see TaskScheduler). It wraps the work
+ * to be done, normally a SwingWorker, with a description, a priority, whether
+ * it is exclusive of other tasks, a cancellation token, and the task's progress
+ * as reported via ProgressInfo messages sent while it runs.
+ */
+public class ScheduledTask implements Runnable, Comparable<ScheduledTask> {
+
+	/**
+	 * The state of a scheduled task.
+	 */
+	public enum State {
+		QUEUED("Queued"), RUNNING("Running"), DONE("Done"), CANCELLED(
+				"Cancelled");
+
+		private String description;
+
+		private State(String description) {
+			this.description = description;
+		}
+
+		/**
+		 * @return the description
+		 */
+		public String getDescription() {
+			return description;
+		}
+	}
+
+	private final TaskScheduler scheduler;
+	private final String description;
+	private final TaskPriority priority;
+	private final boolean exclusive;
+	private final long sequence;
+	private final RunnableFuture<?> work;
+	private final CancellationToken token;
+
+	private volatile State state;
+
+	// Released when the task is done or cancelled.
+	private final CountDownLatch finished;
+
+	private int minProgress;
+	private int maxProgress;
+	private int progress;
+	private boolean busy;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param scheduler
+	 *            The scheduler that runs this task.
+	 * @param description
+	 *            A description of the task, for display.
+	 * @param priority
+	 *            The task's priority.
+	 * @param exclusive
+	 *            Must the task run when no other task is running?
+	 * @param sequence
+	 *            The task's submission sequence number.
+	 * @param work
+	 *            The work to be done.
+	 */
+	ScheduledTask(TaskScheduler scheduler, String description,
+			TaskPriority priority, boolean exclusive, long sequence,
+			RunnableFuture<?> work) {
+		this.scheduler = scheduler;
+		this.description = description;
+		this.priority = priority;
+		this.exclusive = exclusive;
+		this.sequence = sequence;
+		this.work = work;
+		this.token = new CancellationToken();
+		this.finished = new CountDownLatch(1);
+
+		state = State.QUEUED;
+		busy = true;
+	}
+
+	/**
+	 * Run the task's work unless the task has been cancelled. Called by the
+	 * scheduler's worker threads.
+	 */
+	@Override
+	public void run() {
+		if (scheduler.start(this)) {
+			try {
+				work.run();
+			} finally {
+				scheduler.finish(this, work.isCancelled() ? State.CANCELLED
+						: State.DONE);
+			}
+		}
+	}
+
+	/**
+	 * Cancel this task: its token is cancelled, interrupting its algorithms,
+	 * and its work is cancelled, interrupting the worker thread if it is
+	 * running. A queued task will not be run.
+	 */
+	public void cancel() {
+		token.cancel();
+		work.cancel(true);
+		scheduler.dequeue(this);
+	}
+
+	/**
+	 * Wait for this task to complete or, if cancelled, to stop running. For a
+	 * SwingWorker, this is when doInBackground() returns; its done() method
+	 * may not yet have been invoked.
+	 * 
+	 * @throws InterruptedException
+	 *             if the calling thread was interrupted while waiting.
+	 */
+	public void waitForCompletion() throws InterruptedException {
+		finished.await();
+	}
+
+	/**
+	 * @return the description
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * @return the priority
+	 */
+	public TaskPriority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * @return Must this task run when no other task is running?
+	 */
+	public boolean isExclusive() {
+		return exclusive;
+	}
+
+	/**
+	 * @return the cancellation token
+	 */
+	public CancellationToken getToken() {
+		return token;
+	}
+
+	/**
+	 * @return the state
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * @return Has this task completed or been cancelled?
+	 */
+	public boolean isDone() {
+		return state == State.DONE || state == State.CANCELLED;
+	}
+
+	/**
+	 * Update this task's progress from a progress message sent while it runs.
+	 * 
+	 * @param info
+	 *            The progress information.
+	 */
+	public synchronized void updateProgress(ProgressInfo info) {
+		switch (info.getType()) {
+		case MIN_PROGRESS:
+			minProgress = info.getNum();
+			break;
+		case MAX_PROGRESS:
+			maxProgress = info.getNum();
+			busy = false;
+			break;
+		case START_PROGRESS:
+			progress = minProgress;
+			break;
+		case INCREMENT_PROGRESS:
+			progress = Math.min(progress + info.getNum(), maxProgress);
+			break;
+		case COMPLETE_PROGRESS:
+			progress = maxProgress;
+			break;
+		case CLEAR_PROGRESS:
+			progress = minProgress;
+			break;
+		case BUSY_PROGRESS:
+			busy = true;
+			break;
+		}
+	}
+
+	/**
+	 * @return The amount of work done so far, relative to the minimum
+	 *         progress value.
+	 */
+	public synchronized int getProgress() {
+		return progress - minProgress;
+	}
+
+	/**
+	 * @return The amount of work to be done; 0 if unknown, e.g. if the task
+	 *         is busy (in indeterminate mode).
+	 */
+	public synchronized int getProgressRange() {
+		return busy || maxProgress <= minProgress ? 0 : maxProgress
+				- minProgress;
+	}
+
+	/**
+	 * Order tasks by priority, then submission order.
+	 */
+	@Override
+	public int compareTo(ScheduledTask other) {
+		int result = priority.compareTo(other.priority);
+
+		if (result == 0) {
+			result = Long.compare(sequence, other.sequence);
+		}
+
+		return result;
+	}
+
+	// Called by the scheduler.
+	void setState(State state) {
+		this.state = state;
+
+		if (isDone()) {
+			finished.countDown();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return description + " (" + state.getDescription() + ")";
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.task;
+
+/**
+ * The priority of a scheduled task. When all of the task scheduler's worker
+ * threads are busy, queued tasks are started in priority order, then in the
+ * order in which they were submitted.
+ */
+public enum TaskPriority {
+
+	/**
+	 * A task whose result the user is waiting for, e.g. a phase plot or
+	 * polynomial fit.
+	 */
+	INTERACTIVE("Interactive"),
+
+	/**
+	 * A potentially long-running task, e.g. a period analysis, which should
+	 * not delay interactive tasks.
+	 */
+	BATCH("Batch");
+
+	private String description;
+
+	private TaskPriority(String description) {
+		this.description = description;
+	}
+
+	/**
+	 * @return the description
+	 */
+	public String getDescription() {
+		return description;
+	}
+}
@@ -0,0 +1,503 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
+import org.aavso.tools.vstar.util.IInteruptible;
+import org.aavso.tools.vstar.util.notification.Listener;
+import org.aavso.tools.vstar.util.notification.Notifier;
+
+/**
+ * This class schedules background tasks, normally SwingWorkers, on a bounded
+ * pool of worker threads rather than tracking a single current task. Tasks
+ * may therefore run concurrently, e.g. a polynomial fit while a long period
+ * analysis runs, up to the number of worker threads. Beyond that, tasks are
+ * queued and started in priority order (see TaskPriority), then submission
+ * order.
+ * <p>
+ * An exclusive task, e.g. an observation load, never runs at the same time as
+ * any other task: it waits for running tasks to complete, and tasks queued
+ * behind it wait for it (see submitExclusive()). Tasks are held by the
+ * scheduler until they may run, so waiting tasks do not occupy worker
+ * threads.
+ * </p>
+ * <p>
+ * Each task has a cancellation token to which the algorithms it runs are
+ * registered, so cancelling a task interrupts only its own algorithms (see
+ * ScheduledTask.cancel()).
+ * </p>
+ * <p>
+ * Progress messages sent from a worker thread while it runs a task are
+ * recorded against that task (see createProgressListener()), allowing the
+ * progress of concurrent tasks to be reported individually and in aggregate.
+ * Listeners to the task notifier are notified, on the thread making the
+ * change, whenever a task is submitted, started, or completes.
+ * </p>
+ * <p>
+ * Work that a running task must wait upon is submitted to the subtask
+ * executor (see getSubtaskExecutor()) rather than as another task, since
+ * waiting on a queued task from a worker thread could deadlock the pool.
+ * Both are stopped by shutdown().
+ * </p>
+ */
+public class TaskScheduler {
+
+	/**
+	 * The default number of worker threads.
+	 */
+	public static final int DEFAULT_THREADS = Math.max(2, Math.min(4, Runtime
+			.getRuntime().availableProcessors()));
+
+	// The task being run by the current worker thread, if any.
+	private static final ThreadLocal<ScheduledTask> currentTask = new ThreadLocal<ScheduledTask>();
+
+	private final ThreadPoolExecutor executor;
+
+	// Executor for work on which running tasks wait; created on demand.
+	private ExecutorService subtaskExecutor;
+
+	// Queued and running tasks, in submission order.
+	private final List<ScheduledTask> tasks;
+
+	private final AtomicLong sequence;
+
+	// Tasks that may not yet be passed to the executor, in priority order,
+	// and those that have been but are not yet finished. Both are guarded by
+	// the pending queue.
+	private final PriorityQueue<ScheduledTask> pending;
+	private final Set<ScheduledTask> dispatched;
+	private boolean exclusiveDispatched;
+
+	private final Notifier<ScheduledTask> taskNotifier;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param threads
+	 *            The number of worker threads.
+	 */
+	public TaskScheduler(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Invalid thread count: "
+					+ threads);
+		}
+
+		executor = new ThreadPoolExecutor(threads, threads, 0L,
+				TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "VStar task");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+		tasks = new ArrayList<ScheduledTask>();
+		sequence = new AtomicLong();
+		pending = new PriorityQueue<ScheduledTask>();
+		dispatched = new HashSet<ScheduledTask>();
+		exclusiveDispatched = false;
+
+		taskNotifier = new Notifier<ScheduledTask>();
+		taskNotifier.setHistoryCapacity(0);
+	}
+
+	/**
+	 * Return the task being run by the calling thread, e.g. so that a task
+	 * can register algorithms with, or poll, its cancellation token.
+	 * 
+	 * @return The task, or null if the calling thread is not running a
+	 *         scheduled task.
+	 */
+	public static ScheduledTask getCurrentTask() {
+		return currentTask.get();
+	}
+
+	/**
+	 * Submit work to be run on a worker thread.
+	 * 
+	 * @param description
+	 *            A description of the task, for display.
+	 * @param priority
+	 *            The task's priority.
+	 * @param work
+	 *            The work to be done, e.g. a SwingWorker, which must not be
+	 *            executed by other means.
+	 * @param interruptibles
+	 *            Algorithms to be interrupted if the task is cancelled.
+	 * @return The scheduled task.
+	 */
+	public ScheduledTask submit(String description, TaskPriority priority,
+			RunnableFuture<?> work, IInteruptible... interruptibles) {
+		return submit(description, priority, false, work, interruptibles);
+	}
+
+	/**
+	 * Submit work to be run on a worker thread when no other task is running,
+	 * e.g. work that replaces the data on which other tasks operate. Tasks
+	 * queued behind it, i.e. submitted after it with the same or a lower
+	 * priority, do not start until it has completed.
+	 * 
+	 * @param description
+	 *            A description of the task, for display.
+	 * @param priority
+	 *            The task's priority.
+	 * @param work
+	 *            The work to be done, e.g. a SwingWorker, which must not be
+	 *            executed by other means.
+	 * @param interruptibles
+	 *            Algorithms to be interrupted if the task is cancelled.
+	 * @return The scheduled task.
+	 */
+	public ScheduledTask submitExclusive(String description,
+			TaskPriority priority, RunnableFuture<?> work,
+			IInteruptible... interruptibles) {
+		return submit(description, priority, true, work, interruptibles);
+	}
+
+	private ScheduledTask submit(String description, TaskPriority priority,
+			boolean exclusive, RunnableFuture<?> work,
+			IInteruptible... interruptibles) {
+
+		ScheduledTask task = new ScheduledTask(this, description, priority,
+				exclusive, sequence.getAndIncrement(), work);
+
+		for (IInteruptible interruptible : interruptibles) {
+			task.getToken().addInterruptible(interruptible);
+		}
+
+		synchronized (tasks) {
+			tasks.add(task);
+		}
+
+		taskNotifier.notifyListeners(task);
+
+		synchronized (pending) {
+			pending.add(task);
+		}
+
+		dispatch();
+
+		return task;
+	}
+
+	/**
+	 * @return A snapshot of the queued and running tasks, in submission
+	 *         order.
+	 */
+	public List<ScheduledTask> getTasks() {
+		synchronized (tasks) {
+			return new ArrayList<ScheduledTask>(tasks);
+		}
+	}
+
+	/**
+	 * @return Are there queued or running tasks?
+	 */
+	public boolean hasActiveTasks() {
+		return getActiveTaskCount() != 0;
+	}
+
+	/**
+	 * @return The number of queued and running tasks.
+	 */
+	public int getActiveTaskCount() {
+		synchronized (tasks) {
+			return tasks.size();
+		}
+	}
+
+	/**
+	 * @return The number of queued and running exclusive tasks.
+	 */
+	public int getActiveExclusiveTaskCount() {
+		int count = 0;
+
+		synchronized (tasks) {
+			for (ScheduledTask task : tasks) {
+				if (task.isExclusive()) {
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Cancel all queued and running tasks.
+	 */
+	public void cancelAll() {
+		for (ScheduledTask task : getTasks()) {
+			task.cancel();
+		}
+	}
+
+	/**
+	 * Block until all tasks submitted so far have completed or been cancelled.
+	 * Tasks submitted while waiting are not waited for.
+	 */
+	public void waitForCompletion() {
+		try {
+			for (ScheduledTask task : getTasks()) {
+				task.waitForCompletion();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Return the executor for work on which a running task waits, e.g. model
+	 * creation done concurrently with other work in the same task. Its
+	 * threads are not bounded by the scheduler's worker count.
+	 * 
+	 * @return The subtask executor.
+	 */
+	public synchronized ExecutorService getSubtaskExecutor() {
+		if (subtaskExecutor == null) {
+			subtaskExecutor = Executors
+					.newCachedThreadPool(new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "VStar subtask");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+
+			if (executor.isShutdown()) {
+				subtaskExecutor.shutdown();
+			}
+		}
+
+		return subtaskExecutor;
+	}
+
+	/**
+	 * Cancel all tasks and stop the worker and subtask threads. Tasks
+	 * submitted after this are cancelled without being run.
+	 */
+	public void shutdown() {
+		cancelAll();
+
+		executor.shutdownNow();
+
+		synchronized (this) {
+			if (subtaskExecutor != null) {
+				subtaskExecutor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * @return Has this scheduler been shut down?
+	 */
+	public boolean isShutdown() {
+		return executor.isShutdown();
+	}
+
+	/**
+	 * Block until the worker and subtask threads have terminated after a
+	 * shutdown, or the timeout expires.
+	 * 
+	 * @param timeoutMillis
+	 *            The timeout in milliseconds.
+	 * @return Whether all threads terminated.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting.
+	 */
+	public boolean awaitTermination(long timeoutMillis)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+
+		boolean terminated = executor.awaitTermination(timeoutMillis,
+				TimeUnit.MILLISECONDS);
+
+		ExecutorService subtasks;
+		synchronized (this) {
+			subtasks = subtaskExecutor;
+		}
+
+		if (terminated && subtasks != null) {
+			terminated = subtasks.awaitTermination(
+					Math.max(0, deadline - System.currentTimeMillis()),
+					TimeUnit.MILLISECONDS);
+		}
+
+		return terminated;
+	}
+
+	/**
+	 * Return the aggregate progress of the running tasks whose progress is
+	 * known, as a percentage.
+	 * 
+	 * @return The percentage, or -1 if no running task's progress is known.
+	 */
+	public int getProgressPercentage() {
+		long progress = 0;
+		long range = 0;
+
+		for (ScheduledTask task : getTasks()) {
+			int taskRange = task.getProgressRange();
+			if (task.getState() == ScheduledTask.State.RUNNING
+					&& taskRange > 0) {
+				progress += task.getProgress();
+				range += taskRange;
+			}
+		}
+
+		return range == 0 ? -1 : (int) (100 * progress / range);
+	}
+
+	/**
+	 * @return The notifier of task submission, start and completion.
+	 */
+	public Notifier<ScheduledTask> getTaskNotifier() {
+		return taskNotifier;
+	}
+
+	/**
+	 * Create a progress listener that records progress messages sent from a
+	 * worker thread against the task it is running. The listener must be
+	 * added to a notifier that delivers messages synchronously.
+	 * 
+	 * @return The progress listener.
+	 */
+	public Listener<ProgressInfo> createProgressListener() {
+		return new Listener<ProgressInfo>() {
+			@Override
+			public void update(ProgressInfo info) {
+				ScheduledTask task = currentTask.get();
+				if (task != null) {
+					task.updateProgress(info);
+				}
+			}
+
+			@Override
+			public boolean canBeRemoved() {
+				return false;
+			}
+		};
+	}
+
+	// Task life-cycle, called by scheduled tasks.
+
+	// Mark the task as running on the calling thread unless it has been
+	// cancelled, in which case it is finished instead; returns whether the
+	// task should be run.
+	boolean start(ScheduledTask task) {
+		boolean run = !task.getToken().isCancelled();
+
+		if (run) {
+			currentTask.set(task);
+			task.setState(ScheduledTask.State.RUNNING);
+			taskNotifier.notifyListeners(task);
+		} else {
+			finish(task, ScheduledTask.State.CANCELLED);
+		}
+
+		return run;
+	}
+
+	// Remove the task from the queue if it has not yet started, finishing it.
+	void dequeue(ScheduledTask task) {
+		boolean removed;
+
+		synchronized (pending) {
+			removed = pending.remove(task);
+		}
+
+		if (removed || executor.remove(task)) {
+			finish(task, ScheduledTask.State.CANCELLED);
+		}
+	}
+
+	void finish(ScheduledTask task, ScheduledTask.State state) {
+		if (currentTask.get() == task) {
+			currentTask.remove();
+		}
+
+		synchronized (tasks) {
+			tasks.remove(task);
+		}
+
+		synchronized (pending) {
+			if (dispatched.remove(task) && task.isExclusive()) {
+				exclusiveDispatched = false;
+			}
+		}
+
+		task.setState(state);
+
+		taskNotifier.notifyListeners(task);
+
+		// Tasks waiting for this one may now run.
+		dispatch();
+	}
+
+	// Pass pending tasks to the executor, in priority order, while they may
+	// run: an exclusive task once all dispatched tasks have finished, and no
+	// other task while an exclusive task is waiting or dispatched.
+	private void dispatch() {
+		List<ScheduledTask> ready = new ArrayList<ScheduledTask>();
+
+		synchronized (pending) {
+			while (!pending.isEmpty() && !exclusiveDispatched) {
+				ScheduledTask task = pending.peek();
+
+				if (task.isExclusive()) {
+					if (!dispatched.isEmpty()) {
+						break;
+					}
+					exclusiveDispatched = true;
+				}
+
+				pending.poll();
+				dispatched.add(task);
+				ready.add(task);
+			}
+		}
+
+		for (ScheduledTask task : ready) {
+			try {
+				executor.execute(task);
+			} catch (RejectedExecutionException e) {
+				// The scheduler has been shut down.
+				task.getToken().cancel();
+				finish(task, ScheduledTask.State.CANCELLED);
+			}
+		}
+	}
+}
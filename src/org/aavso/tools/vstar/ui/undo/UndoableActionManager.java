@@ -31,6 +31,7 @@ import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
 import org.aavso.tools.vstar.ui.mediator.message.UndoActionMessage;
 import org.aavso.tools.vstar.ui.mediator.message.UndoableActionType;
+import org.aavso.tools.vstar.ui.task.TaskPriority;
 import org.aavso.tools.vstar.ui.task.UndoableActionTask;
 import org.aavso.tools.vstar.util.notification.Listener;
 
@@ -148,7 +149,8 @@ public class UndoableActionManager {
 		Mediator.getInstance().getProgressNotifier()
 				.notifyListeners(ProgressInfo.BUSY_PROGRESS);
 
-		task.execute();
+		Mediator.getInstance().getTaskScheduler().submit(
+				action.getDisplayString(), TaskPriority.INTERACTIVE, task);
 
 		return task;
 	}
@@ -169,9 +171,15 @@ public class UndoableActionManager {
 					undoObs, true);
 
 			// Perform the exclusion action, then add its opposite to the undo
-			// stack.
-			action.execute(UndoableActionType.DO);
-			addAction(action, UndoableActionType.UNDO);
+			// stack. Messages resulting from the exclusion are batched so
+			// that listeners see them coalesced.
+			Mediator.getInstance().beginNotificationBatch();
+			try {
+				action.execute(UndoableActionType.DO);
+				addAction(action, UndoableActionType.UNDO);
+			} finally {
+				Mediator.getInstance().endNotificationBatch();
+			}
 
 			// Now that we have excluded the selected observations,
 			// clear the collection.
@@ -4,10 +4,10 @@ import java.util.List;
 
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
-import org.aavso.tools.vstar.ui.mediator.AnalysisType;
-import org.aavso.tools.vstar.ui.mediator.Mediator;
 import org.aavso.tools.vstar.ui.model.plot.ICoordSource;
+import org.aavso.tools.vstar.ui.model.plot.JDCoordSource;
 import org.aavso.tools.vstar.util.locale.LocaleProps;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
 import org.apache.commons.math.analysis.UnivariateRealFunction;
 import org.apache.commons.math.optimization.GoalType;
@@ -71,6 +71,46 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 		interrupt = true;
 	}
 
+	/**
+	 * Return the magnitude of the specified observation, without creating
+	 * the observation if the list is a model series view.
+	 * 
+	 * @param index
+	 *            The observation index.
+	 * @return The magnitude.
+	 */
+	protected double getMag(int index) {
+		double mag;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			mag = ((ModelSeries.ObservationView) obs).getMag(index);
+		} else {
+			mag = obs.get(index).getMag();
+		}
+
+		return mag;
+	}
+
+	/**
+	 * Return the JD of the specified observation, without creating the
+	 * observation if the list is a model series view.
+	 * 
+	 * @param index
+	 *            The observation index.
+	 * @return The JD.
+	 */
+	protected double getJD(int index) {
+		double jd;
+
+		if (obs instanceof ModelSeries.ObservationView) {
+			jd = ((ModelSeries.ObservationView) obs).getJD(index);
+		} else {
+			jd = obs.get(index).getJD();
+		}
+
+		return jd;
+	}
+
 	protected Double getExtremeMag() {
 		return extremeMag;
 	}
@@ -92,7 +132,7 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 		// To the left...
 		range[0] = numericallyMaxMagIndex;
 		for (int i = numericallyMaxMagIndex - 1; i >= 0; i--) {
-			if (obs.get(i).getMag() < obs.get(numericallyMaxMagIndex).getMag()) {
+			if (getMag(i) < getMag(numericallyMaxMagIndex)) {
 				range[0] = i;
 				break;
 			}
@@ -101,7 +141,7 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 		// To the right...
 		range[1] = numericallyMaxMagIndex;
 		for (int i = numericallyMaxMagIndex + 1; i < obs.size(); i++) {
-			if (obs.get(i).getMag() < obs.get(numericallyMaxMagIndex).getMag()) {
+			if (getMag(i) < getMag(numericallyMaxMagIndex)) {
 				range[1] = i;
 				break;
 			}
@@ -122,7 +162,7 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 		// To the left...
 		range[0] = numericallyMinMagIndex;
 		for (int i = numericallyMinMagIndex - 1; i >= 0; i--) {
-			if (obs.get(i).getMag() > obs.get(numericallyMinMagIndex).getMag()) {
+			if (getMag(i) > getMag(numericallyMinMagIndex)) {
 				range[0] = i;
 				break;
 			}
@@ -131,7 +171,7 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 		// To the right...
 		range[1] = numericallyMinMagIndex;
 		for (int i = numericallyMinMagIndex + 1; i < obs.size(); i++) {
-			if (obs.get(i).getMag() > obs.get(numericallyMinMagIndex).getMag()) {
+			if (getMag(i) > getMag(numericallyMinMagIndex)) {
 				range[1] = i;
 				break;
 			}
@@ -144,7 +184,7 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 		int minIndex = 0;
 
 		for (int i = 0; i < obs.size(); i++) {
-			if (obs.get(i).getMag() < obs.get(minIndex).getMag()) {
+			if (getMag(i) < getMag(minIndex)) {
 				minIndex = i;
 			}
 		}
@@ -156,7 +196,7 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 		int maxIndex = 0;
 
 		for (int i = 0; i < obs.size(); i++) {
-			if (obs.get(i).getMag() > obs.get(maxIndex).getMag()) {
+			if (getMag(i) > getMag(maxIndex)) {
 				maxIndex = i;
 			}
 		}
@@ -215,7 +255,8 @@ abstract public class AbstractExtremaFinder implements IInteruptible {
 		String strRepr = null;
 
 		// TODO: at some stage, allow this (JD vs phase)
-		if (Mediator.getInstance().getAnalysisType() == AnalysisType.RAW_DATA) {
+		// Model creators use the JD coordinate source for raw data.
+		if (timeCoordSource == JDCoordSource.instance) {
 			// Note: won't extremeMag/Time be overwritten? probably doesn't
 			// matter
 			// because of the way we sequentially construct a string here...
@@ -68,8 +68,8 @@ public class ApacheCommonsBrentOptimiserExtremaFinder extends AbstractExtremaFin
 				BracketFinder bracketFinder = new BracketFinder(growthLimit,
 						maxIterations);
 
-				bracketFinder.search(function, goal, obs.get(bracketRange[0])
-						.getJD(), obs.get(bracketRange[1]).getJD());
+				bracketFinder.search(function, goal, getJD(bracketRange[0]),
+						getJD(bracketRange[1]));
 
 				BrentOptimizer extremaFinder = new BrentOptimizer();
 
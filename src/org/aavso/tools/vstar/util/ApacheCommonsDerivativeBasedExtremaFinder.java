@@ -140,8 +140,8 @@ public class ApacheCommonsDerivativeBasedExtremaFinder extends
 			// as possible. This could be at firstJD but since we may have
 			// already gone past that time above, if not already at start or
 			// end of observation list.
-			double firstJD = obs.get(firstIndex).getJD();
-			double lastJD = obs.get(lastIndex).getJD();
+			double firstJD = getJD(firstIndex);
+			double lastJD = getJD(lastIndex);
 			double minDerivJD = firstJD;
 
 			// TODO: use bracket range instead!
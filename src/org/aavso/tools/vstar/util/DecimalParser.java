@@ -0,0 +1,126 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util;
+
+/**
+ * This class parses plain decimal numbers (e.g. 2458000.47009, -0.117)
+ * directly from a character sequence, such as a slice of a byte buffer,
+ * without first creating a String.
+ * 
+ * Only numbers of the form [-]d+[.d+] with at most MAX_DIGITS significant
+ * digits are parsed. For these, the result is identical to that of
+ * Double.parseDouble() since both the integer formed from the digits and the
+ * power of ten by which it is divided are exactly representable as doubles.
+ * Anything else yields NaN, in which case the caller should fall back to
+ * String based parsing and validation.
+ */
+public class DecimalParser {
+
+	/**
+	 * The maximum number of digits for which parsing is exact.
+	 */
+	public static final int MAX_DIGITS = 15;
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+
+	/**
+	 * Parse a plain decimal number from a character sequence.
+	 * 
+	 * @param seq
+	 *            The character sequence.
+	 * @param allowSign
+	 *            Is a leading minus sign permitted?
+	 * @return The number, or NaN if the sequence is not a plain decimal number
+	 *         that can be exactly parsed.
+	 */
+	public static double parse(CharSequence seq, boolean allowSign) {
+		return parse(seq, 0, seq.length(), allowSign);
+	}
+
+	/**
+	 * Parse a plain decimal number from part of a character sequence.
+	 * 
+	 * @param seq
+	 *            The character sequence.
+	 * @param start
+	 *            The start index (inclusive).
+	 * @param end
+	 *            The end index (exclusive).
+	 * @param allowSign
+	 *            Is a leading minus sign permitted?
+	 * @return The number, or NaN if the characters do not form a plain decimal
+	 *         number that can be exactly parsed.
+	 */
+	public static double parse(CharSequence seq, int start, int end,
+			boolean allowSign) {
+		int i = start;
+
+		boolean negative = false;
+		if (allowSign && i < end && seq.charAt(i) == '-') {
+			negative = true;
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int intDigits = 0;
+		int fracDigits = 0;
+
+		while (i < end) {
+			char c = seq.charAt(i);
+			if (c < '0' || c > '9') {
+				break;
+			}
+			mantissa = mantissa * 10 + (c - '0');
+			intDigits++;
+			i++;
+		}
+
+		if (intDigits == 0) {
+			return Double.NaN;
+		}
+
+		if (i < end && seq.charAt(i) == '.') {
+			i++;
+			while (i < end) {
+				char c = seq.charAt(i);
+				if (c < '0' || c > '9') {
+					break;
+				}
+				mantissa = mantissa * 10 + (c - '0');
+				fracDigits++;
+				i++;
+			}
+
+			if (fracDigits == 0) {
+				return Double.NaN;
+			}
+		}
+
+		digits = intDigits + fracDigits;
+
+		if (i != end || digits > MAX_DIGITS) {
+			return Double.NaN;
+		}
+
+		double value = mantissa / POWERS_OF_TEN[fracDigits];
+
+		return negative ? -value : value;
+	}
+}
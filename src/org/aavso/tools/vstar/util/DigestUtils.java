@@ -0,0 +1,87 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Message digest utility functions, e.g. for naming cache entries.
+ */
+public class DigestUtils {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Return the SHA-1 digest of a string's UTF-8 encoding.
+	 * 
+	 * @param str
+	 *            The string.
+	 * @return The digest as 40 lower case hexadecimal digits.
+	 */
+	public static String sha1Hex(String str) {
+		return toHex(createSHA1().digest(str.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Return the SHA-1 digest of the remaining content of a stream, which is
+	 * not closed.
+	 * 
+	 * @param stream
+	 *            The stream.
+	 * @return The digest as 40 lower case hexadecimal digits.
+	 * @throws IOException
+	 *             If the stream could not be read.
+	 */
+	public static String sha1Hex(InputStream stream) throws IOException {
+		MessageDigest md = createSHA1();
+
+		byte[] buf = new byte[8192];
+		int len;
+		while ((len = stream.read(buf)) > 0) {
+			md.update(buf, 0, len);
+		}
+
+		return toHex(md.digest());
+	}
+
+	// Helpers
+
+	private static MessageDigest createSHA1() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-1 is required of every Java platform.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] hex = new char[bytes.length * 2];
+
+		for (int i = 0; i < bytes.length; i++) {
+			hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+
+		return new String(hex);
+	}
+}
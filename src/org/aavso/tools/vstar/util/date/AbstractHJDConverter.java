@@ -64,4 +64,68 @@ public abstract class AbstractHJDConverter {
 	 * @return The corresponding Heliocentric Julian Date.
 	 */
 	public abstract double convert(double jd, RAInfo ra, DecInfo dec);
+
+	/**
+	 * Given a JD, return the heliocentric correction vector, i.e. the
+	 * corrections (in days) that would be added to the JD for targets in the
+	 * directions of the three equatorial coordinate axes: RA 0h Dec 0, RA 6h
+	 * Dec 0 and Dec +90. Since the correction is linear in the target's
+	 * direction, the correction for any target is the dot product of this
+	 * vector with the target's unit vector.<br/>
+	 * 
+	 * The converted JD is then the JD plus the time offset (see timeOffset())
+	 * plus this dot product.<br/>
+	 * 
+	 * This default implementation converts the JD for each axis; subclasses
+	 * may compute the vector directly from the Sun's coordinates.
+	 * 
+	 * @param jd
+	 *            The Julian Date.
+	 * @return The correction vector.
+	 */
+	public double[] correctionVector(double jd) {
+		EpochType epoch = this instanceof B1950HJDConverter ? EpochType.B1950
+				: EpochType.J2000;
+
+		double offset = jd + timeOffset(jd);
+
+		return new double[] {
+				convert(jd, new RAInfo(epoch, 0), new DecInfo(epoch, 0))
+						- offset,
+				convert(jd, new RAInfo(epoch, 90), new DecInfo(epoch, 0))
+						- offset,
+				convert(jd, new RAInfo(epoch, 0), new DecInfo(epoch, 90))
+						- offset };
+	}
+
+	/**
+	 * Given a JD, return the part of the correction (in days) that is
+	 * independent of the target's direction, e.g. a change of time scale.
+	 * This default implementation returns zero.
+	 * 
+	 * @param jd
+	 *            The Julian Date.
+	 * @return The time offset in days.
+	 */
+	public double timeOffset(double jd) {
+		return 0;
+	}
+
+	/**
+	 * Given a target's RA and Dec, return the target's unit vector in the
+	 * frame of the correction vector.
+	 * 
+	 * @param ra
+	 *            The right ascension coordinate.
+	 * @param dec
+	 *            The declination coordinate.
+	 * @return The unit vector.
+	 */
+	public double[] targetVector(RAInfo ra, DecInfo dec) {
+		double raRads = Math.toRadians(ra.toDegrees());
+		double decRads = Math.toRadians(dec.toDegrees());
+
+		return new double[] { Math.cos(decRads) * Math.cos(raRads),
+				Math.cos(decRads) * Math.sin(raRads), Math.sin(decRads) };
+	}
 }
\ No newline at end of file
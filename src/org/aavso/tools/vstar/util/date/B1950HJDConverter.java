@@ -33,6 +33,11 @@ import org.aavso.tools.vstar.util.coords.RAInfo;
  */
 public class B1950HJDConverter extends AbstractHJDConverter {
 
+	private static final double DEG2RAD = 3.1415926535 / 180.;
+
+	// Obliquity of the ecliptic.
+	private static final double EPS = (23. + (27. / 60.)) * DEG2RAD;
+
 	/**
 	 * Given a JD, RA, and Dec, return HJD.
 	 * 
@@ -50,12 +55,37 @@ public class B1950HJDConverter extends AbstractHJDConverter {
 	
 		// TODO: use Math.toRadians(arg0)?
 	
-		double deg2rad = 3.1415926535 / 180.;
-		double raRadians = ra.toDegrees() * deg2rad;
-		double decRadians = dec.toDegrees() * deg2rad;
+		double raRadians = ra.toDegrees() * DEG2RAD;
+		double decRadians = dec.toDegrees() * DEG2RAD;
+	
+		double[] xy = solarXY(jd);
+		double X = xy[0];
+		double Y = xy[1];
+	
+		double dt = -0.0057755
+				* ((Math.cos(decRadians) * Math.cos(raRadians) * X) + ((Math
+						.tan(EPS)
+						* Math.sin(decRadians) + Math.cos(decRadians)
+						* Math.sin(raRadians)) * Y));
 	
-		double eps = (23. + (27. / 60.)) * deg2rad;
+		hjd = jd + dt;
 	
+		return hjd;
+	}
+
+	/**
+	 * @see org.aavso.tools.vstar.util.date.AbstractHJDConverter#correctionVector(double)
+	 */
+	@Override
+	public double[] correctionVector(double jd) {
+		double[] xy = solarXY(jd);
+
+		return new double[] { -0.0057755 * xy[0], -0.0057755 * xy[1],
+				-0.0057755 * Math.tan(EPS) * xy[1] };
+	}
+
+	// Returns the Sun's X and Y coordinates for the specified JD.
+	private double[] solarXY(double jd) {
 		double T = (jd - 2415020.) / 36525.;
 	
 		double p = (1.396041 + (0.000308 * (T + 0.5))) * (T - 0.499998);
@@ -64,11 +94,11 @@ public class B1950HJDConverter extends AbstractHJDConverter {
 	
 		double G = 358.475833 + (35999.04975 * T) - (0.00015 * T * T);
 	
-		L = L * deg2rad;
-		G = G * deg2rad;
+		L = L * DEG2RAD;
+		G = G * DEG2RAD;
 	
 		double AJ = 225.444651 + (2880. * T) + (154.906654 * T * T);
-		AJ = AJ * deg2rad;
+		AJ = AJ * DEG2RAD;
 	
 		double X = 0.99986 * Math.cos(L) - 0.025127 * Math.cos(G - L)
 				+ 0.0008374 * Math.cos(G + L) + 0.000105 * Math.cos(G + G + L)
@@ -81,15 +111,7 @@ public class B1950HJDConverter extends AbstractHJDConverter {
 				- 0.000057 * T * Math.sin(G - L) - 0.000032
 				* Math.sin(G + G - L) - 0.000024 * Math.cos(G - L - AJ)
 				- 0.000019 * T * Math.sin(G + L);
-	
-		double dt = -0.0057755
-				* ((Math.cos(decRadians) * Math.cos(raRadians) * X) + ((Math
-						.tan(eps)
-						* Math.sin(decRadians) + Math.cos(decRadians)
-						* Math.sin(raRadians)) * Y));
-	
-		hjd = jd + dt;
-	
-		return hjd;
+
+		return new double[] { X, Y };
 	}
 }
@@ -0,0 +1,117 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.date;
+
+import org.aavso.tools.vstar.util.coords.DecInfo;
+import org.aavso.tools.vstar.util.coords.EpochType;
+import org.aavso.tools.vstar.util.coords.RAInfo;
+
+/**
+ * <p>
+ * This class converts a UTC Julian Date to a Barycentric Julian Date in the
+ * TDB time scale (BJD_TDB), as used by e.g. TESS and Kepler data.
+ * </p>
+ * <p>
+ * BJD_TDB = JD_UTC + (TT-UTC) + (TDB-TT) + r.n/c, where r is the Earth's
+ * position relative to the Solar System Barycentre, n is the unit vector
+ * towards the target and c is the speed of light. The time scale offsets are
+ * computed by TimeScales and the Earth's position by BarycentricEphemeris,
+ * both without network access. The result agrees with a full ephemeris to a
+ * few milliseconds; relativistic (Shapiro, Einstein) delays of the order of
+ * tens of microseconds and the observatory's position relative to the
+ * geocentre (up to about 21 milliseconds) are ignored.
+ * </p>
+ * <p>
+ * Target coordinates are expected to be relative to the J2000.0 equator and
+ * equinox; B1950.0 coordinates are precessed to J2000.0.
+ * </p>
+ */
+public class BJDConverter extends AbstractHJDConverter {
+
+	// The speed of light in AU per day.
+	private static final double SPEED_OF_LIGHT = 173.144632674240;
+
+	/**
+	 * Given a UTC JD, RA, and Dec, return BJD_TDB.
+	 * 
+	 * @param jd
+	 *            The UTC Julian Date to be converted.
+	 * @param ra
+	 *            The right ascension coordinate.
+	 * @param dec
+	 *            The declination coordinate.
+	 * @return The corresponding Barycentric Julian Date (TDB).
+	 */
+	@Override
+	public double convert(double jd, RAInfo ra, DecInfo dec) {
+		double[] correction = correctionVector(jd);
+		double[] target = targetVector(ra, dec);
+
+		return jd + timeOffset(jd) + correction[0] * target[0]
+				+ correction[1] * target[1] + correction[2] * target[2];
+	}
+
+	/**
+	 * Return the Earth's barycentric position divided by the speed of light,
+	 * i.e. the light travel time correction vector in days, relative to the
+	 * J2000.0 equator and equinox.
+	 * 
+	 * @see org.aavso.tools.vstar.util.date.AbstractHJDConverter#correctionVector(double)
+	 */
+	@Override
+	public double[] correctionVector(double jd) {
+		double[] earth = BarycentricEphemeris.earthBarycentric(TimeScales
+				.utcToTDB(jd));
+
+		return new double[] { earth[0] / SPEED_OF_LIGHT,
+				earth[1] / SPEED_OF_LIGHT, earth[2] / SPEED_OF_LIGHT };
+	}
+
+	/**
+	 * Return the UTC to TDB offset in days.
+	 * 
+	 * @see org.aavso.tools.vstar.util.date.AbstractHJDConverter#timeOffset(double)
+	 */
+	@Override
+	public double timeOffset(double jd) {
+		double ttMinusUTC = TimeScales.ttMinusUTC(jd);
+		double tt = jd + ttMinusUTC / TimeScales.SECONDS_PER_DAY;
+
+		return (ttMinusUTC + TimeScales.tdbMinusTT(tt))
+				/ TimeScales.SECONDS_PER_DAY;
+	}
+
+	/**
+	 * Return the target's unit vector relative to the J2000.0 equator and
+	 * equinox, precessing B1950.0 coordinates.
+	 * 
+	 * @see org.aavso.tools.vstar.util.date.AbstractHJDConverter#targetVector(org.aavso.tools.vstar.util.coords.RAInfo,
+	 *      org.aavso.tools.vstar.util.coords.DecInfo)
+	 */
+	@Override
+	public double[] targetVector(RAInfo ra, DecInfo dec) {
+		double[] target = super.targetVector(ra, dec);
+
+		if (ra.getEpoch() == EpochType.B1950) {
+			target = BarycentricEphemeris.precess(target,
+					BarycentricEphemeris.B1950, BarycentricEphemeris.J2000);
+		}
+
+		return target;
+	}
+}
@@ -0,0 +1,443 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.date;
+
+/**
+ * <p>
+ * This class is an analytical ephemeris of the Earth's position relative to
+ * the Solar System Barycentre (SSB), as required for barycentric time
+ * correction. It requires no external ephemeris files.
+ * </p>
+ * <p>
+ * The Earth's heliocentric position is computed from the truncated VSOP87
+ * series in Jean Meeus's Astronomical Algorithms (ch 32, Appendix III),
+ * converted to the FK5 system, then rotated from the mean ecliptic and
+ * equinox of date to the J2000.0 mean equator and equinox (Meeus ch 21, 22).
+ * The Sun's position relative to the SSB is computed from the masses and
+ * Keplerian positions of the planets, using the JPL approximate orbital
+ * elements valid from 1800 to 2050 (Standish, "Keplerian Elements for
+ * Approximate Positions of the Major Planets").
+ * </p>
+ * <p>
+ * The Earth's barycentric position is accurate to a few thousand km, i.e. a
+ * light travel time error of a few milliseconds, dominated by the errors in
+ * the positions of Jupiter and Saturn.
+ * </p>
+ * <p>
+ * Variable names often follow Meeus's conventions since this allows easier
+ * correspondence between Meeus and code.
+ * </p>
+ */
+public class BarycentricEphemeris {
+
+	/**
+	 * The JDE of epoch J2000.0.
+	 */
+	public static final double J2000 = 2451545.0;
+
+	/**
+	 * The JDE of epoch B1950.0.
+	 */
+	public static final double B1950 = 2433282.4235;
+
+	private static final double ARCSECS_TO_RADS = Math.PI / (180 * 3600);
+
+	// The obliquity of the ecliptic at J2000.0 (radians).
+	private static final double EPS_J2000 = Math.toRadians(23.43928);
+
+	// Earth heliocentric VSOP87D series terms: amplitude (1e-8 radians or
+	// AU), phase (radians), frequency (radians per Julian millennium).
+	private static final double[][] L0 = {
+			{ 175347046, 0, 0 }, { 3341656, 4.6692568, 6283.07585 },
+			{ 34894, 4.6261, 12566.1517 }, { 3497, 2.7441, 5753.3849 },
+			{ 3418, 2.8289, 3.5231 }, { 3136, 3.6277, 77713.7715 },
+			{ 2676, 4.4181, 7860.4194 }, { 2343, 6.1352, 3930.2097 },
+			{ 1324, 0.7425, 11506.7698 }, { 1273, 2.0371, 529.691 },
+			{ 1199, 1.1096, 1577.3435 }, { 990, 5.233, 5884.927 },
+			{ 902, 2.045, 26.298 }, { 857, 3.508, 398.149 },
+			{ 780, 1.179, 5223.694 }, { 753, 2.533, 5507.553 },
+			{ 505, 4.583, 18849.228 }, { 492, 4.205, 775.523 },
+			{ 357, 2.92, 0.067 }, { 317, 5.849, 11790.629 },
+			{ 284, 1.899, 796.298 }, { 271, 0.315, 10977.079 },
+			{ 243, 0.345, 5486.778 }, { 206, 4.806, 2544.314 },
+			{ 205, 1.869, 5573.143 }, { 202, 2.458, 6069.777 },
+			{ 156, 0.833, 213.299 }, { 132, 3.411, 2942.463 },
+			{ 126, 1.083, 20.775 }, { 115, 0.645, 0.98 },
+			{ 103, 0.636, 4694.003 }, { 102, 0.976, 15720.839 },
+			{ 102, 4.267, 7.114 }, { 99, 6.21, 2146.17 }, { 98, 0.68, 155.42 },
+			{ 86, 5.98, 161000.69 }, { 85, 1.3, 6275.96 },
+			{ 85, 3.67, 71430.7 }, { 80, 1.81, 17260.15 },
+			{ 79, 3.04, 12036.46 }, { 75, 1.76, 5088.63 },
+			{ 74, 3.5, 3154.69 }, { 74, 4.68, 801.82 }, { 70, 0.83, 9437.76 },
+			{ 62, 3.98, 8827.39 }, { 61, 1.82, 7084.9 }, { 57, 2.78, 6286.6 },
+			{ 56, 4.39, 14143.5 }, { 56, 3.47, 6279.55 },
+			{ 52, 0.19, 12139.55 }, { 52, 1.33, 1748.02 },
+			{ 51, 0.28, 5856.48 }, { 49, 0.49, 1194.45 },
+			{ 41, 5.37, 8429.24 }, { 41, 2.4, 19651.05 },
+			{ 39, 6.17, 10447.39 }, { 37, 6.04, 10213.29 },
+			{ 37, 2.57, 1059.38 }, { 36, 1.71, 2352.87 },
+			{ 36, 1.78, 6812.77 }, { 33, 0.59, 17789.85 },
+			{ 30, 0.44, 83996.85 }, { 30, 2.74, 1349.87 }, { 25, 3.16, 4690.48 } };
+
+	private static final double[][] L1 = {
+			{ 628331966747.0, 0, 0 }, { 206059, 2.678235, 6283.07585 },
+			{ 4303, 2.6351, 12566.1517 }, { 425, 1.59, 3.523 },
+			{ 119, 5.796, 26.298 }, { 109, 2.966, 1577.344 },
+			{ 93, 2.59, 18849.23 }, { 72, 1.14, 529.69 }, { 68, 1.87, 398.15 },
+			{ 67, 4.41, 5507.55 }, { 59, 2.89, 5223.69 }, { 56, 2.17, 155.42 },
+			{ 45, 0.4, 796.3 }, { 36, 0.47, 775.52 }, { 29, 2.65, 7.11 },
+			{ 21, 5.34, 0.98 }, { 19, 1.85, 5486.78 }, { 19, 4.97, 213.3 },
+			{ 17, 2.99, 6275.96 }, { 16, 0.03, 2544.31 },
+			{ 16, 1.43, 2146.17 }, { 15, 1.21, 10977.08 },
+			{ 12, 2.83, 1748.02 }, { 12, 3.26, 5088.63 },
+			{ 12, 5.27, 1194.45 }, { 12, 2.08, 4694 }, { 11, 0.77, 553.57 },
+			{ 10, 1.3, 6286.6 }, { 10, 4.24, 1349.87 }, { 9, 2.7, 242.73 },
+			{ 9, 5.64, 951.72 }, { 8, 5.3, 2352.87 }, { 6, 2.65, 9437.76 },
+			{ 6, 4.67, 4690.48 } };
+
+	private static final double[][] L2 = {
+			{ 52919, 0, 0 }, { 8720, 1.0721, 6283.0758 },
+			{ 309, 0.867, 12566.152 }, { 27, 0.05, 3.52 }, { 16, 5.19, 26.3 },
+			{ 16, 3.68, 155.42 }, { 10, 0.76, 18849.23 },
+			{ 9, 2.06, 77713.77 }, { 7, 0.83, 775.52 }, { 5, 4.66, 1577.34 },
+			{ 4, 1.03, 7.11 }, { 4, 3.44, 5573.14 }, { 3, 5.14, 796.3 },
+			{ 3, 6.05, 5507.55 }, { 3, 1.19, 242.73 }, { 3, 6.12, 529.69 },
+			{ 3, 0.31, 398.15 }, { 3, 2.28, 553.57 }, { 2, 4.38, 5223.69 },
+			{ 2, 3.75, 0.98 } };
+
+	private static final double[][] L3 = {
+			{ 289, 5.844, 6283.076 }, { 35, 0, 0 }, { 17, 5.49, 12566.15 },
+			{ 3, 5.2, 155.42 }, { 1, 4.72, 3.52 }, { 1, 5.3, 18849.23 },
+			{ 1, 5.97, 242.73 } };
+
+	private static final double[][] L4 = {
+			{ 114, 3.142, 0 }, { 8, 4.13, 6283.08 }, { 1, 3.84, 12566.15 } };
+
+	private static final double[][] L5 = {
+			{ 1, 3.14, 0 } };
+
+	private static final double[][] B0 = {
+			{ 280, 3.199, 84334.662 }, { 102, 5.422, 5507.553 },
+			{ 80, 3.88, 5223.69 }, { 44, 3.7, 2352.87 }, { 32, 4, 1577.34 } };
+
+	private static final double[][] B1 = {
+			{ 9, 3.9, 5507.55 }, { 6, 1.73, 5223.69 } };
+
+	private static final double[][] R0 = {
+			{ 100013989, 0, 0 }, { 1670700, 3.0984635, 6283.07585 },
+			{ 13956, 3.05525, 12566.1517 }, { 3084, 5.1985, 77713.7715 },
+			{ 1628, 1.1739, 5753.3849 }, { 1576, 2.8469, 7860.4194 },
+			{ 925, 5.453, 11506.77 }, { 542, 4.564, 3930.21 },
+			{ 472, 3.661, 5884.927 }, { 346, 0.964, 5507.553 },
+			{ 329, 5.9, 5223.694 }, { 307, 0.299, 5573.143 },
+			{ 243, 4.273, 11790.629 }, { 212, 5.847, 1577.344 },
+			{ 186, 5.022, 10977.079 }, { 175, 3.012, 18849.228 },
+			{ 110, 5.055, 5486.778 }, { 98, 0.89, 6069.78 },
+			{ 86, 5.69, 15720.84 }, { 86, 1.27, 161000.69 },
+			{ 65, 0.27, 17260.15 }, { 63, 0.92, 529.69 },
+			{ 57, 2.01, 83996.85 }, { 56, 5.24, 71430.7 },
+			{ 49, 3.25, 2544.31 }, { 47, 2.58, 775.52 }, { 45, 5.54, 9437.76 },
+			{ 43, 6.01, 6275.96 }, { 39, 5.36, 4694 }, { 38, 2.39, 8827.39 },
+			{ 37, 0.83, 19651.05 }, { 37, 4.9, 12139.55 },
+			{ 36, 1.67, 12036.46 }, { 35, 1.84, 2942.46 },
+			{ 33, 0.24, 7084.9 }, { 32, 0.18, 5088.63 }, { 32, 1.78, 398.15 },
+			{ 28, 1.21, 6286.6 }, { 28, 1.9, 6279.55 }, { 26, 4.59, 10447.39 } };
+
+	private static final double[][] R1 = {
+			{ 103019, 1.10749, 6283.07585 }, { 1721, 1.0644, 12566.1517 },
+			{ 702, 3.142, 0 }, { 32, 1.02, 18849.23 }, { 31, 2.84, 5507.55 },
+			{ 25, 1.32, 5223.69 }, { 18, 1.42, 1577.34 },
+			{ 10, 5.91, 10977.08 }, { 9, 1.42, 6275.96 }, { 9, 0.27, 5486.78 } };
+
+	private static final double[][] R2 = {
+			{ 4359, 5.7846, 6283.0758 }, { 124, 5.579, 12566.152 },
+			{ 12, 3.14, 0 }, { 9, 3.63, 77713.77 }, { 6, 1.87, 5573.14 },
+			{ 3, 5.47, 18849.23 } };
+
+	private static final double[][] R3 = {
+			{ 145, 4.273, 6283.076 }, { 7, 3.92, 12566.15 } };
+
+	private static final double[][] R4 = {
+			{ 4, 2.56, 6283.08 } };
+
+	private static final double[][][] L = { L0, L1, L2, L3, L4, L5 };
+	private static final double[][][] B = { B0, B1 };
+	private static final double[][][] R = { R0, R1, R2, R3, R4 };
+
+	// Planetary orbital elements and rates per Julian century relative to
+	// the J2000.0 ecliptic and equinox: a (AU), e, I, L, longitude of
+	// perihelion, longitude of ascending node (degrees), for Mercury, Venus,
+	// the Earth-Moon barycentre, Mars, Jupiter, Saturn, Uranus and Neptune.
+	private static final double[][] ELEMENTS = {
+			{ 0.38709927, 0.20563593, 7.00497902, 252.25032350, 77.45779628,
+					48.33076593 },
+			{ 0.72333566, 0.00677672, 3.39467605, 181.97909950,
+					131.60246718, 76.67984255 },
+			{ 1.00000261, 0.01671123, -0.00001531, 100.46457166,
+					102.93768193, 0.0 },
+			{ 1.52371034, 0.09339410, 1.84969142, -4.55343205, -23.94362959,
+					49.55953891 },
+			{ 5.20288700, 0.04838624, 1.30439695, 34.39644051, 14.72847983,
+					100.47390909 },
+			{ 9.53667594, 0.05386179, 2.48599187, 49.95424423, 92.59887831,
+					113.66242448 },
+			{ 19.18916464, 0.04725744, 0.77263783, 313.23810451,
+					170.95427630, 74.01692503 },
+			{ 30.06992276, 0.00859048, 1.77004347, -55.12002969,
+					44.96476227, 131.78422574 } };
+
+	private static final double[][] RATES = {
+			{ 0.00000037, 0.00001906, -0.00594749, 149472.67411175,
+					0.16047689, -0.12534081 },
+			{ 0.00000390, -0.00004107, -0.00078890, 58517.81538729,
+					0.00268329, -0.27769418 },
+			{ 0.00000562, -0.00004392, -0.01294668, 35999.37244981,
+					0.32327364, 0.0 },
+			{ 0.00001847, 0.00007882, -0.00813131, 19140.30268499,
+					0.44441088, -0.29257343 },
+			{ -0.00011607, -0.00013253, -0.00183714, 3034.74612775,
+					0.21252668, 0.20469106 },
+			{ -0.00125060, -0.00050991, 0.00193609, 1222.49362201,
+					-0.41897216, -0.28867794 },
+			{ -0.00196176, -0.00004397, -0.00242939, 428.48202785,
+					0.40805281, 0.04240589 },
+			{ 0.00026291, 0.00005105, 0.00035372, 218.45945325,
+					-0.32241464, -0.00508664 } };
+
+	// The ratios of the Sun's mass to those of the planets (in the order
+	// above).
+	private static final double[] MASS_RATIOS = { 6023600.0, 408523.71,
+			328900.56, 3098708.0, 1047.3486, 3497.898, 22902.98, 19412.24 };
+
+	/**
+	 * Given a JDE (TDB), return the Earth's position relative to the Solar
+	 * System Barycentre.
+	 * 
+	 * @param jde
+	 *            The Julian Ephemeris Date.
+	 * @return The rectangular coordinates (AU) relative to the J2000.0 mean
+	 *         equator and equinox.
+	 */
+	public static double[] earthBarycentric(double jde) {
+		double[] earth = earthHeliocentric(jde);
+		double[] sun = sunBarycentric(jde);
+
+		return new double[] { earth[0] + sun[0], earth[1] + sun[1],
+				earth[2] + sun[2] };
+	}
+
+	/**
+	 * Given a JDE (TDB), return the Earth's heliocentric position.
+	 * 
+	 * @param jde
+	 *            The Julian Ephemeris Date.
+	 * @return The rectangular coordinates (AU) relative to the J2000.0 mean
+	 *         equator and equinox.
+	 */
+	public static double[] earthHeliocentric(double jde) {
+		double[] lbr = earthHeliocentricEcliptic(jde);
+
+		// Meeus 32.3
+		// Conversion to the FK5 system.
+		double T = (jde - J2000) / 36525;
+		double Lp = lbr[0] - Math.toRadians(1.397 * T + 0.00031 * T * T);
+		double dL = (-0.09033 + 0.03916 * (Math.cos(Lp) + Math.sin(Lp))
+				* Math.tan(lbr[1]))
+				* ARCSECS_TO_RADS;
+		double dB = 0.03916 * (Math.cos(Lp) - Math.sin(Lp)) * ARCSECS_TO_RADS;
+
+		double lon = lbr[0] + dL;
+		double lat = lbr[1] + dB;
+
+		// Rectangular coordinates relative to the ecliptic of date.
+		double x = lbr[2] * Math.cos(lat) * Math.cos(lon);
+		double y = lbr[2] * Math.cos(lat) * Math.sin(lon);
+		double z = lbr[2] * Math.sin(lat);
+
+		// Meeus 22.2
+		// Rotate by the mean obliquity of date to the equator of date.
+		double eps = (84381.448 - 46.8150 * T - 0.00059 * T * T + 0.001813
+				* T * T * T)
+				* ARCSECS_TO_RADS;
+
+		double[] equ = { x, y * Math.cos(eps) - z * Math.sin(eps),
+				y * Math.sin(eps) + z * Math.cos(eps) };
+
+		return precess(equ, jde, J2000);
+	}
+
+	/**
+	 * Given a JDE (TDB), return the Earth's heliocentric ecliptic coordinates
+	 * referred to the mean dynamical ecliptic and equinox of date (Meeus ch
+	 * 32).
+	 * 
+	 * @param jde
+	 *            The Julian Ephemeris Date.
+	 * @return The longitude (radians, not reduced to 0..2pi), latitude
+	 *         (radians) and radius vector (AU).
+	 */
+	public static double[] earthHeliocentricEcliptic(double jde) {
+		// Meeus 32.1
+		// Time measured in Julian millennia.
+		double tau = (jde - J2000) / 365250;
+
+		return new double[] { series(L, tau), series(B, tau), series(R, tau) };
+	}
+
+	/**
+	 * Given a JDE (TDB), return the Sun's position relative to the Solar
+	 * System Barycentre.
+	 * 
+	 * @param jde
+	 *            The Julian Ephemeris Date.
+	 * @return The rectangular coordinates (AU) relative to the J2000.0 mean
+	 *         equator and equinox.
+	 */
+	public static double[] sunBarycentric(double jde) {
+		double T = (jde - J2000) / 36525;
+
+		double x = 0;
+		double y = 0;
+		double z = 0;
+		double totalMass = 1;
+
+		for (int i = 0; i < ELEMENTS.length; i++) {
+			double[] pos = planetHeliocentric(i, T);
+			double mass = 1 / MASS_RATIOS[i];
+			x += mass * pos[0];
+			y += mass * pos[1];
+			z += mass * pos[2];
+			totalMass += mass;
+		}
+
+		// The barycentre is at the origin, so the Sun is displaced opposite
+		// to the mass weighted planetary positions. Rotate from the J2000.0
+		// ecliptic to the J2000.0 equator.
+		x /= -totalMass;
+		y /= -totalMass;
+		z /= -totalMass;
+
+		return new double[] { x, y * Math.cos(EPS_J2000) - z
+				* Math.sin(EPS_J2000), y * Math.sin(EPS_J2000) + z
+				* Math.cos(EPS_J2000) };
+	}
+
+	/**
+	 * Precess rectangular equatorial coordinates from one epoch to another
+	 * (Meeus 21.2, 21.4).
+	 * 
+	 * @param v
+	 *            The rectangular coordinates relative to the mean equator
+	 *            and equinox of the starting epoch.
+	 * @param fromJDE
+	 *            The JDE of the starting epoch.
+	 * @param toJDE
+	 *            The JDE of the final epoch.
+	 * @return The rectangular coordinates relative to the mean equator and
+	 *         equinox of the final epoch.
+	 */
+	public static double[] precess(double[] v, double fromJDE, double toJDE) {
+		double T = (fromJDE - J2000) / 36525;
+		double t = (toJDE - fromJDE) / 36525;
+
+		double zeta = ((2306.2181 + 1.39656 * T - 0.000139 * T * T) * t
+				+ (0.30188 - 0.000344 * T) * t * t + 0.017998 * t * t * t)
+				* ARCSECS_TO_RADS;
+		double z = ((2306.2181 + 1.39656 * T - 0.000139 * T * T) * t
+				+ (1.09468 + 0.000066 * T) * t * t + 0.018203 * t * t * t)
+				* ARCSECS_TO_RADS;
+		double theta = ((2004.3109 - 0.85330 * T - 0.000217 * T * T) * t
+				- (0.42665 + 0.000217 * T) * t * t - 0.041833 * t * t * t)
+				* ARCSECS_TO_RADS;
+
+		double x1 = v[0] * Math.cos(zeta) - v[1] * Math.sin(zeta);
+		double y1 = v[0] * Math.sin(zeta) + v[1] * Math.cos(zeta);
+
+		double x2 = x1 * Math.cos(theta) - v[2] * Math.sin(theta);
+		double z2 = x1 * Math.sin(theta) + v[2] * Math.cos(theta);
+
+		return new double[] { x2 * Math.cos(z) - y1 * Math.sin(z),
+				x2 * Math.sin(z) + y1 * Math.cos(z), z2 };
+	}
+
+	// Helpers
+
+	// Evaluate a VSOP87 series: sum over k of tau^k times the sum of the
+	// terms A cos(B + C tau) of the kth sub-series.
+	private static double series(double[][][] subSeries, double tau) {
+		double value = 0;
+		double tauPower = 1;
+
+		for (double[][] terms : subSeries) {
+			double sum = 0;
+			for (double[] term : terms) {
+				sum += term[0] * Math.cos(term[1] + term[2] * tau);
+			}
+			value += sum * tauPower;
+			tauPower *= tau;
+		}
+
+		return value * 1e-8;
+	}
+
+	// Return the heliocentric rectangular coordinates (AU) of the specified
+	// planet relative to the J2000.0 ecliptic and equinox.
+	private static double[] planetHeliocentric(int planet, double T) {
+		double[] elements = new double[6];
+		for (int i = 0; i < 6; i++) {
+			elements[i] = ELEMENTS[planet][i] + RATES[planet][i] * T;
+		}
+
+		double a = elements[0];
+		double e = elements[1];
+		double I = Math.toRadians(elements[2]);
+		double varpi = Math.toRadians(elements[4]);
+		double Omega = Math.toRadians(elements[5]);
+
+		// Argument of perihelion and mean anomaly.
+		double omega = varpi - Omega;
+		double M = Math.IEEEremainder(Math.toRadians(elements[3]) - varpi,
+				2 * Math.PI);
+
+		// Solve Kepler's equation for the eccentric anomaly.
+		double E = M + e * Math.sin(M);
+		for (int i = 0; i < 10; i++) {
+			double dE = (M - (E - e * Math.sin(E))) / (1 - e * Math.cos(E));
+			E += dE;
+			if (Math.abs(dE) < 1e-12) {
+				break;
+			}
+		}
+
+		// Coordinates in the orbital plane.
+		double xp = a * (Math.cos(E) - e);
+		double yp = a * Math.sqrt(1 - e * e) * Math.sin(E);
+
+		double cw = Math.cos(omega);
+		double sw = Math.sin(omega);
+		double cO = Math.cos(Omega);
+		double sO = Math.sin(Omega);
+		double cI = Math.cos(I);
+		double sI = Math.sin(I);
+
+		return new double[] {
+				(cw * cO - sw * sO * cI) * xp + (-sw * cO - cw * sO * cI) * yp,
+				(cw * sO + sw * cO * cI) * xp + (-sw * sO + cw * cO * cI) * yp,
+				(sw * sI) * xp + (cw * sI) * yp };
+	}
+}
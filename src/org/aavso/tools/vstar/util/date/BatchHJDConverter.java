@@ -0,0 +1,384 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.date;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.aavso.tools.vstar.util.coords.DecInfo;
+import org.aavso.tools.vstar.util.coords.EpochType;
+import org.aavso.tools.vstar.util.coords.RAInfo;
+
+/**
+ * This class converts arrays of Julian Dates to Heliocentric (or, via
+ * getBarycentricInstance(), Barycentric) Julian Dates for a single target.
+ * <p>
+ * The heliocentric correction applied by each AbstractHJDConverter is linear
+ * in the target's unit vector (see AbstractHJDConverter.correctionVector()).
+ * So rather than repeating the solar computations for each observation, the
+ * correction vector is computed by the underlying converter on a grid of
+ * times with a fixed step, and the correction for any JD and target is found
+ * by cubic interpolation of that vector and a dot product with the target's
+ * unit vector. Any target independent time offset, such as the UTC to TDB
+ * offset of a barycentric converter, is not interpolated but computed for
+ * each JD, since it may change discontinuously, e.g. at a leap second.
+ * </p>
+ * <p>
+ * The grid is computed in blocks, only for times densely covered by the JDs
+ * being converted, and cached, so that subsequent conversions over the same
+ * times (e.g. for another target or series) require no solar computations at
+ * all. The correction vector for a JD in a block with fewer JDs than grid
+ * points is computed directly instead. Blocks and conversions are computed in
+ * parallel chunks for large arrays.
+ * </p>
+ * <p>
+ * With the default step of one day, the interpolated corrections agree with
+ * the underlying converter to well within a millisecond.
+ * </p>
+ */
+public class BatchHJDConverter {
+
+	/**
+	 * The default ephemeris grid step in days.
+	 */
+	public static final double DEFAULT_STEP = 1.0;
+
+	// The number of grid intervals per cached ephemeris block.
+	private static final int BLOCK_SIZE = 64;
+
+	// Arrays with fewer JDs than this per thread are converted on the calling
+	// thread.
+	private static final int MIN_JDS_PER_THREAD = 16384;
+
+	private static BatchHJDConverter J2000Converter = new BatchHJDConverter(
+			AbstractHJDConverter.getInstance(EpochType.J2000), DEFAULT_STEP);
+	private static BatchHJDConverter B1950Converter = new BatchHJDConverter(
+			AbstractHJDConverter.getInstance(EpochType.B1950), DEFAULT_STEP);
+
+	private static BatchHJDConverter barycentricConverter = new BatchHJDConverter(
+			new BJDConverter(), DEFAULT_STEP);
+
+	private final AbstractHJDConverter converter;
+	private final double step;
+
+	// A mapping from block number to the correction vector components at the
+	// grid times of the block: grid points (blockNum * BLOCK_SIZE - 1) to
+	// ((blockNum + 1) * BLOCK_SIZE + 1), i.e. including the neighbours
+	// required for cubic interpolation over the block's intervals.
+	private final Map<Long, double[][]> blocks;
+
+	/**
+	 * Factory method to return a shared batch converter with the default step
+	 * for a given epoch.
+	 * 
+	 * @param epoch
+	 *            The epoch of the target coordinates.
+	 * @return The batch HJD converter for the specified epoch.
+	 */
+	public static BatchHJDConverter getInstance(EpochType epoch) {
+		BatchHJDConverter converter = null;
+
+		switch (epoch) {
+		case J2000:
+			converter = J2000Converter;
+			break;
+		case B1950:
+			converter = B1950Converter;
+			break;
+		default:
+			break;
+		}
+
+		return converter;
+	}
+
+	/**
+	 * Return a shared batch converter with the default step that converts UTC
+	 * JDs to Barycentric Julian Dates (TDB) for targets with J2000.0 or
+	 * B1950.0 coordinates.
+	 * 
+	 * @return The batch BJD converter.
+	 */
+	public static BatchHJDConverter getBarycentricInstance() {
+		return barycentricConverter;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param converter
+	 *            The per-point HJD converter from which the ephemeris grid is
+	 *            computed.
+	 * @param step
+	 *            The ephemeris grid step in days.
+	 */
+	public BatchHJDConverter(AbstractHJDConverter converter, double step) {
+		if (step <= 0) {
+			throw new IllegalArgumentException("Invalid step: " + step);
+		}
+
+		this.converter = converter;
+		this.step = step;
+		blocks = new ConcurrentHashMap<Long, double[][]>();
+	}
+
+	/**
+	 * @return The ephemeris grid step in days.
+	 */
+	public double getStep() {
+		return step;
+	}
+
+	/**
+	 * Given a JD, RA, and Dec, return HJD.
+	 * 
+	 * @param jd
+	 *            The Julian Date to be converted.
+	 * @param ra
+	 *            The right ascension coordinate.
+	 * @param dec
+	 *            The declination coordinate.
+	 * @return The corresponding Heliocentric Julian Date.
+	 */
+	public double convert(double jd, RAInfo ra, DecInfo dec) {
+		double[] hjds = { jd };
+		convert(hjds, hjds, ra, dec);
+		return hjds[0];
+	}
+
+	/**
+	 * Given an array of JDs and a target's RA and Dec, compute the
+	 * corresponding HJDs.
+	 * 
+	 * @param jds
+	 *            The Julian Dates to be converted.
+	 * @param hjds
+	 *            The array into which the Heliocentric Julian Dates are
+	 *            stored; may be the same array as jds.
+	 * @param ra
+	 *            The right ascension coordinate.
+	 * @param dec
+	 *            The declination coordinate.
+	 */
+	public void convert(final double[] jds, final double[] hjds, RAInfo ra,
+			DecInfo dec) {
+
+		double[] target = converter.targetVector(ra, dec);
+
+		final double ux = target[0];
+		final double uy = target[1];
+		final double uz = target[2];
+
+		ExecutorService executor = createExecutor(jds.length);
+
+		try {
+			computeBlocks(executor, jds);
+
+			forEachChunk(executor, jds.length, new ChunkTask() {
+				@Override
+				public void run(int from, int to) {
+					double[] correction = new double[3];
+					long lastBlockNum = Long.MIN_VALUE;
+					double[][] block = null;
+					for (int i = from; i < to; i++) {
+						// Consecutive JDs are often in the same block.
+						long blockNum = blockNum(jds[i]);
+						if (blockNum != lastBlockNum) {
+							block = blocks.get(blockNum);
+							lastBlockNum = blockNum;
+						}
+						if (block != null) {
+							interpolate(block, jds[i], correction);
+						} else {
+							correction = converter.correctionVector(jds[i]);
+						}
+						hjds[i] = jds[i] + converter.timeOffset(jds[i]) + ux
+								* correction[0] + uy * correction[1] + uz
+								* correction[2];
+					}
+				}
+			});
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	// Helpers
+
+	// Compute the ephemeris blocks that have not yet been computed and that
+	// contain at least as many of the specified JDs as grid points.
+	private void computeBlocks(ExecutorService executor, double[] jds) {
+		long[] blockNums = new long[jds.length];
+		for (int i = 0; i < jds.length; i++) {
+			blockNums[i] = blockNum(jds[i]);
+		}
+
+		Arrays.sort(blockNums);
+
+		final List<Long> missing = new ArrayList<Long>();
+		for (int i = 0, j = 0; i < blockNums.length; i = j) {
+			while (j < blockNums.length && blockNums[j] == blockNums[i]) {
+				j++;
+			}
+			if (j - i >= BLOCK_SIZE + 3 && !blocks.containsKey(blockNums[i])) {
+				missing.add(blockNums[i]);
+			}
+		}
+
+		forEachChunk(executor, missing.size(), new ChunkTask() {
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					long blockNum = missing.get(i);
+					blocks.put(blockNum, computeBlock(blockNum));
+				}
+			}
+		});
+	}
+
+	// Compute the correction vector at each grid time of the specified block.
+	private double[][] computeBlock(long blockNum) {
+		double[][] block = new double[3][BLOCK_SIZE + 3];
+
+		long first = blockNum * BLOCK_SIZE - 1;
+
+		for (int k = 0; k < BLOCK_SIZE + 3; k++) {
+			double[] correction = converter.correctionVector((first + k)
+					* step);
+			for (int axis = 0; axis < 3; axis++) {
+				block[axis][k] = correction[axis];
+			}
+		}
+
+		return block;
+	}
+
+	// Interpolate the correction vector at the specified JD from its block
+	// via four point (cubic) Lagrange interpolation.
+	private void interpolate(double[][] block, double jd, double[] correction) {
+		double gridPos = jd / step;
+		long gridIndex = (long) Math.floor(gridPos);
+		double p = gridPos - gridIndex;
+
+		long blockNum = Math.floorDiv(gridIndex, BLOCK_SIZE);
+
+		// Index within the block of the grid point preceding the interval.
+		int k = (int) (gridIndex - blockNum * BLOCK_SIZE);
+
+		double w0 = -p * (p - 1) * (p - 2) / 6;
+		double w1 = (p + 1) * (p - 1) * (p - 2) / 2;
+		double w2 = -(p + 1) * p * (p - 2) / 2;
+		double w3 = (p + 1) * p * (p - 1) / 6;
+
+		for (int axis = 0; axis < 3; axis++) {
+			double[] values = block[axis];
+			correction[axis] = w0 * values[k] + w1 * values[k + 1] + w2
+					* values[k + 2] + w3 * values[k + 3];
+		}
+	}
+
+	private long blockNum(double jd) {
+		return Math.floorDiv((long) Math.floor(jd / step), BLOCK_SIZE);
+	}
+
+	// A task over a chunk [from, to) of an index range.
+	private interface ChunkTask {
+		abstract public void run(int from, int to);
+	}
+
+	// Run the task over [0, count), split into one chunk per thread of the
+	// executor, or on the calling thread if there is no executor or the
+	// count is small.
+	private static void forEachChunk(ExecutorService executor, int count,
+			final ChunkTask task) {
+
+		int chunks = executor == null ? 1 : threadCount(count);
+
+		if (chunks <= 1) {
+			task.run(0, count);
+		} else {
+			int chunkSize = (count + chunks - 1) / chunks;
+
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+
+			for (int from = 0; from < count; from += chunkSize) {
+				final int start = from;
+				final int end = Math.min(from + chunkSize, count);
+
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						task.run(start, end);
+						return null;
+					}
+				}));
+			}
+
+			try {
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(
+						"HJD conversion interrupted", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	private static int threadCount(int count) {
+		return Math.max(1, Math.min(count / MIN_JDS_PER_THREAD, Runtime
+				.getRuntime().availableProcessors()));
+	}
+
+	// Returns an executor for the specified number of JDs, or null if they
+	// are too few to be worth converting in parallel.
+	private static ExecutorService createExecutor(int count) {
+		ExecutorService executor = null;
+
+		int threads = threadCount(count);
+
+		if (threads > 1) {
+			executor = Executors.newFixedThreadPool(threads,
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r,
+									"VStar HJD conversion");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+
+		return executor;
+	}
+}
@@ -48,6 +48,9 @@ import org.aavso.tools.vstar.util.coords.RAInfo;
  */
 public class J2000HJDConverter extends AbstractHJDConverter {
 
+	// The speed of light in AU per day.
+	private static final double SPEED_OF_LIGHT = 173.144632674240;
+
 	/**
 	 * Given a JD and a target's RA and Dec, return the Heliocentric Julian
 	 * Date.
@@ -74,6 +77,33 @@ public class J2000HJDConverter extends AbstractHJDConverter {
 		return hjd(jd, T, coords, ra, dec);
 	}
 
+	/**
+	 * @see org.aavso.tools.vstar.util.date.AbstractHJDConverter#correctionVector(double)
+	 */
+	@Override
+	public double[] correctionVector(double jd) {
+		double T = julianCenturies(jd);
+
+		int year = AbstractDateUtil.getInstance().jdToYMD(jd).getYear();
+
+		SolarCoords coords = solarCoords(T, year);
+
+		double R = radiusVector(T, coords.getTrueAnomaly(),
+				coords.getEquationOfCenter());
+
+		double solarRARads = Math.toRadians(coords.getRA());
+		double solarDecRads = Math.toRadians(coords.getDec());
+
+		// The Sun's position in AU divided by the speed of light in AU per
+		// day; see hjd().
+		double k = -R / SPEED_OF_LIGHT;
+
+		return new double[] {
+				k * Math.cos(solarDecRads) * Math.cos(solarRARads),
+				k * Math.cos(solarDecRads) * Math.sin(solarRARads),
+				k * Math.sin(solarDecRads) };
+	}
+
 	/**
 	 * Time measured in Julian centuries of 36525 ephemeris days from epoch
 	 * J2000.0 (2000 January 21.5 TD).<br/>
@@ -115,7 +145,7 @@ public class J2000HJDConverter extends AbstractHJDConverter {
 		// c is speed of light, expressed in AU per day, since R is measured in
 		// AU and we are correcting JD to give HJD (see
 		// https://en.wikipedia.org/wiki/Astronomical_unit)
-		double c = 173.144632674240;
+		double c = SPEED_OF_LIGHT;
 
 		double targetRARads = Math.toRadians(ra.toDegrees());
 		double targetDecRads = Math.toRadians(dec.toDegrees());
@@ -0,0 +1,183 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2010  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.date;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * This class converts between the time scales required for barycentric
+ * correction: UTC (in which observation times are usually recorded),
+ * Terrestrial Time (TT) and Barycentric Dynamical Time (TDB).
+ * </p>
+ * <p>
+ * TT-UTC is found from a bundled table of TAI-UTC (leap seconds and, before
+ * 1972, the offsets and rates of the "rubber second" era) plus TT-TAI =
+ * 32.184 seconds, so that no network access is required. Before 1961, the
+ * Espenak and Meeus polynomial expressions for Delta T are used instead.
+ * After the last tabulated leap second, TAI-UTC is assumed to be unchanged;
+ * the table must be extended when the IERS announces a new leap second.
+ * </p>
+ * <p>
+ * TDB-TT is computed from the leading periodic terms of the Fairhead and
+ * Bretagnon series (USNO Circular 179, eq 2.6), accurate to about 10
+ * microseconds.
+ * </p>
+ * <p>
+ * See also:<br/>
+ * - https://maia.usno.navy.mil/ser7/tai-utc.dat<br/>
+ * - https://eclipse.gsfc.nasa.gov/SEhelp/deltatpoly2004.html<br/>
+ * </p>
+ */
+public class TimeScales {
+
+	/**
+	 * The number of seconds in a day.
+	 */
+	public static final double SECONDS_PER_DAY = 86400.0;
+
+	// TT-TAI in seconds.
+	private static final double TT_MINUS_TAI = 32.184;
+
+	// The UTC JDs from which each TAI-UTC entry applies.
+	private static final double[] LEAP_JDS = { 2437300.5, 2437512.5,
+			2437665.5, 2438334.5, 2438395.5, 2438486.5, 2438639.5, 2438761.5,
+			2438820.5, 2438942.5, 2439004.5, 2439126.5, 2439887.5, 2441317.5,
+			2441499.5, 2441683.5, 2442048.5, 2442413.5, 2442778.5, 2443144.5,
+			2443509.5, 2443874.5, 2444239.5, 2444786.5, 2445151.5, 2445516.5,
+			2446247.5, 2447161.5, 2447892.5, 2448257.5, 2448804.5, 2449169.5,
+			2449534.5, 2450083.5, 2450630.5, 2451179.5, 2453736.5, 2454832.5,
+			2456109.5, 2457204.5, 2457754.5 };
+
+	// TAI-UTC (seconds) = OFFSETS[i] + (MJD - MJD_REFS[i]) * RATES[i]
+	private static final double[] OFFSETS = { 1.4228180, 1.3728180,
+			1.8458580, 1.9458580, 3.2401300, 3.3401300, 3.4401300, 3.5401300,
+			3.6401300, 3.7401300, 3.8401300, 4.3131700, 4.2131700, 10, 11, 12,
+			13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29,
+			30, 31, 32, 33, 34, 35, 36, 37 };
+
+	private static final double[] MJD_REFS = { 37300, 37300, 37665, 37665,
+			38761, 38761, 38761, 38761, 38761, 38761, 38761, 39126, 39126, 0,
+			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+			0, 0, 0, 0, 0 };
+
+	private static final double[] RATES = { 0.001296, 0.001296, 0.0011232,
+			0.0011232, 0.001296, 0.001296, 0.001296, 0.001296, 0.001296,
+			0.001296, 0.001296, 0.002592, 0.002592, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+	/**
+	 * Given a UTC Julian Date, return TT-UTC in seconds.
+	 * 
+	 * @param jd
+	 *            The UTC Julian Date.
+	 * @return TT-UTC in seconds.
+	 */
+	public static double ttMinusUTC(double jd) {
+		double dt = 0;
+
+		int i = Arrays.binarySearch(LEAP_JDS, jd);
+		if (i < 0) {
+			// The index of the last entry preceding the JD.
+			i = -i - 2;
+		}
+
+		if (i >= 0) {
+			double mjd = jd - 2400000.5;
+			dt = OFFSETS[i] + (mjd - MJD_REFS[i]) * RATES[i] + TT_MINUS_TAI;
+		} else {
+			dt = deltaT(jd);
+		}
+
+		return dt;
+	}
+
+	/**
+	 * Given a TT Julian Date, return TDB-TT in seconds.
+	 * 
+	 * @param jd
+	 *            The TT Julian Date.
+	 * @return TDB-TT in seconds.
+	 */
+	public static double tdbMinusTT(double jd) {
+		double T = (jd - 2451545.0) / 36525.0;
+
+		return 0.001657 * Math.sin(628.3076 * T + 6.2401) + 0.000022
+				* Math.sin(575.3385 * T + 4.2970) + 0.000014
+				* Math.sin(1256.6152 * T + 6.1969) + 0.000005
+				* Math.sin(606.9777 * T + 4.0212) + 0.000005
+				* Math.sin(52.9691 * T + 0.4444) + 0.000002
+				* Math.sin(21.3299 * T + 5.5431) + 0.000010 * T
+				* Math.sin(628.3076 * T + 4.2490);
+	}
+
+	/**
+	 * Given a UTC Julian Date, return the corresponding TDB Julian Date.
+	 * 
+	 * @param jd
+	 *            The UTC Julian Date.
+	 * @return The TDB Julian Date.
+	 */
+	public static double utcToTDB(double jd) {
+		double tt = jd + ttMinusUTC(jd) / SECONDS_PER_DAY;
+		return tt + tdbMinusTT(tt) / SECONDS_PER_DAY;
+	}
+
+	// Helpers
+
+	// Return Delta T (TT-UT) in seconds for a JD before the TAI-UTC table
+	// from the Espenak and Meeus polynomial expressions.
+	private static double deltaT(double jd) {
+		double dt = 0;
+
+		double y = 2000 + (jd - 2451544.5) / 365.2425;
+
+		if (y >= 1941) {
+			double t = y - 1950;
+			dt = 29.07 + 0.407 * t - t * t / 233 + t * t * t / 2547;
+		} else if (y >= 1920) {
+			double t = y - 1920;
+			dt = 21.20 + 0.84493 * t - 0.076100 * t * t + 0.0020936 * t * t
+					* t;
+		} else if (y >= 1900) {
+			double t = y - 1900;
+			dt = -2.79 + 1.494119 * t - 0.0598939 * t * t + 0.0061966 * t
+					* t * t - 0.000197 * t * t * t * t;
+		} else if (y >= 1860) {
+			double t = y - 1860;
+			dt = 7.62 + 0.5737 * t - 0.251754 * t * t + 0.01680668 * t * t
+					* t - 0.0004473624 * Math.pow(t, 4) + Math.pow(t, 5)
+					/ 233174;
+		} else if (y >= 1800) {
+			double t = y - 1800;
+			dt = 13.72 - 0.332447 * t + 0.0068612 * t * t + 0.0041116 * t
+					* t * t - 0.00037436 * Math.pow(t, 4) + 0.0000121272
+					* Math.pow(t, 5) - 0.0000001699 * Math.pow(t, 6)
+					+ 0.000000000875 * Math.pow(t, 7);
+		} else if (y >= 1700) {
+			double t = y - 1700;
+			dt = 8.83 + 0.1603 * t - 0.0059285 * t * t + 0.00013336 * t * t
+					* t - Math.pow(t, 4) / 1174000;
+		} else {
+			double u = (y - 1820) / 100;
+			dt = -20 + 32 * u * u;
+		}
+
+		return dt;
+	}
+}
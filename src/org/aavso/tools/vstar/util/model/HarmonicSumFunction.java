@@ -0,0 +1,174 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch evaluable multi-periodic (Fourier) model function: a constant plus
+ * a sum of cosine and sine terms, one pair per period fit parameter set.
+ * 
+ * Terms are grouped by fundamental frequency and zero point. For each group,
+ * the cosine and sine of the fundamental's argument are computed once per
+ * time and those of the harmonics are derived from them via the angle
+ * addition recurrence:
+ * 
+ * <p>
+ * cos((n+1)a) = cos(na)cos(a) - sin(na)sin(a)<br/>
+ * sin((n+1)a) = sin(na)cos(a) + cos(na)sin(a)
+ * </p>
+ * 
+ * so that only one cosine and sine evaluation is required per group rather
+ * than per harmonic.
+ */
+public class HarmonicSumFunction implements IBatchUnivariateRealFunction {
+
+	// Fundamental frequencies whose relative difference is no larger than this
+	// are considered to be the same.
+	private static final double FREQUENCY_TOLERANCE = 1e-12;
+
+	private final double constant;
+	private final HarmonicGroup[] groups;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param parameters
+	 *            The period fit parameters. The constant coefficient is taken
+	 *            from the first.
+	 */
+	public HarmonicSumFunction(List<PeriodFitParameters> parameters) {
+		constant = parameters.isEmpty() ? 0 : parameters.get(0)
+				.getConstantCoefficient();
+
+		List<HarmonicGroup> groupList = new ArrayList<HarmonicGroup>();
+
+		for (PeriodFitParameters params : parameters) {
+			HarmonicGroup group = null;
+
+			for (HarmonicGroup candidate : groupList) {
+				if (candidate.includes(params)) {
+					group = candidate;
+					break;
+				}
+			}
+
+			if (group == null) {
+				group = new HarmonicGroup(params);
+				groupList.add(group);
+			}
+
+			group.add(params);
+		}
+
+		groups = groupList.toArray(new HarmonicGroup[groupList.size()]);
+	}
+
+	/**
+	 * @see org.apache.commons.math.analysis.UnivariateRealFunction#value(double)
+	 */
+	@Override
+	public double value(double t) {
+		double y = constant;
+
+		for (HarmonicGroup group : groups) {
+			y += group.value(t);
+		}
+
+		return y;
+	}
+
+	/**
+	 * @see org.aavso.tools.vstar.util.model.IBatchUnivariateRealFunction#values(double[],
+	 *      double[])
+	 */
+	@Override
+	public void values(double[] ts, double[] ys) {
+		for (int i = 0; i < ts.length; i++) {
+			ys[i] = value(ts[i]);
+		}
+	}
+
+	/**
+	 * The terms whose frequencies are harmonics of a common fundamental.
+	 */
+	private static class HarmonicGroup {
+
+		private final double fundamental;
+		private final double zeroPoint;
+
+		// Coefficients indexed by harmonic number; index 0 is unused.
+		private double[] cosineCoeffs;
+		private double[] sineCoeffs;
+
+		HarmonicGroup(PeriodFitParameters params) {
+			fundamental = params.getHarmonic().getFundamentalFrequency();
+			zeroPoint = params.getZeroPointOffset();
+			cosineCoeffs = new double[Harmonic.FUNDAMENTAL + 1];
+			sineCoeffs = new double[Harmonic.FUNDAMENTAL + 1];
+		}
+
+		boolean includes(PeriodFitParameters params) {
+			double otherFundamental = params.getHarmonic()
+					.getFundamentalFrequency();
+
+			return zeroPoint == params.getZeroPointOffset()
+					&& Math.abs(fundamental - otherFundamental) <= FREQUENCY_TOLERANCE
+							* fundamental;
+		}
+
+		void add(PeriodFitParameters params) {
+			int n = params.getHarmonicNumber();
+
+			if (n >= cosineCoeffs.length) {
+				double[] cosines = new double[n + 1];
+				double[] sines = new double[n + 1];
+				System.arraycopy(cosineCoeffs, 0, cosines, 0,
+						cosineCoeffs.length);
+				System.arraycopy(sineCoeffs, 0, sines, 0, sineCoeffs.length);
+				cosineCoeffs = cosines;
+				sineCoeffs = sines;
+			}
+
+			cosineCoeffs[n] += params.getCosineCoefficient();
+			sineCoeffs[n] += params.getSineCoefficient();
+		}
+
+		double value(double t) {
+			double a = 2 * Math.PI * fundamental * (t - zeroPoint);
+			double cos1 = Math.cos(a);
+			double sin1 = Math.sin(a);
+
+			double cosN = cos1;
+			double sinN = sin1;
+
+			double y = cosineCoeffs[1] * cosN + sineCoeffs[1] * sinN;
+
+			for (int n = 2; n < cosineCoeffs.length; n++) {
+				double cosNext = cosN * cos1 - sinN * sin1;
+				sinN = sinN * cos1 + cosN * sin1;
+				cosN = cosNext;
+
+				y += cosineCoeffs[n] * cosN + sineCoeffs[n] * sinN;
+			}
+
+			return y;
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.model;
+
+import org.apache.commons.math.FunctionEvaluationException;
+import org.apache.commons.math.analysis.UnivariateRealFunction;
+
+/**
+ * A univariate function that can be evaluated over an array of arguments in
+ * one call, permitting implementations to share work between arguments
+ * rather than evaluating each independently.
+ */
+public interface IBatchUnivariateRealFunction extends UnivariateRealFunction {
+
+	/**
+	 * Evaluate the function for each of the specified arguments. The
+	 * arguments and values arrays may be the same array, in which case the
+	 * arguments are replaced by the values.
+	 * 
+	 * @param xs
+	 *            The arguments.
+	 * @param ys
+	 *            The array into which the values are stored; at least as long
+	 *            as the arguments array.
+	 * @throws FunctionEvaluationException
+	 *             if the function cannot be evaluated for an argument.
+	 */
+	abstract public void values(double[] xs, double[] ys)
+			throws FunctionEvaluationException;
+}
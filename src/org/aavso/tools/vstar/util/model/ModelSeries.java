@@ -0,0 +1,437 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.aavso.tools.vstar.data.DateInfo;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.stats.PhaseCalcs;
+
+/**
+ * This class represents the fit and residual series of a model as primitive
+ * arrays of times and magnitudes rather than as lists of observations.
+ * 
+ * Each series is exposed as a read-only list of observations (an observation
+ * view) so that existing consumers (plots, tables, sinks) continue to work,
+ * but a ValidObservation is only created for an item when it is first
+ * requested and is then retained so that subsequent requests yield the same
+ * instance. Consumers that only need times, magnitudes or phases can obtain
+ * these from the view directly without creating any observations.
+ */
+public class ModelSeries {
+
+	private ObservationView fit;
+	private ObservationView residuals;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param fitTimes
+	 *            The fit times (JD).
+	 * @param fitValues
+	 *            The fitted magnitudes.
+	 * @param residualTimes
+	 *            The residual times (JD).
+	 * @param residualValues
+	 *            The residual magnitudes.
+	 * @param comment
+	 *            The comment to be associated with each fit and residual
+	 *            observation; may be null.
+	 */
+	public ModelSeries(double[] fitTimes, double[] fitValues,
+			double[] residualTimes, double[] residualValues, String comment) {
+		this(new ObservationView(SeriesType.Model, fitTimes, fitValues,
+				comment), new ObservationView(SeriesType.Residuals,
+				residualTimes, residualValues, comment));
+	}
+
+	/**
+	 * Constructor for models that create fit and residual observations
+	 * themselves. The observations are retained as the materialised items of
+	 * the resulting views.
+	 * 
+	 * @param fit
+	 *            The fit observations.
+	 * @param residuals
+	 *            The residual observations.
+	 */
+	public ModelSeries(List<ValidObservation> fit,
+			List<ValidObservation> residuals) {
+		this(new ObservationView(SeriesType.Model, fit),
+				new ObservationView(SeriesType.Residuals, residuals));
+	}
+
+	private ModelSeries(ObservationView fit, ObservationView residuals) {
+		this.fit = fit;
+		this.residuals = residuals;
+	}
+
+	/**
+	 * Return the model series for the specified model. If the model's fit and
+	 * residuals are already observation views, these are used directly,
+	 * otherwise the model's observation lists are wrapped.
+	 * 
+	 * @param model
+	 *            The model.
+	 * @return The corresponding model series.
+	 */
+	public static ModelSeries forModel(IModel model) {
+		ModelSeries series;
+
+		List<ValidObservation> fit = model.getFit();
+		List<ValidObservation> residuals = model.getResiduals();
+
+		if (fit instanceof ObservationView
+				&& residuals instanceof ObservationView) {
+			series = new ModelSeries((ObservationView) fit,
+					(ObservationView) residuals);
+		} else {
+			series = new ModelSeries(fit, residuals);
+		}
+
+		return series;
+	}
+
+	/**
+	 * @return The fit observation view.
+	 */
+	public ObservationView getFit() {
+		return fit;
+	}
+
+	/**
+	 * @return The residuals observation view.
+	 */
+	public ObservationView getResiduals() {
+		return residuals;
+	}
+
+	/**
+	 * Set the standard and previous cycle phases of the fit and residual
+	 * series given the specified epoch and period.
+	 * 
+	 * @param epoch
+	 *            An epoch (starting JD).
+	 * @param period
+	 *            A period on which to base the phases.
+	 */
+	public void setPhases(double epoch, double period) {
+		fit.setPhases(epoch, period);
+		residuals.setPhases(epoch, period);
+	}
+
+	/**
+	 * Return a model series whose fit and residuals views are ordered by
+	 * standard phase. The views share their observations with those of this
+	 * series.
+	 * 
+	 * @return The phase ordered model series.
+	 */
+	public ModelSeries phaseOrdered() {
+		return new ModelSeries(fit.phaseOrdered(), residuals.phaseOrdered());
+	}
+
+	/**
+	 * A read-only list of observations backed by time and magnitude arrays in
+	 * which observations are created on demand.
+	 */
+	public static class ObservationView extends
+			AbstractList<ValidObservation> {
+
+		private final SeriesType band;
+		private final double[] times;
+		private final double[] values;
+		private final String comment;
+
+		// Materialised observations, indexed as per times and values, shared
+		// between differently ordered views of the same series.
+		private final ValidObservation[] obs;
+
+		// Item to array index mapping; null means identity.
+		private final int[] order;
+
+		// Phase parameters; NaN until phases are set.
+		private double epoch;
+		private double period;
+
+		ObservationView(SeriesType band, double[] times, double[] values,
+				String comment) {
+			assert times.length == values.length;
+
+			this.band = band;
+			this.times = times;
+			this.values = values;
+			this.comment = comment;
+			this.obs = new ValidObservation[times.length];
+			this.order = null;
+			this.epoch = Double.NaN;
+			this.period = Double.NaN;
+		}
+
+		ObservationView(SeriesType band, List<ValidObservation> obs) {
+			this.band = band;
+			this.times = new double[obs.size()];
+			this.values = new double[obs.size()];
+			this.comment = null;
+			this.obs = obs.toArray(new ValidObservation[obs.size()]);
+			this.order = null;
+			this.epoch = Double.NaN;
+			this.period = Double.NaN;
+
+			for (int i = 0; i < this.obs.length; i++) {
+				times[i] = this.obs[i].getJD();
+				values[i] = this.obs[i].getMag();
+			}
+		}
+
+		private ObservationView(ObservationView view, int[] order) {
+			this.band = view.band;
+			this.times = view.times;
+			this.values = view.values;
+			this.comment = view.comment;
+			this.obs = view.obs;
+			this.order = order;
+			this.epoch = view.epoch;
+			this.period = view.period;
+		}
+
+		/**
+		 * @see java.util.AbstractList#get(int)
+		 */
+		@Override
+		public ValidObservation get(int item) {
+			int index = index(item);
+
+			synchronized (obs) {
+				ValidObservation ob = obs[index];
+
+				if (ob == null) {
+					ob = new ValidObservation();
+					ob.setDateInfo(new DateInfo(times[index]));
+					ob.setMagnitude(new Magnitude(values[index], 0));
+					ob.setBand(band);
+					if (comment != null) {
+						ob.setComments(comment);
+					}
+					if (isPhased()) {
+						setPhases(ob, times[index]);
+					}
+					obs[index] = ob;
+				}
+
+				return ob;
+			}
+		}
+
+		/**
+		 * @see java.util.AbstractCollection#size()
+		 */
+		@Override
+		public int size() {
+			return times.length;
+		}
+
+		/**
+		 * Returns the index of the specified observation in this view. Only
+		 * observations obtained from this view or another view of the same
+		 * series can be found, so the search is by identity and does not
+		 * create any observations.
+		 * 
+		 * @see java.util.AbstractList#indexOf(java.lang.Object)
+		 */
+		@Override
+		public int indexOf(Object o) {
+			int item = -1;
+
+			if (o != null) {
+				synchronized (obs) {
+					for (int i = 0; i < times.length; i++) {
+						if (obs[index(i)] == o) {
+							item = i;
+							break;
+						}
+					}
+				}
+			}
+
+			return item;
+		}
+
+		/**
+		 * @see java.util.AbstractList#lastIndexOf(java.lang.Object)
+		 */
+		@Override
+		public int lastIndexOf(Object o) {
+			return indexOf(o);
+		}
+
+		/**
+		 * @see java.util.AbstractCollection#contains(java.lang.Object)
+		 */
+		@Override
+		public boolean contains(Object o) {
+			return indexOf(o) != -1;
+		}
+
+		/**
+		 * Return the time (JD) of the specified item.
+		 * 
+		 * @param item
+		 *            The item number.
+		 * @return The JD.
+		 */
+		public double getJD(int item) {
+			return times[index(item)];
+		}
+
+		/**
+		 * Return the magnitude of the specified item.
+		 * 
+		 * @param item
+		 *            The item number.
+		 * @return The magnitude.
+		 */
+		public double getMag(int item) {
+			return values[index(item)];
+		}
+
+		/**
+		 * Return the standard phase of the specified item.
+		 * 
+		 * @param item
+		 *            The item number.
+		 * @return The standard phase or NaN if phases have not been set.
+		 */
+		public double getStandardPhase(int item) {
+			int index = index(item);
+			double phase = Double.NaN;
+
+			if (isPhased()) {
+				phase = PhaseCalcs.calcStandardPhase(times[index], epoch,
+						period);
+			} else {
+				ValidObservation ob = obs[index];
+				if (ob != null && ob.getStandardPhase() != null) {
+					phase = ob.getStandardPhase();
+				}
+			}
+
+			return phase;
+		}
+
+		/**
+		 * Return the previous cycle phase of the specified item.
+		 * 
+		 * @param item
+		 *            The item number.
+		 * @return The previous cycle phase or NaN if phases have not been
+		 *         set.
+		 */
+		public double getPreviousCyclePhase(int item) {
+			int index = index(item);
+			double phase = Double.NaN;
+
+			if (isPhased()) {
+				phase = PhaseCalcs.calcStandardPhase(times[index], epoch,
+						period) - 1;
+			} else {
+				ValidObservation ob = obs[index];
+				if (ob != null && ob.getPreviousCyclePhase() != null) {
+					phase = ob.getPreviousCyclePhase();
+				}
+			}
+
+			return phase;
+		}
+
+		/**
+		 * Set the standard and previous cycle phases of this view's items
+		 * given the specified epoch and period. Observations that have already
+		 * been created are updated.
+		 * 
+		 * @param epoch
+		 *            An epoch (starting JD).
+		 * @param period
+		 *            A period on which to base the phases.
+		 */
+		public void setPhases(double epoch, double period) {
+			synchronized (obs) {
+				this.epoch = epoch;
+				this.period = period;
+
+				for (int i = 0; i < times.length; i++) {
+					int index = index(i);
+					if (obs[index] != null) {
+						setPhases(obs[index], times[index]);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Return a view of this view's items ordered by standard phase.
+		 * 
+		 * @return The phase ordered view.
+		 */
+		public ObservationView phaseOrdered() {
+			final double[] phases = new double[times.length];
+			Integer[] items = new Integer[times.length];
+
+			for (int i = 0; i < times.length; i++) {
+				phases[i] = getStandardPhase(i);
+				items[i] = i;
+			}
+
+			Arrays.sort(items, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer item1, Integer item2) {
+					return Double.compare(phases[item1], phases[item2]);
+				}
+			});
+
+			int[] phaseOrder = new int[times.length];
+			for (int i = 0; i < times.length; i++) {
+				phaseOrder[i] = index(items[i]);
+			}
+
+			return new ObservationView(this, phaseOrder);
+		}
+
+		// Helpers
+
+		private int index(int item) {
+			return order == null ? item : order[item];
+		}
+
+		private boolean isPhased() {
+			return !Double.isNaN(epoch) && !Double.isNaN(period);
+		}
+
+		private void setPhases(ValidObservation ob, double jd) {
+			double phase = PhaseCalcs.calcStandardPhase(jd, epoch, period);
+			ob.setStandardPhase(phase);
+			ob.setPreviousCyclePhase(phase - 1);
+		}
+	}
+}
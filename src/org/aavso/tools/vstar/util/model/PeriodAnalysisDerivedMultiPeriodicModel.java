@@ -31,9 +31,6 @@ import org.aavso.tools.vstar.util.period.IPeriodAnalysisAlgorithm;
 import org.aavso.tools.vstar.util.period.PeriodAnalysisCoordinateType;
 import org.aavso.tools.vstar.util.period.dcdft.PeriodAnalysisDataPoint;
 import org.aavso.tools.vstar.util.prefs.NumericPrecisionPrefs;
-import org.aavso.tools.vstar.util.stats.DescStats;
-import org.apache.commons.math.FunctionEvaluationException;
-import org.apache.commons.math.analysis.UnivariateRealFunction;
 
 /**
  * This class creates a multi-periodic fit model for the specified observations
@@ -48,6 +45,9 @@ public class PeriodAnalysisDerivedMultiPeriodicModel implements IModel {
 	private List<ValidObservation> fit;
 	private List<ValidObservation> residuals;
 
+	// Array-based fit and residuals, if set by the algorithm.
+	private ModelSeries series;
+
 	// TODO: PeriodFitParameters could instead be a generic parameter per concrete
 	// model since this will differ for each model type.
 	private List<PeriodFitParameters> parameters;
@@ -112,7 +112,7 @@ public class PeriodAnalysisDerivedMultiPeriodicModel implements IModel {
 	 */
 	@Override
 	public List<ValidObservation> getFit() {
-		return fit;
+		return series != null ? series.getFit() : fit;
 	}
 
 	/**
@@ -120,7 +120,21 @@ public class PeriodAnalysisDerivedMultiPeriodicModel implements IModel {
 	 */
 	@Override
 	public List<ValidObservation> getResiduals() {
-		return residuals;
+		return series != null ? series.getResiduals() : residuals;
+	}
+
+	/**
+	 * Set the fit and residuals of this model as a model series. An algorithm
+	 * may call this instead of adding observations to the fit and residual
+	 * lists.
+	 * 
+	 * @param series
+	 *            The model series.
+	 */
+	public void setModelSeries(ModelSeries series) {
+		this.series = series;
+		fit.clear();
+		residuals.clear();
 	}
 
 	/**
@@ -310,19 +324,7 @@ public class PeriodAnalysisDerivedMultiPeriodicModel implements IModel {
 
 	@Override
 	public ContinuousModelFunction getModelFunction() {
-		UnivariateRealFunction func = new UnivariateRealFunction() {
-			@Override
-			public double value(double t) throws FunctionEvaluationException {
-				double y = parameters.get(0).getConstantCoefficient();
-
-				for (int i = 0; i < parameters.size(); i++) {
-					PeriodFitParameters params = parameters.get(i);
-					y += params.toValue(t);
-				}
-				return y;
-			}
-		};
-		return new ContinuousModelFunction(func, fit);
+		return new ContinuousModelFunction(new HarmonicSumFunction(parameters), getFit());
 	}
 
 	@Override
@@ -345,17 +347,39 @@ public class PeriodAnalysisDerivedMultiPeriodicModel implements IModel {
 		// Find the semi-amplitude for the fundamental frequency (zeroth harmonic)
 		double semiAmplitude = topDataPoint.getSemiAmplitude();
 
-		double sampleVariance = DescStats.calcMagSampleVarianceInRange(residuals, 0, residuals.size() - 1);
+		ModelSeries.ObservationView residualView = ModelSeries.forModel(this).getResiduals();
 
-		double totalTimeSpan = residuals.get(residuals.size() - 1).getJD() - residuals.get(0).getJD();
+		double sampleVariance = residualSampleVariance(residualView);
 
-		return Math.sqrt(6 * sampleVariance / (Math.PI * Math.PI * residuals.size() * semiAmplitude * semiAmplitude
+		double totalTimeSpan = residualView.getJD(residualView.size() - 1) - residualView.getJD(0);
+
+		return Math.sqrt(6 * sampleVariance / (Math.PI * Math.PI * residualView.size() * semiAmplitude * semiAmplitude
 				* totalTimeSpan * totalTimeSpan));
 	}
 
 	public double standardErrorOfTheSemiAmplitude() throws AlgorithmError {
-		double sampleVariance = DescStats.calcMagSampleVarianceInRange(residuals, 0, residuals.size() - 1);
-		return Math.sqrt(2 * sampleVariance / residuals.size());
+		ModelSeries.ObservationView residualView = ModelSeries.forModel(this).getResiduals();
+
+		double sampleVariance = residualSampleVariance(residualView);
+		return Math.sqrt(2 * sampleVariance / residualView.size());
+	}
+
+	// Sample variance of the residual magnitudes, computed from the model
+	// series' arrays so that no residual observations need be created.
+	private double residualSampleVariance(ModelSeries.ObservationView residuals) {
+		double mean = 0;
+		for (int i = 0; i < residuals.size(); i++) {
+			mean += residuals.getMag(i);
+		}
+		mean /= residuals.size();
+
+		double total = 0;
+		for (int i = 0; i < residuals.size(); i++) {
+			double delta = residuals.getMag(i) - mean;
+			total += delta * delta;
+		}
+
+		return total / (residuals.size() - 1);
 	}
 
 	// Full Width Half Maximum for the model's fundamental frequency (zeroth
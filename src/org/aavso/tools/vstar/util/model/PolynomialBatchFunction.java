@@ -0,0 +1,89 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.model;
+
+import org.apache.commons.math.analysis.polynomials.PolynomialFunction;
+
+/**
+ * A batch evaluable polynomial, evaluated via Horner's method. The
+ * coefficients are obtained from the polynomial once, rather than once per
+ * evaluation.
+ */
+public class PolynomialBatchFunction implements IBatchUnivariateRealFunction {
+
+	// Coefficients in increasing order of degree.
+	private final double[] coeffs;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param polynomial
+	 *            The polynomial to be evaluated.
+	 */
+	public PolynomialBatchFunction(PolynomialFunction polynomial) {
+		this(polynomial.getCoefficients());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param coeffs
+	 *            The polynomial's coefficients in increasing order of degree.
+	 */
+	public PolynomialBatchFunction(double[] coeffs) {
+		this.coeffs = coeffs;
+	}
+
+	/**
+	 * @see org.apache.commons.math.analysis.UnivariateRealFunction#value(double)
+	 */
+	@Override
+	public double value(double x) {
+		return evaluate(coeffs, x);
+	}
+
+	/**
+	 * @see org.aavso.tools.vstar.util.model.IBatchUnivariateRealFunction#values(double[],
+	 *      double[])
+	 */
+	@Override
+	public void values(double[] xs, double[] ys) {
+		for (int i = 0; i < xs.length; i++) {
+			ys[i] = evaluate(coeffs, xs[i]);
+		}
+	}
+
+	/**
+	 * Evaluate a polynomial via Horner's method.
+	 * 
+	 * @param coeffs
+	 *            The polynomial's coefficients in increasing order of degree.
+	 * @param x
+	 *            The argument.
+	 * @return The polynomial's value.
+	 */
+	public static double evaluate(double[] coeffs, double x) {
+		double y = 0;
+
+		for (int i = coeffs.length - 1; i >= 0; i--) {
+			y = y * x + coeffs[i];
+		}
+
+		return y;
+	}
+}
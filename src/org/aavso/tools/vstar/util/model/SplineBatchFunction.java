@@ -0,0 +1,130 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.model;
+
+import java.util.Arrays;
+
+import org.apache.commons.math.ArgumentOutsideDomainException;
+import org.apache.commons.math.analysis.polynomials.PolynomialFunction;
+import org.apache.commons.math.analysis.polynomials.PolynomialSplineFunction;
+
+/**
+ * A batch evaluable polynomial spline, e.g. as created by Loess
+ * interpolation.
+ * 
+ * Evaluating a spline for a single argument requires a binary search for the
+ * segment containing the argument. When evaluating over ascending arguments,
+ * as is the case for a model's times or a plot's domain, the segment is
+ * instead found by advancing from that of the previous argument. Values are
+ * identical to those of the spline itself.
+ */
+public class SplineBatchFunction implements IBatchUnivariateRealFunction {
+
+	private final double[] knots;
+	private final double[][] coeffs;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param spline
+	 *            The spline to be evaluated.
+	 */
+	public SplineBatchFunction(PolynomialSplineFunction spline) {
+		knots = spline.getKnots();
+
+		PolynomialFunction[] polynomials = spline.getPolynomials();
+		coeffs = new double[polynomials.length][];
+		for (int i = 0; i < polynomials.length; i++) {
+			coeffs[i] = polynomials[i].getCoefficients();
+		}
+	}
+
+	/**
+	 * @see org.apache.commons.math.analysis.UnivariateRealFunction#value(double)
+	 */
+	@Override
+	public double value(double x) throws ArgumentOutsideDomainException {
+		checkDomain(x);
+
+		return evaluate(segment(x), x);
+	}
+
+	/**
+	 * @see org.aavso.tools.vstar.util.model.IBatchUnivariateRealFunction#values(double[],
+	 *      double[])
+	 */
+	@Override
+	public void values(double[] xs, double[] ys)
+			throws ArgumentOutsideDomainException {
+
+		int segment = 0;
+		double prevX = Double.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < xs.length; i++) {
+			double x = xs[i];
+
+			checkDomain(x);
+
+			if (x >= prevX) {
+				// Advance to the last knot not greater than x.
+				while (segment < knots.length - 1 && knots[segment + 1] <= x) {
+					segment++;
+				}
+			} else {
+				segment = knotIndex(x);
+			}
+
+			prevX = x;
+
+			ys[i] = evaluate(Math.min(segment, coeffs.length - 1), x);
+		}
+	}
+
+	// Helpers
+
+	private void checkDomain(double x) throws ArgumentOutsideDomainException {
+		double lower = knots[0];
+		double upper = knots[knots.length - 1];
+
+		if (x < lower || x > upper) {
+			throw new ArgumentOutsideDomainException(x, lower, upper);
+		}
+	}
+
+	// Returns the index of the last knot not greater than x.
+	private int knotIndex(double x) {
+		int i = Arrays.binarySearch(knots, x);
+
+		if (i < 0) {
+			i = -i - 2;
+		}
+
+		return i;
+	}
+
+	// Returns the index of the polynomial for x. The last knot belongs to the
+	// last polynomial.
+	private int segment(double x) {
+		return Math.min(knotIndex(x), coeffs.length - 1);
+	}
+
+	private double evaluate(int segment, double x) {
+		return PolynomialBatchFunction.evaluate(coeffs[segment], x
+				- knots[segment]);
+	}
+}
@@ -17,14 +17,11 @@
  */
 package org.aavso.tools.vstar.util.model;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.aavso.tools.vstar.data.DateInfo;
-import org.aavso.tools.vstar.data.Magnitude;
-import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
 import org.aavso.tools.vstar.ui.model.plot.ContinuousModelFunction;
@@ -55,8 +52,7 @@ public class TSPolynomialFitter extends TSBase implements IPolynomialFitter {
 	private double[] tfit;
 	private double[] xfit;
 
-	private List<ValidObservation> fit;
-	private List<ValidObservation> residuals;
+	private ModelSeries series;
 
 	private Map<String, String> functionStrMap;
 
@@ -138,7 +134,7 @@ public class TSPolynomialFitter extends TSBase implements IPolynomialFitter {
 	 */
 	@Override
 	public List<ValidObservation> getFit() {
-		return fit;
+		return series != null ? series.getFit() : null;
 	}
 
 	/**
@@ -146,7 +142,7 @@ public class TSPolynomialFitter extends TSBase implements IPolynomialFitter {
 	 */
 	@Override
 	public List<ValidObservation> getResiduals() {
-		return residuals;
+		return series != null ? series.getResiduals() : null;
 	}
 
 	void polymast(int polyDeg) throws AlgorithmError, InterruptedException {
@@ -193,26 +189,24 @@ public class TSPolynomialFitter extends TSBase implements IPolynomialFitter {
 		// write(1,292) dt0+tvec(nlolim),dt0+tvec(nuplim),dt0+dtzero
 		// write(1,221) dpower
 
-		// Store the results of the polynomial fit operation as
-		// "fit observations".
-		fit = new ArrayList<ValidObservation>();
+		// Store the results of the polynomial fit operation as the times and
+		// magnitudes of the model series' "fit observations".
 
 		// TODO: fix wrt locale
 		String comment = "From polynomial fit of degree " + degree;
 
+		double[] fitTimes = new double[numred];
+		double[] fitMags = new double[numred];
+
 		for (n = 1; n <= numred; n++) {
 			// write(1,222)tfit(n)+dt0,xfit(n),ds9*sfit(n)
-			ValidObservation fitOb = new ValidObservation();
-			fitOb.setDateInfo(new DateInfo(tfit[n] + dt0));
 			// double uncertainty = ds9*sfit[n]; // TODO: ask Matt about this;
 			// uncertainty?
-			fitOb.setMagnitude(new Magnitude(xfit[n], 0));
-			fitOb.setComments(comment);
-			fitOb.setBand(SeriesType.Model);
-			fit.add(fitOb);
+			fitTimes[n - 1] = tfit[n] + dt0;
+			fitMags[n - 1] = xfit[n];
 		}
 
-		if (fit.isEmpty()) {
+		if (numred == 0) {
 			throw new AlgorithmError("No observations in fit list.");
 		}
 
@@ -224,8 +218,10 @@ public class TSPolynomialFitter extends TSBase implements IPolynomialFitter {
 		// 42 write(6,*) 'Could not open file.'
 
 		// Store the residuals resulting from the polynomial fit operation as
-		// "residual observations".
-		residuals = new ArrayList<ValidObservation>();
+		// the times and magnitudes of "residual observations".
+		double[] residualTimes = new double[nuplim - nlolim + 1];
+		double[] residualMags = new double[nuplim - nlolim + 1];
+		int numResiduals = 0;
 
 		for (n = nlolim; n <= nuplim; n++) {
 			if (wvec[n] > 0.0) {
@@ -237,15 +233,16 @@ public class TSPolynomialFitter extends TSBase implements IPolynomialFitter {
 						res = res - dcoef[npoly + nb];
 				}
 				// write(9,240) tvec(n)+dt0,res
-				ValidObservation residualOb = new ValidObservation();
-				residualOb.setDateInfo(new DateInfo(tvec[n] + dt0));
-				residualOb.setMagnitude(new Magnitude(res, 0));
-				residualOb.setComments(comment);
-				residualOb.setBand(SeriesType.Residuals);
-				residuals.add(residualOb);
+				residualTimes[numResiduals] = tvec[n] + dt0;
+				residualMags[numResiduals] = res;
+				numResiduals++;
 			}
 		}
 
+		series = new ModelSeries(fitTimes, fitMags, Arrays.copyOf(
+				residualTimes, numResiduals), Arrays.copyOf(residualMags,
+				numResiduals), comment);
+
 		// 211 format(7hTime0= ,f12.4)
 		// 212 format(7hPower= ,1pe12.6)
 		// 213 format(i2,1x,1pd24.16)
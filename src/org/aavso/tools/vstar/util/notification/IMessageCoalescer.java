@@ -0,0 +1,37 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.notification;
+
+import java.util.List;
+
+/**
+ * A message coalescer reduces a batch of messages deferred by a notifier to
+ * a (usually smaller) list of equivalent messages, e.g. by merging many
+ * messages into one or by keeping only the last message of a batch.
+ */
+public interface IMessageCoalescer<T> {
+
+	/**
+	 * Coalesce the messages of a batch.
+	 * 
+	 * @param messages
+	 *            The messages in the order they were sent; not empty.
+	 * @return The messages to be delivered to listeners, in order.
+	 */
+	public abstract List<T> coalesce(List<T> messages);
+}
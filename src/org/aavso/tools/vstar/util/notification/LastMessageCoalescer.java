@@ -0,0 +1,34 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.notification;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A message coalescer for messages whose latest value supersedes all earlier
+ * ones, e.g. a selection or visibility change. Only the last message of a
+ * batch is delivered.
+ */
+public class LastMessageCoalescer<T> implements IMessageCoalescer<T> {
+
+	@Override
+	public List<T> coalesce(List<T> messages) {
+		return Collections.singletonList(messages.get(messages.size() - 1));
+	}
+}
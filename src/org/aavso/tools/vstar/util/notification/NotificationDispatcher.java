@@ -0,0 +1,127 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.notification;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+
+import org.aavso.tools.vstar.ui.VStar;
+
+/**
+ * A dispatcher that delivers notifier messages asynchronously on a single,
+ * dedicated daemon thread, in the order in which they were sent.
+ * 
+ * The dispatcher's queue is bounded: a sender blocks when the queue is full
+ * until the dispatch thread catches up, so a burst of messages cannot grow
+ * memory without limit. Listeners invoked by a dispatcher must not assume
+ * they are running on the Swing event dispatch thread.
+ */
+public class NotificationDispatcher {
+
+	/**
+	 * The default maximum number of pending deliveries.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final BlockingQueue<Runnable> queue;
+	private final Thread thread;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param name
+	 *            The name of the dispatch thread.
+	 * @param capacity
+	 *            The maximum number of pending deliveries.
+	 */
+	public NotificationDispatcher(String name, int capacity) {
+		queue = new ArrayBlockingQueue<Runnable>(capacity);
+
+		thread = new Thread(name) {
+			public void run() {
+				while (!isInterrupted()) {
+					try {
+						queue.take().run();
+					} catch (InterruptedException e) {
+						break;
+					} catch (RuntimeException e) {
+						VStar.LOGGER.log(Level.WARNING,
+								"Notification dispatch error", e);
+					}
+				}
+			}
+		};
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param name
+	 *            The name of the dispatch thread.
+	 */
+	public NotificationDispatcher(String name) {
+		this(name, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Queue a delivery, blocking while the queue is full. A delivery queued
+	 * from the dispatch thread itself (i.e. by a listener) when the queue is
+	 * full is run immediately rather than deadlocking the dispatcher.
+	 * 
+	 * @param delivery
+	 *            The delivery to be run on the dispatch thread.
+	 */
+	public void dispatch(Runnable delivery) {
+		if (isDispatchThread()) {
+			if (!queue.offer(delivery)) {
+				delivery.run();
+			}
+		} else {
+			try {
+				queue.put(delivery);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @return Is the current thread this dispatcher's thread?
+	 */
+	public boolean isDispatchThread() {
+		return Thread.currentThread() == thread;
+	}
+
+	/**
+	 * @return The number of deliveries waiting to be run.
+	 */
+	public int getPendingCount() {
+		return queue.size();
+	}
+
+	/**
+	 * Stop the dispatch thread. Pending deliveries are discarded.
+	 */
+	public void shutdown() {
+		thread.interrupt();
+	}
+}
@@ -17,7 +17,12 @@
  */
 package org.aavso.tools.vstar.util.notification;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A notifier class genericised on the class of object that will be sent to
@@ -25,22 +30,72 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * Observer pattern than the one provided via the standard Java
  * Observer/Observable framework. A good candidate for T is an enum. Notice that
  * both notifier and listener must share the same type T.
+ * 
+ * By default, messages are delivered synchronously as they are sent. In
+ * addition:
+ * <ul>
+ * <li>Between beginBatch() and endBatch() calls, messages are deferred and
+ * then passed through the notifier's coalescer (if any), so that e.g. many
+ * messages may be delivered as one.</li>
+ * <li>If a dispatcher is set, messages are delivered asynchronously on the
+ * dispatcher's thread.</li>
+ * <li>The history of messages retained for replay to new listeners may be
+ * bounded.</li>
+ * </ul>
+ * Dispatch metrics (listener count, message counts, latency) are available
+ * via getMetrics().
  */
 public class Notifier<T> {
 
+	/**
+	 * History capacity denoting that all messages are retained.
+	 */
+	public static final int UNBOUNDED_HISTORY = -1;
+
 	// The list of objects with an interest in the
 	// notifier's activities.
 	private CopyOnWriteArrayList<Listener<T>> listeners;
 
 	// The list of messages for this notifier's listeners.
-	private CopyOnWriteArrayList<T> messages;
-	
+	private Deque<T> messages;
+
+	// The maximum number of messages retained for replay.
+	private int historyCapacity;
+
+	// Batching state: nesting depth and deferred messages.
+	private final Object batchLock;
+	private int batchDepth;
+	private List<T> pendingMessages;
+
+	private volatile IMessageCoalescer<T> coalescer;
+
+	private volatile NotificationDispatcher dispatcher;
+
+	// Metrics.
+	private final AtomicLong sentCount;
+	private final AtomicLong dispatchCount;
+	private final AtomicLong totalDispatchNanos;
+	private final AtomicLong maxDispatchNanos;
+
 	/**
 	 * Constructor
 	 */
 	public Notifier() {
 		this.listeners = new CopyOnWriteArrayList<Listener<T>>();
-		this.messages = new CopyOnWriteArrayList<T>();
+		this.messages = new ArrayDeque<T>();
+		this.historyCapacity = UNBOUNDED_HISTORY;
+
+		this.batchLock = new Object();
+		this.batchDepth = 0;
+		this.pendingMessages = new ArrayList<T>();
+
+		this.coalescer = null;
+		this.dispatcher = null;
+
+		this.sentCount = new AtomicLong();
+		this.dispatchCount = new AtomicLong();
+		this.totalDispatchNanos = new AtomicLong();
+		this.maxDispatchNanos = new AtomicLong();
 	}
 
 	/**
@@ -65,7 +120,12 @@ public class Notifier<T> {
 		listeners.addIfAbsent(listener);
 
 		if (immediateMessages) {
-			for (T message : messages) {
+			List<T> history;
+			synchronized (messages) {
+				history = new ArrayList<T>(messages);
+			}
+
+			for (T message : history) {
 				listener.update(message);
 			}
 		}
@@ -88,25 +148,199 @@ public class Notifier<T> {
 	 * Also, clear the message list.
 	 */
 	public void cleanup() {
-		messages.clear();
-		
+		synchronized (messages) {
+			messages.clear();
+		}
+
 		for (Listener<T> listener : listeners) {
 			removeListenerIfWilling(listener);
 		}
 	}
-	
+
 	/**
 	 * Notify all listeners of an activity update and collect the message
 	 * for future replay, in particular for new listeners.
 	 * 
+	 * If a batch is in progress, the message is deferred until the batch
+	 * ends.
+	 * 
 	 * @param message
 	 *            The message to pass to each listener.
 	 */
 	public void notifyListeners(T message) {
-		messages.add(message);
-		
+		sentCount.incrementAndGet();
+
+		synchronized (batchLock) {
+			if (batchDepth > 0) {
+				pendingMessages.add(message);
+				return;
+			}
+		}
+
+		dispatch(message);
+	}
+
+	/**
+	 * Begin a batch of messages. Messages sent before the matching call to
+	 * endBatch() are deferred. Batches may be nested.
+	 */
+	public void beginBatch() {
+		synchronized (batchLock) {
+			batchDepth++;
+		}
+	}
+
+	/**
+	 * End a batch of messages. When the outermost batch ends, the deferred
+	 * messages are coalesced (if this notifier has a coalescer) and
+	 * delivered.
+	 */
+	public void endBatch() {
+		List<T> batch = null;
+
+		synchronized (batchLock) {
+			if (batchDepth > 0) {
+				batchDepth--;
+
+				if (batchDepth == 0 && !pendingMessages.isEmpty()) {
+					batch = pendingMessages;
+					pendingMessages = new ArrayList<T>();
+				}
+			}
+		}
+
+		if (batch != null) {
+			IMessageCoalescer<T> currCoalescer = coalescer;
+
+			if (currCoalescer != null) {
+				batch = currCoalescer.coalesce(batch);
+			}
+
+			for (T message : batch) {
+				dispatch(message);
+			}
+		}
+	}
+
+	/**
+	 * @return Is a batch in progress?
+	 */
+	public boolean isBatching() {
+		synchronized (batchLock) {
+			return batchDepth > 0;
+		}
+	}
+
+	/**
+	 * @return the coalescer; may be null
+	 */
+	public IMessageCoalescer<T> getCoalescer() {
+		return coalescer;
+	}
+
+	/**
+	 * @param coalescer
+	 *            the coalescer to set; may be null, in which case batched
+	 *            messages are delivered as sent
+	 */
+	public void setCoalescer(IMessageCoalescer<T> coalescer) {
+		this.coalescer = coalescer;
+	}
+
+	/**
+	 * @return the dispatcher; null if delivery is synchronous
+	 */
+	public NotificationDispatcher getDispatcher() {
+		return dispatcher;
+	}
+
+	/**
+	 * @param dispatcher
+	 *            the dispatcher to set; may be null, in which case delivery
+	 *            is synchronous
+	 */
+	public void setDispatcher(NotificationDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+
+	/**
+	 * Set the maximum number of messages retained for replay to new
+	 * listeners. The oldest messages are discarded first.
+	 * 
+	 * @param historyCapacity
+	 *            the capacity to set, or UNBOUNDED_HISTORY
+	 */
+	public void setHistoryCapacity(int historyCapacity) {
+		synchronized (messages) {
+			this.historyCapacity = historyCapacity;
+			trimHistory();
+		}
+	}
+
+	/**
+	 * @return The number of listeners.
+	 */
+	public int getListenerCount() {
+		return listeners.size();
+	}
+
+	/**
+	 * @return A snapshot of this notifier's dispatch metrics.
+	 */
+	public NotifierMetrics getMetrics() {
+		return new NotifierMetrics(listeners.size(), sentCount.get(),
+				dispatchCount.get(), totalDispatchNanos.get(),
+				maxDispatchNanos.get());
+	}
+
+	// Helpers
+
+	private void dispatch(final T message) {
+		NotificationDispatcher currDispatcher = dispatcher;
+
+		if (currDispatcher == null) {
+			deliver(message, System.nanoTime());
+		} else {
+			final long sendTime = System.nanoTime();
+			currDispatcher.dispatch(new Runnable() {
+				public void run() {
+					deliver(message, sendTime);
+				}
+			});
+		}
+	}
+
+	// Record the message in the history then pass it to each listener. The
+	// latency is measured from the time the message was dispatched, so for
+	// asynchronous delivery includes time spent queued.
+	private void deliver(T message, long sendTime) {
+		synchronized (messages) {
+			if (historyCapacity != 0) {
+				messages.add(message);
+				trimHistory();
+			}
+		}
+
 		for (Listener<T> listener : listeners) {
 			listener.update(message);
 		}
+
+		long latency = System.nanoTime() - sendTime;
+
+		dispatchCount.incrementAndGet();
+		totalDispatchNanos.addAndGet(latency);
+
+		long max;
+		do {
+			max = maxDispatchNanos.get();
+		} while (latency > max && !maxDispatchNanos.compareAndSet(max, latency));
+	}
+
+	private void trimHistory() {
+		if (historyCapacity != UNBOUNDED_HISTORY) {
+			while (messages.size() > historyCapacity) {
+				messages.removeFirst();
+			}
+		}
 	}
 }
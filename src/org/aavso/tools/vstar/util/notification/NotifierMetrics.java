@@ -0,0 +1,105 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.notification;
+
+/**
+ * A snapshot of a notifier's dispatch metrics.
+ */
+public class NotifierMetrics {
+
+	private final int listenerCount;
+	private final long sentCount;
+	private final long dispatchCount;
+	private final long totalDispatchNanos;
+	private final long maxDispatchNanos;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param listenerCount
+	 *            The number of listeners currently registered.
+	 * @param sentCount
+	 *            The number of messages sent to the notifier.
+	 * @param dispatchCount
+	 *            The number of messages dispatched to listeners, after any
+	 *            coalescing.
+	 * @param totalDispatchNanos
+	 *            The total dispatch latency in nanoseconds.
+	 * @param maxDispatchNanos
+	 *            The maximum dispatch latency in nanoseconds.
+	 */
+	public NotifierMetrics(int listenerCount, long sentCount,
+			long dispatchCount, long totalDispatchNanos, long maxDispatchNanos) {
+		this.listenerCount = listenerCount;
+		this.sentCount = sentCount;
+		this.dispatchCount = dispatchCount;
+		this.totalDispatchNanos = totalDispatchNanos;
+		this.maxDispatchNanos = maxDispatchNanos;
+	}
+
+	/**
+	 * @return the listenerCount
+	 */
+	public int getListenerCount() {
+		return listenerCount;
+	}
+
+	/**
+	 * @return the sentCount
+	 */
+	public long getSentCount() {
+		return sentCount;
+	}
+
+	/**
+	 * @return the dispatchCount
+	 */
+	public long getDispatchCount() {
+		return dispatchCount;
+	}
+
+	/**
+	 * @return the totalDispatchNanos
+	 */
+	public long getTotalDispatchNanos() {
+		return totalDispatchNanos;
+	}
+
+	/**
+	 * @return the maxDispatchNanos
+	 */
+	public long getMaxDispatchNanos() {
+		return maxDispatchNanos;
+	}
+
+	/**
+	 * @return The mean dispatch latency in milliseconds.
+	 */
+	public double getMeanDispatchMillis() {
+		return dispatchCount == 0 ? 0 : totalDispatchNanos / 1e6
+				/ dispatchCount;
+	}
+
+	public String toString() {
+		return String.format(
+				"listeners: %d, sent: %d, dispatched: %d, "
+						+ "mean latency: %.3f ms, max latency: %.3f ms",
+				listenerCount, sentCount, dispatchCount,
+				getMeanDispatchMillis(), maxDispatchNanos / 1e6);
+	}
+}
@@ -18,17 +18,16 @@
 package org.aavso.tools.vstar.util.period.dcdft;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.aavso.tools.vstar.data.DateInfo;
-import org.aavso.tools.vstar.data.Magnitude;
-import org.aavso.tools.vstar.data.SeriesType;
 import org.aavso.tools.vstar.data.ValidObservation;
 import org.aavso.tools.vstar.exception.AlgorithmError;
 import org.aavso.tools.vstar.util.TSBase;
 import org.aavso.tools.vstar.util.model.Harmonic;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.model.PeriodAnalysisDerivedMultiPeriodicModel;
 import org.aavso.tools.vstar.util.model.PeriodFitParameters;
 import org.aavso.tools.vstar.util.period.IPeriodAnalysisAlgorithm;
@@ -840,8 +839,6 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 			PeriodAnalysisDerivedMultiPeriodicModel model)
 			throws InterruptedException {
 
-		List<ValidObservation> modelObs = model.getFit();
-		List<ValidObservation> residualObs = model.getResiduals();
 		List<PeriodFitParameters> parameters = model.getParameters();
 
 		// CASE F6
@@ -923,6 +920,11 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 		double xml = 0.0;
 		double residl = 0.0;
 
+		double[] times = new double[nuplim - nlolim + 1];
+		double[] modelMags = new double[nuplim - nlolim + 1];
+		double[] residualMags = new double[nuplim - nlolim + 1];
+		int numPoints = 0;
+
 		// compute and plot points
 		for (int n = nlolim; n <= nuplim; n++) {
 			if (nbrake < 0)
@@ -941,21 +943,11 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 				// if (rfil=='y') then {
 				// write(9,250) tt+dt0,resid,obs(n),xvec(n),xm
 
-				// Create model and residual "observations".
-
-				ValidObservation modelOb = new ValidObservation();
-				modelOb.setDateInfo(new DateInfo(tt + dt0));
-				modelOb.setMagnitude(new Magnitude(xm, 0));
-				modelOb.setComments(model.getDescription());
-				modelOb.setBand(SeriesType.Model);
-				modelObs.add(modelOb);
-
-				ValidObservation residualOb = new ValidObservation();
-				residualOb.setDateInfo(new DateInfo(tt + dt0));
-				residualOb.setMagnitude(new Magnitude(resid, 0));
-				residualOb.setComments(model.getDescription());
-				residualOb.setBand(SeriesType.Residuals);
-				residualObs.add(residualOb);
+				// Record model and residual "observations".
+				times[numPoints] = tt + dt0;
+				modelMags[numPoints] = xm;
+				residualMags[numPoints] = resid;
+				numPoints++;
 
 				// }
 				ttl = tt;
@@ -966,6 +958,12 @@ public class TSDcDft extends TSBase implements IPeriodAnalysisAlgorithm {
 			}
 		}
 		// close[9]
+
+		times = Arrays.copyOf(times, numPoints);
+		model.setModelSeries(new ModelSeries(times, Arrays.copyOf(modelMags,
+				numPoints), times, Arrays.copyOf(residualMags, numPoints),
+				model.getDescription()));
+
 		avemod = avemod / (double) numact;
 		varmod = varmod / (double) (numact - 1);
 		double rdev = Math.sqrt(varmod - avemod * avemod);
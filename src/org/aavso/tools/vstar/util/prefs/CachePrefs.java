@@ -0,0 +1,127 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.prefs;
+
+import java.util.prefs.Preferences;
+
+/**
+ * On-disk cache preferences.
+ */
+public class CachePrefs {
+
+	private static final boolean DEFAULT_SNAPSHOT_CACHE_ENABLED = true;
+	private static final boolean DEFAULT_HTTP_CACHE_ENABLED = true;
+	private static final boolean DEFAULT_HTTP_CACHE_OFFLINE = false;
+
+	private static boolean snapshotCacheEnabled = DEFAULT_SNAPSHOT_CACHE_ENABLED;
+	private static boolean httpCacheEnabled = DEFAULT_HTTP_CACHE_ENABLED;
+	private static boolean httpCacheOffline = DEFAULT_HTTP_CACHE_OFFLINE;
+
+	/**
+	 * @return Should snapshots of loaded datasets be cached?
+	 */
+	public static boolean isSnapshotCacheEnabled() {
+		return snapshotCacheEnabled;
+	}
+
+	/**
+	 * @param snapshotCacheEnabled
+	 *            Should snapshots of loaded datasets be cached?
+	 */
+	public static void setSnapshotCacheEnabled(boolean snapshotCacheEnabled) {
+		CachePrefs.snapshotCacheEnabled = snapshotCacheEnabled;
+	}
+
+	/**
+	 * @return Should HTTP responses be cached?
+	 */
+	public static boolean isHttpCacheEnabled() {
+		return httpCacheEnabled;
+	}
+
+	/**
+	 * @param httpCacheEnabled
+	 *            Should HTTP responses be cached?
+	 */
+	public static void setHttpCacheEnabled(boolean httpCacheEnabled) {
+		CachePrefs.httpCacheEnabled = httpCacheEnabled;
+	}
+
+	/**
+	 * @return Should only cached HTTP responses be used?
+	 */
+	public static boolean isHttpCacheOffline() {
+		return httpCacheOffline;
+	}
+
+	/**
+	 * @param httpCacheOffline
+	 *            Should only cached HTTP responses be used?
+	 */
+	public static void setHttpCacheOffline(boolean httpCacheOffline) {
+		CachePrefs.httpCacheOffline = httpCacheOffline;
+	}
+
+	// Preferences members.
+
+	private final static String PREFS_PREFIX = "CACHE_";
+
+	private static Preferences prefs;
+
+	static {
+		// Create preferences node for caches.
+		try {
+			prefs = Preferences.userNodeForPackage(CachePrefs.class);
+			retrieveCachePrefs();
+		} catch (Throwable t) {
+			// We need VStar to function in the absence of prefs.
+		}
+	}
+
+	private static void retrieveCachePrefs() {
+		snapshotCacheEnabled = prefs.getBoolean(PREFS_PREFIX
+				+ "snapshot_cache_enabled", DEFAULT_SNAPSHOT_CACHE_ENABLED);
+
+		httpCacheEnabled = prefs.getBoolean(PREFS_PREFIX
+				+ "http_cache_enabled", DEFAULT_HTTP_CACHE_ENABLED);
+
+		httpCacheOffline = prefs.getBoolean(PREFS_PREFIX
+				+ "http_cache_offline", DEFAULT_HTTP_CACHE_OFFLINE);
+	}
+
+	public static void storeCachePrefs() {
+		try {
+			prefs.putBoolean(PREFS_PREFIX + "snapshot_cache_enabled",
+					snapshotCacheEnabled);
+			prefs.putBoolean(PREFS_PREFIX + "http_cache_enabled",
+					httpCacheEnabled);
+			prefs.putBoolean(PREFS_PREFIX + "http_cache_offline",
+					httpCacheOffline);
+			prefs.flush();
+		} catch (Throwable t) {
+			// We need VStar to function in the absence of prefs.
+		}
+	}
+
+	public static void setDefaultCachePrefs() {
+		snapshotCacheEnabled = DEFAULT_SNAPSHOT_CACHE_ENABLED;
+		httpCacheEnabled = DEFAULT_HTTP_CACHE_ENABLED;
+		httpCacheOffline = DEFAULT_HTTP_CACHE_OFFLINE;
+		storeCachePrefs();
+	}
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.TreeMap;
 
 import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.model.ModelSeries;
 import org.aavso.tools.vstar.util.stats.epoch.AlphaOmegaMeanJDEpochStrategy;
 import org.aavso.tools.vstar.util.stats.epoch.IEpochStrategy;
 import org.aavso.tools.vstar.util.stats.epoch.MaxMagEpochStrategy;
@@ -58,10 +59,15 @@ public class PhaseCalcs {
 	public static void setPhases(List<ValidObservation> obs, double epoch,
 			double period) {
 
-		for (ValidObservation ob : obs) {
-			double phase = calcStandardPhase(ob.getJD(), epoch, period);
-			ob.setStandardPhase(phase);
-			ob.setPreviousCyclePhase(phase - 1);
+		if (obs instanceof ModelSeries.ObservationView) {
+			// Model series compute phases on demand.
+			((ModelSeries.ObservationView) obs).setPhases(epoch, period);
+		} else {
+			for (ValidObservation ob : obs) {
+				double phase = calcStandardPhase(ob.getJD(), epoch, period);
+				ob.setStandardPhase(phase);
+				ob.setPreviousCyclePhase(phase - 1);
+			}
 		}
 	}
 
@@ -77,7 +83,7 @@ public class PhaseCalcs {
 	 *            A period on which to base the phases.
 	 * @return The standard phase.
 	 */
-	protected static double calcStandardPhase(double jd, double epoch,
+	public static double calcStandardPhase(double jd, double epoch,
 			double period) {
 		double phase = (jd - epoch) / period;
 
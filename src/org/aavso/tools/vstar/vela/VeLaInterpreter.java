@@ -29,7 +29,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +36,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -65,10 +65,10 @@ public class VeLaInterpreter {
 	private Stack<VeLaEnvironment<Operand>> environments;
 
 	// AST and result caches.
-	private static Map<String, AST> exprToAST = new HashMap<String, AST>();
+	private static Map<String, AST> exprToAST = new ConcurrentHashMap<String, AST>();
 
 	// Regular expression pattern cache.
-	private static Map<String, Pattern> regexPatterns = new HashMap<String, Pattern>();
+	private static Map<String, Pattern> regexPatterns = new ConcurrentHashMap<String, Pattern>();
 
 	private static List<FunctionExecutor> javaClassFunctionExecutors = null;
 
@@ -109,21 +109,26 @@ public class VeLaInterpreter {
 			permittedTypes.add(VStarScriptingAPI.class);
 		}
 		
-		if (javaClassFunctionExecutors == null) {
-			javaClassFunctionExecutors = new ArrayList<FunctionExecutor>();
-			addFunctionExecutorsFromClass(Math.class, null, permittedTypes,
-					Collections.emptySet());
+		// Interpreters may be created concurrently, e.g. by observation
+		// retrievers loading different stars, so the shared Java function
+		// executors must be created once only.
+		synchronized (VeLaInterpreter.class) {
+			if (javaClassFunctionExecutors == null) {
+				javaClassFunctionExecutors = new ArrayList<FunctionExecutor>();
+				addFunctionExecutorsFromClass(Math.class, null, permittedTypes,
+						Collections.emptySet());
 
-			addFunctionExecutorsFromClass(String.class, null, permittedTypes,
-					new HashSet<String>(Arrays.asList("JOIN", "FORMAT")));
+				addFunctionExecutorsFromClass(String.class, null, permittedTypes,
+						new HashSet<String>(Arrays.asList("JOIN", "FORMAT")));
 
-			if (addVStarAPI) {
-				addFunctionExecutorsFromClass(VStarScriptingAPI.class,
-						VStarScriptingAPI.getInstance(), permittedTypes,
-						Collections.emptySet());
+				if (addVStarAPI) {
+					addFunctionExecutorsFromClass(VStarScriptingAPI.class,
+							VStarScriptingAPI.getInstance(), permittedTypes,
+							Collections.emptySet());
+				}
 			}
-		}		
-		
+		}
+
 		initBindings();
 		initFunctionExecutors();
 		// allows user to override intrinsic code
@@ -260,6 +265,42 @@ public class VeLaInterpreter {
 		return commonInterpreter(prog, tree);
 	}
 
+	/**
+	 * Parse a VeLa program into an abstract syntax tree without evaluating it,
+	 * so that it may be evaluated repeatedly via program(AST) without being
+	 * parsed each time.
+	 * 
+	 * @param prog The VeLa program string to be parsed.
+	 * @return The abstract syntax tree, or null if the program is empty.
+	 * @throws VeLaParseError If a parse error occurs.
+	 */
+	public AST compile(String prog) throws VeLaParseError {
+		VeLaParser.SequenceContext tree = getParser(prog).sequence();
+		return commonParseTreeWalker(prog, tree);
+	}
+
+	/**
+	 * VeLa program interpreter entry point for a program already parsed via
+	 * compile().
+	 * 
+	 * @param ast The abstract syntax tree of the program, may be null.
+	 * @return An optional result, depending upon whether a value was left on the
+	 *         stack.
+	 * @throws VeLaEvalError If an evaluation error occurs.
+	 */
+	public Optional<Operand> program(AST ast) throws VeLaEvalError {
+		Optional<Operand> result = Optional.empty();
+
+		if (ast != null) {
+			eval(ast);
+			if (!stack.isEmpty()) {
+				result = Optional.of(stack.pop());
+			}
+		}
+
+		return result;
+	}
+
 	/**
 	 * Real expression interpreter entry point.
 	 * 
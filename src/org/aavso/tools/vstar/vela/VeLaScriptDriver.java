@@ -17,65 +17,40 @@
  */
 package org.aavso.tools.vstar.vela;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
+import java.io.File;
 
-import org.aavso.tools.vstar.ui.mediator.Mediator;
+import org.aavso.tools.vstar.scripting.ScriptRunner;
 
 /**
- * This class allows a VeLa program to be run from the command-line.
+ * This class allows a VeLa program to be run from the command-line. The
+ * program is run by the script runner, so it is parsed once and rerun from
+ * its AST on restart unless the file has changed in the meantime.
  */
 public class VeLaScriptDriver {
 	public static void main(String[] args) {
 		if (args.length >= 1 && args.length <= 3) {
-			BufferedReader reader = null;
-			try {
-				// Process command-line arguments.
-				String velaSourceFile = null;
-				boolean verbose = false;
-				boolean restartOnError = false;
-				for (String arg : args) {
-					if (arg.startsWith("--")) {
-						verbose = "--verbose".equals(arg);
-						restartOnError = "--restart".equals(arg);
-					} else {
-						velaSourceFile = arg;
-					}
-				}
-
-				if (Mediator.getUI() != null) {
-					Mediator.getUI().setScriptingStatus(true);
-				}
-
-				// Run interpreter, optionally restarting it on error.
-				VeLaInterpreter vela = new VeLaInterpreter(verbose);
-				do {
-					try {
-						reader = new BufferedReader(new FileReader(
-								velaSourceFile));
-						StringBuffer buf = new StringBuffer();
-						String line = reader.readLine();
-						while (line != null) {
-							buf.append(line);
-							buf.append("\n");
-							line = reader.readLine();
-						}
-						vela.program(buf.toString());
-					} catch (Throwable t) {
-						System.out.println(t.getLocalizedMessage());
-					}
-				} while (restartOnError);
-			} finally {
-				try {
-					reader.close();
-				} catch (IOException e) {
+			// Process command-line arguments.
+			String velaSourceFile = null;
+			boolean verbose = false;
+			boolean restartOnError = false;
+			for (String arg : args) {
+				if (arg.startsWith("--")) {
+					verbose = "--verbose".equals(arg);
+					restartOnError = "--restart".equals(arg);
+				} else {
+					velaSourceFile = arg;
 				}
+			}
 
-				if (Mediator.getUI() != null) {
-					Mediator.getUI().setScriptingStatus(false);
+			// Run interpreter, optionally restarting it on error.
+			ScriptRunner runner = ScriptRunner.getInstance();
+			runner.getVeLaInterpreter().setVerbose(verbose);
+			File file = new File(velaSourceFile);
+			do {
+				if (!runner.executeVeLa(file)) {
+					System.out.println(runner.getError());
 				}
-			}
+			} while (restartOnError);
 		}
 	}
 }
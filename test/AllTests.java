@@ -26,20 +26,43 @@ import org.aavso.tools.vstar.data.validation.CommentCodeValidationTest;
 import org.aavso.tools.vstar.data.validation.JulianDayValidationTest;
 import org.aavso.tools.vstar.data.validation.MTypeValidationTest;
 import org.aavso.tools.vstar.data.validation.MagnitudeFieldValidationTest;
+import org.aavso.tools.vstar.input.database.AIDPagedRetrievalTest;
 import org.aavso.tools.vstar.input.database.VSXWebServiceAIDCSV2ObservationReaderTest;
 import org.aavso.tools.vstar.input.database.VSXWebServiceAIDCSVObservationReaderTest;
 import org.aavso.tools.vstar.input.database.VSXWebServiceAIDXMLAttributeObservationReaderTest;
 import org.aavso.tools.vstar.input.database.VSXWebServiceStarInfoSourceTest;
 import org.aavso.tools.vstar.input.text.ObservationFieldSplitterTest;
+import org.aavso.tools.vstar.input.ParallelObservationRetrieverTest;
+import org.aavso.tools.vstar.input.http.HttpResponseCacheTest;
+import org.aavso.tools.vstar.input.snapshot.ObservationSnapshotTest;
+import org.aavso.tools.vstar.input.text.MappedTextTokenizerTest;
 import org.aavso.tools.vstar.input.text.TextFormatObservationReaderTest;
 import org.aavso.tools.vstar.plugin.PluginManagerTest;
+import org.aavso.tools.vstar.scripting.HeadlessBatchRunnerTest;
+import org.aavso.tools.vstar.scripting.ScriptRunnerTest;
+import org.aavso.tools.vstar.ui.dialog.plugin.manager.PluginInfoCacheTest;
+import org.aavso.tools.vstar.ui.mediator.AnalysisSessionTest;
+import org.aavso.tools.vstar.ui.mediator.MediatorNotifierTest;
+import org.aavso.tools.vstar.ui.task.TaskSchedulerTest;
+import org.aavso.tools.vstar.ui.model.plot.AdaptiveFunctionSamplerTest;
+import org.aavso.tools.vstar.ui.model.plot.ObservationPlotModelTest;
+import org.aavso.tools.vstar.ui.pane.list.ValidObservationTableRowSorterTest;
+import org.aavso.tools.vstar.ui.pane.plot.ModelFunctionRendererTest;
+import org.aavso.tools.vstar.ui.model.plot.SeriesLevelOfDetailTest;
+import org.aavso.tools.vstar.ui.resources.PluginIndexTest;
 import org.aavso.tools.vstar.util.DecInfoTest;
+import org.aavso.tools.vstar.util.DigestUtilsTest;
 import org.aavso.tools.vstar.util.RAInfoTest;
 import org.aavso.tools.vstar.util.comparator.RankedIndexPairComparatorTest;
 import org.aavso.tools.vstar.util.date.B1950EpochHJDConverterTest;
+import org.aavso.tools.vstar.util.date.BJDConverterTest;
+import org.aavso.tools.vstar.util.date.BatchHJDConverterTest;
 import org.aavso.tools.vstar.util.date.J2000EpochHJDConverterTest;
 import org.aavso.tools.vstar.util.date.MeeusDateUtilTest;
 import org.aavso.tools.vstar.util.locale.NumberParserTest;
+import org.aavso.tools.vstar.util.model.BatchFunctionTest;
+import org.aavso.tools.vstar.util.model.ModelSeriesTest;
+import org.aavso.tools.vstar.util.notification.NotifierTest;
 import org.aavso.tools.vstar.util.period.dcdft.CleanestTest;
 import org.aavso.tools.vstar.util.period.dcdft.DcDftTest;
 import org.aavso.tools.vstar.util.period.dcdft.FreqRangeTopHitsDcDftTest;
@@ -76,18 +99,41 @@ public class AllTests {
 		suite.addTestSuite(MagnitudeFieldValidationTest.class);
 		suite.addTestSuite(VSXWebServiceAIDCSV2ObservationReaderTest.class);
 		suite.addTestSuite(VSXWebServiceAIDCSVObservationReaderTest.class);
+		suite.addTestSuite(AIDPagedRetrievalTest.class);
 		suite.addTestSuite(VSXWebServiceAIDXMLAttributeObservationReaderTest.class);
 		suite.addTestSuite(VSXWebServiceStarInfoSourceTest.class);
 		suite.addTestSuite(ObservationFieldSplitterTest.class);
 		suite.addTestSuite(TextFormatObservationReaderTest.class);
+		suite.addTestSuite(MappedTextTokenizerTest.class);
+		suite.addTestSuite(ObservationSnapshotTest.class);
+		suite.addTestSuite(HttpResponseCacheTest.class);
+		suite.addTestSuite(ParallelObservationRetrieverTest.class);
 		suite.addTestSuite(PluginManagerTest.class);
+		suite.addTestSuite(HeadlessBatchRunnerTest.class);
+		suite.addTestSuite(ScriptRunnerTest.class);
+		suite.addTestSuite(SeriesLevelOfDetailTest.class);
+		suite.addTestSuite(AdaptiveFunctionSamplerTest.class);
+		suite.addTestSuite(ModelFunctionRendererTest.class);
+		suite.addTestSuite(ObservationPlotModelTest.class);
+		suite.addTestSuite(ValidObservationTableRowSorterTest.class);
+		suite.addTestSuite(PluginIndexTest.class);
+		suite.addTestSuite(PluginInfoCacheTest.class);
+		suite.addTestSuite(AnalysisSessionTest.class);
+		suite.addTestSuite(MediatorNotifierTest.class);
+		suite.addTestSuite(TaskSchedulerTest.class);
 		suite.addTestSuite(DecInfoTest.class);
+		suite.addTestSuite(DigestUtilsTest.class);
 		suite.addTestSuite(RAInfoTest.class);
 		suite.addTestSuite(RankedIndexPairComparatorTest.class);
 		suite.addTestSuite(B1950EpochHJDConverterTest.class);
 		suite.addTestSuite(J2000EpochHJDConverterTest.class);
+		suite.addTestSuite(BatchHJDConverterTest.class);
+		suite.addTestSuite(BJDConverterTest.class);
 		suite.addTestSuite(MeeusDateUtilTest.class);
 		suite.addTestSuite(NumberParserTest.class);
+		suite.addTestSuite(ModelSeriesTest.class);
+		suite.addTestSuite(BatchFunctionTest.class);
+		suite.addTestSuite(NotifierTest.class);
 		suite.addTestSuite(CleanestTest.class);
 		suite.addTestSuite(DcDftTest.class);
 		suite.addTestSuite(FreqRangeTopHitsDcDftTest.class);
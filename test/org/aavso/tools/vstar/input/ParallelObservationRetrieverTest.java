@@ -0,0 +1,310 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.DateInfo;
+import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
+import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.plugin.InputType;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+
+/**
+ * Tests for parallel loading of an observation source plug-in's multiple
+ * input streams.
+ */
+public class ParallelObservationRetrieverTest extends TestCase {
+
+	private static final String FILE1 = "2450003,10.3\n2450001,10.1\nbad\n";
+	private static final String FILE2 = "2450002,10.2\n2450000,10.0\n";
+	private static final String FILE3 = "nonsense\n2450004,10.4\n";
+
+	private JDMagPlugin plugin;
+
+	public ParallelObservationRetrieverTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		plugin = new JDMagPlugin(true);
+	}
+
+	public void testSingleStreamNotParallel() throws Exception {
+		setInputs(plugin, FILE1);
+
+		AbstractObservationRetriever retriever = ParallelObservationRetriever
+				.getObservationRetriever(plugin);
+
+		assertFalse(retriever instanceof ParallelObservationRetriever);
+	}
+
+	public void testUnsupportedPluginNotParallel() throws Exception {
+		plugin = new JDMagPlugin(false);
+		setInputs(plugin, FILE1, FILE2);
+
+		AbstractObservationRetriever retriever = ParallelObservationRetriever
+				.getObservationRetriever(plugin);
+
+		assertFalse(retriever instanceof ParallelObservationRetriever);
+	}
+
+	public void testRecordCount() throws Exception {
+		setInputs(plugin, FILE1, FILE2, FILE3);
+
+		AbstractObservationRetriever retriever = ParallelObservationRetriever
+				.getObservationRetriever(plugin);
+
+		assertTrue(retriever instanceof ParallelObservationRetriever);
+		assertEquals(Integer.valueOf(7), retriever.getNumberOfRecords());
+	}
+
+	public void testObservationsMergedByJD() throws Exception {
+		setInputs(plugin, FILE1, FILE2, FILE3);
+
+		AbstractObservationRetriever retriever = retrieve();
+
+		List<ValidObservation> obs = retriever.getValidObservations();
+		assertEquals(5, obs.size());
+		for (int i = 0; i < obs.size(); i++) {
+			assertEquals(2450000.0 + i, obs.get(i).getJD());
+		}
+
+		List<ValidObservation> vObs = retriever
+				.getValidObservationCategoryMap().get(SeriesType.Johnson_V);
+		assertEquals(5, vObs.size());
+		for (int i = 0; i < vObs.size(); i++) {
+			assertEquals(2450000.0 + i, vObs.get(i).getJD());
+		}
+
+		assertEquals(10.0, retriever.getMinMag(), 1e-9);
+		assertEquals(10.4, retriever.getMaxMag(), 1e-9);
+
+		// Each input was read by a different retriever on a thread that saw
+		// only that input.
+		assertEquals(3, plugin.streamsSeen.size());
+		for (Integer count : plugin.streamsSeen.values()) {
+			assertEquals(Integer.valueOf(1), count);
+		}
+	}
+
+	public void testInvalidObservationsAttributed() throws Exception {
+		setInputs(plugin, FILE1, FILE2, FILE3);
+
+		List<InvalidObservation> obs = retrieve().getInvalidObservations();
+
+		assertEquals(2, obs.size());
+		assertEquals("bad", obs.get(0).getInputLine());
+		assertEquals("file1", obs.get(0).getSource());
+		assertEquals("nonsense", obs.get(1).getInputLine());
+		assertEquals("file3", obs.get(1).getSource());
+	}
+
+	public void testReadErrorNamesInput() throws Exception {
+		setInputs(plugin, FILE1, "fail\n");
+
+		try {
+			retrieve();
+			fail();
+		} catch (ObservationReadError e) {
+			assertTrue(e.getMessage().startsWith("file2: "));
+		}
+	}
+
+	public void testJDflavour() throws Exception {
+		setInputs(plugin, "hjd\n" + FILE1, "hjd\n" + FILE2);
+
+		AbstractObservationRetriever retriever = retrieve();
+
+		assertEquals(JDflavour.HJD, retriever.getJDflavour());
+		for (ValidObservation ob : retriever.getValidObservations()) {
+			assertEquals(JDflavour.HJD, ob.getJDflavour());
+		}
+	}
+
+	public void testMixedJDflavoursRejected() throws Exception {
+		setInputs(plugin, "hjd\n" + FILE1, "bjd\n" + FILE2, FILE3);
+
+		try {
+			retrieve();
+			fail();
+		} catch (ObservationReadError e) {
+			assertEquals("file2: BJD times cannot be loaded with HJD times "
+					+ "from file1", e.getMessage());
+		}
+	}
+
+	// Helpers
+
+	private AbstractObservationRetriever retrieve() throws Exception {
+		AbstractObservationRetriever retriever = ParallelObservationRetriever
+				.getObservationRetriever(plugin);
+		retriever.getNumberOfRecords();
+		retriever.retrieveObservations();
+		return retriever;
+	}
+
+	private void setInputs(ObservationSourcePluginBase plugin,
+			String... contents) {
+		List<InputStream> streams = new ArrayList<InputStream>();
+
+		plugin.clearStreamNameMap();
+
+		for (int i = 0; i < contents.length; i++) {
+			InputStream stream = new ByteArrayInputStream(
+					contents[i].getBytes());
+			streams.add(stream);
+			plugin.addStreamNamePair(stream, "file" + (i + 1));
+		}
+
+		plugin.setInputInfo(streams, "files");
+	}
+
+	// A plug-in that reads "JD,magnitude" lines from its first input stream.
+	// A line reading "fail" causes a read error, and a line reading "hjd" or
+	// "bjd" sets the JD flavour.
+	private static class JDMagPlugin extends ObservationSourcePluginBase {
+
+		private boolean parallel;
+
+		// The number of streams seen by each retriever.
+		private ConcurrentHashMap<AbstractObservationRetriever, Integer> streamsSeen;
+
+		public JDMagPlugin(boolean parallel) {
+			this.parallel = parallel;
+			this.streamsSeen = new ConcurrentHashMap<AbstractObservationRetriever, Integer>();
+		}
+
+		@Override
+		public boolean isParallelLoadSupported() {
+			return parallel;
+		}
+
+		@Override
+		public AbstractObservationRetriever getObservationRetriever() {
+			return new JDMagRetriever();
+		}
+
+		@Override
+		public InputType getInputType() {
+			return InputType.FILE;
+		}
+
+		@Override
+		public String getDisplayName() {
+			return "JD/magnitude test source";
+		}
+
+		@Override
+		public String getDescription() {
+			return getDisplayName();
+		}
+
+		class JDMagRetriever extends AbstractObservationRetriever {
+
+			private List<String> lines;
+
+			@Override
+			public Integer getNumberOfRecords() throws ObservationReadError {
+				streamsSeen.put(this, getInputStreams().size());
+
+				lines = new ArrayList<String>();
+				try {
+					BufferedReader reader = new BufferedReader(
+							new InputStreamReader(getInputStreams().get(0)));
+					String line;
+					while ((line = reader.readLine()) != null) {
+						lines.add(line);
+					}
+				} catch (IOException e) {
+					throw new ObservationReadError(e.getLocalizedMessage());
+				}
+
+				return lines.size();
+			}
+
+			@Override
+			public void retrieveObservations() throws ObservationReadError,
+					InterruptedException {
+				int recordNum = 1;
+				for (String line : lines) {
+					if ("fail".equals(line)) {
+						throw new ObservationReadError("Unreadable");
+					}
+
+					if ("hjd".equals(line)) {
+						setJDflavour(JDflavour.HJD);
+						continue;
+					} else if ("bjd".equals(line)) {
+						setJDflavour(JDflavour.BJD);
+						continue;
+					}
+
+					String[] fields = line.split(",");
+					if (fields.length == 2) {
+						ValidObservation ob = new ValidObservation();
+						ob.setRecordNumber(recordNum);
+						ob.setDateInfo(new DateInfo(Double
+								.parseDouble(fields[0])));
+						ob.setMagnitude(new Magnitude(Double
+								.parseDouble(fields[1]), 0));
+						ob.setBand(SeriesType.Johnson_V);
+						collectObservation(ob);
+					} else {
+						InvalidObservation ob = new InvalidObservation(line,
+								"Expected JD,magnitude");
+						ob.setRecordNumber(recordNum);
+						addInvalidObservation(ob);
+					}
+					recordNum++;
+				}
+			}
+
+			@Override
+			public String getSourceType() {
+				return "Test";
+			}
+
+			@Override
+			public String getSourceName() {
+				return getInputName();
+			}
+
+			@Override
+			public Set<SeriesType> seriesToExcludeWhenAdditive() {
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,260 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.database;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.http.HttpResponseCache;
+import org.aavso.tools.vstar.plugin.ob.src.impl.AIDWebServiceCSV2ObservationSourcePlugin;
+import org.aavso.tools.vstar.plugin.ob.src.impl.AIDWebServiceObservationSourcePluginBase;
+import org.aavso.tools.vstar.plugin.ob.src.impl.AIDWebServiceXMLAttributeObservationSourcePlugin;
+import org.aavso.tools.vstar.ui.mediator.StarInfo;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for concurrent, pipelined paging and streaming parsing of AID web
+ * service observation retrieval against a local stub HTTP server.
+ */
+public class AIDPagedRetrievalTest extends TestCase {
+
+	private static final int PAGES = 3;
+	private static final int OBS_PER_PAGE = 2;
+
+	// The observation count reported by the stub, at the service's page size.
+	private static final int OBS_COUNT = PAGES * 50000;
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private AtomicInteger inFlight;
+	private AtomicInteger maxInFlight;
+	private AtomicInteger requests;
+	private int failingPage;
+
+	public AIDPagedRetrievalTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		inFlight = new AtomicInteger(0);
+		maxInFlight = new AtomicInteger(0);
+		requests = new AtomicInteger(0);
+		failingPage = -1;
+
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/vsx", new PageHandler(false));
+		server.createContext("/att", new PageHandler(true));
+		serverExecutor = Executors.newFixedThreadPool(PAGES);
+		server.setExecutor(serverExecutor);
+		server.start();
+
+		// Every request should reach the stub server.
+		HttpResponseCache.getInstance().setEnabled(false);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		HttpResponseCache.getInstance().setEnabled(true);
+		server.stop(0);
+		serverExecutor.shutdownNow();
+		super.tearDown();
+	}
+
+	public void testPagesMergedInOrder() throws Exception {
+		List<ValidObservation> obs = retrieve().getValidObservations();
+
+		assertEquals(PAGES * OBS_PER_PAGE, obs.size());
+
+		for (int i = 0; i < obs.size(); i++) {
+			assertEquals(2450000.0 + i, obs.get(i).getJD());
+			assertEquals(i + 1, obs.get(i).getRecordNumber());
+		}
+
+		assertEquals(PAGES, requests.get());
+	}
+
+	public void testPagesFetchedConcurrently() throws Exception {
+		retrieve();
+
+		assertTrue(maxInFlight.get() > 1);
+	}
+
+	public void testPageErrorIsReported() throws Exception {
+		failingPage = 2;
+
+		try {
+			retrieve();
+			fail();
+		} catch (ObservationReadError e) {
+			// Expected
+		}
+	}
+
+	public void testControlCharactersFiltered() throws Exception {
+		List<ValidObservation> obs = retrieve().getValidObservations();
+
+		assertEquals(PAGES * OBS_PER_PAGE, obs.size());
+
+		for (ValidObservation ob : obs) {
+			assertEquals("A B", ob.getComments());
+		}
+	}
+
+	public void testAttributePagesStreamed() throws Exception {
+		List<ValidObservation> obs = retrieve(
+				new AIDWebServiceXMLAttributeObservationSourcePlugin(), "/att")
+				.getValidObservations();
+
+		assertEquals(PAGES * OBS_PER_PAGE, obs.size());
+
+		for (int i = 0; i < obs.size(); i++) {
+			assertEquals(2450000.0 + i, obs.get(i).getJD());
+			assertEquals(10.0 + i / 10.0, obs.get(i).getMag(), 1e-9);
+			assertEquals("ABC", obs.get(i).getObsCode());
+			assertEquals("A B", obs.get(i).getComments());
+		}
+	}
+
+	// Helpers
+
+	private AbstractObservationRetriever retrieve() throws Exception {
+		return retrieve(new AIDWebServiceCSV2ObservationSourcePlugin(), "/vsx");
+	}
+
+	private AbstractObservationRetriever retrieve(
+			AIDWebServiceObservationSourcePluginBase obsSource, String path)
+			throws Exception {
+
+		obsSource.setInfo(new StarInfo("X Tst", "000-TST-000"));
+		obsSource.setUrl("http://localhost:" + server.getAddress().getPort()
+				+ path + "?view=api.object");
+
+		AbstractObservationRetriever retriever = obsSource
+				.getObservationRetriever();
+		retriever.retrieveObservations();
+
+		return retriever;
+	}
+
+	// Serves a page of observations after a short delay, either as CSV
+	// within XML or as XML attributes. All pages but the last include the
+	// observation count, as the service does when more observations remain.
+	// Comments include a control character that is not permitted in XML 1.0.
+	private class PageHandler implements HttpHandler {
+
+		private boolean attributes;
+
+		public PageHandler(boolean attributes) {
+			this.attributes = attributes;
+		}
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			int current = inFlight.incrementAndGet();
+			synchronized (maxInFlight) {
+				maxInFlight.set(Math.max(maxInFlight.get(), current));
+			}
+			requests.incrementAndGet();
+
+			try {
+				String query = exchange.getRequestURI().getQuery();
+				int page = Integer.parseInt(query.substring(query
+						.indexOf("page=") + 5));
+
+				Thread.sleep(200);
+
+				if (page == failingPage) {
+					exchange.sendResponseHeaders(500, -1);
+				} else {
+					String content = attributes ? createAttributePage(page)
+							: createPage(page);
+					byte[] body = content.getBytes("UTF-8");
+					exchange.sendResponseHeaders(200, body.length);
+					OutputStream out = exchange.getResponseBody();
+					out.write(body);
+					out.close();
+				}
+			} catch (InterruptedException e) {
+				exchange.sendResponseHeaders(503, -1);
+			} finally {
+				inFlight.decrementAndGet();
+				exchange.close();
+			}
+		}
+
+		private String createPage(int page) {
+			StringBuffer buf = new StringBuffer();
+
+			buf.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+			buf.append("<VSXObservations>");
+			if (page < PAGES) {
+				buf.append("<Count>" + OBS_COUNT + "</Count>");
+			}
+			buf.append("<Data><![CDATA[obsID,JD,mag,uncert,band,by,comment\n");
+			for (int i = 0; i < OBS_PER_PAGE; i++) {
+				int n = (page - 1) * OBS_PER_PAGE + i;
+				buf.append(String.format(
+						"%d,%.1f,10.%d,0.01,V,ABC,A\u001aB\n", n + 1,
+						2450000.0 + n, n));
+			}
+			buf.append("]]></Data>");
+			buf.append("</VSXObservations>");
+
+			return buf.toString();
+		}
+
+		private String createAttributePage(int page) {
+			StringBuffer buf = new StringBuffer();
+
+			buf.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+			buf.append("<VSXObservations>");
+			if (page < PAGES) {
+				buf.append("<Data Count=\"" + OBS_COUNT + "\">");
+			} else {
+				buf.append("<Data>");
+			}
+			for (int i = 0; i < OBS_PER_PAGE; i++) {
+				int n = (page - 1) * OBS_PER_PAGE + i;
+				buf.append(String.format("<Observation Id=\"%d\" JD=\"%.1f\" "
+						+ "Mag=\"10.%d\" uncertainty=\"0.01\" band=\"V\" "
+						+ "obscode=\"ABC\" comments=\"A\u001aB\"/>", n + 1,
+						2450000.0 + n, n));
+			}
+			buf.append("</Data>");
+			buf.append("</VSXObservations>");
+
+			return buf.toString();
+		}
+	}
+}
@@ -0,0 +1,210 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for the on-disk HTTP response cache against a local stub HTTP server.
+ */
+public class HttpResponseCacheTest extends TestCase {
+
+	private static final String ETAG = "\"v1\"";
+
+	private HttpServer server;
+	private File dir;
+	private HttpResponseCache cache;
+
+	// Full responses and not-modified responses served.
+	private AtomicInteger fullResponses;
+	private AtomicInteger notModifiedResponses;
+
+	public HttpResponseCacheTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		fullResponses = new AtomicInteger(0);
+		notModifiedResponses = new AtomicInteger(0);
+
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", new StubHandler());
+		server.start();
+
+		dir = Files.createTempDirectory("vstar_http_cache_test").toFile();
+		cache = new HttpResponseCache(dir, HttpResponseCache.DEFAULT_MAX_SIZE);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		server.stop(0);
+		cache.clear();
+		dir.delete();
+		super.tearDown();
+	}
+
+	public void testFreshResponseFromDisk() throws Exception {
+		URL url = url("/a");
+
+		assertEquals("/a", read(cache.openStream(url, 60000)));
+		assertEquals("/a", read(cache.openStream(url, 60000)));
+
+		assertEquals(1, fullResponses.get());
+		assertEquals(0, notModifiedResponses.get());
+	}
+
+	public void testStaleResponseRevalidated() throws Exception {
+		URL url = url("/a");
+
+		assertEquals("/a", read(cache.openStream(url,
+				HttpResponseCache.ALWAYS_REVALIDATE)));
+		assertEquals("/a", read(cache.openStream(url,
+				HttpResponseCache.ALWAYS_REVALIDATE)));
+
+		assertEquals(1, fullResponses.get());
+		assertEquals(1, notModifiedResponses.get());
+	}
+
+	public void testNoCache() throws Exception {
+		URL url = url("/a");
+
+		read(cache.openStream(url, HttpResponseCache.NO_CACHE));
+		read(cache.openStream(url, HttpResponseCache.NO_CACHE));
+
+		assertEquals(2, fullResponses.get());
+		assertEquals(0, cache.getSize());
+	}
+
+	public void testOffline() throws Exception {
+		URL url = url("/a");
+
+		read(cache.openStream(url, 60000));
+
+		cache.setOffline(true);
+
+		assertEquals("/a", read(cache.openStream(url,
+				HttpResponseCache.ALWAYS_REVALIDATE)));
+		assertEquals(1, fullResponses.get());
+		assertEquals(0, notModifiedResponses.get());
+
+		try {
+			cache.openStream(url("/b"), 60000);
+			fail();
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	public void testStaleResponseWhenServerUnreachable() throws Exception {
+		URL url = url("/a");
+
+		read(cache.openStream(url, 60000));
+
+		server.stop(0);
+
+		assertEquals("/a", read(cache.openStream(url,
+				HttpResponseCache.ALWAYS_REVALIDATE)));
+	}
+
+	public void testLeastRecentlyUsedEvicted() throws Exception {
+		cache.setMaxSize(2 * "/x".length());
+
+		read(cache.openStream(url("/a"), 60000));
+		read(cache.openStream(url("/b"), 60000));
+
+		// Make /a the most recently used response.
+		Thread.sleep(1100);
+		read(cache.openStream(url("/a"), 60000));
+		read(cache.openStream(url("/c"), 60000));
+
+		assertEquals(3, fullResponses.get());
+
+		// /b was evicted, /a was not.
+		read(cache.openStream(url("/a"), 60000));
+		assertEquals(3, fullResponses.get());
+		read(cache.openStream(url("/b"), 60000));
+		assertEquals(4, fullResponses.get());
+	}
+
+	// Helpers
+
+	private URL url(String path) throws Exception {
+		return new URL("http://localhost:" + server.getAddress().getPort()
+				+ path);
+	}
+
+	private String read(InputStream stream) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try {
+			byte[] buf = new byte[1024];
+			int n;
+			while ((n = stream.read(buf)) != -1) {
+				bytes.write(buf, 0, n);
+			}
+		} finally {
+			stream.close();
+		}
+
+		return bytes.toString("UTF-8");
+	}
+
+	// Serves the request path as content, with a constant ETag.
+	private class StubHandler implements HttpHandler {
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				String ifNoneMatch = exchange.getRequestHeaders().getFirst(
+						"If-None-Match");
+
+				if (ETAG.equals(ifNoneMatch)) {
+					notModifiedResponses.incrementAndGet();
+					exchange.sendResponseHeaders(304, -1);
+				} else {
+					fullResponses.incrementAndGet();
+					byte[] body = exchange.getRequestURI().getPath()
+							.getBytes("UTF-8");
+					exchange.getResponseHeaders().set("ETag", ETAG);
+					exchange.sendResponseHeaders(200, body.length);
+					OutputStream out = exchange.getResponseBody();
+					out.write(body);
+					out.close();
+				}
+			} finally {
+				exchange.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,410 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.snapshot;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.InvalidObservation;
+import org.aavso.tools.vstar.data.MTypeType;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.MagnitudeModifier;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.data.ValidObservation.JDflavour;
+import org.aavso.tools.vstar.data.ValidationType;
+import org.aavso.tools.vstar.exception.ObservationReadError;
+import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.plugin.ob.src.impl.TextFormatObservationSourcePlugin;
+import org.aavso.tools.vstar.ui.mediator.StarInfo;
+
+/**
+ * Unit tests for dataset snapshots.
+ */
+public class ObservationSnapshotTest extends TestCase {
+
+	private static final String KEY = "plugin=test\ninput=/tmp/test.csv:100:1";
+
+	private File dir;
+	private ObservationSnapshotCache cache;
+
+	public ObservationSnapshotTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("vstar", "snapshots");
+		dir.delete();
+		cache = new ObservationSnapshotCache(dir,
+				ObservationSnapshotCache.DEFAULT_MAX_SIZE);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		dir.delete();
+	}
+
+	public void testRoundTrip() throws Exception {
+		SeriesType custom = SeriesType.create("Snapshot Test Series",
+				"SnapTest", Color.ORANGE, false, false);
+
+		TestRetriever original = new TestRetriever();
+		original.retrieveObservations();
+
+		cache.put(KEY, original);
+
+		SnapshotObservationRetriever snapshot = cache.get(KEY,
+				ObservationSnapshotCache.NO_MAX_AGE);
+		assertNotNull(snapshot);
+		assertEquals(3, snapshot.getObservationCount());
+
+		snapshot.retrieveObservations();
+
+		List<ValidObservation> expected = original.getValidObservations();
+		List<ValidObservation> actual = snapshot.getValidObservations();
+		assertEquals(expected.size(), actual.size());
+
+		for (int i = 0; i < expected.size(); i++) {
+			ValidObservation ob1 = expected.get(i);
+			ValidObservation ob2 = actual.get(i);
+
+			assertEquals(ob1.getJD(), ob2.getJD());
+			assertEquals(ob1.getMagnitude(), ob2.getMagnitude());
+			assertEquals(ob1.getHqUncertainty(), ob2.getHqUncertainty());
+			assertEquals(ob1.getHJD(), ob2.getHJD());
+			assertSame(ob1.getBand(), ob2.getBand());
+			assertSame(ob1.getSeries(), ob2.getSeries());
+			assertEquals(ob1.getCommentCode(), ob2.getCommentCode());
+			assertEquals(ob1.getValidationType(), ob2.getValidationType());
+			assertEquals(ob1.getMType(), ob2.getMType());
+			assertEquals(ob1.getJDflavour(), ob2.getJDflavour());
+			assertEquals(ob1.isExcluded(), ob2.isExcluded());
+			assertEquals(ob1.getRecordNumber(), ob2.getRecordNumber());
+			assertEquals(ob1.getDetails(), ob2.getDetails());
+		}
+
+		assertSame(custom, actual.get(2).getBand());
+		assertEquals("ABC", actual.get(0).getObsCode());
+		assertEquals(1.25, actual.get(1).getDetail("AIRMASS_VALUE")
+				.getRealVal());
+
+		assertEquals(original.getValidObservationCategoryMap().keySet(),
+				snapshot.getValidObservationCategoryMap().keySet());
+
+		List<InvalidObservation> invalidObs = snapshot.getInvalidObservations();
+		assertEquals(1, invalidObs.size());
+		assertEquals("bad line", invalidObs.get(0).getInputLine());
+		assertEquals("bad", invalidObs.get(0).getError());
+		assertEquals(7, invalidObs.get(0).getRecordNumber());
+
+		assertEquals("Test Source", snapshot.getSourceName());
+		assertEquals("Test Type", snapshot.getSourceType());
+
+		StarInfo info = snapshot.getStarInfo();
+		assertEquals("X Test", info.getDesignation());
+		assertEquals("000-AAA-000", info.getAuid());
+		assertEquals(42.5, info.getPeriod());
+		assertNull(info.getEpoch());
+		assertSame(snapshot, info.getRetriever());
+	}
+
+	public void testKeyMismatchIsMiss() throws Exception {
+		TestRetriever original = new TestRetriever();
+		original.retrieveObservations();
+
+		File file = new File(dir, "snapshot");
+		dir.mkdirs();
+		ObservationSnapshot.write(file, KEY, original);
+
+		assertNotNull(ObservationSnapshot.open(file, KEY));
+		assertNull(ObservationSnapshot.open(file, KEY + "x"));
+	}
+
+	public void testMissingAndExpired() throws Exception {
+		assertNull(cache.get(KEY, ObservationSnapshotCache.NO_MAX_AGE));
+
+		TestRetriever original = new TestRetriever();
+		original.retrieveObservations();
+		cache.put(KEY, original);
+
+		assertNull(cache.get(KEY, -1));
+
+		// The expired snapshot was deleted when requested.
+		assertEquals(0, cache.getSize());
+
+		cache.put(KEY, original);
+		cache.setEnabled(false);
+		assertNull(cache.get(KEY, ObservationSnapshotCache.NO_MAX_AGE));
+	}
+
+	public void testPurgeUnused() throws Exception {
+		File unused = putSnapshot(KEY);
+		putSnapshot(KEY + "2");
+
+		// Make the first snapshot look unused for two days.
+		setTimes(unused, System.currentTimeMillis() - 2 * 24 * 60 * 60 * 1000L);
+
+		cache.purge(24 * 60 * 60 * 1000L);
+
+		assertFalse(unused.exists());
+		assertNull(cache.get(KEY, ObservationSnapshotCache.NO_MAX_AGE));
+		assertNotNull(cache.get(KEY + "2",
+				ObservationSnapshotCache.NO_MAX_AGE));
+	}
+
+	public void testLeastRecentlyUsedEviction() throws Exception {
+		// Measure the size of one snapshot, then allow two.
+		File file1 = putSnapshot(KEY + "1");
+		long snapshotSize = cache.getSize();
+		cache = new ObservationSnapshotCache(dir, 2 * snapshotSize);
+
+		File file2 = putSnapshot(KEY + "2");
+
+		long now = System.currentTimeMillis();
+		setTimes(file1, now - 20000);
+		setTimes(file2, now - 10000);
+
+		// Reading the older snapshot makes the other least recently used.
+		assertNotNull(cache.get(KEY + "1",
+				ObservationSnapshotCache.NO_MAX_AGE));
+
+		File file3 = putSnapshot(KEY + "3");
+
+		assertTrue(cache.getSize() <= 2 * snapshotSize);
+		assertTrue(file1.exists());
+		assertFalse(file2.exists());
+		assertTrue(file3.exists());
+	}
+
+	public void testDeferredURLInputStream() throws Exception {
+		File file = File.createTempFile("vstar", ".txt");
+		file.deleteOnExit();
+
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write("2450001.5,10.0\n".getBytes());
+		} finally {
+			out.close();
+		}
+
+		DeferredURLInputStream stream = new DeferredURLInputStream(
+				new TextFormatObservationSourcePlugin(), file.toURI().toURL());
+
+		// Nothing is opened until the stream is read.
+		assertFalse(stream.isOpened());
+		assertEquals('2', stream.read());
+		assertTrue(stream.isOpened());
+
+		byte[] buf = new byte[64];
+		int n = stream.read(buf, 0, buf.length);
+		assertEquals("450001.5,10.0\n", new String(buf, 0, n));
+
+		stream.close();
+
+		// An unopened stream may be closed without being opened.
+		DeferredURLInputStream unread = new DeferredURLInputStream(
+				new TextFormatObservationSourcePlugin(), file.toURI().toURL());
+		unread.close();
+		assertFalse(unread.isOpened());
+
+		try {
+			unread.read();
+			fail("Closed stream read");
+		} catch (IOException e) {
+			// Expected.
+		}
+	}
+
+	public void testKeys() throws IOException {
+		File file = File.createTempFile("vstar", ".txt");
+		file.deleteOnExit();
+
+		List<String> inputIds = new ArrayList<String>();
+		inputIds.add(ObservationSnapshotCache.getFileIdentity(file));
+
+		TextFormatObservationSourcePlugin plugin = new TextFormatObservationSourcePlugin();
+		plugin.setVelaFilterStr("");
+
+		String key1 = ObservationSnapshotCache.createKey(plugin, inputIds);
+		assertNotNull(key1);
+
+		// A changed file yields a different key.
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write("2450001.5,10.0\n".getBytes());
+		} finally {
+			out.close();
+		}
+
+		inputIds.set(0, ObservationSnapshotCache.getFileIdentity(file));
+		assertFalse(key1.equals(ObservationSnapshotCache.createKey(plugin,
+				inputIds)));
+
+		// As does a different VeLa filter.
+		String key2 = ObservationSnapshotCache.createKey(plugin, inputIds);
+		plugin.setVelaFilterStr("mag < 10");
+		assertFalse(key2.equals(ObservationSnapshotCache.createKey(plugin,
+				inputIds)));
+	}
+
+	public void testURLKeys() throws IOException {
+		URL url = new URL("https://www.aavso.org/data/test.csv");
+
+		// A URL's content may change without the URL changing, so a load from
+		// a URL is only snapshot by a plug-in whose snapshots expire.
+		TextFormatObservationSourcePlugin plugin = new TextFormatObservationSourcePlugin();
+		plugin.setVelaFilterStr("");
+
+		List<String> inputIds = new ArrayList<String>();
+		inputIds.add(ObservationSnapshotCache.getURLIdentity(plugin, url));
+		assertNull(ObservationSnapshotCache.createKey(plugin, inputIds));
+
+		TextFormatObservationSourcePlugin expiringPlugin = new TextFormatObservationSourcePlugin() {
+			@Override
+			public long getSnapshotMaxAge() {
+				return 60 * 60 * 1000L;
+			}
+		};
+		expiringPlugin.setVelaFilterStr("");
+
+		inputIds.set(0, ObservationSnapshotCache.getURLIdentity(
+				expiringPlugin, url));
+		assertNotNull(ObservationSnapshotCache.createKey(expiringPlugin,
+				inputIds));
+	}
+
+	// Helpers
+
+	// Put a snapshot into the cache, returning the file created.
+	private File putSnapshot(String key) throws Exception {
+		List<File> before = listFiles();
+
+		TestRetriever retriever = new TestRetriever();
+		retriever.retrieveObservations();
+		cache.put(key, retriever);
+
+		List<File> after = listFiles();
+		after.removeAll(before);
+		assertEquals(1, after.size());
+
+		return after.get(0);
+	}
+
+	private List<File> listFiles() {
+		List<File> files = new ArrayList<File>();
+
+		File[] dirFiles = dir.listFiles();
+		if (dirFiles != null) {
+			for (File file : dirFiles) {
+				files.add(file);
+			}
+		}
+
+		return files;
+	}
+
+	// Set a file's modification and access times.
+	private static void setTimes(File file, long time) throws IOException {
+		Files.getFileAttributeView(file.toPath(),
+				BasicFileAttributeView.class).setTimes(
+				FileTime.fromMillis(time), FileTime.fromMillis(time), null);
+	}
+
+	// A retriever that creates a few observations exercising most fields.
+	private static class TestRetriever extends AbstractObservationRetriever {
+
+		public TestRetriever() {
+			setJDflavour(JDflavour.JD);
+		}
+
+		@Override
+		public void retrieveObservations() throws ObservationReadError,
+				InterruptedException {
+			ValidObservation ob1 = new ValidObservation();
+			ob1.setRecordNumber(1);
+			ob1.setJD(2450001.5);
+			ob1.setMagnitude(new Magnitude(10.1, MagnitudeModifier.NO_DELTA,
+					true, 0.05));
+			ob1.setBand(SeriesType.Visual);
+			ob1.setObsCode("ABC");
+			ob1.setCommentCode("B");
+			ob1.setValidationType(ValidationType.GOOD);
+			collectObservation(ob1);
+
+			ValidObservation ob2 = new ValidObservation();
+			ob2.setRecordNumber(2);
+			ob2.setJD(2450002.25);
+			ob2.setMagnitude(new Magnitude(11.5,
+					MagnitudeModifier.FAINTER_THAN, false, 0));
+			ob2.setBand(SeriesType.Johnson_V);
+			ob2.setHJD(null);
+			ob2.setHqUncertainty(0.01);
+			ob2.setMType(MTypeType.DIFF);
+			ob2.addDetail("AIRMASS_VALUE", 1.25, "Airmass Value");
+			collectObservation(ob2);
+
+			ValidObservation ob3 = new ValidObservation();
+			ob3.setRecordNumber(3);
+			ob3.setJD(2450003.0);
+			ob3.setMagnitude(new Magnitude(9.9, 0.1));
+			ob3.setBand(SeriesType.getSeriesFromDescription("Snapshot Test Series"));
+			ob3.setDiscrepant(true);
+			ob3.setExcluded(true);
+			ob3.setObsCode("DEF");
+			collectObservation(ob3);
+
+			InvalidObservation invalidOb = new InvalidObservation("bad line",
+					"bad");
+			invalidOb.setRecordNumber(7);
+			addInvalidObservation(invalidOb);
+		}
+
+		@Override
+		public StarInfo getStarInfo() {
+			return new StarInfo(this, "X Test", "000-AAA-000", 42.5, null,
+					null, null, null, null, null, null);
+		}
+
+		@Override
+		public String getSourceType() {
+			return "Test Type";
+		}
+
+		@Override
+		public String getSourceName() {
+			return "Test Source";
+		}
+	}
+}
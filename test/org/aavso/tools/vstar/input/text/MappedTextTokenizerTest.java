@@ -0,0 +1,230 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.input.text;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.validation.InclusiveRangePredicate;
+import org.aavso.tools.vstar.data.validation.JulianDayValidator;
+import org.aavso.tools.vstar.data.validation.MagnitudeFieldValidator;
+import org.aavso.tools.vstar.data.validation.UncertaintyValueValidator;
+import org.aavso.tools.vstar.exception.ObservationValidationError;
+import org.aavso.tools.vstar.util.DecimalParser;
+
+/**
+ * Unit test for MappedTextTokenizer and the CharSequence validation paths it
+ * is used with.
+ */
+public class MappedTextTokenizerTest extends TestCase {
+
+	private static final String CSV = "HJD,mag, mag_err ,filter\n"
+			+ "2458000.47009,12.345,0.012,V\r\n" + "\n"
+			+ "2458001.5,<13.1,0.02,g\r" + "2458002.25,11.9:,,V";
+
+	public MappedTextTokenizerTest(String name) {
+		super(name);
+	}
+
+	public void testLinesAndFields() throws IOException {
+		MappedTextTokenizer tokenizer = MappedTextTokenizer
+				.create(new ByteArrayInputStream(bytes(CSV)));
+		checkTokens(tokenizer);
+	}
+
+	public void testSmallWindowsOverFile() throws IOException {
+		File file = File.createTempFile("vstar", ".csv");
+		file.deleteOnExit();
+
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bytes(CSV));
+		} finally {
+			out.close();
+		}
+
+		// Every window size from the longest line up forces remapping at
+		// different points, including between \r and \n.
+		for (int window = 32; window <= 64; window++) {
+			FileInputStream in = new FileInputStream(file);
+			try {
+				MappedTextTokenizer tokenizer = new MappedTextTokenizer(
+						in.getChannel(), window);
+				checkTokens(tokenizer);
+			} finally {
+				in.close();
+			}
+		}
+	}
+
+	public void testChannelClosedOnceMapped() throws IOException {
+		File file = File.createTempFile("vstar", ".csv");
+		file.deleteOnExit();
+
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bytes(CSV));
+		} finally {
+			out.close();
+		}
+
+		// The whole file fits in one window, so the channel is closed at once.
+		FileInputStream in = new FileInputStream(file);
+		MappedTextTokenizer tokenizer = MappedTextTokenizer.create(in);
+		assertFalse(in.getChannel().isOpen());
+		checkTokens(tokenizer);
+
+		// With small windows, it is closed when the last window is mapped.
+		in = new FileInputStream(file);
+		tokenizer = new MappedTextTokenizer(in.getChannel(), 32);
+		assertTrue(in.getChannel().isOpen());
+		checkTokens(tokenizer);
+		assertFalse(in.getChannel().isOpen());
+	}
+
+	public void testLineTooLong() throws IOException {
+		File file = File.createTempFile("vstar", ".csv");
+		file.deleteOnExit();
+
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bytes("0123456789\n0123456789012345678901234\n"));
+		} finally {
+			out.close();
+		}
+
+		FileInputStream in = new FileInputStream(file);
+		try {
+			MappedTextTokenizer tokenizer = new MappedTextTokenizer(
+					in.getChannel(), 16);
+			assertTrue(tokenizer.nextLine());
+			tokenizer.nextLine();
+			fail();
+		} catch (IOException e) {
+			// Expected.
+		} finally {
+			in.close();
+		}
+	}
+
+	public void testEmpty() throws IOException {
+		MappedTextTokenizer tokenizer = new MappedTextTokenizer(new byte[0]);
+		assertFalse(tokenizer.nextLine());
+		assertEquals(0, tokenizer.getSize());
+	}
+
+	public void testDecimalParserMatchesParseDouble() {
+		String[] numbers = { "0", "0.0", "1", "-1.5", "2458000.47009",
+				"12.345", "0.012", "99.99", "123456789012345", "0.1",
+				"7.00000000000001" };
+
+		for (String number : numbers) {
+			assertEquals(number, Double.parseDouble(number),
+					DecimalParser.parse(number, true));
+		}
+	}
+
+	public void testDecimalParserRejects() {
+		String[] notHandled = { "", "-", "1.", ".5", "1e5", "+1", "1.2.3",
+				"1234567890123456", "NaN", " 1" };
+
+		for (String str : notHandled) {
+			assertTrue(str, Double.isNaN(DecimalParser.parse(str, true)));
+		}
+
+		assertTrue(Double.isNaN(DecimalParser.parse("-1", false)));
+	}
+
+	public void testValidatorSlices() throws Exception {
+		MappedTextTokenizer tokenizer = new MappedTextTokenizer(
+				bytes("2458000.5,<13.1:,0.02\n2458000.5,1e+1,x\n"));
+
+		JulianDayValidator jdValidator = new JulianDayValidator();
+		MagnitudeFieldValidator magValidator = new MagnitudeFieldValidator();
+		UncertaintyValueValidator errValidator = new UncertaintyValueValidator(
+				new InclusiveRangePredicate(0, 1));
+
+		assertTrue(tokenizer.nextLine());
+		assertEquals(2458000.5, jdValidator.validate(tokenizer.getField(0))
+				.getJulianDay());
+
+		Magnitude mag = magValidator.validate(tokenizer.getField(1));
+		Magnitude expected = magValidator.validate("<13.1:");
+		assertEquals(expected.getMagValue(), mag.getMagValue());
+		assertEquals(expected.isFainterThan(), mag.isFainterThan());
+		assertEquals(expected.isUncertain(), mag.isUncertain());
+
+		assertEquals(0.02, errValidator.validate(tokenizer.getField(2)));
+
+		// Forms not parsed directly fall back to the String path.
+		assertTrue(tokenizer.nextLine());
+		assertEquals(10.0, magValidator.validate(tokenizer.getField(1))
+				.getMagValue());
+
+		try {
+			errValidator.validate(tokenizer.getField(2));
+			fail();
+		} catch (ObservationValidationError e) {
+			// Expected.
+		}
+	}
+
+	// Helpers
+
+	private void checkTokens(MappedTextTokenizer tokenizer) throws IOException {
+		assertTrue(tokenizer.nextLine());
+		assertEquals(1, tokenizer.getLineNumber());
+		assertEquals(4, tokenizer.getFieldCount());
+		assertEquals("mag_err", tokenizer.getFieldString(2));
+		assertTrue(tokenizer.fieldEquals(3, "filter"));
+
+		assertTrue(tokenizer.nextLine());
+		assertEquals(2, tokenizer.getLineNumber());
+		assertEquals("2458000.47009,12.345,0.012,V", tokenizer.getLine());
+		assertEquals(2458000.47009, tokenizer.getFieldAsDouble(0));
+		assertEquals(12.345, tokenizer.getFieldAsDouble(1));
+		assertEquals("0.012", tokenizer.getField(2).toString());
+
+		assertTrue(tokenizer.nextLine());
+		assertTrue(tokenizer.isBlankLine());
+
+		assertTrue(tokenizer.nextLine());
+		assertEquals(4, tokenizer.getLineNumber());
+		assertEquals("<13.1", tokenizer.getFieldString(1));
+		assertTrue(tokenizer.fieldEquals(3, "g"));
+
+		assertTrue(tokenizer.nextLine());
+		assertEquals(5, tokenizer.getLineNumber());
+		assertTrue(tokenizer.isFieldEmpty(2));
+		assertEquals(2458002.25, tokenizer.getFieldAsDouble(0));
+
+		assertFalse(tokenizer.nextLine());
+		assertEquals(tokenizer.getSize(), tokenizer.getPosition());
+	}
+
+	private byte[] bytes(String str) {
+		return str.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -17,7 +17,9 @@
  */
 package org.aavso.tools.vstar.input.text;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.StringReader;
 import java.util.List;
@@ -31,6 +33,7 @@ import org.aavso.tools.vstar.data.validation.SimpleTextFormatValidator;
 import org.aavso.tools.vstar.exception.ObservationValidationError;
 import org.aavso.tools.vstar.exception.ObservationValidationWarning;
 import org.aavso.tools.vstar.input.AbstractObservationRetriever;
+import org.aavso.tools.vstar.input.CountingInputStream;
 import org.aavso.tools.vstar.ui.mediator.NewStarType;
 
 import com.csvreader.CsvReader;
@@ -230,6 +233,48 @@ public class TextFormatObservationReaderTest extends TestCase {
 		}
 	}
 
+	// Test that a source can be analysed from a prefix and then read once,
+	// with progress driven by the number of bytes consumed.
+	public void testSinglePassRead() throws Exception {
+		StringBuffer lines = new StringBuffer();
+		lines.append("# A comment\n");
+		lines.append("\n");
+		lines.append("JD,Magnitude\n");
+		lines.append("2454924.3,4.1\n");
+		lines.append("2454923.3,4.2\n");
+		lines.append("2454925.3,4.0\n");
+
+		byte[] bytes = lines.toString().getBytes();
+
+		CountingInputStream byteSource = new CountingInputStream(
+				new ByteArrayInputStream(bytes));
+		LineNumberReader reader = new LineNumberReader(new InputStreamReader(
+				byteSource));
+
+		ObservationSourceAnalyser analyser = new ObservationSourceAnalyser(
+				reader, "Some String");
+		analyser.analysePrefix();
+
+		assertEquals(NewStarType.NEW_STAR_FROM_SIMPLE_FILE,
+				analyser.getNewStarType());
+		assertEquals(ObservationSourceAnalyser.COMMA_DELIM,
+				analyser.getDelimiter());
+
+		AbstractObservationRetriever retriever = new TextFormatObservationReader(
+				reader, analyser, "", byteSource, bytes.length);
+
+		assertEquals(bytes.length, (int) retriever.getNumberOfRecords());
+
+		retriever.retrieveObservations();
+
+		List<ValidObservation> obs = retriever.getValidObservations();
+		assertEquals(3, obs.size());
+		assertEquals(2454923.3, obs.get(0).getJD());
+		assertEquals(2454925.3, obs.get(2).getJD());
+		assertTrue(retriever.getInvalidObservations().isEmpty());
+		assertEquals(bytes.length, byteSource.getCount());
+	}
+
 	// Tests with invalid data.
 
 	// No digit after the magnitude decimal point. Although the format spec says
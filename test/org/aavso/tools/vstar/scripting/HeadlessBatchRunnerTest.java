@@ -0,0 +1,158 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.scripting;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.util.period.PeriodAnalysisCoordinateType;
+import org.aavso.tools.vstar.util.period.dcdft.DcDftAnalysisType;
+
+/**
+ * HeadlessBatchRunner unit tests: stars are analysed concurrently and
+ * independently, with results written to files.
+ */
+public class HeadlessBatchRunnerTest extends TestCase {
+
+	private File dir;
+
+	public HeadlessBatchRunnerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("vstar", "headless");
+		dir.delete();
+		dir.mkdir();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+		dir.delete();
+	}
+
+	public void testBatch() throws IOException {
+		List<File> inputs = new ArrayList<File>();
+		inputs.add(createStar("star1", 13.0));
+		inputs.add(new File(dir, "missing.txt"));
+		inputs.add(createStar("star2", 27.0));
+
+		HeadlessAnalysisSpec spec = new HeadlessAnalysisSpec();
+		spec.setDcDftRange(DcDftAnalysisType.PERIOD_RANGE, 10, 40, 0.1);
+		spec.setPolyfitDegree(3);
+
+		List<HeadlessStarAnalysis.Result> results = new HeadlessBatchRunner(
+				inputs, spec, dir, 2).run();
+
+		assertEquals(3, results.size());
+
+		checkStar(results.get(0), "star1", 13.0);
+		checkStar(results.get(2), "star2", 27.0);
+
+		// A failure does not affect the analysis of other stars.
+		HeadlessStarAnalysis.Result missing = results.get(1);
+		assertFalse(missing.succeeded());
+		assertNotNull(missing.getError());
+		assertTrue(missing.getOutputFiles().isEmpty());
+	}
+
+	public void testSeriesNotFound() throws IOException {
+		List<File> inputs = new ArrayList<File>();
+		inputs.add(createStar("star", 13.0));
+
+		HeadlessAnalysisSpec spec = new HeadlessAnalysisSpec();
+		spec.setSeriesName("Johnson V");
+		spec.setPolyfitDegree(1);
+
+		List<HeadlessStarAnalysis.Result> results = new HeadlessBatchRunner(
+				inputs, spec, dir, 1).run();
+
+		assertFalse(results.get(0).succeeded());
+	}
+
+	// Helpers
+
+	private void checkStar(HeadlessStarAnalysis.Result result, String name,
+			double period) throws IOException {
+		assertTrue(result.getError(), result.succeeded());
+		assertEquals(500, result.getObsCount());
+		assertEquals(2, result.getOutputFiles().size());
+
+		File dcdftFile = new File(dir, name + "_dcdft.txt");
+		assertEquals(dcdftFile, result.getOutputFiles().get(0));
+
+		List<String> lines = readLines(dcdftFile);
+		assertTrue(lines.size() > 1);
+		int periodColumn = Arrays.asList(lines.get(0).split("\t")).indexOf(
+				PeriodAnalysisCoordinateType.PERIOD.getDescription());
+		double topPeriod = Double.parseDouble(lines.get(1).split("\t")[
+				periodColumn]);
+		assertEquals(period, topPeriod, 0.2);
+
+		File modelFile = new File(dir, name + "_model.txt");
+		assertEquals(modelFile, result.getOutputFiles().get(1));
+		assertEquals(501, readLines(modelFile).size());
+	}
+
+	// Create a sinusoidal light curve in the simple text format.
+	private File createStar(String name, double period) throws IOException {
+		File file = new File(dir, name + ".txt");
+
+		PrintWriter writer = new PrintWriter(new FileWriter(file));
+		try {
+			for (int i = 0; i < 500; i++) {
+				double jd = 2450000 + i * 0.73;
+				double mag = 10 + Math.sin(2 * Math.PI * jd / period);
+				writer.println(jd + "\t" + mag);
+			}
+		} finally {
+			writer.close();
+		}
+
+		return file;
+	}
+
+	private List<String> readLines(File file) throws IOException {
+		List<String> lines = new ArrayList<String>();
+
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		} finally {
+			reader.close();
+		}
+
+		return lines;
+	}
+}
@@ -0,0 +1,174 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.scripting;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.ValidObservation;
+
+/**
+ * ScriptRunner and SeriesView unit tests.
+ */
+public class ScriptRunnerTest extends TestCase {
+
+	private File dir;
+
+	public ScriptRunnerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("vstar", "scripts");
+		dir.delete();
+		dir.mkdir();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+		dir.delete();
+	}
+
+	// Tests
+
+	public void testVeLaScripts() throws IOException {
+		ScriptRunner runner = ScriptRunner.getInstance();
+
+		List<File> scripts = new ArrayList<File>();
+		scripts.add(write("first.vl", "scriptrunnerx <- 6\n"));
+		scripts.add(write("second.vl", "scriptrunnery <- 6 * 7\n"));
+
+		assertTrue(runner.runScripts(scripts));
+		assertNull(runner.getError());
+
+		// Each run's bindings are discarded afterwards.
+		assertFalse(runner.getVeLaInterpreter().lookupBinding(
+				"scriptrunnerx").isPresent());
+		assertFalse(runner.getVeLaInterpreter().lookupBinding(
+				"scriptrunnery").isPresent());
+	}
+
+	public void testSameScriptRunTwice() throws IOException {
+		ScriptRunner runner = ScriptRunner.getInstance();
+
+		File script = write("twice.vl", "scriptrunnerc is 42\n");
+		assertTrue(runner.execute(script));
+		assertTrue(runner.execute(script));
+		assertNull(runner.getError());
+	}
+
+	public void testBindingsDoNotLeakBetweenScripts() throws IOException {
+		ScriptRunner runner = ScriptRunner.getInstance();
+
+		// A name may be bound to a value of a different type in a later run.
+		assertTrue(runner.execute(write("int.vl", "scriptrunnerv <- 1\n")));
+		assertTrue(runner.execute(write("str.vl",
+				"scriptrunnerv <- \"one\"\n")));
+
+		List<File> scripts = new ArrayList<File>();
+		scripts.add(write("define.vl", "scriptrunneru <- 6\n"));
+		scripts.add(write("use.vl", "scriptrunnert <- scriptrunneru * 7\n"));
+
+		assertFalse(runner.runScripts(scripts));
+		assertNotNull(runner.getError());
+	}
+
+	public void testChangedScriptIsRecompiled() throws IOException {
+		ScriptRunner runner = ScriptRunner.getInstance();
+
+		File script = write("changed.vl", "scriptrunnerz <- 1\n");
+		assertTrue(runner.execute(script));
+
+		write("changed.vl", "scriptrunnerz <- (1 +\n");
+		assertFalse(runner.execute(script));
+		assertNotNull(runner.getError());
+
+		write("changed.vl", "scriptrunnerz <- 1234\n");
+		assertTrue(runner.execute(script));
+	}
+
+	public void testScriptErrorsAreRecorded() throws IOException {
+		ScriptRunner runner = ScriptRunner.getInstance();
+
+		List<File> scripts = new ArrayList<File>();
+		scripts.add(write("bad.vl", "scriptrunnerw <- (1 +\n"));
+		scripts.add(write("notrun.vl", "scriptrunnerw <- 1\n"));
+
+		assertFalse(runner.runScripts(scripts));
+		assertNotNull(runner.getError());
+		assertFalse(runner.getVeLaInterpreter().lookupBinding(
+				"scriptrunnerw").isPresent());
+
+		// Whether or not there is a JavaScript engine, a bad JavaScript file
+		// is reported as an error.
+		assertFalse(runner.execute(write("bad.js", "var x = ;\n")));
+		assertNotNull(runner.getError());
+	}
+
+	public void testSeriesView() {
+		List<ValidObservation> obs = new ArrayList<ValidObservation>();
+		for (int i = 0; i < 3; i++) {
+			ValidObservation ob = new ValidObservation();
+			ob.setJD(2450000 + i);
+			ob.setMagnitude(new Magnitude(10 + i, 0.1 * i));
+			obs.add(ob);
+		}
+
+		SeriesView view = new SeriesView(obs);
+
+		assertEquals(3, view.size());
+		assertEquals(2450001.0, view.getTime(1));
+		assertEquals(12.0, view.mags().get(2));
+		assertEquals(0.2, view.getMagError(2), 1e-9);
+		assertTrue(Double.isNaN(view.getPhase(0)));
+
+		// The view reflects changes to the series.
+		obs.get(0).setMag(9);
+		assertEquals(9.0, view.getMag(0));
+
+		try {
+			view.times().add(1.0);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	// Helpers
+
+	private File write(String name, String content) throws IOException {
+		File file = new File(dir, name);
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+}
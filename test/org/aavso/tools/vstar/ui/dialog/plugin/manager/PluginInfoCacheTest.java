@@ -0,0 +1,117 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.dialog.plugin.manager;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.util.Pair;
+
+/**
+ * Tests for the plug-in manager's checksum-keyed plug-in information cache.
+ */
+public class PluginInfoCacheTest extends TestCase {
+
+	private File dir;
+	private File cacheFile;
+
+	public PluginInfoCacheTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		dir = Files.createTempDirectory("vstar_plugin_info_cache_test")
+				.toFile();
+		cacheFile = new File(dir, "cache");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+		dir.delete();
+		super.tearDown();
+	}
+
+	public void testChecksumOfContent() throws Exception {
+		File jar = new File(dir, "a.jar");
+		OutputStream out = new FileOutputStream(jar);
+		out.write("abc".getBytes());
+		out.close();
+
+		// SHA-1 of "abc".
+		String expected = "a9993e364706816aba3e25717850c26c9cd0d89d";
+
+		assertEquals(expected, PluginInfoCache.checksum(jar));
+		assertEquals(expected, PluginInfoCache
+				.checksum(new ByteArrayInputStream("abc".getBytes())));
+		assertFalse(expected.equals(PluginInfoCache
+				.checksum(new ByteArrayInputStream("abd".getBytes()))));
+	}
+
+	public void testInfoPersisted() throws Exception {
+		PluginInfoCache cache = new PluginInfoCache(cacheFile);
+		cache.load();
+		cache.put("c1", new Pair<String, String>("Plug-in 1", "doc1.html"));
+		cache.put("c2", new Pair<String, String>("Plug-in 2", null));
+		cache.store();
+
+		cache = new PluginInfoCache(cacheFile);
+		cache.load();
+
+		assertEquals(new Pair<String, String>("Plug-in 1", "doc1.html"),
+				cache.get("c1"));
+		assertEquals(new Pair<String, String>("Plug-in 2", null),
+				cache.get("c2"));
+		assertNull(cache.get("c3"));
+	}
+
+	public void testRetainAll() throws Exception {
+		PluginInfoCache cache = new PluginInfoCache(cacheFile);
+		cache.load();
+		cache.put("c1", new Pair<String, String>("Plug-in 1", "doc1.html"));
+		cache.put("c2", new Pair<String, String>("Plug-in 2", "doc2.html"));
+		cache.retainAll(Collections.singleton("c2"));
+		cache.store();
+
+		cache = new PluginInfoCache(cacheFile);
+		cache.load();
+
+		assertNull(cache.get("c1"));
+		assertNotNull(cache.get("c2"));
+	}
+
+	public void testUnchangedCacheNotWritten() throws Exception {
+		PluginInfoCache cache = new PluginInfoCache(cacheFile);
+		cache.load();
+		cache.retainAll(Collections.<String> emptySet());
+		cache.store();
+
+		assertFalse(cacheFile.exists());
+	}
+}
@@ -0,0 +1,205 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.mediator;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.ObservationDetailRegistry;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.plugin.ob.src.impl.TextFormatObservationSourcePlugin;
+import org.aavso.tools.vstar.ui.mediator.message.NewStarMessage;
+import org.aavso.tools.vstar.util.model.TSPolynomialFitter;
+
+/**
+ * AnalysisSession unit tests: sessions own their datasets and observation
+ * detail registries, independently of each other and the Mediator.
+ */
+public class AnalysisSessionTest extends TestCase {
+
+	private static final String OBS_CODE_KEY = "OBS_CODE";
+
+	// Added to observations by additive loads only.
+	private static final String SOURCE_KEY = "SOURCE";
+
+	public AnalysisSessionTest(String name) {
+		super(name);
+	}
+
+	public void testLoad() throws Exception {
+		AnalysisSession session = new AnalysisSession();
+
+		assertNull(session.getValidObsList());
+		assertTrue(session.getObservations(SeriesType.Visual).isEmpty());
+
+		NewStarMessage msg = session.load(createPlugin(createObs(100), false));
+
+		assertSame(msg, session.getLatestNewStarMessage());
+		assertEquals(100, session.getValidObsList().size());
+		assertEquals(100, msg.getObservations().size());
+		assertTrue(session.getDetailRegistry().containsKey(OBS_CODE_KEY));
+
+		// An additive load adds to the dataset.
+		session.load(createPlugin(createObs(20), true));
+
+		assertEquals(2, session.getNewStarMessageList().size());
+		assertEquals(120, session.getValidObsList().size());
+		assertTrue(session.getDetailRegistry().containsKey(SOURCE_KEY));
+
+		// A non-additive load replaces it and its details.
+		session.load(createPlugin(createObs(50), false));
+
+		assertEquals(1, session.getNewStarMessageList().size());
+		assertEquals(50, session.getValidObsList().size());
+		assertFalse(session.getDetailRegistry().containsKey(SOURCE_KEY));
+	}
+
+	public void testConcurrentSessions() throws Exception {
+		ObservationDetailRegistry defaultRegistry = ObservationDetailRegistry
+				.getDefault();
+		Set<String> defaultKeys = new HashSet<String>(defaultRegistry
+				.getTitles().keySet());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			List<AnalysisSession> sessions = new ArrayList<AnalysisSession>();
+			List<Future<NewStarMessage>> futures = new ArrayList<Future<NewStarMessage>>();
+
+			for (int i = 0; i < 8; i++) {
+				final AnalysisSession session = new AnalysisSession();
+				final boolean additive = i % 2 == 0;
+				final int count = 1000 + i;
+
+				sessions.add(session);
+
+				futures.add(executor.submit(new Callable<NewStarMessage>() {
+					@Override
+					public NewStarMessage call() throws Exception {
+						NewStarMessage msg = session.load(createPlugin(
+								createObs(count), false));
+						if (additive) {
+							msg = session.load(createPlugin(createObs(10),
+									true));
+						}
+						return msg;
+					}
+				}));
+			}
+
+			for (int i = 0; i < sessions.size(); i++) {
+				futures.get(i).get();
+
+				AnalysisSession session = sessions.get(i);
+				boolean additive = i % 2 == 0;
+				assertEquals(1000 + i + (additive ? 10 : 0), session
+						.getValidObsList().size());
+				assertEquals(additive, session.getDetailRegistry()
+						.containsKey(SOURCE_KEY));
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(defaultKeys, defaultRegistry.getTitles().keySet());
+	}
+
+	public void testCallBindsSession() throws Exception {
+		final AnalysisSession session = new AnalysisSession();
+
+		assertNull(AnalysisSession.getCurrent());
+
+		Boolean bound = session.call(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				ValidObservation ob = new ValidObservation();
+				ob.setObsCode("ABC");
+
+				return AnalysisSession.getCurrent() == session
+						&& ObservationDetailRegistry.getCurrent() == session
+								.getDetailRegistry();
+			}
+		});
+
+		assertTrue(bound);
+		assertTrue(session.getDetailRegistry().containsKey(OBS_CODE_KEY));
+
+		assertNull(AnalysisSession.getCurrent());
+		assertSame(ObservationDetailRegistry.getDefault(),
+				ObservationDetailRegistry.getCurrent());
+	}
+
+	public void testAddModel() throws Exception {
+		AnalysisSession session = new AnalysisSession();
+		session.load(createPlugin(createObs(100), false));
+
+		List<ValidObservation> obs = session
+				.getObservations(SeriesType.Unspecified);
+		assertEquals(100, obs.size());
+
+		TSPolynomialFitter model = new TSPolynomialFitter(obs);
+		model.setDegree(2);
+		session.addModel(model);
+
+		assertEquals(1, session.getModels().size());
+		assertFalse(model.getFit().isEmpty());
+
+		// A new dataset has no models.
+		session.load(createPlugin(createObs(10), false));
+		assertTrue(session.getModels().isEmpty());
+	}
+
+	// Helpers
+
+	private TextFormatObservationSourcePlugin createPlugin(String obs,
+			boolean additive) {
+		TextFormatObservationSourcePlugin plugin = new TextFormatObservationSourcePlugin();
+
+		List<InputStream> streams = new ArrayList<InputStream>();
+		streams.add(new ByteArrayInputStream(obs.getBytes()));
+		plugin.setInputInfo(streams, "test");
+		plugin.setAdditive(additive);
+
+		return plugin;
+	}
+
+	// Create observations in the simple text format.
+	private String createObs(int count) {
+		StringBuffer buf = new StringBuffer();
+
+		for (int i = 0; i < count; i++) {
+			buf.append(2450000 + i * 0.5);
+			buf.append("\t");
+			buf.append(10 + Math.sin(i / 10.0));
+			buf.append("\t0.1\tABC\n");
+		}
+
+		return buf.toString();
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.mediator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.ui.mediator.message.DiscrepantObservationMessage;
+import org.aavso.tools.vstar.ui.mediator.message.ObservationSelectionMessage;
+import org.aavso.tools.vstar.ui.mediator.message.PhaseChangeMessage;
+import org.aavso.tools.vstar.util.notification.Listener;
+import org.aavso.tools.vstar.util.notification.Notifier;
+
+/**
+ * Unit tests for the Mediator's notifier configuration, in particular the
+ * replay of messages to late listeners such as lazily created dialogs.
+ */
+public class MediatorNotifierTest extends TestCase {
+
+	private Mediator mediator;
+
+	public MediatorNotifierTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		mediator = Mediator.getInstance();
+	}
+
+	// Tests
+
+	public void testLateListenerReceivesAllListedMessages() {
+		Notifier<PhaseChangeMessage> notifier = mediator
+				.getPhaseChangeNotifier();
+
+		PhaseChangeMessage first = new PhaseChangeMessage(this, 1.5,
+				2450000, new HashMap<SeriesType, Boolean>());
+		PhaseChangeMessage second = new PhaseChangeMessage(this, 2.5,
+				2450001, new HashMap<SeriesType, Boolean>());
+
+		notifier.notifyListeners(first);
+		notifier.notifyListeners(second);
+
+		Recorder<PhaseChangeMessage> late = new Recorder<PhaseChangeMessage>();
+		notifier.addListener(late, true);
+
+		int n = late.messages.size();
+		assertTrue(n >= 2);
+		assertSame(first, late.messages.get(n - 2));
+		assertSame(second, late.messages.get(n - 1));
+	}
+
+	public void testLateListenerReceivesLatestSelection() {
+		Notifier<ObservationSelectionMessage> notifier = mediator
+				.getObservationSelectionNotifier();
+
+		ObservationSelectionMessage first = new ObservationSelectionMessage(
+				new ValidObservation(), this);
+		ObservationSelectionMessage second = new ObservationSelectionMessage(
+				new ValidObservation(), this);
+
+		notifier.notifyListeners(first);
+		notifier.notifyListeners(second);
+
+		Recorder<ObservationSelectionMessage> late = new Recorder<ObservationSelectionMessage>();
+		notifier.addListener(late, true);
+
+		assertEquals(1, late.messages.size());
+		assertSame(second, late.messages.get(0));
+	}
+
+	public void testUnreplayedMessagesNotRetained() {
+		Notifier<DiscrepantObservationMessage> notifier = mediator
+				.getDiscrepantObservationNotifier();
+
+		notifier.notifyListeners(new DiscrepantObservationMessage(
+				new ValidObservation(), this));
+
+		Recorder<DiscrepantObservationMessage> late = new Recorder<DiscrepantObservationMessage>();
+		notifier.addListener(late, true);
+
+		assertTrue(late.messages.isEmpty());
+	}
+
+	public void testResetDiscrepantObservationNotifierIsRegistered() {
+		Notifier<DiscrepantObservationMessage> oldNotifier = mediator
+				.getDiscrepantObservationNotifier();
+
+		mediator.resetDiscrepantObservationNotifier();
+
+		Notifier<DiscrepantObservationMessage> newNotifier = mediator
+				.getDiscrepantObservationNotifier();
+		assertNotSame(oldNotifier, newNotifier);
+
+		newNotifier.addListener(new Recorder<DiscrepantObservationMessage>());
+		newNotifier.notifyListeners(new DiscrepantObservationMessage(
+				new ValidObservation(), this));
+
+		// The metrics by name are those of the new notifier.
+		assertEquals(newNotifier.getMetrics().getSentCount(), mediator
+				.getNotifierMetrics().get("discrepant observation")
+				.getSentCount());
+		assertEquals(1, mediator.getNotifierMetrics().get(
+				"discrepant observation").getListenerCount());
+
+		// Nor is history retained by the new notifier.
+		Recorder<DiscrepantObservationMessage> late = new Recorder<DiscrepantObservationMessage>();
+		newNotifier.addListener(late, true);
+		assertTrue(late.messages.isEmpty());
+	}
+
+	// Helpers
+
+	private static class Recorder<T> implements Listener<T> {
+		List<T> messages = new ArrayList<T>();
+
+		@Override
+		public void update(T info) {
+			messages.add(info);
+		}
+
+		@Override
+		public boolean canBeRemoved() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.model.plot;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.util.model.ModelSeries;
+import org.apache.commons.math.analysis.UnivariateRealFunction;
+
+/**
+ * Adaptive model function sampler test.
+ */
+public class AdaptiveFunctionSamplerTest extends TestCase {
+
+	private static final double LOWER_JD = 2450000;
+	private static final double UPPER_JD = 2450100;
+	private static final double PEAK_JD = 2450050.3;
+
+	public AdaptiveFunctionSamplerTest(String name) {
+		super(name);
+	}
+
+	public void testLinearFunctionNotRefined() {
+		AdaptiveFunctionSampler sampler = new AdaptiveFunctionSampler(
+				createModelFunction(new UnivariateRealFunction() {
+					@Override
+					public double value(double t) {
+						return 10 + 0.01 * (t - LOWER_JD);
+					}
+				}));
+
+		AdaptiveFunctionSampler.Samples samples = sampler.sample(LOWER_JD,
+				UPPER_JD, 200);
+
+		assertEquals(200 * AdaptiveFunctionSampler.SAMPLES_PER_PIXEL + 1,
+				samples.size());
+		assertEquals(LOWER_JD, samples.getXs()[0]);
+		assertEquals(UPPER_JD, samples.getXs()[samples.size() - 1]);
+	}
+
+	public void testSharpPeakRefined() {
+		AdaptiveFunctionSampler sampler = new AdaptiveFunctionSampler(
+				createModelFunction(createPeak()));
+
+		int pixelWidth = 100;
+
+		AdaptiveFunctionSampler.Samples samples = sampler.sample(LOWER_JD,
+				UPPER_JD, pixelWidth);
+
+		assertTrue(samples.size() > pixelWidth + 1);
+		assertTrue(samples.size() <= pixelWidth
+				* AdaptiveFunctionSampler.MAX_SAMPLES_PER_PIXEL);
+
+		// The peak (a minimum in magnitude) must be resolved although it is
+		// narrower than a pixel column.
+		double min = Double.MAX_VALUE;
+		for (double y : samples.getYs()) {
+			min = Math.min(min, y);
+		}
+		assertEquals(5, min, 0.1);
+
+		assertAscending(samples.getXs());
+	}
+
+	public void testRangeRestrictedToFit() {
+		AdaptiveFunctionSampler sampler = new AdaptiveFunctionSampler(
+				createModelFunction(createPeak()));
+
+		AdaptiveFunctionSampler.Samples samples = sampler.sample(
+				LOWER_JD - 1000, LOWER_JD + 10, 50);
+
+		assertEquals(LOWER_JD, samples.getXs()[0]);
+		assertEquals(LOWER_JD + 10, samples.getXs()[samples.size() - 1]);
+
+		samples = sampler.sample(UPPER_JD + 1, UPPER_JD + 2, 50);
+		assertEquals(0, samples.size());
+	}
+
+	public void testPlotModelSamplesVisibleRange() {
+		ContinuousModelFunction function = createModelFunction(createPeak());
+		ContinuousModelPlotModel plotModel = new ContinuousModelPlotModel(
+				function);
+
+		// Before a domain range is set, the function is plotted at the
+		// times of the fit.
+		assertEquals(function.getFit().size(), plotModel.getItemCount(0));
+
+		plotModel.setDomainRange(LOWER_JD + 10, LOWER_JD + 20, 300);
+		int count = plotModel.getItemCount(0);
+		assertTrue(count >= 301);
+		assertEquals(LOWER_JD + 10, plotModel.getX(0, 0).doubleValue());
+		assertEquals(LOWER_JD + 20, plotModel.getX(0, count - 1)
+				.doubleValue());
+
+		plotModel.setDomainRange(LOWER_JD, UPPER_JD, 100);
+		assertFalse(count == plotModel.getItemCount(0));
+
+		// Returning to a previous zoom level.
+		plotModel.setDomainRange(LOWER_JD + 10, LOWER_JD + 20, 300);
+		assertEquals(count, plotModel.getItemCount(0));
+	}
+
+	// Helpers
+
+	// A narrow Gaussian brightening (magnitude minimum) on a flat curve.
+	private UnivariateRealFunction createPeak() {
+		return new UnivariateRealFunction() {
+			@Override
+			public double value(double t) {
+				double d = (t - PEAK_JD) / 0.1;
+				return 10 - 5 * Math.exp(-d * d);
+			}
+		};
+	}
+
+	private ContinuousModelFunction createModelFunction(
+			UnivariateRealFunction function) {
+		double[] times = new double[11];
+		double[] mags = new double[times.length];
+
+		for (int i = 0; i < times.length; i++) {
+			times[i] = LOWER_JD + i * (UPPER_JD - LOWER_JD) / 10;
+			try {
+				mags[i] = function.value(times[i]);
+			} catch (Exception e) {
+				fail();
+			}
+		}
+
+		ModelSeries series = new ModelSeries(times, mags, times,
+				new double[times.length], "");
+
+		return new ContinuousModelFunction(function, series.getFit());
+	}
+
+	private void assertAscending(double[] xs) {
+		for (int i = 1; i < xs.length; i++) {
+			assertTrue(xs[i] > xs[i - 1]);
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.model.plot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.ui.mediator.message.FilteredObservationMessage;
+import org.aavso.tools.vstar.ui.mediator.message.ModelSelectionMessage;
+import org.aavso.tools.vstar.util.comparator.JDComparator;
+import org.aavso.tools.vstar.util.notification.Listener;
+
+/**
+ * ObservationPlotModel unit tests for batch removal, merging and movement of
+ * observations between series. Observations are matched by identity, so
+ * observations that are equal to, but distinct from, those being removed or
+ * moved must stay where they are.
+ */
+public class ObservationPlotModelTest extends TestCase {
+
+	private ValidObservation a, aCopy, b, c, missing;
+
+	private ObservationPlotModel model;
+
+	public ObservationPlotModelTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		a = createOb(2450001, 10.0);
+		aCopy = createOb(2450001, 10.0);
+		b = createOb(2450002, 10.5);
+		c = createOb(2450003, 11.0);
+		missing = createOb(2450002, 10.5);
+
+		// Precondition: duplicates compare equal by value.
+		assertEquals(a, aCopy);
+		assertNotSame(a, aCopy);
+
+		Map<SeriesType, List<ValidObservation>> obsMap = new LinkedHashMap<SeriesType, List<ValidObservation>>();
+		obsMap.put(SeriesType.Visual, list(a, aCopy, b, c));
+		obsMap.put(SeriesType.Excluded, list());
+
+		model = new TestPlotModel(obsMap);
+	}
+
+	// Tests
+
+	public void testRemoveSingleByIdentity() {
+		assertTrue(model.removeObservationFromSeries(aCopy, SeriesType.Visual));
+		assertSeries(SeriesType.Visual, a, b, c);
+
+		assertFalse(model.removeObservationFromSeries(missing,
+				SeriesType.Visual));
+		assertSeries(SeriesType.Visual, a, b, c);
+	}
+
+	public void testBatchRemoveByIdentity() {
+		List<ValidObservation> obList = series(SeriesType.Visual);
+
+		assertTrue(model.removeObservationsFromSeries(list(a, missing, c),
+				SeriesType.Visual));
+
+		// The value-equal copies of a and missing (b) remain, and the list
+		// is compacted in place.
+		assertSeries(SeriesType.Visual, aCopy, b);
+		assertSame(obList, series(SeriesType.Visual));
+	}
+
+	public void testBatchRemoveOfMissingObservations() {
+		assertFalse(model.removeObservationsFromSeries(list(missing),
+				SeriesType.Visual));
+		assertSeries(SeriesType.Visual, a, aCopy, b, c);
+
+		assertFalse(model.removeObservationsFromSeries(list(a),
+				SeriesType.Johnson_V));
+	}
+
+	public void testMerge() {
+		List<ValidObservation> obList = series(SeriesType.Visual);
+
+		ValidObservation first = createOb(2450000, 9.0);
+		ValidObservation last = createOb(2450004, 12.0);
+		ValidObservation bCopy = createOb(2450002, 10.5);
+
+		model.addObservationsToSeries(list(last, bCopy, first),
+				SeriesType.Visual);
+
+		// New observations are sorted into place; an existing observation
+		// precedes a new one that compares equal to it.
+		assertSeries(SeriesType.Visual, first, a, aCopy, b, bCopy, c, last);
+		assertSame(obList, series(SeriesType.Visual));
+	}
+
+	public void testMergeIntoNewSeries() {
+		model.addObservationsToSeries(list(b), SeriesType.Johnson_V);
+		assertSeries(SeriesType.Johnson_V, b);
+	}
+
+	public void testMove() {
+		model.moveObservationsBetweenSeries(SeriesType.Visual,
+				singleTarget(SeriesType.Excluded, a, c));
+
+		assertSeries(SeriesType.Visual, aCopy, b);
+		assertSeries(SeriesType.Excluded, a, c);
+
+		Map<SeriesType, List<ValidObservation>> targets = new HashMap<SeriesType, List<ValidObservation>>();
+		targets.put(SeriesType.Visual, list(c, a));
+		targets.put(SeriesType.Johnson_V, list(missing));
+
+		model.moveObservationsBetweenSeries(SeriesType.Excluded, targets);
+
+		// The returning a follows aCopy, which was already in the series.
+		assertSeries(SeriesType.Excluded);
+		assertSeries(SeriesType.Visual, aCopy, a, b, c);
+
+		// An observation missing from the source series is still added to
+		// its target series, as when observations were moved one at a time.
+		assertSeries(SeriesType.Johnson_V, missing);
+	}
+
+	public void testMoveOfDuplicateLeavesOriginal() {
+		model.moveObservationsBetweenSeries(SeriesType.Visual,
+				singleTarget(SeriesType.Excluded, aCopy));
+
+		assertSeries(SeriesType.Visual, a, b, c);
+		assertSeries(SeriesType.Excluded, aCopy);
+	}
+
+	// Helpers
+
+	private ValidObservation createOb(double jd, double mag) {
+		ValidObservation ob = new ValidObservation();
+		ob.setJD(jd);
+		ob.setMagnitude(new Magnitude(mag, 0.01));
+		ob.setBand(SeriesType.Visual);
+		return ob;
+	}
+
+	private List<ValidObservation> list(ValidObservation... obs) {
+		return new ArrayList<ValidObservation>(Arrays.asList(obs));
+	}
+
+	private Map<SeriesType, List<ValidObservation>> singleTarget(
+			SeriesType type, ValidObservation... obs) {
+		Map<SeriesType, List<ValidObservation>> targets = new HashMap<SeriesType, List<ValidObservation>>();
+		targets.put(type, list(obs));
+		return targets;
+	}
+
+	private List<ValidObservation> series(SeriesType type) {
+		return model.seriesNumToObSrcListMap.get(model.srcTypeToSeriesNumMap
+				.get(type));
+	}
+
+	// Check the series' observations by identity and order.
+	private void assertSeries(SeriesType type, ValidObservation... expected) {
+		List<ValidObservation> actual = series(type);
+		assertEquals(expected.length, actual.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertSame("index " + i, expected[i], actual.get(i));
+		}
+	}
+
+	// A plot model without listeners of its own, independent of any loaded
+	// star.
+	@SuppressWarnings("serial")
+	private static class TestPlotModel extends ObservationPlotModel {
+		public TestPlotModel(Map<SeriesType, List<ValidObservation>> obsMap) {
+			super(obsMap, JDCoordSource.instance, JDComparator.instance, null);
+		}
+
+		@Override
+		public boolean isSeriesVisibleByDefault(SeriesType series) {
+			return true;
+		}
+
+		@Override
+		protected Listener<ModelSelectionMessage> createModelSelectionListener() {
+			return null;
+		}
+
+		@Override
+		protected Listener<FilteredObservationMessage> createFilteredObservationListener() {
+			return null;
+		}
+	}
+}
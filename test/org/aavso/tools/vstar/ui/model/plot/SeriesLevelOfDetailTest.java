@@ -0,0 +1,101 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.model.plot;
+
+import java.util.BitSet;
+
+import junit.framework.TestCase;
+
+/**
+ * Series level-of-detail index test.
+ */
+public class SeriesLevelOfDetailTest extends TestCase {
+
+	private static final int N = 100000;
+
+	private double[] xs;
+	private double[] ys;
+
+	public SeriesLevelOfDetailTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		xs = new double[N];
+		ys = new double[N];
+
+		for (int i = 0; i < N; i++) {
+			xs[i] = 2450000 + i * 0.01;
+			ys[i] = 10 + Math.sin(i * 0.001);
+		}
+
+		// Spikes that must survive decimation.
+		ys[12345] = 2;
+		ys[67890] = 18;
+	}
+
+	public void testSmallSeriesNotDecimated() {
+		SeriesLevelOfDetail lod = new SeriesLevelOfDetail(new double[] { 1, 2,
+				3 }, new double[] { 1, 2, 3 });
+		assertNull(lod.getItemsToDraw(0, 4, 1));
+	}
+
+	public void testFullRangeDecimated() {
+		SeriesLevelOfDetail lod = new SeriesLevelOfDetail(xs, ys);
+
+		BitSet items = lod.getItemsToDraw(xs[0], xs[N - 1], 800);
+
+		assertNotNull(items);
+		assertTrue(items.cardinality() <= 2 * 800 + 4);
+		assertTrue(items.get(12345));
+		assertTrue(items.get(67890));
+		assertTrue(items.get(0));
+		assertTrue(items.get(N - 1));
+	}
+
+	public void testZoomedInFullFidelity() {
+		SeriesLevelOfDetail lod = new SeriesLevelOfDetail(xs, ys);
+
+		// 500 items in range, 800 pixels.
+		assertNull(lod.getItemsToDraw(xs[1000], xs[1499], 800));
+	}
+
+	public void testPartialRangeDecimated() {
+		SeriesLevelOfDetail lod = new SeriesLevelOfDetail(xs, ys);
+
+		BitSet items = lod.getItemsToDraw(xs[10000], xs[20000], 200);
+
+		assertNotNull(items);
+		assertTrue(items.get(12345));
+		assertTrue(items.nextSetBit(0) >= 10000 - 1024);
+		assertTrue(items.length() <= 20000 + 1025);
+	}
+
+	public void testUnorderedNotDecimated() {
+		double[] unordered = xs.clone();
+		unordered[5] = unordered[N - 1] + 1;
+
+		SeriesLevelOfDetail lod = new SeriesLevelOfDetail(unordered, ys);
+
+		assertFalse(lod.isDecimatable());
+		assertNull(lod.getItemsToDraw(xs[0], xs[N - 1], 100));
+	}
+}
@@ -0,0 +1,222 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.pane.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.DateInfo;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.ui.model.list.ITableColumnInfoSource;
+import org.aavso.tools.vstar.ui.model.list.SimpleFormatPhasePlotColumnInfoSource;
+import org.aavso.tools.vstar.ui.model.list.SimpleFormatRawDataColumnInfoSource;
+import org.aavso.tools.vstar.ui.model.list.ValidObservationTableModel;
+
+/**
+ * ValidObservationTableRowSorter unit tests.
+ */
+public class ValidObservationTableRowSorterTest extends TestCase {
+
+	// Simple format raw data columns.
+	private static final int TIME_COLUMN = 0;
+	private static final int MAGNITUDE_COLUMN = 2;
+	private static final int UNCERTAINTY_COLUMN = 3;
+	private static final int OBSERVER_CODE_COLUMN = 4;
+
+	// Simple format phase plot columns.
+	private static final int PHASE_COLUMN = 0;
+
+	// More rows than there are cached Integer instances.
+	private static final int ROWS = 300;
+
+	private List<ValidObservation> obs;
+
+	public ValidObservationTableRowSorterTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		// Observations in random time, magnitude, uncertainty, phase and
+		// observer code order, with some repeated magnitudes.
+		Random random = new Random(42);
+		obs = new ArrayList<ValidObservation>();
+		for (int i = 0; i < ROWS; i++) {
+			ValidObservation ob = new ValidObservation();
+			ob.setDateInfo(new DateInfo(2450000 + random.nextDouble() * 1000));
+			ob.setMagnitude(new Magnitude(10 + random.nextInt(50) / 10.0,
+					random.nextDouble() / 10));
+			ob.setStandardPhase(random.nextDouble());
+			ob.setObsCode("OBS" + (char) ('A' + random.nextInt(26)));
+			ob.setBand(SeriesType.Visual);
+			obs.add(ob);
+		}
+	}
+
+	// Tests
+
+	public void testSortTimeAscending() {
+		ValidObservationTableRowSorter sorter = createSorter(new SimpleFormatRawDataColumnInfoSource());
+
+		sort(sorter, TIME_COLUMN, SortOrder.ASCENDING);
+
+		assertSorted(sorter, TIME_COLUMN, false);
+	}
+
+	public void testSortMagnitudeDescending() {
+		ValidObservationTableRowSorter sorter = createSorter(new SimpleFormatRawDataColumnInfoSource());
+
+		sort(sorter, MAGNITUDE_COLUMN, SortOrder.DESCENDING);
+
+		assertSorted(sorter, MAGNITUDE_COLUMN, true);
+	}
+
+	public void testSortUncertaintyAscending() {
+		ValidObservationTableRowSorter sorter = createSorter(new SimpleFormatRawDataColumnInfoSource());
+
+		sort(sorter, UNCERTAINTY_COLUMN, SortOrder.ASCENDING);
+
+		assertSorted(sorter, UNCERTAINTY_COLUMN, false);
+	}
+
+	public void testSortPhaseAscending() {
+		ValidObservationTableRowSorter sorter = createSorter(new SimpleFormatPhasePlotColumnInfoSource());
+
+		sort(sorter, PHASE_COLUMN, SortOrder.ASCENDING);
+
+		assertSorted(sorter, PHASE_COLUMN, false);
+
+		// The phase plot time column follows the phase column.
+		sort(sorter, TIME_COLUMN + 1, SortOrder.ASCENDING);
+
+		assertSorted(sorter, TIME_COLUMN + 1, false);
+	}
+
+	public void testSortNonNumericColumn() {
+		ValidObservationTableRowSorter sorter = createSorter(new SimpleFormatRawDataColumnInfoSource());
+
+		sort(sorter, OBSERVER_CODE_COLUMN, SortOrder.ASCENDING);
+
+		ValidObservationTableModel model = sorter.getModel();
+		for (int i = 1; i < sorter.getViewRowCount(); i++) {
+			String prev = (String) model.getValueAt(sorter
+					.convertRowIndexToModel(i - 1), OBSERVER_CODE_COLUMN);
+			String curr = (String) model.getValueAt(sorter
+					.convertRowIndexToModel(i), OBSERVER_CODE_COLUMN);
+			assertTrue(prev.compareTo(curr) <= 0);
+		}
+	}
+
+	public void testSortAfterDataChange() {
+		ValidObservationTableRowSorter sorter = createSorter(new SimpleFormatRawDataColumnInfoSource());
+
+		sort(sorter, TIME_COLUMN, SortOrder.ASCENDING);
+
+		// Reverse each observation's time; the new keys must be used.
+		for (ValidObservation ob : obs) {
+			ob.setDateInfo(new DateInfo(2460000 - ob.getJD()));
+		}
+		sorter.getModel().fireTableDataChanged();
+
+		// As a JTable would, on receiving the table changed event.
+		sorter.allRowsChanged();
+
+		assertEquals(ROWS, sorter.getViewRowCount());
+		assertSorted(sorter, TIME_COLUMN, false);
+	}
+
+	public void testNumericColumns() {
+		ITableColumnInfoSource rawSource = new SimpleFormatRawDataColumnInfoSource();
+		ITableColumnInfoSource phaseSource = new SimpleFormatPhasePlotColumnInfoSource();
+
+		ValidObservation ob = obs.get(0);
+
+		for (int i = 0; i < rawSource.getColumnCount(); i++) {
+			boolean numeric = i == TIME_COLUMN || i == MAGNITUDE_COLUMN
+					|| i == UNCERTAINTY_COLUMN;
+			assertEquals(numeric, rawSource.isNumericColumn(i));
+			assertEquals(numeric, phaseSource.isNumericColumn(i + 1));
+		}
+
+		assertTrue(phaseSource.isNumericColumn(PHASE_COLUMN));
+
+		assertEquals(ob.getJD(), rawSource.getTableColumnNumericValue(
+				TIME_COLUMN, ob));
+		assertEquals(ob.getMag(), rawSource.getTableColumnNumericValue(
+				MAGNITUDE_COLUMN, ob));
+		assertEquals(ob.getMagnitude().getUncertainty(), rawSource
+				.getTableColumnNumericValue(UNCERTAINTY_COLUMN, ob));
+		assertTrue(Double.isNaN(rawSource.getTableColumnNumericValue(
+				OBSERVER_CODE_COLUMN, ob)));
+
+		assertEquals(ob.getStandardPhase(), phaseSource
+				.getTableColumnNumericValue(PHASE_COLUMN, ob));
+		assertEquals(ob.getMag(), phaseSource.getTableColumnNumericValue(
+				MAGNITUDE_COLUMN + 1, ob));
+	}
+
+	// Helpers
+
+	private ValidObservationTableRowSorter createSorter(
+			ITableColumnInfoSource columnInfoSource) {
+		Map<SeriesType, List<ValidObservation>> obsMap = new HashMap<SeriesType, List<ValidObservation>>();
+		obsMap.put(SeriesType.Visual, obs);
+
+		ValidObservationTableModel model = new ValidObservationTableModel(
+				obsMap, obs, columnInfoSource);
+
+		return new ValidObservationTableRowSorter(model);
+	}
+
+	private void sort(ValidObservationTableRowSorter sorter, int column,
+			SortOrder order) {
+		sorter.setSortKeys(Collections.singletonList(new RowSorter.SortKey(
+				column, order)));
+	}
+
+	private void assertSorted(ValidObservationTableRowSorter sorter,
+			int column, boolean descending) {
+		ValidObservationTableModel model = sorter.getModel();
+		double[] keys = model.getNumericColumnKeys(column);
+
+		assertEquals(ROWS, keys.length);
+
+		for (int i = 1; i < sorter.getViewRowCount(); i++) {
+			double prev = keys[sorter.convertRowIndexToModel(i - 1)];
+			double curr = keys[sorter.convertRowIndexToModel(i)];
+			if (descending) {
+				assertTrue(prev >= curr);
+			} else {
+				assertTrue(prev <= curr);
+			}
+		}
+	}
+}
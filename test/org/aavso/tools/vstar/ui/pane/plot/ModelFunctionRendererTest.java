@@ -0,0 +1,123 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.aavso.tools.vstar.ui.pane.plot;
+
+import java.awt.geom.Rectangle2D;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.ui.model.plot.ContinuousModelFunction;
+import org.aavso.tools.vstar.ui.model.plot.ContinuousModelPlotModel;
+import org.aavso.tools.vstar.util.model.ModelSeries;
+import org.apache.commons.math.analysis.UnivariateRealFunction;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.XYPlot;
+
+/**
+ * Model function renderer test: the function is sampled over the visible
+ * domain range when rendering begins.
+ */
+public class ModelFunctionRendererTest extends TestCase {
+
+	private static final double LOWER_JD = 2450000;
+	private static final double UPPER_JD = 2450100;
+
+	private ContinuousModelPlotModel dataset;
+	private NumberAxis domainAxis;
+	private XYPlot plot;
+	private ModelFunctionRenderer renderer;
+
+	public ModelFunctionRendererTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		dataset = new ContinuousModelPlotModel(createModelFunction());
+		domainAxis = new NumberAxis();
+		domainAxis.setAutoRange(false);
+		renderer = new ModelFunctionRenderer();
+		plot = new XYPlot(dataset, domainAxis, new NumberAxis(), renderer);
+	}
+
+	public void testSampleDensityFollowsDomainRange() {
+		// The whole fit, 100 days over 100 pixels.
+		domainAxis.setRange(LOWER_JD, UPPER_JD);
+		render(100);
+		double wideDensity = density();
+		assertEquals(LOWER_JD, dataset.getX(0, 0).doubleValue());
+		assertEquals(UPPER_JD, lastX());
+
+		// Zoomed in to 10 days over the same 100 pixels.
+		domainAxis.setRange(LOWER_JD + 40, LOWER_JD + 50);
+		render(100);
+		double narrowDensity = density();
+		assertEquals(LOWER_JD + 40, dataset.getX(0, 0).doubleValue());
+		assertEquals(LOWER_JD + 50, lastX());
+
+		assertEquals(10, narrowDensity / wideDensity, 1e-6);
+
+		// The same range over twice the width.
+		render(200);
+		assertEquals(2, density() / narrowDensity, 0.02);
+	}
+
+	public void testFitTimesBeforeRendering() {
+		assertEquals(11, dataset.getItemCount(0));
+	}
+
+	// Helpers
+
+	private void render(int pixelWidth) {
+		renderer.initialise(null, new Rectangle2D.Double(0, 0, pixelWidth,
+				100), plot, dataset, null);
+	}
+
+	// Samples per day.
+	private double density() {
+		return dataset.getItemCount(0)
+				/ (lastX() - dataset.getX(0, 0).doubleValue());
+	}
+
+	private double lastX() {
+		return dataset.getX(0, dataset.getItemCount(0) - 1).doubleValue();
+	}
+
+	// A linear function, which is never refined between pixel columns.
+	private ContinuousModelFunction createModelFunction() {
+		UnivariateRealFunction function = new UnivariateRealFunction() {
+			@Override
+			public double value(double t) {
+				return 10 + 0.01 * (t - LOWER_JD);
+			}
+		};
+
+		double[] times = new double[11];
+		double[] mags = new double[times.length];
+
+		for (int i = 0; i < times.length; i++) {
+			times[i] = LOWER_JD + i * (UPPER_JD - LOWER_JD) / 10;
+			mags[i] = 10 + 0.01 * (times[i] - LOWER_JD);
+		}
+
+		ModelSeries series = new ModelSeries(times, mags, times,
+				new double[times.length], "");
+
+		return new ContinuousModelFunction(function, series.getFit());
+	}
+}
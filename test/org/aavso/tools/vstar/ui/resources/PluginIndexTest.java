@@ -0,0 +1,173 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.resources;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.plugin.InputType;
+import org.aavso.tools.vstar.plugin.ObservationSourcePluginBase;
+import org.aavso.tools.vstar.plugin.period.PeriodAnalysisPluginBase;
+
+/**
+ * Tests for the on-disk plug-in metadata index.
+ */
+public class PluginIndexTest extends TestCase {
+
+	private File dir;
+	private File indexFile;
+	private File jar1;
+	private File jar2;
+
+	public PluginIndexTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		dir = Files.createTempDirectory("vstar_plugin_index_test").toFile();
+		indexFile = new File(dir, "index");
+		jar1 = createJar("org.example.Source.jar", 10);
+		jar2 = createJar("org.example.Period.jar", 20);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+		dir.delete();
+		super.tearDown();
+	}
+
+	public void testEntriesPersisted() throws Exception {
+		PluginIndex index = new PluginIndex(indexFile);
+		index.load();
+		index.put(jar1, sourceEntry());
+		index.put(jar2, periodEntry());
+		index.store();
+
+		index = new PluginIndex(indexFile);
+		index.load();
+
+		PluginIndex.Entry entry = index.get(jar1);
+		assertNotNull(entry);
+		assertEquals("org.example.Source", entry.getClassName());
+		assertEquals(ObservationSourcePluginBase.class.getName(),
+				entry.getKind());
+		assertEquals("Example Source", entry.getDisplayName());
+		assertEquals("An example source", entry.getDescription());
+		assertEquals("Examples", entry.getGroup());
+		assertEquals(InputType.FILE_OR_URL, entry.getInputType());
+
+		entry = index.get(jar2);
+		assertNotNull(entry);
+		assertEquals("org.example.Period", entry.getClassName());
+		assertNull(entry.getGroup());
+		assertNull(entry.getInputType());
+	}
+
+	public void testChangedJarNotReturned() throws Exception {
+		PluginIndex index = new PluginIndex(indexFile);
+		index.load();
+		index.put(jar1, sourceEntry());
+		index.store();
+
+		// A replaced jar with a different size.
+		jar1 = createJar(jar1.getName(), 11);
+
+		index = new PluginIndex(indexFile);
+		index.load();
+
+		assertNull(index.get(jar1));
+	}
+
+	public void testUnknownJarNotReturned() throws Exception {
+		PluginIndex index = new PluginIndex(indexFile);
+		index.load();
+
+		assertNull(index.get(jar1));
+	}
+
+	public void testRetainAll() throws Exception {
+		PluginIndex index = new PluginIndex(indexFile);
+		index.load();
+		index.put(jar1, sourceEntry());
+		index.put(jar2, periodEntry());
+		index.retainAll(Collections.singletonList(jar2));
+		index.store();
+
+		index = new PluginIndex(indexFile);
+		index.load();
+
+		assertNull(index.get(jar1));
+		assertNotNull(index.get(jar2));
+	}
+
+	public void testUnchangedIndexNotWritten() throws Exception {
+		PluginIndex index = new PluginIndex(indexFile);
+		index.load();
+		index.retainAll(Arrays.asList(jar1, jar2));
+		index.store();
+
+		assertFalse(indexFile.exists());
+	}
+
+	public void testCorruptIndexIsEmpty() throws Exception {
+		OutputStream out = new FileOutputStream(indexFile);
+		out.write("index.version=0\norg.example.Source.jar.size=10\n"
+				.getBytes());
+		out.close();
+
+		PluginIndex index = new PluginIndex(indexFile);
+		index.load();
+
+		assertNull(index.get(jar1));
+	}
+
+	// Helpers
+
+	private File createJar(String name, int size) throws IOException {
+		File file = new File(dir, name);
+		OutputStream out = new FileOutputStream(file);
+		out.write(new byte[size]);
+		out.close();
+		return file;
+	}
+
+	private PluginIndex.Entry sourceEntry() {
+		return new PluginIndex.Entry("org.example.Source",
+				ObservationSourcePluginBase.class.getName(), "Example Source",
+				"An example source", "Examples", InputType.FILE_OR_URL);
+	}
+
+	private PluginIndex.Entry periodEntry() {
+		return new PluginIndex.Entry("org.example.Period",
+				PeriodAnalysisPluginBase.class.getName(), "Example Period",
+				"An example period analysis", null, null);
+	}
+}
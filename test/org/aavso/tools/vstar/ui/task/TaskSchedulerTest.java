@@ -0,0 +1,398 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.ui.task;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.ui.mediator.message.ProgressInfo;
+import org.aavso.tools.vstar.ui.mediator.message.ProgressType;
+import org.aavso.tools.vstar.util.IInteruptible;
+import org.aavso.tools.vstar.util.notification.Notifier;
+
+/**
+ * TaskScheduler unit tests.
+ */
+public class TaskSchedulerTest extends TestCase {
+
+	public TaskSchedulerTest(String name) {
+		super(name);
+	}
+
+	// Tests
+
+	public void testPriorityOrder() throws Exception {
+		TaskScheduler scheduler = new TaskScheduler(1);
+
+		CountDownLatch release = new CountDownLatch(1);
+		ScheduledTask blocker = scheduler.submit("blocker",
+				TaskPriority.INTERACTIVE, await(release));
+
+		List<String> order = new CopyOnWriteArrayList<String>();
+		scheduler.submit("batch", TaskPriority.BATCH, record(order, "batch"));
+		scheduler.submit("interactive 1", TaskPriority.INTERACTIVE, record(
+				order, "interactive 1"));
+		scheduler.submit("interactive 2", TaskPriority.INTERACTIVE, record(
+				order, "interactive 2"));
+
+		assertEquals(4, scheduler.getTasks().size());
+
+		release.countDown();
+		scheduler.waitForCompletion();
+
+		assertEquals(ScheduledTask.State.DONE, blocker.getState());
+		assertEquals("interactive 1", order.get(0));
+		assertEquals("interactive 2", order.get(1));
+		assertEquals("batch", order.get(2));
+		assertFalse(scheduler.hasActiveTasks());
+	}
+
+	public void testConcurrentTasks() throws Exception {
+		TaskScheduler scheduler = new TaskScheduler(2);
+
+		// Each task waits for the other, so both must run at once.
+		final CyclicBarrier barrier = new CyclicBarrier(2);
+		Callable<Void> meet = new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				barrier.await(10, TimeUnit.SECONDS);
+				return null;
+			}
+		};
+
+		FutureTask<Void> first = new FutureTask<Void>(meet);
+		FutureTask<Void> second = new FutureTask<Void>(meet);
+
+		scheduler.submit("first", TaskPriority.BATCH, first);
+		scheduler.submit("second", TaskPriority.INTERACTIVE, second);
+
+		first.get(20, TimeUnit.SECONDS);
+		second.get(20, TimeUnit.SECONDS);
+	}
+
+	public void testCancelQueuedTask() throws Exception {
+		TaskScheduler scheduler = new TaskScheduler(1);
+
+		CountDownLatch release = new CountDownLatch(1);
+		scheduler.submit("blocker", TaskPriority.INTERACTIVE, await(release));
+
+		List<String> order = new CopyOnWriteArrayList<String>();
+		ScheduledTask queued = scheduler.submit("queued",
+				TaskPriority.INTERACTIVE, record(order, "queued"));
+
+		queued.cancel();
+
+		assertEquals(ScheduledTask.State.CANCELLED, queued.getState());
+		assertEquals(1, scheduler.getTasks().size());
+
+		release.countDown();
+		scheduler.waitForCompletion();
+
+		assertTrue(order.isEmpty());
+	}
+
+	public void testCancelRunningTaskInterruptsAlgorithm() throws Exception {
+		TaskScheduler scheduler = new TaskScheduler(2);
+
+		final Algorithm algorithm = new Algorithm();
+		final CountDownLatch started = new CountDownLatch(1);
+
+		FutureTask<Void> work = new FutureTask<Void>(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				started.countDown();
+				algorithm.execute();
+				return null;
+			}
+		});
+
+		ScheduledTask task = scheduler.submit("algorithm",
+				TaskPriority.BATCH, work, algorithm);
+
+		Algorithm other = new Algorithm();
+		ScheduledTask otherTask = scheduler.submit("other",
+				TaskPriority.BATCH, new FutureTask<Void>(other, null), other);
+
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		task.cancel();
+
+		assertTrue(algorithm.interrupted);
+		assertTrue(task.getToken().isCancelled());
+		assertFalse(other.interrupted);
+
+		otherTask.cancel();
+		scheduler.waitForCompletion();
+
+		assertEquals(ScheduledTask.State.CANCELLED, task.getState());
+		assertFalse(scheduler.hasActiveTasks());
+	}
+
+	public void testProgress() throws Exception {
+		TaskScheduler scheduler = new TaskScheduler(2);
+
+		final Notifier<ProgressInfo> notifier = new Notifier<ProgressInfo>();
+		notifier.addListener(scheduler.createProgressListener());
+
+		final CountDownLatch reported = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		FutureTask<Void> work = new FutureTask<Void>(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				notifier.notifyListeners(new ProgressInfo(
+						ProgressType.MAX_PROGRESS, 8));
+				notifier.notifyListeners(ProgressInfo.START_PROGRESS);
+				notifier.notifyListeners(new ProgressInfo(
+						ProgressType.INCREMENT_PROGRESS, 2));
+				reported.countDown();
+				release.await();
+				return null;
+			}
+		});
+
+		ScheduledTask task = scheduler.submit("progress",
+				TaskPriority.INTERACTIVE, work);
+
+		// Progress sent from other threads is not attributed to the task.
+		notifier.notifyListeners(ProgressInfo.COMPLETE_PROGRESS);
+
+		assertTrue(reported.await(10, TimeUnit.SECONDS));
+
+		assertEquals(2, task.getProgress());
+		assertEquals(8, task.getProgressRange());
+		assertEquals(25, scheduler.getProgressPercentage());
+
+		release.countDown();
+		scheduler.waitForCompletion();
+
+		assertEquals(-1, scheduler.getProgressPercentage());
+	}
+
+	public void testSubtaskDoesNotOccupyWorker() throws Exception {
+		final TaskScheduler scheduler = new TaskScheduler(1);
+
+		// The only worker waits on a subtask, as new star artefact creation
+		// does, which must therefore run on another thread.
+		FutureTask<String> task = new FutureTask<String>(
+				new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						return scheduler.getSubtaskExecutor().submit(
+								new Callable<String>() {
+									@Override
+									public String call() {
+										return Thread.currentThread()
+												.getName();
+									}
+								}).get(10, TimeUnit.SECONDS);
+					}
+				});
+
+		scheduler.submit("task", TaskPriority.INTERACTIVE, task);
+
+		assertEquals("VStar subtask", task.get(20, TimeUnit.SECONDS));
+
+		scheduler.shutdown();
+		assertTrue(scheduler.awaitTermination(10000));
+	}
+
+	public void testExclusiveTask() throws Exception {
+		TaskScheduler scheduler = new TaskScheduler(3);
+
+		final List<String> order = new CopyOnWriteArrayList<String>();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		FutureTask<Void> analysis = new FutureTask<Void>(
+				new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						started.countDown();
+						release.await();
+						order.add("analysis");
+						return null;
+					}
+				});
+
+		scheduler.submit("analysis", TaskPriority.BATCH, analysis);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		// The load waits for the analysis, and the fit for the load, although
+		// there are idle workers.
+		ScheduledTask load = scheduler.submitExclusive("load",
+				TaskPriority.INTERACTIVE, record(order, "load"));
+		scheduler.submit("fit", TaskPriority.INTERACTIVE, record(order,
+				"fit"));
+
+		Thread.sleep(200);
+
+		assertTrue(load.isExclusive());
+		assertEquals(ScheduledTask.State.QUEUED, load.getState());
+		assertTrue(order.isEmpty());
+		assertEquals(3, scheduler.getActiveTaskCount());
+		assertEquals(1, scheduler.getActiveExclusiveTaskCount());
+
+		release.countDown();
+		scheduler.waitForCompletion();
+
+		assertEquals(3, order.size());
+		assertEquals("analysis", order.get(0));
+		assertEquals("load", order.get(1));
+		assertEquals("fit", order.get(2));
+		assertEquals(0, scheduler.getActiveTaskCount());
+		assertEquals(0, scheduler.getActiveExclusiveTaskCount());
+	}
+
+	public void testCancelTaskWaitingForExclusion() throws Exception {
+		TaskScheduler scheduler = new TaskScheduler(2);
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		FutureTask<Void> analysis = new FutureTask<Void>(
+				new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						started.countDown();
+						release.await();
+						return null;
+					}
+				});
+
+		scheduler.submit("analysis", TaskPriority.BATCH, analysis);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		List<String> order = new CopyOnWriteArrayList<String>();
+		ScheduledTask load = scheduler.submitExclusive("load",
+				TaskPriority.INTERACTIVE, record(order, "load"));
+		FutureTask<Void> fit = record(order, "fit");
+		scheduler.submit("fit", TaskPriority.INTERACTIVE, fit);
+
+		assertEquals(1, scheduler.getActiveExclusiveTaskCount());
+
+		load.cancel();
+
+		assertEquals(ScheduledTask.State.CANCELLED, load.getState());
+		assertEquals(0, scheduler.getActiveExclusiveTaskCount());
+
+		// The fit no longer waits for the load, so runs alongside the
+		// analysis.
+		fit.get(10, TimeUnit.SECONDS);
+		assertEquals(1, order.size());
+		assertEquals("fit", order.get(0));
+
+		release.countDown();
+		scheduler.waitForCompletion();
+
+		assertFalse(scheduler.hasActiveTasks());
+	}
+
+	public void testShutdown() throws Exception {
+		TaskScheduler scheduler = new TaskScheduler(1);
+
+		final Algorithm algorithm = new Algorithm();
+		final CountDownLatch started = new CountDownLatch(1);
+		FutureTask<Void> running = new FutureTask<Void>(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				started.countDown();
+				algorithm.execute();
+				return null;
+			}
+		});
+
+		ScheduledTask task = scheduler.submit("running",
+				TaskPriority.INTERACTIVE, running, algorithm);
+		scheduler.getSubtaskExecutor();
+
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		scheduler.shutdown();
+
+		assertTrue(scheduler.isShutdown());
+		assertTrue(scheduler.awaitTermination(10000));
+		assertTrue(scheduler.getSubtaskExecutor().isTerminated());
+		assertTrue(algorithm.interrupted);
+		assertTrue(task.getToken().isCancelled());
+		assertFalse(scheduler.hasActiveTasks());
+
+		// Work submitted after shutdown is cancelled without being run.
+		List<String> order = new CopyOnWriteArrayList<String>();
+		ScheduledTask late = scheduler.submit("late",
+				TaskPriority.INTERACTIVE, record(order, "late"));
+
+		assertEquals(ScheduledTask.State.CANCELLED, late.getState());
+		assertFalse(scheduler.hasActiveTasks());
+		assertTrue(order.isEmpty());
+	}
+
+	// Helpers
+
+	private FutureTask<Void> await(final CountDownLatch latch) {
+		return new FutureTask<Void>(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				latch.await();
+				return null;
+			}
+		});
+	}
+
+	private FutureTask<Void> record(final List<String> order,
+			final String name) {
+		return new FutureTask<Void>(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				order.add(name);
+				return null;
+			}
+		});
+	}
+
+	// An algorithm that runs until interrupted.
+	private static class Algorithm implements IInteruptible, Runnable {
+		volatile boolean interrupted;
+
+		public void execute() throws InterruptedException {
+			while (!interrupted) {
+				Thread.sleep(1);
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				execute();
+			} catch (InterruptedException e) {
+			}
+		}
+
+		@Override
+		public void interrupt() {
+			interrupted = true;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+/**
+ * DigestUtils unit tests.
+ */
+public class DigestUtilsTest extends TestCase {
+
+	// FIPS 180 test vectors.
+	private static final String EMPTY_SHA1 = "da39a3ee5e6b4b0d3255bfef95601890afd80709";
+	private static final String ABC_SHA1 = "a9993e364706816aba3e25717850c26c9cd0d89d";
+
+	public DigestUtilsTest(String name) {
+		super(name);
+	}
+
+	public void testStringDigest() {
+		assertEquals(EMPTY_SHA1, DigestUtils.sha1Hex(""));
+		assertEquals(ABC_SHA1, DigestUtils.sha1Hex("abc"));
+	}
+
+	public void testStreamDigest() throws IOException {
+		assertEquals(ABC_SHA1, DigestUtils.sha1Hex(new ByteArrayInputStream(
+				"abc".getBytes(StandardCharsets.UTF_8))));
+
+		// Content spanning several buffers digests as a whole.
+		StringBuffer buf = new StringBuffer();
+		for (int i = 0; i < 10000; i++) {
+			buf.append(i);
+		}
+		String str = buf.toString();
+
+		assertEquals(DigestUtils.sha1Hex(str), DigestUtils
+				.sha1Hex(new ByteArrayInputStream(str
+						.getBytes(StandardCharsets.UTF_8))));
+	}
+}
@@ -0,0 +1,243 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.date;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.util.coords.DecInfo;
+import org.aavso.tools.vstar.util.coords.EpochType;
+import org.aavso.tools.vstar.util.coords.RAInfo;
+
+/**
+ * BJDConverter, TimeScales and BarycentricEphemeris unit tests.
+ */
+public class BJDConverterTest extends TestCase {
+
+	// About 1 millisecond.
+	private static final double DELTA = 1e-8;
+
+	// About 5 milliseconds of light travel time.
+	private static final double AU_DELTA = 1e-5;
+
+	// About 5 milliseconds.
+	private static final double SOFA_DELTA = 6e-8;
+
+	private static final RAInfo RA_J2000 = new RAInfo(EpochType.J2000, 5, 55,
+			10.3);
+	private static final DecInfo DEC_J2000 = new DecInfo(EpochType.J2000, 7,
+			24, 25.4);
+
+	private BJDConverter converter;
+
+	public BJDConverterTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		converter = new BJDConverter();
+	}
+
+	// Leap seconds and TT-UTC.
+
+	public void testTTMinusUTCBeforeLeapSecond() {
+		assertEquals(68.184, TimeScales.ttMinusUTC(2457754.4999), 1e-9);
+	}
+
+	public void testTTMinusUTCAfterLeapSecond() {
+		assertEquals(69.184, TimeScales.ttMinusUTC(2457754.5), 1e-9);
+		assertEquals(69.184, TimeScales.ttMinusUTC(2460000.5), 1e-9);
+	}
+
+	public void testTTMinusUTCJ2000() {
+		assertEquals(64.184, TimeScales.ttMinusUTC(2451545.0), 1e-9);
+	}
+
+	public void testTTMinusUTCFirstLeapSecond() {
+		assertEquals(42.184, TimeScales.ttMinusUTC(2441317.5), 1e-9);
+	}
+
+	public void testTTMinusUTCRubberSeconds() {
+		// 1965 Jan 1: TAI-UTC = 3.5401300 s + (MJD - 38761) x 0.001296 s
+		assertEquals(3.5401300 + 32.184, TimeScales.ttMinusUTC(2438761.5),
+				1e-9);
+	}
+
+	public void testTTMinusUTCDeltaT() {
+		// Delta T was about -3 seconds at the start of the 20th century.
+		assertEquals(-2.79, TimeScales.ttMinusUTC(2415020.5), 0.1);
+	}
+
+	public void testTDBMinusTT() {
+		for (double jd = 2415020.5; jd < 2470000; jd += 17.3) {
+			assertTrue(Math.abs(TimeScales.tdbMinusTT(jd)) < 0.0017);
+		}
+	}
+
+	// Ephemeris.
+
+	public void testEarthHeliocentricEclipticMeeus() {
+		// Meeus, Example 25.b: 1992 Oct 13.0 TD
+		double[] lbr = BarycentricEphemeris
+				.earthHeliocentricEcliptic(2448908.5);
+
+		double L = Math.toDegrees(lbr[0]) % 360;
+		if (L < 0) {
+			L += 360;
+		}
+
+		assertEquals(19.907372, L, 1e-6);
+		assertEquals(-0.644, Math.toDegrees(lbr[1]) * 3600, 1e-3);
+		assertEquals(0.99760775, lbr[2], 1e-8);
+	}
+
+	public void testPrecessionMeeus() {
+		// Meeus, Example 21.b: theta Persei from J2000.0 to 2028 Nov 13.19 TD
+		double ra = Math.toRadians(41.054063);
+		double dec = Math.toRadians(49.227750);
+
+		double[] v = BarycentricEphemeris.precess(new double[] {
+				Math.cos(dec) * Math.cos(ra), Math.cos(dec) * Math.sin(ra),
+				Math.sin(dec) }, BarycentricEphemeris.J2000, 2462088.69);
+
+		assertEquals(41.547214, Math.toDegrees(Math.atan2(v[1], v[0])), 1e-6);
+		assertEquals(49.348483, Math.toDegrees(Math.asin(v[2])), 1e-6);
+	}
+
+	public void testSunBarycentricJ2000() {
+		// The Sun's position relative to the SSB at J2000.0 from JPL DE405.
+		double[] sun = BarycentricEphemeris
+				.sunBarycentric(BarycentricEphemeris.J2000);
+
+		assertEquals(-0.0071372, sun[0], AU_DELTA);
+		assertEquals(-0.0026456, sun[1], AU_DELTA);
+		assertEquals(-0.0009214, sun[2], AU_DELTA);
+	}
+
+	public void testSunBarycentricBound() {
+		// The Sun is never more than about 2.2 solar radii from the SSB.
+		for (double jd = 2378496.5; jd < 2469807.5; jd += 55.5) {
+			double[] sun = BarycentricEphemeris.sunBarycentric(jd);
+
+			double r = Math.sqrt(sun[0] * sun[0] + sun[1] * sun[1] + sun[2]
+					* sun[2]);
+
+			assertTrue(r < 0.0105);
+		}
+	}
+
+	// Conversion.
+
+	public void testConvertAddsTimeOffset() {
+		for (double jd = 2440000.5; jd < 2460000; jd += 987.6) {
+			double[] v = converter.correctionVector(jd);
+			double[] u = converter.targetVector(RA_J2000, DEC_J2000);
+
+			double expected = jd
+					+ (TimeScales.ttMinusUTC(jd) + TimeScales.tdbMinusTT(jd))
+					/ TimeScales.SECONDS_PER_DAY + u[0] * v[0] + u[1] * v[1]
+					+ u[2] * v[2];
+
+			assertEquals(expected, converter.convert(jd, RA_J2000, DEC_J2000),
+					DELTA);
+		}
+	}
+
+	public void testB1950Target() {
+		// The same target specified by B1950.0 coordinates.
+		double[] u = converter.targetVector(RA_J2000, DEC_J2000);
+		double[] v = BarycentricEphemeris.precess(u,
+				BarycentricEphemeris.J2000, BarycentricEphemeris.B1950);
+
+		RAInfo ra = new RAInfo(EpochType.B1950, Math.toDegrees(Math.atan2(
+				v[1], v[0])));
+		DecInfo dec = new DecInfo(EpochType.B1950, Math.toDegrees(Math
+				.asin(v[2])));
+
+		double jd = 2457000.5;
+
+		assertEquals(converter.convert(jd, RA_J2000, DEC_J2000), converter
+				.convert(jd, ra, dec), DELTA);
+	}
+
+	public void testBatchAcrossLeapSecond() {
+		// Many observations per night over a season containing a leap second.
+		double[] jds = createJDs(2457700.5, 150, 20000);
+
+		double[] bjds = new double[jds.length];
+		BatchHJDConverter.getBarycentricInstance().convert(jds, bjds,
+				RA_J2000, DEC_J2000);
+
+		for (int i = 0; i < jds.length; i++) {
+			assertEquals(converter.convert(jds[i], RA_J2000, DEC_J2000),
+					bjds[i], DELTA);
+		}
+	}
+
+	public void testSOFAReference() {
+		// End-to-end check against the IAU SOFA library's epv00 test case:
+		// the Earth's barycentric position in the ICRS at TDB 2453412.02501161
+		// (2005 Feb 10), from t_sofa_c.c. At that date TT-UTC is 64.184 s and
+		// TDB-TT about +1 ms, so the observation's UTC JD is TDB - 64.185 s.
+		//
+		// For each target direction n, BJD_TDB = TDB + (r . n) / c where c is
+		// 173.144632674240 AU/day. The agreement is within about 5 ms, the
+		// accuracy of the Sun's barycentric position from the Keplerian
+		// elements of Jupiter and Saturn; the residual is largest along x at
+		// this date.
+		double tdb = 2453412.02501161;
+		double[] r = { -0.7714104440491111971, 0.5598412061824171323,
+				0.2425996277722452400 };
+
+		double jd = tdb - 64.185 / TimeScales.SECONDS_PER_DAY;
+
+		double[][] targets = { { 0, 0 }, { 90, 0 }, { 0, 90 }, { 180, -45 },
+				{ 300, 30 } };
+
+		for (double[] target : targets) {
+			RAInfo ra = new RAInfo(EpochType.J2000, target[0]);
+			DecInfo dec = new DecInfo(EpochType.J2000, target[1]);
+
+			double alpha = Math.toRadians(target[0]);
+			double delta = Math.toRadians(target[1]);
+
+			double expected = tdb
+					+ (r[0] * Math.cos(delta) * Math.cos(alpha) + r[1]
+							* Math.cos(delta) * Math.sin(alpha) + r[2]
+							* Math.sin(delta)) / 173.144632674240;
+
+			assertEquals(expected, converter.convert(jd, ra, dec), SOFA_DELTA);
+		}
+	}
+
+	// Helpers
+
+	private double[] createJDs(double start, double days, int count) {
+		Random random = new Random(42);
+
+		double[] jds = new double[count];
+		for (int i = 0; i < count; i++) {
+			jds[i] = start + random.nextDouble() * days;
+		}
+
+		return jds;
+	}
+}
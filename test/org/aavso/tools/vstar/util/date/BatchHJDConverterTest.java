@@ -0,0 +1,142 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.date;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.util.coords.DecInfo;
+import org.aavso.tools.vstar.util.coords.EpochType;
+import org.aavso.tools.vstar.util.coords.RAInfo;
+
+/**
+ * BatchHJDConverter unit tests: batch conversions must agree with the
+ * per-point converters.
+ */
+public class BatchHJDConverterTest extends TestCase {
+
+	// About 1 millisecond.
+	private static final double DELTA = 1e-8;
+
+	private static final RAInfo RA_J2000 = new RAInfo(EpochType.J2000, 5, 55,
+			10.3);
+	private static final DecInfo DEC_J2000 = new DecInfo(EpochType.J2000, 7,
+			24, 25.4);
+
+	private static final RAInfo RA_B1950 = new RAInfo(EpochType.B1950, 19,
+			48, 30.1);
+	private static final DecInfo DEC_B1950 = new DecInfo(EpochType.B1950, -29,
+			16, 2.0);
+
+	public BatchHJDConverterTest(String name) {
+		super(name);
+	}
+
+	public void testCorrectionVectorJ2000() {
+		checkCorrectionVector(EpochType.J2000, RA_J2000, DEC_J2000);
+	}
+
+	public void testCorrectionVectorB1950() {
+		checkCorrectionVector(EpochType.B1950, RA_B1950, DEC_B1950);
+	}
+
+	public void testDenseJ2000() {
+		// Many observations per night over a season.
+		checkBatch(EpochType.J2000, RA_J2000, DEC_J2000,
+				createJDs(2457000.5, 150, 20000), BatchHJDConverter
+						.getInstance(EpochType.J2000));
+	}
+
+	public void testDenseB1950() {
+		checkBatch(EpochType.B1950, RA_B1950, DEC_B1950,
+				createJDs(2440000.5, 150, 20000), BatchHJDConverter
+						.getInstance(EpochType.B1950));
+	}
+
+	public void testSparseJ2000() {
+		// Few observations spread over a century.
+		checkBatch(EpochType.J2000, RA_J2000, DEC_J2000,
+				createJDs(2420000.5, 36525, 500), BatchHJDConverter
+						.getInstance(EpochType.J2000));
+	}
+
+	public void testCoarseStep() {
+		BatchHJDConverter converter = new BatchHJDConverter(
+				AbstractHJDConverter.getInstance(EpochType.J2000), 4);
+
+		assertEquals(4.0, converter.getStep());
+
+		checkBatch(EpochType.J2000, RA_J2000, DEC_J2000,
+				createJDs(2455000.5, 400, 20000), converter);
+	}
+
+	public void testSingleJD() {
+		double jd = 2448908.5;
+
+		assertEquals(AbstractHJDConverter.getInstance(EpochType.J2000)
+				.convert(jd, RA_J2000, DEC_J2000), BatchHJDConverter
+				.getInstance(EpochType.J2000).convert(jd, RA_J2000, DEC_J2000),
+				DELTA);
+	}
+
+	// Helpers
+
+	private void checkCorrectionVector(EpochType epoch, RAInfo ra, DecInfo dec) {
+		AbstractHJDConverter converter = AbstractHJDConverter
+				.getInstance(epoch);
+
+		double raRads = Math.toRadians(ra.toDegrees());
+		double decRads = Math.toRadians(dec.toDegrees());
+
+		for (double jd = 2415020.5; jd < 2460000; jd += 1234.567) {
+			double[] v = converter.correctionVector(jd);
+
+			double correction = Math.cos(decRads) * Math.cos(raRads) * v[0]
+					+ Math.cos(decRads) * Math.sin(raRads) * v[1]
+					+ Math.sin(decRads) * v[2];
+
+			assertEquals(converter.convert(jd, ra, dec), jd + correction,
+					DELTA);
+		}
+	}
+
+	private void checkBatch(EpochType epoch, RAInfo ra, DecInfo dec,
+			double[] jds, BatchHJDConverter batchConverter) {
+		AbstractHJDConverter converter = AbstractHJDConverter
+				.getInstance(epoch);
+
+		double[] hjds = new double[jds.length];
+		batchConverter.convert(jds, hjds, ra, dec);
+
+		for (int i = 0; i < jds.length; i++) {
+			assertEquals(converter.convert(jds[i], ra, dec), hjds[i], DELTA);
+		}
+	}
+
+	private double[] createJDs(double start, double days, int count) {
+		Random random = new Random(42);
+
+		double[] jds = new double[count];
+		for (int i = 0; i < count; i++) {
+			jds[i] = start + random.nextDouble() * days;
+		}
+
+		return jds;
+	}
+}
@@ -0,0 +1,159 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.commons.math.ArgumentOutsideDomainException;
+import org.apache.commons.math.FunctionEvaluationException;
+import org.apache.commons.math.analysis.polynomials.PolynomialFunction;
+import org.apache.commons.math.analysis.polynomials.PolynomialSplineFunction;
+
+/**
+ * Batch evaluable model function UTs.
+ */
+public class BatchFunctionTest extends TestCase {
+
+	private static final double DELTA = 1e-9;
+
+	public BatchFunctionTest(String name) {
+		super(name);
+	}
+
+	public void testPolynomial() throws FunctionEvaluationException {
+		double[] coeffs = { 2.5, -1.25, 0.5, 0.125 };
+		PolynomialFunction poly = new PolynomialFunction(coeffs);
+
+		double[] xs = { -3, -1.5, 0, 0.75, 2, 10 };
+		double[] ys = new double[xs.length];
+
+		new PolynomialBatchFunction(poly).values(xs, ys);
+
+		for (int i = 0; i < xs.length; i++) {
+			assertEquals(poly.value(xs[i]), ys[i], DELTA);
+			assertEquals(poly.value(xs[i]), PolynomialBatchFunction.evaluate(
+					coeffs, xs[i]), DELTA);
+		}
+	}
+
+	public void testPolynomialInPlace() throws FunctionEvaluationException {
+		PolynomialFunction poly = new PolynomialFunction(new double[] { 1, 2,
+				3 });
+
+		double[] xs = { -2, 0, 1, 4 };
+		double[] expected = new double[xs.length];
+		for (int i = 0; i < xs.length; i++) {
+			expected[i] = poly.value(xs[i]);
+		}
+
+		new PolynomialBatchFunction(poly).values(xs, xs);
+
+		for (int i = 0; i < xs.length; i++) {
+			assertEquals(expected[i], xs[i], DELTA);
+		}
+	}
+
+	public void testSplineAscending() throws FunctionEvaluationException {
+		PolynomialSplineFunction spline = createSpline();
+
+		double[] xs = { 0, 0.5, 1, 1.5, 2.25, 3 };
+		double[] ys = new double[xs.length];
+
+		new SplineBatchFunction(spline).values(xs, ys);
+
+		for (int i = 0; i < xs.length; i++) {
+			assertEquals(spline.value(xs[i]), ys[i], DELTA);
+		}
+	}
+
+	public void testSplineUnordered() throws FunctionEvaluationException {
+		PolynomialSplineFunction spline = createSpline();
+
+		double[] xs = { 2.75, 0.25, 1.5, 3, 0, 1.9 };
+		double[] ys = new double[xs.length];
+
+		new SplineBatchFunction(spline).values(xs, ys);
+
+		for (int i = 0; i < xs.length; i++) {
+			assertEquals(spline.value(xs[i]), ys[i], DELTA);
+		}
+	}
+
+	public void testSplineOutsideDomain() throws FunctionEvaluationException {
+		SplineBatchFunction spline = new SplineBatchFunction(createSpline());
+
+		try {
+			spline.values(new double[] { 1, 3.5 }, new double[2]);
+			fail();
+		} catch (ArgumentOutsideDomainException e) {
+			// Expected.
+		}
+	}
+
+	public void testHarmonicSum() {
+		double zeroPoint = 2450000;
+		double freq1 = 0.123;
+		double freq2 = 0.0271;
+
+		List<PeriodFitParameters> params = new ArrayList<PeriodFitParameters>();
+		params.add(new PeriodFitParameters(new Harmonic(freq1), 0, 0.5, -0.3,
+				7.5, zeroPoint));
+		params.add(new PeriodFitParameters(new Harmonic(freq1 * 2, 2), 0,
+				0.2, 0.1, 7.5, zeroPoint));
+		params.add(new PeriodFitParameters(new Harmonic(freq1 * 4, 4), 0,
+				-0.05, 0.07, 7.5, zeroPoint));
+		params.add(new PeriodFitParameters(new Harmonic(freq2), 0, 0.01,
+				0.02, 7.5, zeroPoint));
+
+		HarmonicSumFunction function = new HarmonicSumFunction(params);
+
+		double[] ts = new double[50];
+		for (int i = 0; i < ts.length; i++) {
+			ts[i] = zeroPoint + i * 3.7;
+		}
+
+		double[] ys = new double[ts.length];
+		function.values(ts, ys);
+
+		for (int i = 0; i < ts.length; i++) {
+			double expected = params.get(0).getConstantCoefficient();
+			for (PeriodFitParameters p : params) {
+				expected += p.toValue(ts[i]);
+			}
+
+			assertEquals(expected, ys[i], DELTA);
+			assertEquals(expected, function.value(ts[i]), DELTA);
+		}
+	}
+
+	// Helpers
+
+	private PolynomialSplineFunction createSpline() {
+		double[] knots = { 0, 1, 2, 3 };
+
+		PolynomialFunction[] polys = {
+				new PolynomialFunction(new double[] { 1, 2, -1 }),
+				new PolynomialFunction(new double[] { 2, 0, 0.5 }),
+				new PolynomialFunction(new double[] { 2.5, 1, -0.25, 0.1 }) };
+
+		return new PolynomialSplineFunction(knots, polys);
+	}
+}
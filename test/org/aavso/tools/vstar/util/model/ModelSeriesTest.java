@@ -0,0 +1,181 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.aavso.tools.vstar.data.DateInfo;
+import org.aavso.tools.vstar.data.Magnitude;
+import org.aavso.tools.vstar.data.SeriesType;
+import org.aavso.tools.vstar.data.ValidObservation;
+import org.aavso.tools.vstar.util.stats.PhaseCalcs;
+
+/**
+ * Model series UTs.
+ */
+public class ModelSeriesTest extends TestCase {
+
+	private final static double[] jds = { 2450001.5, 2450002, 2450003.5,
+			2450004.5, 2450005 };
+	private final static double[] fitMags = { 3, 3.5, 3.6, 3.2, 3.1 };
+	private final static double[] residualMags = { 0.1, -0.2, 0.05, 0, -0.1 };
+
+	private final static double EPOCH = 2450003.25;
+	private final static double PERIOD = 10;
+
+	public ModelSeriesTest(String name) {
+		super(name);
+	}
+
+	public void testPrimitiveAccessors() {
+		ModelSeries series = createSeries();
+
+		assertEquals(jds.length, series.getFit().size());
+		assertEquals(jds.length, series.getResiduals().size());
+
+		for (int i = 0; i < jds.length; i++) {
+			assertEquals(jds[i], series.getFit().getJD(i));
+			assertEquals(fitMags[i], series.getFit().getMag(i));
+			assertEquals(residualMags[i], series.getResiduals().getMag(i));
+			assertTrue(Double.isNaN(series.getFit().getStandardPhase(i)));
+		}
+	}
+
+	public void testObservationsCreatedOnDemand() {
+		ModelSeries series = createSeries();
+
+		ValidObservation ob = series.getFit().get(2);
+
+		assertEquals(jds[2], ob.getJD());
+		assertEquals(fitMags[2], ob.getMag());
+		assertEquals(0.0, ob.getMagnitude().getUncertainty());
+		assertEquals(SeriesType.Model, ob.getBand());
+		assertEquals("test", ob.getComments());
+
+		assertEquals(SeriesType.Residuals, series.getResiduals().get(2)
+				.getBand());
+
+		// The same instance is returned on subsequent requests.
+		assertSame(ob, series.getFit().get(2));
+		assertEquals(2, series.getFit().indexOf(ob));
+		assertTrue(series.getFit().contains(ob));
+		assertEquals(-1, series.getResiduals().indexOf(ob));
+	}
+
+	public void testIndexOfIsByIdentity() {
+		ModelSeries series = createSeries();
+
+		ValidObservation ob = new ValidObservation();
+		ob.setDateInfo(new DateInfo(jds[0]));
+		ob.setMagnitude(new Magnitude(fitMags[0], 0));
+
+		assertEquals(-1, series.getFit().indexOf(ob));
+	}
+
+	public void testPhases() {
+		ModelSeries series = createSeries();
+
+		// An observation created before phases are set is updated.
+		ValidObservation ob1 = series.getFit().get(1);
+
+		PhaseCalcs.setPhases(series.getFit(), EPOCH, PERIOD);
+
+		assertEquals(0.875, series.getFit().getStandardPhase(1));
+		assertEquals(-0.125, series.getFit().getPreviousCyclePhase(1));
+		assertEquals(0.875, ob1.getStandardPhase());
+		assertEquals(-0.125, ob1.getPreviousCyclePhase());
+
+		// An observation created after phases are set has them.
+		ValidObservation ob3 = series.getFit().get(3);
+		assertEquals(0.125, ob3.getStandardPhase());
+		assertEquals(-0.875, ob3.getPreviousCyclePhase());
+	}
+
+	public void testPhaseOrdered() {
+		ModelSeries series = createSeries();
+		series.setPhases(EPOCH, PERIOD);
+
+		ValidObservation ob = series.getFit().get(2);
+
+		ModelSeries phased = series.phaseOrdered();
+
+		// Standard phases: 0.825, 0.875, 0.025, 0.125, 0.175
+		int[] expectedOrder = { 2, 3, 4, 0, 1 };
+
+		for (int i = 0; i < expectedOrder.length; i++) {
+			assertEquals(jds[expectedOrder[i]], phased.getFit().getJD(i));
+			assertEquals(residualMags[expectedOrder[i]], phased
+					.getResiduals().getMag(i));
+		}
+
+		for (int i = 1; i < expectedOrder.length; i++) {
+			assertTrue(phased.getFit().getStandardPhase(i - 1) <= phased
+					.getFit().getStandardPhase(i));
+		}
+
+		// Observations are shared with the original series.
+		assertSame(ob, phased.getFit().get(0));
+		assertSame(series.getFit().get(4), phased.getFit().get(2));
+	}
+
+	public void testForModelWrapsObservationLists() {
+		List<ValidObservation> fit = createObservations(fitMags,
+				SeriesType.Model);
+		List<ValidObservation> residuals = createObservations(
+				residualMags, SeriesType.Residuals);
+
+		PhaseCalcs.setPhases(fit, EPOCH, PERIOD);
+
+		ModelSeries series = new ModelSeries(fit, residuals);
+
+		for (int i = 0; i < jds.length; i++) {
+			assertSame(fit.get(i), series.getFit().get(i));
+			assertEquals(jds[i], series.getFit().getJD(i));
+			assertEquals(fitMags[i], series.getFit().getMag(i));
+			assertEquals(fit.get(i).getStandardPhase(), series.getFit()
+					.getStandardPhase(i));
+			assertEquals(residualMags[i], series.getResiduals().getMag(i));
+		}
+
+		assertEquals(2, series.getFit().indexOf(fit.get(2)));
+	}
+
+	// Helpers
+
+	private ModelSeries createSeries() {
+		return new ModelSeries(jds, fitMags, jds, residualMags, "test");
+	}
+
+	private List<ValidObservation> createObservations(double[] mags,
+			SeriesType band) {
+		List<ValidObservation> obs = new ArrayList<ValidObservation>();
+
+		for (int i = 0; i < jds.length; i++) {
+			ValidObservation ob = new ValidObservation();
+			ob.setDateInfo(new DateInfo(jds[i]));
+			ob.setMagnitude(new Magnitude(mags[i], 0));
+			ob.setBand(band);
+			obs.add(ob);
+		}
+
+		return obs;
+	}
+}
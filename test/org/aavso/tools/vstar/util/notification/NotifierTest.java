@@ -0,0 +1,166 @@
+/**
+ * VStar: a statistical analysis tool for variable star data.
+ * Copyright (C) 2009  AAVSO (http://www.aavso.org/)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. 
+ */
+package org.aavso.tools.vstar.util.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Notifier batching, coalescing, asynchronous dispatch and metrics tests.
+ */
+public class NotifierTest extends TestCase {
+
+	public NotifierTest(String name) {
+		super(name);
+	}
+
+	public void testSynchronousDelivery() {
+		Notifier<Integer> notifier = new Notifier<Integer>();
+		RecordingListener listener = new RecordingListener();
+		notifier.addListener(listener);
+
+		notifier.notifyListeners(1);
+		notifier.notifyListeners(2);
+
+		assertEquals(2, listener.messages.size());
+		assertEquals(2, (int) listener.messages.get(1));
+	}
+
+	public void testBatchWithoutCoalescer() {
+		Notifier<Integer> notifier = new Notifier<Integer>();
+		RecordingListener listener = new RecordingListener();
+		notifier.addListener(listener);
+
+		notifier.beginBatch();
+		notifier.notifyListeners(1);
+		notifier.notifyListeners(2);
+		assertTrue(listener.messages.isEmpty());
+		notifier.endBatch();
+
+		assertEquals(2, listener.messages.size());
+		assertEquals(1, (int) listener.messages.get(0));
+	}
+
+	public void testNestedBatchWithLastMessageCoalescer() {
+		Notifier<Integer> notifier = new Notifier<Integer>();
+		notifier.setCoalescer(new LastMessageCoalescer<Integer>());
+		RecordingListener listener = new RecordingListener();
+		notifier.addListener(listener);
+
+		notifier.beginBatch();
+		notifier.notifyListeners(1);
+		notifier.beginBatch();
+		notifier.notifyListeners(2);
+		notifier.endBatch();
+		assertTrue(listener.messages.isEmpty());
+		notifier.notifyListeners(3);
+		notifier.endBatch();
+
+		assertEquals(1, listener.messages.size());
+		assertEquals(3, (int) listener.messages.get(0));
+
+		NotifierMetrics metrics = notifier.getMetrics();
+		assertEquals(1, metrics.getListenerCount());
+		assertEquals(3, metrics.getSentCount());
+		assertEquals(1, metrics.getDispatchCount());
+	}
+
+	public void testBoundedHistory() {
+		Notifier<Integer> notifier = new Notifier<Integer>();
+		notifier.setHistoryCapacity(2);
+
+		for (int i = 1; i <= 5; i++) {
+			notifier.notifyListeners(i);
+		}
+
+		RecordingListener listener = new RecordingListener();
+		notifier.addListener(listener, true);
+
+		assertEquals(2, listener.messages.size());
+		assertEquals(4, (int) listener.messages.get(0));
+		assertEquals(5, (int) listener.messages.get(1));
+	}
+
+	public void testAsynchronousDelivery() throws InterruptedException {
+		final int n = 100;
+		final CountDownLatch latch = new CountDownLatch(n);
+		final List<Integer> received = new ArrayList<Integer>();
+		final Thread testThread = Thread.currentThread();
+		final boolean[] onTestThread = { false };
+
+		NotificationDispatcher dispatcher = new NotificationDispatcher(
+				"test dispatcher", 4);
+
+		Notifier<Integer> notifier = new Notifier<Integer>();
+		notifier.setDispatcher(dispatcher);
+		notifier.addListener(new Listener<Integer>() {
+			@Override
+			public void update(Integer info) {
+				if (Thread.currentThread() == testThread) {
+					onTestThread[0] = true;
+				}
+				synchronized (received) {
+					received.add(info);
+				}
+				latch.countDown();
+			}
+
+			@Override
+			public boolean canBeRemoved() {
+				return true;
+			}
+		});
+
+		try {
+			for (int i = 0; i < n; i++) {
+				notifier.notifyListeners(i);
+			}
+
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+			assertFalse(onTestThread[0]);
+
+			synchronized (received) {
+				for (int i = 0; i < n; i++) {
+					assertEquals(i, (int) received.get(i));
+				}
+			}
+		} finally {
+			dispatcher.shutdown();
+		}
+	}
+
+	// Helpers
+
+	private static class RecordingListener implements Listener<Integer> {
+		List<Integer> messages = new ArrayList<Integer>();
+
+		@Override
+		public void update(Integer info) {
+			messages.add(info);
+		}
+
+		@Override
+		public boolean canBeRemoved() {
+			return true;
+		}
+	}
+}